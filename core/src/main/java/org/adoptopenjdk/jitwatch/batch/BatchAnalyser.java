@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.batch;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.HEADLESS_SEPARATOR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.adoptopenjdk.jitwatch.core.IJITListener;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.export.ChannelTextWriter;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
+import org.adoptopenjdk.jitwatch.parser.ILogParser;
+import org.adoptopenjdk.jitwatch.parser.ParserFactory;
+import org.adoptopenjdk.jitwatch.report.Report;
+import org.adoptopenjdk.jitwatch.report.comparator.ScoreComparator;
+import org.adoptopenjdk.jitwatch.report.suggestion.SuggestionWalker;
+import org.adoptopenjdk.jitwatch.util.HeadlessUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Parses many HotSpot logs in parallel, one parser and model per log.
+ *
+ * Each log's report is written as soon as it has been parsed and the model
+ * is then dropped so memory use is bounded by the number of worker threads
+ * rather than the number of logs. Class loading and bytecode parsing are
+ * shared between workers via ClassUtil.initialiseShared() and
+ * BytecodeLoader.enableSharedBytecodeCache() which the caller sets up.
+ */
+public class BatchAnalyser
+{
+	private static final Logger logger = LoggerFactory.getLogger(BatchAnalyser.class);
+
+	public static final String SUMMARY_FILENAME = "batch-summary.csv";
+
+	private static final String REPORT_SUFFIX = ".csv";
+
+	private final List<String> classLocations;
+	private final File outputDir;
+	private final int threads;
+
+	public BatchAnalyser(List<String> classLocations, File outputDir, int threads)
+	{
+		this.classLocations = classLocations;
+		this.outputDir = outputDir;
+		this.threads = Math.max(1, threads);
+	}
+
+	/*
+	 * Accepts a directory (all files within it) or a glob such as
+	 * /logs/app-*.log where the glob applies to the file name only
+	 */
+	public static List<File> findLogFiles(String pathOrGlob) throws IOException
+	{
+		List<File> result = new ArrayList<>();
+
+		Path path = Paths.get(pathOrGlob);
+
+		Path dir;
+		PathMatcher matcher = null;
+
+		if (Files.isDirectory(path))
+		{
+			dir = path;
+		}
+		else
+		{
+			dir = path.getParent();
+
+			if (dir == null)
+			{
+				dir = Paths.get(".");
+			}
+
+			matcher = FileSystems.getDefault().getPathMatcher("glob:" + path.getFileName().toString());
+		}
+
+		if (!Files.isDirectory(dir))
+		{
+			return result;
+		}
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir))
+		{
+			for (Path entry : stream)
+			{
+				if (Files.isRegularFile(entry) && (matcher == null || matcher.matches(entry.getFileName())))
+				{
+					result.add(entry.toFile());
+				}
+			}
+		}
+
+		Collections.sort(result);
+
+		return result;
+	}
+
+	public List<BatchLogResult> analyse(List<File> logFiles) throws InterruptedException
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, logFiles.size())));
+
+		List<Future<BatchLogResult>> futures = new ArrayList<>(logFiles.size());
+
+		try
+		{
+			for (final File logFile : logFiles)
+			{
+				futures.add(executor.submit(new Callable<BatchLogResult>()
+				{
+					@Override
+					public BatchLogResult call()
+					{
+						return analyseLog(logFile);
+					}
+				}));
+			}
+
+			List<BatchLogResult> results = new ArrayList<>(logFiles.size());
+
+			for (int i = 0; i < futures.size(); i++)
+			{
+				try
+				{
+					results.add(futures.get(i).get());
+				}
+				catch (ExecutionException ee)
+				{
+					BatchLogResult failed = new BatchLogResult(logFiles.get(i));
+					failed.setFailureMessage(String.valueOf(ee.getCause()));
+					results.add(failed);
+				}
+			}
+
+			return results;
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	private BatchLogResult analyseLog(File logFile)
+	{
+		BatchLogResult result = new BatchLogResult(logFile);
+
+		BatchListener listener = new BatchListener();
+
+		JITWatchConfig config = new JITWatchConfig();
+		config.setClassLocations(new ArrayList<>(classLocations));
+		config.setCompactParseTree(true);
+
+		ILogParser parser = ParserFactory.getParser(listener, logFile);
+		parser.setConfig(config);
+
+		long start = System.currentTimeMillis();
+
+		try
+		{
+			parser.processLogFile(logFile, listener);
+
+			result.setParseMillis(System.currentTimeMillis() - start);
+			result.setParseErrors(listener.getErrorCount());
+
+			IReadOnlyJITDataModel model = parser.getModel();
+
+			result.setStats(model.getJITStats());
+
+			writeReport(logFile, model, result);
+
+			result.setSuccess(true);
+		}
+		catch (Exception e)
+		{
+			logger.error("Could not analyse {}", logFile, e);
+
+			result.setParseMillis(System.currentTimeMillis() - start);
+			result.setFailureMessage(e.toString());
+		}
+		finally
+		{
+			parser.discardParsedLogs();
+		}
+
+		return result;
+	}
+
+	private void writeReport(File logFile, IReadOnlyJITDataModel model, BatchLogResult result) throws IOException
+	{
+		SuggestionWalker walker = new SuggestionWalker(model);
+
+		List<Report> suggestions = walker.getReports(new ScoreComparator());
+
+		result.setSuggestions(suggestions.size());
+
+		try (ChannelTextWriter out = ChannelTextWriter.toFile(getReportFile(logFile).toPath()))
+		{
+			out.append("sep=").append(HEADLESS_SEPARATOR).append(S_NEWLINE);
+
+			HeadlessUtil.writeModel(out, model, true);
+			out.append(S_NEWLINE);
+
+			HeadlessUtil.writeCompilerThreads(out, model);
+			out.append(S_NEWLINE);
+
+			HeadlessUtil.writeSuggestions(out, suggestions);
+		}
+	}
+
+	public File getReportFile(File logFile)
+	{
+		return new File(outputDir, logFile.getName() + REPORT_SUFFIX);
+	}
+
+	public File writeSummary(List<BatchLogResult> results) throws IOException
+	{
+		File summaryFile = new File(outputDir, SUMMARY_FILENAME);
+
+		Files.write(summaryFile.toPath(), summaryToString(results).getBytes());
+
+		return summaryFile;
+	}
+
+	public static String summaryToString(List<BatchLogResult> results)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("sep=").append(HEADLESS_SEPARATOR).append(S_NEWLINE);
+
+		builder.append("Log").append(HEADLESS_SEPARATOR);
+		builder.append("Status").append(HEADLESS_SEPARATOR);
+		builder.append("Parse Time (ms)").append(HEADLESS_SEPARATOR);
+		builder.append("Parse Errors").append(HEADLESS_SEPARATOR);
+		builder.append("Classes").append(HEADLESS_SEPARATOR);
+		builder.append("Methods").append(HEADLESS_SEPARATOR);
+		builder.append("Constructors").append(HEADLESS_SEPARATOR);
+		builder.append("Compiled").append(HEADLESS_SEPARATOR);
+		builder.append("C1").append(HEADLESS_SEPARATOR);
+		builder.append("C2").append(HEADLESS_SEPARATOR);
+		builder.append("OSR").append(HEADLESS_SEPARATOR);
+		builder.append("C2N").append(HEADLESS_SEPARATOR);
+		builder.append("Native Bytes").append(HEADLESS_SEPARATOR);
+		builder.append("Total Compile Time (ms)").append(HEADLESS_SEPARATOR);
+		builder.append("Compiler Threads").append(HEADLESS_SEPARATOR);
+		builder.append("Suggestions").append(S_NEWLINE);
+
+		long[] totals = new long[14];
+
+		int succeeded = 0;
+
+		for (BatchLogResult result : results)
+		{
+			builder.append(result.getLogFile().getName()).append(HEADLESS_SEPARATOR);
+			builder.append(result.isSuccess() ? "OK" : "FAILED " + result.getFailureMessage()).append(HEADLESS_SEPARATOR);
+
+			long[] counts = new long[] { result.getParseMillis(), result.getParseErrors(), result.getCountClass(),
+					result.getCountMethod(), result.getCountConstructor(), result.getCompiledMethods(), result.getCountC1(),
+					result.getCountC2(), result.getCountOSR(), result.getCountC2N(), result.getNativeBytes(),
+					result.getTotalCompileTime(), result.getCompilerThreads(), result.getSuggestions() };
+
+			appendCounts(builder, counts);
+
+			for (int i = 0; i < counts.length; i++)
+			{
+				totals[i] += counts[i];
+			}
+
+			if (result.isSuccess())
+			{
+				succeeded++;
+			}
+		}
+
+		builder.append("TOTAL").append(HEADLESS_SEPARATOR);
+		builder.append(succeeded).append("/").append(results.size()).append(" OK").append(HEADLESS_SEPARATOR);
+
+		appendCounts(builder, totals);
+
+		return builder.toString();
+	}
+
+	private static void appendCounts(StringBuilder builder, long[] counts)
+	{
+		for (int i = 0; i < counts.length; i++)
+		{
+			builder.append(counts[i]);
+
+			if (i < counts.length - 1)
+			{
+				builder.append(HEADLESS_SEPARATOR);
+			}
+		}
+
+		builder.append(S_NEWLINE);
+	}
+
+	private static class BatchListener implements IJITListener, ILogParseErrorListener
+	{
+		private int errorCount;
+
+		@Override
+		public void handleLogEntry(String entry)
+		{
+		}
+
+		@Override
+		public void handleErrorEntry(String entry)
+		{
+			errorCount++;
+		}
+
+		@Override
+		public void handleError(String title, String body)
+		{
+			errorCount++;
+		}
+
+		@Override
+		public void handleJITEvent(JITEvent event)
+		{
+		}
+
+		@Override
+		public void handleReadStart()
+		{
+		}
+
+		@Override
+		public void handleReadComplete()
+		{
+		}
+
+		public int getErrorCount()
+		{
+			return errorCount;
+		}
+	}
+}
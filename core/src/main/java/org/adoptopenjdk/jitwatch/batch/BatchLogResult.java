@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.batch;
+
+import java.io.File;
+
+import org.adoptopenjdk.jitwatch.model.JITStats;
+
+/*
+ * Summary of one log in a batch run. Holds only counters so the parsed
+ * model can be discarded as soon as its report has been written.
+ */
+public class BatchLogResult
+{
+	private final File logFile;
+
+	private boolean success;
+	private String failureMessage;
+
+	private long parseMillis;
+	private int parseErrors;
+
+	private long countClass;
+	private long countMethod;
+	private long countConstructor;
+	private long compiledMethods;
+	private long countC1;
+	private long countC2;
+	private long countC2N;
+	private long countOSR;
+	private long nativeBytes;
+	private long totalCompileTime;
+	private long compilerThreads;
+	private int suggestions;
+
+	public BatchLogResult(File logFile)
+	{
+		this.logFile = logFile;
+	}
+
+	public void setStats(JITStats stats)
+	{
+		countClass = stats.getCountClass();
+		countMethod = stats.getCountMethod();
+		countConstructor = stats.getCountConstructor();
+		compiledMethods = stats.getTotalCompiledMethods();
+		countC1 = stats.getCountC1();
+		countC2 = stats.getCountC2();
+		countC2N = stats.getCountC2N();
+		countOSR = stats.getCountOSR();
+		nativeBytes = stats.getNativeBytes();
+		totalCompileTime = stats.getTotalCompileTime();
+		compilerThreads = stats.getCountCompilerThreads();
+	}
+
+	public File getLogFile()
+	{
+		return logFile;
+	}
+
+	public boolean isSuccess()
+	{
+		return success;
+	}
+
+	public void setSuccess(boolean success)
+	{
+		this.success = success;
+	}
+
+	public String getFailureMessage()
+	{
+		return failureMessage;
+	}
+
+	public void setFailureMessage(String failureMessage)
+	{
+		this.failureMessage = failureMessage;
+	}
+
+	public long getParseMillis()
+	{
+		return parseMillis;
+	}
+
+	public void setParseMillis(long parseMillis)
+	{
+		this.parseMillis = parseMillis;
+	}
+
+	public int getParseErrors()
+	{
+		return parseErrors;
+	}
+
+	public void setParseErrors(int parseErrors)
+	{
+		this.parseErrors = parseErrors;
+	}
+
+	public int getSuggestions()
+	{
+		return suggestions;
+	}
+
+	public void setSuggestions(int suggestions)
+	{
+		this.suggestions = suggestions;
+	}
+
+	public long getCountClass()
+	{
+		return countClass;
+	}
+
+	public long getCountMethod()
+	{
+		return countMethod;
+	}
+
+	public long getCountConstructor()
+	{
+		return countConstructor;
+	}
+
+	public long getCompiledMethods()
+	{
+		return compiledMethods;
+	}
+
+	public long getCountC1()
+	{
+		return countC1;
+	}
+
+	public long getCountC2()
+	{
+		return countC2;
+	}
+
+	public long getCountC2N()
+	{
+		return countC2N;
+	}
+
+	public long getCountOSR()
+	{
+		return countOSR;
+	}
+
+	public long getNativeBytes()
+	{
+		return nativeBytes;
+	}
+
+	public long getTotalCompileTime()
+	{
+		return totalCompileTime;
+	}
+
+	public long getCompilerThreads()
+	{
+		return compilerThreads;
+	}
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Random;
+
+/*
+ * Main class of a forked benchmark JVM. Calls a no-argument method of the
+ * Sandbox class in a loop for a number of timed warm-up and measurement
+ * iterations, sinking each return value into a Blackhole. Every 1024th call
+ * is timed individually and kept in a fixed size reservoir for latency
+ * percentiles.
+ *
+ * Results are printed to stdout as lines starting with OUTPUT_PREFIX which
+ * BenchmarkResult parses. This class runs on the Sandbox classpath so only
+ * JDK classes may be used here.
+ */
+public final class BenchmarkHarness
+{
+	public static final String PROPERTY_CLASS = "jitwatch.benchmark.class";
+	public static final String PROPERTY_METHOD = "jitwatch.benchmark.method";
+	public static final String PROPERTY_WARMUP_ITERATIONS = "jitwatch.benchmark.warmup";
+	public static final String PROPERTY_ITERATIONS = "jitwatch.benchmark.iterations";
+	public static final String PROPERTY_ITERATION_MILLIS = "jitwatch.benchmark.millis";
+
+	public static final String OUTPUT_PREFIX = "# JITWatchBenchmark ";
+
+	public static final String PHASE_WARMUP = "warmup";
+	public static final String PHASE_MEASURE = "measure";
+
+	public static final String LINE_ITERATION = "iteration";
+	public static final String LINE_SAMPLES = "samples";
+	public static final String LINE_ERROR = "error";
+
+	private static final int SAMPLE_MASK = 1023;
+	private static final int RESERVOIR_SIZE = 4096;
+
+	// a constant MethodHandle is inlined through by the JIT like a direct call
+	private static final MethodHandle TARGET;
+	private static final String TARGET_ERROR;
+
+	private static volatile boolean iterationDone;
+
+	static
+	{
+		MethodHandle target = null;
+		String error = null;
+
+		try
+		{
+			target = lookupTarget(System.getProperty(PROPERTY_CLASS), System.getProperty(PROPERTY_METHOD, "benchmark"));
+		}
+		catch (Throwable t)
+		{
+			error = t.toString();
+		}
+
+		TARGET = target;
+		TARGET_ERROR = error;
+	}
+
+	private BenchmarkHarness()
+	{
+	}
+
+	public static void main(String[] args) throws Throwable
+	{
+		if (TARGET == null)
+		{
+			System.out.println(OUTPUT_PREFIX + LINE_ERROR + " " + TARGET_ERROR);
+			System.exit(1);
+		}
+
+		int warmupIterations = Integer.getInteger(PROPERTY_WARMUP_ITERATIONS, 5);
+		int iterations = Integer.getInteger(PROPERTY_ITERATIONS, 5);
+		long iterationMillis = Integer.getInteger(PROPERTY_ITERATION_MILLIS, 1000);
+
+		Blackhole blackhole = new Blackhole();
+
+		for (int i = 0; i < warmupIterations; i++)
+		{
+			runIteration(PHASE_WARMUP, i, iterationMillis, blackhole, null);
+		}
+
+		Reservoir reservoir = new Reservoir(RESERVOIR_SIZE);
+
+		for (int i = 0; i < iterations; i++)
+		{
+			runIteration(PHASE_MEASURE, i, iterationMillis, blackhole, reservoir);
+		}
+
+		System.out.println(OUTPUT_PREFIX + LINE_SAMPLES + reservoir.toString());
+
+		// keep the sink reachable until the end of the run
+		if (blackhole.getSink() == blackhole)
+		{
+			System.out.println();
+		}
+	}
+
+	static MethodHandle lookupTarget(String className, String methodName) throws ReflectiveOperationException
+	{
+		if (className == null)
+		{
+			throw new ClassNotFoundException("No benchmark class set in " + PROPERTY_CLASS);
+		}
+
+		Class<?> clazz = Class.forName(className);
+
+		Method method = null;
+
+		for (Method candidate : clazz.getDeclaredMethods())
+		{
+			if (candidate.getName().equals(methodName) && candidate.getParameterTypes().length == 0)
+			{
+				method = candidate;
+				break;
+			}
+		}
+
+		if (method == null)
+		{
+			throw new NoSuchMethodException("No method " + methodName + "() in " + className);
+		}
+
+		method.setAccessible(true);
+
+		MethodHandle handle = MethodHandles.lookup().unreflect(method);
+
+		if (!Modifier.isStatic(method.getModifiers()))
+		{
+			Constructor<?> constructor = clazz.getDeclaredConstructor();
+			constructor.setAccessible(true);
+
+			handle = handle.bindTo(constructor.newInstance());
+		}
+
+		// boxes primitive results and returns null for void methods
+		return handle.asType(MethodType.methodType(Object.class));
+	}
+
+	private static void runIteration(String phase, int index, final long iterationMillis, Blackhole blackhole,
+			Reservoir reservoir) throws Throwable
+	{
+		iterationDone = false;
+
+		Thread timer = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					Thread.sleep(iterationMillis);
+				}
+				catch (InterruptedException ie)
+				{
+				}
+
+				iterationDone = true;
+			}
+		}, "JITWatchBenchmarkTimer");
+
+		timer.setDaemon(true);
+
+		long operations = 0;
+
+		long start = System.nanoTime();
+
+		timer.start();
+
+		while (!iterationDone)
+		{
+			if ((operations & SAMPLE_MASK) == 0)
+			{
+				long callStart = System.nanoTime();
+
+				blackhole.consume((Object) TARGET.invokeExact());
+
+				long callNanos = System.nanoTime() - callStart;
+
+				if (reservoir != null)
+				{
+					reservoir.add(callNanos);
+				}
+			}
+			else
+			{
+				blackhole.consume((Object) TARGET.invokeExact());
+			}
+
+			operations++;
+		}
+
+		long elapsedNanos = System.nanoTime() - start;
+
+		timer.join();
+
+		System.out.println(OUTPUT_PREFIX + LINE_ITERATION + " " + phase + " " + index + " " + operations + " " + elapsedNanos);
+	}
+
+	/*
+	 * Algorithm R reservoir sampling so long iterations keep a uniform sample
+	 * of call latencies in bounded memory
+	 */
+	static final class Reservoir
+	{
+		private final long[] samples;
+		private final Random random = new Random(42);
+
+		private long seen;
+
+		Reservoir(int capacity)
+		{
+			samples = new long[capacity];
+		}
+
+		void add(long value)
+		{
+			if (seen < samples.length)
+			{
+				samples[(int) seen] = value;
+			}
+			else
+			{
+				long slot = (long) (random.nextDouble() * (seen + 1));
+
+				if (slot < samples.length)
+				{
+					samples[(int) slot] = value;
+				}
+			}
+
+			seen++;
+		}
+
+		int size()
+		{
+			return (int) Math.min(seen, samples.length);
+		}
+
+		@Override
+		public String toString()
+		{
+			StringBuilder builder = new StringBuilder();
+
+			int size = size();
+
+			for (int i = 0; i < size; i++)
+			{
+				builder.append(' ').append(samples[i]);
+			}
+
+			return builder.toString();
+		}
+	}
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.benchmark;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Throughput and latency of a benchmark run merged across its forks.
+ * Throughput is the mean of the measured iterations of every fork, latency
+ * percentiles come from the merged reservoir samples of every fork.
+ */
+public class BenchmarkResult
+{
+	public static final double[] PERCENTILES = new double[] { 50, 90, 99, 99.9 };
+
+	private final BenchmarkSettings settings;
+
+	private final List<Double> iterationScores = new ArrayList<>();
+
+	private long[] samples = new long[0];
+
+	private final List<String> errors = new ArrayList<>();
+
+	private int forkCount;
+
+	private boolean sorted = true;
+
+	public BenchmarkResult(BenchmarkSettings settings)
+	{
+		this.settings = settings;
+	}
+
+	public BenchmarkSettings getSettings()
+	{
+		return settings;
+	}
+
+	/*
+	 * Adds the stdout of one forked harness JVM, returns false if it contained
+	 * no measured iterations
+	 */
+	public boolean addForkOutput(String output)
+	{
+		boolean measured = false;
+
+		if (output == null)
+		{
+			return false;
+		}
+
+		String[] lines = output.split(S_NEWLINE);
+
+		for (String line : lines)
+		{
+			line = line.trim();
+
+			if (!line.startsWith(BenchmarkHarness.OUTPUT_PREFIX.trim()))
+			{
+				continue;
+			}
+
+			String content = line.substring(BenchmarkHarness.OUTPUT_PREFIX.trim().length()).trim();
+
+			String[] parts = content.split(" +");
+
+			try
+			{
+				switch (parts[0])
+				{
+				case BenchmarkHarness.LINE_ITERATION:
+					if (parts.length == 5 && BenchmarkHarness.PHASE_MEASURE.equals(parts[1]))
+					{
+						long operations = Long.parseLong(parts[3]);
+						long elapsedNanos = Long.parseLong(parts[4]);
+
+						if (elapsedNanos > 0)
+						{
+							iterationScores.add(operations * 1_000_000_000d / elapsedNanos);
+							measured = true;
+						}
+					}
+					break;
+				case BenchmarkHarness.LINE_SAMPLES:
+					addSamples(parts);
+					break;
+				case BenchmarkHarness.LINE_ERROR:
+					errors.add(content.substring(BenchmarkHarness.LINE_ERROR.length()).trim());
+					break;
+				default:
+					break;
+				}
+			}
+			catch (NumberFormatException nfe)
+			{
+				errors.add("Could not parse benchmark output: " + line);
+			}
+		}
+
+		forkCount++;
+
+		return measured;
+	}
+
+	private void addSamples(String[] parts)
+	{
+		int offset = samples.length;
+
+		samples = Arrays.copyOf(samples, offset + parts.length - 1);
+
+		for (int i = 1; i < parts.length; i++)
+		{
+			samples[offset + i - 1] = Long.parseLong(parts[i]);
+		}
+
+		sorted = false;
+	}
+
+	public int getForkCount()
+	{
+		return forkCount;
+	}
+
+	public int getIterationCount()
+	{
+		return iterationScores.size();
+	}
+
+	public int getSampleCount()
+	{
+		return samples.length;
+	}
+
+	public List<String> getErrors()
+	{
+		return errors;
+	}
+
+	public boolean hasScore()
+	{
+		return !iterationScores.isEmpty();
+	}
+
+	/*
+	 * Mean operations per second over all measured iterations
+	 */
+	public double getScore()
+	{
+		if (iterationScores.isEmpty())
+		{
+			return 0;
+		}
+
+		double total = 0;
+
+		for (double score : iterationScores)
+		{
+			total += score;
+		}
+
+		return total / iterationScores.size();
+	}
+
+	/*
+	 * Sample standard deviation of the iteration scores
+	 */
+	public double getScoreError()
+	{
+		int count = iterationScores.size();
+
+		if (count < 2)
+		{
+			return 0;
+		}
+
+		double mean = getScore();
+
+		double sumSquares = 0;
+
+		for (double score : iterationScores)
+		{
+			double diff = score - mean;
+			sumSquares += diff * diff;
+		}
+
+		return Math.sqrt(sumSquares / (count - 1));
+	}
+
+	/*
+	 * Nearest-rank percentile of the sampled call latencies in nanoseconds
+	 */
+	public long getPercentile(double percentile)
+	{
+		if (samples.length == 0)
+		{
+			return 0;
+		}
+
+		if (!sorted)
+		{
+			Arrays.sort(samples);
+			sorted = true;
+		}
+
+		int rank = (int) Math.ceil(percentile / 100d * samples.length);
+
+		rank = Math.max(1, Math.min(samples.length, rank));
+
+		return samples[rank - 1];
+	}
+
+	public long getMaxLatency()
+	{
+		return getPercentile(100);
+	}
+
+	/*
+	 * Percentage change in throughput against a previous result, positive is
+	 * faster
+	 */
+	public double getScoreDelta(BenchmarkResult previous)
+	{
+		if (previous == null || !previous.hasScore() || previous.getScore() == 0)
+		{
+			return 0;
+		}
+
+		return (getScore() - previous.getScore()) * 100d / previous.getScore();
+	}
+
+	public String summaryToString(BenchmarkResult previous)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("Benchmark ").append(settings).append(S_NEWLINE);
+
+		if (!hasScore())
+		{
+			builder.append("No measured iterations").append(S_NEWLINE);
+		}
+		else
+		{
+			builder.append(String.format(Locale.ENGLISH, "Throughput: %.1f ops/s +- %.1f (%d iterations, %d forks)", getScore(),
+					getScoreError(), getIterationCount(), forkCount));
+
+			if (previous != null && previous.hasScore())
+			{
+				builder.append(String.format(Locale.ENGLISH, " %+.2f%% vs previous %.1f ops/s", getScoreDelta(previous),
+						previous.getScore()));
+			}
+
+			builder.append(S_NEWLINE);
+
+			builder.append("Latency ns (").append(samples.length).append(" samples):");
+
+			for (double percentile : PERCENTILES)
+			{
+				builder.append(C_SPACE).append("p").append(formatPercentile(percentile)).append('=').append(getPercentile(percentile));
+			}
+
+			builder.append(C_SPACE).append("max=").append(getMaxLatency()).append(S_NEWLINE);
+		}
+
+		for (String error : errors)
+		{
+			builder.append("Error: ").append(error).append(S_NEWLINE);
+		}
+
+		return builder.toString();
+	}
+
+	private static String formatPercentile(double percentile)
+	{
+		if (percentile == Math.rint(percentile))
+		{
+			return Long.toString((long) percentile);
+		}
+
+		return Double.toString(percentile);
+	}
+}
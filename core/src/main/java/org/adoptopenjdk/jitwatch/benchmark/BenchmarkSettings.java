@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.benchmark;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+
+public class BenchmarkSettings
+{
+	private final String methodName;
+	private final int warmupIterations;
+	private final int iterations;
+	private final int iterationMillis;
+	private final int forks;
+
+	public BenchmarkSettings(String methodName, int warmupIterations, int iterations, int iterationMillis, int forks)
+	{
+		this.methodName = methodName;
+		this.warmupIterations = Math.max(0, warmupIterations);
+		this.iterations = Math.max(1, iterations);
+		this.iterationMillis = Math.max(1, iterationMillis);
+		this.forks = Math.max(1, forks);
+	}
+
+	public static BenchmarkSettings fromConfig(JITWatchConfig config)
+	{
+		return new BenchmarkSettings(config.getBenchmarkMethod(), config.getBenchmarkWarmupIterations(),
+				config.getBenchmarkIterations(), config.getBenchmarkIterationMillis(), config.getBenchmarkForks());
+	}
+
+	public String getMethodName()
+	{
+		return methodName;
+	}
+
+	public int getWarmupIterations()
+	{
+		return warmupIterations;
+	}
+
+	public int getIterations()
+	{
+		return iterations;
+	}
+
+	public int getIterationMillis()
+	{
+		return iterationMillis;
+	}
+
+	public int getForks()
+	{
+		return forks;
+	}
+
+	/*
+	 * Approximate wall time of all forks excluding JVM startup
+	 */
+	public long getEstimatedMillis()
+	{
+		return (long) forks * (warmupIterations + iterations) * iterationMillis;
+	}
+
+	public void addSystemProperties(List<String> options, String fqClassName)
+	{
+		options.add("-D" + BenchmarkHarness.PROPERTY_CLASS + "=" + fqClassName);
+		options.add("-D" + BenchmarkHarness.PROPERTY_METHOD + "=" + methodName);
+		options.add("-D" + BenchmarkHarness.PROPERTY_WARMUP_ITERATIONS + "=" + warmupIterations);
+		options.add("-D" + BenchmarkHarness.PROPERTY_ITERATIONS + "=" + iterations);
+		options.add("-D" + BenchmarkHarness.PROPERTY_ITERATION_MILLIS + "=" + iterationMillis);
+	}
+
+	@Override
+	public String toString()
+	{
+		return methodName + "() " + forks + " forks x (" + warmupIterations + " warm-up + " + iterations + " measured) x "
+				+ iterationMillis + "ms";
+	}
+}
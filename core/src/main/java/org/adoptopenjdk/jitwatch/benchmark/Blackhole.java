@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.benchmark;
+
+/*
+ * Sinks benchmark results so the JIT cannot prove them unused and remove the
+ * work that produced them. Every value takes part in a test the compiler
+ * cannot fold away but the guarded store becomes exponentially rarer as the
+ * mask widens so the sink adds no measurable cost. Loaded by the forked
+ * benchmark JVM so only JDK classes may be used here.
+ */
+public final class Blackhole
+{
+	private volatile Object sink;
+
+	private int tlr;
+	private int tlrMask;
+
+	public Blackhole()
+	{
+		tlr = (int) System.nanoTime();
+		tlrMask = 1;
+	}
+
+	public void consume(Object obj)
+	{
+		int nextTlr = tlr * 1664525 + 1013904223;
+
+		tlr = nextTlr;
+
+		if ((nextTlr & tlrMask) == 0)
+		{
+			sink = obj;
+			tlrMask = (tlrMask << 1) + 1;
+		}
+	}
+
+	public Object getSink()
+	{
+		return sink;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.chain;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+
+/*
+ * Shares built call trees between the compile chain view and the inlining
+ * reports so a Compilation's parse tags are walked and its callees resolved
+ * only once.
+ *
+ * Each model owns one cache so trees never outlive their model and models
+ * parsed in parallel do not share a lock.
+ *
+ * The most recently used trees are held strongly up to MAX_RECENT_TREES.
+ * Older trees are only weakly referenced and survive while something else
+ * (e.g. an open compile chain view) still holds them.
+ */
+public final class CompileChainCache
+{
+	public static final int MAX_RECENT_TREES = 64;
+
+	private final IReadOnlyJITDataModel model;
+
+	private final Map<Compilation, CompileNode> recentTrees = new LinkedHashMap<Compilation, CompileNode>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Compilation, CompileNode> eldest)
+		{
+			return size() > MAX_RECENT_TREES;
+		}
+	};
+
+	private final Map<Compilation, WeakReference<CompileNode>> weakTrees = new WeakHashMap<>();
+
+	private long hitCount;
+
+	private long missCount;
+
+	public CompileChainCache(IReadOnlyJITDataModel model)
+	{
+		this.model = model;
+	}
+
+	public synchronized CompileNode getCallTree(Compilation compilation)
+	{
+		if (compilation == null)
+		{
+			return null;
+		}
+
+		CompileNode root = recentTrees.get(compilation);
+
+		if (root == null)
+		{
+			WeakReference<CompileNode> ref = weakTrees.get(compilation);
+
+			if (ref != null)
+			{
+				root = ref.get();
+			}
+		}
+
+		// Compilation equality is by member and index so check identity
+		if (root != null && root.getCompilation() == compilation)
+		{
+			hitCount++;
+		}
+		else
+		{
+			missCount++;
+
+			root = new CompileChainWalker(model).buildCallTree(compilation);
+
+			if (root == null)
+			{
+				return null;
+			}
+
+			weakTrees.put(compilation, new WeakReference<>(root));
+		}
+
+		recentTrees.put(compilation, root);
+
+		return root;
+	}
+
+	public synchronized void clear()
+	{
+		recentTrees.clear();
+		weakTrees.clear();
+	}
+
+	public synchronized int size()
+	{
+		return weakTrees.size();
+	}
+
+	public synchronized long getHitCount()
+	{
+		return hitCount;
+	}
+
+	public synchronized long getMissCount()
+	{
+		return missCount;
+	}
+}
@@ -5,6 +5,7 @@
  */
 package org.adoptopenjdk.jitwatch.chain;
 
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COUNT;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ID;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NAME;
@@ -32,8 +33,7 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_HOT_THROW;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_VIRTUAL_CALL;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CAST_UP;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 import org.adoptopenjdk.jitwatch.compilation.AbstractCompilationVisitable;
 import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
@@ -41,6 +41,7 @@ import org.adoptopenjdk.jitwatch.model.Compilation;
 import org.adoptopenjdk.jitwatch.model.IParseDictionary;
 import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
 import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.PackedBytecodes;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.util.TooltipUtil;
 import org.slf4j.Logger;
@@ -91,6 +92,11 @@ public class CompileChainWalker extends AbstractCompilationVisitable
 			logger.error("Could not build compile tree", lpe);
 		}
 
+		if (root != null)
+		{
+			root.computeCounts();
+		}
+
 		return root;
 	}
 
@@ -99,41 +105,51 @@ public class CompileChainWalker extends AbstractCompilationVisitable
 		String methodID = null;
 		CompileNode lastNode = null;
 
-		Map<String, String> methodAttrs = new HashMap<>();
-		Map<String, String> callAttrs = new HashMap<>();
+		Tag methodTag = null;
+		Tag callTag = null;
+
+		List<Tag> children = parseTag.getChildren();
 
-		for (Tag child : parseTag.getChildren())
+		PackedBytecodes.Cursor bcCursor = parseTag.getPackedBytecodeCursor();
+
+		int childCount = children.size();
+
+		for (int i = 0; i < childCount; i++)
 		{
+			if (bcCursor.advanceTo(i))
+			{
+				callTag = null;
+			}
+
+			Tag child = children.get(i);
+
 			String tagName = child.getName();
-			Map<String, String> tagAttrs = child.getAttributes();
 
 			switch (tagName)
 			{
 			case TAG_BC:
 			{
-				callAttrs.clear();
+				callTag = null;
 				break;
 			}
 
 			case TAG_METHOD:
 			{
-				methodID = tagAttrs.get(ATTR_ID);
-				methodAttrs.clear();
-				methodAttrs.putAll(tagAttrs);
+				methodID = child.getAttribute(ATTR_ID);
+				methodTag = child;
 				break;
 			}
 
 			case TAG_CALL:
 			{
-				methodID = tagAttrs.get(ATTR_METHOD);
-				callAttrs.clear();
-				callAttrs.putAll(tagAttrs);
+				methodID = child.getAttribute(ATTR_METHOD);
+				callTag = child;
 				break;
 			}
 
 			case TAG_INLINE_FAIL:
 			{
-				createChildNode(parentNode, methodID, parseDictionary, false, false, methodAttrs, callAttrs, tagAttrs);
+				createChildNode(parentNode, methodID, parseDictionary, false, false, methodTag, callTag, child);
 				methodID = null;
 				lastNode = null;
 				break;
@@ -141,13 +157,13 @@ public class CompileChainWalker extends AbstractCompilationVisitable
 
 			case TAG_INLINE_SUCCESS:
 			{
-				lastNode = createChildNode(parentNode, methodID, parseDictionary, true, false, methodAttrs, callAttrs, tagAttrs);
+				lastNode = createChildNode(parentNode, methodID, parseDictionary, true, false, methodTag, callTag, child);
 				break;
 			}
 
 			case TAG_PARSE: // call depth
 			{
-				String childMethodID = tagAttrs.get(ATTR_METHOD);
+				String childMethodID = child.getAttribute(ATTR_METHOD);
 
 				CompileNode nextParent = parentNode;
 
@@ -171,7 +187,7 @@ public class CompileChainWalker extends AbstractCompilationVisitable
 				
 			case TAG_PHASE:
 			{
-				String phaseName = tagAttrs.get(ATTR_NAME);
+				String phaseName = child.getAttribute(ATTR_NAME);
 				
 				if (S_PARSE_HIR.equals(phaseName))
 				{
@@ -185,7 +201,7 @@ public class CompileChainWalker extends AbstractCompilationVisitable
 			}
 			
 			case TAG_VIRTUAL_CALL:
-				lastNode = createChildNode(parentNode, methodID, parseDictionary, false, true, methodAttrs, callAttrs, tagAttrs);
+				lastNode = createChildNode(parentNode, methodID, parseDictionary, false, true, methodTag, callTag, child);
 				break;
 
 			default:
@@ -196,17 +212,24 @@ public class CompileChainWalker extends AbstractCompilationVisitable
 	}
 
 	private CompileNode createChildNode(CompileNode parentNode, String methodID, IParseDictionary parseDictionary, boolean inlined, boolean virtualCall,
-			Map<String, String> methodAttrs, Map<String, String> callAttrs, Map<String, String> tagAttrs)
+			Tag methodTag, Tag callTag, Tag decisionTag)
 	{
 		CompileNode childNode = new CompileNode(methodID);
 		parentNode.addChild(childNode);
 
-		String reason = tagAttrs.get(ATTR_REASON);
-		String tooltip = TooltipUtil.buildInlineAnnotationText(inlined, reason, callAttrs, methodAttrs, parseDictionary);
+		String reason = decisionTag.getAttribute(ATTR_REASON);
+		String tooltip = TooltipUtil.buildInlineAnnotationText(inlined, reason, callTag, methodTag, parseDictionary);
 		
+		childNode.setInlineDecision(true);
 		childNode.setInlined(inlined);
 		childNode.setVirtualCall(virtualCall);
+		childNode.setReason(reason);
 		childNode.setTooltipText(tooltip);
+
+		if (callTag != null)
+		{
+			childNode.setCallCount(callTag.getIntAttribute(ATTR_COUNT, -1));
+		}
 		
 		return childNode;
 	}
@@ -214,7 +237,7 @@ public class CompileChainWalker extends AbstractCompilationVisitable
 	@Override
 	public void visitTag(Tag parseTag, IParseDictionary parseDictionary) throws LogParseException
 	{
-		String methodID = parseTag.getAttributes().get(ATTR_METHOD);
+		String methodID = parseTag.getAttribute(ATTR_METHOD);
 
 		// only initialise on first parse tag.
 		// there may be multiple if late_inline
@@ -12,6 +12,7 @@ import org.adoptopenjdk.jitwatch.model.Compilation;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.model.IParseDictionary;
 import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.util.ParseUtil;
 
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.*;
@@ -21,6 +22,9 @@ public class CompileNode
 	private boolean inlined = false;
 	
 	private boolean virtualCall = false;
+
+	// false for nodes created only to hold nested parse tags
+	private boolean inlineDecision = false;
 	
 	private String tooltip;
 	
@@ -35,6 +39,23 @@ public class CompileNode
 	private IReadOnlyJITDataModel model;
 
 	private Compilation compilation;
+
+	private String reason;
+
+	// profiled count of the call site, -1 if the log has none
+	private int callCount = -1;
+
+	// resolved on first use as ParseUtil lookups are costly on large trees
+	private boolean memberResolved = false;
+
+	private IMetaMember member;
+
+	private String memberName;
+
+	// counts over all descendants, filled in once the tree is complete
+	private int inlinedCount;
+
+	private int failedCount;
 	
 	public static CompileNode createRootNode(Compilation compilation, String methodID, IParseDictionary parseDictionary, IReadOnlyJITDataModel model)
 	{
@@ -73,6 +94,26 @@ public class CompileNode
 		return inlined;
 	}
 	
+	public String getReason()
+	{
+		return reason;
+	}
+
+	public void setReason(String reason)
+	{
+		this.reason = reason;
+	}
+
+	public int getCallCount()
+	{
+		return callCount;
+	}
+
+	public void setCallCount(int callCount)
+	{
+		this.callCount = callCount;
+	}
+
 	public boolean isVirtualCall()
 	{
 		return virtualCall;
@@ -83,6 +124,16 @@ public class CompileNode
 		this.virtualCall = virtualCall;
 	}
 
+	public boolean hasInlineDecision()
+	{
+		return inlineDecision;
+	}
+
+	public void setInlineDecision(boolean inlineDecision)
+	{
+		this.inlineDecision = inlineDecision;
+	}
+
 	public boolean isCompiled()
 	{
 		boolean result = false;
@@ -148,16 +199,89 @@ public class CompileNode
 	
 	public IMetaMember getMember()
 	{
-		CompileNode root = getRoot();
-		
-		return ParseUtil.lookupMember(methodID, root.parseDictionary, root.model);
+		if (!memberResolved)
+		{
+			CompileNode root = getRoot();
+
+			member = ParseUtil.lookupMember(methodID, root.parseDictionary, root.model);
+
+			memberResolved = true;
+		}
+
+		return member;
 	}
 		
 	public String getMemberName()
 	{
-		CompileNode root = getRoot();
-		
-		return ParseUtil.getMethodName(methodID, root.parseDictionary);
+		if (memberName == null)
+		{
+			CompileNode root = getRoot();
+
+			memberName = ParseUtil.getMethodName(methodID, root.parseDictionary);
+		}
+
+		return memberName;
+	}
+
+	public int getBytecodeSize()
+	{
+		int result = 0;
+
+		if (methodID != null)
+		{
+			Tag methodTag = getRoot().parseDictionary.getMethod(methodID);
+
+			if (methodTag != null)
+			{
+				String bytes = methodTag.getAttribute(ATTR_BYTES);
+
+				if (bytes != null)
+				{
+					result = Integer.parseInt(bytes);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/*
+	 * Number of descendants inlined into this node's compilation
+	 */
+	public int getInlinedCount()
+	{
+		return inlinedCount;
+	}
+
+	/*
+	 * Number of descendants with a failed inlining decision
+	 */
+	public int getFailedCount()
+	{
+		return failedCount;
+	}
+
+	void computeCounts()
+	{
+		inlinedCount = 0;
+		failedCount = 0;
+
+		for (CompileNode child : children)
+		{
+			child.computeCounts();
+
+			inlinedCount += child.inlinedCount;
+			failedCount += child.failedCount;
+
+			if (child.isInlined())
+			{
+				inlinedCount++;
+			}
+			else if (child.inlineDecision)
+			{
+				failedCount++;
+			}
+		}
 	}
 
 	private void show(CompileNode node, StringBuilder builder, int depth)
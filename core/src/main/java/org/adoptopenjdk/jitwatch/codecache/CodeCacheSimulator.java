@@ -0,0 +1,579 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.codecache;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_SIZE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent.CodeCacheEventType;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent.DeoptEventType;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Replays nmethod allocations and frees by address to find whether running
+ * out of code cache was down to the amount of live code or to how it was
+ * laid out.
+ *
+ * An nmethod is allocated at its emitted stamp using the address and size
+ * of the nmethod tag. It is freed when it is made a zombie or, failing
+ * that, when a later nmethod is allocated over it, since the allocator can
+ * only reuse space that was freed. Code that was made not entrant but never
+ * flushed or reused stays live, so live bytes are an upper bound.
+ *
+ * If the profiled and non-profiled nmethods occupy separate address ranges
+ * the cache is segmented and each heap is laid out on its own, otherwise
+ * all nmethods share one heap.
+ *
+ * Adapters and stubs in the non-nmethod heap are not logged. Their size is
+ * estimated from the free_code_cache reports as the reserved size less the
+ * free space less the simulated live nmethods, so depends on the reserved
+ * size the log was recorded with.
+ */
+public class CodeCacheSimulator implements ITreeVisitable
+{
+	private static final long MB = 1024 * 1024;
+
+	// HotSpot default with tiered compilation
+	public static final long DEFAULT_RESERVED_CODE_CACHE_SIZE = 240 * MB;
+
+	// HotSpot default with -XX:-TieredCompilation
+	public static final long DEFAULT_NON_TIERED_RESERVED_CODE_CACHE_SIZE = 48 * MB;
+
+	private static final String FLAG_RESERVED_CODE_CACHE_SIZE = "ReservedCodeCacheSize";
+
+	private static final String FLAG_TIERED_COMPILATION = "TieredCompilation";
+
+	private static final Logger logger = LoggerFactory.getLogger(CodeCacheSimulator.class);
+
+	public enum FullCause
+	{
+		// the log did not report the code cache full
+		NONE,
+
+		// the live code would not have fit even if perfectly compacted
+		SIZE,
+
+		// the live code would have fit compacted but not with its layout
+		FRAGMENTATION,
+
+		// the simulated layout fits, so a single segment filled or dead
+		// code was not flushed in time
+		UNDETERMINED
+	}
+
+	private static final int ORDER_FREE = 0;
+	private static final int ORDER_ALLOCATE = 1;
+	private static final int ORDER_OBSERVE = 2;
+	private static final int ORDER_FULL = 3;
+
+	private static class ReplayEvent
+	{
+		private final long stamp;
+		private final int order;
+		private final NMethodBlock block;
+		private final long freeCodeCache;
+
+		ReplayEvent(long stamp, int order, NMethodBlock block, long freeCodeCache)
+		{
+			this.stamp = stamp;
+			this.order = order;
+			this.block = block;
+			this.freeCodeCache = freeCodeCache;
+		}
+	}
+
+	private final IReadOnlyJITDataModel model;
+
+	private final long reservedCodeCacheSize;
+
+	private final List<NMethodBlock> allocations = new ArrayList<>();
+
+	private final Map<Compilation, NMethodBlock> compilationBlocks = new HashMap<>();
+
+	private final Map<CodeSegment, SegmentOccupancy> occupancy = new EnumMap<>(CodeSegment.class);
+
+	private final Map<CodeSegment, CodeHeap> segmentHeaps = new EnumMap<>(CodeSegment.class);
+
+	private final List<CodeHeap> heaps = new ArrayList<>();
+
+	private final List<CodeCacheSnapshot> fullSnapshots = new ArrayList<>();
+
+	private boolean segmented;
+
+	private int unsizedCount;
+	private int flushedCount;
+	private int reusedCount;
+
+	private long liveBytes;
+	private long peakLiveBytes;
+	private long peakLiveStamp;
+
+	private long nonNMethodBytes;
+
+	/*
+	 * reservedCodeCacheSize is the ReservedCodeCacheSize in bytes the log
+	 * was recorded with
+	 */
+	public CodeCacheSimulator(IReadOnlyJITDataModel model, long reservedCodeCacheSize)
+	{
+		this.model = model;
+		this.reservedCodeCacheSize = reservedCodeCacheSize;
+	}
+
+	/*
+	 * The ReservedCodeCacheSize a log was recorded with from the JVM options
+	 * in its vm_arguments, or the HotSpot default for its compilation mode
+	 */
+	public static long reservedSizeFromVMArguments(String vmArguments)
+	{
+		String size = ParseUtil.getVMFlagValue(vmArguments, FLAG_RESERVED_CODE_CACHE_SIZE);
+
+		if (size != null)
+		{
+			try
+			{
+				return ParseUtil.parseVMSize(size);
+			}
+			catch (NumberFormatException nfe)
+			{
+				logger.warn("Could not parse {} '{}'", FLAG_RESERVED_CODE_CACHE_SIZE, size);
+			}
+		}
+
+		return ParseUtil.isVMFlagEnabled(vmArguments, FLAG_TIERED_COMPILATION, true) ? DEFAULT_RESERVED_CODE_CACHE_SIZE
+				: DEFAULT_NON_TIERED_RESERVED_CODE_CACHE_SIZE;
+	}
+
+	/*
+	 * Returns the simulated nmethod heaps
+	 */
+	public List<CodeHeap> simulate()
+	{
+		TreeVisitor.walkTree(model, this);
+
+		segmented = isSeparate(CodeSegment.PROFILED, CodeSegment.NON_PROFILED);
+
+		if (segmented)
+		{
+			addHeap(CodeSegment.PROFILED.getHeapName(), CodeSegment.PROFILED);
+			addHeap(CodeSegment.NON_PROFILED.getHeapName(), CodeSegment.NON_PROFILED);
+		}
+		else
+		{
+			addHeap("nmethods", CodeSegment.PROFILED, CodeSegment.NON_PROFILED);
+		}
+
+		replay(buildReplayEvents());
+
+		return heaps;
+	}
+
+	@Override
+	public void reset()
+	{
+		allocations.clear();
+		compilationBlocks.clear();
+		occupancy.clear();
+		segmentHeaps.clear();
+		heaps.clear();
+		fullSnapshots.clear();
+		segmented = false;
+		unsizedCount = 0;
+		flushedCount = 0;
+		reusedCount = 0;
+		liveBytes = 0;
+		peakLiveBytes = 0;
+		peakLiveStamp = 0;
+		nonNMethodBytes = 0;
+
+		occupancy.put(CodeSegment.PROFILED, new SegmentOccupancy(CodeSegment.PROFILED));
+		occupancy.put(CodeSegment.NON_PROFILED, new SegmentOccupancy(CodeSegment.NON_PROFILED));
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		for (Compilation compilation : metaMember.getCompilations())
+		{
+			long emitted = compilation.getStampNMethodEmitted();
+
+			String address = compilation.getNativeAddress();
+
+			if (emitted <= 0 || address == null || compilation.getTagNMethod() == null)
+			{
+				continue;
+			}
+
+			long size = getNMethodSize(compilation);
+
+			if (size <= 0)
+			{
+				unsizedCount++;
+				continue;
+			}
+
+			try
+			{
+				long addressLong = address.startsWith("0x") ? Long.decode(address) : Long.parseLong(address, 16);
+
+				NMethodBlock block = new NMethodBlock(addressLong, size, emitted, CodeSegment.forCompilation(compilation),
+						compilation);
+
+				allocations.add(block);
+				compilationBlocks.put(compilation, block);
+			}
+			catch (NumberFormatException nfe)
+			{
+				unsizedCount++;
+			}
+		}
+	}
+
+	/*
+	 * The size attribute of the nmethod tag covers the whole nmethod
+	 * including its header, relocations and metadata. Logs without it fall
+	 * back to the nmsize of task_done.
+	 */
+	private long getNMethodSize(Compilation compilation)
+	{
+		String size = compilation.getTagNMethod().getAttribute(ATTR_SIZE);
+
+		if (size != null)
+		{
+			try
+			{
+				return Long.parseLong(size);
+			}
+			catch (NumberFormatException nfe)
+			{
+			}
+		}
+
+		return compilation.getNativeSize();
+	}
+
+	private boolean isSeparate(CodeSegment segment1, CodeSegment segment2)
+	{
+		long[] range1 = getAddressRange(segment1);
+		long[] range2 = getAddressRange(segment2);
+
+		if (range1 == null || range2 == null)
+		{
+			return false;
+		}
+
+		return range1[1] <= range2[0] || range2[1] <= range1[0];
+	}
+
+	private long[] getAddressRange(CodeSegment segment)
+	{
+		long[] range = null;
+
+		for (NMethodBlock block : allocations)
+		{
+			if (block.getSegment() == segment)
+			{
+				if (range == null)
+				{
+					range = new long[] { block.getAddress(), block.getEnd() };
+				}
+				else
+				{
+					range[0] = Math.min(range[0], block.getAddress());
+					range[1] = Math.max(range[1], block.getEnd());
+				}
+			}
+		}
+
+		return range;
+	}
+
+	private void addHeap(String name, CodeSegment... segments)
+	{
+		CodeHeap heap = new CodeHeap(name);
+
+		heaps.add(heap);
+
+		for (CodeSegment segment : segments)
+		{
+			segmentHeaps.put(segment, heap);
+		}
+	}
+
+	private List<ReplayEvent> buildReplayEvents()
+	{
+		List<ReplayEvent> events = new ArrayList<>();
+
+		for (NMethodBlock block : allocations)
+		{
+			events.add(new ReplayEvent(block.getStamp(), ORDER_ALLOCATE, block, 0));
+		}
+
+		for (DeoptEvent event : model.getDeoptEvents())
+		{
+			if (event.getEventType() == DeoptEventType.MAKE_NOT_ENTRANT && event.isZombie() && event.getCompilation() != null)
+			{
+				NMethodBlock block = compilationBlocks.get(event.getCompilation());
+
+				if (block != null)
+				{
+					events.add(new ReplayEvent(event.getStamp(), ORDER_FREE, block, 0));
+				}
+			}
+		}
+
+		for (CodeCacheEvent event : model.getCodeCacheEvents())
+		{
+			if (event.getEventType() == CodeCacheEventType.CACHE_FULL)
+			{
+				events.add(new ReplayEvent(event.getStamp(), ORDER_FULL, null, 0));
+			}
+			else if (event.getEventType() == CodeCacheEventType.COMPILATION && event.getFreeCodeCache() > 0)
+			{
+				events.add(new ReplayEvent(event.getStamp(), ORDER_OBSERVE, null, event.getFreeCodeCache()));
+			}
+		}
+
+		Collections.sort(events, new Comparator<ReplayEvent>()
+		{
+			@Override
+			public int compare(ReplayEvent e1, ReplayEvent e2)
+			{
+				int result = Long.compare(e1.stamp, e2.stamp);
+
+				return result != 0 ? result : Integer.compare(e1.order, e2.order);
+			}
+		});
+
+		return events;
+	}
+
+	private void replay(List<ReplayEvent> events)
+	{
+		for (ReplayEvent event : events)
+		{
+			switch (event.order)
+			{
+			case ORDER_FREE:
+				if (segmentHeaps.get(event.block.getSegment()).free(event.block))
+				{
+					freed(event.block);
+					flushedCount++;
+				}
+				break;
+
+			case ORDER_ALLOCATE:
+				allocate(event.block);
+				break;
+
+			case ORDER_OBSERVE:
+				nonNMethodBytes = Math.max(nonNMethodBytes, reservedCodeCacheSize - event.freeCodeCache - liveBytes);
+				break;
+
+			case ORDER_FULL:
+				fullSnapshots.add(takeSnapshot(event.stamp));
+				break;
+			}
+		}
+	}
+
+	private void allocate(NMethodBlock block)
+	{
+		for (NMethodBlock reused : segmentHeaps.get(block.getSegment()).allocate(block, block.getStamp()))
+		{
+			freed(reused);
+			reusedCount++;
+		}
+
+		occupancy.get(block.getSegment()).allocated(block.getSize(), block.getStamp());
+
+		liveBytes += block.getSize();
+
+		if (liveBytes > peakLiveBytes)
+		{
+			peakLiveBytes = liveBytes;
+			peakLiveStamp = block.getStamp();
+		}
+	}
+
+	private void freed(NMethodBlock block)
+	{
+		occupancy.get(block.getSegment()).freed(block.getSize());
+
+		liveBytes -= block.getSize();
+	}
+
+	private CodeCacheSnapshot takeSnapshot(long stamp)
+	{
+		long span = 0;
+		long free = 0;
+		long largestFree = 0;
+
+		for (CodeHeap heap : heaps)
+		{
+			span += heap.getSpan();
+			free += heap.getFreeBytes();
+			largestFree = Math.max(largestFree, heap.getLargestFreeBlock());
+		}
+
+		double fragmentation = free <= 0 ? 0 : 1.0 - (double) largestFree / free;
+
+		return new CodeCacheSnapshot(stamp, liveBytes, span, free, largestFree, fragmentation);
+	}
+
+	public boolean isSegmented()
+	{
+		return segmented;
+	}
+
+	public List<CodeHeap> getHeaps()
+	{
+		return heaps;
+	}
+
+	public SegmentOccupancy getOccupancy(CodeSegment segment)
+	{
+		return occupancy.get(segment);
+	}
+
+	/*
+	 * Layout at each point the log reported the code cache full
+	 */
+	public List<CodeCacheSnapshot> getFullSnapshots()
+	{
+		return fullSnapshots;
+	}
+
+	public int getNMethodCount()
+	{
+		return allocations.size();
+	}
+
+	/*
+	 * nmethods with an address but no size, which are not simulated
+	 */
+	public int getUnsizedCount()
+	{
+		return unsizedCount;
+	}
+
+	/*
+	 * nmethods freed when made a zombie
+	 */
+	public int getFlushedCount()
+	{
+		return flushedCount;
+	}
+
+	/*
+	 * nmethods found to be freed when their space was reused
+	 */
+	public int getReusedCount()
+	{
+		return reusedCount;
+	}
+
+	public long getLiveBytes()
+	{
+		return liveBytes;
+	}
+
+	public long getPeakLiveBytes()
+	{
+		return peakLiveBytes;
+	}
+
+	public long getPeakLiveStamp()
+	{
+		return peakLiveStamp;
+	}
+
+	public long getReservedCodeCacheSize()
+	{
+		return reservedCodeCacheSize;
+	}
+
+	/*
+	 * Estimated peak bytes used outside the nmethod heaps, 0 if the log has
+	 * no free_code_cache reports
+	 */
+	public long getNonNMethodBytes()
+	{
+		return nonNMethodBytes;
+	}
+
+	/*
+	 * Code cache needed if the live nmethods could always be compacted
+	 */
+	public long getRequiredCompacted()
+	{
+		return nonNMethodBytes + peakLiveBytes;
+	}
+
+	/*
+	 * Code cache needed for the layout the nmethods actually had. Each heap
+	 * needs room for its own largest span.
+	 */
+	public long getRequiredWithLayout()
+	{
+		long required = nonNMethodBytes;
+
+		for (CodeHeap heap : heaps)
+		{
+			required += heap.getPeakSpan();
+		}
+
+		return required;
+	}
+
+	/*
+	 * Smallest ReservedCodeCacheSize in whole megabytes the simulated
+	 * workload fits in. The split between segments is not modelled so a
+	 * segmented cache may still need its segment sizes adjusting.
+	 */
+	public long getPredictedReservedSize()
+	{
+		long required = getRequiredWithLayout();
+
+		return ((required + MB - 1) / MB) * MB;
+	}
+
+	public FullCause getFullCause()
+	{
+		if (fullSnapshots.isEmpty())
+		{
+			return FullCause.NONE;
+		}
+		else if (getRequiredCompacted() > reservedCodeCacheSize)
+		{
+			return FullCause.SIZE;
+		}
+		else if (getRequiredWithLayout() > reservedCodeCacheSize)
+		{
+			return FullCause.FRAGMENTATION;
+		}
+		else
+		{
+			return FullCause.UNDETERMINED;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.codecache;
+
+/*
+ * Simulated layout of all the nmethod heaps at one point in time, taken
+ * where the log reported the code cache full
+ */
+public class CodeCacheSnapshot
+{
+	private final long stamp;
+	private final long liveBytes;
+	private final long span;
+	private final long freeBytes;
+	private final long largestFreeBlock;
+	private final double fragmentation;
+
+	public CodeCacheSnapshot(long stamp, long liveBytes, long span, long freeBytes, long largestFreeBlock,
+			double fragmentation)
+	{
+		this.stamp = stamp;
+		this.liveBytes = liveBytes;
+		this.span = span;
+		this.freeBytes = freeBytes;
+		this.largestFreeBlock = largestFreeBlock;
+		this.fragmentation = fragmentation;
+	}
+
+	public long getStamp()
+	{
+		return stamp;
+	}
+
+	public long getLiveBytes()
+	{
+		return liveBytes;
+	}
+
+	public long getSpan()
+	{
+		return span;
+	}
+
+	public long getFreeBytes()
+	{
+		return freeBytes;
+	}
+
+	public long getLargestFreeBlock()
+	{
+		return largestFreeBlock;
+	}
+
+	public double getFragmentation()
+	{
+		return fragmentation;
+	}
+}
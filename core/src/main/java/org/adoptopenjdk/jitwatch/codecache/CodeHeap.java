@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.codecache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Live nmethods of one contiguous code heap keyed by address.
+ *
+ * The span is from the lowest address the heap has used to the end of its
+ * highest live nmethod, the space the allocator needed for the layout it
+ * actually had. Free space inside the span is the holes between live
+ * nmethods and fragmentation is 1 - largest hole / total hole space, 0 when
+ * all the free space is in one block and close to 1 when it is in many
+ * small ones.
+ */
+public class CodeHeap
+{
+	/*
+	 * Each nmethod follows a 16 byte heap block header and its end is rounded
+	 * up to CodeCacheSegmentSize (64 or 128 bytes), so gaps smaller than one
+	 * segment plus a header are allocator padding rather than free space
+	 */
+	public static final long MIN_FREE_BLOCK = 128 + 16;
+
+	private final String name;
+
+	private final TreeMap<Long, NMethodBlock> blocks = new TreeMap<>();
+
+	private long base = -1;
+
+	private long liveBytes;
+	private long peakLiveBytes;
+	private long peakLiveStamp;
+
+	private long peakSpan;
+	private long peakSpanStamp;
+
+	public CodeHeap(String name)
+	{
+		this.name = name;
+	}
+
+	/*
+	 * Returns the live nmethods the block overlaps. The allocator reused
+	 * their space so they must have been freed by then.
+	 */
+	List<NMethodBlock> allocate(NMethodBlock block, long stamp)
+	{
+		List<NMethodBlock> evicted = new ArrayList<>();
+
+		Map.Entry<Long, NMethodBlock> below = blocks.floorEntry(block.getAddress());
+
+		if (below != null && below.getValue().getEnd() > block.getAddress())
+		{
+			evicted.add(below.getValue());
+		}
+
+		for (NMethodBlock above : blocks.subMap(block.getAddress(), false, block.getEnd(), false).values())
+		{
+			evicted.add(above);
+		}
+
+		for (NMethodBlock overlapped : evicted)
+		{
+			remove(overlapped);
+		}
+
+		blocks.put(block.getAddress(), block);
+
+		liveBytes += block.getSize();
+
+		if (base == -1 || block.getAddress() < base)
+		{
+			base = block.getAddress();
+		}
+
+		if (liveBytes > peakLiveBytes)
+		{
+			peakLiveBytes = liveBytes;
+			peakLiveStamp = stamp;
+		}
+
+		long span = getSpan();
+
+		if (span > peakSpan)
+		{
+			peakSpan = span;
+			peakSpanStamp = stamp;
+		}
+
+		return evicted;
+	}
+
+	/*
+	 * False if the block was no longer live, such as when a later nmethod
+	 * has already reused its space
+	 */
+	boolean free(NMethodBlock block)
+	{
+		if (blocks.get(block.getAddress()) != block)
+		{
+			return false;
+		}
+
+		remove(block);
+
+		return true;
+	}
+
+	private void remove(NMethodBlock block)
+	{
+		blocks.remove(block.getAddress());
+
+		liveBytes -= block.getSize();
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public int getLiveCount()
+	{
+		return blocks.size();
+	}
+
+	public long getLiveBytes()
+	{
+		return liveBytes;
+	}
+
+	public long getPeakLiveBytes()
+	{
+		return peakLiveBytes;
+	}
+
+	public long getPeakLiveStamp()
+	{
+		return peakLiveStamp;
+	}
+
+	public long getSpan()
+	{
+		return blocks.isEmpty() ? 0 : blocks.lastEntry().getValue().getEnd() - base;
+	}
+
+	public long getPeakSpan()
+	{
+		return peakSpan;
+	}
+
+	public long getPeakSpanStamp()
+	{
+		return peakSpanStamp;
+	}
+
+	/*
+	 * Bytes in holes inside the span large enough to be reused
+	 */
+	public long getFreeBytes()
+	{
+		long free = 0;
+
+		long position = base;
+
+		for (NMethodBlock block : blocks.values())
+		{
+			long hole = block.getAddress() - position;
+
+			if (hole >= MIN_FREE_BLOCK)
+			{
+				free += hole;
+			}
+
+			position = Math.max(position, block.getEnd());
+		}
+
+		return free;
+	}
+
+	public long getLargestFreeBlock()
+	{
+		long largest = 0;
+
+		long position = base;
+
+		for (NMethodBlock block : blocks.values())
+		{
+			long hole = block.getAddress() - position;
+
+			if (hole >= MIN_FREE_BLOCK)
+			{
+				largest = Math.max(largest, hole);
+			}
+
+			position = Math.max(position, block.getEnd());
+		}
+
+		return largest;
+	}
+
+	public int getFreeBlockCount()
+	{
+		int count = 0;
+
+		long position = base;
+
+		for (NMethodBlock block : blocks.values())
+		{
+			if (block.getAddress() - position >= MIN_FREE_BLOCK)
+			{
+				count++;
+			}
+
+			position = Math.max(position, block.getEnd());
+		}
+
+		return count;
+	}
+
+	/*
+	 * 0-1, 0 if there is no free space inside the span
+	 */
+	public double getFragmentation()
+	{
+		long free = getFreeBytes();
+
+		return free <= 0 ? 0 : 1.0 - (double) getLargestFreeBlock() / free;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "CodeHeap [name=" + name + ", live=" + blocks.size() + ", liveBytes=" + liveBytes + ", span=" + getSpan() + "]";
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.codecache;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+
+/*
+ * The code heaps of a segmented code cache (JDK 9+). Tier 2 and 3 code
+ * carries profiling and goes in the profiled heap, tier 1 and 4, non-tiered
+ * and native wrapper code goes in the non-profiled heap. Adapters and stubs
+ * are in the non-nmethod heap and do not appear in the log as nmethods.
+ */
+public enum CodeSegment
+{
+	NON_NMETHOD("non-nmethods"), PROFILED("profiled nmethods"), NON_PROFILED("non-profiled nmethods");
+
+	private final String heapName;
+
+	CodeSegment(String heapName)
+	{
+		this.heapName = heapName;
+	}
+
+	public String getHeapName()
+	{
+		return heapName;
+	}
+
+	public static CodeSegment forCompilation(Compilation compilation)
+	{
+		if (compilation.isC2N())
+		{
+			return NON_PROFILED;
+		}
+
+		int level = compilation.getLevel();
+
+		return (level == 2 || level == 3) ? PROFILED : NON_PROFILED;
+	}
+}
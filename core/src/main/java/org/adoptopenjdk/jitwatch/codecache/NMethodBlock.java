@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.codecache;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+
+/*
+ * The code cache range [address, address + size) of one nmethod
+ */
+public class NMethodBlock
+{
+	private final long address;
+	private final long size;
+	private final long stamp;
+
+	private final CodeSegment segment;
+
+	private final Compilation compilation;
+
+	public NMethodBlock(long address, long size, long stamp, CodeSegment segment, Compilation compilation)
+	{
+		this.address = address;
+		this.size = size;
+		this.stamp = stamp;
+		this.segment = segment;
+		this.compilation = compilation;
+	}
+
+	public long getAddress()
+	{
+		return address;
+	}
+
+	public long getSize()
+	{
+		return size;
+	}
+
+	public long getEnd()
+	{
+		return address + size;
+	}
+
+	/*
+	 * When the nmethod was emitted
+	 */
+	public long getStamp()
+	{
+		return stamp;
+	}
+
+	public CodeSegment getSegment()
+	{
+		return segment;
+	}
+
+	public Compilation getCompilation()
+	{
+		return compilation;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "NMethodBlock [address=0x" + Long.toHexString(address) + ", size=" + size + ", segment=" + segment + "]";
+	}
+}
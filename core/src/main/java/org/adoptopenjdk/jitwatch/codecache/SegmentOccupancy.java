@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.codecache;
+
+/*
+ * nmethod bytes allocated, freed and live in one code segment
+ */
+public class SegmentOccupancy
+{
+	private final CodeSegment segment;
+
+	private int allocatedCount;
+	private long allocatedBytes;
+
+	private int freedCount;
+	private long freedBytes;
+
+	private long liveBytes;
+	private long peakLiveBytes;
+	private long peakLiveStamp;
+
+	public SegmentOccupancy(CodeSegment segment)
+	{
+		this.segment = segment;
+	}
+
+	void allocated(long size, long stamp)
+	{
+		allocatedCount++;
+		allocatedBytes += size;
+
+		liveBytes += size;
+
+		if (liveBytes > peakLiveBytes)
+		{
+			peakLiveBytes = liveBytes;
+			peakLiveStamp = stamp;
+		}
+	}
+
+	void freed(long size)
+	{
+		freedCount++;
+		freedBytes += size;
+
+		liveBytes -= size;
+	}
+
+	public CodeSegment getSegment()
+	{
+		return segment;
+	}
+
+	public int getAllocatedCount()
+	{
+		return allocatedCount;
+	}
+
+	public long getAllocatedBytes()
+	{
+		return allocatedBytes;
+	}
+
+	public int getFreedCount()
+	{
+		return freedCount;
+	}
+
+	public long getFreedBytes()
+	{
+		return freedBytes;
+	}
+
+	public int getLiveCount()
+	{
+		return allocatedCount - freedCount;
+	}
+
+	public long getLiveBytes()
+	{
+		return liveBytes;
+	}
+
+	public long getPeakLiveBytes()
+	{
+		return peakLiveBytes;
+	}
+
+	public long getPeakLiveStamp()
+	{
+		return peakLiveStamp;
+	}
+}
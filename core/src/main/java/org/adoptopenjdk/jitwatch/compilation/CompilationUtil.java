@@ -169,7 +169,7 @@ public final class CompilationUtil
 
 			if (TAG_NMETHOD.equals(tagName))
 			{
-				if (C2N.equalsIgnoreCase(tag.getAttributes().get(ATTR_COMPILE_KIND)))
+				if (C2N.equalsIgnoreCase(tag.getAttribute(ATTR_COMPILE_KIND)))
 				{
 					result = true;
 				}
@@ -211,9 +211,7 @@ public final class CompilationUtil
 
 		if (methodTag != null)
 		{
-			Map<String, String> methodTagAttributes = methodTag.getAttributes();
-
-			String klassID = methodTagAttributes.get(ATTR_HOLDER);
+			String klassID = methodTag.getAttribute(ATTR_HOLDER);
 
 			Tag klassTag = parseDictionary.getKlass(klassID);
 
@@ -224,8 +222,8 @@ public final class CompilationUtil
 					builder.append(String.format("klass tag: %s", klassTag.toString(false))).append(S_NEWLINE);
 				}
 
-				String klassAttrName = klassTag.getAttributes().get(ATTR_NAME);
-				String methodAttrName = StringUtil.replaceXMLEntities(methodTagAttributes.get(ATTR_NAME));
+				String klassAttrName = klassTag.getAttribute(ATTR_NAME);
+				String methodAttrName = StringUtil.replaceXMLEntities(methodTag.getAttribute(ATTR_NAME));
 
 				if (klassAttrName != null)
 				{
@@ -370,7 +368,7 @@ public final class CompilationUtil
 
 		for (Tag failure : failureChildren)
 		{
-			String reason = failure.getAttributes().get(ATTR_REASON);
+			String reason = failure.getAttribute(ATTR_REASON);
 
 			if (S_REASON_STALE_TASK.equals(reason))
 			{
@@ -71,6 +71,8 @@ public class JITWatchConfig
 	private static final String KEY_TRIVIEW_TRILINK_MOUSE_FOLLOW = "triview.mouse_follow";
 	private static final String KEY_TRIVIEW_LOCAL_ASM_LABELS = "triview.local_asm_labels";
 
+	private static final String KEY_COMPACT_PARSE_TREE = "compact.parse.tree";
+
 	private static final String SANDBOX_PREFIX = "sandbox";
 	private static final String KEY_SANDBOX_INTEL_MODE = SANDBOX_PREFIX + ".intel.mode";
 	private static final String KEY_SANDBOX_TIERED_MODE = SANDBOX_PREFIX + ".tiered.mode";
@@ -83,6 +85,12 @@ public class JITWatchConfig
 	private static final String KEY_SANDBOX_EXTRA_VM_SWITCHES = SANDBOX_PREFIX + ".extra.vm.switches";
 	private static final String KEY_SANDBOX_BACKGROUND_COMPILATION = SANDBOX_PREFIX + ".background.compilation";
 	private static final String KEY_SANDBOX_ON_STACK_REPLACEMENT = SANDBOX_PREFIX + ".on.stack.replacement";
+	private static final String KEY_SANDBOX_BENCHMARK_MODE = SANDBOX_PREFIX + ".benchmark.mode";
+	private static final String KEY_SANDBOX_BENCHMARK_METHOD = SANDBOX_PREFIX + ".benchmark.method";
+	private static final String KEY_SANDBOX_BENCHMARK_WARMUP = SANDBOX_PREFIX + ".benchmark.warmup.iterations";
+	private static final String KEY_SANDBOX_BENCHMARK_ITERATIONS = SANDBOX_PREFIX + ".benchmark.iterations";
+	private static final String KEY_SANDBOX_BENCHMARK_ITERATION_MILLIS = SANDBOX_PREFIX + ".benchmark.iteration.millis";
+	private static final String KEY_SANDBOX_BENCHMARK_FORKS = SANDBOX_PREFIX + ".benchmark.forks";
 
 	private static final String KEY_LAST_PROFILE = "last.profile";
 
@@ -100,6 +108,8 @@ public class JITWatchConfig
 	private boolean mouseFollow = false;
 	private boolean localAsmLabels = false;
 
+	private boolean compactParseTree = false;
+
 	private TieredCompilation tieredCompilationMode;
 	private CompressedOops compressedOopsMode;
 	private BackgroundCompilation backgroundCompilationMode;
@@ -113,6 +123,13 @@ public class JITWatchConfig
 	private int compileThreshold;
 	private String extraVMSwitches;
 
+	private boolean benchmarkMode = false;
+	private String benchmarkMethod;
+	private int benchmarkWarmupIterations;
+	private int benchmarkIterations;
+	private int benchmarkIterationMillis;
+	private int benchmarkForks;
+
 	private String profileName = S_PROFILE_DEFAULT;
 
 	private final String CONFIG_OVERRIDE = System.getProperty("jitwatch.config.file", null);
@@ -333,6 +350,8 @@ public class JITWatchConfig
 		mouseFollow = loadBooleanFromProperty(loadedProps, KEY_TRIVIEW_TRILINK_MOUSE_FOLLOW, false);
 		localAsmLabels = loadBooleanFromProperty(loadedProps, KEY_TRIVIEW_LOCAL_ASM_LABELS, true);
 
+		compactParseTree = loadBooleanFromProperty(loadedProps, KEY_COMPACT_PARSE_TREE, false);
+
 		loadTieredMode();
 
 		loadCompressedOopsMode();
@@ -352,6 +371,21 @@ public class JITWatchConfig
 				JITWatchConstants.DEFAULT_COMPILER_THRESHOLD);
 
 		extraVMSwitches = getProperty(loadedProps, KEY_SANDBOX_EXTRA_VM_SWITCHES, JITWatchConstants.S_EMPTY);
+
+		benchmarkMode = loadBooleanFromProperty(loadedProps, KEY_SANDBOX_BENCHMARK_MODE, false);
+
+		benchmarkMethod = getProperty(loadedProps, KEY_SANDBOX_BENCHMARK_METHOD, JITWatchConstants.DEFAULT_BENCHMARK_METHOD);
+
+		benchmarkWarmupIterations = loadIntFromProperty(loadedProps, KEY_SANDBOX_BENCHMARK_WARMUP,
+				JITWatchConstants.DEFAULT_BENCHMARK_WARMUP_ITERATIONS);
+
+		benchmarkIterations = loadIntFromProperty(loadedProps, KEY_SANDBOX_BENCHMARK_ITERATIONS,
+				JITWatchConstants.DEFAULT_BENCHMARK_ITERATIONS);
+
+		benchmarkIterationMillis = loadIntFromProperty(loadedProps, KEY_SANDBOX_BENCHMARK_ITERATION_MILLIS,
+				JITWatchConstants.DEFAULT_BENCHMARK_ITERATION_MILLIS);
+
+		benchmarkForks = loadIntFromProperty(loadedProps, KEY_SANDBOX_BENCHMARK_FORKS, JITWatchConstants.DEFAULT_BENCHMARK_FORKS);
 	}
 
 	private void loadTieredMode()
@@ -588,6 +622,7 @@ public class JITWatchConfig
 		putProperty(loadedProps, KEY_SANDBOX_INTEL_MODE, Boolean.toString(intelMode));
 		putProperty(loadedProps, KEY_TRIVIEW_TRILINK_MOUSE_FOLLOW, Boolean.toString(mouseFollow));
 		putProperty(loadedProps, KEY_TRIVIEW_LOCAL_ASM_LABELS, Boolean.toString(localAsmLabels));
+		putProperty(loadedProps, KEY_COMPACT_PARSE_TREE, Boolean.toString(compactParseTree));
 
 		saveTieredCompilationMode();
 
@@ -614,6 +649,18 @@ public class JITWatchConfig
 
 		putProperty(loadedProps, KEY_SANDBOX_EXTRA_VM_SWITCHES, extraVMSwitches);
 
+		putProperty(loadedProps, KEY_SANDBOX_BENCHMARK_MODE, Boolean.toString(benchmarkMode));
+
+		putProperty(loadedProps, KEY_SANDBOX_BENCHMARK_METHOD, benchmarkMethod);
+
+		putProperty(loadedProps, KEY_SANDBOX_BENCHMARK_WARMUP, Integer.toString(benchmarkWarmupIterations));
+
+		putProperty(loadedProps, KEY_SANDBOX_BENCHMARK_ITERATIONS, Integer.toString(benchmarkIterations));
+
+		putProperty(loadedProps, KEY_SANDBOX_BENCHMARK_ITERATION_MILLIS, Integer.toString(benchmarkIterationMillis));
+
+		putProperty(loadedProps, KEY_SANDBOX_BENCHMARK_FORKS, Integer.toString(benchmarkForks));
+
 	}
 
 	public void savePropertiesToFile()
@@ -919,4 +966,74 @@ public class JITWatchConfig
 	{
 		this.localAsmLabels = localAsmLabels;
 	}
+
+	public boolean isCompactParseTree()
+	{
+		return compactParseTree;
+	}
+
+	public void setCompactParseTree(boolean compactParseTree)
+	{
+		this.compactParseTree = compactParseTree;
+	}
+
+	public boolean isBenchmarkMode()
+	{
+		return benchmarkMode;
+	}
+
+	public void setBenchmarkMode(boolean benchmarkMode)
+	{
+		this.benchmarkMode = benchmarkMode;
+	}
+
+	public String getBenchmarkMethod()
+	{
+		return benchmarkMethod;
+	}
+
+	public void setBenchmarkMethod(String benchmarkMethod)
+	{
+		this.benchmarkMethod = benchmarkMethod;
+	}
+
+	public int getBenchmarkWarmupIterations()
+	{
+		return benchmarkWarmupIterations;
+	}
+
+	public void setBenchmarkWarmupIterations(int benchmarkWarmupIterations)
+	{
+		this.benchmarkWarmupIterations = benchmarkWarmupIterations;
+	}
+
+	public int getBenchmarkIterations()
+	{
+		return benchmarkIterations;
+	}
+
+	public void setBenchmarkIterations(int benchmarkIterations)
+	{
+		this.benchmarkIterations = benchmarkIterations;
+	}
+
+	public int getBenchmarkIterationMillis()
+	{
+		return benchmarkIterationMillis;
+	}
+
+	public void setBenchmarkIterationMillis(int benchmarkIterationMillis)
+	{
+		this.benchmarkIterationMillis = benchmarkIterationMillis;
+	}
+
+	public int getBenchmarkForks()
+	{
+		return benchmarkForks;
+	}
+
+	public void setBenchmarkForks(int benchmarkForks)
+	{
+		this.benchmarkForks = benchmarkForks;
+	}
 }
\ No newline at end of file
@@ -36,7 +36,15 @@ public final class JITWatchConstants
 
 	public static final int DEFAULT_FREQ_INLINE_SIZE = 325;
 	public static final int DEFAULT_MAX_INLINE_SIZE = 35;
+	public static final int DEFAULT_INLINE_SMALL_CODE = 2500;
+	public static final int DEFAULT_MAX_INLINE_LEVEL = 15;
 	public static final int DEFAULT_COMPILER_THRESHOLD = 10000;	
+
+	public static final String DEFAULT_BENCHMARK_METHOD = "benchmark";
+	public static final int DEFAULT_BENCHMARK_WARMUP_ITERATIONS = 5;
+	public static final int DEFAULT_BENCHMARK_ITERATIONS = 5;
+	public static final int DEFAULT_BENCHMARK_ITERATION_MILLIS = 1000;
+	public static final int DEFAULT_BENCHMARK_FORKS = 2;
 	
 	public static final String TAG_XML = "<?xml";
 	public static final String TAG_TTY = "<tty>";
@@ -104,6 +112,7 @@ public final class JITWatchConstants
 	public static final String TAG_ELIMINATE_LOCK = "eliminate_lock";
 	public static final String TAG_JVMS = "jvms";
 	public static final String TAG_UNCOMMON_TRAP = "uncommon_trap";
+	public static final String TAG_MAKE_NOT_ENTRANT = "make_not_entrant";
 	public static final String TAG_PARSE_DONE = "parse_done";
 	public static final String TAG_PHASE_DONE = "phase_done";
 	public static final String TAG_HOT_THROW = "hot_throw";
@@ -121,6 +130,7 @@ public final class JITWatchConstants
 	public static final String TAG_LATE_INLINE  = "late_inline";
 
 	public static final String TAG_COMMAND = "command";
+	public static final String TAG_ARGS = "args";
 
 	public static final String OSR = "osr";
 	public static final String C2N = "c2n";
@@ -133,6 +143,7 @@ public final class JITWatchConstants
 	public static final String ATTR_KLASS = "klass";
 	public static final String ATTR_THREAD = "thread";
 	public static final String ATTR_COMPILE_ID = "compile_id";
+	public static final String ATTR_ZOMBIE = "zombie";
 	public static final String ATTR_COMPILE_KIND = "compile_kind";
 	public static final String ATTR_STAMP = "stamp";
 	public static final String ATTR_STAMP_COMPLETED = "stamp_completed";
@@ -145,7 +156,11 @@ public final class JITWatchConstants
 	public static final String ATTR_FREE_CODE_CACHE = "free_code_cache";
 	public static final String ATTR_SIZE = "size";
 	public static final String ATTR_NMSIZE = "nmsize";
+	public static final String ATTR_SUCCESS = "success";
 	public static final String ATTR_BYTES = "bytes";
+	public static final String ATTR_INLINED_BYTES = "inlined_bytes";
+	public static final String ATTR_NODES = "nodes";
+	public static final String ATTR_LIVE = "live";
 	public static final String ATTR_IICOUNT = "iicount";
 	public static final String ATTR_DECOMPILES = "decompiles";
 	public static final String ATTR_PARSE = S_PARSE;
@@ -162,6 +177,7 @@ public final class JITWatchConstants
 	public static final String ATTR_BRANCH_PROB = "prob";
 	public static final String ATTR_UNLOADED = "unloaded";
 	public static final String ATTR_COUNT = "count";
+	public static final String ATTR_BACKEDGE_COUNT = "backedge_count";
 	public static final String ATTR_PROF_FACTOR = "prof_factor";
 	public static final String ATTR_ACTION = "action";
 	public static final String ATTR_COMMENT = "comment";
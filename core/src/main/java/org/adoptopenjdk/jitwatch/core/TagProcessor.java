@@ -14,13 +14,11 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEBUG_LOGGING_TAG
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_FRAGMENT;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_OPEN_FRAGMENT;
 
-import java.util.Map;
 import java.util.Stack;
 
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.model.Task;
 import org.adoptopenjdk.jitwatch.model.bytecode.Opcode;
-import org.adoptopenjdk.jitwatch.util.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +32,9 @@ public class TagProcessor
 	private Tag topTag = null;
 	private boolean fragmentSeen;
 
+	// fold <bc> tags into their parent as packed (bci, opcode) entries
+	private boolean compactParseTree = false;
+
 	public String getTopTagName()
 	{
 		String result = null;
@@ -93,6 +94,16 @@ public class TagProcessor
 		return result;
 	}
 
+	public void setCompactParseTree(boolean compactParseTree)
+	{
+		this.compactParseTree = compactParseTree;
+	}
+
+	public boolean isCompactParseTree()
+	{
+		return compactParseTree;
+	}
+
 	public boolean wasFragmentSeen()
 	{
 		return fragmentSeen;
@@ -186,8 +197,7 @@ public class TagProcessor
 
 		String attributeString = line.substring(indexEndName);
 
-		Map<String, String> attrs = StringUtil.attributeStringToMap(attributeString);
-
+		// attributes are decoded once here and read back from the tag
 		Tag nextTag;
 
 		if (JITWatchConstants.TAG_TASK.equals(name))
@@ -231,6 +241,10 @@ public class TagProcessor
 				topTag = nextTag;
 			}
 		}
+		else if (compactParseTree && topTag instanceof Task && JITWatchConstants.TAG_BC.equals(name))
+		{
+			// recorded below as a packed entry on the enclosing tag
+		}
 		else
 		{
 			currentTag.addChild(nextTag);
@@ -241,33 +255,41 @@ public class TagProcessor
 			switch (name)
 			{
 			case JITWatchConstants.TAG_TYPE:
-				((Task) topTag).addDictionaryType(attrs.get(JITWatchConstants.ATTR_ID), nextTag);
+				((Task) topTag).addDictionaryType(nextTag.getAttribute(JITWatchConstants.ATTR_ID), nextTag);
 				break;
 
 			case JITWatchConstants.TAG_METHOD:
-				((Task) topTag).addDictionaryMethod(attrs.get(JITWatchConstants.ATTR_ID), nextTag);
+				((Task) topTag).addDictionaryMethod(nextTag.getAttribute(JITWatchConstants.ATTR_ID), nextTag);
 				break;
 
 			case JITWatchConstants.TAG_KLASS:
-				((Task) topTag).addDictionaryKlass(attrs.get(JITWatchConstants.ATTR_ID), nextTag);
+				((Task) topTag).addDictionaryKlass(nextTag.getAttribute(JITWatchConstants.ATTR_ID), nextTag);
 				break;
 
 			case JITWatchConstants.TAG_PARSE:
-				String currentMethodID = attrs.get(JITWatchConstants.ATTR_METHOD);
-				methodIDStack.push(currentMethodID);
+				methodIDStack.push(nextTag.getAttribute(JITWatchConstants.ATTR_METHOD));
 				break;
 
 			case JITWatchConstants.TAG_BC:
-				String bci = attrs.get(JITWatchConstants.ATTR_BCI);
-				String code = attrs.get(JITWatchConstants.ATTR_CODE);
-
 				try
 				{
-					int bciValue = Integer.parseInt(bci);
-					int codeValue = Integer.parseInt(code);
+					int bciValue = nextTag.getIntAttribute(JITWatchConstants.ATTR_BCI);
+					int codeValue = nextTag.getIntAttribute(JITWatchConstants.ATTR_CODE);
+
+					if (bciValue < 0)
+					{
+						logger.error("Negative bci in bc tag {}", nextTag);
+						break;
+					}
+
 					Opcode opcode = Opcode.getByCode(codeValue);
 
 					((Task) topTag).addBCIOpcodeMapping(methodIDStack.peek(), bciValue, opcode);
+
+					if (compactParseTree)
+					{
+						currentTag.addPackedBytecode(bciValue, codeValue);
+					}
 					
 					//logger.info("{} got bc tag {}", methodIDStack.peek(), nextTag.toString(false));
 				}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.deopt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+
+/*
+ * Aggregates the runtime uncommon traps and nmethod invalidations of a log by
+ * member and correlates each invalidation with the recompilation that
+ * followed it, so members stuck in deopt / recompile cycles can be ranked.
+ *
+ * A make_not_entrant of tier 1-3 code with no trap against it is the normal
+ * replacement of C1 code by a higher tier and is not counted.
+ */
+public class DeoptAnalyser
+{
+	private static final String ACTION_NONE = "none";
+
+	private final IReadOnlyJITDataModel model;
+
+	private final Map<IMetaMember, DeoptMemberStats> memberStats = new LinkedHashMap<>();
+
+	private final ReasonCounts trapReasons = new ReasonCounts();
+
+	private int trapCount;
+	private int invalidationCount;
+	private int unresolvedCount;
+
+	public DeoptAnalyser(IReadOnlyJITDataModel model)
+	{
+		this.model = model;
+	}
+
+	/*
+	 * Returns the members with any deopt activity, highest recompile churn first
+	 */
+	public List<DeoptMemberStats> analyse()
+	{
+		memberStats.clear();
+		trapReasons.clear();
+		trapCount = 0;
+		invalidationCount = 0;
+		unresolvedCount = 0;
+
+		Set<String> trappedCompileIDs = new HashSet<>();
+
+		for (DeoptEvent event : model.getDeoptEvents())
+		{
+			switch (event.getEventType())
+			{
+			case UNCOMMON_TRAP:
+				handleTrap(event, trappedCompileIDs);
+				break;
+			case MAKE_NOT_ENTRANT:
+				handleMakeNotEntrant(event, trappedCompileIDs);
+				break;
+			}
+		}
+
+		for (DeoptMemberStats stats : memberStats.values())
+		{
+			correlateRecompiles(stats);
+		}
+
+		List<DeoptMemberStats> result = new ArrayList<>(memberStats.values());
+
+		Collections.sort(result, new Comparator<DeoptMemberStats>()
+		{
+			@Override
+			public int compare(DeoptMemberStats s1, DeoptMemberStats s2)
+			{
+				int order = Integer.compare(s2.getRecompileCount(), s1.getRecompileCount());
+
+				if (order == 0)
+				{
+					order = Integer.compare(s2.getInvalidationCount(), s1.getInvalidationCount());
+				}
+
+				if (order == 0)
+				{
+					order = Integer.compare(s2.getTrapCount(), s1.getTrapCount());
+				}
+
+				return order;
+			}
+		});
+
+		return result;
+	}
+
+	private void handleTrap(DeoptEvent event, Set<String> trappedCompileIDs)
+	{
+		trapCount++;
+		trapReasons.increment(event.getReason());
+
+		if (event.getCompileID() != null && !ACTION_NONE.equals(event.getAction()))
+		{
+			trappedCompileIDs.add(event.getCompileID());
+		}
+
+		DeoptMemberStats stats = getStats(event);
+
+		if (stats != null)
+		{
+			stats.addTrap(event);
+		}
+	}
+
+	private void handleMakeNotEntrant(DeoptEvent event, Set<String> trappedCompileIDs)
+	{
+		// zombie events are the later cleanup of code already made not entrant
+		if (event.isZombie())
+		{
+			return;
+		}
+
+		Compilation compilation = event.getCompilation();
+
+		if (!trappedCompileIDs.contains(event.getCompileID()) && compilation != null && isTierTransition(compilation))
+		{
+			return;
+		}
+
+		invalidationCount++;
+
+		DeoptMemberStats stats = getStats(event);
+
+		if (stats != null)
+		{
+			long installed = compilation.getStampNMethodEmitted();
+
+			long lifetime = (installed > 0 && event.getStamp() >= installed) ? event.getStamp() - installed : 0;
+
+			stats.addInvalidation(event, lifetime);
+		}
+	}
+
+	private boolean isTierTransition(Compilation compilation)
+	{
+		int level = compilation.getLevel();
+
+		return level >= 1 && level <= 3;
+	}
+
+	private DeoptMemberStats getStats(DeoptEvent event)
+	{
+		IMetaMember member = event.getMember();
+
+		if (member == null)
+		{
+			unresolvedCount++;
+			return null;
+		}
+
+		DeoptMemberStats stats = memberStats.get(member);
+
+		if (stats == null)
+		{
+			stats = new DeoptMemberStats(member);
+			memberStats.put(member, stats);
+		}
+
+		return stats;
+	}
+
+	/*
+	 * Pairs each invalidation with the first later compilation of the member.
+	 * Both lists are in log order so this is a single merge pass.
+	 */
+	private void correlateRecompiles(DeoptMemberStats stats)
+	{
+		List<Compilation> compilations = stats.getMember().getCompilations();
+
+		int next = 0;
+
+		for (DeoptEvent invalidation : stats.getInvalidations())
+		{
+			int invalidatedIndex = invalidation.getCompilation().getIndex();
+
+			while (next < compilations.size())
+			{
+				Compilation candidate = compilations.get(next);
+
+				if (candidate.getIndex() > invalidatedIndex && candidate.getStampTaskQueued() >= invalidation.getStamp())
+				{
+					break;
+				}
+
+				next++;
+			}
+
+			if (next < compilations.size())
+			{
+				stats.addRecompile(compilations.get(next).getStampTaskQueued() - invalidation.getStamp());
+
+				next++;
+			}
+		}
+	}
+
+	public Map<IMetaMember, DeoptMemberStats> getMemberStats()
+	{
+		return memberStats;
+	}
+
+	public Map<String, Integer> getTrapReasons()
+	{
+		return trapReasons.sortedByCount();
+	}
+
+	public int getTrapCount()
+	{
+		return trapCount;
+	}
+
+	public int getInvalidationCount()
+	{
+		return invalidationCount;
+	}
+
+	/*
+	 * Events whose compile_id did not match a compilation in the log
+	 */
+	public int getUnresolvedCount()
+	{
+		return unresolvedCount;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.deopt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+
+/*
+ * Deoptimisation activity of one member. An invalidation is a
+ * make_not_entrant caused by a trap or a broken dependency rather than by
+ * routine replacement with a higher tier, a recompile is the first
+ * compilation of the member queued after an invalidation.
+ */
+public class DeoptMemberStats
+{
+	private final IMetaMember member;
+
+	private final List<DeoptEvent> traps = new ArrayList<>();
+	private final List<DeoptEvent> invalidations = new ArrayList<>();
+
+	private final ReasonCounts trapReasons = new ReasonCounts();
+
+	private int recompileCount;
+	private long totalRecompileDelay;
+	private long totalCodeLifetime;
+
+	public DeoptMemberStats(IMetaMember member)
+	{
+		this.member = member;
+	}
+
+	void addTrap(DeoptEvent event)
+	{
+		traps.add(event);
+
+		trapReasons.increment(event.getReason());
+	}
+
+	void addInvalidation(DeoptEvent event, long codeLifetime)
+	{
+		invalidations.add(event);
+
+		totalCodeLifetime += codeLifetime;
+	}
+
+	void addRecompile(long delay)
+	{
+		recompileCount++;
+		totalRecompileDelay += delay;
+	}
+
+	public IMetaMember getMember()
+	{
+		return member;
+	}
+
+	public List<DeoptEvent> getTraps()
+	{
+		return traps;
+	}
+
+	public List<DeoptEvent> getInvalidations()
+	{
+		return invalidations;
+	}
+
+	public int getTrapCount()
+	{
+		return traps.size();
+	}
+
+	public int getInvalidationCount()
+	{
+		return invalidations.size();
+	}
+
+	public int getRecompileCount()
+	{
+		return recompileCount;
+	}
+
+	public int getCompilationCount()
+	{
+		return member.getCompilations().size();
+	}
+
+	/*
+	 * Mean milliseconds from an invalidation to the recompile it caused
+	 */
+	public long getMeanRecompileDelay()
+	{
+		return recompileCount == 0 ? 0 : totalRecompileDelay / recompileCount;
+	}
+
+	/*
+	 * Mean milliseconds an nmethod was installed before it was invalidated
+	 */
+	public long getMeanCodeLifetime()
+	{
+		return invalidations.isEmpty() ? 0 : totalCodeLifetime / invalidations.size();
+	}
+
+	public Map<String, Integer> getTrapReasons()
+	{
+		return trapReasons.sortedByCount();
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.deopt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class ReasonCounts extends HashMap<String, Integer>
+{
+	private static final long serialVersionUID = 1L;
+
+	static final String UNKNOWN_REASON = "unknown";
+
+	void increment(String reason)
+	{
+		if (reason == null)
+		{
+			reason = UNKNOWN_REASON;
+		}
+
+		Integer count = get(reason);
+
+		put(reason, count == null ? 1 : count + 1);
+	}
+
+	Map<String, Integer> sortedByCount()
+	{
+		List<Map.Entry<String, Integer>> entries = new ArrayList<>(entrySet());
+
+		Collections.sort(entries, new Comparator<Map.Entry<String, Integer>>()
+		{
+			@Override
+			public int compare(Map.Entry<String, Integer> e1, Map.Entry<String, Integer> e2)
+			{
+				int result = Integer.compare(e2.getValue(), e1.getValue());
+
+				return result != 0 ? result : e1.getKey().compareTo(e2.getKey());
+			}
+		});
+
+		Map<String, Integer> result = new LinkedHashMap<>();
+
+		for (Map.Entry<String, Integer> entry : entries)
+		{
+			result.put(entry.getKey(), entry.getValue());
+		}
+
+		return result;
+	}
+}
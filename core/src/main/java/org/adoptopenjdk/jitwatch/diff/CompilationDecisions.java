@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.diff;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BCI;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NAME;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_PARSE_HIR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_BC;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CALL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_FAIL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_SUCCESS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INTRINSIC;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PARSE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PHASE;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.compilation.AbstractCompilationVisitable;
+import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IParseDictionary;
+import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.PackedBytecodes;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Inlining decisions and intrinsics of one compilation collected in a single
+ * walk of its parse tags. Call sites are keyed by method signatures rather
+ * than parse dictionary IDs so they can be matched against another log.
+ */
+class CompilationDecisions extends AbstractCompilationVisitable
+{
+	private static final Logger logger = LoggerFactory.getLogger(CompilationDecisions.class);
+
+	// call site "caller@bci->callee" to inlined
+	private final Map<String, Boolean> inlined = new HashMap<>();
+
+	// call site to inlining reason
+	private final Map<String, String> reasons = new HashMap<>();
+
+	// method signature to intrinsic name
+	private final Map<String, String> intrinsics = new HashMap<>();
+
+	private final Map<String, String> signatureCache = new HashMap<>();
+
+	CompilationDecisions(Compilation compilation)
+	{
+		if (compilation != null)
+		{
+			try
+			{
+				CompilationUtil.visitParseTagsOfCompilation(compilation, this);
+			}
+			catch (LogParseException lpe)
+			{
+				logger.error("Could not collect inlining decisions of {}", compilation.getSignature(), lpe);
+			}
+		}
+
+		signatureCache.clear();
+	}
+
+	Map<String, Boolean> getInlined()
+	{
+		return inlined;
+	}
+
+	Map<String, String> getReasons()
+	{
+		return reasons;
+	}
+
+	Map<String, String> getIntrinsics()
+	{
+		return intrinsics;
+	}
+
+	@Override
+	public void visitTag(Tag parseTag, IParseDictionary parseDictionary) throws LogParseException
+	{
+		String root = getSignature(parseTag.getAttribute(ATTR_METHOD), parseDictionary);
+
+		if (root != null)
+		{
+			processParseTag(parseTag, root, parseDictionary);
+		}
+	}
+
+	private void processParseTag(Tag parseTag, String caller, IParseDictionary parseDictionary)
+	{
+		String methodID = null;
+		int bci = -1;
+
+		List<Tag> children = parseTag.getChildren();
+
+		PackedBytecodes.Cursor bcCursor = parseTag.getPackedBytecodeCursor();
+
+		int childCount = children.size();
+
+		for (int i = 0; i < childCount; i++)
+		{
+			if (bcCursor.advanceTo(i))
+			{
+				bci = bcCursor.getBCI();
+			}
+
+			Tag child = children.get(i);
+
+			switch (child.getName())
+			{
+			case TAG_BC:
+				bci = child.getIntAttribute(ATTR_BCI, -1);
+				break;
+
+			case TAG_METHOD:
+				methodID = child.getAttribute(ATTR_ID);
+				break;
+
+			case TAG_CALL:
+				methodID = child.getAttribute(ATTR_METHOD);
+				break;
+
+			case TAG_INLINE_FAIL:
+				addDecision(caller, bci, methodID, false, child.getAttribute(ATTR_REASON), parseDictionary);
+				methodID = null;
+				break;
+
+			case TAG_INLINE_SUCCESS:
+				addDecision(caller, bci, methodID, true, child.getAttribute(ATTR_REASON), parseDictionary);
+				break;
+
+			case TAG_INTRINSIC:
+			{
+				String intrinsicMethod = getSignature(methodID, parseDictionary);
+
+				if (intrinsicMethod != null)
+				{
+					intrinsics.put(intrinsicMethod, child.getAttribute(ATTR_ID));
+				}
+				break;
+			}
+
+			case TAG_PARSE:
+			{
+				String nestedCaller = getSignature(child.getAttribute(ATTR_METHOD), parseDictionary);
+
+				processParseTag(child, (nestedCaller != null) ? nestedCaller : caller, parseDictionary);
+				break;
+			}
+
+			case TAG_PHASE:
+				if (S_PARSE_HIR.equals(child.getAttribute(ATTR_NAME)))
+				{
+					processParseTag(child, caller, parseDictionary);
+				}
+				break;
+
+			default:
+				break;
+			}
+		}
+	}
+
+	private void addDecision(String caller, int bci, String methodID, boolean isInlined, String reason,
+			IParseDictionary parseDictionary)
+	{
+		String callee = getSignature(methodID, parseDictionary);
+
+		if (callee != null)
+		{
+			String callSite = caller + "@" + bci + "->" + callee;
+
+			if (reason != null && reason.indexOf('&') != -1)
+			{
+				reason = StringUtil.replaceXMLEntities(reason);
+			}
+
+			inlined.put(callSite, isInlined);
+			reasons.put(callSite, reason);
+		}
+	}
+
+	private String getSignature(String methodID, IParseDictionary parseDictionary)
+	{
+		if (methodID == null)
+		{
+			return null;
+		}
+
+		// method IDs are only unique within one compilation which this object covers
+		String signature = signatureCache.get(methodID);
+
+		if (signature == null && !signatureCache.containsKey(methodID))
+		{
+			signature = ParseUtil.buildMethodSignature(methodID, parseDictionary);
+
+			signatureCache.put(methodID, signature);
+		}
+
+		return signature;
+	}
+}
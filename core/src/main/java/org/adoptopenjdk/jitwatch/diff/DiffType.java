@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.diff;
+
+public enum DiffType
+{
+	NEWLY_COMPILED("Newly compiled"),
+	NO_LONGER_COMPILED("No longer compiled"),
+	DECOMPILES_CHANGED("Decompiles"),
+	LEVEL_CHANGED("Level"),
+	NATIVE_SIZE_CHANGED("Native size"),
+	COMPILE_TIME_CHANGED("Compile time"),
+	OSR_CHANGED("OSR"),
+	INLINING_CHANGED("Inlining"),
+	INTRINSICS_CHANGED("Intrinsics");
+
+	private final String text;
+
+	private DiffType(String text)
+	{
+		this.text = text;
+	}
+
+	public String getText()
+	{
+		return text;
+	}
+}
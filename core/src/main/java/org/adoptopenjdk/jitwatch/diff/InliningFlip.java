@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.diff;
+
+/*
+ * A call site that was inlined in one log and not in the other
+ */
+public class InliningFlip
+{
+	private final String callSite;
+	private final boolean inlinedBefore;
+	private final String reasonBefore;
+	private final String reasonAfter;
+
+	public InliningFlip(String callSite, boolean inlinedBefore, String reasonBefore, String reasonAfter)
+	{
+		this.callSite = callSite;
+		this.inlinedBefore = inlinedBefore;
+		this.reasonBefore = reasonBefore;
+		this.reasonAfter = reasonAfter;
+	}
+
+	public String getCallSite()
+	{
+		return callSite;
+	}
+
+	public boolean isInlinedBefore()
+	{
+		return inlinedBefore;
+	}
+
+	public boolean isInlinedAfter()
+	{
+		return !inlinedBefore;
+	}
+
+	public String getReasonBefore()
+	{
+		return reasonBefore;
+	}
+
+	public String getReasonAfter()
+	{
+		return reasonAfter;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append(callSite).append(' ');
+		builder.append(inlinedBefore ? "inlined" : "failed").append(" -> ").append(inlinedBefore ? "failed" : "inlined");
+
+		String reason = inlinedBefore ? reasonAfter : reasonBefore;
+
+		if (reason != null)
+		{
+			builder.append(" (").append(reason).append(')');
+		}
+
+		return builder.toString();
+	}
+}
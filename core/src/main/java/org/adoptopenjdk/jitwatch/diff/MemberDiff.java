@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.diff;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/*
+ * Differences of one member between a before and an after log
+ */
+public class MemberDiff
+{
+	private final String signature;
+
+	private final MemberSnapshot before;
+	private final MemberSnapshot after;
+
+	private final Set<DiffType> changes = EnumSet.noneOf(DiffType.class);
+
+	private final List<InliningFlip> inliningFlips = new ArrayList<>();
+
+	private final Map<String, String> intrinsicsGained = new TreeMap<>();
+	private final Map<String, String> intrinsicsLost = new TreeMap<>();
+
+	public MemberDiff(String signature, MemberSnapshot before, MemberSnapshot after, double nativeSizeTolerancePercent,
+			double compileTimeTolerancePercent)
+	{
+		this.signature = signature;
+		this.before = before;
+		this.after = after;
+
+		if (!before.isCompiled() && after.isCompiled())
+		{
+			changes.add(DiffType.NEWLY_COMPILED);
+		}
+		else if (before.isCompiled() && !after.isCompiled())
+		{
+			changes.add(DiffType.NO_LONGER_COMPILED);
+		}
+		else if (before.isCompiled() && after.isCompiled())
+		{
+			compareCompiled(nativeSizeTolerancePercent, compileTimeTolerancePercent);
+		}
+	}
+
+	private void compareCompiled(double nativeSizeTolerancePercent, double compileTimeTolerancePercent)
+	{
+		if (before.getDecompiles() != after.getDecompiles())
+		{
+			changes.add(DiffType.DECOMPILES_CHANGED);
+		}
+
+		if (before.getLevel() != after.getLevel())
+		{
+			changes.add(DiffType.LEVEL_CHANGED);
+		}
+
+		if (exceedsTolerance(before.getNativeSize(), after.getNativeSize(), nativeSizeTolerancePercent))
+		{
+			changes.add(DiffType.NATIVE_SIZE_CHANGED);
+		}
+
+		if (exceedsTolerance(before.getCompileMillis(), after.getCompileMillis(), compileTimeTolerancePercent))
+		{
+			changes.add(DiffType.COMPILE_TIME_CHANGED);
+		}
+
+		if (before.isOSR() != after.isOSR())
+		{
+			changes.add(DiffType.OSR_CHANGED);
+		}
+
+		compareInlining();
+
+		compareIntrinsics();
+	}
+
+	private void compareInlining()
+	{
+		Map<String, Boolean> beforeDecisions = before.getInliningDecisions();
+
+		// call sites only present in one log are new code paths, not flips
+		for (Map.Entry<String, Boolean> entry : after.getInliningDecisions().entrySet())
+		{
+			String callSite = entry.getKey();
+
+			Boolean inlinedBefore = beforeDecisions.get(callSite);
+
+			if (inlinedBefore != null && inlinedBefore.booleanValue() != entry.getValue().booleanValue())
+			{
+				inliningFlips.add(new InliningFlip(callSite, inlinedBefore, before.getInliningReason(callSite),
+						after.getInliningReason(callSite)));
+			}
+		}
+
+		if (!inliningFlips.isEmpty())
+		{
+			changes.add(DiffType.INLINING_CHANGED);
+		}
+	}
+
+	private void compareIntrinsics()
+	{
+		Map<String, String> beforeIntrinsics = before.getIntrinsics();
+		Map<String, String> afterIntrinsics = after.getIntrinsics();
+
+		for (Map.Entry<String, String> entry : afterIntrinsics.entrySet())
+		{
+			if (!beforeIntrinsics.containsKey(entry.getKey()))
+			{
+				intrinsicsGained.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		for (Map.Entry<String, String> entry : beforeIntrinsics.entrySet())
+		{
+			if (!afterIntrinsics.containsKey(entry.getKey()))
+			{
+				intrinsicsLost.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		if (!intrinsicsGained.isEmpty() || !intrinsicsLost.isEmpty())
+		{
+			changes.add(DiffType.INTRINSICS_CHANGED);
+		}
+	}
+
+	private static boolean exceedsTolerance(long beforeValue, long afterValue, double tolerancePercent)
+	{
+		long delta = Math.abs(afterValue - beforeValue);
+
+		return delta > 0 && delta * 100d > Math.abs(beforeValue) * tolerancePercent;
+	}
+
+	public String getSignature()
+	{
+		return signature;
+	}
+
+	public MemberSnapshot getBefore()
+	{
+		return before;
+	}
+
+	public MemberSnapshot getAfter()
+	{
+		return after;
+	}
+
+	public Set<DiffType> getChanges()
+	{
+		return changes;
+	}
+
+	public boolean hasChanges()
+	{
+		return !changes.isEmpty();
+	}
+
+	public boolean hasChange(DiffType type)
+	{
+		return changes.contains(type);
+	}
+
+	public List<InliningFlip> getInliningFlips()
+	{
+		return inliningFlips;
+	}
+
+	public Map<String, String> getIntrinsicsGained()
+	{
+		return intrinsicsGained;
+	}
+
+	public Map<String, String> getIntrinsicsLost()
+	{
+		return intrinsicsLost;
+	}
+
+	public String getChangesText()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (DiffType type : changes)
+		{
+			if (builder.length() > 0)
+			{
+				builder.append(", ");
+			}
+
+			builder.append(type.getText());
+		}
+
+		return builder.toString();
+	}
+
+	@Override
+	public String toString()
+	{
+		return signature + " [" + getChangesText() + "]";
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.diff;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_DECOMPILES;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+
+/*
+ * The JIT state of one member in one log. A member absent from a log, or
+ * present but never compiled, has an uncompiled snapshot.
+ */
+public class MemberSnapshot
+{
+	private final IMetaMember member;
+
+	private final boolean compiled;
+	private final int compilationCount;
+	private final int level;
+	private final int nativeSize;
+	private final long compileMillis;
+	private final boolean osr;
+	private final int decompiles;
+
+	private CompilationDecisions decisions;
+
+	public MemberSnapshot(IMetaMember member)
+	{
+		this.member = member;
+
+		int count = 0;
+		int lastLevel = 0;
+		int lastNativeSize = 0;
+		long totalMillis = 0;
+		boolean anyOSR = false;
+		int decompileCount = 0;
+
+		if (member != null && member.isCompiled())
+		{
+			for (Compilation compilation : member.getCompilations())
+			{
+				count++;
+				totalMillis += compilation.getCompilationDuration();
+				anyOSR |= compilation.isOSR();
+			}
+
+			Compilation last = member.getLastCompilation();
+
+			if (last != null)
+			{
+				lastLevel = last.getLevel();
+				lastNativeSize = last.getNativeSize();
+			}
+
+			decompileCount = parseInt(member.getCompiledAttribute(ATTR_DECOMPILES));
+		}
+
+		this.compiled = member != null && member.isCompiled();
+		this.compilationCount = count;
+		this.level = lastLevel;
+		this.nativeSize = lastNativeSize;
+		this.compileMillis = totalMillis;
+		this.osr = anyOSR;
+		this.decompiles = decompileCount;
+	}
+
+	public IMetaMember getMember()
+	{
+		return member;
+	}
+
+	public boolean isCompiled()
+	{
+		return compiled;
+	}
+
+	public int getCompilationCount()
+	{
+		return compilationCount;
+	}
+
+	public int getLevel()
+	{
+		return level;
+	}
+
+	public int getNativeSize()
+	{
+		return nativeSize;
+	}
+
+	public long getCompileMillis()
+	{
+		return compileMillis;
+	}
+
+	public boolean isOSR()
+	{
+		return osr;
+	}
+
+	public int getDecompiles()
+	{
+		return decompiles;
+	}
+
+	/*
+	 * Inlining decisions of the last compilation keyed by call site, only walked
+	 * when first needed
+	 */
+	public Map<String, Boolean> getInliningDecisions()
+	{
+		return getDecisions() == null ? Collections.<String, Boolean> emptyMap() : decisions.getInlined();
+	}
+
+	public String getInliningReason(String callSite)
+	{
+		return getDecisions() == null ? null : decisions.getReasons().get(callSite);
+	}
+
+	public Map<String, String> getIntrinsics()
+	{
+		return getDecisions() == null ? Collections.<String, String> emptyMap() : decisions.getIntrinsics();
+	}
+
+	private CompilationDecisions getDecisions()
+	{
+		if (decisions == null && compiled)
+		{
+			decisions = new CompilationDecisions(member.getLastCompilation());
+		}
+
+		return decisions;
+	}
+
+	private static int parseInt(String value)
+	{
+		int result = 0;
+
+		if (value != null)
+		{
+			try
+			{
+				result = Integer.parseInt(value);
+			}
+			catch (NumberFormatException nfe)
+			{
+			}
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.diff;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_DOT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+
+/*
+ * Compares the JIT behaviour of two parsed logs, e.g. before and after a code
+ * or JVM flag change. Members are matched by fully qualified signature using
+ * one hash map of the compiled members of each model, so the cost is linear
+ * in the size of both models. Members not compiled in either log are not
+ * reported.
+ *
+ * The after model can be given as a snapshot() taken on the thread that
+ * owns it so the comparison can run on another thread.
+ */
+public class ModelDiff
+{
+	public static final double DEFAULT_NATIVE_SIZE_TOLERANCE_PERCENT = 0;
+	public static final double DEFAULT_COMPILE_TIME_TOLERANCE_PERCENT = 25;
+
+	private static final MemberSnapshot NOT_COMPILED = new MemberSnapshot(null);
+
+	private final IReadOnlyJITDataModel beforeModel;
+	private final IReadOnlyJITDataModel afterModel;
+	private final Map<String, MemberSnapshot> afterSnapshot;
+
+	private double nativeSizeTolerancePercent = DEFAULT_NATIVE_SIZE_TOLERANCE_PERCENT;
+	private double compileTimeTolerancePercent = DEFAULT_COMPILE_TIME_TOLERANCE_PERCENT;
+
+	private final List<MemberDiff> diffs = new ArrayList<>();
+
+	private int matchedCount;
+	private int onlyBeforeCount;
+	private int onlyAfterCount;
+
+	public ModelDiff(IReadOnlyJITDataModel beforeModel, IReadOnlyJITDataModel afterModel)
+	{
+		this.beforeModel = beforeModel;
+		this.afterModel = afterModel;
+		this.afterSnapshot = null;
+	}
+
+	public ModelDiff(IReadOnlyJITDataModel beforeModel, Map<String, MemberSnapshot> afterSnapshot)
+	{
+		this.beforeModel = beforeModel;
+		this.afterModel = null;
+		this.afterSnapshot = afterSnapshot;
+	}
+
+	/*
+	 * The compiled members of a model keyed by signature
+	 */
+	public static Map<String, MemberSnapshot> snapshot(IReadOnlyJITDataModel model)
+	{
+		final Map<String, MemberSnapshot> snapshots = new HashMap<>();
+
+		TreeVisitor.walkTree(model, new ITreeVisitable()
+		{
+			@Override
+			public void visit(IMetaMember member)
+			{
+				if (member != null && member.isCompiled())
+				{
+					snapshots.put(getSignature(member), new MemberSnapshot(member));
+				}
+			}
+
+			@Override
+			public void reset()
+			{
+			}
+		});
+
+		return snapshots;
+	}
+
+	public void setNativeSizeTolerancePercent(double nativeSizeTolerancePercent)
+	{
+		this.nativeSizeTolerancePercent = nativeSizeTolerancePercent;
+	}
+
+	public void setCompileTimeTolerancePercent(double compileTimeTolerancePercent)
+	{
+		this.compileTimeTolerancePercent = compileTimeTolerancePercent;
+	}
+
+	/*
+	 * Returns the members with at least one difference sorted by signature
+	 */
+	public List<MemberDiff> compare()
+	{
+		diffs.clear();
+		matchedCount = 0;
+		onlyBeforeCount = 0;
+		onlyAfterCount = 0;
+
+		Map<String, MemberSnapshot> beforeMembers = snapshot(beforeModel);
+
+		Map<String, MemberSnapshot> afterMembers = afterSnapshot != null ? afterSnapshot : snapshot(afterModel);
+
+		for (Map.Entry<String, MemberSnapshot> entry : afterMembers.entrySet())
+		{
+			MemberSnapshot before = beforeMembers.remove(entry.getKey());
+
+			addDiff(entry.getKey(), before != null ? before : NOT_COMPILED, entry.getValue());
+		}
+
+		// compiled before but not after
+		for (Map.Entry<String, MemberSnapshot> entry : beforeMembers.entrySet())
+		{
+			addDiff(entry.getKey(), entry.getValue(), NOT_COMPILED);
+		}
+
+		Collections.sort(diffs, new Comparator<MemberDiff>()
+		{
+			@Override
+			public int compare(MemberDiff d1, MemberDiff d2)
+			{
+				return d1.getSignature().compareTo(d2.getSignature());
+			}
+		});
+
+		return diffs;
+	}
+
+	private void addDiff(String signature, MemberSnapshot before, MemberSnapshot after)
+	{
+		if (before.isCompiled() && after.isCompiled())
+		{
+			matchedCount++;
+		}
+		else if (before.isCompiled())
+		{
+			onlyBeforeCount++;
+		}
+		else
+		{
+			onlyAfterCount++;
+		}
+
+		MemberDiff diff = new MemberDiff(signature, before, after, nativeSizeTolerancePercent, compileTimeTolerancePercent);
+
+		if (diff.hasChanges())
+		{
+			diffs.add(diff);
+		}
+	}
+
+	/*
+	 * Includes the return type as bridge methods differ from the method they
+	 * call only by return type
+	 */
+	public static String getSignature(IMetaMember member)
+	{
+		return member.getReturnTypeName() + C_SPACE + member.getMetaClass().getFullyQualifiedName() + C_DOT
+				+ member.toStringUnqualifiedMethodName(false, true);
+	}
+
+	public List<MemberDiff> getDiffs()
+	{
+		return diffs;
+	}
+
+	public int getMatchedCount()
+	{
+		return matchedCount;
+	}
+
+	public int getOnlyBeforeCount()
+	{
+		return onlyBeforeCount;
+	}
+
+	public int getOnlyAfterCount()
+	{
+		return onlyAfterCount;
+	}
+
+	public int getCount(DiffType type)
+	{
+		int count = 0;
+
+		for (MemberDiff diff : diffs)
+		{
+			if (diff.hasChange(type))
+			{
+				count++;
+			}
+		}
+
+		return count;
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.export;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_NEWLINE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.HEADLESS_SEPARATOR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
+import java.io.IOException;
+
+/*
+ * Same layout as the other headless output: a sep= line then one block per
+ * section with a header row. Separators and newlines inside values are
+ * replaced with spaces so every record stays on one line.
+ */
+public class CSVRecordWriter implements IRecordWriter
+{
+	private final ChannelTextWriter out;
+
+	private boolean started = false;
+	private String recordType;
+
+	public CSVRecordWriter(ChannelTextWriter out)
+	{
+		this.out = out;
+	}
+
+	@Override
+	public void startSection(String recordType, String... columns) throws IOException
+	{
+		if (!started)
+		{
+			out.append("sep=").append(HEADLESS_SEPARATOR).append(S_NEWLINE);
+			started = true;
+		}
+		else
+		{
+			out.append(S_NEWLINE);
+		}
+
+		out.append("Record");
+
+		for (String column : columns)
+		{
+			out.append(HEADLESS_SEPARATOR).append(column);
+		}
+
+		out.append(S_NEWLINE);
+
+		this.recordType = recordType;
+	}
+
+	@Override
+	public void beginRecord() throws IOException
+	{
+		out.append(recordType);
+	}
+
+	@Override
+	public void field(String value) throws IOException
+	{
+		out.append(HEADLESS_SEPARATOR);
+
+		if (value != null)
+		{
+			int length = value.length();
+
+			for (int i = 0; i < length; i++)
+			{
+				char c = value.charAt(i);
+
+				if (c == HEADLESS_SEPARATOR || c == C_NEWLINE || c == '\r')
+				{
+					c = C_SPACE;
+				}
+
+				out.append(c);
+			}
+		}
+	}
+
+	@Override
+	public void field(long value) throws IOException
+	{
+		out.append(HEADLESS_SEPARATOR).append(value);
+	}
+
+	@Override
+	public void field(boolean value) throws IOException
+	{
+		out.append(HEADLESS_SEPARATOR).append(value ? "Y" : "N");
+	}
+
+	@Override
+	public void endRecord() throws IOException
+	{
+		out.append(S_NEWLINE);
+	}
+
+	@Override
+	public void flush() throws IOException
+	{
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		out.close();
+	}
+}
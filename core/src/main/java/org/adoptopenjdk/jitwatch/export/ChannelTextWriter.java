@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.export;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Text output through a fixed size buffer straight onto a channel.
+ *
+ * Memory use is bounded by the buffer size however much is written so a
+ * model of any size can be exported without building it up in a String.
+ */
+public class ChannelTextWriter implements Closeable, Flushable
+{
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private final WritableByteChannel channel;
+	private final boolean closeChannel;
+
+	// the stream under the channel, null if there is none to flush
+	private final OutputStream stream;
+
+	private final CharsetEncoder encoder;
+	private final CharBuffer charBuffer;
+	private final ByteBuffer byteBuffer;
+
+	private boolean closed = false;
+
+	public ChannelTextWriter(WritableByteChannel channel, boolean closeChannel, int bufferSize)
+	{
+		this(channel, closeChannel, null, bufferSize);
+	}
+
+	private ChannelTextWriter(WritableByteChannel channel, boolean closeChannel, OutputStream stream, int bufferSize)
+	{
+		this.channel = channel;
+		this.closeChannel = closeChannel;
+		this.stream = stream;
+
+		encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		charBuffer = CharBuffer.allocate(bufferSize / 4);
+		byteBuffer = ByteBuffer.allocate(bufferSize);
+	}
+
+	public static ChannelTextWriter toFile(Path path) throws IOException
+	{
+		FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+
+		return new ChannelTextWriter(fileChannel, true, DEFAULT_BUFFER_SIZE);
+	}
+
+	// the stream is flushed but left open on close
+	public static ChannelTextWriter toStream(OutputStream out)
+	{
+		return new ChannelTextWriter(Channels.newChannel(out), false, out, DEFAULT_BUFFER_SIZE);
+	}
+
+	public ChannelTextWriter append(CharSequence text) throws IOException
+	{
+		if (text == null)
+		{
+			text = "null";
+		}
+
+		int length = text.length();
+
+		int pos = 0;
+
+		while (pos < length)
+		{
+			if (!charBuffer.hasRemaining())
+			{
+				encode(false);
+			}
+
+			int count = Math.min(charBuffer.remaining(), length - pos);
+
+			for (int i = 0; i < count; i++)
+			{
+				charBuffer.put(text.charAt(pos++));
+			}
+		}
+
+		return this;
+	}
+
+	public ChannelTextWriter append(char c) throws IOException
+	{
+		if (!charBuffer.hasRemaining())
+		{
+			encode(false);
+		}
+
+		charBuffer.put(c);
+
+		return this;
+	}
+
+	public ChannelTextWriter append(long value) throws IOException
+	{
+		return append(Long.toString(value));
+	}
+
+	@Override
+	public void flush() throws IOException
+	{
+		encode(false);
+		writeBytes();
+		flushStream();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		if (closed)
+		{
+			return;
+		}
+
+		closed = true;
+
+		try
+		{
+			encode(true);
+
+			while (encoder.flush(byteBuffer).isOverflow())
+			{
+				writeBytes();
+			}
+
+			writeBytes();
+			flushStream();
+		}
+		finally
+		{
+			if (closeChannel)
+			{
+				channel.close();
+			}
+		}
+	}
+
+	private void flushStream() throws IOException
+	{
+		if (stream != null)
+		{
+			stream.flush();
+		}
+	}
+
+	private void encode(boolean endOfInput) throws IOException
+	{
+		charBuffer.flip();
+
+		while (true)
+		{
+			CoderResult result = encoder.encode(charBuffer, byteBuffer, endOfInput);
+
+			if (result.isOverflow())
+			{
+				writeBytes();
+			}
+			else if (result.isUnderflow())
+			{
+				break;
+			}
+			else
+			{
+				throw new CharacterCodingException();
+			}
+		}
+
+		// keeps a trailing high surrogate for the next pass
+		charBuffer.compact();
+	}
+
+	private void writeBytes() throws IOException
+	{
+		byteBuffer.flip();
+
+		while (byteBuffer.hasRemaining())
+		{
+			channel.write(byteBuffer);
+		}
+
+		byteBuffer.clear();
+	}
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.export;
+
+public enum ExportFormat
+{
+	CSV("csv"), JSONL("jsonl");
+
+	private final String extension;
+
+	ExportFormat(String extension)
+	{
+		this.extension = extension;
+	}
+
+	public String getExtension()
+	{
+		return extension;
+	}
+
+	public IRecordWriter createWriter(ChannelTextWriter out)
+	{
+		switch (this)
+		{
+		case JSONL:
+			return new JSONLinesRecordWriter(out);
+		default:
+			return new CSVRecordWriter(out);
+		}
+	}
+}
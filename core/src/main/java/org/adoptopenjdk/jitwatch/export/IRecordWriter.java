@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.export;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/*
+ * Writes typed records one field at a time. A section declares the record
+ * type and column names that the following records use.
+ */
+public interface IRecordWriter extends Closeable, Flushable
+{
+	void startSection(String recordType, String... columns) throws IOException;
+
+	void beginRecord() throws IOException;
+
+	void field(String value) throws IOException;
+
+	void field(long value) throws IOException;
+
+	void field(boolean value) throws IOException;
+
+	void endRecord() throws IOException;
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.export;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
+import java.io.IOException;
+
+/*
+ * One JSON object per line, keyed by the section's column names with the
+ * record type under "record". Null strings are written as JSON null.
+ */
+public class JSONLinesRecordWriter implements IRecordWriter
+{
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final ChannelTextWriter out;
+
+	private String recordType;
+	private String[] columns;
+
+	private int fieldIndex = 0;
+
+	public JSONLinesRecordWriter(ChannelTextWriter out)
+	{
+		this.out = out;
+	}
+
+	@Override
+	public void startSection(String recordType, String... columns) throws IOException
+	{
+		this.recordType = recordType;
+		this.columns = columns;
+	}
+
+	@Override
+	public void beginRecord() throws IOException
+	{
+		out.append("{\"record\":");
+		writeString(recordType);
+
+		fieldIndex = 0;
+	}
+
+	@Override
+	public void field(String value) throws IOException
+	{
+		writeName();
+
+		if (value == null)
+		{
+			out.append("null");
+		}
+		else
+		{
+			writeString(value);
+		}
+	}
+
+	@Override
+	public void field(long value) throws IOException
+	{
+		writeName();
+		out.append(value);
+	}
+
+	@Override
+	public void field(boolean value) throws IOException
+	{
+		writeName();
+		out.append(value ? "true" : "false");
+	}
+
+	@Override
+	public void endRecord() throws IOException
+	{
+		out.append('}').append(S_NEWLINE);
+	}
+
+	@Override
+	public void flush() throws IOException
+	{
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		out.close();
+	}
+
+	private void writeName() throws IOException
+	{
+		if (fieldIndex >= columns.length)
+		{
+			throw new IllegalStateException("Too many fields for " + recordType + " record");
+		}
+
+		out.append(',');
+		writeString(columns[fieldIndex++]);
+		out.append(':');
+	}
+
+	private void writeString(String value) throws IOException
+	{
+		out.append('"');
+
+		int length = value.length();
+
+		for (int i = 0; i < length; i++)
+		{
+			char c = value.charAt(i);
+
+			switch (c)
+			{
+			case '"':
+				out.append("\\\"");
+				break;
+			case '\\':
+				out.append("\\\\");
+				break;
+			case '\n':
+				out.append("\\n");
+				break;
+			case '\r':
+				out.append("\\r");
+				break;
+			case '\t':
+				out.append("\\t");
+				break;
+			default:
+				if (c < 0x20)
+				{
+					out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+				}
+				else
+				{
+					out.append(c);
+				}
+				break;
+			}
+		}
+
+		out.append('"');
+	}
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.export;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BCI;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BYTES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_IICOUNT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NAME;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_PARSE_HIR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_BC;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CALL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_FAIL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_SUCCESS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PARSE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PHASE;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.compilation.AbstractCompilationVisitable;
+import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IParseDictionary;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.PackedBytecodes;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.report.Report;
+import org.adoptopenjdk.jitwatch.report.comparator.ScoreComparator;
+import org.adoptopenjdk.jitwatch.report.suggestion.SuggestionWalker;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Streams the parsed model to an IRecordWriter. Records are written while
+ * walking the model so nothing beyond the current member is held in memory
+ * (suggestions are the exception as they are ranked before output).
+ */
+public class ModelExporter
+{
+	private static final Logger logger = LoggerFactory.getLogger(ModelExporter.class);
+
+	public static final String RECORD_COMPILATION = "compilation";
+	public static final String RECORD_INLINING = "inlining";
+	public static final String RECORD_SUGGESTION = "suggestion";
+	public static final String RECORD_CODE_CACHE = "codecache";
+
+	private final IReadOnlyJITDataModel model;
+	private final IRecordWriter writer;
+
+	public ModelExporter(IReadOnlyJITDataModel model, IRecordWriter writer)
+	{
+		this.model = model;
+		this.writer = writer;
+	}
+
+	public void exportAll() throws IOException
+	{
+		exportCompilations();
+		exportInliningDecisions();
+		exportSuggestions();
+		exportCodeCacheEvents();
+
+		writer.flush();
+	}
+
+	public void exportCompilations() throws IOException
+	{
+		writer.startSection(RECORD_COMPILATION, "class", "member", "compileID", "compiler", "level", "osr", "c2n", "queued",
+				"started", "emitted", "duration", "bytecodeSize", "nativeSize");
+
+		walk(new MemberRecordVisitor()
+		{
+			@Override
+			protected void writeMember(IMetaMember member) throws IOException
+			{
+				String className = member.getMetaClass().getFullyQualifiedName();
+				String memberName = member.toStringUnqualifiedMethodName(true, true);
+
+				for (Compilation compilation : member.getCompilations())
+				{
+					writer.beginRecord();
+					writer.field(className);
+					writer.field(memberName);
+					writer.field(compilation.getCompileID());
+					writer.field(compilation.getCompiler());
+					writer.field(compilation.getLevel());
+					writer.field(compilation.isOSR());
+					writer.field(compilation.isC2N());
+					writer.field(compilation.getStampTaskQueued());
+					writer.field(compilation.getStampTaskCompilationStart());
+					writer.field(compilation.getStampNMethodEmitted());
+					writer.field(compilation.getCompilationDuration());
+					writer.field(compilation.getBytecodeSize());
+					writer.field(compilation.getNativeSize());
+					writer.endRecord();
+				}
+			}
+		});
+	}
+
+	public void exportInliningDecisions() throws IOException
+	{
+		writer.startSection(RECORD_INLINING, "rootClass", "rootMember", "compileID", "callerClass", "callerMember", "bci",
+				"calleeClass", "calleeMember", "calleeBytes", "calleeInvocations", "inlined", "reason");
+
+		walk(new MemberRecordVisitor()
+		{
+			private final InliningRecordVisitor inliningVisitor = new InliningRecordVisitor();
+
+			@Override
+			protected void writeMember(IMetaMember member) throws IOException
+			{
+				for (Compilation compilation : member.getCompilations())
+				{
+					inliningVisitor.setCompilation(member, compilation);
+
+					try
+					{
+						CompilationUtil.visitParseTagsOfCompilation(compilation, inliningVisitor);
+					}
+					catch (LogParseException e)
+					{
+						logger.error("Could not export inlining for {}", member, e);
+					}
+
+					inliningVisitor.rethrow();
+				}
+			}
+		});
+	}
+
+	public void exportSuggestions() throws IOException
+	{
+		writer.startSection(RECORD_SUGGESTION, "type", "score", "callerClass", "callerMember", "bci", "text");
+
+		SuggestionWalker walker = new SuggestionWalker(model);
+
+		List<Report> suggestions = walker.getReports(new ScoreComparator());
+
+		for (Report suggestion : suggestions)
+		{
+			IMetaMember caller = suggestion.getCaller();
+
+			writer.beginRecord();
+			writer.field(suggestion.getType().toString());
+			writer.field(suggestion.getScore());
+			writer.field(caller != null ? caller.getMetaClass().getFullyQualifiedName() : null);
+			writer.field(caller != null ? caller.toStringUnqualifiedMethodName(true, true) : null);
+			writer.field(suggestion.getBytecodeOffset());
+			writer.field(suggestion.getText());
+			writer.endRecord();
+		}
+	}
+
+	public void exportCodeCacheEvents() throws IOException
+	{
+		writer.startSection(RECORD_CODE_CACHE, "type", "stamp", "nativeSize", "freeCodeCache", "address", "level", "class",
+				"member", "compileID");
+
+		for (CodeCacheEvent event : model.getCodeCacheEvents())
+		{
+			Compilation compilation = event.getCompilation();
+
+			IMetaMember member = (compilation != null) ? compilation.getMember() : null;
+
+			writer.beginRecord();
+			writer.field(event.getEventType().toString());
+			writer.field(event.getStamp());
+			writer.field(event.getNativeCodeSize());
+			writer.field(event.getFreeCodeCache());
+			writer.field(event.getNativeAddress());
+			writer.field(event.getCompilationLevel());
+			writer.field(member != null ? member.getMetaClass().getFullyQualifiedName() : null);
+			writer.field(member != null ? member.toStringUnqualifiedMethodName(true, true) : null);
+			writer.field(compilation != null ? compilation.getCompileID() : null);
+			writer.endRecord();
+		}
+	}
+
+	private void walk(MemberRecordVisitor visitor) throws IOException
+	{
+		TreeVisitor.walkTree(model, visitor);
+
+		visitor.rethrow();
+	}
+
+	/*
+	 * ITreeVisitable cannot throw so the first write failure is kept and
+	 * rethrown once the walk returns. Members after a failure are skipped.
+	 */
+	private abstract static class MemberRecordVisitor implements ITreeVisitable
+	{
+		private IOException failure;
+
+		protected abstract void writeMember(IMetaMember member) throws IOException;
+
+		@Override
+		public void visit(IMetaMember member)
+		{
+			if (failure == null && member != null && member.isCompiled())
+			{
+				try
+				{
+					writeMember(member);
+				}
+				catch (IOException ioe)
+				{
+					failure = ioe;
+				}
+			}
+		}
+
+		@Override
+		public void reset()
+		{
+			failure = null;
+		}
+
+		void rethrow() throws IOException
+		{
+			if (failure != null)
+			{
+				throw failure;
+			}
+		}
+	}
+
+	private class InliningRecordVisitor extends AbstractCompilationVisitable
+	{
+		private IMetaMember rootMember;
+		private Compilation compilation;
+
+		private IOException failure;
+
+		void setCompilation(IMetaMember rootMember, Compilation compilation)
+		{
+			this.rootMember = rootMember;
+			this.compilation = compilation;
+		}
+
+		void rethrow() throws IOException
+		{
+			if (failure != null)
+			{
+				IOException toThrow = failure;
+				failure = null;
+				throw toThrow;
+			}
+		}
+
+		@Override
+		public void visitTag(Tag parseTag, IParseDictionary parseDictionary) throws LogParseException
+		{
+			if (failure == null)
+			{
+				try
+				{
+					processParseTag(parseTag, rootMember, parseDictionary);
+				}
+				catch (IOException ioe)
+				{
+					failure = ioe;
+				}
+			}
+		}
+
+		private void processParseTag(Tag parseTag, IMetaMember caller, IParseDictionary parseDictionary) throws IOException
+		{
+			String methodID = null;
+
+			int currentBytecode = -1;
+
+			List<Tag> children = parseTag.getChildren();
+
+			PackedBytecodes.Cursor bcCursor = parseTag.getPackedBytecodeCursor();
+
+			int childCount = children.size();
+
+			for (int i = 0; i < childCount; i++)
+			{
+				if (bcCursor.advanceTo(i))
+				{
+					currentBytecode = bcCursor.getBCI();
+				}
+
+				Tag child = children.get(i);
+
+				String tagName = child.getName();
+
+				switch (tagName)
+				{
+				case TAG_METHOD:
+					methodID = child.getAttribute(ATTR_ID);
+					break;
+
+				case TAG_BC:
+					currentBytecode = child.getIntAttribute(ATTR_BCI);
+					break;
+
+				case TAG_CALL:
+					methodID = child.getAttribute(ATTR_METHOD);
+					break;
+
+				case TAG_INLINE_SUCCESS:
+					writeDecision(caller, currentBytecode, methodID, true, child.getAttribute(ATTR_REASON), parseDictionary);
+					break;
+
+				case TAG_INLINE_FAIL:
+					writeDecision(caller, currentBytecode, methodID, false, child.getAttribute(ATTR_REASON), parseDictionary);
+					methodID = null;
+					break;
+
+				case TAG_PARSE:
+				{
+					IMetaMember nestedCaller = ParseUtil.lookupMember(child.getAttribute(ATTR_METHOD), parseDictionary, model);
+
+					if (nestedCaller != null)
+					{
+						processParseTag(child, nestedCaller, parseDictionary);
+					}
+					break;
+				}
+
+				case TAG_PHASE:
+					if (S_PARSE_HIR.equals(child.getAttribute(ATTR_NAME)))
+					{
+						processParseTag(child, caller, parseDictionary);
+					}
+					break;
+
+				default:
+					break;
+				}
+			}
+		}
+
+		private void writeDecision(IMetaMember caller, int bci, String methodID, boolean inlined, String reason,
+				IParseDictionary parseDictionary) throws IOException
+		{
+			IMetaMember callee = ParseUtil.lookupMember(methodID, parseDictionary, model);
+
+			Tag methodTag = (methodID != null) ? parseDictionary.getMethod(methodID) : null;
+
+			long bytes = -1;
+			long invocations = -1;
+
+			if (methodTag != null)
+			{
+				bytes = methodTag.getLongAttribute(ATTR_BYTES, -1);
+				invocations = methodTag.getLongAttribute(ATTR_IICOUNT, -1);
+			}
+
+			writer.beginRecord();
+			writer.field(rootMember.getMetaClass().getFullyQualifiedName());
+			writer.field(rootMember.toStringUnqualifiedMethodName(true, true));
+			writer.field(compilation.getCompileID());
+			writer.field(caller != null ? caller.getMetaClass().getFullyQualifiedName() : null);
+			writer.field(caller != null ? caller.toStringUnqualifiedMethodName(true, true) : null);
+			writer.field(bci);
+			writer.field(callee != null ? callee.getMetaClass().getFullyQualifiedName() : null);
+			writer.field(callee != null ? callee.toStringUnqualifiedMethodName(true, true) : null);
+			writer.field(bytes);
+			writer.field(invocations);
+			writer.field(inlined);
+			writer.field(reason != null ? StringUtil.replaceXMLEntities(reason) : null);
+			writer.endRecord();
+		}
+	}
+}
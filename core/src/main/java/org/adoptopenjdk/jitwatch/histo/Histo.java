@@ -1,87 +1,106 @@
 /*
- * Copyright (c) 2013-2015 Chris Newland.
+ * Copyright (c) 2013-2018 Chris Newland.
  * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
  * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
  */
 package org.adoptopenjdk.jitwatch.histo;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+/*
+ * Samples are held in a fixed size LogLinearHistogram so recording does not
+ * box or retain the values. The resolution only groups buckets for display
+ * in getSortedData().
+ */
 public class Histo
 {
-	private Map<Long, Integer> bucketMap = new HashMap<>();
-
-	// lots of writes, not COWAL
-	private List<Long> values = new ArrayList<>();
+	private final LogLinearHistogram histogram;
 
-	private long lastTime = 0;
-	private int maxCount = 0;
 	private long resolution = 1;
 
 	public Histo()
 	{
-
+		this(1);
 	}
 
 	public Histo(long resolution)
 	{
-		this.resolution = resolution;
+		this(resolution, LogLinearHistogram.DEFAULT_SIGNIFICANT_BITS);
 	}
 
-	public void addValue(long inValue)
+	public Histo(long resolution, int significantBits)
 	{
-        long value = inValue;
-		synchronized (values)
-		{
-			values.add(value);
-		}
-
-		if (resolution > 1)
-		{
-			value = (value / resolution) * resolution;
-		}
-
-		int newCount = 0;
-
-		if (bucketMap.containsKey(value))
-		{
-			newCount = bucketMap.get(value) + 1;
-		}
-		else
-		{
-			newCount = 1;
-		}
+		this.resolution = Math.max(1, resolution);
+		this.histogram = new LogLinearHistogram(significantBits);
+	}
 
-		bucketMap.put(value, newCount);
+	public void addValue(long value)
+	{
+		histogram.recordValue(value);
+	}
 
-		if (newCount > maxCount)
-		{
-			maxCount = newCount;
-		}
+	/*
+	 * Merges a histogram built by another walker, e.g. on another thread
+	 */
+	public void add(Histo other)
+	{
+		histogram.add(other.histogram);
+	}
 
-		if (value > lastTime)
-		{
-			lastTime = value;
-		}
+	public void clear()
+	{
+		histogram.reset();
+	}
 
+	public LogLinearHistogram getHistogram()
+	{
+		return histogram;
 	}
 
-	public void clear()
+	public long getCount()
 	{
-		bucketMap.clear();
-		lastTime = 0;
-		maxCount = 0;
+		return histogram.getTotalCount();
 	}
 
 	public List<Map.Entry<Long, Integer>> getSortedData()
 	{
-		List<Map.Entry<Long, Integer>> result = new ArrayList<>(bucketMap.entrySet());
+		List<Map.Entry<Long, Integer>> result = new ArrayList<>();
+
+		long currentKey = -1;
+		long currentCount = 0;
+
+		int bucketCount = histogram.getBucketCount();
+
+		// buckets are in ascending value order so equal keys are adjacent
+		for (int i = 0; i < bucketCount; i++)
+		{
+			long count = histogram.getCountAtBucket(i);
+
+			if (count == 0)
+			{
+				continue;
+			}
+
+			long key = roundToResolution(histogram.getLowestEquivalentValue(i));
+
+			if (key != currentKey)
+			{
+				addEntry(result, currentKey, currentCount);
+
+				currentKey = key;
+				currentCount = 0;
+			}
+
+			currentCount += count;
+		}
+
+		addEntry(result, currentKey, currentCount);
 
 		Collections.sort(result, new Comparator<Map.Entry<Long, Integer>>()
 		{
@@ -95,51 +114,37 @@ public class Histo
 		return result;
 	}
 
+	private void addEntry(List<Map.Entry<Long, Integer>> result, long key, long count)
+	{
+		if (count > 0)
+		{
+			result.add(new AbstractMap.SimpleImmutableEntry<>(key, (int) Math.min(Integer.MAX_VALUE, count)));
+		}
+	}
+
+	private long roundToResolution(long value)
+	{
+		return (resolution > 1) ? (value / resolution) * resolution : value;
+	}
+
 	/*
 	 * Nearest rank percentile calculation from
 	 * http://en.wikipedia.org/wiki/Percentile
 	 */
 	public long getPercentile(double percentile)
 	{
-		long result = 0;
-
-		List<Long> valuesCopy = null;
-
-		synchronized (values)
-		{
-			valuesCopy = new ArrayList<>(values);
-		}
-
-		Collections.sort(valuesCopy);
-
-		int count = valuesCopy.size();
-
-		if (percentile >= 100)
-		{
-			result = valuesCopy.get(count - 1);
-		}
-		else if (percentile <= 0)
-		{
-			result = 0;
-		}
-		else
-		{
-			double position = 0.5 + (percentile) / 100.0 * count;
-			int index = (int) Math.round(position) - 1;
-
-			result = valuesCopy.get(index);
-		}
-
-		return result;
+		return histogram.getPercentile(percentile);
 	}
 
 	public long getLastTime()
 	{
-		return lastTime;
+		return roundToResolution(histogram.getMaxValue());
 	}
 
 	public int getMaxCount()
 	{
-		return maxCount;
+		List<Map.Entry<Long, Integer>> sortedData = getSortedData();
+
+		return sortedData.isEmpty() ? 0 : sortedData.get(sortedData.size() - 1).getValue();
 	}
 }
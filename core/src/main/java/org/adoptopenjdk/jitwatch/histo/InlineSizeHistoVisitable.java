@@ -34,7 +34,6 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_ASSERT_NULL;
 
 
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
@@ -108,15 +107,14 @@ public class InlineSizeHistoVisitable extends AbstractHistoVisitable
 		for (Tag child : parseTag.getChildren())
 		{
 			String tagName = child.getName();
-			Map<String, String> attrs = child.getAttributes();
 
 			switch (tagName)
 			{
 			case TAG_METHOD:
 			{
-				currentMethod = attrs.get(ATTR_NAME);
-				holder = attrs.get(ATTR_HOLDER);
-				attrInlineBytes = attrs.get(ATTR_BYTES);
+				currentMethod = child.getAttribute(ATTR_NAME);
+				holder = child.getAttribute(ATTR_HOLDER);
+				attrInlineBytes = child.getAttribute(ATTR_BYTES);
 				break;
 			}
 
@@ -139,7 +137,7 @@ public class InlineSizeHistoVisitable extends AbstractHistoVisitable
 
 					if (klassTag != null)
 					{
-						String fqName = klassTag.getAttributes().get(ATTR_NAME) + C_SLASH + currentMethod;
+						String fqName = klassTag.getAttribute(ATTR_NAME) + C_SLASH + currentMethod;
 
 						if (!inlinedCounted.contains(fqName))
 						{
@@ -162,7 +160,7 @@ public class InlineSizeHistoVisitable extends AbstractHistoVisitable
 				
   			case TAG_PHASE:
 			{
-				String phaseName = attrs.get(ATTR_NAME);
+				String phaseName = child.getAttribute(ATTR_NAME);
 				
 				if (S_PARSE_HIR.equals(phaseName))
 				{
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.histo;
+
+import java.util.Arrays;
+
+/*
+ * Fixed memory histogram of non-negative long values in the style of
+ * HdrHistogram. Values below 2^significantBits are counted exactly, above
+ * that each power of two range is split into 2^(significantBits-1) linear
+ * sub-buckets so the recorded value of a sample is within 1 part in
+ * 2^(significantBits-1) of the real value.
+ *
+ * Recording is O(1) and never allocates. Percentile queries scan the fixed
+ * size count array so their cost does not depend on the number of samples.
+ * Instances are not thread safe, parallel walks should record into their own
+ * instance and merge the results with add().
+ */
+public class LogLinearHistogram
+{
+	public static final int DEFAULT_SIGNIFICANT_BITS = 8;
+
+	private final int significantBits;
+
+	private final int subBucketCount;
+
+	private final int subBucketHalfCount;
+
+	private final long[] counts;
+
+	private long totalCount;
+
+	private long minValue = Long.MAX_VALUE;
+
+	private long maxValue;
+
+	public LogLinearHistogram()
+	{
+		this(DEFAULT_SIGNIFICANT_BITS);
+	}
+
+	public LogLinearHistogram(int significantBits)
+	{
+		if (significantBits < 1 || significantBits > 16)
+		{
+			throw new IllegalArgumentException("significantBits must be between 1 and 16: " + significantBits);
+		}
+
+		this.significantBits = significantBits;
+		this.subBucketCount = 1 << significantBits;
+		this.subBucketHalfCount = subBucketCount >> 1;
+
+		// exact range then one half-range of sub-buckets per remaining bit
+		// of a positive long
+		counts = new long[subBucketCount + (63 - significantBits) * subBucketHalfCount];
+	}
+
+	public int getSignificantBits()
+	{
+		return significantBits;
+	}
+
+	/*
+	 * Negative values are recorded as 0
+	 */
+	public void recordValue(long value)
+	{
+		recordValue(value, 1);
+	}
+
+	public void recordValue(long value, long count)
+	{
+		if (value < 0)
+		{
+			value = 0;
+		}
+
+		counts[getIndex(value)] += count;
+
+		totalCount += count;
+
+		if (value < minValue)
+		{
+			minValue = value;
+		}
+
+		if (value > maxValue)
+		{
+			maxValue = value;
+		}
+	}
+
+	/*
+	 * Adds the counts of another histogram with the same precision
+	 */
+	public void add(LogLinearHistogram other)
+	{
+		if (other.significantBits != significantBits)
+		{
+			throw new IllegalArgumentException("Cannot merge histograms of " + other.significantBits + " and "
+					+ significantBits + " significant bits");
+		}
+
+		if (other.totalCount == 0)
+		{
+			return;
+		}
+
+		for (int i = 0; i < counts.length; i++)
+		{
+			counts[i] += other.counts[i];
+		}
+
+		totalCount += other.totalCount;
+
+		minValue = Math.min(minValue, other.minValue);
+		maxValue = Math.max(maxValue, other.maxValue);
+	}
+
+	public void reset()
+	{
+		Arrays.fill(counts, 0);
+
+		totalCount = 0;
+		minValue = Long.MAX_VALUE;
+		maxValue = 0;
+	}
+
+	public long getTotalCount()
+	{
+		return totalCount;
+	}
+
+	public long getMinValue()
+	{
+		return totalCount == 0 ? 0 : minValue;
+	}
+
+	public long getMaxValue()
+	{
+		return maxValue;
+	}
+
+	/*
+	 * Nearest rank percentile calculation from
+	 * http://en.wikipedia.org/wiki/Percentile
+	 *
+	 * Returns the highest value equivalent to the bucket holding the ranked
+	 * sample, capped at the largest recorded value.
+	 */
+	public long getPercentile(double percentile)
+	{
+		if (totalCount == 0 || percentile <= 0)
+		{
+			return 0;
+		}
+
+		if (percentile >= 100)
+		{
+			return maxValue;
+		}
+
+		long rank = Math.round(0.5 + percentile / 100.0 * totalCount);
+
+		rank = Math.max(1, Math.min(totalCount, rank));
+
+		long cumulative = 0;
+
+		for (int i = 0; i < counts.length; i++)
+		{
+			cumulative += counts[i];
+
+			if (cumulative >= rank)
+			{
+				return Math.min(maxValue, getHighestEquivalentValue(i));
+			}
+		}
+
+		return maxValue;
+	}
+
+	public double getMean()
+	{
+		if (totalCount == 0)
+		{
+			return 0;
+		}
+
+		double total = 0;
+
+		for (int i = 0; i < counts.length; i++)
+		{
+			if (counts[i] != 0)
+			{
+				long low = getLowestEquivalentValue(i);
+				long high = getHighestEquivalentValue(i);
+
+				total += counts[i] * (low + (high - low) / 2.0);
+			}
+		}
+
+		return total / totalCount;
+	}
+
+	public int getBucketCount()
+	{
+		return counts.length;
+	}
+
+	public long getCountAtBucket(int index)
+	{
+		return counts[index];
+	}
+
+	/*
+	 * Count of samples recorded into the bucket holding this value
+	 */
+	public long getCountAtValue(long value)
+	{
+		return counts[getIndex(Math.max(0, value))];
+	}
+
+	int getIndex(long value)
+	{
+		if (value < subBucketCount)
+		{
+			return (int) value;
+		}
+
+		int shift = (63 - Long.numberOfLeadingZeros(value)) - significantBits + 1;
+
+		int top = (int) (value >>> shift);
+
+		return subBucketCount + (shift - 1) * subBucketHalfCount + (top - subBucketHalfCount);
+	}
+
+	public long getLowestEquivalentValue(int index)
+	{
+		if (index < subBucketCount)
+		{
+			return index;
+		}
+
+		int offset = index - subBucketCount;
+
+		int shift = offset / subBucketHalfCount + 1;
+
+		long top = subBucketHalfCount + (offset % subBucketHalfCount);
+
+		return top << shift;
+	}
+
+	public long getHighestEquivalentValue(int index)
+	{
+		if (index < subBucketCount)
+		{
+			return index;
+		}
+
+		int shift = (index - subBucketCount) / subBucketHalfCount + 1;
+
+		return getLowestEquivalentValue(index) + (1L << shift) - 1;
+	}
+}
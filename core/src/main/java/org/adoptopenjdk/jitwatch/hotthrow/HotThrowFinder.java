@@ -35,7 +35,6 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BCI;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.adoptopenjdk.jitwatch.compilation.AbstractCompilationVisitable;
@@ -45,6 +44,7 @@ import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.model.IParseDictionary;
 import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
 import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.PackedBytecodes;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.model.bytecode.ExceptionTable;
 import org.adoptopenjdk.jitwatch.model.bytecode.ExceptionTableEntry;
@@ -110,49 +110,53 @@ public final class HotThrowFinder extends AbstractCompilationVisitable
 		String holder = null;
 		String currentBCI = null;
 
-		Map<String, String> attrs = parseTag.getAttributes();
-
-		String methodID = attrs.get(ATTR_METHOD);
+		String methodID = parseTag.getAttribute(ATTR_METHOD);
 
 		Tag methodTag = parseDictionary.getMethod(methodID);
 
-		Map<String, String> methodTagAttributes = methodTag.getAttributes();
-
-		currentMethod = methodTagAttributes.get(ATTR_NAME);
-		holder = methodTagAttributes.get(ATTR_HOLDER);
+		currentMethod = methodTag.getAttribute(ATTR_NAME);
+		holder = methodTag.getAttribute(ATTR_HOLDER);
 
 		List<Tag> allChildren = parseTag.getChildren();
 
-		for (Tag child : allChildren)
+		PackedBytecodes.Cursor bcCursor = parseTag.getPackedBytecodeCursor();
+
+		int childCount = allChildren.size();
+
+		for (int i = 0; i < childCount; i++)
 		{
+			if (bcCursor.advanceTo(i))
+			{
+				currentBCI = String.valueOf(bcCursor.getBCI());
+			}
+
+			Tag child = allChildren.get(i);
+
 			String tagName = child.getName();
-			attrs = child.getAttributes();
 
 			switch (tagName)
 			{
 			case TAG_METHOD:
 			{
-				currentMethod = attrs.get(ATTR_NAME);
-				holder = attrs.get(ATTR_HOLDER);
+				currentMethod = child.getAttribute(ATTR_NAME);
+				holder = child.getAttribute(ATTR_HOLDER);
 				break;
 			}
 			case TAG_BC:
 			{
-				currentBCI = attrs.get(ATTR_BCI);
+				currentBCI = child.getAttribute(ATTR_BCI);
 				break;
 			}
 
 			// changes member context
 			case TAG_CALL:
 			{
-				methodID = attrs.get(ATTR_METHOD);
+				methodID = child.getAttribute(ATTR_METHOD);
 
 				methodTag = parseDictionary.getMethod(methodID);
 
-				methodTagAttributes = methodTag.getAttributes();
-
-				currentMethod = methodTagAttributes.get(ATTR_NAME);
-				holder = methodTagAttributes.get(ATTR_HOLDER);
+				currentMethod = methodTag.getAttribute(ATTR_NAME);
+				holder = methodTag.getAttribute(ATTR_HOLDER);
 				break;
 			}
 
@@ -162,7 +166,7 @@ public final class HotThrowFinder extends AbstractCompilationVisitable
 				{
 					Tag klassTag = parseDictionary.getKlass(holder);
 
-					String preallocated = child.getAttributes().get(ATTR_PREALLOCATED);
+					String preallocated = child.getAttribute(ATTR_PREALLOCATED);
 
 					if (currentBCI != null && klassTag != null)
 					{
@@ -208,7 +212,7 @@ public final class HotThrowFinder extends AbstractCompilationVisitable
 
 			case TAG_PHASE:
 			{
-				String phaseName = attrs.get(ATTR_NAME);
+				String phaseName = child.getAttribute(ATTR_NAME);
 
 				if (S_PARSE_HIR.equals(phaseName))
 				{
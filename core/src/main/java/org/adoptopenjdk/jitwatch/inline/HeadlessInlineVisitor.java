@@ -5,36 +5,20 @@
  */
 package org.adoptopenjdk.jitwatch.inline;
 
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BYTES;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ID;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NAME;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_PARSE_HIR;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CALL;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_FAIL;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_SUCCESS;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_METHOD;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PARSE;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PHASE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
 
-import java.io.PrintStream;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import org.adoptopenjdk.jitwatch.compilation.AbstractCompilationVisitable;
-import org.adoptopenjdk.jitwatch.compilation.ICompilationVisitable;
-import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
+import org.adoptopenjdk.jitwatch.chain.CompileNode;
+import org.adoptopenjdk.jitwatch.export.ChannelTextWriter;
 import org.adoptopenjdk.jitwatch.model.Compilation;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
-import org.adoptopenjdk.jitwatch.model.IParseDictionary;
 import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
-import org.adoptopenjdk.jitwatch.model.LogParseException;
-import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
-import org.adoptopenjdk.jitwatch.util.ParseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,151 +47,84 @@ public class HeadlessInlineVisitor implements ITreeVisitable
             return;
         }
         
-        try
-        {
-            String callerName = metaMember.toString();
-            InlineJournalVisitor inlineJournalVisitor = new InlineJournalVisitor(failures,  model, callerName);
-            
-			for (Compilation compilation : metaMember.getCompilations())
-			{
-				CompilationUtil.visitParseTagsOfCompilation(compilation, inlineJournalVisitor);
-			}            
-        }
-        catch (LogParseException e)
-        {
-            logger.error("Error building inlining stats", e);
-        }
-    }
+        String callerName = metaMember.toString();
 
-    @Override
-    public void reset()
-    {
+        for (Compilation compilation : metaMember.getCompilations())
+        {
+            // shares the tree built for the compile chain view if there is one
+            CompileNode root = model.getCompileChainCache().getCallTree(compilation);
 
+            if (root != null && root.getFailedCount() > 0)
+            {
+                collectFailures(root, callerName);
+            }
+        }
     }
 
-    public void printFailedList(PrintStream out)
+    private void collectFailures(CompileNode node, String callerName)
     {
-        for (Map.Entry<String, Map<String, InlineFailureInfo>> entry : failures.entrySet())
+        for (CompileNode child : node.getChildren())
         {
-            out.println("=== " + entry.getKey() + " ===");
-            Map<String, InlineFailureInfo> members = entry.getValue();
-            for (InlineFailureInfo inlineFailureInfo : members.values())
+            // virtual calls are failures too, as the report counts every inline_fail
+            if (!child.isInlined() && child.hasInlineDecision())
             {
-                out.println(inlineFailureInfo);
+                addFailure(child, callerName);
+            }
+
+            if (child.getFailedCount() > 0)
+            {
+                collectFailures(child, callerName);
             }
         }
     }
 
-    private static class InlineJournalVisitor extends AbstractCompilationVisitable  implements ICompilationVisitable
+    private void addFailure(CompileNode node, String callerName)
     {
-        private final Map<String, Map<String, InlineFailureInfo>> failures;
-        private final IReadOnlyJITDataModel model;
-        private final String callerName;
+        String reason = node.getReason();
+
+        Map<String, InlineFailureInfo> inlineFailureInfos = failures.get(reason);
 
-        public InlineJournalVisitor(Map<String, Map<String, InlineFailureInfo>> failures, IReadOnlyJITDataModel model, String callerName)
+        if (inlineFailureInfos == null)
         {
-            this.failures = failures;
-            this.model = model;
-            this.callerName = callerName;
+            inlineFailureInfos = new HashMap<>();
+            failures.put(reason, inlineFailureInfos);
         }
 
-        @Override
-        public void visitTag(Tag parseTag, IParseDictionary parseDictionary) throws LogParseException
+        IMetaMember metaMember = node.getMember();
+
+        if (metaMember == null)
         {
-            processParseTag(parseTag, parseDictionary);
+            logger.warn("Cannot find name of methodId: {}", node.getMethodID());
         }
-
-        private void processParseTag(Tag parseTag, IParseDictionary parseDictionary)
+        else
         {
-            String methodID = null;
-            
-            for (Tag child : parseTag.getChildren())
+            String memberName = metaMember.toString();
+            InlineFailureInfo inlineFailureInfo = inlineFailureInfos.get(memberName);
+            if (inlineFailureInfo == null)
             {
-                String tagName = child.getName();
-                
-                Map<String, String> tagAttrs = child.getAttributes();
-                
-                switch (tagName)
-                {
-                    case TAG_METHOD:
-                    {
-                        methodID = tagAttrs.get(ATTR_ID);
-                        break;
-                    }
-                    
-                    case TAG_CALL:
-                    {
-                        methodID = tagAttrs.get(ATTR_METHOD);
-                        break;
-                    }
-                    
-                    case TAG_INLINE_FAIL:
-                    {
-                        String reason = tagAttrs.get(ATTR_REASON);
-                        Map<String, InlineFailureInfo> inlineFailureInfos = failures.get(reason);
-                   
-                        if (inlineFailureInfos == null)
-                        {
-                            inlineFailureInfos = new HashMap<>();
-                            failures.put(reason, inlineFailureInfos);
-                        }
-                     
-                        IMetaMember metaMember = ParseUtil.lookupMember(methodID, parseDictionary, model);
-                     
-                        if (metaMember == null)
-                        {
-                            logger.warn("Cannot find name of methodId: ", methodID);
-                        }
-                        else
-                        {
-                            String memberName = metaMember.toString();
-                            InlineFailureInfo inlineFailureInfo = inlineFailureInfos.get(memberName);
-                            if (inlineFailureInfo == null)
-                            {
-                                Tag methodTag = parseDictionary.getMethod(methodID);
-                                int byteCodeSize = Integer.parseInt(methodTag.getAttributes().get(ATTR_BYTES));
-                                inlineFailureInfo = new InlineFailureInfo(memberName, byteCodeSize);
-                                inlineFailureInfos.put(memberName, inlineFailureInfo);
-                            }
-                            inlineFailureInfo.addCaller(callerName);
-                            inlineFailureInfo.incFailureCount();
-                        }
-                        methodID = null;
-                        
-                        break;
-                    }
+                inlineFailureInfo = new InlineFailureInfo(memberName, node.getBytecodeSize());
+                inlineFailureInfos.put(memberName, inlineFailureInfo);
+            }
+            inlineFailureInfo.addCaller(callerName);
+            inlineFailureInfo.incFailureCount();
+        }
+    }
 
-                    case TAG_INLINE_SUCCESS:
-                    {
-                        break;
-                    }
-                    
-                    case TAG_PARSE:
-                    {
-                        processParseTag(child, parseDictionary);
-                        break;
-                    }
-        			
-        			case TAG_PHASE:
-        			{
-        				String phaseName = tagAttrs.get(ATTR_NAME);
-        				
-        				if (S_PARSE_HIR.equals(phaseName))
-        				{
-        					processParseTag(child, parseDictionary);
-        				}
-        				else
-        				{
-        					logger.warn("Don't know how to handle phase {}", phaseName);
-        				}
-        				
-        				break;
-        			}
-                    
-                    default:
-                    	handleOther(child);
-                        break;
-                }
+    @Override
+    public void reset()
+    {
+
+    }
+
+    public void writeFailedList(ChannelTextWriter out) throws IOException
+    {
+        for (Map.Entry<String, Map<String, InlineFailureInfo>> entry : failures.entrySet())
+        {
+            out.append("=== ").append(entry.getKey()).append(" ===").append(S_NEWLINE);
+            Map<String, InlineFailureInfo> members = entry.getValue();
+            for (InlineFailureInfo inlineFailureInfo : members.values())
+            {
+                out.append(inlineFailureInfo.toString()).append(S_NEWLINE);
             }
         }
     }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.inline;
+
+import org.adoptopenjdk.jitwatch.chain.CompileNode;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+
+/*
+ * A call site whose inlining decision changes under a simulated budget
+ */
+public class InlineSiteFlip
+{
+	private final Compilation compilation;
+
+	private final CompileNode site;
+
+	private final int depth;
+
+	private final boolean inlined;
+
+	private final String simulatedReason;
+
+	private final long nativeGrowth;
+
+	public InlineSiteFlip(Compilation compilation, CompileNode site, int depth, boolean inlined, String simulatedReason,
+			long nativeGrowth)
+	{
+		this.compilation = compilation;
+		this.site = site;
+		this.depth = depth;
+		this.inlined = inlined;
+		this.simulatedReason = simulatedReason;
+		this.nativeGrowth = nativeGrowth;
+	}
+
+	/*
+	 * The compilation the call site was parsed in
+	 */
+	public Compilation getCompilation()
+	{
+		return compilation;
+	}
+
+	public CompileNode getSite()
+	{
+		return site;
+	}
+
+	/*
+	 * 1 for a call made directly by the compiled method
+	 */
+	public int getDepth()
+	{
+		return depth;
+	}
+
+	/*
+	 * True if the site would now be inlined, false if it would no longer be
+	 */
+	public boolean isInlined()
+	{
+		return inlined;
+	}
+
+	public String getRecordedReason()
+	{
+		return site.getReason();
+	}
+
+	/*
+	 * Why the site would no longer be inlined, null for newly inlined sites
+	 */
+	public String getSimulatedReason()
+	{
+		return simulatedReason;
+	}
+
+	/*
+	 * Estimated change in the native size of the compilation, negative when
+	 * the site would no longer be inlined
+	 */
+	public long getNativeGrowth()
+	{
+		return nativeGrowth;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "InlineSiteFlip [callee=" + site.getMemberName() + ", depth=" + depth + ", inlined=" + inlined + ", growth="
+				+ nativeGrowth + "]";
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.inline;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEFAULT_FREQ_INLINE_SIZE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEFAULT_INLINE_SMALL_CODE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEFAULT_MAX_INLINE_LEVEL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEFAULT_MAX_INLINE_SIZE;
+
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * The C2 inlining size limits to simulate. Defaults are the JDK 15+ x86_64
+ * values.
+ */
+public class InliningBudget
+{
+	public static final String FLAG_MAX_INLINE_SIZE = "MaxInlineSize";
+	public static final String FLAG_FREQ_INLINE_SIZE = "FreqInlineSize";
+	public static final String FLAG_INLINE_SMALL_CODE = "InlineSmallCode";
+	public static final String FLAG_MAX_INLINE_LEVEL = "MaxInlineLevel";
+
+	private static final String FLAG_SEPARATOR = ",";
+
+	private static final String XX_PREFIX = "-XX:";
+
+	private static final Logger logger = LoggerFactory.getLogger(InliningBudget.class);
+
+	private final int maxInlineSize;
+	private final int freqInlineSize;
+	private final int inlineSmallCode;
+	private final int maxInlineLevel;
+
+	public InliningBudget(int maxInlineSize, int freqInlineSize, int inlineSmallCode, int maxInlineLevel)
+	{
+		this.maxInlineSize = maxInlineSize;
+		this.freqInlineSize = freqInlineSize;
+		this.inlineSmallCode = inlineSmallCode;
+		this.maxInlineLevel = maxInlineLevel;
+	}
+
+	public static InliningBudget getDefault()
+	{
+		return new InliningBudget(DEFAULT_MAX_INLINE_SIZE, DEFAULT_FREQ_INLINE_SIZE, DEFAULT_INLINE_SMALL_CODE,
+				DEFAULT_MAX_INLINE_LEVEL);
+	}
+
+	/*
+	 * Accepts "MaxInlineSize=70,FreqInlineSize=500" with an optional -XX:
+	 * prefix on each flag and an optional k, m or g suffix on each value.
+	 * Flags not given keep their value from base.
+	 */
+	public static InliningBudget parse(String spec, InliningBudget base)
+	{
+		int maxInlineSize = base.maxInlineSize;
+		int freqInlineSize = base.freqInlineSize;
+		int inlineSmallCode = base.inlineSmallCode;
+		int maxInlineLevel = base.maxInlineLevel;
+
+		for (String part : spec.split(FLAG_SEPARATOR))
+		{
+			part = part.trim();
+
+			if (part.isEmpty())
+			{
+				continue;
+			}
+
+			if (part.startsWith(XX_PREFIX))
+			{
+				part = part.substring(XX_PREFIX.length());
+			}
+
+			int equalsIndex = part.indexOf('=');
+
+			if (equalsIndex == -1)
+			{
+				throw new IllegalArgumentException("Expected <flag>=<value>: " + part);
+			}
+
+			String flag = part.substring(0, equalsIndex).trim();
+
+			int value = parseValue(flag, part.substring(equalsIndex + 1));
+
+			switch (flag)
+			{
+			case FLAG_MAX_INLINE_SIZE:
+				maxInlineSize = value;
+				break;
+			case FLAG_FREQ_INLINE_SIZE:
+				freqInlineSize = value;
+				break;
+			case FLAG_INLINE_SMALL_CODE:
+				inlineSmallCode = value;
+				break;
+			case FLAG_MAX_INLINE_LEVEL:
+				maxInlineLevel = value;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown inlining flag: " + flag);
+			}
+		}
+
+		return new InliningBudget(maxInlineSize, freqInlineSize, inlineSmallCode, maxInlineLevel);
+	}
+
+	private static int parseValue(String flag, String value)
+	{
+		long size = ParseUtil.parseVMSize(value);
+
+		if (size < 0 || size > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Value out of range for " + flag + ": " + value.trim());
+		}
+
+		return (int) size;
+	}
+
+	/*
+	 * The budget a log was recorded with from the JVM options in its
+	 * vm_arguments, defaults for any flag not given or not parseable
+	 */
+	public static InliningBudget fromVMArguments(String vmArguments)
+	{
+		InliningBudget budget = getDefault();
+
+		String[] flags = new String[] { FLAG_MAX_INLINE_SIZE, FLAG_FREQ_INLINE_SIZE, FLAG_INLINE_SMALL_CODE,
+				FLAG_MAX_INLINE_LEVEL };
+
+		for (String flag : flags)
+		{
+			String value = ParseUtil.getVMFlagValue(vmArguments, flag);
+
+			if (value != null)
+			{
+				try
+				{
+					budget = parse(flag + "=" + value, budget);
+				}
+				catch (IllegalArgumentException iae)
+				{
+					logger.warn("Could not parse inlining flag '{}={}'", flag, value);
+				}
+			}
+		}
+
+		return budget;
+	}
+
+	public int getMaxInlineSize()
+	{
+		return maxInlineSize;
+	}
+
+	public int getFreqInlineSize()
+	{
+		return freqInlineSize;
+	}
+
+	public int getInlineSmallCode()
+	{
+		return inlineSmallCode;
+	}
+
+	public int getMaxInlineLevel()
+	{
+		return maxInlineLevel;
+	}
+
+	@Override
+	public String toString()
+	{
+		return XX_PREFIX + FLAG_MAX_INLINE_SIZE + "=" + maxInlineSize + " " + XX_PREFIX + FLAG_FREQ_INLINE_SIZE + "="
+				+ freqInlineSize + " " + XX_PREFIX + FLAG_INLINE_SMALL_CODE + "=" + inlineSmallCode + " " + XX_PREFIX
+				+ FLAG_MAX_INLINE_LEVEL + "=" + maxInlineLevel;
+	}
+}
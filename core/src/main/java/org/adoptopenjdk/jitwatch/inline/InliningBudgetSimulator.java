@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.inline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.chain.CompileNode;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+
+/*
+ * Re-applies the C2 inlining size heuristics to every call site of every C2
+ * compilation with a different InliningBudget, using the bytecode sizes and
+ * call counts recorded in the log.
+ *
+ * Inline depth from the call tree is only approximate as late inlining
+ * moves parse tags, but C2 refuses a site as too deep at exactly one level
+ * past MaxInlineLevel so those sites pass whenever the simulated
+ * MaxInlineLevel is above the recorded one.
+ *
+ * Only the size, depth and compiled code size checks are simulated. A site
+ * that failed for any other reason (no static binding, never executed, ...)
+ * would still fail. A site that was inlined is only reported as lost if it
+ * fails the new limits even when hot, since the log does not record whether
+ * an inlined call was hot.
+ *
+ * Native growth is estimated from the native bytes per bytecode byte of the
+ * compilation. The callees of a newly inlined method are not in the log so
+ * their inlining is not simulated, and neither is the DesiredMethodLimit
+ * budget for the whole compilation.
+ */
+public class InliningBudgetSimulator implements ITreeVisitable
+{
+	public static final String REASON_TOO_BIG = "too big";
+	public static final String REASON_HOT_METHOD_TOO_BIG = "hot method too big";
+	public static final String REASON_COMPILED_BIG = "already compiled into a big method";
+	public static final String REASON_COMPILED_MEDIUM = "already compiled into a medium method";
+	public static final String REASON_TOO_DEEP = "inlining too deep";
+
+	private static final String REASON_FORCE_INLINE = "force inline";
+
+	// MaxTrivialSize, inlined whatever the size limits
+	private static final int MAX_TRIVIAL_SIZE = 6;
+
+	// InlineFrequencyCount, call sites reached this often are hot
+	private static final int INLINE_FREQUENCY_COUNT = 100;
+
+	private static final int UNKNOWN_SIZE = -1;
+
+	private final IReadOnlyJITDataModel model;
+
+	private final InliningBudget recordedBudget;
+
+	private final InliningBudget budget;
+
+	private final List<InlineSiteFlip> flips = new ArrayList<>();
+
+	private final Map<String, Integer> gainedByReason = new LinkedHashMap<>();
+
+	private int compilationCount;
+	private int changedCompilationCount;
+	private int siteCount;
+	private int gainedCount;
+	private int lostCount;
+	private long nativeGrowth;
+
+	/*
+	 * recordedBudget is the budget the log was recorded with
+	 */
+	public InliningBudgetSimulator(IReadOnlyJITDataModel model, InliningBudget recordedBudget, InliningBudget budget)
+	{
+		this.model = model;
+		this.recordedBudget = recordedBudget;
+		this.budget = budget;
+	}
+
+	/*
+	 * Returns the flipped call sites, largest native size change first
+	 */
+	public List<InlineSiteFlip> simulate()
+	{
+		TreeVisitor.walkTree(model, this);
+
+		Collections.sort(flips, new Comparator<InlineSiteFlip>()
+		{
+			@Override
+			public int compare(InlineSiteFlip f1, InlineSiteFlip f2)
+			{
+				int result = Long.compare(Math.abs(f2.getNativeGrowth()), Math.abs(f1.getNativeGrowth()));
+
+				return result != 0 ? result : Integer.compare(f2.getSite().getCallCount(), f1.getSite().getCallCount());
+			}
+		});
+
+		return flips;
+	}
+
+	@Override
+	public void reset()
+	{
+		flips.clear();
+		gainedByReason.clear();
+		compilationCount = 0;
+		changedCompilationCount = 0;
+		siteCount = 0;
+		gainedCount = 0;
+		lostCount = 0;
+		nativeGrowth = 0;
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		for (Compilation compilation : metaMember.getCompilations())
+		{
+			// the flags are C2 flags, C1 has its own limits
+			if (compilation.getStampNMethodEmitted() > 0 && !compilation.isC2N() && compilation.getLevel() == 4)
+			{
+				CompileNode root = model.getCompileChainCache().getCallTree(compilation);
+
+				if (root != null)
+				{
+					simulateCompilation(compilation, root);
+				}
+			}
+		}
+	}
+
+	private void simulateCompilation(Compilation compilation, CompileNode root)
+	{
+		compilationCount++;
+
+		int flipCount = flips.size();
+
+		long parsedBytes = root.getBytecodeSize() + getInlinedBytes(root);
+
+		double nativePerByte = parsedBytes > 0 ? (double) compilation.getNativeSize() / parsedBytes : 0;
+
+		simulateChildren(compilation, root, 1, nativePerByte);
+
+		if (flips.size() > flipCount)
+		{
+			changedCompilationCount++;
+		}
+	}
+
+	private void simulateChildren(Compilation compilation, CompileNode parent, int depth, double nativePerByte)
+	{
+		for (CompileNode site : parent.getChildren())
+		{
+			// virtual calls and nodes holding nested parse tags have no decision
+			if (site.isVirtualCall() || !site.hasInlineDecision())
+			{
+				simulateChildren(compilation, site, depth + 1, nativePerByte);
+				continue;
+			}
+
+			siteCount++;
+
+			if (site.isInlined())
+			{
+				String reason = isForced(site) ? null : getFailure(compilation, site, depth, true);
+
+				if (reason == null)
+				{
+					simulateChildren(compilation, site, depth + 1, nativePerByte);
+				}
+				else
+				{
+					// the callees inlined into this site are lost with it
+					long growth = -Math.round((site.getBytecodeSize() + getInlinedBytes(site)) * nativePerByte);
+
+					addFlip(new InlineSiteFlip(compilation, site, depth, false, reason, growth));
+				}
+			}
+			else if (isSimulatedReason(site.getReason()))
+			{
+				String reason = getFailure(compilation, site, depth, isHot(site));
+
+				if (reason == null)
+				{
+					long growth = Math.round(site.getBytecodeSize() * nativePerByte);
+
+					addFlip(new InlineSiteFlip(compilation, site, depth, true, null, growth));
+				}
+			}
+		}
+	}
+
+	private void addFlip(InlineSiteFlip flip)
+	{
+		flips.add(flip);
+
+		nativeGrowth += flip.getNativeGrowth();
+
+		if (flip.isInlined())
+		{
+			gainedCount++;
+
+			String reason = flip.getRecordedReason();
+
+			Integer count = gainedByReason.get(reason);
+
+			gainedByReason.put(reason, count == null ? 1 : count + 1);
+		}
+		else
+		{
+			lostCount++;
+		}
+	}
+
+	// force inlined methods skip the size checks
+	private boolean isForced(CompileNode site)
+	{
+		String reason = site.getReason();
+
+		return reason != null && reason.startsWith(REASON_FORCE_INLINE);
+	}
+
+	private boolean isSimulatedReason(String reason)
+	{
+		return REASON_TOO_BIG.equals(reason) || REASON_HOT_METHOD_TOO_BIG.equals(reason) || REASON_COMPILED_BIG.equals(reason)
+				|| REASON_COMPILED_MEDIUM.equals(reason) || REASON_TOO_DEEP.equals(reason);
+	}
+
+	/*
+	 * The size checks record whether the site was hot, otherwise it is hot if
+	 * reached InlineFrequencyCount times. HotSpot also treats sites reached
+	 * often relative to the caller as hot so this can under count.
+	 */
+	private boolean isHot(CompileNode site)
+	{
+		String reason = site.getReason();
+
+		if (REASON_HOT_METHOD_TOO_BIG.equals(reason))
+		{
+			return true;
+		}
+		else if (REASON_TOO_BIG.equals(reason) || REASON_COMPILED_MEDIUM.equals(reason))
+		{
+			return false;
+		}
+
+		return site.getCallCount() >= INLINE_FREQUENCY_COUNT;
+	}
+
+	/*
+	 * Returns the reason the budget would refuse to inline the site or null
+	 * if it passes the simulated checks, in the order C2 makes them
+	 */
+	private String getFailure(Compilation compilation, CompileNode site, int depth, boolean hot)
+	{
+		if (isTooDeep(site, depth))
+		{
+			return REASON_TOO_DEEP;
+		}
+
+		int bytes = site.getBytecodeSize();
+
+		if (bytes <= MAX_TRIVIAL_SIZE)
+		{
+			return null;
+		}
+
+		String reason = site.getReason();
+
+		int calleeCodeSize = getCalleeCodeSize(compilation, site);
+
+		int smallCode = budget.getInlineSmallCode();
+		int recordedSmallCode = recordedBudget.getInlineSmallCode();
+
+		// the logged nmsize is not exactly the size C2 compared so the
+		// recorded decision stands unless InlineSmallCode moves past it
+		if (REASON_COMPILED_BIG.equals(reason) || REASON_COMPILED_MEDIUM.equals(reason))
+		{
+			int limit = REASON_COMPILED_BIG.equals(reason) ? smallCode : smallCode / 4;
+
+			if (smallCode <= recordedSmallCode || calleeCodeSize == UNKNOWN_SIZE || calleeCodeSize > limit)
+			{
+				return reason;
+			}
+		}
+		else if (smallCode < recordedSmallCode)
+		{
+			if (calleeCodeSize > smallCode)
+			{
+				return REASON_COMPILED_BIG;
+			}
+
+			if (!hot && calleeCodeSize > smallCode / 4)
+			{
+				return REASON_COMPILED_MEDIUM;
+			}
+		}
+
+		if (hot)
+		{
+			if (bytes > budget.getFreqInlineSize())
+			{
+				return REASON_HOT_METHOD_TOO_BIG;
+			}
+		}
+		else if (bytes > budget.getMaxInlineSize())
+		{
+			return REASON_TOO_BIG;
+		}
+
+		return null;
+	}
+
+	private boolean isTooDeep(CompileNode site, int depth)
+	{
+		int recordedLevel = recordedBudget.getMaxInlineLevel();
+		int level = budget.getMaxInlineLevel();
+
+		if (REASON_TOO_DEEP.equals(site.getReason()))
+		{
+			return level <= recordedLevel;
+		}
+
+		// sites within the recorded limit only fail if it is lowered
+		return level < recordedLevel && depth > level;
+	}
+
+	/*
+	 * Instruction size of the callee's code installed when the compilation
+	 * started, as C2 compares with InlineSmallCode
+	 */
+	private int getCalleeCodeSize(Compilation compilation, CompileNode site)
+	{
+		IMetaMember callee = site.getMember();
+
+		long started = compilation.getStampTaskCompilationStart();
+
+		if (callee == null || started <= 0)
+		{
+			return UNKNOWN_SIZE;
+		}
+
+		int result = UNKNOWN_SIZE;
+
+		long latestEmitted = 0;
+
+		for (Compilation calleeCompilation : callee.getCompilations())
+		{
+			long emitted = calleeCompilation.getStampNMethodEmitted();
+
+			if (emitted > latestEmitted && emitted <= started && calleeCompilation.getNativeSize() > 0)
+			{
+				latestEmitted = emitted;
+				result = calleeCompilation.getNativeSize();
+			}
+		}
+
+		return result;
+	}
+
+	private static long getInlinedBytes(CompileNode node)
+	{
+		long bytes = 0;
+
+		for (CompileNode child : node.getChildren())
+		{
+			if (child.isInlined())
+			{
+				bytes += child.getBytecodeSize();
+			}
+
+			bytes += getInlinedBytes(child);
+		}
+
+		return bytes;
+	}
+
+	public InliningBudget getRecordedBudget()
+	{
+		return recordedBudget;
+	}
+
+	public InliningBudget getBudget()
+	{
+		return budget;
+	}
+
+	public List<InlineSiteFlip> getFlips()
+	{
+		return flips;
+	}
+
+	/*
+	 * Newly inlined sites keyed by the reason the log gave for not inlining
+	 * them
+	 */
+	public Map<String, Integer> getGainedByReason()
+	{
+		return gainedByReason;
+	}
+
+	public int getCompilationCount()
+	{
+		return compilationCount;
+	}
+
+	public int getChangedCompilationCount()
+	{
+		return changedCompilationCount;
+	}
+
+	public int getSiteCount()
+	{
+		return siteCount;
+	}
+
+	public int getGainedCount()
+	{
+		return gainedCount;
+	}
+
+	public int getLostCount()
+	{
+		return lostCount;
+	}
+
+	/*
+	 * Estimated net change in native bytes over all compilations
+	 */
+	public long getNativeGrowth()
+	{
+		return nativeGrowth;
+	}
+}
@@ -0,0 +1,553 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.inline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+
+/*
+ * Whole-application call graph of inlining decisions. Nodes are methods,
+ * an edge joins a caller to a callee it tried to inline and accumulates
+ * every decision made for that pair across all compilations.
+ *
+ * Nodes and edges are plain int indexes into parallel arrays so graphs with
+ * millions of edges stay compact. Edges are found by a (caller, callee)
+ * open addressing table while the graph is built; the first caller or
+ * callee query freezes the graph into sorted adjacency arrays.
+ */
+public class InliningGraph
+{
+	private static final int INITIAL_CAPACITY = 1024;
+
+	// nodes
+	private final Map<String, Integer> nodeIndex = new HashMap<>();
+	private final List<String> nodeNames = new ArrayList<>();
+	private final List<IMetaMember> nodeMembers = new ArrayList<>();
+
+	private int[] nodeBytecodeSize = new int[INITIAL_CAPACITY];
+	private int[] nodeInlinedCount = new int[INITIAL_CAPACITY];
+	private int[] nodeFailedCount = new int[INITIAL_CAPACITY];
+
+	// edges
+	private int edgeCount;
+
+	private int[] edgeCaller = new int[INITIAL_CAPACITY];
+	private int[] edgeCallee = new int[INITIAL_CAPACITY];
+	private int[] edgeInlinedCount = new int[INITIAL_CAPACITY];
+	private int[] edgeFailedCount = new int[INITIAL_CAPACITY];
+	private long[] edgeInvocations = new long[INITIAL_CAPACITY];
+
+	// most recent failure reason per edge, full counts are in edgeReasons
+	private int[] edgeLastReason = new int[INITIAL_CAPACITY];
+
+	private final LongIntTable edgeTable = new LongIntTable();
+
+	// (edge, reason) -> count
+	private final LongIntTable edgeReasons = new LongIntTable();
+
+	private final Map<String, Integer> reasonIndex = new HashMap<>();
+	private final List<String> reasonNames = new ArrayList<>();
+
+	private int[] reasonFailedCount = new int[64];
+
+	// adjacency built on first query, edge indexes grouped by caller / callee
+	private int[] calleeOffsets;
+	private int[] calleeEdges;
+	private int[] callerOffsets;
+	private int[] callerEdges;
+
+	public int getNodeCount()
+	{
+		return nodeNames.size();
+	}
+
+	public int getEdgeCount()
+	{
+		return edgeCount;
+	}
+
+	/*
+	 * Returns the index of the named node, creating it if needed
+	 */
+	public int addNode(String name, IMetaMember member, int bytecodeSize)
+	{
+		Integer existing = nodeIndex.get(name);
+
+		if (existing != null)
+		{
+			int node = existing;
+
+			if (nodeMembers.get(node) == null && member != null)
+			{
+				nodeMembers.set(node, member);
+			}
+
+			if (bytecodeSize > 0)
+			{
+				nodeBytecodeSize[node] = bytecodeSize;
+			}
+
+			return node;
+		}
+
+		// the adjacency offsets are sized by node count
+		calleeOffsets = null;
+		callerOffsets = null;
+
+		int node = nodeNames.size();
+
+		nodeIndex.put(name, node);
+		nodeNames.add(name);
+		nodeMembers.add(member);
+
+		if (node == nodeBytecodeSize.length)
+		{
+			int capacity = node * 2;
+
+			nodeBytecodeSize = Arrays.copyOf(nodeBytecodeSize, capacity);
+			nodeInlinedCount = Arrays.copyOf(nodeInlinedCount, capacity);
+			nodeFailedCount = Arrays.copyOf(nodeFailedCount, capacity);
+		}
+
+		nodeBytecodeSize[node] = Math.max(0, bytecodeSize);
+
+		return node;
+	}
+
+	public void addDecision(int caller, int callee, boolean inlined, String reason, long invocations)
+	{
+		long key = ((long) caller << 32) | (callee & 0xFFFFFFFFL);
+
+		int edge = edgeTable.get(key);
+
+		if (edge == LongIntTable.NO_VALUE)
+		{
+			edge = newEdge(caller, callee);
+			edgeTable.put(key, edge);
+		}
+
+		if (inlined)
+		{
+			edgeInlinedCount[edge]++;
+			nodeInlinedCount[callee]++;
+		}
+		else
+		{
+			edgeFailedCount[edge]++;
+			nodeFailedCount[callee]++;
+
+			int reasonId = getReasonId(reason);
+
+			edgeLastReason[edge] = reasonId;
+			reasonFailedCount[reasonId]++;
+
+			long reasonKey = ((long) edge << 32) | reasonId;
+
+			edgeReasons.put(reasonKey, Math.max(0, edgeReasons.get(reasonKey)) + 1);
+		}
+
+		if (invocations > 0)
+		{
+			edgeInvocations[edge] += invocations;
+		}
+	}
+
+	private int newEdge(int caller, int callee)
+	{
+		calleeOffsets = null;
+		callerOffsets = null;
+
+		int edge = edgeCount++;
+
+		if (edge == edgeCaller.length)
+		{
+			int capacity = edge * 2;
+
+			edgeCaller = Arrays.copyOf(edgeCaller, capacity);
+			edgeCallee = Arrays.copyOf(edgeCallee, capacity);
+			edgeInlinedCount = Arrays.copyOf(edgeInlinedCount, capacity);
+			edgeFailedCount = Arrays.copyOf(edgeFailedCount, capacity);
+			edgeInvocations = Arrays.copyOf(edgeInvocations, capacity);
+			edgeLastReason = Arrays.copyOf(edgeLastReason, capacity);
+		}
+
+		edgeCaller[edge] = caller;
+		edgeCallee[edge] = callee;
+		edgeLastReason[edge] = -1;
+
+		return edge;
+	}
+
+	private int getReasonId(String reason)
+	{
+		if (reason == null)
+		{
+			reason = "unknown";
+		}
+
+		Integer existing = reasonIndex.get(reason);
+
+		if (existing != null)
+		{
+			return existing;
+		}
+
+		int reasonId = reasonNames.size();
+
+		reasonIndex.put(reason, reasonId);
+		reasonNames.add(reason);
+
+		if (reasonId == reasonFailedCount.length)
+		{
+			reasonFailedCount = Arrays.copyOf(reasonFailedCount, reasonId * 2);
+		}
+
+		return reasonId;
+	}
+
+	public int findNode(String name)
+	{
+		Integer node = nodeIndex.get(name);
+
+		return (node == null) ? -1 : node;
+	}
+
+	/*
+	 * Nodes whose name contains the text, for partial matches such as a
+	 * method name without its class
+	 */
+	public int[] findNodes(String text)
+	{
+		int[] result = new int[8];
+		int count = 0;
+
+		for (int node = 0; node < nodeNames.size(); node++)
+		{
+			if (nodeNames.get(node).contains(text))
+			{
+				if (count == result.length)
+				{
+					result = Arrays.copyOf(result, count * 2);
+				}
+
+				result[count++] = node;
+			}
+		}
+
+		return Arrays.copyOf(result, count);
+	}
+
+	public String getNodeName(int node)
+	{
+		return nodeNames.get(node);
+	}
+
+	public IMetaMember getNodeMember(int node)
+	{
+		return nodeMembers.get(node);
+	}
+
+	public int getNodeBytecodeSize(int node)
+	{
+		return nodeBytecodeSize[node];
+	}
+
+	public int getNodeInlinedCount(int node)
+	{
+		return nodeInlinedCount[node];
+	}
+
+	public int getNodeFailedCount(int node)
+	{
+		return nodeFailedCount[node];
+	}
+
+	public int getEdgeCaller(int edge)
+	{
+		return edgeCaller[edge];
+	}
+
+	public int getEdgeCallee(int edge)
+	{
+		return edgeCallee[edge];
+	}
+
+	public int getEdgeInlinedCount(int edge)
+	{
+		return edgeInlinedCount[edge];
+	}
+
+	public int getEdgeFailedCount(int edge)
+	{
+		return edgeFailedCount[edge];
+	}
+
+	public long getEdgeInvocations(int edge)
+	{
+		return edgeInvocations[edge];
+	}
+
+	public String getEdgeLastFailureReason(int edge)
+	{
+		int reasonId = edgeLastReason[edge];
+
+		return (reasonId == -1) ? null : reasonNames.get(reasonId);
+	}
+
+	/*
+	 * Failure counts of one edge by reason, most frequent first
+	 */
+	public Map<String, Integer> getEdgeFailureReasons(int edge)
+	{
+		final int[] counts = new int[reasonNames.size()];
+
+		for (int reasonId = 0; reasonId < counts.length; reasonId++)
+		{
+			counts[reasonId] = Math.max(0, edgeReasons.get(((long) edge << 32) | reasonId));
+		}
+
+		int[] order = topIndexes(counts, counts.length);
+
+		Map<String, Integer> result = new LinkedHashMap<>();
+
+		for (int reasonId : order)
+		{
+			if (counts[reasonId] > 0)
+			{
+				result.put(reasonNames.get(reasonId), counts[reasonId]);
+			}
+		}
+
+		return result;
+	}
+
+	/*
+	 * Inline failure counts over the whole graph by reason, most frequent
+	 * first
+	 */
+	public Map<String, Integer> getFailureReasons()
+	{
+		int[] order = topIndexes(Arrays.copyOf(reasonFailedCount, reasonNames.size()), reasonNames.size());
+
+		Map<String, Integer> result = new LinkedHashMap<>();
+
+		for (int reasonId : order)
+		{
+			result.put(reasonNames.get(reasonId), reasonFailedCount[reasonId]);
+		}
+
+		return result;
+	}
+
+	/*
+	 * Callee nodes with the most failed inlining attempts, most first
+	 */
+	public int[] getTopCalleesByFailureCount(int limit)
+	{
+		return topIndexes(Arrays.copyOf(nodeFailedCount, getNodeCount()), limit);
+	}
+
+	/*
+	 * Edges with the most failed inlining attempts, most first
+	 */
+	public int[] getTopEdgesByFailureCount(int limit)
+	{
+		return topIndexes(Arrays.copyOf(edgeFailedCount, edgeCount), limit);
+	}
+
+	/*
+	 * Edges from every caller that tried to inline the callee
+	 */
+	public int[] getCallerEdges(int callee)
+	{
+		if (callerOffsets == null)
+		{
+			callerEdges = new int[edgeCount];
+			callerOffsets = buildAdjacency(edgeCallee, callerEdges);
+		}
+
+		return Arrays.copyOfRange(callerEdges, callerOffsets[callee], callerOffsets[callee + 1]);
+	}
+
+	/*
+	 * Edges to every callee the caller tried to inline
+	 */
+	public int[] getCalleeEdges(int caller)
+	{
+		if (calleeOffsets == null)
+		{
+			calleeEdges = new int[edgeCount];
+			calleeOffsets = buildAdjacency(edgeCaller, calleeEdges);
+		}
+
+		return Arrays.copyOfRange(calleeEdges, calleeOffsets[caller], calleeOffsets[caller + 1]);
+	}
+
+	// counting sort of edge indexes by the node at one end
+	private int[] buildAdjacency(int[] edgeNode, int[] sortedEdges)
+	{
+		int nodeCount = getNodeCount();
+
+		int[] offsets = new int[nodeCount + 1];
+
+		for (int edge = 0; edge < edgeCount; edge++)
+		{
+			offsets[edgeNode[edge] + 1]++;
+		}
+
+		for (int node = 0; node < nodeCount; node++)
+		{
+			offsets[node + 1] += offsets[node];
+		}
+
+		int[] next = Arrays.copyOf(offsets, nodeCount);
+
+		for (int edge = 0; edge < edgeCount; edge++)
+		{
+			sortedEdges[next[edgeNode[edge]]++] = edge;
+		}
+
+		return offsets;
+	}
+
+	// indexes of the largest non-zero values, largest first, ties by index
+	private static int[] topIndexes(int[] values, int limit)
+	{
+		int size = values.length;
+
+		int count = 0;
+
+		for (int value : values)
+		{
+			if (value > 0)
+			{
+				count++;
+			}
+		}
+
+		limit = Math.min(limit, count);
+
+		// values packed above their index so one primitive sort orders both
+		long[] packed = new long[count];
+
+		int pos = 0;
+
+		for (int i = 0; i < size; i++)
+		{
+			if (values[i] > 0)
+			{
+				packed[pos++] = ((long) (Integer.MAX_VALUE - values[i]) << 32) | i;
+			}
+		}
+
+		Arrays.sort(packed);
+
+		int[] result = new int[limit];
+
+		for (int i = 0; i < limit; i++)
+		{
+			result[i] = (int) packed[i];
+		}
+
+		return result;
+	}
+
+	/*
+	 * Open addressing long to int map, linear probing, no removal
+	 */
+	static final class LongIntTable
+	{
+		static final int NO_VALUE = -1;
+
+		private long[] keys = new long[INITIAL_CAPACITY];
+		private int[] values = new int[INITIAL_CAPACITY];
+		private boolean[] used = new boolean[INITIAL_CAPACITY];
+
+		private int size;
+
+		int get(long key)
+		{
+			int mask = keys.length - 1;
+
+			int slot = hash(key) & mask;
+
+			while (used[slot])
+			{
+				if (keys[slot] == key)
+				{
+					return values[slot];
+				}
+
+				slot = (slot + 1) & mask;
+			}
+
+			return NO_VALUE;
+		}
+
+		void put(long key, int value)
+		{
+			if ((size + 1) * 4 > keys.length * 3)
+			{
+				resize();
+			}
+
+			int mask = keys.length - 1;
+
+			int slot = hash(key) & mask;
+
+			while (used[slot])
+			{
+				if (keys[slot] == key)
+				{
+					values[slot] = value;
+					return;
+				}
+
+				slot = (slot + 1) & mask;
+			}
+
+			used[slot] = true;
+			keys[slot] = key;
+			values[slot] = value;
+			size++;
+		}
+
+		private void resize()
+		{
+			long[] oldKeys = keys;
+			int[] oldValues = values;
+			boolean[] oldUsed = used;
+
+			int capacity = oldKeys.length * 2;
+
+			keys = new long[capacity];
+			values = new int[capacity];
+			used = new boolean[capacity];
+			size = 0;
+
+			for (int i = 0; i < oldKeys.length; i++)
+			{
+				if (oldUsed[i])
+				{
+					put(oldKeys[i], oldValues[i]);
+				}
+			}
+		}
+
+		private static int hash(long key)
+		{
+			long h = key * 0x9E3779B97F4A7C15L;
+
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
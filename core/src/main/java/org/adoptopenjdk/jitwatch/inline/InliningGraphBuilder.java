@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.inline;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BYTES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COUNT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NAME;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_PARSE_HIR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_BC;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CALL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_FAIL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_SUCCESS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PARSE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PHASE;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.compilation.AbstractCompilationVisitable;
+import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IParseDictionary;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.PackedBytecodes;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Builds an InliningGraph in a single pass over the parse tags of every
+ * compilation in the model. The caller of each decision is the method whose
+ * parse tag contains it, so a callee inlined deep inside another inlined
+ * method is joined to that method rather than to the compilation root.
+ */
+public class InliningGraphBuilder extends AbstractCompilationVisitable implements ITreeVisitable
+{
+	private static final Logger logger = LoggerFactory.getLogger(InliningGraphBuilder.class);
+
+	private final IReadOnlyJITDataModel model;
+
+	private final InliningGraph graph = new InliningGraph();
+
+	// parse dictionary method IDs are only unique within one compilation
+	private final Map<String, Integer> compilationNodes = new HashMap<>();
+
+	private int compilationCount;
+
+	public InliningGraphBuilder(IReadOnlyJITDataModel model)
+	{
+		this.model = model;
+	}
+
+	public static InliningGraph buildGraph(IReadOnlyJITDataModel model)
+	{
+		InliningGraphBuilder builder = new InliningGraphBuilder(model);
+
+		TreeVisitor.walkTree(model, builder);
+
+		return builder.getGraph();
+	}
+
+	public InliningGraph getGraph()
+	{
+		return graph;
+	}
+
+	public int getCompilationCount()
+	{
+		return compilationCount;
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		if (metaMember == null || !metaMember.isCompiled())
+		{
+			return;
+		}
+
+		for (Compilation compilation : metaMember.getCompilations())
+		{
+			compilationNodes.clear();
+
+			try
+			{
+				CompilationUtil.visitParseTagsOfCompilation(compilation, this);
+
+				compilationCount++;
+			}
+			catch (LogParseException lpe)
+			{
+				logger.error("Could not add compilation {} to inlining graph", compilation.getSignature(), lpe);
+			}
+		}
+	}
+
+	@Override
+	public void reset()
+	{
+	}
+
+	@Override
+	public void visitTag(Tag parseTag, IParseDictionary parseDictionary) throws LogParseException
+	{
+		int root = getNode(parseTag.getAttribute(ATTR_METHOD), parseDictionary);
+
+		if (root != -1)
+		{
+			processParseTag(parseTag, root, parseDictionary);
+		}
+	}
+
+	private void processParseTag(Tag parseTag, int caller, IParseDictionary parseDictionary)
+	{
+		String methodID = null;
+		long invocations = 0;
+
+		List<Tag> children = parseTag.getChildren();
+
+		PackedBytecodes.Cursor bcCursor = parseTag.getPackedBytecodeCursor();
+
+		int childCount = children.size();
+
+		for (int i = 0; i < childCount; i++)
+		{
+			if (bcCursor.advanceTo(i))
+			{
+				invocations = 0;
+			}
+
+			Tag child = children.get(i);
+
+			switch (child.getName())
+			{
+			case TAG_BC:
+				invocations = 0;
+				break;
+
+			case TAG_METHOD:
+				methodID = child.getAttribute(ATTR_ID);
+				break;
+
+			case TAG_CALL:
+				methodID = child.getAttribute(ATTR_METHOD);
+				invocations = child.getLongAttribute(ATTR_COUNT, 0);
+				break;
+
+			case TAG_INLINE_FAIL:
+				addDecision(caller, methodID, false, child.getAttribute(ATTR_REASON), invocations, parseDictionary);
+				methodID = null;
+				break;
+
+			case TAG_INLINE_SUCCESS:
+				addDecision(caller, methodID, true, child.getAttribute(ATTR_REASON), invocations, parseDictionary);
+				break;
+
+			case TAG_PARSE:
+			{
+				int nestedCaller = getNode(child.getAttribute(ATTR_METHOD), parseDictionary);
+
+				processParseTag(child, (nestedCaller != -1) ? nestedCaller : caller, parseDictionary);
+				break;
+			}
+
+			case TAG_PHASE:
+				if (S_PARSE_HIR.equals(child.getAttribute(ATTR_NAME)))
+				{
+					processParseTag(child, caller, parseDictionary);
+				}
+				break;
+
+			default:
+				break;
+			}
+		}
+	}
+
+	private void addDecision(int caller, String methodID, boolean inlined, String reason, long invocations,
+			IParseDictionary parseDictionary)
+	{
+		int callee = getNode(methodID, parseDictionary);
+
+		if (callee != -1)
+		{
+			if (reason != null && reason.indexOf('&') != -1)
+			{
+				reason = StringUtil.replaceXMLEntities(reason);
+			}
+
+			graph.addDecision(caller, callee, inlined, reason, invocations);
+		}
+	}
+
+	private int getNode(String methodID, IParseDictionary parseDictionary)
+	{
+		if (methodID == null)
+		{
+			return -1;
+		}
+
+		Integer cached = compilationNodes.get(methodID);
+
+		if (cached != null)
+		{
+			return cached;
+		}
+
+		int node = -1;
+
+		Tag methodTag = parseDictionary.getMethod(methodID);
+
+		if (methodTag != null)
+		{
+			String name = ParseUtil.buildMethodSignature(methodID, parseDictionary);
+
+			if (name != null)
+			{
+				node = graph.findNode(name);
+
+				if (node == -1)
+				{
+					// member lookup is costly so only once per distinct method
+					IMetaMember member = ParseUtil.lookupMember(methodID, parseDictionary, model);
+
+					node = graph.addNode(name, member, methodTag.getIntAttribute(ATTR_BYTES, 0));
+				}
+			}
+		}
+
+		compilationNodes.put(methodID, node);
+
+		return node;
+	}
+}
@@ -107,28 +107,25 @@ public final class IntrinsicFinder extends AbstractCompilationVisitable
 		for (Tag child : allChildren)
 		{
 			String tagName = child.getName();
-			Map<String, String> attrs = child.getAttributes();
 
 			switch (tagName)
 			{
 			case TAG_METHOD:
 			{
-				currentMethod = attrs.get(ATTR_NAME);
-				holder = attrs.get(ATTR_HOLDER);
+				currentMethod = child.getAttribute(ATTR_NAME);
+				holder = child.getAttribute(ATTR_HOLDER);
 				break;
 			}
 
 				// changes member context
 			case TAG_CALL:
 			{
-				String methodID = attrs.get(ATTR_METHOD);
+				String methodID = child.getAttribute(ATTR_METHOD);
 
 				Tag methodTag = parseDictionary.getMethod(methodID);
 				
-				Map<String, String> methodTagAttributes = methodTag.getAttributes();
-				
-				currentMethod = methodTagAttributes.get(ATTR_NAME);
-				holder = methodTagAttributes.get(ATTR_HOLDER);
+				currentMethod = methodTag.getAttribute(ATTR_NAME);
+				holder = methodTag.getAttribute(ATTR_HOLDER);
 				break;
 			}
 
@@ -138,11 +135,11 @@ public final class IntrinsicFinder extends AbstractCompilationVisitable
 				{
 					Tag klassTag = parseDictionary.getKlass(holder);
 
-					String intrinsic = child.getAttributes().get(ATTR_ID);
+					String intrinsic = child.getAttribute(ATTR_ID);
 
 					if (klassTag != null)
 					{
-						String fqName = klassTag.getAttributes().get(ATTR_NAME).replace(C_SLASH, C_DOT) + C_DOT + currentMethod;
+						String fqName = klassTag.getAttribute(ATTR_NAME).replace(C_SLASH, C_DOT) + C_DOT + currentMethod;
 
 						result.put(fqName, intrinsic);
 					}
@@ -155,7 +152,7 @@ public final class IntrinsicFinder extends AbstractCompilationVisitable
 
 			case TAG_PHASE:
 			{
-				String phaseName = attrs.get(ATTR_NAME);
+				String phaseName = child.getAttribute(ATTR_NAME);
 
 				if (S_PARSE_HIR.equals(phaseName))
 				{
@@ -24,6 +24,7 @@ import org.adoptopenjdk.jitwatch.logger.ILogListener;
 import org.adoptopenjdk.jitwatch.process.compiler.CompilerGroovy;
 import org.adoptopenjdk.jitwatch.process.compiler.CompilerJRuby;
 import org.adoptopenjdk.jitwatch.process.compiler.CompilerJava;
+import org.adoptopenjdk.jitwatch.process.compiler.CompilerJavaInProcess;
 import org.adoptopenjdk.jitwatch.process.compiler.CompilerJavaScript;
 import org.adoptopenjdk.jitwatch.process.compiler.CompilerKotlin;
 import org.adoptopenjdk.jitwatch.process.compiler.CompilerScala;
@@ -41,6 +42,9 @@ public class LanguageManager
 	private JITWatchConfig config;
 	private ILogListener logListener;
 
+	// kept warm between Sandbox runs
+	private CompilerJavaInProcess inProcessJavaCompiler;
+
 	public LanguageManager(JITWatchConfig config, ILogListener logListener)
 	{
 		this.config = config;
@@ -63,7 +67,7 @@ public class LanguageManager
 					result = new CompilerGroovy(languageHomeDir);
 					break;
 				case VM_LANGUAGE_JAVA:
-					result = new CompilerJava(languageHomeDir);
+					result = getJavaCompiler(languageHomeDir);
 					break;
 				case VM_LANGUAGE_JAVASCRIPT:
 					result = new CompilerJavaScript(languageHomeDir);
@@ -88,6 +92,21 @@ public class LanguageManager
 		return result;
 	}
 
+	private ICompiler getJavaCompiler(String languageHomeDir) throws FileNotFoundException
+	{
+		if (CompilerJavaInProcess.isRunningJVM(languageHomeDir) && CompilerJavaInProcess.isAvailable())
+		{
+			if (inProcessJavaCompiler == null)
+			{
+				inProcessJavaCompiler = new CompilerJavaInProcess();
+			}
+
+			return inProcessJavaCompiler;
+		}
+
+		return new CompilerJava(languageHomeDir);
+	}
+
 	public IRuntime getRuntime(String vmLanguage, String languageHomeDir)
 	{
 		IRuntime result = null;
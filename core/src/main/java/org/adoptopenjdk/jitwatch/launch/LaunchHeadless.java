@@ -5,34 +5,64 @@
  */
 package org.adoptopenjdk.jitwatch.launch;
 
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_NEWLINE;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.HEADLESS_SEPARATOR;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
 
+import org.adoptopenjdk.jitwatch.codecache.CodeCacheSimulator;
 import org.adoptopenjdk.jitwatch.core.IJITListener;
 import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.deopt.DeoptAnalyser;
+import org.adoptopenjdk.jitwatch.deopt.DeoptMemberStats;
+import org.adoptopenjdk.jitwatch.diff.ModelDiff;
+import org.adoptopenjdk.jitwatch.export.ChannelTextWriter;
+import org.adoptopenjdk.jitwatch.export.ExportFormat;
+import org.adoptopenjdk.jitwatch.export.IRecordWriter;
+import org.adoptopenjdk.jitwatch.export.ModelExporter;
 import org.adoptopenjdk.jitwatch.inline.HeadlessInlineVisitor;
+import org.adoptopenjdk.jitwatch.inline.InlineSiteFlip;
+import org.adoptopenjdk.jitwatch.inline.InliningBudget;
+import org.adoptopenjdk.jitwatch.inline.InliningBudgetSimulator;
+import org.adoptopenjdk.jitwatch.inline.InliningGraph;
+import org.adoptopenjdk.jitwatch.inline.InliningGraphBuilder;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
 import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.model.JITEventLog;
+import org.adoptopenjdk.jitwatch.model.JITEventLog.EventCursor;
 import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
 import org.adoptopenjdk.jitwatch.parser.ILogParser;
 import org.adoptopenjdk.jitwatch.parser.ParserFactory;
+import org.adoptopenjdk.jitwatch.phase.PhaseProfiler;
+import org.adoptopenjdk.jitwatch.phase.PhaseStats;
+import org.adoptopenjdk.jitwatch.queue.QueueLatencyAnalyser;
+import org.adoptopenjdk.jitwatch.queue.QueueStall;
 import org.adoptopenjdk.jitwatch.report.Report;
 import org.adoptopenjdk.jitwatch.report.comparator.ScoreComparator;
 import org.adoptopenjdk.jitwatch.report.suggestion.SuggestionWalker;
+import org.adoptopenjdk.jitwatch.tiered.TierMemberStats;
+import org.adoptopenjdk.jitwatch.tiered.TierTransitionAnalyser;
 import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
 import org.adoptopenjdk.jitwatch.util.HeadlessUtil;
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
 import org.adoptopenjdk.jitwatch.util.StringUtil;
+import org.adoptopenjdk.jitwatch.warmup.MemberWarmup;
+import org.adoptopenjdk.jitwatch.warmup.WarmupAnalyser;
 
 public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 {
+	private static final String OUTPUT_FILENAME = "headless.csv";
+	private static final String EXPORT_FILENAME = "export";
+	private static final int INLINING_GRAPH_LIMIT = 100;
+	private static final int PHASE_MEMBER_LIMIT = 100;
+	private static final int QUEUE_STALL_LIMIT = 50;
+	private static final int TIER_MEMBER_LIMIT = 100;
+	private static final int INLINE_FLIP_LIMIT = 100;
+
 	private boolean showTimeLine;
 	private boolean showErrors;
 	private boolean showModel;
@@ -40,11 +70,26 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 	private boolean showSuggestions;
 	private boolean outputFile;
 	private boolean showInlineFailedCalls;
+	private boolean showCompilerThreads;
+	private boolean showInliningGraph;
+	private boolean showDeoptChurn;
+	private boolean showPhaseProfile;
+	private boolean showQueueLatency;
+	private boolean showWarmup;
+	private boolean showTierTransitions;
+	private boolean showCodeCacheSimulation;
+	private long reservedCodeCacheSize;
+	private String inliningBudgetSpec;
+	private String diffBeforeLogFile;
+	private ExportFormat exportFormat;
 
 	private ILogParser parser;
 	private JITWatchConfig config;
 
-	private StringBuilder timelineBuilder = new StringBuilder();
+	// output is streamed through a bounded buffer rather than built up in memory
+	private ChannelTextWriter out;
+
+	// errors are reported after the timeline once parsing completes
 	private StringBuilder errorBuilder = new StringBuilder();
 
 	public LaunchHeadless(String[] args) throws IOException
@@ -53,17 +98,44 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 
 		parseOptions(args);
 
-		timelineBuilder.append("Timestamp").append(HEADLESS_SEPARATOR);
-		timelineBuilder.append("Event").append(HEADLESS_SEPARATOR);
-		timelineBuilder.append("Class").append(HEADLESS_SEPARATOR);
-		timelineBuilder.append("Member").append(S_NEWLINE);
-
 		config = new JITWatchConfig();
 
-		parser = ParserFactory.getParser(this);
+		parser = ParserFactory.getParser(this, new File(logFile));
 		parser.setConfig(config);
 
-		parser.processLogFile(new File(logFile), this);
+		if (outputFile)
+		{
+			out = ChannelTextWriter.toFile(Paths.get(OUTPUT_FILENAME));
+			out.append("sep=").append(HEADLESS_SEPARATOR).append(S_NEWLINE);
+		}
+		else
+		{
+			out = ChannelTextWriter.toStream(System.out);
+		}
+
+		try
+		{
+			// the logs are parsed one after the other and compared once both are complete
+			IReadOnlyJITDataModel beforeModel = null;
+
+			if (diffBeforeLogFile != null)
+			{
+				beforeModel = parseBeforeLog();
+			}
+
+			parser.processLogFile(new File(logFile), this);
+
+			writeOutput(beforeModel);
+		}
+		finally
+		{
+			out.close();
+		}
+
+		if (outputFile)
+		{
+			System.out.println("Wrote to " + OUTPUT_FILENAME);
+		}
 	}
 
 	@Override
@@ -83,13 +155,6 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 	@Override
 	public void handleJITEvent(JITEvent event)
 	{
-		if (showTimeLine)
-		{
-			timelineBuilder.append(StringUtil.formatTimestamp(event.getStamp(), true)).append(HEADLESS_SEPARATOR);
-			timelineBuilder.append(event.getEventType().getText()).append(HEADLESS_SEPARATOR);
-			timelineBuilder.append(event.getEventMember().getMetaClass().getFullyQualifiedName()).append(HEADLESS_SEPARATOR);
-			timelineBuilder.append(event.getEventMember().toStringUnqualifiedMethodName(true, true)).append(S_NEWLINE);
-		}
 	}
 
 	@Override
@@ -110,23 +175,41 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 	{
 		if (args.length < 2)
 		{
-			System.err.println("Usage: LaunchHeadless <options> <hotspot log file>");
-			System.err.println("options:");
-			System.err.println("-e\tShow parse errors");
-			System.err.println("-m\tShow model");
-			System.err.println("-c\tShow only compiled methods in model (use with -m)");
-			System.err.println("-s\tShow code suggestions");
-			System.err.println("-t\tShow compilation timeline");
-			System.err.println("-f\tWrite output to headless.csv");
-			System.err.println("-i\tShow inline failed calls");
-			// System.err.println("-o\tShow optimized virtual calls");
-
-			System.exit(-1);
+			printUsage();
 		}
 
 		new LaunchHeadless(args);
 	}
 
+	private static void printUsage()
+	{
+		System.err.println("Usage: LaunchHeadless <options> <hotspot log file>");
+		System.err.println("options:");
+		System.err.println("-e\tShow parse errors");
+		System.err.println("-m\tShow model");
+		System.err.println("-c\tShow only compiled methods in model (use with -m)");
+		System.err.println("-s\tShow code suggestions");
+		System.err.println("-t\tShow compilation timeline");
+		System.err.println("-f\tWrite output to headless.csv");
+		System.err.println("-i\tShow inline failed calls");
+		System.err.println("-q\tShow compiler thread queue and busy time summary");
+		System.err.println("-g\tShow callees with the most inlining failures across all compilations");
+		System.err.println("-u\tShow methods ranked by deoptimisation and recompile churn");
+		System.err.println("-p\tShow compile time and IR node counts by compiler phase");
+		System.err.println("-w\tShow compile queue wait, compile time and backlog stalls by compiler and tier");
+		System.err.println("-r\tShow warm-up: time to final compilation level, C2 coverage and compile activity");
+		System.err.println("-l\tShow tiered level transitions and compilations wasted on invalidated or redundant code");
+		System.err.println("-k\tSimulate code cache occupancy and fragmentation and predict the ReservedCodeCacheSize needed");
+		System.err.println("-z <size>\tReservedCodeCacheSize to simulate with -k such as 64m (default is read from the log)");
+		System.err.println("-b <flags>\tShow call sites that would flip inlining with flags such as MaxInlineSize=70,FreqInlineSize=500,InlineSmallCode=4000,MaxInlineLevel=20");
+		System.err.println("-d <log>\tShow JIT differences between <log> (before) and the hotspot log file (after)");
+		System.err.println("-x\tExport compilations, inlining, suggestions and code cache events to export.csv");
+		System.err.println("-j\tExport compilations, inlining, suggestions and code cache events to export.jsonl");
+		// System.err.println("-o\tShow optimized virtual calls");
+
+		System.exit(-1);
+	}
+
 	private void parseOptions(String[] args)
 	{
 		for (int i = 0; i < args.length - 1; i++)
@@ -162,6 +245,99 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 			case "-i":
 				showInlineFailedCalls = true;
 				break;
+
+			case "-q":
+				showCompilerThreads = true;
+				break;
+
+			case "-g":
+				showInliningGraph = true;
+				break;
+
+			case "-u":
+				showDeoptChurn = true;
+				break;
+
+			case "-p":
+				showPhaseProfile = true;
+				break;
+
+			case "-w":
+				showQueueLatency = true;
+				break;
+
+			case "-r":
+				showWarmup = true;
+				break;
+
+			case "-l":
+				showTierTransitions = true;
+				break;
+
+			case "-k":
+				showCodeCacheSimulation = true;
+				break;
+
+			case "-z":
+				if (i + 1 < args.length - 1)
+				{
+					String size = args[++i];
+
+					try
+					{
+						reservedCodeCacheSize = ParseUtil.parseVMSize(size);
+					}
+					catch (NumberFormatException nfe)
+					{
+						System.err.println("Could not parse ReservedCodeCacheSize: " + size);
+						printUsage();
+					}
+				}
+				else
+				{
+					printUsage();
+				}
+				break;
+
+			case "-b":
+				if (i + 1 < args.length - 1)
+				{
+					inliningBudgetSpec = args[++i];
+
+					try
+					{
+						InliningBudget.parse(inliningBudgetSpec, InliningBudget.getDefault());
+					}
+					catch (IllegalArgumentException iae)
+					{
+						System.err.println("Could not parse inlining flags: " + iae.getMessage());
+						printUsage();
+					}
+				}
+				else
+				{
+					printUsage();
+				}
+				break;
+
+			case "-d":
+				if (i + 1 < args.length - 1)
+				{
+					diffBeforeLogFile = args[++i];
+				}
+				else
+				{
+					printUsage();
+				}
+				break;
+
+			case "-x":
+				exportFormat = ExportFormat.CSV;
+				break;
+
+			case "-j":
+				exportFormat = ExportFormat.JSONL;
+				break;
 				
 				// case "-o":
 				// showOptimizedVirtualCalls = true;
@@ -173,115 +349,206 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 	@Override
 	public void handleReadComplete()
 	{
-		StringBuilder outputBuilder = new StringBuilder();
+		// if (showOptimizedVirtualCalls)
+		// {
+		// OptimizedVirtualCallVisitable optimizedVCallVisitable = new
+		// OptimizedVirtualCallVisitable();
+		//
+		// List<OptimizedVirtualCall> optimizedVirtualCalls =
+		// optimizedVCallVisitable.buildOptimizedCalleeReport(parser.getModel(),
+		// config.getAllClassLocations());
+		//
+		// showOptimizedVCalls(optimizedVirtualCalls);
+		// }
+
+	}
+
+	private void writeOutput(IReadOnlyJITDataModel beforeModel) throws IOException
+	{
+		IReadOnlyJITDataModel model = parser.getModel();
 
 		if (showTimeLine)
 		{
-			outputBuilder.append(timelineBuilder.toString()).append(S_NEWLINE);
+			writeTimeLine(model.getEventLog());
 		}
 
 		if (showErrors)
 		{
-			outputBuilder.append(errorBuilder.toString()).append(S_NEWLINE);
+			out.append(errorBuilder).append(S_NEWLINE);
 		}
 
 		if (showModel)
 		{
-			IReadOnlyJITDataModel model = parser.getModel();
+			HeadlessUtil.writeModel(out, model, showOnlyCompiledMethods);
+			out.append(S_NEWLINE);
+		}
 
-			String modelString = HeadlessUtil.modelToString(model, showOnlyCompiledMethods);
+		if (showCompilerThreads)
+		{
+			HeadlessUtil.writeCompilerThreads(out, model);
+			out.append(S_NEWLINE);
+		}
+
+		if (showInliningGraph)
+		{
+			InliningGraph graph = InliningGraphBuilder.buildGraph(model);
 
-			outputBuilder.append(modelString).append(S_NEWLINE);
+			HeadlessUtil.writeInliningGraph(out, graph, INLINING_GRAPH_LIMIT);
+			out.append(S_NEWLINE);
 		}
 
-		if (showSuggestions)
+		if (showDeoptChurn)
 		{
-			SuggestionWalker walker = new SuggestionWalker(parser.getModel());
+			DeoptAnalyser analyser = new DeoptAnalyser(model);
 
-			List<Report> suggestions = walker.getReports(new ScoreComparator());
+			List<DeoptMemberStats> ranked = analyser.analyse();
 
-			outputBuilder.append(getSuggestions(suggestions));
+			HeadlessUtil.writeDeoptChurn(out, analyser, ranked);
+			out.append(S_NEWLINE);
 		}
 
-		if (outputFile)
+		if (showPhaseProfile)
 		{
-			outputBuilder.insert(0, "sep=" + HEADLESS_SEPARATOR + S_NEWLINE);
+			PhaseProfiler profiler = new PhaseProfiler(model);
 
-			try
-			{
-				Files.write(Paths.get("headless.csv"), outputBuilder.toString().getBytes());
+			List<PhaseStats> ranked = profiler.analyse();
 
-				System.out.println("Wrote to headless.csv");
-			}
-			catch (IOException e)
-			{
-				e.printStackTrace();
-			}
+			HeadlessUtil.writePhaseProfile(out, profiler, ranked, PHASE_MEMBER_LIMIT);
+			out.append(S_NEWLINE);
 		}
-		else
+
+		if (showQueueLatency)
 		{
-			System.out.println(outputBuilder.toString());
+			QueueLatencyAnalyser analyser = new QueueLatencyAnalyser(model);
+
+			List<QueueStall> stalls = analyser.analyse();
+
+			HeadlessUtil.writeQueueLatency(out, analyser, stalls, QUEUE_STALL_LIMIT);
+			out.append(S_NEWLINE);
 		}
 
-		if (showInlineFailedCalls)
+		if (showWarmup)
 		{
-			HeadlessInlineVisitor inlineVisitor = new HeadlessInlineVisitor(parser.getModel());
-			TreeVisitor.walkTree(parser.getModel(), inlineVisitor);
-			inlineVisitor.printFailedList(System.out);
+			WarmupAnalyser analyser = new WarmupAnalyser(model);
+
+			List<MemberWarmup> members = analyser.analyse();
+
+			HeadlessUtil.writeWarmup(out, analyser, members);
+			out.append(S_NEWLINE);
 		}
 
-		// if (showOptimizedVirtualCalls)
-		// {
-		// OptimizedVirtualCallVisitable optimizedVCallVisitable = new
-		// OptimizedVirtualCallVisitable();
-		//
-		// List<OptimizedVirtualCall> optimizedVirtualCalls =
-		// optimizedVCallVisitable.buildOptimizedCalleeReport(parser.getModel(),
-		// config.getAllClassLocations());
-		//
-		// showOptimizedVCalls(optimizedVirtualCalls);
-		// }
+		if (showTierTransitions)
+		{
+			TierTransitionAnalyser analyser = new TierTransitionAnalyser(model);
 
-	}
+			List<TierMemberStats> ranked = analyser.analyse();
 
-	private String getSuggestions(List<Report> suggestions)
-	{
-		StringBuilder builder = new StringBuilder();
+			HeadlessUtil.writeTierTransitions(out, analyser, ranked, TIER_MEMBER_LIMIT);
+			out.append(S_NEWLINE);
+		}
+
+		if (showCodeCacheSimulation)
+		{
+			long reservedSize = reservedCodeCacheSize > 0 ? reservedCodeCacheSize
+					: CodeCacheSimulator.reservedSizeFromVMArguments(parser.getVMArguments());
 
-		builder.append("Type").append(HEADLESS_SEPARATOR);
-		builder.append("Score").append(HEADLESS_SEPARATOR);
-		builder.append("Caller Class").append(HEADLESS_SEPARATOR);
-		builder.append("Caller Member").append(HEADLESS_SEPARATOR);
-		builder.append("BCI").append(HEADLESS_SEPARATOR);
-		builder.append("Suggestion").append(S_NEWLINE);
+			CodeCacheSimulator simulator = new CodeCacheSimulator(model, reservedSize);
 
-		for (Report suggestion : suggestions)
+			simulator.simulate();
+
+			HeadlessUtil.writeCodeCacheSimulation(out, simulator);
+			out.append(S_NEWLINE);
+		}
+
+		if (inliningBudgetSpec != null)
 		{
-			String callerClass;
-			String callerMember;
+			// flags not given keep the values the log was recorded with
+			InliningBudget recordedBudget = InliningBudget.fromVMArguments(parser.getVMArguments());
 
-			if (suggestion.getCaller() != null)
-			{
-				callerClass = suggestion.getCaller().getMetaClass().getFullyQualifiedName();
-				callerMember = suggestion.getCaller().toStringUnqualifiedMethodName(true, true);
-			}
-			else
+			InliningBudget budget = InliningBudget.parse(inliningBudgetSpec, recordedBudget);
+
+			InliningBudgetSimulator simulator = new InliningBudgetSimulator(model, recordedBudget, budget);
+
+			List<InlineSiteFlip> flips = simulator.simulate();
+
+			HeadlessUtil.writeInliningBudget(out, simulator, flips, INLINE_FLIP_LIMIT);
+			out.append(S_NEWLINE);
+		}
+
+		if (beforeModel != null)
+		{
+			ModelDiff diff = new ModelDiff(beforeModel, model);
+
+			diff.compare();
+
+			HeadlessUtil.writeModelDiff(out, diff);
+			out.append(S_NEWLINE);
+		}
+
+		if (showSuggestions)
+		{
+			SuggestionWalker walker = new SuggestionWalker(model);
+
+			List<Report> suggestions = walker.getReports(new ScoreComparator());
+
+			HeadlessUtil.writeSuggestions(out, suggestions);
+		}
+
+		if (showInlineFailedCalls)
+		{
+			HeadlessInlineVisitor inlineVisitor = new HeadlessInlineVisitor(model);
+			TreeVisitor.walkTree(model, inlineVisitor);
+			inlineVisitor.writeFailedList(out);
+		}
+
+		out.flush();
+
+		if (exportFormat != null)
+		{
+			String exportFilename = EXPORT_FILENAME + "." + exportFormat.getExtension();
+
+			try (IRecordWriter writer = exportFormat.createWriter(ChannelTextWriter.toFile(Paths.get(exportFilename))))
 			{
-				callerClass = "Unknown";
-				callerMember = "Unknown";
+				new ModelExporter(model, writer).exportAll();
 			}
 
-			String cleanText = suggestion.getText().replace(C_NEWLINE, C_SPACE);
+			System.out.println("Exported to " + exportFilename);
+		}
+	}
+
+	private IReadOnlyJITDataModel parseBeforeLog() throws IOException
+	{
+		File beforeLogFile = new File(diffBeforeLogFile);
+
+		ILogParser beforeParser = ParserFactory.getParser(this, beforeLogFile);
+
+		beforeParser.setConfig(config);
+
+		beforeParser.processLogFile(beforeLogFile, this);
+
+		return beforeParser.getModel();
+	}
+
+	private void writeTimeLine(JITEventLog eventLog) throws IOException
+	{
+		out.append("Timestamp").append(HEADLESS_SEPARATOR);
+		out.append("Event").append(HEADLESS_SEPARATOR);
+		out.append("Class").append(HEADLESS_SEPARATOR);
+		out.append("Member").append(S_NEWLINE);
+
+		EventCursor cursor = eventLog.cursor();
+
+		while (cursor.next())
+		{
+			IMetaMember member = cursor.getEventMember();
 
-			builder.append(suggestion.getType()).append(HEADLESS_SEPARATOR);
-			builder.append(suggestion.getScore()).append(HEADLESS_SEPARATOR);
-			builder.append(callerClass).append(HEADLESS_SEPARATOR);
-			builder.append(callerMember).append(HEADLESS_SEPARATOR);
-			builder.append(suggestion.getBytecodeOffset()).append(HEADLESS_SEPARATOR);
-			builder.append(cleanText).append(S_NEWLINE);
+			out.append(StringUtil.formatTimestamp(cursor.getStamp(), true)).append(HEADLESS_SEPARATOR);
+			out.append(cursor.getEventType().getText()).append(HEADLESS_SEPARATOR);
+			out.append(member.getMetaClass().getFullyQualifiedName()).append(HEADLESS_SEPARATOR);
+			out.append(member.toStringUnqualifiedMethodName(true, true)).append(S_NEWLINE);
 		}
 
-		return builder.toString();
+		out.append(S_NEWLINE);
 	}
 
 	// private void showOptimizedVCalls(List<OptimizedVirtualCall> vCalls)
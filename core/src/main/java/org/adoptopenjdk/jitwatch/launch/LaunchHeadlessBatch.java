@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.launch;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.batch.BatchAnalyser;
+import org.adoptopenjdk.jitwatch.batch.BatchLogResult;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.loader.BytecodeLoader;
+import org.adoptopenjdk.jitwatch.util.ClassUtil;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+
+public class LaunchHeadlessBatch
+{
+	private File outputDir = new File(".");
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private List<String> extraClassLocations = new ArrayList<>();
+
+	public LaunchHeadlessBatch(String[] args) throws IOException, InterruptedException
+	{
+		String logPath = args[args.length - 1];
+
+		parseOptions(args);
+
+		List<File> logFiles = BatchAnalyser.findLogFiles(logPath);
+
+		if (logFiles.isEmpty())
+		{
+			System.err.println("No log files found at " + logPath);
+			return;
+		}
+
+		if (!outputDir.exists() && !outputDir.mkdirs())
+		{
+			throw new IOException("Could not create output directory " + outputDir);
+		}
+
+		List<String> classLocations = new ArrayList<>(new JITWatchConfig().getConfiguredClassLocations());
+
+		for (String location : extraClassLocations)
+		{
+			if (!classLocations.contains(location))
+			{
+				classLocations.add(location);
+			}
+		}
+
+		List<URL> urls = new ArrayList<>(classLocations.size());
+
+		for (String location : classLocations)
+		{
+			urls.add(new File(location).toURI().toURL());
+		}
+
+		ClassUtil.initialiseShared(urls);
+		BytecodeLoader.enableSharedBytecodeCache();
+
+		try
+		{
+			System.out.println("Analysing " + logFiles.size() + " logs with " + threads + " threads");
+
+			long start = System.currentTimeMillis();
+
+			BatchAnalyser analyser = new BatchAnalyser(classLocations, outputDir, threads);
+
+			List<BatchLogResult> results = analyser.analyse(logFiles);
+
+			for (BatchLogResult result : results)
+			{
+				if (result.isSuccess())
+				{
+					System.out.println("Wrote " + analyser.getReportFile(result.getLogFile()));
+				}
+				else
+				{
+					System.out.println("Failed " + result.getLogFile() + " : " + result.getFailureMessage());
+				}
+			}
+
+			File summaryFile = analyser.writeSummary(results);
+
+			System.out.println("Wrote " + summaryFile + " in " + StringUtil.formatTimestamp(System.currentTimeMillis() - start, true));
+		}
+		finally
+		{
+			BytecodeLoader.disableSharedBytecodeCache();
+			ClassUtil.releaseShared();
+		}
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		if (args.length < 1)
+		{
+			System.err.println("Usage: LaunchHeadlessBatch <options> <log directory or glob>");
+			System.err.println("options:");
+			System.err.println("-o <dir>\tWrite reports to <dir> (default current directory)");
+			System.err.println("-p <n>\tParse up to <n> logs in parallel (default available processors)");
+			System.err.println("-cp <path>\tAdditional class locations separated by " + File.pathSeparator);
+
+			System.exit(-1);
+		}
+
+		new LaunchHeadlessBatch(args);
+	}
+
+	private void parseOptions(String[] args)
+	{
+		for (int i = 0; i < args.length - 2; i++)
+		{
+			String arg = args[i];
+
+			switch (arg)
+			{
+			case "-o":
+				outputDir = new File(args[++i]);
+				break;
+
+			case "-p":
+				threads = Integer.parseInt(args[++i]);
+				break;
+
+			case "-cp":
+				for (String location : args[++i].split(File.pathSeparator))
+				{
+					if (!location.isEmpty())
+					{
+						extraClassLocations.add(location);
+					}
+				}
+				break;
+			}
+		}
+	}
+}
@@ -43,6 +43,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -74,6 +75,9 @@ public final class BytecodeLoader
 	private static final Pattern PATTERN_BYTECODE_INSTRUCTION = Pattern
 			.compile("^([0-9]+):\\s([0-9a-z_]+)\\s?([#0-9a-z,\\- ]+)?\\s?\\{?\\s?(//.*)?");
 
+	// optional cache of parsed class bytecode shared by several models
+	private static volatile Map<String, ClassBC> sharedBytecodeCache = null;
+
 	enum BytecodeSection
 	{
 		NONE, CONSTANT_POOL, CODE, EXCEPTIONTABLE, LINETABLE, RUNTIMEVISIBLEANNOTATIONS, LOCALVARIABLETABLE, STACKMAPTABLE, INNERCLASSES
@@ -107,6 +111,16 @@ public final class BytecodeLoader
 		return null;
 	}
 
+	public static void enableSharedBytecodeCache()
+	{
+		sharedBytecodeCache = new ConcurrentHashMap<>();
+	}
+
+	public static void disableSharedBytecodeCache()
+	{
+		sharedBytecodeCache = null;
+	}
+
 	public static ClassBC fetchBytecodeForClass(List<String> classLocations, String fqClassName, boolean cacheBytecode)
 	{
 		return fetchBytecodeForClass(classLocations, fqClassName, null, cacheBytecode);
@@ -122,7 +136,14 @@ public final class BytecodeLoader
 			logger.debug("Class locations: {}", StringUtil.listToString(classLocations));
 		}
 
-		ClassBC classBytecode = null;
+		Map<String, ClassBC> sharedCache = sharedBytecodeCache;
+
+		ClassBC classBytecode = (sharedCache != null) ? sharedCache.get(fqClassName) : null;
+
+		if (classBytecode != null)
+		{
+			return classBytecode;
+		}
 			
 		try
 		{		
@@ -152,7 +173,12 @@ public final class BytecodeLoader
 				byteCodeString = javapProcess.getOutputStream();
 			}
 			
-			classBytecode = parseByteCodeFromString(fqClassName, byteCodeString, cacheBytecode);			
+			classBytecode = parseByteCodeFromString(fqClassName, byteCodeString, cacheBytecode);
+
+			if (sharedCache != null && classBytecode != null)
+			{
+				sharedCache.put(fqClassName, classBytecode);
+			}
 		}
 		catch (Exception e)
 		{
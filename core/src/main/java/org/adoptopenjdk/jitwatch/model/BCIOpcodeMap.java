@@ -5,11 +5,91 @@
  */
 package org.adoptopenjdk.jitwatch.model;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
 import org.adoptopenjdk.jitwatch.model.bytecode.Opcode;
 
-public class BCIOpcodeMap extends HashMap<Integer, Opcode>
+/*
+ * Opcode at each bytecode index of one method, indexed directly by BCI.
+ * Methods are at most 64KB of bytecode and usually far smaller.
+ */
+public class BCIOpcodeMap
 {
-	private static final long serialVersionUID = 1L;
-}
\ No newline at end of file
+	private static final int INITIAL_CAPACITY = 32;
+
+	private Opcode[] opcodes = new Opcode[INITIAL_CAPACITY];
+
+	private int size;
+
+	public void put(int bci, Opcode opcode)
+	{
+		if (bci < 0)
+		{
+			throw new IllegalArgumentException("Negative BCI " + bci);
+		}
+
+		if (bci >= opcodes.length)
+		{
+			int capacity = opcodes.length;
+
+			while (capacity <= bci)
+			{
+				capacity *= 2;
+			}
+
+			opcodes = Arrays.copyOf(opcodes, capacity);
+		}
+
+		if (opcodes[bci] == null)
+		{
+			size++;
+		}
+
+		opcodes[bci] = opcode;
+	}
+
+	public Opcode get(int bci)
+	{
+		return (bci >= 0 && bci < opcodes.length) ? opcodes[bci] : null;
+	}
+
+	public boolean containsKey(int bci)
+	{
+		return get(bci) != null;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append('{');
+
+		for (int i = 0; i < opcodes.length; i++)
+		{
+			if (opcodes[i] != null)
+			{
+				if (builder.length() > 1)
+				{
+					builder.append(", ");
+				}
+
+				builder.append(i).append('=').append(opcodes[i]);
+			}
+		}
+
+		builder.append('}');
+
+		return builder.toString();
+	}
+}
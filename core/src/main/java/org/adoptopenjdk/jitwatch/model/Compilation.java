@@ -117,7 +117,7 @@ public class Compilation
 
 	public String getQueuedAttribute(String key)
 	{
-		return getQueuedAttributes().get(key);
+		return tagTaskQueued != null ? tagTaskQueued.getAttribute(key) : null;
 	}
 
 	public Map<String, String> getCompiledAttributes()
@@ -138,21 +138,19 @@ public class Compilation
 
 	public String getCompiledAttribute(String key)
 	{
-		return getCompiledAttributes().get(key);
+		return tagNMethod != null ? tagNMethod.getAttribute(key) : null;
 	}
 
 	public void setTagTaskQueued(Tag tagTaskQueued)
 	{
 		this.tagTaskQueued = tagTaskQueued;
 
-		Map<String, String> attrs = tagTaskQueued.getAttributes();
+		this.compileID = tagTaskQueued.getAttribute(ATTR_COMPILE_ID);
 
-		this.compileID = attrs.get(ATTR_COMPILE_ID);
+		stampTaskQueued = ParseUtil.getStamp(tagTaskQueued);
 
-		stampTaskQueued = ParseUtil.getStamp(attrs);
-
-		String compileKind = attrs.get(ATTR_COMPILE_KIND);
-		String osrBCIString = attrs.get(ATTR_OSR_BCI);
+		String compileKind = tagTaskQueued.getAttribute(ATTR_COMPILE_KIND);
+		String osrBCIString = tagTaskQueued.getAttribute(ATTR_OSR_BCI);
 
 		if (OSR.equalsIgnoreCase(compileKind))
 		{
@@ -175,20 +173,18 @@ public class Compilation
 	{
 		this.tagNMethod = tagNMethod;
 
-		Map<String, String> attrs = tagNMethod.getAttributes();
-
-		this.nativeAddress = attrs.get(ATTR_ADDRESS);
+		this.nativeAddress = tagNMethod.getAttribute(ATTR_ADDRESS);
 
-		this.entryAddress = attrs.get(ATTR_ENTRY);
+		this.entryAddress = tagNMethod.getAttribute(ATTR_ENTRY);
 
-		String compileKind = attrs.get(ATTR_COMPILE_KIND);
+		String compileKind = tagNMethod.getAttribute(ATTR_COMPILE_KIND);
 
-		stampNMethodEmitted = ParseUtil.getStamp(attrs);
+		stampNMethodEmitted = ParseUtil.getStamp(tagNMethod);
 
 		if (C2N.equalsIgnoreCase(compileKind))
 		{
 			isC2N = true;
-			this.compileID = tagNMethod.getAttributes().get(ATTR_COMPILE_ID);
+			this.compileID = tagNMethod.getAttribute(ATTR_COMPILE_ID);
 		}
 	}
 
@@ -196,9 +192,7 @@ public class Compilation
 	{
 		this.tagTask = tagTask;
 
-		Map<String, String> attrs = tagTask.getAttributes();
-
-		stampTaskCompilationStart = ParseUtil.getStamp(attrs);
+		stampTaskCompilationStart = ParseUtil.getStamp(tagTask);
 
 		if (tagTask.getFirstNamedChild(TAG_FAILURE) != null)
 		{
@@ -242,7 +236,7 @@ public class Compilation
 
 		if (tagTaskDone != null)
 		{
-			result = Integer.parseInt(tagTaskDone.getAttributes().get(ATTR_NMSIZE));
+			result = tagTaskDone.getIntAttribute(ATTR_NMSIZE);
 		}
 
 		return result;
@@ -254,7 +248,7 @@ public class Compilation
 
 		if (tagTask != null)
 		{
-			result = Integer.parseInt(tagTask.getAttributes().get(ATTR_BYTES));
+			result = tagTask.getIntAttribute(ATTR_BYTES);
 		}
 
 		return result;
@@ -300,11 +294,9 @@ public class Compilation
 
 		if (tagNMethod != null)
 		{
-			Map<String, String> tagAttributes = tagNMethod.getAttributes();
-
-			String level = tagAttributes.get(ATTR_LEVEL);
-			String compiler = tagAttributes.get(ATTR_COMPILER);
-			String compileKind = tagAttributes.get(ATTR_COMPILE_KIND);
+			String level = tagNMethod.getAttribute(ATTR_LEVEL);
+			String compiler = tagNMethod.getAttribute(ATTR_COMPILER);
+			String compileKind = tagNMethod.getAttribute(ATTR_COMPILE_KIND);
 
 			builder.append("  (");
 
@@ -342,10 +334,8 @@ public class Compilation
 		{
 			StringBuilder builder = new StringBuilder();
 
-			Map<String, String> tagAttributes = tagNMethod.getAttributes();
-
-			String compiler = tagAttributes.get(ATTR_COMPILER);
-			String compileKind = tagAttributes.get(ATTR_COMPILE_KIND);
+			String compiler = tagNMethod.getAttribute(ATTR_COMPILER);
+			String compileKind = tagNMethod.getAttribute(ATTR_COMPILE_KIND);
 
 			if (compiler != null)
 			{
@@ -385,9 +375,7 @@ public class Compilation
 
 		if (tag != null)
 		{
-			Map<String, String> tagAttributes = tag.getAttributes();
-
-			String level = tagAttributes.get(ATTR_LEVEL);
+			String level = tag.getAttribute(ATTR_LEVEL);
 
 			if (level != null)
 			{
@@ -399,7 +387,7 @@ public class Compilation
 				{
 				}
 			}
-			else if (C2.equalsIgnoreCase(tagAttributes.get(ATTR_COMPILER)))
+			else if (C2.equalsIgnoreCase(tag.getAttribute(ATTR_COMPILER)))
 			{
 				result = 4;
 			}
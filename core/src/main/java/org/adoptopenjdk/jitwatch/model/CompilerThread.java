@@ -17,6 +17,8 @@ public class CompilerThread
 
 	private List<Compilation> compilations;
 
+	private volatile CompilerThreadSeries series;
+
 	public String getThreadId()
 	{
 		return threadId;
@@ -38,6 +40,7 @@ public class CompilerThread
 	public void addCompilation(Compilation compilation)
 	{
 		compilations.add(compilation);
+		series = null;
 	}
 
 	public List<Compilation> getCompilations()
@@ -48,95 +51,43 @@ public class CompilerThread
 	public void clear()
 	{
 		compilations.clear();
+		series = null;
 	}
-	
-	public int getLargestNativeSize()
-	{
-		int result = 0;
-
-		if (!compilations.isEmpty())
-		{
-			Compilation first = compilations.get(0);
 
-			result = first.getNativeSize();
-		}
+	/*
+	 * Queue depth and busy time series, built once and cached until more
+	 * compilations are added to this thread
+	 */
+	public CompilerThreadSeries getSeries()
+	{
+		CompilerThreadSeries result = series;
 
-		for (Compilation compilation : compilations)
+		if (result == null || result.getCompilationCount() != compilations.size())
 		{
-			if (compilation.getNativeSize() > result)
-			{
-				result = compilation.getNativeSize();
-			}
+			result = new CompilerThreadSeries(compilations);
+			series = result;
 		}
 
 		return result;
 	}
-	
-	public int getLargestBytecodeSize()
-	{
-		int result = 0;
-
-		if (!compilations.isEmpty())
-		{
-			Compilation first = compilations.get(0);
-
-			result = first.getBytecodeSize();
-		}
 
-		for (Compilation compilation : compilations)
-		{
-			if (compilation.getBytecodeSize() > result)
-			{
-				result = compilation.getBytecodeSize();
-			}
-		}
+	public int getLargestNativeSize()
+	{
+		return getSeries().getLargestNativeSize();
+	}
 
-		return result;
+	public int getLargestBytecodeSize()
+	{
+		return getSeries().getLargestBytecodeSize();
 	}
 
 	public long getEarliestQueuedTime()
 	{
-		long result = 0;
-
-		if (!compilations.isEmpty())
-		{
-			Compilation first = compilations.get(0);
-
-			result = first.getStampTaskQueued();
-		}
-
-		for (Compilation compilation : compilations)
-		{
-			if (compilation.getStampTaskQueued() < result)
-			{
-				result = compilation.getStampTaskQueued();
-			}
-		}
-
-		return result;
+		return getSeries().getEarliestQueuedTime();
 	}
 
 	public long getLatestNMethodEmittedTime()
 	{
-		long result = 0;
-
-		if (!compilations.isEmpty())
-		{
-			Compilation first = compilations.get(0);
-
-			result = first.getStampNMethodEmitted();
-		}
-
-		for (Compilation compilation : compilations)
-		{
-			long emitted = compilation.getStampNMethodEmitted();
-			
-			if (emitted > result)
-			{
-				result = emitted;
-			}
-		}
-
-		return result;
+		return getSeries().getLatestNMethodEmittedTime();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Precomputed per-thread time series built in one sweep over the
+ * compilations of a CompilerThread.
+ *
+ * Queue depth is a step function: after queueStamps[i] the depth is
+ * queueDepths[i]. Busy intervals are the [compile start, nmethod emitted]
+ * ranges sorted by start with a running total of busy time.
+ */
+public class CompilerThreadSeries
+{
+	private final int compilationCount;
+
+	private final long[] queueStamps;
+	private final int[] queueDepths;
+	private final int maxQueueDepth;
+
+	private final long[] busyStarts;
+	private final long[] busyEnds;
+	private final long[] cumulativeBusy;
+
+	private final long earliestQueuedTime;
+	private final long latestNMethodEmittedTime;
+	private final int largestNativeSize;
+	private final int largestBytecodeSize;
+
+	public CompilerThreadSeries(List<Compilation> compilations)
+	{
+		compilationCount = compilations.size();
+
+		long[] queued = new long[compilationCount];
+		long[] started = new long[compilationCount];
+
+		long[] starts = new long[compilationCount];
+		long[] ends = new long[compilationCount];
+		int intervalCount = 0;
+
+		long earliestQueued = 0;
+		long latestEmitted = 0;
+		int largestNative = 0;
+		int largestBytecode = 0;
+
+		for (int i = 0; i < compilationCount; i++)
+		{
+			Compilation compilation = compilations.get(i);
+
+			long stampQueued = compilation.getStampTaskQueued();
+			long stampStart = compilation.getStampTaskCompilationStart();
+			long stampEmitted = compilation.getStampNMethodEmitted();
+
+			queued[i] = stampQueued;
+			started[i] = stampStart;
+
+			if (i == 0)
+			{
+				earliestQueued = stampQueued;
+				latestEmitted = stampEmitted;
+				largestNative = compilation.getNativeSize();
+				largestBytecode = compilation.getBytecodeSize();
+			}
+			else
+			{
+				earliestQueued = Math.min(earliestQueued, stampQueued);
+				latestEmitted = Math.max(latestEmitted, stampEmitted);
+				largestNative = Math.max(largestNative, compilation.getNativeSize());
+				largestBytecode = Math.max(largestBytecode, compilation.getBytecodeSize());
+			}
+
+			if (stampEmitted >= stampStart && stampStart != 0)
+			{
+				starts[intervalCount] = stampStart;
+				ends[intervalCount] = stampEmitted;
+				intervalCount++;
+			}
+		}
+
+		earliestQueuedTime = earliestQueued;
+		latestNMethodEmittedTime = latestEmitted;
+		largestNativeSize = largestNative;
+		largestBytecodeSize = largestBytecode;
+
+		Arrays.sort(queued);
+		Arrays.sort(started);
+
+		// sweep line over the two sorted edge lists, one point per distinct stamp
+		long[] stamps = new long[compilationCount * 2];
+		int[] depths = new int[compilationCount * 2];
+
+		int points = 0;
+		int depth = 0;
+		int max = 0;
+
+		int q = 0;
+		int s = 0;
+
+		while (q < compilationCount || s < compilationCount)
+		{
+			long stamp;
+
+			if (s == compilationCount || (q < compilationCount && queued[q] <= started[s]))
+			{
+				stamp = queued[q];
+			}
+			else
+			{
+				stamp = started[s];
+			}
+
+			while (q < compilationCount && queued[q] == stamp)
+			{
+				depth++;
+				q++;
+			}
+
+			while (s < compilationCount && started[s] == stamp)
+			{
+				depth--;
+				s++;
+			}
+
+			stamps[points] = stamp;
+			depths[points] = depth;
+			points++;
+
+			max = Math.max(max, depth);
+		}
+
+		queueStamps = Arrays.copyOf(stamps, points);
+		queueDepths = Arrays.copyOf(depths, points);
+		maxQueueDepth = max;
+
+		// a compiler thread works on one task at a time so its busy intervals
+		// do not overlap and sorting the edges independently keeps the pairing
+		busyStarts = Arrays.copyOf(starts, intervalCount);
+		busyEnds = Arrays.copyOf(ends, intervalCount);
+		cumulativeBusy = new long[intervalCount];
+
+		Arrays.sort(busyStarts);
+		Arrays.sort(busyEnds);
+
+		long total = 0;
+
+		for (int i = 0; i < intervalCount; i++)
+		{
+			total += busyEnds[i] - busyStarts[i];
+
+			cumulativeBusy[i] = total;
+		}
+	}
+
+	public int getCompilationCount()
+	{
+		return compilationCount;
+	}
+
+	public int getQueuePointCount()
+	{
+		return queueStamps.length;
+	}
+
+	public long getQueueStamp(int index)
+	{
+		return queueStamps[index];
+	}
+
+	public int getQueueDepth(int index)
+	{
+		return queueDepths[index];
+	}
+
+	public int getMaxQueueDepth()
+	{
+		return maxQueueDepth;
+	}
+
+	/*
+	 * Queue depth in effect at the given stamp
+	 */
+	public int getQueueDepthAt(long stamp)
+	{
+		int index = Arrays.binarySearch(queueStamps, stamp);
+
+		if (index < 0)
+		{
+			index = -index - 2;
+		}
+
+		return index < 0 ? 0 : queueDepths[index];
+	}
+
+	/*
+	 * Time-weighted mean queue depth over the whole series
+	 */
+	public double getMeanQueueDepth()
+	{
+		int points = queueStamps.length;
+
+		if (points < 2)
+		{
+			return 0;
+		}
+
+		long range = queueStamps[points - 1] - queueStamps[0];
+
+		if (range == 0)
+		{
+			return 0;
+		}
+
+		double weighted = 0;
+
+		for (int i = 0; i < points - 1; i++)
+		{
+			weighted += (double) queueDepths[i] * (queueStamps[i + 1] - queueStamps[i]);
+		}
+
+		return weighted / range;
+	}
+
+	public int getBusyIntervalCount()
+	{
+		return busyStarts.length;
+	}
+
+	public long getBusyStart(int index)
+	{
+		return busyStarts[index];
+	}
+
+	public long getBusyEnd(int index)
+	{
+		return busyEnds[index];
+	}
+
+	public long getTotalBusyTime()
+	{
+		return busyStarts.length == 0 ? 0 : cumulativeBusy[busyStarts.length - 1];
+	}
+
+	/*
+	 * Busy time accumulated by compilations that started before the given stamp
+	 */
+	public long getBusyTimeBefore(long stamp)
+	{
+		int index = Arrays.binarySearch(busyStarts, stamp);
+
+		if (index < 0)
+		{
+			index = -index - 1;
+		}
+		else
+		{
+			while (index > 0 && busyStarts[index - 1] == stamp)
+			{
+				index--;
+			}
+		}
+
+		return index == 0 ? 0 : cumulativeBusy[index - 1];
+	}
+
+	public long getEarliestQueuedTime()
+	{
+		return earliestQueuedTime;
+	}
+
+	public long getLatestNMethodEmittedTime()
+	{
+		return latestNMethodEmittedTime;
+	}
+
+	public int getLargestNativeSize()
+	{
+		return largestNativeSize;
+	}
+
+	public int getLargestBytecodeSize()
+	{
+		return largestBytecodeSize;
+	}
+}
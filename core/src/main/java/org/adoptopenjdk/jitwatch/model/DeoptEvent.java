@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.model;
+
+/*
+ * A runtime uncommon trap or nmethod invalidation from the tty section of a
+ * HotSpot log, as opposed to the uncommon_trap tags C2 emits in parse tags
+ * when it plants a trap at compile time.
+ */
+public class DeoptEvent
+{
+	public enum DeoptEventType
+	{
+		UNCOMMON_TRAP, MAKE_NOT_ENTRANT
+	};
+
+	private final DeoptEventType eventType;
+
+	private final long stamp;
+
+	private final String compileID;
+
+	private Compilation compilation;
+
+	private String reason;
+	private String action;
+
+	// innermost scope of the trap which may be a method inlined into the compilation
+	private String trapMethod;
+	private int bci = -1;
+
+	private boolean zombie;
+
+	public DeoptEvent(DeoptEventType eventType, long stamp, String compileID)
+	{
+		this.eventType = eventType;
+		this.stamp = stamp;
+		this.compileID = compileID;
+	}
+
+	public DeoptEventType getEventType()
+	{
+		return eventType;
+	}
+
+	public long getStamp()
+	{
+		return stamp;
+	}
+
+	public String getCompileID()
+	{
+		return compileID;
+	}
+
+	public Compilation getCompilation()
+	{
+		return compilation;
+	}
+
+	public void setCompilation(Compilation compilation)
+	{
+		this.compilation = compilation;
+	}
+
+	public IMetaMember getMember()
+	{
+		return compilation == null ? null : compilation.getMember();
+	}
+
+	public String getReason()
+	{
+		return reason;
+	}
+
+	public void setReason(String reason)
+	{
+		this.reason = reason;
+	}
+
+	public String getAction()
+	{
+		return action;
+	}
+
+	public void setAction(String action)
+	{
+		this.action = action;
+	}
+
+	public String getTrapMethod()
+	{
+		return trapMethod;
+	}
+
+	public void setTrapMethod(String trapMethod)
+	{
+		this.trapMethod = trapMethod;
+	}
+
+	public int getBCI()
+	{
+		return bci;
+	}
+
+	public void setBCI(int bci)
+	{
+		this.bci = bci;
+	}
+
+	public boolean isZombie()
+	{
+		return zombie;
+	}
+
+	public void setZombie(boolean zombie)
+	{
+		this.zombie = zombie;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append(eventType).append(" compile_id=").append(compileID).append(" stamp=").append(stamp);
+
+		if (reason != null)
+		{
+			builder.append(" reason=").append(reason);
+		}
+
+		if (action != null)
+		{
+			builder.append(" action=").append(action);
+		}
+
+		if (bci != -1)
+		{
+			builder.append(" bci=").append(bci);
+		}
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.model;
+
+import java.util.Arrays;
+
+import org.adoptopenjdk.jitwatch.model.JITEventLog.EventCursor;
+
+/*
+ * Sorted index of JIT event timestamps that is updated incrementally from the
+ * model. The cumulative event count is monotonic in time so the min/max of any
+ * time bucket is just the count at either edge of the bucket, which lets the
+ * timeline be rendered per pixel column in O(columns * log(events)) regardless
+ * of how many events were parsed.
+ */
+public class EventTimelineIndex
+{
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private long[] stamps = new long[INITIAL_CAPACITY];
+
+	private int size = 0;
+
+	private JITEventLog indexedLog;
+
+	public void clear()
+	{
+		stamps = new long[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/*
+	 * Index any events added to the model since the last update. Returns true
+	 * if the index changed.
+	 */
+	public boolean update(IReadOnlyJITDataModel model)
+	{
+		JITEventLog eventLog = model.getEventLog();
+
+		boolean reset = false;
+
+		if (eventLog != indexedLog)
+		{
+			// model was reset
+			clear();
+			indexedLog = eventLog;
+			reset = true;
+		}
+
+		EventCursor cursor = eventLog.cursor(size);
+
+		int newCount = cursor.remaining();
+
+		long[] newStamps = new long[newCount];
+
+		for (int i = 0; i < newCount && cursor.next(); i++)
+		{
+			newStamps[i] = cursor.getStamp();
+		}
+
+		addStamps(newStamps);
+
+		return reset || newCount > 0;
+	}
+
+	public void addStamps(long[] newStamps)
+	{
+		int newCount = newStamps.length;
+
+		if (newCount == 0)
+		{
+			return;
+		}
+
+		Arrays.sort(newStamps);
+
+		if (size == 0 || newStamps[0] >= stamps[size - 1])
+		{
+			// common case: events arrive in timestamp order
+			ensureCapacity(size + newCount);
+			System.arraycopy(newStamps, 0, stamps, size, newCount);
+			size += newCount;
+		}
+		else
+		{
+			long[] merged = new long[Math.max(INITIAL_CAPACITY, (size + newCount) * 3 / 2)];
+
+			int i = 0;
+			int j = 0;
+			int k = 0;
+
+			while (i < size && j < newCount)
+			{
+				merged[k++] = (stamps[i] <= newStamps[j]) ? stamps[i++] : newStamps[j++];
+			}
+
+			while (i < size)
+			{
+				merged[k++] = stamps[i++];
+			}
+
+			while (j < newCount)
+			{
+				merged[k++] = newStamps[j++];
+			}
+
+			stamps = merged;
+			size = k;
+		}
+	}
+
+	private void ensureCapacity(int required)
+	{
+		if (required > stamps.length)
+		{
+			stamps = Arrays.copyOf(stamps, Math.max(required, stamps.length * 2));
+		}
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	public long getFirstStamp()
+	{
+		return size == 0 ? 0 : stamps[0];
+	}
+
+	public long getLastStamp()
+	{
+		return size == 0 ? 0 : stamps[size - 1];
+	}
+
+	/*
+	 * Number of events with a timestamp strictly before the given stamp
+	 */
+	public int countBefore(long stamp)
+	{
+		int low = 0;
+		int high = size;
+
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+
+			if (stamps[mid] < stamp)
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	/*
+	 * Number of events with a timestamp at or before the given stamp
+	 */
+	public int countAtOrBefore(long stamp)
+	{
+		return stamp == Long.MAX_VALUE ? size : countBefore(stamp + 1);
+	}
+
+	/*
+	 * Divide the time window [from, to] into equal width columns and fill in
+	 * the minimum and maximum cumulative event count seen in each column.
+	 */
+	public void getColumnRanges(long from, long to, int columns, int[] minCounts, int[] maxCounts)
+	{
+		if (columns <= 0)
+		{
+			return;
+		}
+
+		double range = to - from;
+
+		int previousEdgeCount = countBefore(from);
+
+		for (int col = 0; col < columns; col++)
+		{
+			int edgeCount;
+
+			if (col == columns - 1)
+			{
+				edgeCount = countAtOrBefore(to);
+			}
+			else
+			{
+				long columnEnd = from + (long) (range * (col + 1) / columns);
+
+				edgeCount = countBefore(columnEnd);
+			}
+
+			minCounts[col] = previousEdgeCount;
+			maxCounts[col] = Math.max(previousEdgeCount, edgeCount);
+
+			previousEdgeCount = edgeCount;
+		}
+	}
+}
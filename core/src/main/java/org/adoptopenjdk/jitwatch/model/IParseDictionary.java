@@ -22,8 +22,14 @@ public interface IParseDictionary
 	Tag getKlass(String id);
 
 	Tag getMethod(String id);
+
+	Tag getType(int id);
+
+	Tag getKlass(int id);
+
+	Tag getMethod(int id);
 	
 	String getParseMethod();
 	
 	BCIOpcodeMap getBCIOpcodeMap(String methodID);
-}
\ No newline at end of file
+}
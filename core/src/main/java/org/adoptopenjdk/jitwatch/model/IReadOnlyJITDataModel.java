@@ -7,6 +7,8 @@ package org.adoptopenjdk.jitwatch.model;
 
 import java.util.List;
 
+import org.adoptopenjdk.jitwatch.chain.CompileChainCache;
+
 public interface IReadOnlyJITDataModel
 {
     PackageManager getPackageManager();
@@ -15,7 +17,13 @@ public interface IReadOnlyJITDataModel
 
     List<JITEvent> getEventListCopy();
 
+    JITEventLog getEventLog();
+
+    int getEventCount();
+
     List<CodeCacheEvent> getCodeCacheEvents();
+
+    List<DeoptEvent> getDeoptEvents();
     
 	List<CompilerThread> getCompilerThreads();
     
@@ -32,4 +40,6 @@ public interface IReadOnlyJITDataModel
 	MetaClass buildAndGetMetaClass(Class<?> clazz);
 	
 	long getBaseTimestamp();
+
+	CompileChainCache getCompileChainCache();
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.model;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/*
+ * Int keyed lookup for the small, nearly contiguous IDs found in a
+ * LogCompilation task (type, klass and method IDs). Values sit in a dense
+ * array offset by the lowest key seen. A key that would stretch the array
+ * far beyond the number of entries goes to a small overflow map instead.
+ */
+public class IntKeyedTable<V>
+{
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int MIN_SPARSE_SPAN = 1024;
+
+	private Object[] values;
+	private int base;
+	private int size;
+
+	private Map<Integer, V> overflow;
+
+	public void put(int key, V value)
+	{
+		if (values == null)
+		{
+			values = new Object[INITIAL_CAPACITY];
+			base = key;
+		}
+
+		int index = key - base;
+
+		if (index < 0 || index >= values.length)
+		{
+			if (!grow(key))
+			{
+				if (overflow == null)
+				{
+					overflow = new HashMap<>();
+				}
+
+				if (overflow.put(key, value) == null)
+				{
+					size++;
+				}
+
+				return;
+			}
+
+			index = key - base;
+		}
+
+		if (values[index] == null)
+		{
+			size++;
+		}
+
+		values[index] = value;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(int key)
+	{
+		V result = null;
+
+		if (values != null)
+		{
+			int index = key - base;
+
+			if (index >= 0 && index < values.length)
+			{
+				result = (V) values[index];
+			}
+			else if (overflow != null)
+			{
+				result = overflow.get(key);
+			}
+		}
+
+		return result;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/*
+	 * Calls the visitor for each entry in ascending key order of the dense
+	 * part followed by any overflow entries
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(EntryVisitor<V> visitor)
+	{
+		if (values != null)
+		{
+			for (int i = 0; i < values.length; i++)
+			{
+				if (values[i] != null)
+				{
+					visitor.visit(base + i, (V) values[i]);
+				}
+			}
+		}
+
+		if (overflow != null)
+		{
+			for (Map.Entry<Integer, V> entry : overflow.entrySet())
+			{
+				visitor.visit(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	public interface EntryVisitor<V>
+	{
+		void visit(int key, V value);
+	}
+
+	private boolean grow(int key)
+	{
+		long newLow = Math.min(base, key);
+		long newHigh = Math.max((long) base + values.length - 1, key);
+
+		long span = newHigh - newLow + 1;
+
+		if (span > Math.max(MIN_SPARSE_SPAN, 8L * (size + 1)))
+		{
+			return false;
+		}
+
+		int capacity = values.length;
+
+		while (capacity < span)
+		{
+			capacity *= 2;
+		}
+
+		Object[] grown = new Object[capacity];
+
+		int shift = base - (int) newLow;
+
+		System.arraycopy(values, 0, grown, shift, values.length);
+
+		values = grown;
+		base = (int) newLow;
+
+		if (overflow != null)
+		{
+			Iterator<Map.Entry<Integer, V>> iterator = overflow.entrySet().iterator();
+
+			while (iterator.hasNext())
+			{
+				Map.Entry<Integer, V> entry = iterator.next();
+
+				int index = entry.getKey() - base;
+
+				if (index >= 0 && index < values.length)
+				{
+					values[index] = entry.getValue();
+					iterator.remove();
+				}
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "IntKeyedTable [base=" + base + ", size=" + size + ", capacity=" + (values == null ? 0 : values.length)
+				+ ", overflow=" + (overflow == null ? 0 : overflow.size()) + "]";
+	}
+}
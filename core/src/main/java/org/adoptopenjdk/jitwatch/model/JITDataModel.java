@@ -30,6 +30,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.adoptopenjdk.jitwatch.chain.CompileChainCache;
 import org.adoptopenjdk.jitwatch.model.bytecode.SourceMapper;
 import org.adoptopenjdk.jitwatch.util.ParseUtil;
 import org.slf4j.Logger;
@@ -42,12 +43,14 @@ public class JITDataModel implements IReadOnlyJITDataModel
     private PackageManager packageManager;
     private JITStats stats;
 
-    // Not using CopyOnWriteArrayList as writes will vastly out number reads
-    private List<JITEvent> jitEvents = new ArrayList<>();
+    // append-only, replaced on reset so existing readers keep a consistent view
+    private volatile JITEventLog eventLog = new JITEventLog();
 
     // written during parse, make copy for graphing as needs sort
     private List<CodeCacheEvent> codeCacheTagList = new ArrayList<>();
 
+    private List<DeoptEvent> deoptEvents = new ArrayList<>();
+
     private Map<String, CompilerThread> compilerThreads = new HashMap<>();
 
     private Tag endOfLog;
@@ -56,6 +59,8 @@ public class JITDataModel implements IReadOnlyJITDataModel
 
     private long baseTimestamp = 0;
 
+    private final CompileChainCache compileChainCache = new CompileChainCache(this);
+
     public JITDataModel()
     {
         packageManager = new PackageManager();
@@ -108,7 +113,7 @@ public class JITDataModel implements IReadOnlyJITDataModel
 
         stats.reset();
 
-        jitEvents.clear();
+        eventLog = new JITEventLog();
 
         for (CompilerThread thread : compilerThreads.values())
         {
@@ -118,6 +123,19 @@ public class JITDataModel implements IReadOnlyJITDataModel
         compilerThreads.clear();
 
         codeCacheTagList.clear();
+
+        synchronized (deoptEvents)
+        {
+            deoptEvents.clear();
+        }
+
+        compileChainCache.clear();
+    }
+
+    @Override
+    public CompileChainCache getCompileChainCache()
+    {
+        return compileChainCache;
     }
 
     @Override
@@ -175,22 +193,33 @@ public class JITDataModel implements IReadOnlyJITDataModel
         return stats;
     }
 
-    // ugly but better than using COWAL with so many writes
     public void addEvent(JITEvent event)
     {
-        synchronized (jitEvents)
-        {
-            jitEvents.add(event);
-        }
+        eventLog.append(event);
+    }
+
+    public void addEvent(long stamp, EventType eventType, IMetaMember member)
+    {
+        eventLog.append(stamp, eventType, member);
+    }
+
+    @Override
+    public JITEventLog getEventLog()
+    {
+        return eventLog;
     }
 
+    // prefer getEventLog().cursor() which does not materialise the events
     @Override
     public List<JITEvent> getEventListCopy()
     {
-        synchronized (jitEvents)
-        {
-            return new ArrayList<>(jitEvents);
-        }
+        return eventLog.toList();
+    }
+
+    @Override
+    public int getEventCount()
+    {
+        return eventLog.size();
     }
 
     public void addNativeBytes(long count)
@@ -199,6 +228,11 @@ public class JITDataModel implements IReadOnlyJITDataModel
     }
 
     public void updateStats(IMetaMember member, Map<String, String> attrs)
+    {
+        updateStats(member, attrs.get(ATTR_COMPILER), attrs.get(ATTR_COMPILE_KIND), attrs.get(ATTR_COMPILE_ID));
+    }
+
+    public void updateStats(IMetaMember member, String compiler, String compileKind, String compileID)
     {
         String fullSignature = member.toString();
 
@@ -223,8 +257,6 @@ public class JITDataModel implements IReadOnlyJITDataModel
             }
         }
 
-        String compiler = attrs.get(ATTR_COMPILER);
-
         if (compiler != null)
         {
             if (C1.equalsIgnoreCase(compiler))
@@ -237,8 +269,6 @@ public class JITDataModel implements IReadOnlyJITDataModel
             }
         }
 
-        String compileKind = attrs.get(ATTR_COMPILE_KIND);
-
         boolean isC2N = false;
 
         if (compileKind != null)
@@ -254,8 +284,6 @@ public class JITDataModel implements IReadOnlyJITDataModel
             }
         }
 
-        String compileID = attrs.get(ATTR_COMPILE_ID);
-
         Compilation compilation = member.getCompilationByCompileID(compileID);
 
         if (compilation != null)
@@ -407,6 +435,23 @@ public class JITDataModel implements IReadOnlyJITDataModel
         }
     }
 
+    public void addDeoptEvent(DeoptEvent event)
+    {
+        synchronized (deoptEvents)
+        {
+            deoptEvents.add(event);
+        }
+    }
+
+    @Override
+    public List<DeoptEvent> getDeoptEvents()
+    {
+        synchronized (deoptEvents)
+        {
+            return new ArrayList<>(deoptEvents);
+        }
+    }
+
     public void setEndOfLog(Tag tag)
     {
         this.endOfLog = tag;
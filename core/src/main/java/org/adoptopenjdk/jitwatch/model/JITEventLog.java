@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Append-only store of JIT events held in fixed size chunks of primitive
+ * columns (8 byte stamp, 1 byte event type, 4 byte member id).
+ *
+ * Chunks are never moved and event slots are never modified once published
+ * so readers take a snapshot cursor without locking or copying. Appends are
+ * serialised on the log and publish by writing the volatile size last. The
+ * chunk directory and member table only ever grow so any version of them
+ * read after the size covers every event below that size.
+ */
+public class JITEventLog
+{
+	static final int CHUNK_BITS = 12;
+	static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private static final int NO_MEMBER = -1;
+
+	private static final EventType[] EVENT_TYPES = EventType.values();
+
+	private static final class Chunk
+	{
+		final long[] stamps = new long[CHUNK_SIZE];
+		final byte[] eventTypes = new byte[CHUNK_SIZE];
+		final int[] memberIds = new int[CHUNK_SIZE];
+	}
+
+	private volatile Chunk[] chunks = new Chunk[16];
+	private volatile IMetaMember[] members = new IMetaMember[256];
+	private volatile int size = 0;
+
+	// writer side only
+	private int memberCount = 0;
+	private final Map<IMetaMember, Integer> memberIdMap = new IdentityHashMap<>();
+
+	public void append(JITEvent event)
+	{
+		append(event.getStamp(), event.getEventType(), event.getEventMember());
+	}
+
+	public synchronized void append(long stamp, EventType eventType, IMetaMember member)
+	{
+		int index = size;
+
+		int chunkIndex = index >>> CHUNK_BITS;
+		int offset = index & CHUNK_MASK;
+
+		Chunk[] currentChunks = chunks;
+
+		if (chunkIndex == currentChunks.length)
+		{
+			currentChunks = Arrays.copyOf(currentChunks, currentChunks.length * 2);
+		}
+
+		Chunk chunk = currentChunks[chunkIndex];
+
+		if (chunk == null)
+		{
+			chunk = new Chunk();
+			currentChunks[chunkIndex] = chunk;
+			chunks = currentChunks;
+		}
+
+		chunk.stamps[offset] = stamp;
+		chunk.eventTypes[offset] = (byte) eventType.ordinal();
+		chunk.memberIds[offset] = getMemberId(member);
+
+		// publish
+		size = index + 1;
+	}
+
+	private int getMemberId(IMetaMember member)
+	{
+		if (member == null)
+		{
+			return NO_MEMBER;
+		}
+
+		Integer id = memberIdMap.get(member);
+
+		if (id == null)
+		{
+			IMetaMember[] currentMembers = members;
+
+			if (memberCount == currentMembers.length)
+			{
+				currentMembers = Arrays.copyOf(currentMembers, currentMembers.length * 2);
+			}
+
+			id = memberCount;
+			currentMembers[memberCount++] = member;
+			members = currentMembers;
+			memberIdMap.put(member, id);
+		}
+
+		return id;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	public EventCursor cursor()
+	{
+		return cursor(0);
+	}
+
+	public EventCursor cursor(int fromIndex)
+	{
+		// read the size before the arrays it guards
+		int snapshotSize = size;
+
+		return new EventCursor(chunks, members, snapshotSize, fromIndex);
+	}
+
+	public List<JITEvent> toList()
+	{
+		EventCursor cursor = cursor();
+
+		List<JITEvent> result = new ArrayList<>(cursor.remaining());
+
+		while (cursor.next())
+		{
+			result.add(cursor.toEvent());
+		}
+
+		return result;
+	}
+
+	/*
+	 * Forward-only view over the events that were published when the cursor
+	 * was created. Later appends are not visible to an existing cursor.
+	 */
+	public static final class EventCursor
+	{
+		private final Chunk[] chunks;
+		private final IMetaMember[] members;
+		private final int size;
+
+		private int index;
+
+		private Chunk chunk;
+		private int offset;
+
+		private EventCursor(Chunk[] chunks, IMetaMember[] members, int size, int fromIndex)
+		{
+			this.chunks = chunks;
+			this.members = members;
+			this.size = size;
+			this.index = Math.max(0, Math.min(fromIndex, size)) - 1;
+		}
+
+		public boolean next()
+		{
+			if (index + 1 >= size)
+			{
+				return false;
+			}
+
+			index++;
+
+			chunk = chunks[index >>> CHUNK_BITS];
+			offset = index & CHUNK_MASK;
+
+			return true;
+		}
+
+		public int remaining()
+		{
+			return size - index - 1;
+		}
+
+		public int getIndex()
+		{
+			return index;
+		}
+
+		public int getSnapshotSize()
+		{
+			return size;
+		}
+
+		public long getStamp()
+		{
+			return chunk.stamps[offset];
+		}
+
+		public EventType getEventType()
+		{
+			return EVENT_TYPES[chunk.eventTypes[offset]];
+		}
+
+		public int getMemberId()
+		{
+			return chunk.memberIds[offset];
+		}
+
+		public IMetaMember getEventMember()
+		{
+			int memberId = chunk.memberIds[offset];
+
+			return memberId == NO_MEMBER ? null : members[memberId];
+		}
+
+		public JITEvent toEvent()
+		{
+			return new JITEvent(getStamp(), getEventType(), getEventMember());
+		}
+	}
+}
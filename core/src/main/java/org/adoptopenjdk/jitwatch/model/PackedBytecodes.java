@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.model;
+
+import java.util.Arrays;
+
+import org.adoptopenjdk.jitwatch.model.bytecode.Opcode;
+
+/*
+ * The <bc bci='..' code='..'/> entries of a tag in compact parse tree mode.
+ *
+ * Each entry packs the number of child tags that preceded the <bc> (its
+ * position in the child list), the BCI and the opcode into one long so the
+ * walkers can replay them in document order between the remaining children.
+ */
+public class PackedBytecodes
+{
+	private static final int INITIAL_CAPACITY = 8;
+
+	private long[] entries = new long[INITIAL_CAPACITY];
+	private int size;
+
+	public void add(int childIndex, int bci, int code)
+	{
+		if (size == entries.length)
+		{
+			entries = Arrays.copyOf(entries, size * 2);
+		}
+
+		entries[size++] = ((long) childIndex << 32) | ((long) (bci & 0xFFFFFF) << 8) | (code & 0xFF);
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public int getChildIndex(int index)
+	{
+		return (int) (entries[index] >>> 32);
+	}
+
+	public int getBCI(int index)
+	{
+		return (int) ((entries[index] >>> 8) & 0xFFFFFF);
+	}
+
+	public int getCode(int index)
+	{
+		return (int) (entries[index] & 0xFF);
+	}
+
+	public static Cursor cursor(PackedBytecodes bytecodes)
+	{
+		return new Cursor(bytecodes);
+	}
+
+	/*
+	 * Walks the packed entries alongside the child list. Before handling
+	 * child i call advanceTo(i); if it returns true the <bc> that would have
+	 * preceded that child is available from getBCI() and getCode().
+	 */
+	public static final class Cursor
+	{
+		private final PackedBytecodes bytecodes;
+
+		private int next = 0;
+		private int current = -1;
+
+		private Cursor(PackedBytecodes bytecodes)
+		{
+			this.bytecodes = bytecodes;
+		}
+
+		public boolean advanceTo(int childIndex)
+		{
+			boolean advanced = false;
+
+			if (bytecodes != null)
+			{
+				while (next < bytecodes.size && bytecodes.getChildIndex(next) <= childIndex)
+				{
+					current = next++;
+					advanced = true;
+				}
+			}
+
+			return advanced;
+		}
+
+		public int getBCI()
+		{
+			return bytecodes.getBCI(current);
+		}
+
+		public int getCode()
+		{
+			return bytecodes.getCode(current);
+		}
+
+		public Opcode getOpcode()
+		{
+			return Opcode.getByCode(getCode());
+		}
+	}
+}
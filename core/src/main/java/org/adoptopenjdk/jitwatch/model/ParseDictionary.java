@@ -5,22 +5,31 @@
  */
 package org.adoptopenjdk.jitwatch.model;
 
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
 import java.util.HashMap;
 import java.util.Map;
 
 import org.adoptopenjdk.jitwatch.model.bytecode.Opcode;
 
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
-
+/*
+ * LogCompilation IDs are small consecutive integers within a task so the
+ * dictionary is keyed by int. IDs that are not integers (never seen from
+ * HotSpot) are kept in a string keyed map so nothing is lost.
+ */
 public class ParseDictionary implements IParseDictionary
 {
-	private Map<String, Tag> typeMap = new HashMap<>();
-	private Map<String, Tag> klassMap = new HashMap<>();
-	private Map<String, Tag> methodMap = new HashMap<>();
+	private static final int NOT_AN_ID = Integer.MIN_VALUE;
 
-	private String parseMethod;
+	private IntKeyedTable<Tag> typeTable = new IntKeyedTable<>();
+	private IntKeyedTable<Tag> klassTable = new IntKeyedTable<>();
+	private IntKeyedTable<Tag> methodTable = new IntKeyedTable<>();
+
+	private IntKeyedTable<BCIOpcodeMap> methodBCIOpcodeTable = new IntKeyedTable<>();
 
-	private Map<String, BCIOpcodeMap> methodBCIOpcodeMap = new HashMap<>();
+	private Map<String, Object> nonNumericIDs;
+
+	private String parseMethod;
 
 	public ParseDictionary(String parseMethod)
 	{
@@ -41,7 +50,7 @@ public class ParseDictionary implements IParseDictionary
 		if (bciOpcodeMap == null)
 		{
 			bciOpcodeMap = new BCIOpcodeMap();
-			methodBCIOpcodeMap.put(methodID, bciOpcodeMap);
+			put(methodBCIOpcodeTable, "bci:", methodID, bciOpcodeMap);
 		}
 
 		bciOpcodeMap.put(bci, opcode);
@@ -50,71 +59,167 @@ public class ParseDictionary implements IParseDictionary
 	@Override
 	public BCIOpcodeMap getBCIOpcodeMap(String methodID)
 	{
-		return methodBCIOpcodeMap.get(methodID);
+		return get(methodBCIOpcodeTable, "bci:", methodID);
 	}
 
 	@Override
 	public Tag getType(String id)
 	{
-		return typeMap.get(id);
+		return get(typeTable, "type:", id);
 	}
 
 	@Override
 	public Tag getKlass(String id)
 	{
-		return klassMap.get(id);
+		return get(klassTable, "klass:", id);
 	}
 
 	@Override
 	public Tag getMethod(String id)
 	{
-		return methodMap.get(id);
+		return get(methodTable, "method:", id);
+	}
+
+	@Override
+	public Tag getType(int id)
+	{
+		return typeTable.get(id);
+	}
+
+	@Override
+	public Tag getKlass(int id)
+	{
+		return klassTable.get(id);
+	}
+
+	@Override
+	public Tag getMethod(int id)
+	{
+		return methodTable.get(id);
 	}
 
 	@Override
 	public void putType(String id, Tag type)
 	{
-		typeMap.put(id, type);
+		put(typeTable, "type:", id, type);
 	}
 
 	@Override
 	public void putKlass(String id, Tag klass)
 	{
-		klassMap.put(id, klass);
+		put(klassTable, "klass:", id, klass);
 	}
 
 	@Override
 	public void putMethod(String id, Tag method)
 	{
-		methodMap.put(id, method);
+		put(methodTable, "method:", id, method);
 	}
 
-	@Override
-	public String toString()
+	private <V> void put(IntKeyedTable<V> table, String kind, String id, V value)
 	{
-		StringBuilder builder = new StringBuilder();
+		int intID = parseID(id);
 
-		builder.append("Types:\n");
+		if (intID != NOT_AN_ID)
+		{
+			table.put(intID, value);
+		}
+		else
+		{
+			if (nonNumericIDs == null)
+			{
+				nonNumericIDs = new HashMap<>();
+			}
+
+			nonNumericIDs.put(kind + id, value);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <V> V get(IntKeyedTable<V> table, String kind, String id)
+	{
+		V result = null;
+
+		int intID = parseID(id);
 
-		for (Map.Entry<String, Tag> entry : typeMap.entrySet())
+		if (intID != NOT_AN_ID)
+		{
+			result = table.get(intID);
+		}
+		else if (nonNumericIDs != null)
 		{
-			builder.append(entry.getKey()).append("\t=>\t").append(entry.getValue().toString().trim()).append(S_NEWLINE);
+			result = (V) nonNumericIDs.get(kind + id);
 		}
 
-		builder.append("Klasses:\n");
+		return result;
+	}
+
+	// no exception on the lookup path for a missing or non-numeric ID
+	private static int parseID(String id)
+	{
+		if (id == null)
+		{
+			return NOT_AN_ID;
+		}
+
+		int length = id.length();
+
+		if (length == 0 || length > 9)
+		{
+			return NOT_AN_ID;
+		}
 
-		for (Map.Entry<String, Tag> entry : klassMap.entrySet())
+		int result = 0;
+
+		for (int i = 0; i < length; i++)
 		{
-			builder.append(entry.getKey()).append("\t=>\t").append(entry.getValue().toString().trim()).append(S_NEWLINE);
+			char c = id.charAt(i);
+
+			if (c < '0' || c > '9')
+			{
+				return NOT_AN_ID;
+			}
+
+			result = result * 10 + (c - '0');
 		}
 
+		return result;
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+
+		IntKeyedTable.EntryVisitor<Tag> appender = new IntKeyedTable.EntryVisitor<Tag>()
+		{
+			@Override
+			public void visit(int key, Tag value)
+			{
+				builder.append(key).append("\t=>\t").append(value.toString().trim()).append(S_NEWLINE);
+			}
+		};
+
+		builder.append("Types:\n");
+
+		typeTable.forEach(appender);
+
+		builder.append("Klasses:\n");
+
+		klassTable.forEach(appender);
+
 		builder.append("Methods:\n");
 
-		for (Map.Entry<String, Tag> entry : methodMap.entrySet())
+		methodTable.forEach(appender);
+
+		if (nonNumericIDs != null)
 		{
-			builder.append(entry.getKey()).append("\t=>\t").append(entry.getValue().toString().trim()).append(S_NEWLINE);
+			for (Map.Entry<String, Object> entry : nonNumericIDs.entrySet())
+			{
+				builder.append(entry.getKey()).append("\t=>\t").append(entry.getValue().toString().trim()).append(S_NEWLINE);
+			}
 		}
 
 		return builder.toString().trim();
 	}
-}
\ No newline at end of file
+}
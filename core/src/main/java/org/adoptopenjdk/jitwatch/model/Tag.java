@@ -10,33 +10,137 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_DOUBLE_QUOTE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_EQUALS;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_NEWLINE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_ANGLE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_QUOTE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SLASH;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.adoptopenjdk.jitwatch.util.StringUtil;
-
 public class Tag
 {
+	private static final String[] NO_ATTRIBUTES = new String[0];
+
 	private String name;
-	private String attributeString;
+
+	// decoded once from the attribute string, names[i] has value values[i]
+	private String[] attributeNames;
+	private String[] attributeValues;
 	private List<Tag> children = new ArrayList<>();
 	private Tag parent = null;
 	private boolean selfClosing = false;
 	private boolean isFragment = false;
 	private String textContent = null;
+
+	// <bc> children folded into this tag in compact parse tree mode
+	private PackedBytecodes packedBytecodes = null;
 	
 	private static final String INDENT = "  ";
 
 	public Tag(String name, String attributeString, boolean selfClosing)
 	{
 		this.name = name;
-		this.attributeString = attributeString;
 		this.selfClosing = selfClosing;
+
+		decodeAttributes(attributeString);
+	}
+
+	/*
+	 * For parsers that already hold the attribute values, avoids formatting
+	 * and decoding an attribute string. The arrays are used as given.
+	 */
+	public Tag(String name, String[] attributeNames, String[] attributeValues, boolean selfClosing)
+	{
+		if (attributeNames.length != attributeValues.length)
+		{
+			throw new IllegalArgumentException("Attribute name and value counts differ for tag " + name);
+		}
+
+		this.name = name;
+		this.selfClosing = selfClosing;
+		this.attributeNames = attributeNames;
+		this.attributeValues = attributeValues;
+	}
+
+	/*
+	 * Single pass over name='value' pairs. A space outside a value starts a
+	 * new name and values are taken verbatim between the quotes. Same rules
+	 * as StringUtil.attributeStringToMap()
+	 */
+	private void decodeAttributes(String attributeString)
+	{
+		if (attributeString == null)
+		{
+			attributeNames = NO_ATTRIBUTES;
+			attributeValues = NO_ATTRIBUTES;
+			return;
+		}
+
+		int length = attributeString.length();
+
+		int quotes = 0;
+
+		for (int i = 0; i < length; i++)
+		{
+			if (attributeString.charAt(i) == C_QUOTE)
+			{
+				quotes++;
+			}
+		}
+
+		int capacity = quotes / 2;
+
+		if (capacity == 0)
+		{
+			attributeNames = NO_ATTRIBUTES;
+			attributeValues = NO_ATTRIBUTES;
+			return;
+		}
+
+		attributeNames = new String[capacity];
+		attributeValues = new String[capacity];
+
+		int count = 0;
+
+		int nameStart = 0;
+		int nameEnd = 0;
+		int valueStart = -1;
+
+		for (int i = 0; i < length; i++)
+		{
+			char c = attributeString.charAt(i);
+
+			if (valueStart != -1)
+			{
+				if (c == C_QUOTE)
+				{
+					attributeNames[count] = attributeString.substring(nameStart, nameEnd);
+					attributeValues[count] = attributeString.substring(valueStart, i);
+					count++;
+
+					valueStart = -1;
+					nameStart = i + 1;
+					nameEnd = nameStart;
+				}
+			}
+			else if (c == C_QUOTE)
+			{
+				valueStart = i + 1;
+			}
+			else if (c == C_SPACE)
+			{
+				nameStart = i + 1;
+				nameEnd = nameStart;
+			}
+			else if (c != C_EQUALS)
+			{
+				nameEnd = i + 1;
+			}
+		}
 	}
 
 	public void addTextContent(String text)
@@ -62,6 +166,30 @@ public class Tag
 		children.add(child);
 	}
 
+	/*
+	 * Compact alternative to addChild(new Tag("bc", ...)) that records the
+	 * position among the children so walkers can replay it in order
+	 */
+	public void addPackedBytecode(int bci, int code)
+	{
+		if (packedBytecodes == null)
+		{
+			packedBytecodes = new PackedBytecodes();
+		}
+
+		packedBytecodes.add(children.size(), bci, code);
+	}
+
+	public PackedBytecodes getPackedBytecodes()
+	{
+		return packedBytecodes;
+	}
+
+	public PackedBytecodes.Cursor getPackedBytecodeCursor()
+	{
+		return PackedBytecodes.cursor(packedBytecodes);
+	}
+
 	public List<Tag> getChildren()
 	{
 		return Collections.unmodifiableList(children);
@@ -117,9 +245,7 @@ public class Tag
 		{
 			if (child.getName().equals(tagName))
 			{
-				Map<String, String> attributes = child.getAttributes();
-				
-				if (attrValue != null && attrValue.equals(attributes.get(attrName)))
+				if (attrValue != null && attrValue.equals(child.getAttribute(attrName)))
 				{
 					result.add(child);
 				}
@@ -144,9 +270,97 @@ public class Tag
 		return name;
 	}
 
+	/*
+	 * Returns a new map on each call, prefer getAttribute() and the primitive
+	 * accessors for lookups
+	 */
 	public Map<String, String> getAttributes()
 	{
-		return StringUtil.attributeStringToMap(attributeString);
+		Map<String, String> result = new HashMap<>();
+
+		for (int i = 0; i < attributeNames.length; i++)
+		{
+			result.put(attributeNames[i], attributeValues[i]);
+		}
+
+		return result;
+	}
+
+	public int getAttributeCount()
+	{
+		return attributeNames.length;
+	}
+
+	public boolean hasAttribute(String attrName)
+	{
+		return indexOfAttribute(attrName) != -1;
+	}
+
+	public String getAttribute(String attrName)
+	{
+		int index = indexOfAttribute(attrName);
+
+		return index == -1 ? null : attributeValues[index];
+	}
+
+	// throws NumberFormatException if missing or not an int
+	public int getIntAttribute(String attrName)
+	{
+		return Integer.parseInt(getAttribute(attrName));
+	}
+
+	public int getIntAttribute(String attrName, int defaultValue)
+	{
+		String value = getAttribute(attrName);
+
+		int result = defaultValue;
+
+		if (value != null)
+		{
+			try
+			{
+				result = Integer.parseInt(value);
+			}
+			catch (NumberFormatException nfe)
+			{
+			}
+		}
+
+		return result;
+	}
+
+	public long getLongAttribute(String attrName, long defaultValue)
+	{
+		String value = getAttribute(attrName);
+
+		long result = defaultValue;
+
+		if (value != null)
+		{
+			try
+			{
+				result = Long.parseLong(value);
+			}
+			catch (NumberFormatException nfe)
+			{
+			}
+		}
+
+		return result;
+	}
+
+	private int indexOfAttribute(String attrName)
+	{
+		// last wins for repeated names as with the map
+		for (int i = attributeNames.length - 1; i >= 0; i--)
+		{
+			if (attributeNames[i].equals(attrName))
+			{
+				return i;
+			}
+		}
+
+		return -1;
 	}
 
 	private int getDepth(Tag tag)
@@ -250,7 +464,7 @@ public class Tag
 		{
 			return false;
 		}
-        if (attributeString != null ? !attributeString.equals(tag.attributeString) : tag.attributeString != null)
+        if (!Arrays.equals(attributeNames, tag.attributeNames) || !Arrays.equals(attributeValues, tag.attributeValues))
 		{
 			return false;
 		}
@@ -277,7 +491,8 @@ public class Tag
     @Override
     public int hashCode() {
         int result = name != null ? name.hashCode() : 0;
-        result = 31 * result + (attributeString != null ? attributeString.hashCode() : 0);
+        result = 31 * result + Arrays.hashCode(attributeNames);
+        result = 31 * result + Arrays.hashCode(attributeValues);
         result = 31 * result + (parent != null ? parent.hashCode() : 0);
         result = 31 * result + (selfClosing ? 1 : 0);
         result = 31 * result + (textContent != null ? textContent.hashCode() : 0);
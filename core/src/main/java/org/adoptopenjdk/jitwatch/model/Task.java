@@ -15,7 +15,6 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SPACE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
 
-import java.util.Map;
 
 import org.adoptopenjdk.jitwatch.core.JITWatchConstants;
 import org.adoptopenjdk.jitwatch.model.bytecode.Opcode;
@@ -33,7 +32,14 @@ public class Task extends Tag
 	{
 		super(TAG_TASK, attributeString, selfClosing);
 
-		parseDictionary = new ParseDictionary(getAttributes().get(ATTR_METHOD));
+		parseDictionary = new ParseDictionary(getAttribute(ATTR_METHOD));
+	}
+
+	public Task(String[] attributeNames, String[] attributeValues, boolean selfClosing)
+	{
+		super(TAG_TASK, attributeNames, attributeValues, selfClosing);
+
+		parseDictionary = new ParseDictionary(getAttribute(ATTR_METHOD));
 	}
 
 	public IParseDictionary getParseDictionary()
@@ -87,21 +93,17 @@ public class Task extends Tag
 
 		Tag methodTag = parseDictionary.getMethod(method);
 		
-		Map<String, String> methodTagAttrs = methodTag.getAttributes();
-
-		String returnTypeID = methodTagAttrs.get(JITWatchConstants.ATTR_RETURN);
+		String returnTypeID = methodTag.getAttribute(JITWatchConstants.ATTR_RETURN);
 
-		String args = methodTagAttrs.get(JITWatchConstants.ATTR_ARGUMENTS);
+		String args = methodTag.getAttribute(JITWatchConstants.ATTR_ARGUMENTS);
 
-		String methodName = methodTagAttrs.get(JITWatchConstants.ATTR_NAME);
+		String methodName = methodTag.getAttribute(JITWatchConstants.ATTR_NAME);
 
-		String klassId = methodTagAttrs.get(JITWatchConstants.ATTR_HOLDER);
+		String klassId = methodTag.getAttribute(JITWatchConstants.ATTR_HOLDER);
 
 		Tag klassTag = parseDictionary.getKlass(klassId);
 
-		Map<String, String> klassTagAttrs = klassTag.getAttributes();
-		
-		String klassName = klassTagAttrs.get(JITWatchConstants.ATTR_NAME);
+		String klassName = klassTag.getAttribute(JITWatchConstants.ATTR_NAME);
 		klassName = klassName.replace(S_SLASH, S_DOT);
 
 		builder.append(" <!-- ");
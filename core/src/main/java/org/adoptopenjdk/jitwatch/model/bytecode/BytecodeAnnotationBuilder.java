@@ -71,6 +71,7 @@ import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
 import org.adoptopenjdk.jitwatch.model.LogParseException;
 import org.adoptopenjdk.jitwatch.model.MetaClass;
 import org.adoptopenjdk.jitwatch.model.PackageManager;
+import org.adoptopenjdk.jitwatch.model.PackedBytecodes;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.util.ParseUtil;
 import org.adoptopenjdk.jitwatch.util.TooltipUtil;
@@ -217,7 +218,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 
 	private void visitTagParse(Tag tagParse, IParseDictionary parseDictionary) throws LogParseException
 	{
-		String methodID = tagParse.getAttributes().get(ATTR_METHOD);
+		String methodID = tagParse.getAttribute(ATTR_METHOD);
 
 		if (CompilationUtil.memberMatchesMethodID(currentMember, methodID, parseDictionary))
 		{
@@ -251,13 +252,13 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 
 			if (parent != null)
 			{
-				String parseTagMethod = parseTag.getAttributes().get(ATTR_METHOD);
+				String parseTagMethod = parseTag.getAttribute(ATTR_METHOD);
 
 				List<Tag> lateInlines = parent.getNamedChildren(TAG_LATE_INLINE);
 
 				for (Tag lateInline : lateInlines)
 				{
-					String method = lateInline.getAttributes().get(ATTR_METHOD);
+					String method = lateInline.getAttribute(ATTR_METHOD);
 
 					if (method != null && method.equals(parseTagMethod))
 					{
@@ -275,7 +276,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 	{
 		List<Tag> childrenJVMS = tagEliminateAllocation.getNamedChildren(TAG_JVMS);
 
-		String typeID = tagEliminateAllocation.getAttributes().get(ATTR_TYPE);
+		String typeID = tagEliminateAllocation.getAttribute(ATTR_TYPE);
 
 		String typeOrKlassName = null;
 
@@ -287,9 +288,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 			{
 				for (Tag tagJVMS : childrenJVMS)
 				{
-					Map<String, String> tagJVMSAttributes = tagJVMS.getAttributes();
-
-					String attrBCI = tagJVMSAttributes.get(ATTR_BCI);
+					String attrBCI = tagJVMS.getAttribute(ATTR_BCI);
 
 					int bciValue = 0;
 
@@ -310,7 +309,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 						logger.error("Missing bci attribute on tag {}", tagJVMS.toString(true));
 					}
 
-					String methodID = tagJVMSAttributes.get(ATTR_METHOD);
+					String methodID = tagJVMS.getAttribute(ATTR_METHOD);
 
 					BCIOpcodeMap bciOpcodeMap = parseDictionary.getBCIOpcodeMap(methodID);
 					
@@ -374,7 +373,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 	{
 		IMetaMember member = null;
 
-		String methodID = tagJVMS.getAttributes().get(ATTR_METHOD);
+		String methodID = tagJVMS.getAttribute(ATTR_METHOD);
 		
 		if (methodID != null)
 		{
@@ -394,7 +393,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 
 	private void visitTagEliminateLock(Tag tagEliminateLock, IParseDictionary parseDictionary)
 	{
-		String kind = tagEliminateLock.getAttributes().get(ATTR_KIND);
+		String kind = tagEliminateLock.getAttribute(ATTR_KIND);
 		
 		List<Tag> childrenJVMS = tagEliminateLock.getNamedChildren(TAG_JVMS);
 
@@ -402,9 +401,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 		{
 			for (Tag tagJVMS : childrenJVMS)
 			{
-				Map<String, String> tagJVMSAttributes = tagJVMS.getAttributes();
-
-				String attrBCI = tagJVMSAttributes.get(ATTR_BCI);
+				String attrBCI = tagJVMS.getAttribute(ATTR_BCI);
 
 				int bciValue = 0;
 
@@ -425,7 +422,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 					logger.error("Missing bci attribute on tag {}", tagJVMS.toString(true));
 				}
 
-				String methodID = tagJVMSAttributes.get(ATTR_METHOD);
+				String methodID = tagJVMS.getAttribute(ATTR_METHOD);
 
 				BCIOpcodeMap bciOpcodeMap = parseDictionary.getBCIOpcodeMap(methodID);
 				
@@ -506,19 +503,31 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 
 		int currentBytecode = -1;
 
-		Map<String, Map<String, String>> methodAttrs = new HashMap<>();
-		Map<String, String> callAttrs = new HashMap<>();
-		Map<String, String> lastMethodAttrs = new HashMap<>();
+		Map<String, Tag> methodTags = new HashMap<>();
+		Tag callTag = null;
+		Tag lastMethodTag = null;
 
-		String currentMethodID = parseTag.getAttributes().get(ATTR_METHOD);
+		String currentMethodID = parseTag.getAttribute(ATTR_METHOD);
 
 		BytecodeInstruction currentInstruction = null;
 
-		for (Tag child : children)
+		PackedBytecodes.Cursor bcCursor = parseTag.getPackedBytecodeCursor();
+
+		int childCount = children.size();
+
+		for (int i = 0; i < childCount; i++)
 		{
+			Tag child = children.get(i);
+
+			// compact parse tree: the <bc> preceding this child
+			if (bcCursor.advanceTo(i))
+			{
+				currentBytecode = bcCursor.getBCI();
+				callTag = null;
+				currentInstruction = getInstructionAtIndex(currentBytecode);
+			}
+
 			String name = child.getName();
-			
-			Map<String, String> tagAttrs = child.getAttributes();
 
 			if (DEBUG_LOGGING_BYTECODE)
 			{
@@ -529,12 +538,9 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 			{
 			case TAG_BC:
 			{
-				String bciAttr = tagAttrs.get(ATTR_BCI);
-				String codeAttr = tagAttrs.get(ATTR_CODE);
-
-				currentBytecode = Integer.parseInt(bciAttr);
-				int code = Integer.parseInt(codeAttr);
-				callAttrs.clear();
+				currentBytecode = child.getIntAttribute(ATTR_BCI);
+				int code = child.getIntAttribute(ATTR_CODE);
+				callTag = null;
 
 				if (DEBUG_LOGGING_BYTECODE)
 				{
@@ -553,31 +559,21 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 
 			case TAG_CALL:
 			{
-				callAttrs.clear();
-				callAttrs.putAll(tagAttrs);
+				callTag = child;
 
-				lastMethodAttrs.clear();
-				String calleeId = tagAttrs.get("method");
-				
-				if (calleeId != null)
-				{
-					Map<String, String> calleeAttrs = methodAttrs.get(calleeId);
-					
-					if (calleeAttrs != null)
-					{
-						lastMethodAttrs.putAll(calleeAttrs);
-					}
-				}
+				String calleeId = child.getAttribute(ATTR_METHOD);
+
+				lastMethodTag = calleeId != null ? methodTags.get(calleeId) : null;
 
 				break;
 			}
 
 			case TAG_METHOD:
 			{
-				String methodId = tagAttrs.get("id");
+				String methodId = child.getAttribute(ATTR_ID);
 				if (methodId != null)
 				{
-					methodAttrs.put(methodId, tagAttrs);
+					methodTags.put(methodId, child);
 				}
 				break;
 			}
@@ -590,10 +586,10 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 							currentInstruction);
 				}
 
-				String reason = tagAttrs.get(ATTR_REASON);
-				String annotationText = buildInlineAnnotation(parseDictionary, lastMethodAttrs, callAttrs, reason, true);
+				String reason = child.getAttribute(ATTR_REASON);
+				String annotationText = buildInlineAnnotation(parseDictionary, lastMethodTag, callTag, reason, true);
 
-				IMetaMember inlinedMember = ParseUtil.lookupMember(lastMethodAttrs.get(ATTR_ID), parseDictionary, model);
+				IMetaMember inlinedMember = ParseUtil.lookupMember(getMethodID(lastMethodTag), parseDictionary, model);
 
 				LineAnnotation lineAnnotation = new LineAnnotation(annotationText, BCAnnotationType.INLINE_SUCCESS, inlinedMember);
 								
@@ -610,10 +606,10 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 							currentInstruction);
 				}
 
-				String reason = tagAttrs.get(ATTR_REASON);
-				String annotationText = buildInlineAnnotation(parseDictionary, lastMethodAttrs, callAttrs, reason, false);
+				String reason = child.getAttribute(ATTR_REASON);
+				String annotationText = buildInlineAnnotation(parseDictionary, lastMethodTag, callTag, reason, false);
 				
-				IMetaMember inlinedMember = ParseUtil.lookupMember(lastMethodAttrs.get(ATTR_ID), parseDictionary, model);
+				IMetaMember inlinedMember = ParseUtil.lookupMember(getMethodID(lastMethodTag), parseDictionary, model);
 
 				LineAnnotation lineAnnotation = new LineAnnotation(annotationText, BCAnnotationType.INLINE_FAIL, inlinedMember);
 								
@@ -629,7 +625,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 					throw new AnnotationException("Expected a branch instruction (BRANCH)", currentBytecode, currentInstruction);
 				}
 
-				String branchAnnotation = buildBranchAnnotation(tagAttrs);
+				String branchAnnotation = buildBranchAnnotation(child);
 
 				putAnnotation(currentMember, currentBytecode, new LineAnnotation(branchAnnotation, BCAnnotationType.BRANCH));
 				
@@ -645,7 +641,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 				}
 
 				StringBuilder reason = new StringBuilder();
-				reason.append("Intrinsic: ").append(tagAttrs.get(ATTR_ID));
+				reason.append("Intrinsic: ").append(child.getAttribute(ATTR_ID));
 
 				putAnnotation(currentMember, currentBytecode,
 						new LineAnnotation(reason.toString(), BCAnnotationType.INTRINSIC_USED));
@@ -655,7 +651,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 
 			case TAG_UNCOMMON_TRAP:
 			{
-				String trapMethod = child.getAttributes().get(ATTR_METHOD);
+				String trapMethod = child.getAttribute(ATTR_METHOD);
 
 				if (trapMethod == null || currentMethodID.equals(trapMethod))
 				{
@@ -667,7 +663,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 
 			case TAG_PHASE:
 			{
-				String phaseName = tagAttrs.get(ATTR_NAME);
+				String phaseName = child.getAttribute(ATTR_NAME);
 
 				if (S_PARSE_HIR.equals(phaseName))
 				{
@@ -705,7 +701,7 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 
 							String exceptionType = entry.getType();
 
-							String preallocated = child.getAttributes().get(ATTR_PREALLOCATED);
+							String preallocated = child.getAttribute(ATTR_PREALLOCATED);
 
 							StringBuilder reason = new StringBuilder();
 
@@ -747,10 +743,15 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 		}
 	}
 
-	private String buildInlineAnnotation(IParseDictionary parseDictionary, Map<String, String> methodAttrs,
-			Map<String, String> callAttrs, String reason, boolean inlined)
+	private String buildInlineAnnotation(IParseDictionary parseDictionary, Tag methodTag, Tag callTag, String reason,
+			boolean inlined)
+	{
+		return TooltipUtil.buildInlineAnnotationText(inlined, reason, callTag, methodTag, parseDictionary);
+	}
+
+	private String getMethodID(Tag methodTag)
 	{
-		return TooltipUtil.buildInlineAnnotationText(inlined, reason, callAttrs, methodAttrs, parseDictionary);
+		return methodTag == null ? null : methodTag.getAttribute(ATTR_ID);
 	}
 
 	private String buildEliminatedAllocationAnnotation(String typeOrKlassName, boolean isInlined)
@@ -785,12 +786,12 @@ public class BytecodeAnnotationBuilder extends AbstractCompilationVisitable
 		return builder.toString();
 	}
 
-	private String buildBranchAnnotation(Map<String, String> tagAttrs)
+	private String buildBranchAnnotation(Tag tagBranch)
 	{
-		String count = tagAttrs.get(ATTR_BRANCH_COUNT);
-		String taken = tagAttrs.get(ATTR_BRANCH_TAKEN);
-		String notTaken = tagAttrs.get(ATTR_BRANCH_NOT_TAKEN);
-		String prob = tagAttrs.get(ATTR_BRANCH_PROB);
+		String count = tagBranch.getAttribute(ATTR_BRANCH_COUNT);
+		String taken = tagBranch.getAttribute(ATTR_BRANCH_TAKEN);
+		String notTaken = tagBranch.getAttribute(ATTR_BRANCH_NOT_TAKEN);
+		String prob = tagBranch.getAttribute(ATTR_BRANCH_PROB);
 
 		StringBuilder reason = new StringBuilder();
 
@@ -23,7 +23,7 @@ public class SourceMapper
 
 	private static Map<String, List<ClassBC>> sourceToClassMap = new HashMap<>();
 
-	public static void clear()
+	public static synchronized void clear()
 	{
 		sourceToClassMap.clear();
 	}
@@ -44,7 +44,7 @@ public class SourceMapper
 		return builder.toString();
 	}
 
-	public static void addSourceClassMapping(ClassBC classBytecode)
+	public static synchronized void addSourceClassMapping(ClassBC classBytecode)
 	{	
 		String fqName = getFullyQualifiedSourceName(classBytecode);
 	
@@ -60,7 +60,7 @@ public class SourceMapper
 		classBytecodeList.add(classBytecode);
 	}
 
-	public static List<ClassBC> getClassBytecodeList(ClassBC classBytecode)
+	public static synchronized List<ClassBC> getClassBytecodeList(ClassBC classBytecode)
 	{
 		String fqName = getFullyQualifiedSourceName(classBytecode);
 
@@ -74,7 +74,7 @@ public class SourceMapper
 		return Collections.unmodifiableList(result);
 	}
 
-	public static MemberBytecode getMemberBytecodeForSourceLine(ClassBC classBytecode, int sourceLine)
+	public static synchronized MemberBytecode getMemberBytecodeForSourceLine(ClassBC classBytecode, int sourceLine)
 	{		
 		MemberBytecode result = null;
 
@@ -10,7 +10,6 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BCI;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMMENT;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
 
-import java.util.Map;
 
 import org.adoptopenjdk.jitwatch.model.Tag;
 
@@ -53,12 +52,10 @@ public class UncommonTrap
 	{
 		UncommonTrap trap = null;
 		
-		Map<String, String> tagAttributes = tag.getAttributes();
-
-		String bci = tagAttributes.get(ATTR_BCI);
-		String reason = tagAttributes.get(ATTR_REASON);
-		String action = tagAttributes.get(ATTR_ACTION);
-		String comment = tagAttributes.get(ATTR_COMMENT);
+		String bci = tag.getAttribute(ATTR_BCI);
+		String reason = tag.getAttribute(ATTR_REASON);
+		String action = tag.getAttribute(ATTR_ACTION);
+		String comment = tag.getAttribute(ATTR_COMMENT);
 
 		if (bci != null)
 		{
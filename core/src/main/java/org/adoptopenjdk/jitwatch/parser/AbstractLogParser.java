@@ -5,14 +5,16 @@
  */
 package org.adoptopenjdk.jitwatch.parser;
 
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ACTION;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BCI;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILER;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILE_ID;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILE_KIND;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_FREE_CODE_CACHE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NMSIZE;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP_COMPLETED;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ZOMBIE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C1;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C2;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C2N;
@@ -24,6 +26,7 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.JVMCI;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_DOT;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SLASH;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CODE_CACHE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_JVMS;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_DONE;
 
@@ -32,6 +35,7 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -42,6 +46,8 @@ import org.adoptopenjdk.jitwatch.model.CodeCacheEvent;
 import org.adoptopenjdk.jitwatch.model.CodeCacheEvent.CodeCacheEventType;
 import org.adoptopenjdk.jitwatch.model.Compilation;
 import org.adoptopenjdk.jitwatch.model.CompilerThread;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent.DeoptEventType;
 import org.adoptopenjdk.jitwatch.model.EventType;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.model.JITDataModel;
@@ -67,6 +73,8 @@ public abstract class AbstractLogParser implements ILogParser
 
 	protected String vmCommand = null;
 
+	protected String vmArguments = null;
+
 	protected boolean reading = false;
 
 	protected boolean hasParseError = false;
@@ -89,6 +97,9 @@ public abstract class AbstractLogParser implements ILogParser
 
 	protected SplitLog splitLog = new SplitLog();
 
+	// runtime deopt events only carry the compile_id of the nmethod
+	protected Map<String, Compilation> compilationsByCompileID = new HashMap<>();
+
 	public AbstractLogParser(IJITListener jitListener)
 	{
 		model = new JITDataModel();
@@ -224,8 +235,12 @@ public abstract class AbstractLogParser implements ILogParser
 
 		currentMember = null;
 
+		compilationsByCompileID.clear();
+
 		vmCommand = null;
 
+		vmArguments = null;
+
 		parseLineNumber = 0;
 		processLineNumber = 0;
 
@@ -272,6 +287,12 @@ public abstract class AbstractLogParser implements ILogParser
 		return vmCommand;
 	}
 
+	@Override
+	public String getVMArguments()
+	{
+		return vmArguments;
+	}
+
 	@Override
 	public void discardParsedLogs()
 	{
@@ -346,6 +367,8 @@ public abstract class AbstractLogParser implements ILogParser
 	{
 		reset();
 
+		tagProcessor.setCompactParseTree(config.isCompactParseTree());
+
 		configureDisposableClassLoader();
 
 		// tell listener to reset any data
@@ -372,11 +395,7 @@ public abstract class AbstractLogParser implements ILogParser
 
 	protected void handleTagNMethod(Tag tag)
 	{
-		Map<String, String> tagAttributes = tag.getAttributes();
-
-		String attrCompiler = tagAttributes.get(ATTR_COMPILER);
-
-		renameCompilationCompletedTimestamp(tag);
+		String attrCompiler = tag.getAttribute(ATTR_COMPILER);
 
 		if (attrCompiler != null && attrCompiler.length() > 0)
 		{
@@ -404,7 +423,7 @@ public abstract class AbstractLogParser implements ILogParser
 		}
 		else
 		{
-			String attrCompileKind = tagAttributes.get(ATTR_COMPILE_KIND);
+			String attrCompileKind = tag.getAttribute(ATTR_COMPILE_KIND);
 
 			if (attrCompileKind != null && C2N.equalsIgnoreCase(attrCompileKind))
 			{
@@ -443,6 +462,46 @@ public abstract class AbstractLogParser implements ILogParser
 		}
 	}
 
+	protected void handleTagDeopt(Tag tag, DeoptEventType eventType)
+	{
+		String compileID = tag.getAttribute(ATTR_COMPILE_ID);
+
+		DeoptEvent event = new DeoptEvent(eventType, ParseUtil.getStamp(tag), compileID);
+
+		if (compileID != null)
+		{
+			event.setCompilation(compilationsByCompileID.get(compileID));
+		}
+
+		event.setReason(tag.getAttribute(ATTR_REASON));
+		event.setAction(tag.getAttribute(ATTR_ACTION));
+		event.setZombie("1".equals(tag.getAttribute(ATTR_ZOMBIE)));
+
+		// the first jvms is the scope that trapped, the rest are its callers
+		Tag tagJVMS = tag.getFirstNamedChild(TAG_JVMS);
+
+		if (tagJVMS != null)
+		{
+			event.setTrapMethod(tagJVMS.getAttribute(ATTR_METHOD));
+
+			String bci = tagJVMS.getAttribute(ATTR_BCI);
+
+			if (bci != null)
+			{
+				try
+				{
+					event.setBCI(Integer.parseInt(bci));
+				}
+				catch (NumberFormatException nfe)
+				{
+					logger.warn("Could not parse {} '{}' in {}", ATTR_BCI, bci, tag.toString(true));
+				}
+			}
+		}
+
+		model.addDeoptEvent(event);
+	}
+
 	protected void storeCodeCacheEvent(CodeCacheEventType eventType, Tag tag)
 	{
 		storeCodeCacheEventDetail(eventType, ParseUtil.parseStampFromTag(tag), 0, 0);
@@ -457,15 +516,13 @@ public abstract class AbstractLogParser implements ILogParser
 
 	private void handleMethodLine(Tag tag, EventType eventType)
 	{
-		Map<String, String> attrs = tag.getAttributes();
-
-		String attrMethod = attrs.get(ATTR_METHOD);
+		String attrMethod = tag.getAttribute(ATTR_METHOD);
 
 		if (attrMethod != null)
 		{
 			attrMethod = attrMethod.replace(S_SLASH, S_DOT);
 
-			handleMember(attrMethod, attrs, eventType, tag);
+			handleMember(attrMethod, eventType, tag);
 		}
 	}
 
@@ -485,13 +542,25 @@ public abstract class AbstractLogParser implements ILogParser
 		compilation.setTagTaskQueued(tagTaskQueued);
 
 		metaMember.storeCompilation(compilation);
+
+		storeCompilationByCompileID(compilation);
+	}
+
+	protected void storeCompilationByCompileID(Compilation compilation)
+	{
+		String compileID = compilation.getCompileID();
+
+		if (compileID != null)
+		{
+			compilationsByCompileID.put(compileID, compilation);
+		}
 	}
 
 	protected void setTagNMethod(Tag tagNMethod, IMetaMember member)
 	{
 		member.setCompiled(true);
 
-		String compileID = tagNMethod.getAttributes().get(ATTR_COMPILE_ID);
+		String compileID = tagNMethod.getAttribute(ATTR_COMPILE_ID);
 
 		Compilation compilation = member.getCompilationByCompileID(compileID);
 
@@ -502,7 +571,7 @@ public abstract class AbstractLogParser implements ILogParser
 		else
 		{
 			// check if C2N stub
-			String compileKind = tagNMethod.getAttributes().get(ATTR_COMPILE_KIND);
+			String compileKind = tagNMethod.getAttribute(ATTR_COMPILE_KIND);
 
 			if (C2N.equalsIgnoreCase(compileKind))
 			{
@@ -511,6 +580,8 @@ public abstract class AbstractLogParser implements ILogParser
 				compilation.setTagNMethod(tagNMethod);
 
 				member.storeCompilation(compilation);
+
+				storeCompilationByCompileID(compilation);
 			}
 			else
 			{
@@ -523,7 +594,7 @@ public abstract class AbstractLogParser implements ILogParser
 
 	protected void setTagTask(Task tagTask, IMetaMember member)
 	{
-		String compileID = tagTask.getAttributes().get(ATTR_COMPILE_ID);
+		String compileID = tagTask.getAttribute(ATTR_COMPILE_ID);
 
 		Compilation compilation = member.getCompilationByCompileID(compileID);
 
@@ -560,11 +631,11 @@ public abstract class AbstractLogParser implements ILogParser
 		}
 	}
 
-	private void handleMember(String signature, Map<String, String> attrs, EventType type, Tag tag)
+	private void handleMember(String signature, EventType type, Tag tag)
 	{
 		IMetaMember metaMember = findMemberWithSignature(signature);
 
-		long stampTime = ParseUtil.getStamp(attrs);
+		long stampTime = ParseUtil.getStamp(tag);
 
 		if (metaMember != null)
 		{
@@ -586,7 +657,8 @@ public abstract class AbstractLogParser implements ILogParser
 			{
 				setTagNMethod(tag, metaMember);
 				metaMember.getMetaClass().incCompiledMethodCount();
-				model.updateStats(metaMember, attrs);
+				model.updateStats(metaMember, tag.getAttribute(ATTR_COMPILER), tag.getAttribute(ATTR_COMPILE_KIND),
+						tag.getAttribute(ATTR_COMPILE_ID));
 
 				JITEvent compiledEvent = new JITEvent(stampTime, type, metaMember);
 				model.addEvent(compiledEvent);
@@ -607,11 +679,11 @@ public abstract class AbstractLogParser implements ILogParser
 
 	protected void handleTaskDone(Tag tagTaskDone, IMetaMember member)
 	{
-		Map<String, String> attrs = tagTaskDone.getAttributes();
+		String attrNMSize = tagTaskDone.getAttribute(ATTR_NMSIZE);
 
-		if (attrs.containsKey(ATTR_NMSIZE))
+		if (attrNMSize != null)
 		{
-			long nmsize = Long.parseLong(attrs.get(ATTR_NMSIZE));
+			long nmsize = Long.parseLong(attrNMSize);
 			model.addNativeBytes(nmsize);
 		}
 
@@ -623,7 +695,7 @@ public abstract class AbstractLogParser implements ILogParser
 
 			if (TAG_TASK.equals(parent.getName()))
 			{
-				compileID = parent.getAttributes().get(ATTR_COMPILE_ID);
+				compileID = parent.getAttribute(ATTR_COMPILE_ID);
 
 				if (compileID != null)
 				{
@@ -645,20 +717,53 @@ public abstract class AbstractLogParser implements ILogParser
 		}
 	}
 
-	private void renameCompilationCompletedTimestamp(Tag tag)
+	protected abstract void parseLogFile();
+
+	protected abstract void splitLogFile(File logFile);
+
+	protected abstract void handleTag(Tag tag);
+
+	/*
+	 * LogCompilation stamps are seconds with millisecond precision
+	 */
+	protected static String formatStamp(long millis)
 	{
-		String compilationCompletedStamp = tag.getAttributes().get(ATTR_STAMP);
+		StringBuilder builder = new StringBuilder();
 
-		if (compilationCompletedStamp != null)
+		builder.append(millis / 1000).append('.');
+
+		long fraction = millis % 1000;
+
+		if (fraction < 100)
+		{
+			builder.append('0');
+		}
+
+		if (fraction < 10)
 		{
-			tag.getAttributes().remove(ATTR_STAMP);
-			tag.getAttributes().put(ATTR_STAMP_COMPLETED, compilationCompletedStamp);
+			builder.append('0');
 		}
+
+		return builder.append(fraction).toString();
 	}
 
-	protected abstract void parseLogFile();
+	/*
+	 * Alternating attribute names and values, null values are left out
+	 */
+	protected static Tag buildTag(String tagName, String... namesAndValues)
+	{
+		List<String> names = new ArrayList<>();
+		List<String> values = new ArrayList<>();
 
-	protected abstract void splitLogFile(File logFile);
+		for (int i = 0; i < namesAndValues.length; i += 2)
+		{
+			if (namesAndValues[i + 1] != null)
+			{
+				names.add(namesAndValues[i]);
+				values.add(namesAndValues[i + 1]);
+			}
+		}
 
-	protected abstract void handleTag(Tag tag);
+		return new Tag(tagName, names.toArray(new String[names.size()]), values.toArray(new String[values.size()]), true);
+	}
 }
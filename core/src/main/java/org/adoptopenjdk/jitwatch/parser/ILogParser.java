@@ -34,6 +34,9 @@ public interface ILogParser
 	boolean hasParseError();
 		
 	String getVMCommand();
+
+	// JVM options the log was recorded with, null if not logged
+	String getVMArguments();
 	
 	void discardParsedLogs();
 }
\ No newline at end of file
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.parser;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ARGUMENTS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BCI;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BYTES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_HOLDER;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NAME;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_PARSE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_RETURN;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_DOT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SLASH;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_CONSTRUCTOR_INIT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_TYPE_NAME_VOID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CALL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_FAIL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_SUCCESS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_KLASS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PARSE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PHASE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TYPE;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+
+/*
+ * Builds a LogCompilation style <phase name='parse'> tree and parse
+ * dictionary inside a Task from inlining decisions reported by logs that do
+ * not contain parse tags (JFR, -Xlog:jit+inlining, PrintInlining). The
+ * compile chain, inlining reports and top lists then walk these compilations
+ * exactly like HotSpot ones.
+ *
+ * Each inlined callee gets its own nested parse tag so decisions are joined
+ * to the method that contains the call site.
+ */
+public class InliningTreeBuilder
+{
+	private final Task task;
+
+	// parseStack.get(i) is the parse tag of the method at inlining depth i
+	private final List<Tag> parseStack = new ArrayList<>();
+
+	private final List<String> methodStack = new ArrayList<>();
+
+	private final Map<String, String> methodIDs = new HashMap<>();
+
+	private final Map<String, String> typeIDs = new HashMap<>();
+
+	private int nextID = 1;
+
+	private int decisionCount;
+
+	public InliningTreeBuilder(Task task, MemberSignatureParts root)
+	{
+		this.task = task;
+
+		Tag phase = new Tag(TAG_PHASE, new String[] { ATTR_NAME }, new String[] { ATTR_PARSE }, false);
+
+		task.addChild(phase);
+
+		String rootID = getMethodID(root, 0);
+
+		Tag rootParse = new Tag(TAG_PARSE, new String[] { ATTR_METHOD }, new String[] { rootID }, false);
+
+		phase.addChild(rootParse);
+
+		parseStack.add(rootParse);
+		methodStack.add(rootID);
+	}
+
+	public int getDecisionCount()
+	{
+		return decisionCount;
+	}
+
+	/*
+	 * For logs that name the caller of each decision. An unknown caller is
+	 * treated as the compiled method.
+	 */
+	public void addDecision(MemberSignatureParts caller, MemberSignatureParts callee, int bci, int calleeBytes,
+			boolean inlined, String reason)
+	{
+		int depth = 1;
+
+		if (caller != null)
+		{
+			String callerID = methodIDs.get(getKey(caller));
+
+			if (callerID != null)
+			{
+				int index = methodStack.lastIndexOf(callerID);
+
+				if (index != -1)
+				{
+					depth = index + 1;
+				}
+			}
+		}
+
+		addDecision(depth, callee, bci, calleeBytes, inlined, reason);
+	}
+
+	/*
+	 * For logs that give the inlining depth of each decision, depth 1 is a
+	 * call made directly by the compiled method
+	 */
+	public void addDecision(int depth, MemberSignatureParts callee, int bci, int calleeBytes, boolean inlined, String reason)
+	{
+		depth = Math.max(1, Math.min(depth, parseStack.size()));
+
+		while (parseStack.size() > depth)
+		{
+			parseStack.remove(parseStack.size() - 1);
+			methodStack.remove(methodStack.size() - 1);
+		}
+
+		Tag parentParse = parseStack.get(depth - 1);
+
+		String calleeID = getMethodID(callee, calleeBytes);
+
+		Tag tagCall;
+
+		if (bci >= 0)
+		{
+			tagCall = new Tag(TAG_CALL, new String[] { ATTR_METHOD, ATTR_BCI }, new String[] { calleeID, Integer.toString(bci) },
+					true);
+		}
+		else
+		{
+			tagCall = new Tag(TAG_CALL, new String[] { ATTR_METHOD }, new String[] { calleeID }, true);
+		}
+
+		parentParse.addChild(tagCall);
+
+		String[] reasonNames = (reason != null) ? new String[] { ATTR_REASON } : new String[0];
+		String[] reasonValues = (reason != null) ? new String[] { reason } : new String[0];
+
+		parentParse.addChild(new Tag(inlined ? TAG_INLINE_SUCCESS : TAG_INLINE_FAIL, reasonNames, reasonValues, true));
+
+		if (inlined)
+		{
+			Tag calleeParse = new Tag(TAG_PARSE, new String[] { ATTR_METHOD }, new String[] { calleeID }, false);
+
+			parentParse.addChild(calleeParse);
+
+			parseStack.add(calleeParse);
+			methodStack.add(calleeID);
+		}
+
+		decisionCount++;
+	}
+
+	private String getMethodID(MemberSignatureParts msp, int bytes)
+	{
+		String key = getKey(msp);
+
+		String id = methodIDs.get(key);
+
+		if (id == null)
+		{
+			String holderID = getTypeID(msp.getFullyQualifiedClassName(), true);
+
+			String returnType = msp.getReturnType();
+
+			String returnID = getTypeID((returnType != null) ? returnType : S_TYPE_NAME_VOID, false);
+
+			StringBuilder arguments = new StringBuilder();
+
+			for (String paramType : msp.getParamTypes())
+			{
+				if (arguments.length() > 0)
+				{
+					arguments.append(C_SPACE);
+				}
+
+				arguments.append(getTypeID(paramType, false));
+			}
+
+			String methodName = msp.getMemberName();
+
+			// MemberSignatureParts names constructors after their class
+			if (methodName.equals(StringUtil.getUnqualifiedClassName(msp.getFullyQualifiedClassName())))
+			{
+				methodName = S_CONSTRUCTOR_INIT;
+			}
+
+			id = nextID();
+
+			Tag tagMethod;
+
+			// LogCompilation leaves out the arguments attribute when there are none
+			if (arguments.length() > 0)
+			{
+				tagMethod = new Tag(TAG_METHOD, new String[] { ATTR_ID, ATTR_HOLDER, ATTR_NAME, ATTR_RETURN, ATTR_ARGUMENTS, ATTR_BYTES },
+						new String[] { id, holderID, methodName, returnID, arguments.toString(), Integer.toString(bytes) }, true);
+			}
+			else
+			{
+				tagMethod = new Tag(TAG_METHOD, new String[] { ATTR_ID, ATTR_HOLDER, ATTR_NAME, ATTR_RETURN, ATTR_BYTES },
+						new String[] { id, holderID, methodName, returnID, Integer.toString(bytes) }, true);
+			}
+
+			task.addDictionaryMethod(id, tagMethod);
+
+			methodIDs.put(key, id);
+
+			// the method tag precedes its first use as LogCompilation does
+			if (!parseStack.isEmpty())
+			{
+				parseStack.get(parseStack.size() - 1).addChild(tagMethod);
+			}
+		}
+
+		return id;
+	}
+
+	/*
+	 * Class names are held in klass tags in internal form, primitives and
+	 * arrays in type tags by Java name, as ParseUtil.lookupType() expects
+	 */
+	private String getTypeID(String typeName, boolean isHolder)
+	{
+		String id = typeIDs.get(typeName);
+
+		if (id == null)
+		{
+			id = nextID();
+
+			boolean isKlass = isHolder || (typeName.indexOf(C_DOT) != -1 && !typeName.endsWith("]"));
+
+			if (isKlass)
+			{
+				task.addDictionaryKlass(id, new Tag(TAG_KLASS, new String[] { ATTR_ID, ATTR_NAME },
+						new String[] { id, typeName.replace(C_DOT, C_SLASH) }, true));
+			}
+			else
+			{
+				task.addDictionaryType(id, new Tag(TAG_TYPE, new String[] { ATTR_ID, ATTR_NAME }, new String[] { id, typeName }, true));
+			}
+
+			typeIDs.put(typeName, id);
+		}
+
+		return id;
+	}
+
+	private String nextID()
+	{
+		return Integer.toString(nextID++);
+	}
+
+	private static String getKey(MemberSignatureParts msp)
+	{
+		return msp.getFullyQualifiedClassName() + C_SPACE + msp.getMemberName() + msp.getParamTypes();
+	}
+}
@@ -5,32 +5,168 @@
  */
 package org.adoptopenjdk.jitwatch.parser;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
 import org.adoptopenjdk.jitwatch.core.IJITListener;
 import org.adoptopenjdk.jitwatch.parser.hotspot.HotSpotLogParser;
 import org.adoptopenjdk.jitwatch.parser.j9.J9LogParser;
+import org.adoptopenjdk.jitwatch.parser.jfr.JFRLogParser;
+import org.adoptopenjdk.jitwatch.parser.text.TextLogParser;
 
 public class ParserFactory
 {
 	public static final String PARSER_HOTSPOT = "hotspot";
-	
+
 	public static final String PARSER_J9 = "j9";
 
+	public static final String PARSER_JFR = "jfr";
+
+	// -Xlog:jit+compilation=debug,jit+inlining=debug
+	public static final String PARSER_XLOG = "xlog";
+
+	// -XX:+PrintCompilation with optional -XX:+PrintInlining
+	public static final String PARSER_PRINT_COMPILATION = "printcompilation";
+
+	private static final String PROPERTY_PARSER = "jitwatch.parser";
+
+	// lines read when detecting the format of a log
+	private static final int DETECT_LINES = 500;
+
+	private static final byte[] JFR_MAGIC = new byte[] { 'F', 'L', 'R', 0 };
+
+	private static final Pattern PATTERN_PRINT_COMPILATION = Pattern
+			.compile("^\\s*\\d+\\s+\\d+\\s+[%sbn!\\s]*\\d?\\s+\\S+::\\S+.*");
+
 	private ParserFactory()
 	{
 	}
 
 	public static ILogParser getParser(IJITListener jitListener)
 	{
-		String parserProperty = System.getProperty("jitwatch.parser", PARSER_HOTSPOT);
-		
-		switch (parserProperty)
+		return getParser(jitListener, System.getProperty(PROPERTY_PARSER, PARSER_HOTSPOT));
+	}
+
+	/*
+	 * Uses the jitwatch.parser property if set, otherwise the format detected
+	 * from the start of the log file
+	 */
+	public static ILogParser getParser(IJITListener jitListener, File logFile)
+	{
+		String parserProperty = System.getProperty(PROPERTY_PARSER);
+
+		if (parserProperty == null)
+		{
+			parserProperty = detectParser(logFile);
+		}
+
+		return getParser(jitListener, parserProperty);
+	}
+
+	public static ILogParser getParser(IJITListener jitListener, String parserName)
+	{
+		switch (parserName)
 		{
 		case PARSER_HOTSPOT:
 			return new HotSpotLogParser(jitListener);
 		case PARSER_J9:
 			return new J9LogParser(jitListener);
+		case PARSER_JFR:
+			return new JFRLogParser(jitListener);
+		case PARSER_XLOG:
+		case PARSER_PRINT_COMPILATION:
+			return new TextLogParser(jitListener);
 			default:
-				throw new RuntimeException("Unknown parser " + parserProperty);
+				throw new RuntimeException("Unknown parser " + parserName);
+		}
+	}
+
+	/*
+	 * Returns the parser name for the log format, PARSER_HOTSPOT if the file
+	 * cannot be read or the format is not recognised
+	 */
+	public static String detectParser(File logFile)
+	{
+		String result = PARSER_HOTSPOT;
+
+		if (logFile == null || !logFile.isFile())
+		{
+			return result;
+		}
+
+		try (InputStream inputStream = new FileInputStream(logFile))
+		{
+			byte[] magic = new byte[JFR_MAGIC.length];
+
+			int read = inputStream.read(magic);
+
+			if (read == JFR_MAGIC.length && Arrays.equals(magic, JFR_MAGIC))
+			{
+				return PARSER_JFR;
+			}
+		}
+		catch (IOException ioe)
+		{
+			return result;
+		}
+
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(logFile), StandardCharsets.UTF_8)))
+		{
+			String line = reader.readLine();
+
+			int count = 0;
+
+			while (line != null && count++ < DETECT_LINES)
+			{
+				String format = detectLineFormat(line);
+
+				if (format != null)
+				{
+					result = format;
+					break;
+				}
+
+				line = reader.readLine();
+			}
+		}
+		catch (IOException ioe)
+		{
+		}
+
+		return result;
+	}
+
+	private static String detectLineFormat(String line)
+	{
+		String result = null;
+
+		String trimmed = line.trim();
+
+		if (trimmed.startsWith("<?xml") || trimmed.startsWith("<hotspot_log") || trimmed.startsWith("<task_queued"))
+		{
+			result = PARSER_HOTSPOT;
 		}
+		else if (trimmed.startsWith("+ (") || trimmed.startsWith("JIT: "))
+		{
+			result = PARSER_J9;
+		}
+		else if (trimmed.startsWith("[") && (trimmed.contains("[jit,compilation") || trimmed.contains("[jit,inlining")))
+		{
+			result = PARSER_XLOG;
+		}
+		else if (PATTERN_PRINT_COMPILATION.matcher(line).matches())
+		{
+			result = PARSER_PRINT_COMPILATION;
+		}
+
+		return result;
 	}
-}
\ No newline at end of file
+}
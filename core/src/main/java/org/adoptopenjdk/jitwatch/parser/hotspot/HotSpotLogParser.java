@@ -20,10 +20,12 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_FILE_COLON;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_OPEN_ANGLE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SLASH;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SPACE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_ARGS;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CLOSE_CDATA;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CODE_CACHE_FULL;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_COMMAND;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_HOTSPOT_LOG_DONE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_MAKE_NOT_ENTRANT;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_NMETHOD;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_OPEN_CDATA;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_OPEN_CLOSE_CDATA;
@@ -34,6 +36,7 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_SWEEPER;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_QUEUED;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TTY;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_UNCOMMON_TRAP;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_VM_ARGUMENTS;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_VM_VERSION;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_WRITER;
@@ -53,6 +56,7 @@ import java.util.Set;
 
 import org.adoptopenjdk.jitwatch.core.IJITListener;
 import org.adoptopenjdk.jitwatch.model.CodeCacheEvent.CodeCacheEventType;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent.DeoptEventType;
 import org.adoptopenjdk.jitwatch.model.NumberedLine;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.model.Task;
@@ -372,6 +376,14 @@ public class HotSpotLogParser extends AbstractLogParser
             storeCodeCacheEvent(CodeCacheEventType.CACHE_FULL, tag);
             break;
 
+        case TAG_UNCOMMON_TRAP:
+            handleTagDeopt(tag, DeoptEventType.UNCOMMON_TRAP);
+            break;
+
+        case TAG_MAKE_NOT_ENTRANT:
+            handleTagDeopt(tag, DeoptEventType.MAKE_NOT_ENTRANT);
+            break;
+
         case TAG_HOTSPOT_LOG_DONE:
             model.setEndOfLog(tag);
             break;
@@ -398,6 +410,13 @@ public class HotSpotLogParser extends AbstractLogParser
 
     private void handleTagVmArguments(Tag tag)
     {
+        List<Tag> tagArgsChildren = tag.getNamedChildren(TAG_ARGS);
+
+        if (tagArgsChildren.size() > 0)
+        {
+            vmArguments = tagArgsChildren.get(0).getTextContent();
+        }
+
         List<Tag> tagCommandChildren = tag.getNamedChildren(TAG_COMMAND);
 
         if (tagCommandChildren.size() > 0)
@@ -413,7 +432,7 @@ public class HotSpotLogParser extends AbstractLogParser
 
     private void handleWriterThread(Tag tag)
     {
-        String threadId = tag.getAttributes().get(ATTR_THREAD);
+        String threadId = tag.getAttribute(ATTR_THREAD);
 
         if (threadId != null)
         {
@@ -426,8 +445,8 @@ public class HotSpotLogParser extends AbstractLogParser
         // <start_compile_thread name='C2 CompilerThread1' thread='17667'
         // process='82237' stamp='0.079'/>
 
-        String threadId = tag.getAttributes().get(ATTR_THREAD);
-        String threadName = tag.getAttributes().get(ATTR_NAME);
+        String threadId = tag.getAttribute(ATTR_THREAD);
+        String threadName = tag.getAttribute(ATTR_NAME);
 
         if (threadId != null)
         {
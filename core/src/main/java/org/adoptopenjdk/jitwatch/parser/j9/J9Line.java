@@ -8,7 +8,7 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NMSIZE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_SIZE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_QUOTE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_SUCCESS;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.J9;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_NMETHOD;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_DONE;
@@ -23,7 +23,6 @@ import org.adoptopenjdk.jitwatch.model.LogParseException;
 import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.model.Task;
-import org.adoptopenjdk.jitwatch.util.StringUtil;
 
 public class J9Line
 {
@@ -35,6 +34,7 @@ public class J9Line
 	private String signature;
 	private String rangeStart;
 	private String rangeEnd;
+	private String logCompilationSignature;
 
 	private Map<String, String> attributes = new HashMap<>();
 
@@ -58,6 +58,7 @@ public class J9Line
 	public void setSignature(String signature)
 	{
 		this.signature = signature;
+		this.logCompilationSignature = null;
 	}
 
 	public String getRangeStart()
@@ -111,9 +112,7 @@ public class J9Line
 
 	public MemberSignatureParts getMemberSignatureParts() throws LogParseException
 	{
-		String logCompilationSignature = J9Util.convertJ9SigToLogCompilationSignature(signature);
-
-		return MemberSignatureParts.fromLogCompilationSignature(logCompilationSignature);
+		return MemberSignatureParts.fromLogCompilationSignature(getLogCompilationSignature());
 	}
 
 	public int getBytecodeSize()
@@ -188,55 +187,45 @@ public class J9Line
 		return builder.toString();
 	}
 
-	
-	public Tag toTagQueued(int compiledID, long timestampMillis)
+	public String getLogCompilationSignature()
 	{
-		Map<String, String> map = new HashMap<>();
-		
-		map.put(ATTR_COMPILE_ID, Integer.toString(compiledID));
-		map.put(ATTR_STAMP, Long.toString(timestampMillis));
-		map.put(ATTR_METHOD, J9Util.convertJ9SigToLogCompilationSignature(signature));
-		map.put(ATTR_BYTES, Integer.toString(getBytecodeSize()));
-		
-		Tag tag = new Tag(TAG_TASK_QUEUED, StringUtil.attributeMapToString(map, C_QUOTE), true);
+		if (logCompilationSignature == null)
+		{
+			logCompilationSignature = J9Util.convertJ9SigToLogCompilationSignature(signature);
+		}
 
-		return tag;
+		return logCompilationSignature;
 	}
 
-	public Tag toTagNMethod(int compiledID, long timestampMillis)
+	/*
+	 * The toTag methods build the LogCompilation equivalent tags straight
+	 * from the parsed fields rather than via formatted attribute strings
+	 */
+	public Tag toTagQueued(String compileID, String stamp)
 	{
-		Map<String, String> map = new HashMap<>();
-		map.put(ATTR_COMPILE_ID, Integer.toString(compiledID));
-		map.put(ATTR_STAMP, Long.toString(timestampMillis));
-		map.put(ATTR_METHOD, J9Util.convertJ9SigToLogCompilationSignature(signature));
-		map.put(ATTR_COMPILER, J9);
-		map.put(ATTR_ADDRESS, rangeStart);
-		map.put(ATTR_SIZE, Integer.toString(getNativeSize()));
-		map.put(ATTR_BYTES, Integer.toString(getBytecodeSize()));
-
-		Tag tag = new Tag(TAG_NMETHOD, StringUtil.attributeMapToString(map, C_QUOTE), true);
-
-		return tag;
+		return new Tag(TAG_TASK_QUEUED, new String[] { ATTR_COMPILE_ID, ATTR_STAMP, ATTR_METHOD, ATTR_BYTES },
+				new String[] { compileID, stamp, getLogCompilationSignature(), Integer.toString(getBytecodeSize()) }, true);
 	}
 
-	public Task toTagTask(int compiledID, long timestampMillis)
+	public Tag toTagNMethod(String compileID, String stamp)
 	{
-		Map<String, String> map = new HashMap<>();
-		map.put(ATTR_COMPILE_ID, Integer.toString(compiledID));
-		map.put(ATTR_STAMP, Long.toString(timestampMillis));
-		map.put(ATTR_METHOD, J9Util.convertJ9SigToLogCompilationSignature(signature));
+		return new Tag(TAG_NMETHOD,
+				new String[] { ATTR_COMPILE_ID, ATTR_STAMP, ATTR_METHOD, ATTR_COMPILER, ATTR_ADDRESS, ATTR_SIZE, ATTR_BYTES },
+				new String[] { compileID, stamp, getLogCompilationSignature(), J9, rangeStart, Integer.toString(getNativeSize()),
+						Integer.toString(getBytecodeSize()) },
+				true);
+	}
 
-		Task task = new Task(StringUtil.attributeMapToString(map, C_QUOTE), true);
+	public Task toTagTask(String compileID, String stamp)
+	{
+		Task task = new Task(new String[] { ATTR_COMPILE_ID, ATTR_STAMP, ATTR_METHOD },
+				new String[] { compileID, stamp, getLogCompilationSignature() }, true);
 
-		Map<String, String> doneAttrs = new HashMap<>();
-		doneAttrs.put(ATTR_NMSIZE, Integer.toString(getNativeSize()));
-		doneAttrs.put(ATTR_STAMP, Long.toString(timestampMillis));
-		doneAttrs.put("success", "1");
+		Tag tagTaskDone = new Tag(TAG_TASK_DONE, new String[] { ATTR_NMSIZE, ATTR_STAMP, ATTR_SUCCESS },
+				new String[] { Integer.toString(getNativeSize()), stamp, "1" }, true);
 
-		Tag tagTaskDone = new Tag(TAG_TASK_DONE, StringUtil.attributeMapToString(doneAttrs), true);
-		
 		task.addChild(tagTaskDone);
-				
+
 		return task;
 	}
 }
\ No newline at end of file
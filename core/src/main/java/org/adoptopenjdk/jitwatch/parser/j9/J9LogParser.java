@@ -1,13 +1,17 @@
 /*
- * Copyright (c) 2017 Chris Newland.
+ * Copyright (c) 2017-2018 Chris Newland.
  * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
  * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
  */
 package org.adoptopenjdk.jitwatch.parser.j9;
 
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEBUG_LOGGING;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.J9;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_DOT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SLASH;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_NMETHOD;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_DONE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_QUEUED;
 
 import java.io.BufferedReader;
@@ -16,60 +20,158 @@ import java.io.FileReader;
 import java.io.IOException;
 
 import org.adoptopenjdk.jitwatch.core.IJITListener;
-import org.adoptopenjdk.jitwatch.model.NumberedLine;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.EventType;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.model.Task;
 import org.adoptopenjdk.jitwatch.parser.AbstractLogParser;
 
+/*
+ * Each -Xjit:verbose '+' line describes a complete compilation so the log is
+ * streamed in parseLogFile() and every line goes straight into the model
+ * without being staged in the SplitLog first.
+ */
 public class J9LogParser extends AbstractLogParser
 {
 	private int compileID = 1;
-	private long timestampMillis = 0;
+
+	// J9 logs have no timestamps so the line count is used as the stamp
+	// attribute which, as in LogCompilation, is in seconds
+	private long timestamp = 0;
+
+	private File logFile;
 
 	public J9LogParser(IJITListener jitListener)
 	{
 		super(jitListener);
 	}
 
+	@Override
+	public void reset()
+	{
+		super.reset();
+
+		compileID = 1;
+		timestamp = 0;
+	}
+
+	@Override
+	protected void splitLogFile(File logFile)
+	{
+		this.logFile = logFile;
+	}
+
 	@Override
 	protected void parseLogFile()
 	{
-		for (NumberedLine numberedLine : splitLog.getCompilationLines())
+		if (logFile == null)
 		{
-			processLineNumber = numberedLine.getLineNumber();
+			return;
+		}
 
-			J9Line j9Line = J9Util.parseLine(numberedLine.getLine());
-			
-			if (DEBUG_LOGGING)
-			{
-				logger.debug("J9 log line parsed\n{}", j9Line);
-			}
-			
-			Tag tagQueued = j9Line.toTagQueued(compileID, timestampMillis);
-			Tag tagNMethod = j9Line.toTagNMethod(compileID, timestampMillis);
-			Tag tagTask = j9Line.toTagTask(compileID, timestampMillis);
-			
-			compileID++;
-			
-			timestampMillis++;
-			
-			if (tagQueued != null)
-			{
-				handleTag(tagQueued);
-			}
-			
-			if (tagNMethod != null)
-			{
-				handleTag(tagNMethod);
-			}
-			
-			if (tagTask != null)
+		reading = true;
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(logFile), 65536))
+		{
+			String currentLine = reader.readLine();
+
+			while (reading && currentLine != null)
 			{
-				handleTag(tagTask);
+				String trimmedLine = currentLine.trim();
+
+				if (trimmedLine.length() > 0 && trimmedLine.charAt(0) == '+')
+				{
+					processLineNumber = parseLineNumber++;
+
+					try
+					{
+						handleCompilationLine(trimmedLine);
+					}
+					catch (Exception ex)
+					{
+						logger.error("Exception handling: '{}'", currentLine, ex);
+					}
+				}
+
+				currentLine = reader.readLine();
 			}
 		}
+		catch (IOException ioe)
+		{
+			logger.error("Exception while reading log file", ioe);
+		}
+	}
+
+	/*
+	 * Creates the Compilation, events and stats directly from the J9Line
+	 * fields with one member lookup per line
+	 */
+	protected void handleCompilationLine(String line)
+	{
+		J9Line j9Line = J9Util.parseLine(line);
+
+		if (DEBUG_LOGGING)
+		{
+			logger.debug("J9 log line parsed\n{}", j9Line);
+		}
+
+		String lineCompileID = Integer.toString(compileID++);
+
+		long lineTimestamp = timestamp++;
+
+		String stamp = Long.toString(lineTimestamp);
+
+		long stampMillis = lineTimestamp * 1000;
+
+		// the code is in the cache whether or not its member is in the model
+		model.addNativeBytes(j9Line.getNativeSize());
+
+		IMetaMember member = findMemberWithSignature(j9Line.getLogCompilationSignature().replace(S_SLASH, S_DOT));
+
+		if (member == null)
+		{
+			return;
+		}
+
+		Compilation compilation = new Compilation(member, member.getCompilations().size());
+
+		compilation.setTagTaskQueued(j9Line.toTagQueued(lineCompileID, stamp));
+
+		member.storeCompilation(compilation);
+
+		storeCompilationByCompileID(compilation);
+
+		addEvent(new JITEvent(stampMillis, EventType.QUEUE, member));
+
+		compilation.setTagNMethod(j9Line.toTagNMethod(lineCompileID, stamp));
+
+		member.setCompiled(true);
+		member.getMetaClass().getPackage().setHasCompiledClasses();
+		member.getMetaClass().incCompiledMethodCount();
+
+		model.updateStats(member, J9, null, lineCompileID);
+
+		addEvent(new JITEvent(stampMillis, EventType.NMETHOD_J9, member));
+
+		Task task = j9Line.toTagTask(lineCompileID, stamp);
+
+		compilation.setTagTask(task);
+		compilation.setTagTaskDone(task.getFirstNamedChild(TAG_TASK_DONE));
+
+		if (currentCompilerThread != null)
+		{
+			currentCompilerThread.addCompilation(compilation);
+		}
 	}
-	
+
+	private void addEvent(JITEvent event)
+	{
+		model.addEvent(event);
+		logEvent(event);
+	}
+
 	@Override
 	protected void handleTag(Tag tag)
 	{
@@ -98,45 +200,4 @@ public class J9LogParser extends AbstractLogParser
 			break;
 		}
 	}
-
-	@Override
-	protected void splitLogFile(File logFile)
-	{
-		reading = true;
-
-		try (BufferedReader reader = new BufferedReader(new FileReader(logFile), 65536))
-		{
-			String currentLine = reader.readLine();
-
-			while (reading && currentLine != null)
-			{
-				try
-				{
-					String trimmedLine = currentLine.trim();
-
-					if (trimmedLine.length() > 0)
-					{
-						char firstChar = trimmedLine.charAt(0);
-
-						if (firstChar == '+')
-						{
-							NumberedLine numberedLine = new NumberedLine(parseLineNumber++, trimmedLine);
-
-							splitLog.addCompilationLine(numberedLine);
-						}
-					}
-				}
-				catch (Exception ex)
-				{
-					logger.error("Exception handling: '{}'", currentLine, ex);
-				}
-
-				currentLine = reader.readLine();
-			}
-		}
-		catch (IOException ioe)
-		{
-			logger.error("Exception while splitting log file", ioe);
-		}
-	}
-}
\ No newline at end of file
+}
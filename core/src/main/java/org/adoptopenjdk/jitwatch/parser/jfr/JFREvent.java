@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.parser.jfr;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * A JFR event copied out of the jdk.jfr.consumer objects so the parser does
+ * not depend on the JFR API at compile time. Method values are held as
+ * JFRMethod, classes and threads by name, timespans and timestamps in
+ * nanoseconds.
+ */
+public class JFREvent
+{
+	private final String name;
+
+	private final long startNanos;
+
+	private final long durationNanos;
+
+	private final Map<String, Object> values = new HashMap<>();
+
+	public JFREvent(String name, long startNanos, long durationNanos)
+	{
+		this.name = name;
+		this.startNanos = startNanos;
+		this.durationNanos = durationNanos;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public long getStartNanos()
+	{
+		return startNanos;
+	}
+
+	public long getDurationNanos()
+	{
+		return durationNanos;
+	}
+
+	public long getEndNanos()
+	{
+		return startNanos + durationNanos;
+	}
+
+	public JFREvent setValue(String key, Object value)
+	{
+		values.put(key, value);
+
+		return this;
+	}
+
+	public boolean hasValue(String key)
+	{
+		return values.get(key) != null;
+	}
+
+	public Object getValue(String key)
+	{
+		return values.get(key);
+	}
+
+	public String getString(String key)
+	{
+		Object value = values.get(key);
+
+		return (value != null) ? value.toString() : null;
+	}
+
+	public long getLong(String key, long defaultValue)
+	{
+		Object value = values.get(key);
+
+		long result = defaultValue;
+
+		if (value instanceof Number)
+		{
+			result = ((Number) value).longValue();
+		}
+		else if (value instanceof Character)
+		{
+			result = (Character) value;
+		}
+
+		return result;
+	}
+
+	public boolean getBoolean(String key, boolean defaultValue)
+	{
+		Object value = values.get(key);
+
+		return (value instanceof Boolean) ? (Boolean) value : defaultValue;
+	}
+
+	public JFRMethod getMethod(String key)
+	{
+		Object value = values.get(key);
+
+		return (value instanceof JFRMethod) ? (JFRMethod) value : null;
+	}
+
+	@Override
+	public String toString()
+	{
+		return name + " " + startNanos + " " + durationNanos + " " + values;
+	}
+}
@@ -0,0 +1,581 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.parser.jfr;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BYTES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILER;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILE_ID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILE_KIND;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_INLINED_BYTES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_LEVEL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NMSIZE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_SUCCESS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C1;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C2;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.JVMCI;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.OSR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_FAILURE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_NMETHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_DONE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_QUEUED;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.adoptopenjdk.jitwatch.core.IJITListener;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent.CodeCacheEventType;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.CompilerThread;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent.DeoptEventType;
+import org.adoptopenjdk.jitwatch.model.EventType;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.adoptopenjdk.jitwatch.parser.AbstractLogParser;
+import org.adoptopenjdk.jitwatch.parser.InliningTreeBuilder;
+
+/*
+ * Builds the model from the JIT events of a JFR recording
+ * (java -XX:StartFlightRecording:settings=profile,filename=app.jfr).
+ *
+ * Each jdk.Compilation event becomes a Compilation holding synthetic
+ * task_queued, nmethod and task tags so the rest of JITWatch reads it like a
+ * LogCompilation compile. JFR does not record queueing so the queued stamp is
+ * the start of the compilation. jdk.CompilerInlining decisions are turned
+ * into a parse tree by InliningTreeBuilder.
+ *
+ * Stamps are milliseconds from the first event in the recording.
+ */
+public class JFRLogParser extends AbstractLogParser
+{
+	public static final String EVENT_COMPILATION = "jdk.Compilation";
+	public static final String EVENT_COMPILATION_FAILURE = "jdk.CompilationFailure";
+	public static final String EVENT_COMPILER_INLINING = "jdk.CompilerInlining";
+	public static final String EVENT_DEOPTIMIZATION = "jdk.Deoptimization";
+	public static final String EVENT_CODE_CACHE_FULL = "jdk.CodeCacheFull";
+	public static final String EVENT_CODE_CACHE_STATISTICS = "jdk.CodeCacheStatistics";
+	public static final String EVENT_CODE_SWEEPER_STATISTICS = "jdk.CodeSweeperStatistics";
+
+	private static final Set<String> EVENT_NAMES = new HashSet<>(Arrays.asList(EVENT_COMPILATION,
+			EVENT_COMPILATION_FAILURE, EVENT_COMPILER_INLINING, EVENT_DEOPTIMIZATION, EVENT_CODE_CACHE_FULL,
+			EVENT_CODE_CACHE_STATISTICS, EVENT_CODE_SWEEPER_STATISTICS));
+
+	private static final String FIELD_COMPILE_ID = "compileId";
+	private static final String FIELD_COMPILER = "compiler";
+	private static final String FIELD_COMPILE_LEVEL = "compileLevel";
+	private static final String FIELD_METHOD = "method";
+	private static final String FIELD_SUCCEEDED = "succeeded";
+	// spelling of the jdk.Compilation field
+	private static final String FIELD_SUCCEDED = "succeded";
+	private static final String FIELD_IS_OSR = "isOsr";
+	private static final String FIELD_CODE_SIZE = "codeSize";
+	private static final String FIELD_INLINED_BYTES = "inlinedBytes";
+	private static final String FIELD_FAILURE_MESSAGE = "failureMessage";
+	private static final String FIELD_CALLER = "caller";
+	private static final String FIELD_CALLEE = "callee";
+	private static final String FIELD_MESSAGE = "message";
+	private static final String FIELD_BCI = "bci";
+	private static final String FIELD_REASON = "reason";
+	private static final String FIELD_ACTION = "action";
+	private static final String FIELD_CODE_BLOB_TYPE = "codeBlobType";
+	private static final String FIELD_UNALLOCATED_CAPACITY = "unallocatedCapacity";
+	private static final String FIELD_EVENT_THREAD = "eventThread";
+
+	private static final Comparator<JFREvent> START_COMPARATOR = new Comparator<JFREvent>()
+	{
+		@Override
+		public int compare(JFREvent e1, JFREvent e2)
+		{
+			return Long.compare(e1.getStartNanos(), e2.getStartNanos());
+		}
+	};
+
+	private File logFile;
+
+	private long baseNanos;
+
+	private final Map<String, String> failureMessages = new HashMap<>();
+
+	private final Map<String, List<JFREvent>> inliningEvents = new HashMap<>();
+
+	// unallocated capacity of each code heap from the latest statistics
+	private final Map<String, Long> unallocatedCapacity = new HashMap<>();
+
+	private long freeCodeCache = -1;
+
+	private final List<JITEvent> jitEvents = new ArrayList<>();
+
+	private final List<CodeCacheEvent> codeCacheEvents = new ArrayList<>();
+
+	public JFRLogParser(IJITListener jitListener)
+	{
+		super(jitListener);
+	}
+
+	@Override
+	public void reset()
+	{
+		super.reset();
+
+		clearState();
+	}
+
+	private void clearState()
+	{
+		baseNanos = 0;
+		failureMessages.clear();
+		inliningEvents.clear();
+		unallocatedCapacity.clear();
+		freeCodeCache = -1;
+		jitEvents.clear();
+		codeCacheEvents.clear();
+	}
+
+	@Override
+	protected void splitLogFile(File logFile)
+	{
+		this.logFile = logFile;
+	}
+
+	@Override
+	protected void parseLogFile()
+	{
+		if (logFile == null)
+		{
+			return;
+		}
+
+		try
+		{
+			List<JFREvent> events = new JFRRecordingReader().readEvents(logFile, EVENT_NAMES);
+
+			processEvents(events);
+		}
+		catch (IOException ioe)
+		{
+			logger.error("Could not read JFR recording {}", logFile, ioe);
+
+			hasParseError = true;
+			errorDialogTitle = "Could not read JFR recording";
+			errorDialogBody = ioe.getMessage();
+
+			logError("Could not read JFR recording " + logFile + " : " + ioe.getMessage());
+		}
+	}
+
+	public void processEvents(List<JFREvent> events)
+	{
+		clearState();
+
+		reading = true;
+
+		List<JFREvent> sorted = new ArrayList<>(events);
+
+		// stable so inlining decisions with equal stamps keep file order
+		Collections.sort(sorted, START_COMPARATOR);
+
+		if (!sorted.isEmpty())
+		{
+			baseNanos = sorted.get(0).getStartNanos();
+		}
+
+		for (JFREvent event : sorted)
+		{
+			switch (event.getName())
+			{
+			case EVENT_COMPILATION_FAILURE:
+				failureMessages.put(getCompileID(event), event.getString(FIELD_FAILURE_MESSAGE));
+				break;
+
+			case EVENT_COMPILER_INLINING:
+			{
+				String compileID = getCompileID(event);
+
+				List<JFREvent> decisions = inliningEvents.get(compileID);
+
+				if (decisions == null)
+				{
+					decisions = new ArrayList<>();
+					inliningEvents.put(compileID, decisions);
+				}
+
+				decisions.add(event);
+				break;
+			}
+
+			default:
+				break;
+			}
+		}
+
+		for (JFREvent event : sorted)
+		{
+			if (!reading)
+			{
+				break;
+			}
+
+			processLineNumber = parseLineNumber++;
+
+			try
+			{
+				switch (event.getName())
+				{
+				case EVENT_COMPILATION:
+					handleCompilation(event);
+					break;
+
+				case EVENT_DEOPTIMIZATION:
+					handleDeoptimization(event);
+					break;
+
+				case EVENT_CODE_CACHE_STATISTICS:
+					handleCodeCacheStatistics(event);
+					break;
+
+				case EVENT_CODE_CACHE_FULL:
+					handleCodeCacheStatistics(event);
+					addCodeCacheEvent(CodeCacheEventType.CACHE_FULL, getStamp(event.getStartNanos()), 0, null);
+					break;
+
+				case EVENT_CODE_SWEEPER_STATISTICS:
+					addCodeCacheEvent(CodeCacheEventType.SWEEPER, getStamp(event.getStartNanos()), 0, null);
+					break;
+
+				default:
+					break;
+				}
+			}
+			catch (Exception ex)
+			{
+				logger.error("Exception handling JFR event {}", event, ex);
+			}
+		}
+
+		// compilations are visited by start time but complete out of order
+		Collections.sort(jitEvents, new Comparator<JITEvent>()
+		{
+			@Override
+			public int compare(JITEvent e1, JITEvent e2)
+			{
+				return Long.compare(e1.getStamp(), e2.getStamp());
+			}
+		});
+
+		for (JITEvent event : jitEvents)
+		{
+			model.addEvent(event);
+			logEvent(event);
+		}
+
+		Collections.sort(codeCacheEvents, new Comparator<CodeCacheEvent>()
+		{
+			@Override
+			public int compare(CodeCacheEvent e1, CodeCacheEvent e2)
+			{
+				return Long.compare(e1.getStamp(), e2.getStamp());
+			}
+		});
+
+		for (CodeCacheEvent event : codeCacheEvents)
+		{
+			model.addCodeCacheEvent(event);
+		}
+
+		jitEvents.clear();
+		codeCacheEvents.clear();
+	}
+
+	@Override
+	protected void handleTag(Tag tag)
+	{
+		// a recording contains no LogCompilation tags
+	}
+
+	private void handleCompilation(JFREvent event)
+	{
+		JFRMethod method = event.getMethod(FIELD_METHOD);
+
+		if (method == null)
+		{
+			return;
+		}
+
+		IMetaMember member = findMemberWithSignature(method.getLogCompilationSignature());
+
+		if (member == null)
+		{
+			return;
+		}
+
+		String compileID = getCompileID(event);
+
+		int level = (int) event.getLong(FIELD_COMPILE_LEVEL, -1);
+
+		String compiler = getCompiler(event.getString(FIELD_COMPILER), level);
+
+		boolean succeeded = event.hasValue(FIELD_SUCCEDED) ? event.getBoolean(FIELD_SUCCEDED, true)
+				: event.getBoolean(FIELD_SUCCEEDED, true);
+
+		String compileKind = event.getBoolean(FIELD_IS_OSR, false) ? OSR : null;
+
+		long codeSize = event.getLong(FIELD_CODE_SIZE, 0);
+
+		long startMillis = getStamp(event.getStartNanos());
+		long endMillis = getStamp(event.getEndNanos());
+
+		String startStamp = formatStamp(startMillis);
+		String endStamp = formatStamp(endMillis);
+
+		String levelString = (level >= 0) ? Integer.toString(level) : null;
+
+		String signature = method.getTagSignature();
+
+		Compilation compilation = new Compilation(member, member.getCompilations().size());
+
+		compilation.setTagTaskQueued(buildTag(TAG_TASK_QUEUED, ATTR_COMPILE_ID, compileID, ATTR_METHOD, signature,
+				ATTR_COMPILER, compiler, ATTR_LEVEL, levelString, ATTR_COMPILE_KIND, compileKind, ATTR_STAMP, startStamp));
+
+		member.storeCompilation(compilation);
+
+		storeCompilationByCompileID(compilation);
+
+		jitEvents.add(new JITEvent(startMillis, EventType.QUEUE, member));
+
+		if (succeeded)
+		{
+			compilation.setTagNMethod(buildTag(TAG_NMETHOD, ATTR_COMPILE_ID, compileID, ATTR_METHOD, signature, ATTR_COMPILER,
+					compiler, ATTR_LEVEL, levelString, ATTR_COMPILE_KIND, compileKind, ATTR_STAMP, endStamp));
+
+			member.setCompiled(true);
+			member.getMetaClass().getPackage().setHasCompiledClasses();
+			member.getMetaClass().incCompiledMethodCount();
+
+			model.updateStats(member, compiler, compileKind, compileID);
+
+			jitEvents.add(new JITEvent(endMillis, getEventType(compiler), member));
+		}
+
+		String[] taskNames = new String[] { ATTR_COMPILE_ID, ATTR_METHOD, ATTR_BYTES, ATTR_STAMP };
+		String[] taskValues = new String[] { compileID, signature, "0", startStamp };
+
+		Task task = new Task(taskNames, taskValues, false);
+
+		String failureMessage = failureMessages.get(compileID);
+
+		if (!succeeded)
+		{
+			task.addChild(buildTag(TAG_FAILURE, ATTR_REASON, (failureMessage != null) ? failureMessage : "unknown"));
+		}
+
+		addInlining(task, method, compileID);
+
+		Tag tagTaskDone = buildTag(TAG_TASK_DONE, ATTR_SUCCESS, succeeded ? "1" : "0", ATTR_NMSIZE, Long.toString(codeSize),
+				ATTR_INLINED_BYTES, Long.toString(event.getLong(FIELD_INLINED_BYTES, 0)), ATTR_STAMP, endStamp);
+
+		task.addChild(tagTaskDone);
+
+		compilation.setTagTask(task);
+		compilation.setTagTaskDone(tagTaskDone);
+
+		CompilerThread compilerThread = getCompilerThread(event);
+
+		compilerThread.addCompilation(compilation);
+		compilation.setCompilerThread(compilerThread);
+
+		if (succeeded)
+		{
+			model.addNativeBytes(codeSize);
+
+			if (freeCodeCache >= 0)
+			{
+				freeCodeCache = Math.max(0, freeCodeCache - codeSize);
+
+				addCodeCacheEvent(CodeCacheEventType.COMPILATION, endMillis, codeSize, compilation);
+			}
+		}
+	}
+
+	private void addInlining(Task task, JFRMethod method, String compileID)
+	{
+		List<JFREvent> decisions = inliningEvents.get(compileID);
+
+		if (decisions == null)
+		{
+			return;
+		}
+
+		try
+		{
+			InliningTreeBuilder builder = new InliningTreeBuilder(task, method.toMemberSignatureParts());
+
+			for (JFREvent decision : decisions)
+			{
+				JFRMethod caller = decision.getMethod(FIELD_CALLER);
+				JFRMethod callee = decision.getMethod(FIELD_CALLEE);
+
+				if (callee != null)
+				{
+					MemberSignatureParts callerMSP = (caller != null) ? caller.toMemberSignatureParts() : null;
+
+					builder.addDecision(callerMSP, callee.toMemberSignatureParts(), (int) decision.getLong(FIELD_BCI, -1), 0,
+							decision.getBoolean(FIELD_SUCCEEDED, false), decision.getString(FIELD_MESSAGE));
+				}
+			}
+		}
+		catch (LogParseException lpe)
+		{
+			logger.warn("Could not build inlining tree for compile ID {}", compileID, lpe);
+		}
+	}
+
+	private void handleDeoptimization(JFREvent event)
+	{
+		String compileID = getCompileID(event);
+
+		DeoptEvent deoptEvent = new DeoptEvent(DeoptEventType.UNCOMMON_TRAP, getStamp(event.getStartNanos()), compileID);
+
+		deoptEvent.setCompilation(compilationsByCompileID.get(compileID));
+		deoptEvent.setReason(event.getString(FIELD_REASON));
+		deoptEvent.setAction(event.getString(FIELD_ACTION));
+		deoptEvent.setBCI((int) event.getLong(FIELD_BCI, -1));
+
+		JFRMethod method = event.getMethod(FIELD_METHOD);
+
+		if (method != null)
+		{
+			deoptEvent.setTrapMethod(method.getTagSignature());
+		}
+
+		model.addDeoptEvent(deoptEvent);
+	}
+
+	/*
+	 * JFR only samples the code heaps at chunk boundaries so between samples
+	 * the free space is estimated by subtracting the size of each new nmethod
+	 */
+	private void handleCodeCacheStatistics(JFREvent event)
+	{
+		if (!event.hasValue(FIELD_UNALLOCATED_CAPACITY))
+		{
+			return;
+		}
+
+		String blobType = event.getString(FIELD_CODE_BLOB_TYPE);
+
+		unallocatedCapacity.put(blobType, event.getLong(FIELD_UNALLOCATED_CAPACITY, 0));
+
+		long total = 0;
+
+		for (Long capacity : unallocatedCapacity.values())
+		{
+			total += capacity;
+		}
+
+		freeCodeCache = total;
+	}
+
+	private void addCodeCacheEvent(CodeCacheEventType eventType, long stamp, long nativeCodeSize, Compilation compilation)
+	{
+		CodeCacheEvent codeCacheEvent = new CodeCacheEvent(eventType, stamp, nativeCodeSize, Math.max(0, freeCodeCache));
+
+		if (compilation != null)
+		{
+			codeCacheEvent.setCompilation(compilation);
+		}
+
+		codeCacheEvents.add(codeCacheEvent);
+	}
+
+	private CompilerThread getCompilerThread(JFREvent event)
+	{
+		String threadName = event.getString(FIELD_EVENT_THREAD);
+
+		if (threadName == null)
+		{
+			threadName = "JFR";
+		}
+
+		CompilerThread thread = model.getCompilerThread(threadName);
+
+		if (thread == null)
+		{
+			thread = model.createCompilerThread(threadName, threadName);
+		}
+
+		return thread;
+	}
+
+	private long getStamp(long nanos)
+	{
+		return (nanos - baseNanos) / 1_000_000;
+	}
+
+	private static String getCompileID(JFREvent event)
+	{
+		return Long.toString(event.getLong(FIELD_COMPILE_ID, -1));
+	}
+
+	/*
+	 * JDK 11 to 13 recordings have no compiler field, tiers 1 to 3 are C1
+	 */
+	private static String getCompiler(String compiler, int level)
+	{
+		String result;
+
+		if (compiler != null && compiler.length() > 0)
+		{
+			result = compiler.toLowerCase();
+		}
+		else if (level >= 1 && level <= 3)
+		{
+			result = C1.toLowerCase();
+		}
+		else
+		{
+			result = C2.toLowerCase();
+		}
+
+		return result;
+	}
+
+	private static EventType getEventType(String compiler)
+	{
+		EventType result;
+
+		if (C1.equalsIgnoreCase(compiler))
+		{
+			result = EventType.NMETHOD_C1;
+		}
+		else if (JVMCI.equalsIgnoreCase(compiler))
+		{
+			result = EventType.NMETHOD_JVMCI;
+		}
+		else
+		{
+			result = EventType.NMETHOD_C2;
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.parser.jfr;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_DOT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SLASH;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
+
+import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
+
+/*
+ * A method as recorded by JFR: class name, method name and JVM descriptor
+ */
+public class JFRMethod
+{
+	private final String className;
+
+	private final String methodName;
+
+	private final String descriptor;
+
+	public JFRMethod(String className, String methodName, String descriptor)
+	{
+		this.className = className.replace(C_SLASH, C_DOT);
+		this.methodName = methodName;
+		this.descriptor = descriptor;
+	}
+
+	public String getClassName()
+	{
+		return className;
+	}
+
+	public String getMethodName()
+	{
+		return methodName;
+	}
+
+	public String getDescriptor()
+	{
+		return descriptor;
+	}
+
+	/*
+	 * The method attribute format of LogCompilation tags
+	 * java/lang/String charAt (I)C
+	 */
+	public String getTagSignature()
+	{
+		return className.replace(C_DOT, C_SLASH) + C_SPACE + methodName + C_SPACE + descriptor;
+	}
+
+	/*
+	 * The signature format expected by ParseUtil.findMemberWithSignature()
+	 * java.lang.String charAt (I)C
+	 */
+	public String getLogCompilationSignature()
+	{
+		return getTagSignature().replace(C_SLASH, C_DOT);
+	}
+
+	public MemberSignatureParts toMemberSignatureParts() throws LogParseException
+	{
+		return MemberSignatureParts.fromLogCompilationSignature(getLogCompilationSignature());
+	}
+
+	@Override
+	public String toString()
+	{
+		return getLogCompilationSignature();
+	}
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.parser.jfr;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Reads a .jfr recording with the jdk.jfr.consumer API (JDK 11+, 8u262+).
+ *
+ * JITWatch is built for Java 7 so the API is called by reflection and each
+ * wanted event is copied into a JFREvent. The API methods are looked up on
+ * the public API classes, not the classes of the returned objects, so the
+ * calls are permitted by the jdk.jfr module exports.
+ */
+public class JFRRecordingReader
+{
+	private static final String FIELD_START_TIME = "startTime";
+	private static final String FIELD_DURATION = "duration";
+	private static final String FIELD_STACK_TRACE = "stackTrace";
+
+	private static final String FIELD_TYPE = "type";
+	private static final String FIELD_NAME = "name";
+	private static final String FIELD_DESCRIPTOR = "descriptor";
+
+	private final Constructor<?> ctorRecordingFile;
+	private final Method methodHasMoreEvents;
+	private final Method methodReadEvent;
+	private final Method methodClose;
+
+	private final Class<?> classRecordedObject;
+	private final Class<?> classRecordedMethod;
+	private final Class<?> classRecordedClass;
+	private final Class<?> classRecordedThread;
+	private final Class<?> classInstant;
+	private final Class<?> classDuration;
+
+	private final Method methodGetEventType;
+	private final Method methodEventTypeGetName;
+	private final Method methodGetStartTime;
+	private final Method methodGetDuration;
+	private final Method methodGetFields;
+	private final Method methodValueDescriptorGetName;
+	private final Method methodGetValue;
+
+	private final Method methodMethodGetType;
+	private final Method methodMethodGetName;
+	private final Method methodMethodGetDescriptor;
+	private final Method methodClassGetName;
+	private final Method methodThreadGetJavaName;
+	private final Method methodThreadGetOSName;
+
+	private final Method methodInstantGetEpochSecond;
+	private final Method methodInstantGetNano;
+	private final Method methodDurationToNanos;
+
+	public JFRRecordingReader() throws IOException
+	{
+		try
+		{
+			Class<?> classRecordingFile = Class.forName("jdk.jfr.consumer.RecordingFile");
+
+			ctorRecordingFile = classRecordingFile.getConstructor(Path.class);
+			methodHasMoreEvents = classRecordingFile.getMethod("hasMoreEvents");
+			methodReadEvent = classRecordingFile.getMethod("readEvent");
+			methodClose = classRecordingFile.getMethod("close");
+
+			classRecordedObject = Class.forName("jdk.jfr.consumer.RecordedObject");
+			classRecordedMethod = Class.forName("jdk.jfr.consumer.RecordedMethod");
+			classRecordedClass = Class.forName("jdk.jfr.consumer.RecordedClass");
+			classRecordedThread = Class.forName("jdk.jfr.consumer.RecordedThread");
+			classInstant = Class.forName("java.time.Instant");
+			classDuration = Class.forName("java.time.Duration");
+
+			Class<?> classRecordedEvent = Class.forName("jdk.jfr.consumer.RecordedEvent");
+
+			methodGetEventType = classRecordedEvent.getMethod("getEventType");
+			methodEventTypeGetName = Class.forName("jdk.jfr.EventType").getMethod("getName");
+			methodGetStartTime = classRecordedEvent.getMethod("getStartTime");
+			methodGetDuration = classRecordedEvent.getMethod("getDuration");
+
+			methodGetFields = classRecordedObject.getMethod("getFields");
+			methodValueDescriptorGetName = Class.forName("jdk.jfr.ValueDescriptor").getMethod("getName");
+			methodGetValue = classRecordedObject.getMethod("getValue", String.class);
+
+			methodMethodGetType = classRecordedMethod.getMethod("getType");
+			methodMethodGetName = classRecordedMethod.getMethod("getName");
+			methodMethodGetDescriptor = classRecordedMethod.getMethod("getDescriptor");
+			methodClassGetName = classRecordedClass.getMethod("getName");
+			methodThreadGetJavaName = classRecordedThread.getMethod("getJavaName");
+			methodThreadGetOSName = classRecordedThread.getMethod("getOSName");
+
+			methodInstantGetEpochSecond = classInstant.getMethod("getEpochSecond");
+			methodInstantGetNano = classInstant.getMethod("getNano");
+			methodDurationToNanos = classDuration.getMethod("toNanos");
+		}
+		catch (ClassNotFoundException | NoSuchMethodException e)
+		{
+			throw new IOException("The JFR consumer API (jdk.jfr.consumer) is not available in this JVM", e);
+		}
+	}
+
+	public static boolean isAvailable()
+	{
+		boolean available = false;
+
+		try
+		{
+			Class.forName("jdk.jfr.consumer.RecordingFile");
+			available = true;
+		}
+		catch (ClassNotFoundException cnfe)
+		{
+		}
+
+		return available;
+	}
+
+	/*
+	 * Reads the events whose type name is in eventNames, in file order
+	 */
+	public List<JFREvent> readEvents(File file, Set<String> eventNames) throws IOException
+	{
+		List<JFREvent> result = new ArrayList<>();
+
+		Object recordingFile = null;
+
+		try
+		{
+			recordingFile = ctorRecordingFile.newInstance(file.toPath());
+
+			while ((Boolean) methodHasMoreEvents.invoke(recordingFile))
+			{
+				Object recordedEvent = methodReadEvent.invoke(recordingFile);
+
+				String name = (String) methodEventTypeGetName.invoke(methodGetEventType.invoke(recordedEvent));
+
+				if (eventNames.contains(name))
+				{
+					result.add(convertEvent(name, recordedEvent));
+				}
+			}
+		}
+		catch (InvocationTargetException ite)
+		{
+			Throwable cause = ite.getCause();
+
+			if (cause instanceof IOException)
+			{
+				throw (IOException) cause;
+			}
+
+			throw new IOException("Could not read JFR recording " + file, cause);
+		}
+		catch (ReflectiveOperationException roe)
+		{
+			throw new IOException("Could not read JFR recording " + file, roe);
+		}
+		finally
+		{
+			if (recordingFile != null)
+			{
+				try
+				{
+					methodClose.invoke(recordingFile);
+				}
+				catch (ReflectiveOperationException roe)
+				{
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private JFREvent convertEvent(String name, Object recordedEvent) throws ReflectiveOperationException
+	{
+		long startNanos = toNanos(methodGetStartTime.invoke(recordedEvent));
+		long durationNanos = toNanos(methodGetDuration.invoke(recordedEvent));
+
+		JFREvent event = new JFREvent(name, startNanos, durationNanos);
+
+		for (Map.Entry<String, Object> entry : getFields(recordedEvent).entrySet())
+		{
+			String fieldName = entry.getKey();
+
+			if (!FIELD_START_TIME.equals(fieldName) && !FIELD_DURATION.equals(fieldName) && !FIELD_STACK_TRACE.equals(fieldName))
+			{
+				event.setValue(fieldName, entry.getValue());
+			}
+		}
+
+		return event;
+	}
+
+	private Map<String, Object> getFields(Object recordedObject) throws ReflectiveOperationException
+	{
+		Map<String, Object> result = new HashMap<>();
+
+		for (Object descriptor : (List<?>) methodGetFields.invoke(recordedObject))
+		{
+			String fieldName = (String) methodValueDescriptorGetName.invoke(descriptor);
+
+			if (!FIELD_STACK_TRACE.equals(fieldName))
+			{
+				result.put(fieldName, convertValue(methodGetValue.invoke(recordedObject, fieldName)));
+			}
+		}
+
+		return result;
+	}
+
+	private Object convertValue(Object value) throws ReflectiveOperationException
+	{
+		Object result = value;
+
+		// isInstance() is false for null values which are returned unchanged
+		if (classRecordedMethod.isInstance(value))
+		{
+			Object type = methodMethodGetType.invoke(value);
+
+			String className = (type != null) ? (String) methodClassGetName.invoke(type) : "";
+
+			result = new JFRMethod(className, (String) methodMethodGetName.invoke(value),
+					(String) methodMethodGetDescriptor.invoke(value));
+		}
+		else if (classRecordedClass.isInstance(value))
+		{
+			result = methodClassGetName.invoke(value);
+		}
+		else if (classRecordedThread.isInstance(value))
+		{
+			result = methodThreadGetJavaName.invoke(value);
+
+			if (result == null)
+			{
+				result = methodThreadGetOSName.invoke(value);
+			}
+		}
+		else if (classRecordedObject.isInstance(value))
+		{
+			// structs such as the jdk.types.CalleeMethod of jdk.CompilerInlining
+			Map<String, Object> fields = getFields(value);
+
+			Object type = fields.get(FIELD_TYPE);
+			Object name = fields.get(FIELD_NAME);
+			Object descriptor = fields.get(FIELD_DESCRIPTOR);
+
+			if (type != null && name != null && descriptor != null)
+			{
+				result = new JFRMethod(type.toString(), name.toString(), descriptor.toString());
+			}
+			else
+			{
+				result = value.toString();
+			}
+		}
+		else if (classInstant.isInstance(value) || classDuration.isInstance(value))
+		{
+			result = toNanos(value);
+		}
+
+		return result;
+	}
+
+	private long toNanos(Object timeValue) throws ReflectiveOperationException
+	{
+		long result = 0;
+
+		if (classDuration.isInstance(timeValue))
+		{
+			result = (Long) methodDurationToNanos.invoke(timeValue);
+		}
+		else if (classInstant.isInstance(timeValue))
+		{
+			long seconds = (Long) methodInstantGetEpochSecond.invoke(timeValue);
+			int nanos = (Integer) methodInstantGetNano.invoke(timeValue);
+
+			result = seconds * 1_000_000_000L + nanos;
+		}
+
+		return result;
+	}
+}
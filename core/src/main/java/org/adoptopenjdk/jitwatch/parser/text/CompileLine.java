@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.parser.text;
+
+/*
+ * One compile task line as printed by -XX:+PrintCompilation and
+ * -Xlog:jit+compilation=debug
+ *
+ *    149   42 %  !   4       java.lang.String::indexOf @ 10 (70 bytes)   made not entrant
+ *
+ * timestamp (PrintCompilation only), compile ID, attribute flags, tier,
+ * method, OSR bci, bytecode size and an optional event message
+ */
+public class CompileLine
+{
+	public static final String MADE_NOT_ENTRANT = "made not entrant";
+	public static final String MADE_ZOMBIE = "made zombie";
+	public static final String COMPILE_SKIPPED = "COMPILE SKIPPED";
+
+	private long timestamp = -1;
+
+	private String compileID;
+
+	private String flags = "";
+
+	private int level = -1;
+
+	private String className;
+
+	private String methodName;
+
+	private int osrBCI = -1;
+
+	private int bytes = -1;
+
+	private String message;
+
+	public long getTimestamp()
+	{
+		return timestamp;
+	}
+
+	public void setTimestamp(long timestamp)
+	{
+		this.timestamp = timestamp;
+	}
+
+	public String getCompileID()
+	{
+		return compileID;
+	}
+
+	public void setCompileID(String compileID)
+	{
+		this.compileID = compileID;
+	}
+
+	public String getFlags()
+	{
+		return flags;
+	}
+
+	public void setFlags(String flags)
+	{
+		this.flags = flags;
+	}
+
+	public int getLevel()
+	{
+		return level;
+	}
+
+	public void setLevel(int level)
+	{
+		this.level = level;
+	}
+
+	public String getClassName()
+	{
+		return className;
+	}
+
+	public void setClassName(String className)
+	{
+		this.className = className;
+	}
+
+	public String getMethodName()
+	{
+		return methodName;
+	}
+
+	public void setMethodName(String methodName)
+	{
+		this.methodName = methodName;
+	}
+
+	public int getOSRBCI()
+	{
+		return osrBCI;
+	}
+
+	public void setOSRBCI(int osrBCI)
+	{
+		this.osrBCI = osrBCI;
+	}
+
+	public int getBytes()
+	{
+		return bytes;
+	}
+
+	public void setBytes(int bytes)
+	{
+		this.bytes = bytes;
+	}
+
+	public String getMessage()
+	{
+		return message;
+	}
+
+	public void setMessage(String message)
+	{
+		this.message = message;
+	}
+
+	public boolean isOSR()
+	{
+		return flags.indexOf('%') != -1;
+	}
+
+	public boolean isNative()
+	{
+		return flags.indexOf('n') != -1;
+	}
+
+	public boolean isMadeNotEntrant()
+	{
+		return message != null && message.startsWith(MADE_NOT_ENTRANT);
+	}
+
+	public boolean isMadeZombie()
+	{
+		return message != null && message.startsWith(MADE_ZOMBIE);
+	}
+
+	public boolean isSkipped()
+	{
+		return message != null && message.startsWith(COMPILE_SKIPPED);
+	}
+
+	/*
+	 * The reason following COMPILE SKIPPED:
+	 */
+	public String getSkipReason()
+	{
+		String result = null;
+
+		if (isSkipped())
+		{
+			result = message.substring(COMPILE_SKIPPED.length());
+
+			if (result.startsWith(":"))
+			{
+				result = result.substring(1);
+			}
+
+			result = result.trim();
+		}
+
+		return result;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "CompileLine [timestamp=" + timestamp + ", compileID=" + compileID + ", flags=" + flags + ", level=" + level
+				+ ", className=" + className + ", methodName=" + methodName + ", osrBCI=" + osrBCI + ", bytes=" + bytes
+				+ ", message=" + message + "]";
+	}
+}
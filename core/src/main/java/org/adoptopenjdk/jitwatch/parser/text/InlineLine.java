@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.parser.text;
+
+/*
+ * One inlining decision as printed by -XX:+PrintInlining and
+ * -Xlog:jit+inlining=debug
+ *
+ *                             @ 12   java.lang.StringLatin1::hashCode (42 bytes)   inline (hot)
+ *
+ * The column of the '@' gives the inlining depth, two characters per level.
+ */
+public class InlineLine
+{
+	private final int indent;
+
+	private final int bci;
+
+	private final String className;
+
+	private final String methodName;
+
+	private final int bytes;
+
+	private final boolean inlined;
+
+	private final String reason;
+
+	public InlineLine(int indent, int bci, String className, String methodName, int bytes, boolean inlined, String reason)
+	{
+		this.indent = indent;
+		this.bci = bci;
+		this.className = className;
+		this.methodName = methodName;
+		this.bytes = bytes;
+		this.inlined = inlined;
+		this.reason = reason;
+	}
+
+	public int getIndent()
+	{
+		return indent;
+	}
+
+	public int getBCI()
+	{
+		return bci;
+	}
+
+	public String getClassName()
+	{
+		return className;
+	}
+
+	public String getMethodName()
+	{
+		return methodName;
+	}
+
+	public int getBytes()
+	{
+		return bytes;
+	}
+
+	public boolean isInlined()
+	{
+		return inlined;
+	}
+
+	public String getReason()
+	{
+		return reason;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "InlineLine [indent=" + indent + ", bci=" + bci + ", className=" + className + ", methodName=" + methodName
+				+ ", bytes=" + bytes + ", inlined=" + inlined + ", reason=" + reason + "]";
+	}
+}
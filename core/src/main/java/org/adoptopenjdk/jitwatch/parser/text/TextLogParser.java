@@ -0,0 +1,571 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.parser.text;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BYTES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILER;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILE_ID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILE_KIND;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_LEVEL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_OSR_BCI;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C1;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C2;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C2N;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.OSR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_CONSTRUCTOR_INIT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_FAILURE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_NMETHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_QUEUED;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.core.IJITListener;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent.DeoptEventType;
+import org.adoptopenjdk.jitwatch.model.EventType;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
+import org.adoptopenjdk.jitwatch.model.MetaClass;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.adoptopenjdk.jitwatch.model.bytecode.MemberBytecode;
+import org.adoptopenjdk.jitwatch.parser.AbstractLogParser;
+import org.adoptopenjdk.jitwatch.parser.InliningTreeBuilder;
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
+
+/*
+ * Streams the text output of -XX:+PrintCompilation (optionally with
+ * -XX:+PrintInlining) and of unified logging -Xlog:jit+compilation=debug,
+ * jit+inlining=debug into the model. Both formats can appear in one file, a
+ * line with [uptime][level][tags] decorations is read as unified logging.
+ *
+ * The logs name methods without descriptors so members are found by class
+ * and name, overloads are told apart by bytecode size. Native code sizes
+ * are not logged.
+ *
+ * Inlining decisions are attached to the last compile task line, as
+ * PrintInlining prints them after the task they belong to.
+ *
+ * A task line is printed when compilation starts and a failed compile is
+ * only reported by a later COMPILE SKIPPED line, so nmethods are installed
+ * and the JIT events published once the whole log has been read.
+ */
+public class TextLogParser extends AbstractLogParser
+{
+	private static final String UL_TAG_JIT = "jit";
+
+	private static final String[] UL_LEVELS = new String[] { "trace", "debug", "info", "warning", "error" };
+
+	private File logFile;
+
+	// last uptime decoration in milliseconds
+	private long uptimeMillis;
+
+	private Compilation currentCompilation;
+
+	private InliningTreeBuilder currentBuilder;
+
+	private int inlineBaseIndent;
+
+	// member lookups by class::name bytes, null results are cached too
+	private final Map<String, IMetaMember> memberCache = new HashMap<>();
+
+	// compilations without a COMPILE SKIPPED line so far and their nmethod event type
+	private final Map<Compilation, EventType> pendingNMethods = new LinkedHashMap<>();
+
+	private final List<JITEvent> jitEvents = new ArrayList<>();
+
+	public TextLogParser(IJITListener jitListener)
+	{
+		super(jitListener);
+	}
+
+	@Override
+	public void reset()
+	{
+		super.reset();
+
+		uptimeMillis = 0;
+		currentCompilation = null;
+		currentBuilder = null;
+		memberCache.clear();
+		pendingNMethods.clear();
+		jitEvents.clear();
+	}
+
+	@Override
+	protected void splitLogFile(File logFile)
+	{
+		this.logFile = logFile;
+	}
+
+	@Override
+	protected void parseLogFile()
+	{
+		if (logFile == null)
+		{
+			return;
+		}
+
+		reading = true;
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(logFile), 65536))
+		{
+			String currentLine = reader.readLine();
+
+			while (reading && currentLine != null)
+			{
+				processLineNumber = parseLineNumber++;
+
+				try
+				{
+					handleLine(currentLine);
+				}
+				catch (Exception ex)
+				{
+					logger.error("Exception handling: '{}'", currentLine, ex);
+				}
+
+				currentLine = reader.readLine();
+			}
+		}
+		catch (IOException ioe)
+		{
+			logger.error("Exception while reading log file", ioe);
+		}
+
+		for (Map.Entry<Compilation, EventType> entry : pendingNMethods.entrySet())
+		{
+			installNMethod(entry.getKey(), entry.getValue());
+		}
+
+		pendingNMethods.clear();
+
+		// nmethod events were added after the rest so restore time order
+		Collections.sort(jitEvents, new Comparator<JITEvent>()
+		{
+			@Override
+			public int compare(JITEvent e1, JITEvent e2)
+			{
+				return Long.compare(e1.getStamp(), e2.getStamp());
+			}
+		});
+
+		for (JITEvent event : jitEvents)
+		{
+			model.addEvent(event);
+			logEvent(event);
+		}
+
+		jitEvents.clear();
+	}
+
+	public void handleLine(String line)
+	{
+		String body = line;
+
+		boolean decorated = false;
+
+		boolean jitTags = true;
+
+		// unified logging decorations such as [0.123s][debug][jit,compilation]
+		while (body.length() > 0 && body.charAt(0) == '[')
+		{
+			int close = body.indexOf(']');
+
+			if (close == -1)
+			{
+				break;
+			}
+
+			String decoration = body.substring(1, close).trim();
+
+			decorated = true;
+
+			long uptime = parseUptime(decoration);
+
+			if (uptime != -1)
+			{
+				uptimeMillis = uptime;
+			}
+			else if (!isLevel(decoration))
+			{
+				// the tag set such as [jit,compilation] or [gc]
+				jitTags = decoration.startsWith(UL_TAG_JIT);
+			}
+
+			body = body.substring(close + 1);
+		}
+
+		if (!jitTags || body.trim().length() == 0)
+		{
+			return;
+		}
+
+		if (body.indexOf('@') != -1)
+		{
+			InlineLine inlineLine = TextLogUtil.parseInlineLine(body);
+
+			if (inlineLine != null)
+			{
+				handleInlineLine(inlineLine);
+				return;
+			}
+		}
+
+		CompileLine compileLine = TextLogUtil.parseCompileLine(body, !decorated);
+
+		if (compileLine != null)
+		{
+			long stamp = decorated ? uptimeMillis : compileLine.getTimestamp();
+
+			handleCompileLine(compileLine, stamp);
+		}
+	}
+
+	private void handleCompileLine(CompileLine compileLine, long stampMillis)
+	{
+		String compileID = compileLine.getCompileID();
+
+		Compilation existing = compilationsByCompileID.get(compileID);
+
+		if (compileLine.isMadeNotEntrant() || compileLine.isMadeZombie())
+		{
+			DeoptEvent event = new DeoptEvent(DeoptEventType.MAKE_NOT_ENTRANT, stampMillis, compileID);
+
+			event.setCompilation(existing);
+			event.setReason(compileLine.getMessage());
+			event.setZombie(compileLine.isMadeZombie());
+
+			model.addDeoptEvent(event);
+		}
+		else if (compileLine.isSkipped())
+		{
+			if (existing != null)
+			{
+				pendingNMethods.remove(existing);
+
+				markFailed(existing, compileLine.getSkipReason());
+			}
+
+			currentCompilation = null;
+			currentBuilder = null;
+		}
+		else if (existing != null)
+		{
+			// PrintInlining repeats the task line before the inlining tree
+			if (existing != currentCompilation)
+			{
+				currentCompilation = existing;
+				currentBuilder = null;
+			}
+		}
+		else
+		{
+			currentCompilation = createCompilation(compileLine, stampMillis);
+			currentBuilder = null;
+		}
+	}
+
+	private Compilation createCompilation(CompileLine compileLine, long stampMillis)
+	{
+		IMetaMember member = findMember(compileLine.getClassName(), compileLine.getMethodName(), compileLine.getBytes());
+
+		if (member == null)
+		{
+			return null;
+		}
+
+		String compileID = compileLine.getCompileID();
+
+		String stamp = formatStamp(stampMillis);
+
+		int level = compileLine.getLevel();
+
+		String levelString = (level >= 0) ? Integer.toString(level) : null;
+
+		String bytes = Integer.toString(Math.max(0, compileLine.getBytes()));
+
+		String compiler = null;
+		String compileKind = null;
+		String osrBCI = null;
+
+		EventType eventType;
+
+		if (compileLine.isNative())
+		{
+			compileKind = C2N;
+			eventType = EventType.NMETHOD_C2N;
+		}
+		else if (level >= 1 && level <= 3)
+		{
+			compiler = C1.toLowerCase();
+			eventType = EventType.NMETHOD_C1;
+		}
+		else
+		{
+			// level 4, or no level without tiered compilation
+			compiler = C2.toLowerCase();
+			eventType = EventType.NMETHOD_C2;
+		}
+
+		if (compileLine.isOSR())
+		{
+			compileKind = OSR;
+			osrBCI = Integer.toString(compileLine.getOSRBCI());
+		}
+
+		Compilation compilation = new Compilation(member, member.getCompilations().size());
+
+		compilation.setTagTaskQueued(buildTag(TAG_TASK_QUEUED, ATTR_COMPILE_ID, compileID, ATTR_BYTES, bytes, ATTR_COMPILER,
+				compiler, ATTR_LEVEL, levelString, ATTR_COMPILE_KIND, compileKind, ATTR_OSR_BCI, osrBCI, ATTR_STAMP, stamp));
+
+		member.storeCompilation(compilation);
+
+		storeCompilationByCompileID(compilation);
+
+		jitEvents.add(new JITEvent(stampMillis, EventType.QUEUE, member));
+
+		compilation.setTagTask(new Task(new String[] { ATTR_COMPILE_ID, ATTR_BYTES, ATTR_STAMP },
+				new String[] { compileID, bytes, stamp }, false));
+
+		pendingNMethods.put(compilation, eventType);
+
+		return compilation;
+	}
+
+	/*
+	 * The log has no line for an installed nmethod so it takes the task line
+	 * stamp and attributes
+	 */
+	private void installNMethod(Compilation compilation, EventType eventType)
+	{
+		IMetaMember member = compilation.getMember();
+
+		String compileID = compilation.getCompileID();
+		String compiler = compilation.getQueuedAttribute(ATTR_COMPILER);
+		String compileKind = compilation.getQueuedAttribute(ATTR_COMPILE_KIND);
+
+		compilation.setTagNMethod(buildTag(TAG_NMETHOD, ATTR_COMPILE_ID, compileID, ATTR_COMPILER, compiler, ATTR_LEVEL,
+				compilation.getQueuedAttribute(ATTR_LEVEL), ATTR_COMPILE_KIND, compileKind, ATTR_STAMP,
+				compilation.getQueuedAttribute(ATTR_STAMP)));
+
+		member.setCompiled(true);
+		member.getMetaClass().getPackage().setHasCompiledClasses();
+		member.getMetaClass().incCompiledMethodCount();
+
+		model.updateStats(member, compiler, compileKind, compileID);
+
+		jitEvents.add(new JITEvent(compilation.getStampTaskQueued(), eventType, member));
+	}
+
+	private void markFailed(Compilation compilation, String reason)
+	{
+		Task task = compilation.getTagTask();
+
+		if (task != null && task.getFirstNamedChild(TAG_FAILURE) == null)
+		{
+			task.addChild(buildTag(TAG_FAILURE, ATTR_REASON, (reason != null) ? reason : "unknown"));
+
+			// re-read the task so the compilation is marked as failed
+			compilation.setTagTask(task);
+		}
+	}
+
+	private void handleInlineLine(InlineLine inlineLine)
+	{
+		if (currentCompilation == null)
+		{
+			return;
+		}
+
+		if (currentBuilder == null)
+		{
+			Task task = currentCompilation.getTagTask();
+
+			if (task == null || !TAG_TASK.equals(task.getName()))
+			{
+				return;
+			}
+
+			currentBuilder = new InliningTreeBuilder(task, getMemberSignatureParts(currentCompilation.getMember()));
+
+			inlineBaseIndent = inlineLine.getIndent();
+		}
+
+		int depth = 1 + Math.max(0, inlineLine.getIndent() - inlineBaseIndent) / 2;
+
+		IMetaMember callee = findMember(inlineLine.getClassName(), inlineLine.getMethodName(), inlineLine.getBytes());
+
+		MemberSignatureParts calleeMSP;
+
+		if (callee != null)
+		{
+			calleeMSP = getMemberSignatureParts(callee);
+		}
+		else
+		{
+			// keep the decision even when the callee class cannot be loaded
+			calleeMSP = MemberSignatureParts.fromParts(inlineLine.getClassName(), inlineLine.getMethodName(), null,
+					new ArrayList<String>());
+		}
+
+		currentBuilder.addDecision(depth, calleeMSP, inlineLine.getBCI(), inlineLine.getBytes(), inlineLine.isInlined(),
+				inlineLine.getReason());
+	}
+
+	/*
+	 * Finds the member by class and method name. Overloaded methods are told
+	 * apart by the bytecode size printed in the log.
+	 */
+	private IMetaMember findMember(String className, String methodName, int bytes)
+	{
+		String key = className + "::" + methodName + " " + bytes;
+
+		if (memberCache.containsKey(key))
+		{
+			return memberCache.get(key);
+		}
+
+		IMetaMember result = null;
+
+		MetaClass metaClass = model.getPackageManager().getMetaClass(className);
+
+		if (metaClass == null)
+		{
+			metaClass = ParseUtil.lateLoadMetaClass(model, className);
+		}
+
+		if (metaClass != null)
+		{
+			List<IMetaMember> candidates = new ArrayList<>();
+
+			boolean isConstructor = S_CONSTRUCTOR_INIT.equals(methodName);
+
+			for (IMetaMember member : metaClass.getMetaMembers())
+			{
+				if (isConstructor ? member.isConstructor() : (!member.isConstructor() && methodName.equals(member.getMemberName())))
+				{
+					candidates.add(member);
+				}
+			}
+
+			if (candidates.size() == 1 || (candidates.size() > 1 && bytes < 0))
+			{
+				result = candidates.get(0);
+			}
+			else if (candidates.size() > 1)
+			{
+				result = chooseBySize(metaClass, candidates, bytes);
+			}
+		}
+
+		if (result == null)
+		{
+			logError("Could not find member for " + className + "::" + methodName + " at line " + processLineNumber);
+		}
+
+		memberCache.put(key, result);
+
+		return result;
+	}
+
+	private IMetaMember chooseBySize(MetaClass metaClass, List<IMetaMember> candidates, int bytes)
+	{
+		// loads and caches the class bytecode on the MetaClass
+		metaClass.getClassBytecode(model, config.getConfiguredClassLocations());
+
+		IMetaMember result = candidates.get(0);
+
+		int bestDifference = Integer.MAX_VALUE;
+
+		for (IMetaMember candidate : candidates)
+		{
+			MemberBytecode memberBytecode = candidate.getMemberBytecode();
+
+			if (memberBytecode != null)
+			{
+				int difference = Math.abs(memberBytecode.size() - bytes);
+
+				if (difference < bestDifference)
+				{
+					bestDifference = difference;
+					result = candidate;
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private static MemberSignatureParts getMemberSignatureParts(IMetaMember member)
+	{
+		return MemberSignatureParts.fromParts(member.getMetaClass().getFullyQualifiedName(), member.getMemberName(),
+				member.getReturnTypeName(), Arrays.asList(member.getParamTypeNames()));
+	}
+
+	private static boolean isLevel(String decoration)
+	{
+		for (String level : UL_LEVELS)
+		{
+			if (level.equals(decoration))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/*
+	 * Returns -1 if the decoration is not an uptime such as 0.123s or 123ms
+	 */
+	private static long parseUptime(String decoration)
+	{
+		long result = -1;
+
+		int length = decoration.length();
+
+		try
+		{
+			if (decoration.endsWith("ms") && length > 2)
+			{
+				result = Long.parseLong(decoration.substring(0, length - 2));
+			}
+			else if (decoration.endsWith("s") && length > 1 && Character.isDigit(decoration.charAt(0)))
+			{
+				result = ParseUtil.parseStamp(decoration.substring(0, length - 1));
+			}
+		}
+		catch (NumberFormatException nfe)
+		{
+		}
+
+		return result;
+	}
+
+	@Override
+	protected void handleTag(Tag tag)
+	{
+		// text logs contain no LogCompilation tags
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.parser.text;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class TextLogUtil
+{
+	private static final String S_METHOD_SEPARATOR = "::";
+
+	private static final String S_FAILED_TO_INLINE = "failed to inline:";
+
+	// after the method name: optional OSR bci, size, static marker and message
+	private static final Pattern PATTERN_COMPILE_REMAINDER = Pattern
+			.compile("^(?:@\\s*(\\d+)\\s*)?(?:\\((\\d+) bytes\\)|\\(native\\))?(?:\\s*\\(static\\))?\\s*(.*)$");
+
+	// flag columns may precede the '@' so the indent is taken from its index
+	private static final Pattern PATTERN_INLINE = Pattern.compile(
+			"^[\\s%sbnm!]*@\\s*(\\d+)\\s+([^\\s:]+)::([^\\s(]+)\\S*(?:\\s+\\((\\d+) bytes\\)|\\s+\\(not loaded\\))?\\s*(.*)$");
+
+	// PrintInlining messages of decisions that inlined the callee
+	private static final String[] INLINED_MESSAGES = new String[] { "inline", "accessor", "intrinsic", "(intrinsic",
+			"force inline", "late inline succeeded" };
+
+	private TextLogUtil()
+	{
+	}
+
+	/*
+	 * Returns null if the line is not a compile task line
+	 */
+	public static CompileLine parseCompileLine(String line, boolean hasTimestamp)
+	{
+		String trimmed = line.trim();
+
+		int separator = trimmed.indexOf(S_METHOD_SEPARATOR);
+
+		if (separator == -1)
+		{
+			return null;
+		}
+
+		int methodStart = trimmed.lastIndexOf(' ', separator) + 1;
+
+		if (methodStart == 0)
+		{
+			return null;
+		}
+
+		String[] tokens = trimmed.substring(0, methodStart).trim().split("\\s+");
+
+		CompileLine result = new CompileLine();
+
+		int index = 0;
+
+		try
+		{
+			if (hasTimestamp)
+			{
+				result.setTimestamp(Long.parseLong(tokens[index++]));
+			}
+
+			if (index >= tokens.length || !isDigits(tokens[index]))
+			{
+				return null;
+			}
+
+			result.setCompileID(tokens[index++]);
+
+			StringBuilder flags = new StringBuilder();
+
+			for (; index < tokens.length; index++)
+			{
+				String token = tokens[index];
+
+				if (token.length() == 1 && Character.isDigit(token.charAt(0)))
+				{
+					result.setLevel(token.charAt(0) - '0');
+				}
+				else if (isFlags(token))
+				{
+					flags.append(token);
+				}
+				else
+				{
+					return null;
+				}
+			}
+
+			result.setFlags(flags.toString());
+		}
+		catch (NumberFormatException nfe)
+		{
+			return null;
+		}
+
+		int methodEnd = trimmed.indexOf(' ', separator);
+
+		if (methodEnd == -1)
+		{
+			methodEnd = trimmed.length();
+		}
+
+		String methodName = trimmed.substring(separator + S_METHOD_SEPARATOR.length(), methodEnd);
+
+		// signature polymorphic methods are printed with their descriptor
+		int paren = methodName.indexOf('(');
+
+		if (paren != -1)
+		{
+			methodName = methodName.substring(0, paren);
+		}
+
+		result.setClassName(trimmed.substring(methodStart, separator));
+		result.setMethodName(methodName);
+
+		Matcher matcher = PATTERN_COMPILE_REMAINDER.matcher(trimmed.substring(methodEnd).trim());
+
+		if (matcher.matches())
+		{
+			if (matcher.group(1) != null)
+			{
+				result.setOSRBCI(Integer.parseInt(matcher.group(1)));
+			}
+
+			if (matcher.group(2) != null)
+			{
+				result.setBytes(Integer.parseInt(matcher.group(2)));
+			}
+
+			String message = matcher.group(3).trim();
+
+			if (message.length() > 0)
+			{
+				result.setMessage(message);
+			}
+		}
+
+		return result;
+	}
+
+	/*
+	 * Returns null if the line is not an inlining decision
+	 */
+	public static InlineLine parseInlineLine(String line)
+	{
+		Matcher matcher = PATTERN_INLINE.matcher(line);
+
+		if (!matcher.matches())
+		{
+			return null;
+		}
+
+		int bci = Integer.parseInt(matcher.group(1));
+
+		int bytes = (matcher.group(4) != null) ? Integer.parseInt(matcher.group(4)) : 0;
+
+		String message = matcher.group(5).trim();
+
+		boolean inlined = isInlined(message);
+
+		String reason = message;
+
+		if (reason.startsWith(S_FAILED_TO_INLINE))
+		{
+			reason = reason.substring(S_FAILED_TO_INLINE.length()).trim();
+		}
+
+		if (reason.length() == 0)
+		{
+			reason = null;
+		}
+
+		// callees that are not loaded are printed with their internal class name
+		String className = matcher.group(2).replace('/', '.');
+
+		return new InlineLine(line.indexOf('@'), bci, className, matcher.group(3), bytes, inlined, reason);
+	}
+
+	/*
+	 * JDK 14+ prefixes failures with "failed to inline:", older JVMs are
+	 * matched on the messages printed for successful decisions
+	 */
+	public static boolean isInlined(String message)
+	{
+		boolean result = false;
+
+		if (message != null && !message.startsWith("failed"))
+		{
+			for (String inlinedMessage : INLINED_MESSAGES)
+			{
+				if (message.startsWith(inlinedMessage))
+				{
+					result = true;
+					break;
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private static boolean isDigits(String token)
+	{
+		boolean result = token.length() > 0;
+
+		for (int i = 0; i < token.length(); i++)
+		{
+			if (!Character.isDigit(token.charAt(i)))
+			{
+				result = false;
+				break;
+			}
+		}
+
+		return result;
+	}
+
+	private static boolean isFlags(String token)
+	{
+		boolean result = true;
+
+		for (int i = 0; i < token.length(); i++)
+		{
+			if ("%sbn!".indexOf(token.charAt(i)) == -1)
+			{
+				result = false;
+				break;
+			}
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.phase;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_LIVE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NAME;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NODES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PHASE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PHASE_DONE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
+
+/*
+ * The phase waterfall of one compilation in the order the phases started.
+ *
+ * <task stamp='11.372'>
+ *   <phase name='parse' nodes='3' live='3' stamp='11.372'>
+ *     ...
+ *     <phase_done name='parse' nodes='340' live='190' stamp='11.376'/>
+ *   </phase>
+ *   <phase name='optimizer' nodes='340' live='190' stamp='11.376'>
+ *     <phase name='idealLoop' nodes='345' live='181' stamp='11.376'>
+ *     ...
+ *
+ * Stamps are logged with millisecond resolution so short phases show as 0ms
+ * and are only visible in the totals across many compilations.
+ */
+public class CompilationPhases
+{
+	private final Compilation compilation;
+
+	private final List<PhaseTiming> phases = new ArrayList<>();
+
+	private long taskStart = -1;
+
+	private int maxNodes;
+
+	public static CompilationPhases build(Compilation compilation)
+	{
+		CompilationPhases result = null;
+
+		Task task = compilation != null ? compilation.getTagTask() : null;
+
+		if (task != null && task.getFirstNamedChild(TAG_PHASE) != null)
+		{
+			result = new CompilationPhases(compilation, task);
+		}
+
+		return result;
+	}
+
+	private CompilationPhases(Compilation compilation, Task task)
+	{
+		this.compilation = compilation;
+
+		String taskStamp = task.getAttribute(ATTR_STAMP);
+
+		if (taskStamp != null)
+		{
+			taskStart = ParseUtil.parseStamp(taskStamp);
+		}
+
+		addPhases(task, 0, null);
+	}
+
+	private void addPhases(Tag parent, int depth, PhaseTiming parentTiming)
+	{
+		for (Tag child : parent.getChildren())
+		{
+			if (TAG_PHASE.equals(child.getName()))
+			{
+				PhaseTiming timing = buildTiming(child, depth);
+
+				if (timing == null)
+				{
+					continue;
+				}
+
+				phases.add(timing);
+
+				if (parentTiming != null)
+				{
+					parentTiming.addChildTime(timing.getDuration());
+				}
+
+				addPhases(child, depth + 1, timing);
+			}
+		}
+	}
+
+	private PhaseTiming buildTiming(Tag phase, int depth)
+	{
+		String startStamp = phase.getAttribute(ATTR_STAMP);
+
+		Tag phaseDone = phase.getFirstNamedChild(TAG_PHASE_DONE);
+
+		// phases cut off by a failed compilation have no phase_done
+		if (startStamp == null || phaseDone == null || phaseDone.getAttribute(ATTR_STAMP) == null)
+		{
+			return null;
+		}
+
+		long start = ParseUtil.parseStamp(startStamp);
+		long end = ParseUtil.parseStamp(phaseDone.getAttribute(ATTR_STAMP));
+
+		if (taskStart == -1)
+		{
+			taskStart = start;
+		}
+
+		int nodesEnd = phaseDone.getIntAttribute(ATTR_NODES, 0);
+
+		maxNodes = Math.max(maxNodes, nodesEnd);
+
+		return new PhaseTiming(phase.getAttribute(ATTR_NAME), depth, start - taskStart, Math.max(start, end) - taskStart,
+				phase.getIntAttribute(ATTR_NODES, 0), nodesEnd, phase.getIntAttribute(ATTR_LIVE, 0),
+				phaseDone.getIntAttribute(ATTR_LIVE, 0));
+	}
+
+	public Compilation getCompilation()
+	{
+		return compilation;
+	}
+
+	public List<PhaseTiming> getPhases()
+	{
+		return Collections.unmodifiableList(phases);
+	}
+
+	/*
+	 * Milliseconds from the task start to the end of the last phase
+	 */
+	public long getTotalTime()
+	{
+		long result = 0;
+
+		for (PhaseTiming timing : phases)
+		{
+			result = Math.max(result, timing.getEnd());
+		}
+
+		return result;
+	}
+
+	public int getMaxNodes()
+	{
+		return maxNodes;
+	}
+}
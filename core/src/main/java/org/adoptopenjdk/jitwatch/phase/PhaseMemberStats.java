@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.phase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+
+/*
+ * Phase cost of all the compilations of one member
+ */
+public class PhaseMemberStats
+{
+	private final IMetaMember member;
+
+	private final Map<String, PhaseStats> phaseStats = new LinkedHashMap<>();
+
+	private int compilationCount;
+
+	private long totalTime;
+
+	private int maxNodes;
+
+	public PhaseMemberStats(IMetaMember member)
+	{
+		this.member = member;
+	}
+
+	void addCompilation(CompilationPhases compilationPhases)
+	{
+		compilationCount++;
+
+		totalTime += compilationPhases.getTotalTime();
+
+		maxNodes = Math.max(maxNodes, compilationPhases.getMaxNodes());
+
+		for (PhaseTiming timing : compilationPhases.getPhases())
+		{
+			PhaseStats stats = phaseStats.get(timing.getName());
+
+			if (stats == null)
+			{
+				stats = new PhaseStats(timing.getName());
+				phaseStats.put(timing.getName(), stats);
+			}
+
+			stats.add(timing);
+		}
+	}
+
+	public IMetaMember getMember()
+	{
+		return member;
+	}
+
+	public int getCompilationCount()
+	{
+		return compilationCount;
+	}
+
+	/*
+	 * Milliseconds spent in phases across all compilations of the member
+	 */
+	public long getTotalTime()
+	{
+		return totalTime;
+	}
+
+	/*
+	 * Largest node count at the end of any phase, the IR size high water mark
+	 */
+	public int getMaxNodes()
+	{
+		return maxNodes;
+	}
+
+	public Map<String, PhaseStats> getPhaseStats()
+	{
+		return phaseStats;
+	}
+
+	/*
+	 * Milliseconds including nested phases, 0 if the phase never ran
+	 */
+	public long getPhaseTime(String phaseName)
+	{
+		PhaseStats stats = phaseStats.get(phaseName);
+
+		return stats == null ? 0 : stats.getTotalTime();
+	}
+}
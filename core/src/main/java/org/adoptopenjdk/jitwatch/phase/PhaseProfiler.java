@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.phase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+
+/*
+ * Aggregates the <phase> timings and node counts of every compilation in the
+ * log so the optimisation phases that use the most compile time, and the
+ * members whose IR grows the largest, can be ranked.
+ */
+public class PhaseProfiler implements ITreeVisitable
+{
+	private final IReadOnlyJITDataModel model;
+
+	private final Map<String, PhaseStats> phaseStats = new LinkedHashMap<>();
+
+	private final Map<IMetaMember, PhaseMemberStats> memberStats = new LinkedHashMap<>();
+
+	private int compilationCount;
+
+	private long totalTime;
+
+	public PhaseProfiler(IReadOnlyJITDataModel model)
+	{
+		this.model = model;
+	}
+
+	/*
+	 * Returns the phases by self time, most expensive first
+	 */
+	public List<PhaseStats> analyse()
+	{
+		TreeVisitor.walkTree(model, this);
+
+		List<PhaseStats> result = new ArrayList<>(phaseStats.values());
+
+		Collections.sort(result, new Comparator<PhaseStats>()
+		{
+			@Override
+			public int compare(PhaseStats s1, PhaseStats s2)
+			{
+				int order = Long.compare(s2.getSelfTime(), s1.getSelfTime());
+
+				if (order == 0)
+				{
+					order = Long.compare(s2.getTotalTime(), s1.getTotalTime());
+				}
+
+				if (order == 0)
+				{
+					order = Integer.compare(s2.getCount(), s1.getCount());
+				}
+
+				return order;
+			}
+		});
+
+		return result;
+	}
+
+	@Override
+	public void reset()
+	{
+		phaseStats.clear();
+		memberStats.clear();
+		compilationCount = 0;
+		totalTime = 0;
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		for (Compilation compilation : metaMember.getCompilations())
+		{
+			CompilationPhases compilationPhases = CompilationPhases.build(compilation);
+
+			if (compilationPhases != null)
+			{
+				addCompilation(metaMember, compilationPhases);
+			}
+		}
+	}
+
+	private void addCompilation(IMetaMember member, CompilationPhases compilationPhases)
+	{
+		compilationCount++;
+
+		totalTime += compilationPhases.getTotalTime();
+
+		for (PhaseTiming timing : compilationPhases.getPhases())
+		{
+			PhaseStats stats = phaseStats.get(timing.getName());
+
+			if (stats == null)
+			{
+				stats = new PhaseStats(timing.getName());
+				phaseStats.put(timing.getName(), stats);
+			}
+
+			stats.add(timing);
+		}
+
+		PhaseMemberStats stats = memberStats.get(member);
+
+		if (stats == null)
+		{
+			stats = new PhaseMemberStats(member);
+			memberStats.put(member, stats);
+		}
+
+		stats.addCompilation(compilationPhases);
+	}
+
+	/*
+	 * Members by time spent in the named phase, or in all phases if the name
+	 * is null. Members that never ran the phase are left out.
+	 */
+	public List<PhaseMemberStats> rankMembersByTime(final String phaseName)
+	{
+		List<PhaseMemberStats> result = new ArrayList<>();
+
+		for (PhaseMemberStats stats : memberStats.values())
+		{
+			if (phaseName == null || stats.getPhaseStats().containsKey(phaseName))
+			{
+				result.add(stats);
+			}
+		}
+
+		Collections.sort(result, new Comparator<PhaseMemberStats>()
+		{
+			@Override
+			public int compare(PhaseMemberStats s1, PhaseMemberStats s2)
+			{
+				long time1 = phaseName == null ? s1.getTotalTime() : s1.getPhaseTime(phaseName);
+				long time2 = phaseName == null ? s2.getTotalTime() : s2.getPhaseTime(phaseName);
+
+				int order = Long.compare(time2, time1);
+
+				if (order == 0)
+				{
+					order = Integer.compare(s2.getMaxNodes(), s1.getMaxNodes());
+				}
+
+				return order;
+			}
+		});
+
+		return result;
+	}
+
+	/*
+	 * Members by their largest IR node count, C2 only as C1 logs no counts
+	 */
+	public List<PhaseMemberStats> rankMembersByNodes()
+	{
+		List<PhaseMemberStats> result = new ArrayList<>();
+
+		for (PhaseMemberStats stats : memberStats.values())
+		{
+			if (stats.getMaxNodes() > 0)
+			{
+				result.add(stats);
+			}
+		}
+
+		Collections.sort(result, new Comparator<PhaseMemberStats>()
+		{
+			@Override
+			public int compare(PhaseMemberStats s1, PhaseMemberStats s2)
+			{
+				int order = Integer.compare(s2.getMaxNodes(), s1.getMaxNodes());
+
+				if (order == 0)
+				{
+					order = Long.compare(s2.getTotalTime(), s1.getTotalTime());
+				}
+
+				return order;
+			}
+		});
+
+		return result;
+	}
+
+	public Map<String, PhaseStats> getPhaseStats()
+	{
+		return phaseStats;
+	}
+
+	public Map<IMetaMember, PhaseMemberStats> getMemberStats()
+	{
+		return memberStats;
+	}
+
+	/*
+	 * Compilations that logged at least one complete phase
+	 */
+	public int getCompilationCount()
+	{
+		return compilationCount;
+	}
+
+	public long getTotalTime()
+	{
+		return totalTime;
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.phase;
+
+/*
+ * Totals for all occurrences of a phase name, either across the whole log or
+ * within the compilations of one member
+ */
+public class PhaseStats
+{
+	private final String name;
+
+	private int count;
+
+	private long totalTime;
+	private long selfTime;
+	private long maxTime;
+
+	private long totalNodeDelta;
+	private long totalLiveDelta;
+
+	private int maxNodes;
+
+	public PhaseStats(String name)
+	{
+		this.name = name;
+	}
+
+	void add(PhaseTiming timing)
+	{
+		count++;
+
+		totalTime += timing.getDuration();
+		selfTime += timing.getSelfTime();
+		maxTime = Math.max(maxTime, timing.getDuration());
+
+		totalNodeDelta += timing.getNodeDelta();
+		totalLiveDelta += timing.getLiveDelta();
+
+		maxNodes = Math.max(maxNodes, timing.getNodesEnd());
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public int getCount()
+	{
+		return count;
+	}
+
+	/*
+	 * Milliseconds including nested phases
+	 */
+	public long getTotalTime()
+	{
+		return totalTime;
+	}
+
+	/*
+	 * Milliseconds excluding nested phases, these add up to the compile time
+	 */
+	public long getSelfTime()
+	{
+		return selfTime;
+	}
+
+	public long getMaxTime()
+	{
+		return maxTime;
+	}
+
+	public double getMeanTime()
+	{
+		return count == 0 ? 0 : (double) totalTime / count;
+	}
+
+	/*
+	 * Nodes created by the phase, negative when it removed more than it added
+	 */
+	public long getTotalNodeDelta()
+	{
+		return totalNodeDelta;
+	}
+
+	public long getTotalLiveDelta()
+	{
+		return totalLiveDelta;
+	}
+
+	public int getMaxNodes()
+	{
+		return maxNodes;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.phase;
+
+/*
+ * One <phase> of a compilation, closed by its <phase_done>. Times are
+ * milliseconds from the start of the task. Node counts are only logged by C2
+ * and are 0 for C1 phases.
+ */
+public class PhaseTiming
+{
+	private final String name;
+
+	private final int depth;
+
+	private final long start;
+	private final long end;
+
+	private final int nodesStart;
+	private final int nodesEnd;
+
+	private final int liveStart;
+	private final int liveEnd;
+
+	private long childTime;
+
+	public PhaseTiming(String name, int depth, long start, long end, int nodesStart, int nodesEnd, int liveStart, int liveEnd)
+	{
+		this.name = name;
+		this.depth = depth;
+		this.start = start;
+		this.end = end;
+		this.nodesStart = nodesStart;
+		this.nodesEnd = nodesEnd;
+		this.liveStart = liveStart;
+		this.liveEnd = liveEnd;
+	}
+
+	void addChildTime(long time)
+	{
+		childTime += time;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	/*
+	 * 0 for phases directly under the task
+	 */
+	public int getDepth()
+	{
+		return depth;
+	}
+
+	public long getStart()
+	{
+		return start;
+	}
+
+	public long getEnd()
+	{
+		return end;
+	}
+
+	public long getDuration()
+	{
+		return end - start;
+	}
+
+	/*
+	 * Duration less the time spent in nested phases
+	 */
+	public long getSelfTime()
+	{
+		return Math.max(0, getDuration() - childTime);
+	}
+
+	public int getNodesStart()
+	{
+		return nodesStart;
+	}
+
+	public int getNodesEnd()
+	{
+		return nodesEnd;
+	}
+
+	public int getNodeDelta()
+	{
+		return nodesEnd - nodesStart;
+	}
+
+	public int getLiveStart()
+	{
+		return liveStart;
+	}
+
+	public int getLiveEnd()
+	{
+		return liveEnd;
+	}
+
+	public int getLiveDelta()
+	{
+		return liveEnd - liveStart;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "PhaseTiming [name=" + name + ", depth=" + depth + ", start=" + start + ", end=" + end + ", nodesStart="
+				+ nodesStart + ", nodesEnd=" + nodesEnd + ", liveStart=" + liveStart + ", liveEnd=" + liveEnd + "]";
+	}
+}
@@ -27,6 +27,8 @@ public abstract class AbstractProcess implements IExternalProcess
 
 	private Path stdErr;
 	private Path stdOut;
+
+	private volatile Process process;
 	
 	public AbstractProcess()
 	{
@@ -96,6 +98,19 @@ public abstract class AbstractProcess implements IExternalProcess
 		return result;
 	}
 
+	/*
+	 * Kills the external process if it is still running
+	 */
+	public void stopProcess()
+	{
+		Process running = process;
+
+		if (running != null)
+		{
+			running.destroy();
+		}
+	}
+
 	protected String makeClassPath(List<String> classpathEntries)
 	{
 		StringBuilder cpBuilder = new StringBuilder();
@@ -157,9 +172,16 @@ public abstract class AbstractProcess implements IExternalProcess
 			pb.redirectError(stdErr.toFile());
 			pb.redirectOutput(stdOut.toFile());
 
-			Process proc = pb.start();
+			process = pb.start();
+
+			result = process.waitFor();
+		}
+		catch (InterruptedException ie)
+		{
+			// the caller was cancelled so do not leave the process running
+			stopProcess();
 
-			result = proc.waitFor();
+			Thread.currentThread().interrupt();
 		}
 		catch (Exception e)
 		{
@@ -170,6 +192,10 @@ public abstract class AbstractProcess implements IExternalProcess
 			
 			logger.error("Could not run external process:", e);
 		}
+		finally
+		{
+			process = null;
+		}
 
 		return result == 0; // normal completion
 	}
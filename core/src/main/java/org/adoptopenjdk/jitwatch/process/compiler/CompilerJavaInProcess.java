@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.process.compiler;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.adoptopenjdk.jitwatch.logger.ILogListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Compiles Java sources with the javax.tools compiler of the running JVM
+ * instead of forking javac. The compiler and its file manager are kept for
+ * the life of this object so later compilations run warm and reuse the
+ * opened classpath archives.
+ *
+ * Compilation is skipped when no source timestamp or size changed since the
+ * last successful compilation into the same output directory with the same
+ * classpath. Otherwise every source is compiled again, as an unchanged source
+ * may depend on a signature that changed and its old class file would fail at
+ * runtime.
+ */
+public class CompilerJavaInProcess implements ICompiler
+{
+	private static final Logger logger = LoggerFactory.getLogger(CompilerJavaInProcess.class);
+
+	private final JavaCompiler compiler;
+	private final StandardJavaFileManager fileManager;
+
+	private final Map<File, SourceStamp> compiledStamps = new HashMap<>();
+
+	private File lastOutputDir;
+	private List<String> lastClasspath;
+
+	private int lastCompiledCount;
+
+	private StringBuilder outputBuilder = new StringBuilder();
+	private StringBuilder errorBuilder = new StringBuilder();
+
+	private static final class SourceStamp
+	{
+		private final long lastModified;
+		private final long length;
+
+		private SourceStamp(File file)
+		{
+			this.lastModified = file.lastModified();
+			this.length = file.length();
+		}
+
+		private boolean matches(File file)
+		{
+			return lastModified == file.lastModified() && length == file.length();
+		}
+	}
+
+	public CompilerJavaInProcess()
+	{
+		compiler = ToolProvider.getSystemJavaCompiler();
+
+		if (compiler == null)
+		{
+			throw new IllegalStateException("No system Java compiler available, JITWatch is running on a JRE");
+		}
+
+		fileManager = compiler.getStandardFileManager(null, Locale.getDefault(), StandardCharsets.UTF_8);
+	}
+
+	public static boolean isAvailable()
+	{
+		return ToolProvider.getSystemJavaCompiler() != null;
+	}
+
+	/*
+	 * True if the given language home is the JVM JITWatch is running on so
+	 * the in-process compiler targets the same Java version as a forked javac
+	 */
+	public static boolean isRunningJVM(String languageHomeDir)
+	{
+		if (languageHomeDir == null)
+		{
+			return false;
+		}
+
+		try
+		{
+			File javaHome = new File(System.getProperty("java.home")).getCanonicalFile();
+			File languageHome = new File(languageHomeDir).getCanonicalFile();
+
+			return languageHome.equals(javaHome) || languageHome.equals(javaHome.getParentFile());
+		}
+		catch (IOException ioe)
+		{
+			return false;
+		}
+	}
+
+	public int getLastCompiledCount()
+	{
+		return lastCompiledCount;
+	}
+
+	@Override
+	public synchronized boolean compile(List<File> sourceFiles, List<String> classpathEntries, File outputDir,
+			ILogListener logListener) throws IOException
+	{
+		outputBuilder = new StringBuilder();
+		errorBuilder = new StringBuilder();
+
+		lastCompiledCount = 0;
+
+		if (!outputDir.exists() && !outputDir.mkdirs())
+		{
+			throw new IOException("Could not create output directory " + outputDir);
+		}
+
+		String[] existingOutput = outputDir.list();
+
+		if (existingOutput == null || existingOutput.length == 0)
+		{
+			// output was cleared (e.g. Sandbox reset) so nothing is up to date
+			compiledStamps.clear();
+		}
+
+		boolean sameTarget = outputDir.equals(lastOutputDir) && classpathEntries.equals(lastClasspath);
+
+		if (!sameTarget)
+		{
+			compiledStamps.clear();
+
+			List<File> classpath = new ArrayList<>();
+
+			classpath.add(outputDir);
+
+			for (String entry : classpathEntries)
+			{
+				classpath.add(new File(entry));
+			}
+
+			fileManager.setLocation(StandardLocation.CLASS_PATH, classpath);
+			fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Arrays.asList(outputDir));
+
+			lastOutputDir = outputDir;
+			lastClasspath = new ArrayList<>(classpathEntries);
+		}
+
+		List<File> changed = new ArrayList<>();
+
+		for (File sourceFile : sourceFiles)
+		{
+			SourceStamp stamp = compiledStamps.get(sourceFile);
+
+			if (stamp == null || !stamp.matches(sourceFile))
+			{
+				changed.add(sourceFile);
+			}
+		}
+
+		if (changed.isEmpty())
+		{
+			log(logListener, "No Java sources changed since the last compilation");
+			return true;
+		}
+
+		log(logListener, changed.size() + " of " + sourceFiles.size() + " Java sources changed, recompiling all");
+
+		boolean success = runCompiler(sourceFiles, new StreamingDiagnostics(logListener));
+
+		if (success)
+		{
+			for (File sourceFile : sourceFiles)
+			{
+				compiledStamps.put(sourceFile, new SourceStamp(sourceFile));
+			}
+
+			lastCompiledCount = sourceFiles.size();
+
+			log(logListener, "Compiled " + sourceFiles.size() + " Java sources in-process");
+		}
+		else
+		{
+			for (File sourceFile : sourceFiles)
+			{
+				compiledStamps.remove(sourceFile);
+			}
+		}
+
+		return success;
+	}
+
+	private boolean runCompiler(List<File> sources, DiagnosticListener<JavaFileObject> diagnostics)
+	{
+		Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(sources);
+
+		StringWriter compilerOutput = new StringWriter();
+
+		boolean success;
+
+		try
+		{
+			success = compiler.getTask(compilerOutput, fileManager, diagnostics, Arrays.asList("-g"), null, units).call();
+		}
+		catch (RuntimeException re)
+		{
+			logger.error("In-process compilation failed", re);
+
+			errorBuilder.append(re.toString()).append(S_NEWLINE);
+
+			success = false;
+		}
+
+		outputBuilder.append(compilerOutput.toString());
+
+		try
+		{
+			fileManager.flush();
+		}
+		catch (IOException ioe)
+		{
+			logger.warn("Could not flush compiler file manager", ioe);
+		}
+
+		return success;
+	}
+
+	private void log(ILogListener logListener, String message)
+	{
+		outputBuilder.append(message).append(S_NEWLINE);
+
+		if (logListener != null)
+		{
+			logListener.handleLogEntry(message);
+		}
+	}
+
+	private static String formatDiagnostic(Diagnostic<? extends JavaFileObject> diagnostic)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		JavaFileObject source = diagnostic.getSource();
+
+		if (source != null)
+		{
+			builder.append(new File(source.toUri()).getName());
+
+			if (diagnostic.getLineNumber() != Diagnostic.NOPOS)
+			{
+				builder.append(':').append(diagnostic.getLineNumber());
+			}
+
+			builder.append(": ");
+		}
+
+		builder.append(diagnostic.getKind().toString().toLowerCase(Locale.ENGLISH)).append(": ");
+		builder.append(diagnostic.getMessage(Locale.getDefault()));
+
+		return builder.toString();
+	}
+
+	private void report(ILogListener logListener, Diagnostic<? extends JavaFileObject> diagnostic)
+	{
+		String text = formatDiagnostic(diagnostic);
+
+		if (diagnostic.getKind() == Diagnostic.Kind.ERROR)
+		{
+			errorBuilder.append(text).append(S_NEWLINE);
+
+			if (logListener != null)
+			{
+				logListener.handleErrorEntry(text);
+			}
+		}
+		else
+		{
+			outputBuilder.append(text).append(S_NEWLINE);
+
+			if (logListener != null)
+			{
+				logListener.handleLogEntry(text);
+			}
+		}
+	}
+
+	private class StreamingDiagnostics implements DiagnosticListener<JavaFileObject>
+	{
+		private final ILogListener logListener;
+
+		StreamingDiagnostics(ILogListener logListener)
+		{
+			this.logListener = logListener;
+		}
+
+		@Override
+		public void report(Diagnostic<? extends JavaFileObject> diagnostic)
+		{
+			CompilerJavaInProcess.this.report(logListener, diagnostic);
+		}
+	}
+
+	@Override
+	public String getOutputStream()
+	{
+		return outputBuilder.toString();
+	}
+
+	@Override
+	public String getErrorStream()
+	{
+		return errorBuilder.toString();
+	}
+}
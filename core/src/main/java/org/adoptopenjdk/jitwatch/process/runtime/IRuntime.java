@@ -18,4 +18,6 @@ public interface IRuntime extends IExternalProcess
 	public String getClassToExecute(File fileToRun);
 	
 	public String getClassForTriView(File fileToRun);
+
+	public void stopProcess();
 }
\ No newline at end of file
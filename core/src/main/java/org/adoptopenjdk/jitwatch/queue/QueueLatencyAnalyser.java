@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.queue;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C1;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.CompilerThreadSeries;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+
+/*
+ * Breaks the life of each compile task into its queue wait (task_queued to
+ * task start) and compile time (task start to nmethod emitted) and
+ * aggregates them per compiler and tier.
+ *
+ * The backlog over time is a sweep over the queued and started stamps of
+ * every compilation, the same step series the compiler thread view builds
+ * for a single thread.
+ *
+ * A queued C2 task is a method that crossed the hot threshold, so C2 tasks
+ * whose wait is above the stall percentile are the hot methods left running
+ * slower code. Overlapping long waits are merged into stall periods, ranked
+ * by the total time the methods in them spent waiting.
+ */
+public class QueueLatencyAnalyser implements ITreeVisitable
+{
+	public static final double DEFAULT_STALL_PERCENTILE = 90;
+
+	public static final long DEFAULT_MIN_STALL_WAIT = 1;
+
+	private static final String UNKNOWN_COMPILER = "Unknown";
+
+	private final IReadOnlyJITDataModel model;
+
+	private final double stallPercentile;
+
+	private final long minStallWait;
+
+	private final List<Compilation> compilations = new ArrayList<>();
+
+	private final Map<String, QueueLatencyStats> latencyStats = new TreeMap<>();
+
+	private final Map<String, List<Compilation>> groupCompilations = new TreeMap<>();
+
+	private final List<QueueStall> stalls = new ArrayList<>();
+
+	private CompilerThreadSeries backlog;
+
+	private long stallThreshold;
+
+	private int unstartedCount;
+
+	public QueueLatencyAnalyser(IReadOnlyJITDataModel model)
+	{
+		this(model, DEFAULT_STALL_PERCENTILE, DEFAULT_MIN_STALL_WAIT);
+	}
+
+	/*
+	 * stallPercentile (0-100) of the C2 queue waits, and the minimum wait in
+	 * milliseconds, above which a wait counts towards a stall
+	 */
+	public QueueLatencyAnalyser(IReadOnlyJITDataModel model, double stallPercentile, long minStallWait)
+	{
+		this.model = model;
+		this.stallPercentile = stallPercentile;
+		this.minStallWait = minStallWait;
+	}
+
+	public static long getQueueWait(Compilation compilation)
+	{
+		return compilation.getStampTaskCompilationStart() - compilation.getStampTaskQueued();
+	}
+
+	/*
+	 * -1 if the compilation did not emit an nmethod
+	 */
+	public static long getCompileTime(Compilation compilation)
+	{
+		long start = compilation.getStampTaskCompilationStart();
+		long emitted = compilation.getStampNMethodEmitted();
+
+		return (emitted > 0 && emitted >= start) ? emitted - start : -1;
+	}
+
+	/*
+	 * Compiler and tier of the task, for example "C1 L3" or "C2 L4"
+	 */
+	public static String getGroupName(Compilation compilation)
+	{
+		if (compilation.isC2N())
+		{
+			return "C2N";
+		}
+
+		int level = compilation.getLevel();
+
+		String compiler;
+
+		if (level >= 1 && level <= 3)
+		{
+			compiler = C1;
+		}
+		else if (level == 4)
+		{
+			compiler = C2;
+		}
+		else
+		{
+			compiler = compilation.getCompiler();
+
+			if (compiler == null || compiler.isEmpty())
+			{
+				compiler = UNKNOWN_COMPILER;
+			}
+		}
+
+		return level > 0 ? compiler + " L" + level : compiler;
+	}
+
+	/*
+	 * Returns the stall periods, longest total wait first
+	 */
+	public List<QueueStall> analyse()
+	{
+		TreeVisitor.walkTree(model, this);
+
+		for (Compilation compilation : compilations)
+		{
+			String groupName = getGroupName(compilation);
+
+			QueueLatencyStats stats = latencyStats.get(groupName);
+
+			if (stats == null)
+			{
+				stats = new QueueLatencyStats(groupName);
+				latencyStats.put(groupName, stats);
+				groupCompilations.put(groupName, new ArrayList<Compilation>());
+			}
+
+			stats.add(compilation);
+			groupCompilations.get(groupName).add(compilation);
+		}
+
+		backlog = new CompilerThreadSeries(compilations);
+
+		findStalls();
+
+		return stalls;
+	}
+
+	@Override
+	public void reset()
+	{
+		compilations.clear();
+		latencyStats.clear();
+		groupCompilations.clear();
+		stalls.clear();
+		backlog = null;
+		stallThreshold = 0;
+		unstartedCount = 0;
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		for (Compilation compilation : metaMember.getCompilations())
+		{
+			long queued = compilation.getStampTaskQueued();
+			long started = compilation.getStampTaskCompilationStart();
+
+			if (queued > 0 && started >= queued)
+			{
+				compilations.add(compilation);
+			}
+			else if (queued > 0)
+			{
+				unstartedCount++;
+			}
+		}
+	}
+
+	private void findStalls()
+	{
+		List<Compilation> hot = new ArrayList<>();
+
+		long[] waits = new long[compilations.size()];
+
+		int waitCount = 0;
+
+		for (Compilation compilation : compilations)
+		{
+			if (isHot(compilation))
+			{
+				hot.add(compilation);
+				waits[waitCount++] = getQueueWait(compilation);
+			}
+		}
+
+		if (waitCount == 0)
+		{
+			return;
+		}
+
+		Arrays.sort(waits, 0, waitCount);
+
+		// nearest rank
+		int rank = (int) Math.ceil(stallPercentile / 100.0 * waitCount);
+
+		rank = Math.max(1, Math.min(waitCount, rank));
+
+		stallThreshold = Math.max(minStallWait, waits[rank - 1]);
+
+		List<Compilation> longWaits = new ArrayList<>();
+
+		for (Compilation compilation : hot)
+		{
+			if (getQueueWait(compilation) >= stallThreshold)
+			{
+				longWaits.add(compilation);
+			}
+		}
+
+		Collections.sort(longWaits, new Comparator<Compilation>()
+		{
+			@Override
+			public int compare(Compilation c1, Compilation c2)
+			{
+				return Long.compare(c1.getStampTaskQueued(), c2.getStampTaskQueued());
+			}
+		});
+
+		QueueStall current = null;
+
+		for (Compilation compilation : longWaits)
+		{
+			if (current != null && current.overlaps(compilation))
+			{
+				current.add(compilation);
+			}
+			else
+			{
+				current = new QueueStall(compilation);
+				stalls.add(current);
+			}
+		}
+
+		for (QueueStall stall : stalls)
+		{
+			stall.sortByWait();
+		}
+
+		Collections.sort(stalls, new Comparator<QueueStall>()
+		{
+			@Override
+			public int compare(QueueStall s1, QueueStall s2)
+			{
+				return Long.compare(s2.getTotalWait(), s1.getTotalWait());
+			}
+		});
+	}
+
+	private boolean isHot(Compilation compilation)
+	{
+		// getLevel() is 4 for C2 tasks in non-tiered logs too
+		return !compilation.isC2N() && compilation.getLevel() == 4;
+	}
+
+	/*
+	 * Queue wait and compile time by compiler and tier, sorted by name
+	 */
+	public Map<String, QueueLatencyStats> getLatencyStats()
+	{
+		return latencyStats;
+	}
+
+	/*
+	 * Backlog of every compiler queue combined
+	 */
+	public CompilerThreadSeries getBacklog()
+	{
+		return backlog;
+	}
+
+	/*
+	 * Backlog of the queue for one compiler and tier
+	 */
+	public CompilerThreadSeries getBacklog(String groupName)
+	{
+		List<Compilation> group = groupCompilations.get(groupName);
+
+		return group == null ? null : new CompilerThreadSeries(group);
+	}
+
+	public List<QueueStall> getStalls()
+	{
+		return stalls;
+	}
+
+	/*
+	 * Wait in milliseconds at or above which a C2 task counted towards a stall
+	 */
+	public long getStallThreshold()
+	{
+		return stallThreshold;
+	}
+
+	public int getCompilationCount()
+	{
+		return compilations.size();
+	}
+
+	/*
+	 * Tasks queued with no start stamp, such as those still queued when the
+	 * log ended
+	 */
+	public int getUnstartedCount()
+	{
+		return unstartedCount;
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.queue;
+
+import org.adoptopenjdk.jitwatch.histo.LogLinearHistogram;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+
+/*
+ * Queue wait (queued to started) and compile time (started to nmethod
+ * emitted) distributions in milliseconds for one compiler and tier
+ */
+public class QueueLatencyStats
+{
+	private final String name;
+
+	private final LogLinearHistogram waitHistogram = new LogLinearHistogram();
+
+	private final LogLinearHistogram compileHistogram = new LogLinearHistogram();
+
+	private long totalWait;
+
+	private Compilation longestWait;
+
+	public QueueLatencyStats(String name)
+	{
+		this.name = name;
+	}
+
+	void add(Compilation compilation)
+	{
+		long wait = QueueLatencyAnalyser.getQueueWait(compilation);
+
+		waitHistogram.recordValue(wait);
+
+		totalWait += wait;
+
+		if (longestWait == null || wait > QueueLatencyAnalyser.getQueueWait(longestWait))
+		{
+			longestWait = compilation;
+		}
+
+		long compileTime = QueueLatencyAnalyser.getCompileTime(compilation);
+
+		if (compileTime >= 0)
+		{
+			compileHistogram.recordValue(compileTime);
+		}
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public long getCount()
+	{
+		return waitHistogram.getTotalCount();
+	}
+
+	public long getTotalWait()
+	{
+		return totalWait;
+	}
+
+	public double getMeanWait()
+	{
+		return waitHistogram.getMean();
+	}
+
+	public long getMaxWait()
+	{
+		return waitHistogram.getMaxValue();
+	}
+
+	/*
+	 * percentile is 0-100
+	 */
+	public long getWaitPercentile(double percentile)
+	{
+		return waitHistogram.getPercentile(percentile);
+	}
+
+	public Compilation getLongestWait()
+	{
+		return longestWait;
+	}
+
+	/*
+	 * Compilations that emitted an nmethod, failed compiles have no compile time
+	 */
+	public long getCompiledCount()
+	{
+		return compileHistogram.getTotalCount();
+	}
+
+	public double getMeanCompileTime()
+	{
+		return compileHistogram.getMean();
+	}
+
+	public long getMaxCompileTime()
+	{
+		return compileHistogram.getMaxValue();
+	}
+
+	public long getCompileTimePercentile(double percentile)
+	{
+		return compileHistogram.getPercentile(percentile);
+	}
+
+	public LogLinearHistogram getWaitHistogram()
+	{
+		return waitHistogram;
+	}
+
+	public LogLinearHistogram getCompileHistogram()
+	{
+		return compileHistogram;
+	}
+}
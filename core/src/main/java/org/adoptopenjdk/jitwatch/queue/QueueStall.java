@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.queue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+
+/*
+ * A period in which hot methods queued for C2 waited unusually long. The
+ * period runs from the first of the long waits being queued to the last of
+ * them starting, the waits overlap so the queue never drained in between.
+ */
+public class QueueStall
+{
+	private long start;
+	private long end;
+
+	private long totalWait;
+
+	private final List<Compilation> compilations = new ArrayList<>();
+
+	QueueStall(Compilation compilation)
+	{
+		start = compilation.getStampTaskQueued();
+		end = compilation.getStampTaskCompilationStart();
+
+		add(compilation);
+	}
+
+	boolean overlaps(Compilation compilation)
+	{
+		return compilation.getStampTaskQueued() <= end;
+	}
+
+	void add(Compilation compilation)
+	{
+		compilations.add(compilation);
+
+		totalWait += QueueLatencyAnalyser.getQueueWait(compilation);
+
+		start = Math.min(start, compilation.getStampTaskQueued());
+		end = Math.max(end, compilation.getStampTaskCompilationStart());
+	}
+
+	void sortByWait()
+	{
+		Collections.sort(compilations, new Comparator<Compilation>()
+		{
+			@Override
+			public int compare(Compilation c1, Compilation c2)
+			{
+				return Long.compare(QueueLatencyAnalyser.getQueueWait(c2), QueueLatencyAnalyser.getQueueWait(c1));
+			}
+		});
+	}
+
+	public long getStart()
+	{
+		return start;
+	}
+
+	public long getEnd()
+	{
+		return end;
+	}
+
+	public long getDuration()
+	{
+		return end - start;
+	}
+
+	public long getTotalWait()
+	{
+		return totalWait;
+	}
+
+	public long getMaxWait()
+	{
+		return compilations.isEmpty() ? 0 : QueueLatencyAnalyser.getQueueWait(compilations.get(0));
+	}
+
+	/*
+	 * Longest wait first
+	 */
+	public List<Compilation> getCompilations()
+	{
+		return compilations;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "QueueStall [start=" + start + ", end=" + end + ", compilations=" + compilations.size() + ", totalWait="
+				+ totalWait + "]";
+	}
+}
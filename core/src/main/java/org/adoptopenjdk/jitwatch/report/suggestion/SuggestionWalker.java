@@ -57,6 +57,7 @@ import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.model.IParseDictionary;
 import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
 import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.PackedBytecodes;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.report.AbstractReportBuilder;
 import org.adoptopenjdk.jitwatch.report.Report;
@@ -253,47 +254,58 @@ public class SuggestionWalker extends AbstractReportBuilder
 
 		int currentBytecode = -1;
 
-		for (Tag child : parseTag.getChildren())
+		List<Tag> children = parseTag.getChildren();
+
+		PackedBytecodes.Cursor bcCursor = parseTag.getPackedBytecodeCursor();
+
+		int childCount = children.size();
+
+		for (int i = 0; i < childCount; i++)
 		{
+			if (bcCursor.advanceTo(i))
+			{
+				currentBytecode = bcCursor.getBCI();
+			}
+
+			Tag child = children.get(i);
+
 			String tagName = child.getName();
-			Map<String, String> attrs = child.getAttributes();
 
 			switch (tagName)
 			{
 			case TAG_METHOD:
 			{
-				methodID = attrs.get(ATTR_ID);
+				methodID = child.getAttribute(ATTR_ID);
 				break;
 			}
 
 			case TAG_BC:
 			{
-				String bci = attrs.get(ATTR_BCI);
-				currentBytecode = Integer.parseInt(bci);
+				currentBytecode = child.getIntAttribute(ATTR_BCI);
 				break;
 			}
 
 			case TAG_BRANCH:
 			{
-				handleBranchTag(attrs, currentBytecode, caller);
+				handleBranchTag(child, currentBytecode, caller);
 				break;
 			}
 
 			case TAG_CALL:
 			{
-				methodID = attrs.get(ATTR_METHOD);
+				methodID = child.getAttribute(ATTR_METHOD);
 				break;
 			}
 
 			case TAG_INLINE_FAIL:
 			{
-				handleInlineFailTag(attrs, methodID, caller, currentBytecode, parseDictionary);
+				handleInlineFailTag(child, methodID, caller, currentBytecode, parseDictionary);
 				break;
 			}
 
 			case TAG_PARSE:
 			{
-				String callerID = attrs.get(ATTR_METHOD);
+				String callerID = child.getAttribute(ATTR_METHOD);
 
 				IMetaMember nestedCaller = ParseUtil.lookupMember(callerID, parseDictionary, model);
 
@@ -306,7 +318,7 @@ public class SuggestionWalker extends AbstractReportBuilder
 
 			case TAG_PHASE:
 			{
-				String phaseName = attrs.get(ATTR_NAME);
+				String phaseName = child.getAttribute(ATTR_NAME);
 
 				if (S_PARSE_HIR.equals(phaseName))
 				{
@@ -321,11 +333,11 @@ public class SuggestionWalker extends AbstractReportBuilder
 
 			case TAG_HOT_THROW:
 			{
-				String preallocated = attrs.get(ATTR_PREALLOCATED);
+				String preallocated = child.getAttribute(ATTR_PREALLOCATED);
 
 				if (!"1".equals(preallocated))
 				{
-					handleHotThrowNotPreallocated(attrs, currentBytecode, caller);
+					handleHotThrowNotPreallocated(currentBytecode, caller);
 				}
 				break;
 			}
@@ -337,7 +349,7 @@ public class SuggestionWalker extends AbstractReportBuilder
 		}
 	}
 
-	private void handleInlineFailTag(Map<String, String> attrs, String methodID, IMetaMember caller, int currentBytecode,
+	private void handleInlineFailTag(Tag tagInlineFail, String methodID, IMetaMember caller, int currentBytecode,
 			IParseDictionary parseDictionary)
 	{
 		IMetaMember callee = ParseUtil.lookupMember(methodID, parseDictionary, model);
@@ -346,10 +358,8 @@ public class SuggestionWalker extends AbstractReportBuilder
 		{
 			Tag methodTag = parseDictionary.getMethod(methodID);
 
-			Map<String, String> methodTagAttributes = methodTag.getAttributes();
-
-			String methodBytecodes = methodTagAttributes.get(ATTR_BYTES);
-			String invocations = methodTagAttributes.get(ATTR_IICOUNT);
+			String methodBytecodes = methodTag.getAttribute(ATTR_BYTES);
+			String invocations = methodTag.getAttribute(ATTR_IICOUNT);
 
 			if (invocations != null)
 			{
@@ -357,7 +367,7 @@ public class SuggestionWalker extends AbstractReportBuilder
 
 				if (invocationCount >= MIN_INLINING_INVOCATIONS)
 				{
-					String reason = attrs.get(ATTR_REASON);
+					String reason = tagInlineFail.getAttribute(ATTR_REASON);
 					reason = StringUtil.replaceXMLEntities(reason);
 
 					double score = 0;
@@ -400,7 +410,7 @@ public class SuggestionWalker extends AbstractReportBuilder
 					}
 				}
 			}
-			else if ("1".equals(methodTagAttributes.get(ATTR_UNLOADED)))
+			else if ("1".equals(methodTag.getAttribute(ATTR_UNLOADED)))
 			{
 			}
 			else
@@ -442,7 +452,7 @@ public class SuggestionWalker extends AbstractReportBuilder
 		}
 	}
 
-	private void handleHotThrowNotPreallocated(Map<String, String> attrs, int currentBytecode, IMetaMember caller)
+	private void handleHotThrowNotPreallocated(int currentBytecode, IMetaMember caller)
 	{
 		double score = scoreMap.get(HOT_THROW_NOT_PREALLOCATED);
 
@@ -464,10 +474,10 @@ public class SuggestionWalker extends AbstractReportBuilder
 		}
 	}
 
-	private void handleBranchTag(Map<String, String> attrs, int currentBytecode, IMetaMember caller)
+	private void handleBranchTag(Tag tagBranch, int currentBytecode, IMetaMember caller)
 	{
-		String countStr = attrs.get(ATTR_BRANCH_COUNT);
-		String probStr = attrs.get(ATTR_BRANCH_PROB);
+		String countStr = tagBranch.getAttribute(ATTR_BRANCH_COUNT);
+		String probStr = tagBranch.getAttribute(ATTR_BRANCH_PROB);
 
 		long count = 0;
 		double probability = 0.0;
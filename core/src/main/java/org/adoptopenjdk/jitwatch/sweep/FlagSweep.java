@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.sweep;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.HEADLESS_SEPARATOR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig.CompressedOops;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig.TieredCompilation;
+
+/*
+ * The values to try for each swept setting. Every dimension starts with the
+ * single value from the baseline so only the settings being explored need
+ * to be set. expand() returns the cross product in a stable order.
+ */
+public class FlagSweep
+{
+	public static final int MAX_CONFIGURATIONS = 256;
+
+	private static final String VALUE_SEPARATOR = ",";
+	private static final String SWITCH_SEPARATOR = ";";
+
+	private List<TieredCompilation> tieredModes;
+	private List<CompressedOops> compressedOopsModes;
+	private List<Integer> freqInlineSizes;
+	private List<Integer> maxInlineSizes;
+	private List<Integer> compileThresholds;
+	private List<String> extraVMSwitches;
+
+	public FlagSweep(SweepSettings baseline)
+	{
+		tieredModes = Collections.singletonList(baseline.getTieredMode());
+		compressedOopsModes = Collections.singletonList(baseline.getCompressedOopsMode());
+		freqInlineSizes = Collections.singletonList(baseline.getFreqInlineSize());
+		maxInlineSizes = Collections.singletonList(baseline.getMaxInlineSize());
+		compileThresholds = Collections.singletonList(baseline.getCompileThreshold());
+		extraVMSwitches = Collections.singletonList(baseline.getExtraVMSwitches());
+	}
+
+	public void setTieredModes(List<TieredCompilation> tieredModes)
+	{
+		this.tieredModes = nonEmpty(tieredModes, this.tieredModes);
+	}
+
+	public void setCompressedOopsModes(List<CompressedOops> compressedOopsModes)
+	{
+		this.compressedOopsModes = nonEmpty(compressedOopsModes, this.compressedOopsModes);
+	}
+
+	public void setFreqInlineSizes(List<Integer> freqInlineSizes)
+	{
+		this.freqInlineSizes = nonEmpty(freqInlineSizes, this.freqInlineSizes);
+	}
+
+	public void setMaxInlineSizes(List<Integer> maxInlineSizes)
+	{
+		this.maxInlineSizes = nonEmpty(maxInlineSizes, this.maxInlineSizes);
+	}
+
+	public void setCompileThresholds(List<Integer> compileThresholds)
+	{
+		this.compileThresholds = nonEmpty(compileThresholds, this.compileThresholds);
+	}
+
+	public void setExtraVMSwitches(List<String> extraVMSwitches)
+	{
+		this.extraVMSwitches = nonEmpty(extraVMSwitches, this.extraVMSwitches);
+	}
+
+	private static <T> List<T> nonEmpty(List<T> values, List<T> existing)
+	{
+		return (values == null || values.isEmpty()) ? existing : new ArrayList<>(values);
+	}
+
+	/*
+	 * Exact up to MAX_CONFIGURATIONS, otherwise some count above it as
+	 * counting stops once the limit is passed
+	 */
+	public long getConfigurationCount()
+	{
+		int[] sizes = new int[] { tieredModes.size(), compressedOopsModes.size(), freqInlineSizes.size(),
+				maxInlineSizes.size(), compileThresholds.size(), extraVMSwitches.size() };
+
+		long result = 1;
+
+		for (int size : sizes)
+		{
+			result *= size;
+
+			if (result > MAX_CONFIGURATIONS)
+			{
+				break;
+			}
+		}
+
+		return result;
+	}
+
+	public List<SweepSettings> expand()
+	{
+		List<SweepSettings> result = new ArrayList<>((int) Math.min(getConfigurationCount(), MAX_CONFIGURATIONS));
+
+		for (TieredCompilation tiered : tieredModes)
+		{
+			for (CompressedOops oops : compressedOopsModes)
+			{
+				for (Integer freq : freqInlineSizes)
+				{
+					for (Integer max : maxInlineSizes)
+					{
+						for (Integer threshold : compileThresholds)
+						{
+							for (String extra : extraVMSwitches)
+							{
+								result.add(new SweepSettings(tiered, oops, freq, max, threshold, extra));
+							}
+						}
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/*
+	 * Accepts a single value, a list "100,200,325" or a range "100-400:100"
+	 * (the step defaults to 1). Lists may mix values and ranges.
+	 */
+	public static List<Integer> parseIntValues(String spec)
+	{
+		List<Integer> result = new ArrayList<>();
+
+		if (spec == null)
+		{
+			return result;
+		}
+
+		for (String part : spec.split(VALUE_SEPARATOR))
+		{
+			part = part.trim();
+
+			if (part.isEmpty())
+			{
+				continue;
+			}
+
+			int dashIndex = part.indexOf('-', 1);
+
+			if (dashIndex == -1)
+			{
+				addValue(result, Integer.parseInt(part));
+			}
+			else
+			{
+				int start = Integer.parseInt(part.substring(0, dashIndex).trim());
+
+				String rest = part.substring(dashIndex + 1);
+
+				int step = 1;
+
+				int colonIndex = rest.indexOf(':');
+
+				if (colonIndex != -1)
+				{
+					step = Integer.parseInt(rest.substring(colonIndex + 1).trim());
+					rest = rest.substring(0, colonIndex);
+				}
+
+				int end = Integer.parseInt(rest.trim());
+
+				if (step <= 0 || end < start)
+				{
+					throw new NumberFormatException("Invalid range: " + part);
+				}
+
+				for (long value = start; value <= end; value += step)
+				{
+					addValue(result, (int) value);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private static void addValue(List<Integer> values, int value)
+	{
+		if (values.size() == MAX_CONFIGURATIONS)
+		{
+			throw new NumberFormatException("More than " + MAX_CONFIGURATIONS + " values");
+		}
+
+		if (!values.contains(value))
+		{
+			values.add(value);
+		}
+	}
+
+	/*
+	 * Alternative sets of extra switches are separated by ';' so that each
+	 * set may itself contain several space separated switches
+	 */
+	public static List<String> parseSwitchValues(String spec)
+	{
+		List<String> result = new ArrayList<>();
+
+		if (spec != null)
+		{
+			for (String part : spec.split(SWITCH_SEPARATOR, -1))
+			{
+				String trimmed = part.trim();
+
+				if (!result.contains(trimmed))
+				{
+					result.add(trimmed);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	public static String comparisonToString(List<SweepResult> results)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("sep=").append(HEADLESS_SEPARATOR).append(S_NEWLINE);
+
+		builder.append("Log").append(HEADLESS_SEPARATOR);
+		builder.append("Tiered").append(HEADLESS_SEPARATOR);
+		builder.append("Compressed Oops").append(HEADLESS_SEPARATOR);
+		builder.append("FreqInlineSize").append(HEADLESS_SEPARATOR);
+		builder.append("MaxInlineSize").append(HEADLESS_SEPARATOR);
+		builder.append("CompileThreshold").append(HEADLESS_SEPARATOR);
+		builder.append("Extra Switches").append(HEADLESS_SEPARATOR);
+		builder.append("Status").append(HEADLESS_SEPARATOR);
+		builder.append("Run Time (ms)").append(HEADLESS_SEPARATOR);
+		builder.append("Parse Errors").append(HEADLESS_SEPARATOR);
+		builder.append("Compiled Members").append(HEADLESS_SEPARATOR);
+		builder.append("Compilations").append(HEADLESS_SEPARATOR);
+		builder.append("Inlined").append(HEADLESS_SEPARATOR);
+		builder.append("Not Inlined").append(HEADLESS_SEPARATOR);
+		builder.append("Native Bytes").append(HEADLESS_SEPARATOR);
+		builder.append("Total Compile Time (ms)").append(S_NEWLINE);
+
+		for (SweepResult result : results)
+		{
+			SweepSettings settings = result.getSettings();
+
+			builder.append(result.getLogFile().getName()).append(HEADLESS_SEPARATOR);
+			builder.append(settings.getTieredLabel()).append(HEADLESS_SEPARATOR);
+			builder.append(settings.getCompressedOopsLabel()).append(HEADLESS_SEPARATOR);
+			builder.append(settings.getFreqInlineSize()).append(HEADLESS_SEPARATOR);
+			builder.append(settings.getMaxInlineSize()).append(HEADLESS_SEPARATOR);
+			builder.append(settings.getCompileThreshold()).append(HEADLESS_SEPARATOR);
+			builder.append(settings.getExtraVMSwitches()).append(HEADLESS_SEPARATOR);
+			builder.append(result.isSuccess() ? "OK" : "FAILED " + result.getFailureMessage()).append(HEADLESS_SEPARATOR);
+			builder.append(result.getExecutionMillis()).append(HEADLESS_SEPARATOR);
+			builder.append(result.getParseErrors()).append(HEADLESS_SEPARATOR);
+			builder.append(result.getCompiledMembers()).append(HEADLESS_SEPARATOR);
+			builder.append(result.getCompilations()).append(HEADLESS_SEPARATOR);
+			builder.append(result.getInlineSuccessCount()).append(HEADLESS_SEPARATOR);
+			builder.append(result.getInlineFailCount()).append(HEADLESS_SEPARATOR);
+			builder.append(result.getTotalNativeSize()).append(HEADLESS_SEPARATOR);
+			builder.append(result.getTotalCompileMillis()).append(S_NEWLINE);
+		}
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.sweep;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NAME;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_PARSE_HIR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_FAIL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_SUCCESS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PARSE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PHASE;
+
+import java.io.File;
+
+import org.adoptopenjdk.jitwatch.compilation.AbstractCompilationVisitable;
+import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IParseDictionary;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Outcome of one sweep configuration: the JVM run, its parsed model and the
+ * totals shown in the comparison table
+ */
+public class SweepResult
+{
+	private static final Logger logger = LoggerFactory.getLogger(SweepResult.class);
+
+	private final SweepSettings settings;
+	private final File logFile;
+
+	private boolean executed;
+	private long executionMillis;
+	private int parseErrors;
+	private String failureMessage;
+
+	private IReadOnlyJITDataModel model;
+
+	private int compiledMembers;
+	private int compilations;
+	private int inlineSuccessCount;
+	private int inlineFailCount;
+	private long totalNativeSize;
+	private long totalCompileMillis;
+
+	public SweepResult(SweepSettings settings, File logFile)
+	{
+		this.settings = settings;
+		this.logFile = logFile;
+	}
+
+	public SweepSettings getSettings()
+	{
+		return settings;
+	}
+
+	public File getLogFile()
+	{
+		return logFile;
+	}
+
+	public boolean isExecuted()
+	{
+		return executed;
+	}
+
+	public void setExecuted(boolean executed)
+	{
+		this.executed = executed;
+	}
+
+	public long getExecutionMillis()
+	{
+		return executionMillis;
+	}
+
+	public void setExecutionMillis(long executionMillis)
+	{
+		this.executionMillis = executionMillis;
+	}
+
+	public int getParseErrors()
+	{
+		return parseErrors;
+	}
+
+	public void setParseErrors(int parseErrors)
+	{
+		this.parseErrors = parseErrors;
+	}
+
+	public String getFailureMessage()
+	{
+		return failureMessage;
+	}
+
+	public void setFailureMessage(String failureMessage)
+	{
+		this.failureMessage = failureMessage;
+	}
+
+	public boolean isSuccess()
+	{
+		return executed && failureMessage == null && model != null;
+	}
+
+	public IReadOnlyJITDataModel getModel()
+	{
+		return model;
+	}
+
+	public int getCompiledMembers()
+	{
+		return compiledMembers;
+	}
+
+	public int getCompilations()
+	{
+		return compilations;
+	}
+
+	public int getInlineSuccessCount()
+	{
+		return inlineSuccessCount;
+	}
+
+	public int getInlineFailCount()
+	{
+		return inlineFailCount;
+	}
+
+	public long getTotalNativeSize()
+	{
+		return totalNativeSize;
+	}
+
+	public long getTotalCompileMillis()
+	{
+		return totalCompileMillis;
+	}
+
+	/*
+	 * Keeps the model for drilling down and totals its compilations and
+	 * inlining decisions in a single walk
+	 */
+	public void summarise(IReadOnlyJITDataModel model)
+	{
+		this.model = model;
+
+		compiledMembers = 0;
+		compilations = 0;
+		inlineSuccessCount = 0;
+		inlineFailCount = 0;
+		totalNativeSize = 0;
+		totalCompileMillis = 0;
+
+		final InliningCounter inliningCounter = new InliningCounter();
+
+		TreeVisitor.walkTree(model, new ITreeVisitable()
+		{
+			@Override
+			public void visit(IMetaMember member)
+			{
+				if (member != null && member.isCompiled())
+				{
+					compiledMembers++;
+
+					for (Compilation compilation : member.getCompilations())
+					{
+						compilations++;
+						totalNativeSize += compilation.getNativeSize();
+						totalCompileMillis += Math.max(0, compilation.getCompilationDuration());
+
+						try
+						{
+							CompilationUtil.visitParseTagsOfCompilation(compilation, inliningCounter);
+						}
+						catch (LogParseException e)
+						{
+							logger.warn("Could not count inlining for {}", member, e);
+						}
+					}
+				}
+			}
+
+			@Override
+			public void reset()
+			{
+			}
+		});
+
+		inlineSuccessCount = inliningCounter.successCount;
+		inlineFailCount = inliningCounter.failCount;
+	}
+
+	private static class InliningCounter extends AbstractCompilationVisitable
+	{
+		private int successCount;
+		private int failCount;
+
+		@Override
+		public void visitTag(Tag parseTag, IParseDictionary parseDictionary) throws LogParseException
+		{
+			countParseTag(parseTag);
+		}
+
+		private void countParseTag(Tag parseTag)
+		{
+			for (Tag child : parseTag.getChildren())
+			{
+				switch (child.getName())
+				{
+				case TAG_INLINE_SUCCESS:
+					successCount++;
+					break;
+
+				case TAG_INLINE_FAIL:
+					failCount++;
+					break;
+
+				case TAG_PARSE:
+					countParseTag(child);
+					break;
+
+				case TAG_PHASE:
+					if (S_PARSE_HIR.equals(child.getAttribute(ATTR_NAME)))
+					{
+						countParseTag(child);
+					}
+					break;
+
+				default:
+					break;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.sweep;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SPACE;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig.CompressedOops;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig.TieredCompilation;
+import org.adoptopenjdk.jitwatch.core.JITWatchConstants;
+
+/*
+ * One combination of the JIT settings that a Sandbox sweep varies
+ */
+public class SweepSettings
+{
+	private final TieredCompilation tieredMode;
+	private final CompressedOops compressedOopsMode;
+	private final int freqInlineSize;
+	private final int maxInlineSize;
+	private final int compileThreshold;
+	private final String extraVMSwitches;
+
+	public SweepSettings(TieredCompilation tieredMode, CompressedOops compressedOopsMode, int freqInlineSize, int maxInlineSize,
+			int compileThreshold, String extraVMSwitches)
+	{
+		this.tieredMode = tieredMode;
+		this.compressedOopsMode = compressedOopsMode;
+		this.freqInlineSize = freqInlineSize;
+		this.maxInlineSize = maxInlineSize;
+		this.compileThreshold = compileThreshold;
+		this.extraVMSwitches = (extraVMSwitches == null) ? "" : extraVMSwitches.trim();
+	}
+
+	public static SweepSettings fromConfig(JITWatchConfig config)
+	{
+		return new SweepSettings(config.getTieredCompilationMode(), config.getCompressedOopsMode(), config.getFreqInlineSize(),
+				config.getMaxInlineSize(), config.getCompileThreshold(), config.getExtraVMSwitches());
+	}
+
+	public TieredCompilation getTieredMode()
+	{
+		return tieredMode;
+	}
+
+	public CompressedOops getCompressedOopsMode()
+	{
+		return compressedOopsMode;
+	}
+
+	public int getFreqInlineSize()
+	{
+		return freqInlineSize;
+	}
+
+	public int getMaxInlineSize()
+	{
+		return maxInlineSize;
+	}
+
+	public int getCompileThreshold()
+	{
+		return compileThreshold;
+	}
+
+	public String getExtraVMSwitches()
+	{
+		return extraVMSwitches;
+	}
+
+	public void addVMOptions(List<String> options, boolean disableInlining)
+	{
+		if (tieredMode == TieredCompilation.FORCE_TIERED)
+		{
+			options.add("-XX:+TieredCompilation");
+		}
+		else if (tieredMode == TieredCompilation.FORCE_NO_TIERED)
+		{
+			options.add("-XX:-TieredCompilation");
+		}
+
+		if (compressedOopsMode == CompressedOops.FORCE_COMPRESSED)
+		{
+			options.add("-XX:+UseCompressedOops");
+		}
+		else if (compressedOopsMode == CompressedOops.FORCE_NO_COMPRESSED)
+		{
+			options.add("-XX:-UseCompressedOops");
+		}
+
+		if (!disableInlining && freqInlineSize != JITWatchConstants.DEFAULT_FREQ_INLINE_SIZE)
+		{
+			options.add("-XX:FreqInlineSize=" + freqInlineSize);
+		}
+
+		if (!disableInlining && maxInlineSize != JITWatchConstants.DEFAULT_MAX_INLINE_SIZE)
+		{
+			options.add("-XX:MaxInlineSize=" + maxInlineSize);
+		}
+
+		if (compileThreshold != JITWatchConstants.DEFAULT_COMPILER_THRESHOLD)
+		{
+			options.add("-XX:CompileThreshold=" + compileThreshold);
+		}
+
+		if (extraVMSwitches.length() > 0)
+		{
+			String[] switches = extraVMSwitches.split(S_SPACE);
+
+			for (String sw : switches)
+			{
+				if (sw.length() > 0)
+				{
+					options.add(sw);
+				}
+			}
+		}
+	}
+
+	public String getTieredLabel()
+	{
+		switch (tieredMode)
+		{
+		case FORCE_TIERED:
+			return "tiered";
+		case FORCE_NO_TIERED:
+			return "no-tiered";
+		default:
+			return "default";
+		}
+	}
+
+	public String getCompressedOopsLabel()
+	{
+		switch (compressedOopsMode)
+		{
+		case FORCE_COMPRESSED:
+			return "compressed";
+		case FORCE_NO_COMPRESSED:
+			return "uncompressed";
+		default:
+			return "default";
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("tiered=").append(getTieredLabel());
+		builder.append(" oops=").append(getCompressedOopsLabel());
+		builder.append(" freq=").append(freqInlineSize);
+		builder.append(" max=").append(maxInlineSize);
+		builder.append(" threshold=").append(compileThreshold);
+
+		if (extraVMSwitches.length() > 0)
+		{
+			builder.append(" extra=").append(extraVMSwitches);
+		}
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.tiered;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+
+/*
+ * Level state machine of one member and the compile time (milliseconds) and
+ * code cache (native bytes) spent on code that was later thrown away
+ */
+public class TierMemberStats
+{
+	private final IMetaMember member;
+
+	private final List<String> states = new ArrayList<>();
+
+	private final List<Compilation> wasted = new ArrayList<>();
+
+	private int compilationCount;
+	private long totalMillis;
+	private long totalBytes;
+
+	private int invalidatedCount;
+	private int redundantCount;
+	private long wastedMillis;
+	private long wastedBytes;
+
+	public TierMemberStats(IMetaMember member)
+	{
+		this.member = member;
+	}
+
+	void addState(String state)
+	{
+		states.add(state);
+	}
+
+	void addCompilation(Compilation compilation)
+	{
+		compilationCount++;
+		totalMillis += compilation.getCompilationDuration();
+		totalBytes += compilation.getNativeSize();
+	}
+
+	void addWaste(Compilation compilation, WasteKind kind)
+	{
+		wasted.add(compilation);
+
+		wastedMillis += compilation.getCompilationDuration();
+		wastedBytes += compilation.getNativeSize();
+
+		switch (kind)
+		{
+		case INVALIDATED:
+			invalidatedCount++;
+			break;
+		case REDUNDANT:
+			redundantCount++;
+			break;
+		}
+	}
+
+	public IMetaMember getMember()
+	{
+		return member;
+	}
+
+	/*
+	 * States in order starting from the interpreter, for example 0, 3, 4, deopt, 3, 4
+	 */
+	public List<String> getStates()
+	{
+		return states;
+	}
+
+	public String getPath()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (String state : states)
+		{
+			if (builder.length() > 0)
+			{
+				builder.append(TierTransitionAnalyser.TRANSITION_SEPARATOR);
+			}
+
+			builder.append(state);
+		}
+
+		return builder.toString();
+	}
+
+	public int getTransitionCount()
+	{
+		return Math.max(0, states.size() - 1);
+	}
+
+	public List<Compilation> getWastedCompilations()
+	{
+		return wasted;
+	}
+
+	public int getCompilationCount()
+	{
+		return compilationCount;
+	}
+
+	public long getTotalMillis()
+	{
+		return totalMillis;
+	}
+
+	public long getTotalBytes()
+	{
+		return totalBytes;
+	}
+
+	public int getInvalidatedCount()
+	{
+		return invalidatedCount;
+	}
+
+	public int getRedundantCount()
+	{
+		return redundantCount;
+	}
+
+	public int getWastedCount()
+	{
+		return wasted.size();
+	}
+
+	public long getWastedMillis()
+	{
+		return wastedMillis;
+	}
+
+	public long getWastedBytes()
+	{
+		return wastedBytes;
+	}
+}
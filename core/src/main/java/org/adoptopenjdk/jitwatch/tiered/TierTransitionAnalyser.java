@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.tiered;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.deopt.DeoptAnalyser;
+import org.adoptopenjdk.jitwatch.deopt.DeoptMemberStats;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+
+/*
+ * Builds a level state machine per member from its standard (non-OSR)
+ * compilations in nmethod emitted order. Each member starts interpreted at
+ * level 0, each compilation moves it to the compiled level and an
+ * invalidation of the installed code, as counted by DeoptAnalyser, moves it
+ * to the deopt state.
+ *
+ * Transitions are counted across all members so the common paths such as
+ * 0 -> 3 -> 4 can be compared with churn such as 4 -> deopt -> 3 -> 4.
+ *
+ * A compilation is wasted if its code was invalidated, or if it was
+ * replaced at the same or a lower level without an invalidation. Moving up
+ * a level is the tiered policy working as intended and is not waste. OSR
+ * compilations do not change the state but are wasted if invalidated.
+ */
+public class TierTransitionAnalyser implements ITreeVisitable
+{
+	public static final String STATE_INTERPRETED = "0";
+
+	public static final String STATE_DEOPT = "deopt";
+
+	public static final String TRANSITION_SEPARATOR = " -> ";
+
+	private static final String UNKNOWN_LEVEL = "unknown";
+
+	private final IReadOnlyJITDataModel model;
+
+	private final Map<Compilation, Long> invalidations = new HashMap<>();
+
+	private final Map<IMetaMember, TierMemberStats> memberStats = new LinkedHashMap<>();
+
+	private final Map<String, Integer> transitionCounts = new HashMap<>();
+
+	private final Map<String, Integer> pathCounts = new HashMap<>();
+
+	private int compilationCount;
+	private long totalMillis;
+	private long totalBytes;
+
+	private int invalidatedCount;
+	private int redundantCount;
+	private long wastedMillis;
+	private long wastedBytes;
+
+	public TierTransitionAnalyser(IReadOnlyJITDataModel model)
+	{
+		this.model = model;
+	}
+
+	public static String getState(Compilation compilation)
+	{
+		int level = compilation.getLevel();
+
+		if (level >= 0)
+		{
+			return Integer.toString(level);
+		}
+
+		String compiler = compilation.getCompiler();
+
+		return (compiler == null || compiler.isEmpty()) ? UNKNOWN_LEVEL : compiler;
+	}
+
+	public static String getTransition(String from, String to)
+	{
+		return from + TRANSITION_SEPARATOR + to;
+	}
+
+	/*
+	 * Returns the members with wasted compilations, most wasted compile time
+	 * first
+	 */
+	public List<TierMemberStats> analyse()
+	{
+		invalidations.clear();
+
+		DeoptAnalyser deoptAnalyser = new DeoptAnalyser(model);
+
+		deoptAnalyser.analyse();
+
+		for (DeoptMemberStats stats : deoptAnalyser.getMemberStats().values())
+		{
+			for (DeoptEvent invalidation : stats.getInvalidations())
+			{
+				invalidations.put(invalidation.getCompilation(), invalidation.getStamp());
+			}
+		}
+
+		TreeVisitor.walkTree(model, this);
+
+		List<TierMemberStats> result = new ArrayList<>();
+
+		for (TierMemberStats stats : memberStats.values())
+		{
+			if (stats.getWastedCount() > 0)
+			{
+				result.add(stats);
+			}
+		}
+
+		Collections.sort(result, new Comparator<TierMemberStats>()
+		{
+			@Override
+			public int compare(TierMemberStats s1, TierMemberStats s2)
+			{
+				int order = Long.compare(s2.getWastedMillis(), s1.getWastedMillis());
+
+				if (order == 0)
+				{
+					order = Integer.compare(s2.getWastedCount(), s1.getWastedCount());
+				}
+
+				if (order == 0)
+				{
+					order = Long.compare(s2.getWastedBytes(), s1.getWastedBytes());
+				}
+
+				return order;
+			}
+		});
+
+		return result;
+	}
+
+	@Override
+	public void reset()
+	{
+		memberStats.clear();
+		transitionCounts.clear();
+		pathCounts.clear();
+		compilationCount = 0;
+		totalMillis = 0;
+		totalBytes = 0;
+		invalidatedCount = 0;
+		redundantCount = 0;
+		wastedMillis = 0;
+		wastedBytes = 0;
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		List<Compilation> compiled = new ArrayList<>();
+
+		for (Compilation compilation : metaMember.getCompilations())
+		{
+			if (compilation.getStampNMethodEmitted() > 0 && !compilation.isC2N())
+			{
+				compiled.add(compilation);
+			}
+		}
+
+		if (compiled.isEmpty())
+		{
+			return;
+		}
+
+		Collections.sort(compiled, new Comparator<Compilation>()
+		{
+			@Override
+			public int compare(Compilation c1, Compilation c2)
+			{
+				return Long.compare(c1.getStampNMethodEmitted(), c2.getStampNMethodEmitted());
+			}
+		});
+
+		TierMemberStats stats = new TierMemberStats(metaMember);
+
+		memberStats.put(metaMember, stats);
+
+		String state = STATE_INTERPRETED;
+
+		stats.addState(state);
+
+		Compilation installed = null;
+
+		for (Compilation compilation : compiled)
+		{
+			addCompilation(stats, compilation);
+
+			if (invalidations.containsKey(compilation))
+			{
+				addWaste(stats, compilation, WasteKind.INVALIDATED);
+			}
+
+			if (compilation.isOSR())
+			{
+				continue;
+			}
+
+			if (installed != null)
+			{
+				Long invalidatedAt = invalidations.get(installed);
+
+				if (invalidatedAt != null)
+				{
+					if (invalidatedAt <= compilation.getStampNMethodEmitted())
+					{
+						state = transition(stats, state, STATE_DEOPT);
+					}
+				}
+				else if (isSameOrLowerLevel(compilation, installed))
+				{
+					addWaste(stats, installed, WasteKind.REDUNDANT);
+				}
+			}
+
+			state = transition(stats, state, getState(compilation));
+
+			installed = compilation;
+		}
+
+		if (installed != null && invalidations.containsKey(installed))
+		{
+			transition(stats, state, STATE_DEOPT);
+		}
+
+		// members with only OSR code never left the interpreter for normal entry
+		if (stats.getTransitionCount() > 0)
+		{
+			increment(pathCounts, stats.getPath());
+		}
+	}
+
+	private boolean isSameOrLowerLevel(Compilation replacement, Compilation replaced)
+	{
+		int replacementLevel = replacement.getLevel();
+		int replacedLevel = replaced.getLevel();
+
+		return replacementLevel >= 0 && replacedLevel >= 0 && replacementLevel <= replacedLevel;
+	}
+
+	private String transition(TierMemberStats stats, String from, String to)
+	{
+		stats.addState(to);
+
+		increment(transitionCounts, getTransition(from, to));
+
+		return to;
+	}
+
+	private void addCompilation(TierMemberStats stats, Compilation compilation)
+	{
+		stats.addCompilation(compilation);
+
+		compilationCount++;
+		totalMillis += compilation.getCompilationDuration();
+		totalBytes += compilation.getNativeSize();
+	}
+
+	private void addWaste(TierMemberStats stats, Compilation compilation, WasteKind kind)
+	{
+		stats.addWaste(compilation, kind);
+
+		wastedMillis += compilation.getCompilationDuration();
+		wastedBytes += compilation.getNativeSize();
+
+		switch (kind)
+		{
+		case INVALIDATED:
+			invalidatedCount++;
+			break;
+		case REDUNDANT:
+			redundantCount++;
+			break;
+		}
+	}
+
+	private static void increment(Map<String, Integer> counts, String key)
+	{
+		Integer count = counts.get(key);
+
+		counts.put(key, count == null ? 1 : count + 1);
+	}
+
+	private static Map<String, Integer> sortedByCount(Map<String, Integer> counts)
+	{
+		List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+
+		Collections.sort(entries, new Comparator<Map.Entry<String, Integer>>()
+		{
+			@Override
+			public int compare(Map.Entry<String, Integer> e1, Map.Entry<String, Integer> e2)
+			{
+				int result = Integer.compare(e2.getValue(), e1.getValue());
+
+				return result != 0 ? result : e1.getKey().compareTo(e2.getKey());
+			}
+		});
+
+		Map<String, Integer> result = new LinkedHashMap<>();
+
+		for (Map.Entry<String, Integer> entry : entries)
+		{
+			result.put(entry.getKey(), entry.getValue());
+		}
+
+		return result;
+	}
+
+	/*
+	 * Every member with a successful compilation, keyed in tree order
+	 */
+	public Map<IMetaMember, TierMemberStats> getMemberStats()
+	{
+		return memberStats;
+	}
+
+	/*
+	 * Transitions such as "3 -> 4" across all members, most frequent first
+	 */
+	public Map<String, Integer> getTransitionCounts()
+	{
+		return sortedByCount(transitionCounts);
+	}
+
+	public int getTransitionCount(String from, String to)
+	{
+		Integer count = transitionCounts.get(getTransition(from, to));
+
+		return count == null ? 0 : count;
+	}
+
+	/*
+	 * Whole member paths such as "0 -> 3 -> 4", most frequent first
+	 */
+	public Map<String, Integer> getPathCounts()
+	{
+		return sortedByCount(pathCounts);
+	}
+
+	public int getCompilationCount()
+	{
+		return compilationCount;
+	}
+
+	public long getTotalMillis()
+	{
+		return totalMillis;
+	}
+
+	public long getTotalBytes()
+	{
+		return totalBytes;
+	}
+
+	public int getInvalidatedCount()
+	{
+		return invalidatedCount;
+	}
+
+	public int getRedundantCount()
+	{
+		return redundantCount;
+	}
+
+	public long getWastedMillis()
+	{
+		return wastedMillis;
+	}
+
+	public long getWastedBytes()
+	{
+		return wastedBytes;
+	}
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.tiered;
+
+/*
+ * INVALIDATED code was made not entrant by a deoptimisation.
+ *
+ * REDUNDANT code was replaced by a compilation at the same or a lower level
+ * without being invalidated, such as repeated C1 profiling compiles.
+ */
+public enum WasteKind
+{
+	INVALIDATED, REDUNDANT
+}
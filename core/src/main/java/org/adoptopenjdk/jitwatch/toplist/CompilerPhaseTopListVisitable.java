@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.toplist;
+
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.phase.PhaseProfiler;
+import org.adoptopenjdk.jitwatch.phase.PhaseStats;
+
+public class CompilerPhaseTopListVisitable extends AbstractTopListVisitable
+{
+	public CompilerPhaseTopListVisitable(IReadOnlyJITDataModel model, boolean sortHighToLow)
+	{
+		super(model, sortHighToLow);
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+	}
+
+	@Override
+	public void postProcess()
+	{
+		PhaseProfiler profiler = new PhaseProfiler(model);
+
+		for (PhaseStats stats : profiler.analyse())
+		{
+			topList.add(new StringTopListScore(stats.getName(), stats.getSelfTime()));
+		}
+	}
+}
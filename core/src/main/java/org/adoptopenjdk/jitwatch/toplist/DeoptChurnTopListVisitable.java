@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.toplist;
+
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.deopt.DeoptAnalyser;
+import org.adoptopenjdk.jitwatch.deopt.DeoptMemberStats;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+
+public class DeoptChurnTopListVisitable extends AbstractTopListVisitable
+{
+	private Map<IMetaMember, DeoptMemberStats> memberStats;
+
+	public DeoptChurnTopListVisitable(IReadOnlyJITDataModel model, boolean sortHighToLow)
+	{
+		super(model, sortHighToLow);
+	}
+
+	@Override
+	public void reset()
+	{
+		DeoptAnalyser analyser = new DeoptAnalyser(model);
+
+		analyser.analyse();
+
+		memberStats = analyser.getMemberStats();
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		DeoptMemberStats stats = memberStats.get(metaMember);
+
+		if (stats != null && stats.getRecompileCount() > 0)
+		{
+			topList.add(new MemberScore(metaMember, stats.getRecompileCount()));
+		}
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.toplist;
+
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.deopt.DeoptAnalyser;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+
+public class DeoptReasonTopListVisitable extends AbstractTopListVisitable
+{
+	public DeoptReasonTopListVisitable(IReadOnlyJITDataModel model, boolean sortHighToLow)
+	{
+		super(model, sortHighToLow);
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+	}
+
+	@Override
+	public void postProcess()
+	{
+		DeoptAnalyser analyser = new DeoptAnalyser(model);
+
+		analyser.analyse();
+
+		for (Map.Entry<String, Integer> entry : analyser.getTrapReasons().entrySet())
+		{
+			topList.add(new StringTopListScore(entry.getKey(), entry.getValue().longValue()));
+		}
+	}
+}
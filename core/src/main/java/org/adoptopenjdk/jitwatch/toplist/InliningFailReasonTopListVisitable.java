@@ -88,13 +88,12 @@ public class InliningFailReasonTopListVisitable extends AbstractTopListVisitable
 		for (Tag child : parseTag.getChildren())
 		{
 			String tagName = child.getName();
-			Map<String, String> attrs = child.getAttributes();
 			
 			switch (tagName)
 			{
 			case TAG_INLINE_FAIL:
 			{
-				String reason = attrs.get(ATTR_REASON);
+				String reason = child.getAttribute(ATTR_REASON);
 				
 				reason = StringUtil.replaceXMLEntities(reason);						
 
@@ -118,7 +117,7 @@ public class InliningFailReasonTopListVisitable extends AbstractTopListVisitable
 			
   			case TAG_PHASE:
 			{
-				String phaseName = attrs.get(ATTR_NAME);
+				String phaseName = child.getAttribute(ATTR_NAME);
 				
 				if (S_PARSE_HIR.equals(phaseName))
 				{
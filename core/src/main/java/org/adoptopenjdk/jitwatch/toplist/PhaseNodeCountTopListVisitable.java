@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.toplist;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.phase.CompilationPhases;
+
+public class PhaseNodeCountTopListVisitable extends AbstractTopListVisitable
+{
+	public PhaseNodeCountTopListVisitable(IReadOnlyJITDataModel model, boolean sortHighToLow)
+	{
+		super(model, sortHighToLow);
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		int maxNodes = 0;
+
+		for (Compilation compilation : metaMember.getCompilations())
+		{
+			CompilationPhases phases = CompilationPhases.build(compilation);
+
+			if (phases != null)
+			{
+				maxNodes = Math.max(maxNodes, phases.getMaxNodes());
+			}
+		}
+
+		// only C2 logs node counts
+		if (maxNodes > 0)
+		{
+			topList.add(new MemberScore(metaMember, maxNodes));
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.toplist;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.phase.CompilationPhases;
+
+public class PhaseTimeTopListVisitable extends AbstractTopListVisitable
+{
+	public PhaseTimeTopListVisitable(IReadOnlyJITDataModel model, boolean sortHighToLow)
+	{
+		super(model, sortHighToLow);
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		long totalTime = 0;
+
+		boolean hasPhases = false;
+
+		for (Compilation compilation : metaMember.getCompilations())
+		{
+			CompilationPhases phases = CompilationPhases.build(compilation);
+
+			if (phases != null)
+			{
+				totalTime += phases.getTotalTime();
+				hasPhases = true;
+			}
+		}
+
+		if (hasPhases)
+		{
+			topList.add(new MemberScore(metaMember, totalTime));
+		}
+	}
+}
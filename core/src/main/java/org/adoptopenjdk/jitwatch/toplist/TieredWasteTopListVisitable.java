@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.toplist;
+
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.tiered.TierMemberStats;
+import org.adoptopenjdk.jitwatch.tiered.TierTransitionAnalyser;
+
+public class TieredWasteTopListVisitable extends AbstractTopListVisitable
+{
+	private Map<IMetaMember, TierMemberStats> memberStats;
+
+	public TieredWasteTopListVisitable(IReadOnlyJITDataModel model, boolean sortHighToLow)
+	{
+		super(model, sortHighToLow);
+	}
+
+	@Override
+	public void reset()
+	{
+		TierTransitionAnalyser analyser = new TierTransitionAnalyser(model);
+
+		analyser.analyse();
+
+		memberStats = analyser.getMemberStats();
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		TierMemberStats stats = memberStats.get(metaMember);
+
+		if (stats != null && stats.getWastedCount() > 0)
+		{
+			topList.add(new MemberScore(metaMember, stats.getWastedMillis()));
+		}
+	}
+}
@@ -19,7 +19,23 @@ import java.util.List;
 
 public final class ClassUtil
 {
-	private static DisposableURLClassLoader disposableClassLoader = new DisposableURLClassLoader(new ArrayList<URL>());
+	private static volatile DisposableURLClassLoader disposableClassLoader = new DisposableURLClassLoader(new ArrayList<URL>());
+
+	// when set the class loader is shared by concurrent parsers and
+	// initialise() / clear() from an individual parser are ignored
+	private static boolean sharedClassLoader = false;
+
+	// the loader in use before initialiseShared(), restored by releaseShared()
+	private static DisposableURLClassLoader loaderBeforeShared;
+
+	// set on threads parsing a second model so initialise() / clear() from
+	// their parser leave the loader of the main model alone
+	private static final ThreadLocal<ThreadClassLoader> threadClassLoader = new ThreadLocal<>();
+
+	private static final class ThreadClassLoader
+	{
+		private DisposableURLClassLoader loader = new DisposableURLClassLoader(new ArrayList<URL>());
+	}
 
 	private static final Logger logger = LoggerFactory.getLogger(ClassUtil.class);
 
@@ -27,8 +43,15 @@ public final class ClassUtil
 	{
 	}
 
-	public static void initialise(final List<URL> urls)
+	public static synchronized void initialise(final List<URL> urls)
 	{
+		ThreadClassLoader own = threadClassLoader.get();
+
+		if (sharedClassLoader && own == null)
+		{
+			return;
+		}
+
 		if (DEBUG_LOGGING_CLASSPATH)
 		{
 			for (URL url : urls)
@@ -37,7 +60,40 @@ public final class ClassUtil
 			}
 		}
 
-		disposableClassLoader = new DisposableURLClassLoader(urls);
+		if (own != null)
+		{
+			close(own.loader);
+
+			own.loader = new DisposableURLClassLoader(urls);
+		}
+		else
+		{
+			disposableClassLoader = new DisposableURLClassLoader(urls);
+		}
+	}
+
+	/*
+	 * Gives the current thread its own class loader until
+	 * releaseThreadClassLoader() so a model can be parsed alongside the main
+	 * model without replacing the global loader it uses
+	 */
+	public static void bindThreadClassLoader()
+	{
+		releaseThreadClassLoader();
+
+		threadClassLoader.set(new ThreadClassLoader());
+	}
+
+	public static void releaseThreadClassLoader()
+	{
+		ThreadClassLoader own = threadClassLoader.get();
+
+		if (own != null)
+		{
+			close(own.loader);
+
+			threadClassLoader.remove();
+		}
 	}
 
 	public static Class<?> loadClassWithoutInitialising(String fqClassName) throws ClassNotFoundException
@@ -47,7 +103,9 @@ public final class ClassUtil
 			logger.debug("loadClassWithoutInitialising '{}'", fqClassName);
 		}
 
-		return Class.forName(fqClassName, false, disposableClassLoader);
+		ThreadClassLoader own = threadClassLoader.get();
+
+		return Class.forName(fqClassName, false, own != null ? own.loader : disposableClassLoader);
 	}
 
 	public static Class<?> loadClassWithoutInitialising(String fqClassName, ClassLoader classLoader) throws ClassNotFoundException
@@ -64,19 +122,73 @@ public final class ClassUtil
 		return Arrays.asList(parts);
 	}
 
-	public static void clear()
+	/*
+	 * Install one class loader for all parsers until releaseShared() is
+	 * called so classes are loaded once and reused across many logs. The
+	 * current loader is kept open for any model still using it.
+	 */
+	public static synchronized void initialiseShared(final List<URL> urls)
 	{
-		if (disposableClassLoader != null)
+		releaseShared();
+
+		loaderBeforeShared = disposableClassLoader;
+
+		disposableClassLoader = new DisposableURLClassLoader(urls);
+
+		sharedClassLoader = true;
+	}
+
+	public static synchronized void releaseShared()
+	{
+		if (!sharedClassLoader)
+		{
+			return;
+		}
+
+		sharedClassLoader = false;
+
+		close(disposableClassLoader);
+
+		disposableClassLoader = loaderBeforeShared;
+
+		loaderBeforeShared = null;
+	}
+
+	public static synchronized void clear()
+	{
+		ThreadClassLoader own = threadClassLoader.get();
+
+		if (own != null)
+		{
+			close(own.loader);
+
+			own.loader = null;
+
+			return;
+		}
+
+		if (sharedClassLoader)
+		{
+			return;
+		}
+
+		close(disposableClassLoader);
+
+		disposableClassLoader = null;
+	}
+
+	private static void close(DisposableURLClassLoader loader)
+	{
+		if (loader != null)
 		{
 			try
 			{
-				disposableClassLoader.close();
+				loader.close();
 			}
 			catch (IOException e)
 			{
 				logger.warn("Could not close the DisposableURLClassLoader", e);
 			}
 		}
-		disposableClassLoader = null;
 	}
 }
\ No newline at end of file
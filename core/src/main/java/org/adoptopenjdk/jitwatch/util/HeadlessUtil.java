@@ -10,56 +10,908 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILER;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_DECOMPILES;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NMSIZE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_NEWLINE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.HEADLESS_SEPARATOR;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_HYPEN;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
+import org.adoptopenjdk.jitwatch.chain.CompileNode;
+import org.adoptopenjdk.jitwatch.codecache.CodeCacheSimulator;
+import org.adoptopenjdk.jitwatch.codecache.CodeCacheSnapshot;
+import org.adoptopenjdk.jitwatch.codecache.CodeHeap;
+import org.adoptopenjdk.jitwatch.codecache.CodeSegment;
+import org.adoptopenjdk.jitwatch.codecache.SegmentOccupancy;
+import org.adoptopenjdk.jitwatch.deopt.DeoptAnalyser;
+import org.adoptopenjdk.jitwatch.deopt.DeoptMemberStats;
+import org.adoptopenjdk.jitwatch.diff.InliningFlip;
+import org.adoptopenjdk.jitwatch.diff.MemberDiff;
+import org.adoptopenjdk.jitwatch.diff.MemberSnapshot;
+import org.adoptopenjdk.jitwatch.diff.ModelDiff;
+import org.adoptopenjdk.jitwatch.export.ChannelTextWriter;
+import org.adoptopenjdk.jitwatch.inline.InlineSiteFlip;
+import org.adoptopenjdk.jitwatch.inline.InliningBudgetSimulator;
+import org.adoptopenjdk.jitwatch.inline.InliningGraph;
 import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.CompilerThread;
+import org.adoptopenjdk.jitwatch.model.CompilerThreadSeries;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
 import org.adoptopenjdk.jitwatch.model.MetaClass;
 import org.adoptopenjdk.jitwatch.model.MetaPackage;
+import org.adoptopenjdk.jitwatch.phase.PhaseMemberStats;
+import org.adoptopenjdk.jitwatch.phase.PhaseProfiler;
+import org.adoptopenjdk.jitwatch.phase.PhaseStats;
+import org.adoptopenjdk.jitwatch.queue.QueueLatencyAnalyser;
+import org.adoptopenjdk.jitwatch.queue.QueueLatencyStats;
+import org.adoptopenjdk.jitwatch.queue.QueueStall;
+import org.adoptopenjdk.jitwatch.report.Report;
+import org.adoptopenjdk.jitwatch.tiered.TierMemberStats;
+import org.adoptopenjdk.jitwatch.tiered.TierTransitionAnalyser;
+import org.adoptopenjdk.jitwatch.warmup.MemberWarmup;
+import org.adoptopenjdk.jitwatch.warmup.WarmupAnalyser;
 
 public class HeadlessUtil
 {
-	public static String modelToString(IReadOnlyJITDataModel model, boolean onlyCompiled)
+	public static void writeModel(ChannelTextWriter out, IReadOnlyJITDataModel model, boolean onlyCompiled) throws IOException
 	{
-		StringBuilder builder = new StringBuilder();
-
-		builder.append("Package").append(HEADLESS_SEPARATOR);
-		builder.append("Class").append(HEADLESS_SEPARATOR);
-		builder.append("Member Signature").append(HEADLESS_SEPARATOR);
-		builder.append("Is Compiled").append(HEADLESS_SEPARATOR);
-		builder.append("Compiler").append(HEADLESS_SEPARATOR);
-		builder.append("Queued Time").append(HEADLESS_SEPARATOR);
-		builder.append("Compilation Start").append(HEADLESS_SEPARATOR);
-		builder.append("Compilation Duration").append(HEADLESS_SEPARATOR);
-		builder.append("Bytecode Size").append(HEADLESS_SEPARATOR);
-		builder.append("Native Size").append(HEADLESS_SEPARATOR);
-		builder.append("Decompiles");
-
-		builder.append(S_NEWLINE);
+		out.append("Package").append(HEADLESS_SEPARATOR);
+		out.append("Class").append(HEADLESS_SEPARATOR);
+		out.append("Member Signature").append(HEADLESS_SEPARATOR);
+		out.append("Is Compiled").append(HEADLESS_SEPARATOR);
+		out.append("Compiler").append(HEADLESS_SEPARATOR);
+		out.append("Queued Time").append(HEADLESS_SEPARATOR);
+		out.append("Compilation Start").append(HEADLESS_SEPARATOR);
+		out.append("Compilation Duration").append(HEADLESS_SEPARATOR);
+		out.append("Bytecode Size").append(HEADLESS_SEPARATOR);
+		out.append("Native Size").append(HEADLESS_SEPARATOR);
+		out.append("Decompiles");
+
+		out.append(S_NEWLINE);
 
 		List<MetaPackage> roots = model.getPackageManager().getRootPackages();
 
 		for (MetaPackage mp : roots)
 		{
-			showTree(builder, mp, onlyCompiled);
+			showTree(out, mp, onlyCompiled);
+		}
+	}
+
+	public static void writeCompilerThreads(ChannelTextWriter out, IReadOnlyJITDataModel model) throws IOException
+	{
+		out.append("Thread").append(HEADLESS_SEPARATOR);
+		out.append("Compilations").append(HEADLESS_SEPARATOR);
+		out.append("First Queued").append(HEADLESS_SEPARATOR);
+		out.append("Last Emitted").append(HEADLESS_SEPARATOR);
+		out.append("Busy Time").append(HEADLESS_SEPARATOR);
+		out.append("Utilisation %").append(HEADLESS_SEPARATOR);
+		out.append("Max Queue Depth").append(HEADLESS_SEPARATOR);
+		out.append("Mean Queue Depth");
+
+		out.append(S_NEWLINE);
+
+		for (CompilerThread thread : model.getCompilerThreads())
+		{
+			CompilerThreadSeries series = thread.getSeries();
+
+			long range = series.getLatestNMethodEmittedTime() - series.getEarliestQueuedTime();
+
+			long busy = series.getTotalBusyTime();
+
+			double utilisation = (range > 0) ? (100.0 * busy / range) : 0;
+
+			out.append(thread.getThreadName()).append(HEADLESS_SEPARATOR);
+			out.append(series.getCompilationCount()).append(HEADLESS_SEPARATOR);
+			out.append(series.getEarliestQueuedTime()).append(HEADLESS_SEPARATOR);
+			out.append(series.getLatestNMethodEmittedTime()).append(HEADLESS_SEPARATOR);
+			out.append(busy).append(HEADLESS_SEPARATOR);
+			out.append(String.format("%.1f", utilisation)).append(HEADLESS_SEPARATOR);
+			out.append(series.getMaxQueueDepth()).append(HEADLESS_SEPARATOR);
+			out.append(String.format("%.2f", series.getMeanQueueDepth()));
+
+			out.append(S_NEWLINE);
+		}
+	}
+
+	public static void writeInliningGraph(ChannelTextWriter out, InliningGraph graph, int limit) throws IOException
+	{
+		out.append("Callee").append(HEADLESS_SEPARATOR);
+		out.append("Bytes").append(HEADLESS_SEPARATOR);
+		out.append("Failed").append(HEADLESS_SEPARATOR);
+		out.append("Inlined").append(HEADLESS_SEPARATOR);
+		out.append("Callers").append(HEADLESS_SEPARATOR);
+		out.append("Top Caller").append(HEADLESS_SEPARATOR);
+		out.append("Top Caller Failures").append(HEADLESS_SEPARATOR);
+		out.append("Top Reason");
+
+		out.append(S_NEWLINE);
+
+		for (int callee : graph.getTopCalleesByFailureCount(limit))
+		{
+			int[] callerEdges = graph.getCallerEdges(callee);
+
+			int topEdge = -1;
+
+			for (int edge : callerEdges)
+			{
+				if (topEdge == -1 || graph.getEdgeFailedCount(edge) > graph.getEdgeFailedCount(topEdge))
+				{
+					topEdge = edge;
+				}
+			}
+
+			out.append(graph.getNodeName(callee)).append(HEADLESS_SEPARATOR);
+			out.append(graph.getNodeBytecodeSize(callee)).append(HEADLESS_SEPARATOR);
+			out.append(graph.getNodeFailedCount(callee)).append(HEADLESS_SEPARATOR);
+			out.append(graph.getNodeInlinedCount(callee)).append(HEADLESS_SEPARATOR);
+			out.append(callerEdges.length).append(HEADLESS_SEPARATOR);
+
+			if (topEdge != -1)
+			{
+				Map<String, Integer> reasons = graph.getEdgeFailureReasons(topEdge);
+
+				out.append(graph.getNodeName(graph.getEdgeCaller(topEdge))).append(HEADLESS_SEPARATOR);
+				out.append(graph.getEdgeFailedCount(topEdge)).append(HEADLESS_SEPARATOR);
+				out.append(reasons.isEmpty() ? S_HYPEN : reasons.keySet().iterator().next());
+			}
+			else
+			{
+				out.append(S_HYPEN).append(HEADLESS_SEPARATOR).append(S_HYPEN).append(HEADLESS_SEPARATOR).append(S_HYPEN);
+			}
+
+			out.append(S_NEWLINE);
+		}
+	}
+
+	public static void writeDeoptChurn(ChannelTextWriter out, DeoptAnalyser analyser, List<DeoptMemberStats> ranked)
+			throws IOException
+	{
+		out.append("Uncommon traps").append(HEADLESS_SEPARATOR).append(analyser.getTrapCount()).append(S_NEWLINE);
+		out.append("Invalidations").append(HEADLESS_SEPARATOR).append(analyser.getInvalidationCount()).append(S_NEWLINE);
+		out.append("Unresolved events").append(HEADLESS_SEPARATOR).append(analyser.getUnresolvedCount()).append(S_NEWLINE);
+
+		out.append(S_NEWLINE);
+
+		out.append("Class").append(HEADLESS_SEPARATOR);
+		out.append("Member").append(HEADLESS_SEPARATOR);
+		out.append("Recompiles").append(HEADLESS_SEPARATOR);
+		out.append("Invalidations").append(HEADLESS_SEPARATOR);
+		out.append("Uncommon Traps").append(HEADLESS_SEPARATOR);
+		out.append("Compilations").append(HEADLESS_SEPARATOR);
+		out.append("Mean Code Lifetime").append(HEADLESS_SEPARATOR);
+		out.append("Mean Recompile Delay").append(HEADLESS_SEPARATOR);
+		out.append("Trap Reasons");
+
+		out.append(S_NEWLINE);
+
+		for (DeoptMemberStats stats : ranked)
+		{
+			IMetaMember member = stats.getMember();
+
+			out.append(member.getMetaClass().getFullyQualifiedName()).append(HEADLESS_SEPARATOR);
+			out.append(member.toStringUnqualifiedMethodName(true, true)).append(HEADLESS_SEPARATOR);
+			out.append(stats.getRecompileCount()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getInvalidationCount()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getTrapCount()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getCompilationCount()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getMeanCodeLifetime()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getMeanRecompileDelay()).append(HEADLESS_SEPARATOR);
+
+			Map<String, Integer> reasons = stats.getTrapReasons();
+
+			if (reasons.isEmpty())
+			{
+				out.append(S_HYPEN);
+			}
+			else
+			{
+				boolean first = true;
+
+				for (Map.Entry<String, Integer> entry : reasons.entrySet())
+				{
+					if (!first)
+					{
+						out.append("; ");
+					}
+
+					out.append(entry.getKey()).append(C_SPACE).append(entry.getValue());
+
+					first = false;
+				}
+			}
+
+			out.append(S_NEWLINE);
+		}
+	}
+
+	public static void writePhaseProfile(ChannelTextWriter out, PhaseProfiler profiler, List<PhaseStats> ranked, int limit)
+			throws IOException
+	{
+		out.append("Compilations with phases").append(HEADLESS_SEPARATOR).append(profiler.getCompilationCount())
+				.append(S_NEWLINE);
+		out.append("Total phase time").append(HEADLESS_SEPARATOR).append(profiler.getTotalTime()).append(S_NEWLINE);
+
+		out.append(S_NEWLINE);
+
+		out.append("Phase").append(HEADLESS_SEPARATOR);
+		out.append("Count").append(HEADLESS_SEPARATOR);
+		out.append("Self Time").append(HEADLESS_SEPARATOR);
+		out.append("Total Time").append(HEADLESS_SEPARATOR);
+		out.append("Max Time").append(HEADLESS_SEPARATOR);
+		out.append("Mean Time").append(HEADLESS_SEPARATOR);
+		out.append("Node Delta").append(HEADLESS_SEPARATOR);
+		out.append("Live Delta").append(HEADLESS_SEPARATOR);
+		out.append("Max Nodes");
+
+		out.append(S_NEWLINE);
+
+		for (PhaseStats stats : ranked)
+		{
+			out.append(stats.getName()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getCount()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getSelfTime()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getTotalTime()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getMaxTime()).append(HEADLESS_SEPARATOR);
+			out.append(String.format("%.2f", stats.getMeanTime())).append(HEADLESS_SEPARATOR);
+			out.append(stats.getTotalNodeDelta()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getTotalLiveDelta()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getMaxNodes());
+
+			out.append(S_NEWLINE);
+		}
+
+		out.append(S_NEWLINE);
+
+		out.append("Class").append(HEADLESS_SEPARATOR);
+		out.append("Member").append(HEADLESS_SEPARATOR);
+		out.append("Compilations").append(HEADLESS_SEPARATOR);
+		out.append("Phase Time").append(HEADLESS_SEPARATOR);
+		out.append("Max Nodes").append(HEADLESS_SEPARATOR);
+		out.append("Costliest Phase");
+
+		out.append(S_NEWLINE);
+
+		int count = 0;
+
+		for (PhaseMemberStats stats : profiler.rankMembersByTime(null))
+		{
+			if (count++ >= limit)
+			{
+				break;
+			}
+
+			IMetaMember member = stats.getMember();
+
+			PhaseStats costliest = null;
+
+			for (PhaseStats phase : stats.getPhaseStats().values())
+			{
+				if (costliest == null || phase.getSelfTime() > costliest.getSelfTime())
+				{
+					costliest = phase;
+				}
+			}
+
+			out.append(member.getMetaClass().getFullyQualifiedName()).append(HEADLESS_SEPARATOR);
+			out.append(member.toStringUnqualifiedMethodName(true, true)).append(HEADLESS_SEPARATOR);
+			out.append(stats.getCompilationCount()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getTotalTime()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getMaxNodes()).append(HEADLESS_SEPARATOR);
+			out.append(costliest == null ? S_HYPEN : costliest.getName());
+
+			out.append(S_NEWLINE);
+		}
+	}
+
+	public static void writeQueueLatency(ChannelTextWriter out, QueueLatencyAnalyser analyser, List<QueueStall> stalls,
+			int limit) throws IOException
+	{
+		CompilerThreadSeries backlog = analyser.getBacklog();
+
+		out.append("Compilations").append(HEADLESS_SEPARATOR).append(analyser.getCompilationCount()).append(S_NEWLINE);
+		out.append("Never started").append(HEADLESS_SEPARATOR).append(analyser.getUnstartedCount()).append(S_NEWLINE);
+		out.append("Max backlog").append(HEADLESS_SEPARATOR).append(backlog.getMaxQueueDepth()).append(S_NEWLINE);
+		out.append("Mean backlog").append(HEADLESS_SEPARATOR).append(String.format("%.2f", backlog.getMeanQueueDepth()))
+				.append(S_NEWLINE);
+		out.append("Stall threshold").append(HEADLESS_SEPARATOR).append(analyser.getStallThreshold()).append(S_NEWLINE);
+
+		out.append(S_NEWLINE);
+
+		out.append("Queue").append(HEADLESS_SEPARATOR);
+		out.append("Tasks").append(HEADLESS_SEPARATOR);
+		out.append("Mean Wait").append(HEADLESS_SEPARATOR);
+		out.append("Wait P50").append(HEADLESS_SEPARATOR);
+		out.append("Wait P90").append(HEADLESS_SEPARATOR);
+		out.append("Wait P99").append(HEADLESS_SEPARATOR);
+		out.append("Max Wait").append(HEADLESS_SEPARATOR);
+		out.append("Mean Compile").append(HEADLESS_SEPARATOR);
+		out.append("Compile P50").append(HEADLESS_SEPARATOR);
+		out.append("Compile P90").append(HEADLESS_SEPARATOR);
+		out.append("Compile P99").append(HEADLESS_SEPARATOR);
+		out.append("Max Compile").append(HEADLESS_SEPARATOR);
+		out.append("Max Backlog");
+
+		out.append(S_NEWLINE);
+
+		for (QueueLatencyStats stats : analyser.getLatencyStats().values())
+		{
+			out.append(stats.getName()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getCount()).append(HEADLESS_SEPARATOR);
+			out.append(String.format("%.2f", stats.getMeanWait())).append(HEADLESS_SEPARATOR);
+			out.append(stats.getWaitPercentile(50)).append(HEADLESS_SEPARATOR);
+			out.append(stats.getWaitPercentile(90)).append(HEADLESS_SEPARATOR);
+			out.append(stats.getWaitPercentile(99)).append(HEADLESS_SEPARATOR);
+			out.append(stats.getMaxWait()).append(HEADLESS_SEPARATOR);
+			out.append(String.format("%.2f", stats.getMeanCompileTime())).append(HEADLESS_SEPARATOR);
+			out.append(stats.getCompileTimePercentile(50)).append(HEADLESS_SEPARATOR);
+			out.append(stats.getCompileTimePercentile(90)).append(HEADLESS_SEPARATOR);
+			out.append(stats.getCompileTimePercentile(99)).append(HEADLESS_SEPARATOR);
+			out.append(stats.getMaxCompileTime()).append(HEADLESS_SEPARATOR);
+			out.append(analyser.getBacklog(stats.getName()).getMaxQueueDepth());
+
+			out.append(S_NEWLINE);
+		}
+
+		out.append(S_NEWLINE);
+
+		out.append("Stall Start").append(HEADLESS_SEPARATOR);
+		out.append("Stall End").append(HEADLESS_SEPARATOR);
+		out.append("Tasks").append(HEADLESS_SEPARATOR);
+		out.append("Total Wait").append(HEADLESS_SEPARATOR);
+		out.append("Max Wait").append(HEADLESS_SEPARATOR);
+		out.append("Backlog At Start").append(HEADLESS_SEPARATOR);
+		out.append("Longest Waiting Member");
+
+		out.append(S_NEWLINE);
+
+		int count = 0;
+
+		for (QueueStall stall : stalls)
+		{
+			if (count++ >= limit)
+			{
+				break;
+			}
+
+			IMetaMember member = stall.getCompilations().get(0).getMember();
+
+			out.append(stall.getStart()).append(HEADLESS_SEPARATOR);
+			out.append(stall.getEnd()).append(HEADLESS_SEPARATOR);
+			out.append(stall.getCompilations().size()).append(HEADLESS_SEPARATOR);
+			out.append(stall.getTotalWait()).append(HEADLESS_SEPARATOR);
+			out.append(stall.getMaxWait()).append(HEADLESS_SEPARATOR);
+			out.append(backlog.getQueueDepthAt(stall.getStart())).append(HEADLESS_SEPARATOR);
+			out.append(member.getMetaClass().getFullyQualifiedName()).append(C_SPACE)
+					.append(member.toStringUnqualifiedMethodName(true, true));
+
+			out.append(S_NEWLINE);
+		}
+	}
+
+	public static void writeTierTransitions(ChannelTextWriter out, TierTransitionAnalyser analyser,
+			List<TierMemberStats> ranked, int limit) throws IOException
+	{
+		out.append("Compilations").append(HEADLESS_SEPARATOR).append(analyser.getCompilationCount()).append(S_NEWLINE);
+		out.append("Compile time").append(HEADLESS_SEPARATOR).append(analyser.getTotalMillis()).append(S_NEWLINE);
+		out.append("Native bytes").append(HEADLESS_SEPARATOR).append(analyser.getTotalBytes()).append(S_NEWLINE);
+		out.append("Invalidated").append(HEADLESS_SEPARATOR).append(analyser.getInvalidatedCount()).append(S_NEWLINE);
+		out.append("Redundant").append(HEADLESS_SEPARATOR).append(analyser.getRedundantCount()).append(S_NEWLINE);
+		out.append("Wasted compile time").append(HEADLESS_SEPARATOR).append(analyser.getWastedMillis()).append(S_NEWLINE);
+		out.append("Wasted native bytes").append(HEADLESS_SEPARATOR).append(analyser.getWastedBytes()).append(S_NEWLINE);
+
+		out.append(S_NEWLINE);
+
+		out.append("Transition").append(HEADLESS_SEPARATOR);
+		out.append("Count");
+
+		out.append(S_NEWLINE);
+
+		for (Map.Entry<String, Integer> entry : analyser.getTransitionCounts().entrySet())
+		{
+			out.append(entry.getKey()).append(HEADLESS_SEPARATOR).append(entry.getValue()).append(S_NEWLINE);
+		}
+
+		out.append(S_NEWLINE);
+
+		out.append("Path").append(HEADLESS_SEPARATOR);
+		out.append("Members");
+
+		out.append(S_NEWLINE);
+
+		int count = 0;
+
+		for (Map.Entry<String, Integer> entry : analyser.getPathCounts().entrySet())
+		{
+			if (count++ >= limit)
+			{
+				break;
+			}
+
+			out.append(entry.getKey()).append(HEADLESS_SEPARATOR).append(entry.getValue()).append(S_NEWLINE);
+		}
+
+		out.append(S_NEWLINE);
+
+		out.append("Class").append(HEADLESS_SEPARATOR);
+		out.append("Member").append(HEADLESS_SEPARATOR);
+		out.append("Compilations").append(HEADLESS_SEPARATOR);
+		out.append("Invalidated").append(HEADLESS_SEPARATOR);
+		out.append("Redundant").append(HEADLESS_SEPARATOR);
+		out.append("Wasted Time").append(HEADLESS_SEPARATOR);
+		out.append("Wasted Bytes").append(HEADLESS_SEPARATOR);
+		out.append("Path");
+
+		out.append(S_NEWLINE);
+
+		count = 0;
+
+		for (TierMemberStats stats : ranked)
+		{
+			if (count++ >= limit)
+			{
+				break;
+			}
+
+			IMetaMember member = stats.getMember();
+
+			out.append(member.getMetaClass().getFullyQualifiedName()).append(HEADLESS_SEPARATOR);
+			out.append(member.toStringUnqualifiedMethodName(true, true)).append(HEADLESS_SEPARATOR);
+			out.append(stats.getCompilationCount()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getInvalidatedCount()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getRedundantCount()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getWastedMillis()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getWastedBytes()).append(HEADLESS_SEPARATOR);
+			out.append(stats.getPath());
+
+			out.append(S_NEWLINE);
+		}
+	}
+
+	/*
+	 * Summary lines keep the same names from run to run so the output of two
+	 * releases can be compared row by row
+	 */
+	public static void writeWarmup(ChannelTextWriter out, WarmupAnalyser analyser, List<MemberWarmup> members)
+			throws IOException
+	{
+		out.append("Compiled members").append(HEADLESS_SEPARATOR).append(members.size()).append(S_NEWLINE);
+		out.append("Hot threshold").append(HEADLESS_SEPARATOR).append(analyser.getHotThreshold()).append(S_NEWLINE);
+		out.append("Hot members").append(HEADLESS_SEPARATOR).append(analyser.getHotMemberCount()).append(S_NEWLINE);
+		out.append("Compilations").append(HEADLESS_SEPARATOR).append(analyser.getCompilationCount()).append(S_NEWLINE);
+		out.append("Steady state").append(HEADLESS_SEPARATOR).append(analyser.getSteadyState()).append(S_NEWLINE);
+
+		for (int percent : new int[] { 50, 90, 99, 100 })
+		{
+			long time = analyser.getTimeToC2Coverage(percent);
+
+			out.append("C2 coverage " + percent + "%").append(HEADLESS_SEPARATOR);
+
+			if (time >= 0)
+			{
+				out.append(time);
+			}
+			else
+			{
+				out.append(S_HYPEN);
+			}
+
+			out.append(S_NEWLINE);
+		}
+
+		for (int percent : new int[] { 50, 90, 99, 100 })
+		{
+			out.append("Final level " + percent + "%").append(HEADLESS_SEPARATOR)
+					.append(analyser.getTimeToFinalLevel(percent)).append(S_NEWLINE);
+		}
+
+		out.append(S_NEWLINE);
+
+		out.append("Bucket Start").append(HEADLESS_SEPARATOR);
+		out.append("Compilations").append(HEADLESS_SEPARATOR);
+		out.append("C2 Coverage");
+
+		out.append(S_NEWLINE);
+
+		long bucketMillis = analyser.getBucketMillis();
+
+		for (int i = 0; i < analyser.getActivityBucketCount(); i++)
+		{
+			long bucketStart = i * bucketMillis;
+
+			out.append(bucketStart).append(HEADLESS_SEPARATOR);
+			out.append(analyser.getActivity(i)).append(HEADLESS_SEPARATOR);
+			out.append(String.format("%.1f", analyser.getC2CoverageAt(bucketStart + bucketMillis - 1)));
+
+			out.append(S_NEWLINE);
+		}
+
+		out.append(S_NEWLINE);
+
+		out.append("Class").append(HEADLESS_SEPARATOR);
+		out.append("Member").append(HEADLESS_SEPARATOR);
+		out.append("Compilations").append(HEADLESS_SEPARATOR);
+		out.append("First Compiled").append(HEADLESS_SEPARATOR);
+		out.append("First C2").append(HEADLESS_SEPARATOR);
+		out.append("Final Level").append(HEADLESS_SEPARATOR);
+		out.append("Reached Final Level").append(HEADLESS_SEPARATOR);
+		out.append("Last Compiled");
+
+		out.append(S_NEWLINE);
+
+		for (MemberWarmup warmup : members)
+		{
+			IMetaMember member = warmup.getMember();
+
+			out.append(member.getMetaClass().getFullyQualifiedName()).append(HEADLESS_SEPARATOR);
+			out.append(member.toStringUnqualifiedMethodName(true, true)).append(HEADLESS_SEPARATOR);
+			out.append(warmup.getCompilationCount()).append(HEADLESS_SEPARATOR);
+			out.append(warmup.getFirstCompiled()).append(HEADLESS_SEPARATOR);
+
+			if (warmup.isReachedC2())
+			{
+				out.append(warmup.getFirstC2());
+			}
+			else
+			{
+				out.append(S_HYPEN);
+			}
+
+			out.append(HEADLESS_SEPARATOR);
+			out.append(warmup.getFinalLevel()).append(HEADLESS_SEPARATOR);
+			out.append(warmup.getReachedFinalLevel()).append(HEADLESS_SEPARATOR);
+			out.append(warmup.getLastCompiled());
+
+			out.append(S_NEWLINE);
+		}
+	}
+
+	public static void writeCodeCacheSimulation(ChannelTextWriter out, CodeCacheSimulator simulator) throws IOException
+	{
+		out.append("Simulated nmethods").append(HEADLESS_SEPARATOR).append(simulator.getNMethodCount()).append(S_NEWLINE);
+		out.append("Unsized nmethods").append(HEADLESS_SEPARATOR).append(simulator.getUnsizedCount()).append(S_NEWLINE);
+		out.append("Flushed").append(HEADLESS_SEPARATOR).append(simulator.getFlushedCount()).append(S_NEWLINE);
+		out.append("Freed by reuse").append(HEADLESS_SEPARATOR).append(simulator.getReusedCount()).append(S_NEWLINE);
+		out.append("Segmented").append(HEADLESS_SEPARATOR).append(Boolean.toString(simulator.isSegmented())).append(S_NEWLINE);
+		out.append("Reserved size").append(HEADLESS_SEPARATOR).append(simulator.getReservedCodeCacheSize()).append(S_NEWLINE);
+		out.append("Non-nmethod estimate").append(HEADLESS_SEPARATOR).append(simulator.getNonNMethodBytes()).append(S_NEWLINE);
+		out.append("Peak live nmethod bytes").append(HEADLESS_SEPARATOR).append(simulator.getPeakLiveBytes()).append(S_NEWLINE);
+		out.append("Required compacted").append(HEADLESS_SEPARATOR).append(simulator.getRequiredCompacted()).append(S_NEWLINE);
+		out.append("Required with layout").append(HEADLESS_SEPARATOR).append(simulator.getRequiredWithLayout()).append(S_NEWLINE);
+		out.append("Predicted ReservedCodeCacheSize").append(HEADLESS_SEPARATOR)
+				.append(simulator.getPredictedReservedSize() / (1024 * 1024)).append("m").append(S_NEWLINE);
+		out.append("Code cache full").append(HEADLESS_SEPARATOR).append(simulator.getFullSnapshots().size()).append(S_NEWLINE);
+		out.append("Full cause").append(HEADLESS_SEPARATOR).append(simulator.getFullCause().toString()).append(S_NEWLINE);
+
+		out.append(S_NEWLINE);
+
+		out.append("Segment").append(HEADLESS_SEPARATOR);
+		out.append("Allocated").append(HEADLESS_SEPARATOR);
+		out.append("Allocated Bytes").append(HEADLESS_SEPARATOR);
+		out.append("Freed").append(HEADLESS_SEPARATOR);
+		out.append("Freed Bytes").append(HEADLESS_SEPARATOR);
+		out.append("Live").append(HEADLESS_SEPARATOR);
+		out.append("Live Bytes").append(HEADLESS_SEPARATOR);
+		out.append("Peak Live Bytes").append(HEADLESS_SEPARATOR);
+		out.append("Peak Stamp");
+
+		out.append(S_NEWLINE);
+
+		// only the peak size of the non-nmethod segment can be estimated
+		out.append(CodeSegment.NON_NMETHOD.getHeapName()).append(HEADLESS_SEPARATOR);
+
+		for (int i = 0; i < 6; i++)
+		{
+			out.append(S_HYPEN).append(HEADLESS_SEPARATOR);
+		}
+
+		out.append(simulator.getNonNMethodBytes()).append(HEADLESS_SEPARATOR);
+		out.append(S_HYPEN);
+
+		out.append(S_NEWLINE);
+
+		for (CodeSegment segment : new CodeSegment[] { CodeSegment.PROFILED, CodeSegment.NON_PROFILED })
+		{
+			SegmentOccupancy occupancy = simulator.getOccupancy(segment);
+
+			out.append(segment.getHeapName()).append(HEADLESS_SEPARATOR);
+			out.append(occupancy.getAllocatedCount()).append(HEADLESS_SEPARATOR);
+			out.append(occupancy.getAllocatedBytes()).append(HEADLESS_SEPARATOR);
+			out.append(occupancy.getFreedCount()).append(HEADLESS_SEPARATOR);
+			out.append(occupancy.getFreedBytes()).append(HEADLESS_SEPARATOR);
+			out.append(occupancy.getLiveCount()).append(HEADLESS_SEPARATOR);
+			out.append(occupancy.getLiveBytes()).append(HEADLESS_SEPARATOR);
+			out.append(occupancy.getPeakLiveBytes()).append(HEADLESS_SEPARATOR);
+			out.append(occupancy.getPeakLiveStamp());
+
+			out.append(S_NEWLINE);
+		}
+
+		out.append(S_NEWLINE);
+
+		out.append("Heap").append(HEADLESS_SEPARATOR);
+		out.append("Live").append(HEADLESS_SEPARATOR);
+		out.append("Live Bytes").append(HEADLESS_SEPARATOR);
+		out.append("Span").append(HEADLESS_SEPARATOR);
+		out.append("Peak Span").append(HEADLESS_SEPARATOR);
+		out.append("Peak Span Stamp").append(HEADLESS_SEPARATOR);
+		out.append("Free Bytes").append(HEADLESS_SEPARATOR);
+		out.append("Free Blocks").append(HEADLESS_SEPARATOR);
+		out.append("Largest Free Block").append(HEADLESS_SEPARATOR);
+		out.append("Fragmentation %");
+
+		out.append(S_NEWLINE);
+
+		for (CodeHeap heap : simulator.getHeaps())
+		{
+			out.append(heap.getName()).append(HEADLESS_SEPARATOR);
+			out.append(heap.getLiveCount()).append(HEADLESS_SEPARATOR);
+			out.append(heap.getLiveBytes()).append(HEADLESS_SEPARATOR);
+			out.append(heap.getSpan()).append(HEADLESS_SEPARATOR);
+			out.append(heap.getPeakSpan()).append(HEADLESS_SEPARATOR);
+			out.append(heap.getPeakSpanStamp()).append(HEADLESS_SEPARATOR);
+			out.append(heap.getFreeBytes()).append(HEADLESS_SEPARATOR);
+			out.append(heap.getFreeBlockCount()).append(HEADLESS_SEPARATOR);
+			out.append(heap.getLargestFreeBlock()).append(HEADLESS_SEPARATOR);
+			out.append(String.format("%.1f", heap.getFragmentation() * 100));
+
+			out.append(S_NEWLINE);
+		}
+
+		if (!simulator.getFullSnapshots().isEmpty())
+		{
+			out.append(S_NEWLINE);
+
+			out.append("Full Stamp").append(HEADLESS_SEPARATOR);
+			out.append("Live Bytes").append(HEADLESS_SEPARATOR);
+			out.append("Span").append(HEADLESS_SEPARATOR);
+			out.append("Free Bytes").append(HEADLESS_SEPARATOR);
+			out.append("Largest Free Block").append(HEADLESS_SEPARATOR);
+			out.append("Fragmentation %");
+
+			out.append(S_NEWLINE);
+
+			for (CodeCacheSnapshot snapshot : simulator.getFullSnapshots())
+			{
+				out.append(snapshot.getStamp()).append(HEADLESS_SEPARATOR);
+				out.append(snapshot.getLiveBytes()).append(HEADLESS_SEPARATOR);
+				out.append(snapshot.getSpan()).append(HEADLESS_SEPARATOR);
+				out.append(snapshot.getFreeBytes()).append(HEADLESS_SEPARATOR);
+				out.append(snapshot.getLargestFreeBlock()).append(HEADLESS_SEPARATOR);
+				out.append(String.format("%.1f", snapshot.getFragmentation() * 100));
+
+				out.append(S_NEWLINE);
+			}
+		}
+	}
+
+	public static void writeInliningBudget(ChannelTextWriter out, InliningBudgetSimulator simulator,
+			List<InlineSiteFlip> flips, int limit) throws IOException
+	{
+		out.append("Recorded budget").append(HEADLESS_SEPARATOR).append(simulator.getRecordedBudget().toString())
+				.append(S_NEWLINE);
+		out.append("Simulated budget").append(HEADLESS_SEPARATOR).append(simulator.getBudget().toString()).append(S_NEWLINE);
+		out.append("C2 compilations").append(HEADLESS_SEPARATOR).append(simulator.getCompilationCount()).append(S_NEWLINE);
+		out.append("Call sites").append(HEADLESS_SEPARATOR).append(simulator.getSiteCount()).append(S_NEWLINE);
+		out.append("Newly inlined").append(HEADLESS_SEPARATOR).append(simulator.getGainedCount()).append(S_NEWLINE);
+		out.append("No longer inlined").append(HEADLESS_SEPARATOR).append(simulator.getLostCount()).append(S_NEWLINE);
+		out.append("Changed compilations").append(HEADLESS_SEPARATOR).append(simulator.getChangedCompilationCount())
+				.append(S_NEWLINE);
+		out.append("Native growth").append(HEADLESS_SEPARATOR).append(simulator.getNativeGrowth()).append(S_NEWLINE);
+
+		out.append(S_NEWLINE);
+
+		out.append("Recorded Reason").append(HEADLESS_SEPARATOR);
+		out.append("Newly Inlined");
+
+		out.append(S_NEWLINE);
+
+		for (Map.Entry<String, Integer> entry : simulator.getGainedByReason().entrySet())
+		{
+			out.append(entry.getKey()).append(HEADLESS_SEPARATOR).append(entry.getValue()).append(S_NEWLINE);
+		}
+
+		out.append(S_NEWLINE);
+
+		out.append("Class").append(HEADLESS_SEPARATOR);
+		out.append("Member").append(HEADLESS_SEPARATOR);
+		out.append("Compile ID").append(HEADLESS_SEPARATOR);
+		out.append("Callee").append(HEADLESS_SEPARATOR);
+		out.append("Bytes").append(HEADLESS_SEPARATOR);
+		out.append("Count").append(HEADLESS_SEPARATOR);
+		out.append("Depth").append(HEADLESS_SEPARATOR);
+		out.append("Recorded").append(HEADLESS_SEPARATOR);
+		out.append("Simulated").append(HEADLESS_SEPARATOR);
+		out.append("Native Growth");
+
+		out.append(S_NEWLINE);
+
+		int count = 0;
+
+		for (InlineSiteFlip flip : flips)
+		{
+			if (count++ >= limit)
+			{
+				break;
+			}
+
+			Compilation compilation = flip.getCompilation();
+			IMetaMember member = compilation.getMember();
+			CompileNode site = flip.getSite();
+
+			String recorded = flip.getRecordedReason();
+
+			out.append(member.getMetaClass().getFullyQualifiedName()).append(HEADLESS_SEPARATOR);
+			out.append(member.toStringUnqualifiedMethodName(true, true)).append(HEADLESS_SEPARATOR);
+			out.append(compilation.getCompileID()).append(HEADLESS_SEPARATOR);
+			out.append(site.getMemberName()).append(HEADLESS_SEPARATOR);
+			out.append(site.getBytecodeSize()).append(HEADLESS_SEPARATOR);
+			out.append(site.getCallCount()).append(HEADLESS_SEPARATOR);
+			out.append(flip.getDepth()).append(HEADLESS_SEPARATOR);
+			out.append(recorded == null ? S_HYPEN : recorded).append(HEADLESS_SEPARATOR);
+			out.append(flip.isInlined() ? "inlined" : flip.getSimulatedReason()).append(HEADLESS_SEPARATOR);
+			out.append(flip.getNativeGrowth());
+
+			out.append(S_NEWLINE);
+		}
+	}
+
+	public static void writeModelDiff(ChannelTextWriter out, ModelDiff diff) throws IOException
+	{
+		out.append("Compiled in both").append(HEADLESS_SEPARATOR).append(diff.getMatchedCount()).append(S_NEWLINE);
+		out.append("Compiled only before").append(HEADLESS_SEPARATOR).append(diff.getOnlyBeforeCount()).append(S_NEWLINE);
+		out.append("Compiled only after").append(HEADLESS_SEPARATOR).append(diff.getOnlyAfterCount()).append(S_NEWLINE);
+
+		out.append(S_NEWLINE);
+
+		out.append("Member").append(HEADLESS_SEPARATOR);
+		out.append("Changes").append(HEADLESS_SEPARATOR);
+		out.append("Level Before").append(HEADLESS_SEPARATOR);
+		out.append("Level After").append(HEADLESS_SEPARATOR);
+		out.append("Native Size Before").append(HEADLESS_SEPARATOR);
+		out.append("Native Size After").append(HEADLESS_SEPARATOR);
+		out.append("Compile Time Before").append(HEADLESS_SEPARATOR);
+		out.append("Compile Time After").append(HEADLESS_SEPARATOR);
+		out.append("Decompiles Before").append(HEADLESS_SEPARATOR);
+		out.append("Decompiles After").append(HEADLESS_SEPARATOR);
+		out.append("OSR Before").append(HEADLESS_SEPARATOR);
+		out.append("OSR After").append(HEADLESS_SEPARATOR);
+		out.append("Inlining Flips").append(HEADLESS_SEPARATOR);
+		out.append("Intrinsics Gained").append(HEADLESS_SEPARATOR);
+		out.append("Intrinsics Lost");
+
+		out.append(S_NEWLINE);
+
+		for (MemberDiff memberDiff : diff.getDiffs())
+		{
+			MemberSnapshot before = memberDiff.getBefore();
+			MemberSnapshot after = memberDiff.getAfter();
+
+			out.append(memberDiff.getSignature()).append(HEADLESS_SEPARATOR);
+			out.append(memberDiff.getChangesText()).append(HEADLESS_SEPARATOR);
+
+			writeSnapshotPair(out, before.isCompiled(), after.isCompiled(), before.getLevel(), after.getLevel());
+			writeSnapshotPair(out, before.isCompiled(), after.isCompiled(), before.getNativeSize(), after.getNativeSize());
+			writeSnapshotPair(out, before.isCompiled(), after.isCompiled(), before.getCompileMillis(), after.getCompileMillis());
+			writeSnapshotPair(out, before.isCompiled(), after.isCompiled(), before.getDecompiles(), after.getDecompiles());
+
+			out.append(before.isCompiled() ? (before.isOSR() ? "Y" : "N") : S_HYPEN).append(HEADLESS_SEPARATOR);
+			out.append(after.isCompiled() ? (after.isOSR() ? "Y" : "N") : S_HYPEN).append(HEADLESS_SEPARATOR);
+
+			StringBuilder flips = new StringBuilder();
+
+			for (InliningFlip flip : memberDiff.getInliningFlips())
+			{
+				if (flips.length() > 0)
+				{
+					flips.append("; ");
+				}
+
+				flips.append(flip.toString());
+			}
+
+			out.append(flips.length() > 0 ? flips.toString() : S_HYPEN).append(HEADLESS_SEPARATOR);
+			out.append(joinIntrinsics(memberDiff.getIntrinsicsGained())).append(HEADLESS_SEPARATOR);
+			out.append(joinIntrinsics(memberDiff.getIntrinsicsLost()));
+
+			out.append(S_NEWLINE);
+		}
+	}
+
+	private static void writeSnapshotPair(ChannelTextWriter out, boolean beforeCompiled, boolean afterCompiled, long beforeValue,
+			long afterValue) throws IOException
+	{
+		if (beforeCompiled)
+		{
+			out.append(beforeValue);
+		}
+		else
+		{
+			out.append(S_HYPEN);
+		}
+
+		out.append(HEADLESS_SEPARATOR);
+
+		if (afterCompiled)
+		{
+			out.append(afterValue);
+		}
+		else
+		{
+			out.append(S_HYPEN);
+		}
+
+		out.append(HEADLESS_SEPARATOR);
+	}
+
+	private static String joinIntrinsics(Map<String, String> intrinsics)
+	{
+		if (intrinsics.isEmpty())
+		{
+			return S_HYPEN;
+		}
+
+		StringBuilder builder = new StringBuilder();
+
+		for (Map.Entry<String, String> entry : intrinsics.entrySet())
+		{
+			if (builder.length() > 0)
+			{
+				builder.append("; ");
+			}
+
+			builder.append(entry.getKey()).append(" = ").append(entry.getValue());
 		}
 
 		return builder.toString();
 	}
 
-	private static void showTree(StringBuilder builder, MetaPackage mp, boolean onlyCompiled)
+	public static void writeSuggestions(ChannelTextWriter out, List<Report> suggestions) throws IOException
+	{
+		out.append("Type").append(HEADLESS_SEPARATOR);
+		out.append("Score").append(HEADLESS_SEPARATOR);
+		out.append("Caller Class").append(HEADLESS_SEPARATOR);
+		out.append("Caller Member").append(HEADLESS_SEPARATOR);
+		out.append("BCI").append(HEADLESS_SEPARATOR);
+		out.append("Suggestion").append(S_NEWLINE);
+
+		for (Report suggestion : suggestions)
+		{
+			String callerClass;
+			String callerMember;
+
+			if (suggestion.getCaller() != null)
+			{
+				callerClass = suggestion.getCaller().getMetaClass().getFullyQualifiedName();
+				callerMember = suggestion.getCaller().toStringUnqualifiedMethodName(true, true);
+			}
+			else
+			{
+				callerClass = "Unknown";
+				callerMember = "Unknown";
+			}
+
+			String cleanText = suggestion.getText().replace(C_NEWLINE, C_SPACE);
+
+			out.append(suggestion.getType().toString()).append(HEADLESS_SEPARATOR);
+			out.append(suggestion.getScore()).append(HEADLESS_SEPARATOR);
+			out.append(callerClass).append(HEADLESS_SEPARATOR);
+			out.append(callerMember).append(HEADLESS_SEPARATOR);
+			out.append(suggestion.getBytecodeOffset()).append(HEADLESS_SEPARATOR);
+			out.append(cleanText).append(S_NEWLINE);
+		}
+	}
+
+	private static void showTree(ChannelTextWriter out, MetaPackage mp, boolean onlyCompiled) throws IOException
 	{
 		List<MetaPackage> childPackages = mp.getChildPackages();
 
 		for (MetaPackage childPackage : childPackages)
 		{
-			showTree(builder, childPackage, onlyCompiled);
+			showTree(out, childPackage, onlyCompiled);
 		}
 
 		List<MetaClass> packageClasses = mp.getPackageClasses();
@@ -72,29 +924,29 @@ public class HeadlessUtil
 
 				if (!onlyCompiled || isCompiled)
 				{
-					builder.append(mp.getName()).append(HEADLESS_SEPARATOR);
+					out.append(mp.getName()).append(HEADLESS_SEPARATOR);
 
-					builder.append(metaClass.getName()).append(HEADLESS_SEPARATOR);
+					out.append(metaClass.getName()).append(HEADLESS_SEPARATOR);
 
-					builder.append(member.toStringUnqualifiedMethodName(true, true)).append(HEADLESS_SEPARATOR);
+					out.append(member.toStringUnqualifiedMethodName(true, true)).append(HEADLESS_SEPARATOR);
 
-					builder.append(isCompiled ? "Y" : "N").append(HEADLESS_SEPARATOR);
+					out.append(isCompiled ? "Y" : "N").append(HEADLESS_SEPARATOR);
 
-					builder.append(getCompiledAttributeOrNA(member, ATTR_COMPILER, S_HYPEN)).append(HEADLESS_SEPARATOR);
+					out.append(getCompiledAttributeOrNA(member, ATTR_COMPILER, S_HYPEN)).append(HEADLESS_SEPARATOR);
 
-					builder.append(getQueuedAttributeOrNA(member, ATTR_STAMP, S_HYPEN)).append(HEADLESS_SEPARATOR);
+					out.append(getQueuedAttributeOrNA(member, ATTR_STAMP, S_HYPEN)).append(HEADLESS_SEPARATOR);
 
-					builder.append(getCompiledAttributeOrNA(member, ATTR_STAMP, S_HYPEN)).append(HEADLESS_SEPARATOR);
+					out.append(getCompiledAttributeOrNA(member, ATTR_STAMP, S_HYPEN)).append(HEADLESS_SEPARATOR);
 
-					builder.append(getLastCompilationTime(member)).append(HEADLESS_SEPARATOR);
+					out.append(getLastCompilationTime(member)).append(HEADLESS_SEPARATOR);
 
-					builder.append(getCompiledAttributeOrNA(member, ATTR_BYTES, S_HYPEN)).append(HEADLESS_SEPARATOR);
+					out.append(getCompiledAttributeOrNA(member, ATTR_BYTES, S_HYPEN)).append(HEADLESS_SEPARATOR);
 
-					builder.append(getCompiledAttributeOrNA(member, ATTR_NMSIZE, S_HYPEN)).append(HEADLESS_SEPARATOR);
+					out.append(getCompiledAttributeOrNA(member, ATTR_NMSIZE, S_HYPEN)).append(HEADLESS_SEPARATOR);
 
-					builder.append(getCompiledAttributeOrNA(member, ATTR_DECOMPILES, "0"));
+					out.append(getCompiledAttributeOrNA(member, ATTR_DECOMPILES, "0"));
 
-					builder.append(S_NEWLINE);
+					out.append(S_NEWLINE);
 				}
 			}
 		}
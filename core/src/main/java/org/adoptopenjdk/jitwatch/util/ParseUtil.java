@@ -12,11 +12,13 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_RETURN;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP_COMPLETED;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_CLOSE_ANGLE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_CLOSE_PARENTHESES;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_COLON;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_COMMA;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_DOT;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OBJECT_REF;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_ANGLE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_PARENTHESES;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_SQUARE_BRACKET;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_QUOTE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SEMICOLON;
@@ -126,7 +128,7 @@ public final class ParseUtil
 
 	public static long parseStampFromTag(Tag tag)
 	{
-		String attrValue = tag.getAttributes().get(ATTR_STAMP);
+		String attrValue = tag.getAttribute(ATTR_STAMP);
 
 		long result = 0;
 
@@ -144,7 +146,7 @@ public final class ParseUtil
 
 	public static long parseLongAttributeFromTag(Tag tag, String attrName)
 	{
-		String attrValue = tag.getAttributes().get(attrName);
+		String attrValue = tag.getAttribute(attrName);
 
 		long result = 0;
 
@@ -176,6 +178,25 @@ public final class ParseUtil
 		return result;
 	}
 
+	public static long getStamp(Tag tag)
+	{
+		long result = 0;
+
+		String stamp = tag.getAttribute(ATTR_STAMP_COMPLETED);
+
+		if (stamp == null)
+		{
+			stamp = tag.getAttribute(ATTR_STAMP);
+		}
+
+		if (stamp != null)
+		{
+			result = parseStamp(stamp);
+		}
+
+		return result;
+	}
+
 	public static double parseLocaleSafeDouble(String str)
 	{
 		NumberFormat nf = NumberFormat.getInstance(Locale.getDefault());
@@ -194,6 +215,94 @@ public final class ParseUtil
 		return result;
 	}
 
+	/*
+	 * Parses a JVM size option value such as 65536, 512k, 240m or 1g into
+	 * bytes. Throws NumberFormatException if it is not a size.
+	 */
+	public static long parseVMSize(String value)
+	{
+		String number = value.trim();
+
+		long multiplier = 1;
+
+		int length = number.length();
+
+		if (length > 1)
+		{
+			switch (Character.toLowerCase(number.charAt(length - 1)))
+			{
+			case 'k':
+				multiplier = 1024L;
+				break;
+			case 'm':
+				multiplier = 1024L * 1024;
+				break;
+			case 'g':
+				multiplier = 1024L * 1024 * 1024;
+				break;
+			default:
+				break;
+			}
+
+			if (multiplier != 1)
+			{
+				number = number.substring(0, length - 1);
+			}
+		}
+
+		return Long.parseLong(number) * multiplier;
+	}
+
+	/*
+	 * The value of the last -XX:<flag>=<value> in a JVM command line, null if
+	 * the flag is not given
+	 */
+	public static String getVMFlagValue(String vmArguments, String flag)
+	{
+		String result = null;
+
+		if (vmArguments != null)
+		{
+			String prefix = "-XX:" + flag + "=";
+
+			for (String arg : vmArguments.trim().split("\\s+"))
+			{
+				if (arg.startsWith(prefix))
+				{
+					result = arg.substring(prefix.length());
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/*
+	 * Whether the last -XX:+<flag> or -XX:-<flag> in a JVM command line turns
+	 * the flag on, defaultValue if neither is given
+	 */
+	public static boolean isVMFlagEnabled(String vmArguments, String flag, boolean defaultValue)
+	{
+		boolean result = defaultValue;
+
+		if (vmArguments != null)
+		{
+			for (String arg : vmArguments.trim().split("\\s+"))
+			{
+				if (arg.equals("-XX:+" + flag))
+				{
+					result = true;
+				}
+				else if (arg.equals("-XX:-" + flag))
+				{
+					result = false;
+				}
+			}
+		}
+
+		return result;
+	}
+
 	public static Class<?> getPrimitiveClass(char c)
 	{
 		switch (c)
@@ -946,7 +1055,7 @@ public final class ParseUtil
 
 	public static String getMethodTagReturn(Tag methodTag, IParseDictionary parseDictionary)
 	{
-		String returnTypeId = methodTag.getAttributes().get(ATTR_RETURN);
+		String returnTypeId = methodTag.getAttribute(ATTR_RETURN);
 
 		String returnType = lookupType(returnTypeId, parseDictionary);
 
@@ -957,7 +1066,7 @@ public final class ParseUtil
 	{
 		List<String> result = new ArrayList<>();
 
-		String arguments = methodTag.getAttributes().get(ATTR_ARGUMENTS);
+		String arguments = methodTag.getAttribute(ATTR_ARGUMENTS);
 
 		if (arguments != null)
 		{
@@ -980,7 +1089,7 @@ public final class ParseUtil
 
 		if (methodTag != null)
 		{
-			String methodName = methodTag.getAttributes().get(ATTR_NAME);
+			String methodName = methodTag.getAttribute(ATTR_NAME);
 
 			result = StringUtil.replaceXMLEntities(methodName);
 		}
@@ -996,13 +1105,11 @@ public final class ParseUtil
 
 		if (methodTag != null)
 		{
-			Map<String, String> methodTagAttributes = methodTag.getAttributes();
-
-			String klassId = methodTagAttributes.get(ATTR_HOLDER);
+			String klassId = methodTag.getAttribute(ATTR_HOLDER);
 
 			Tag klassTag = parseDictionary.getKlass(klassId);
 
-			metaClassName = klassTag.getAttributes().get(ATTR_NAME).replace(S_SLASH, S_DOT);
+			metaClassName = klassTag.getAttribute(ATTR_NAME).replace(S_SLASH, S_DOT);
 		}
 
 		return metaClassName;
@@ -1016,9 +1123,7 @@ public final class ParseUtil
 
 		if (methodTag != null)
 		{
-			Map<String, String> methodTagAttributes = methodTag.getAttributes();
-
-			methodName = methodTagAttributes.get(ATTR_NAME);
+			methodName = methodTag.getAttribute(ATTR_NAME);
 
 			methodName = StringUtil.replaceXMLEntities(methodName);
 		}
@@ -1026,6 +1131,48 @@ public final class ParseUtil
 		return methodName;
 	}
 
+	/*
+	 * Builds "pkg.Class.method(argtypes)" for a parse dictionary method ID so
+	 * the same method can be matched across compilations and logs
+	 */
+	public static String buildMethodSignature(String methodId, IParseDictionary parseDictionary)
+	{
+		Tag methodTag = parseDictionary.getMethod(methodId);
+
+		if (methodTag == null)
+		{
+			return null;
+		}
+
+		String className = lookupMetaClassName(methodId, parseDictionary);
+		String methodName = lookupMethodName(methodId, parseDictionary);
+
+		if (className == null || methodName == null)
+		{
+			return null;
+		}
+
+		StringBuilder builder = new StringBuilder();
+
+		builder.append(className).append(C_DOT).append(methodName).append(C_OPEN_PARENTHESES);
+
+		List<String> arguments = getMethodTagArguments(methodTag, parseDictionary);
+
+		for (int i = 0; i < arguments.size(); i++)
+		{
+			if (i > 0)
+			{
+				builder.append(C_COMMA);
+			}
+
+			builder.append(arguments.get(i));
+		}
+
+		builder.append(C_CLOSE_PARENTHESES);
+
+		return builder.toString();
+	}
+
 	public static IMetaMember lookupMember(String methodId, IParseDictionary parseDictionary, IReadOnlyJITDataModel model)
 	{
 		IMetaMember result = null;
@@ -1138,7 +1285,7 @@ public final class ParseUtil
 
 			if (typeTag != null)
 			{
-				String typeAttrName = typeTag.getAttributes().get(ATTR_NAME);
+				String typeAttrName = typeTag.getAttribute(ATTR_NAME);
 
 				if (typeAttrName != null)
 				{
@@ -13,9 +13,8 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NAME;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_PROF_FACTOR;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
 
-import java.util.Map;
-
 import org.adoptopenjdk.jitwatch.model.IParseDictionary;
+import org.adoptopenjdk.jitwatch.model.Tag;
 
 public final class TooltipUtil
 {
@@ -23,13 +22,17 @@ public final class TooltipUtil
 	{
 	}
 
-	public static String buildInlineAnnotationText(boolean inlined, String reason, Map<String, String> callAttrs,
-			Map<String, String> methodAttrs, IParseDictionary parseDictionary)
+	/*
+	 * callTag and methodTag may be null if the log has no call or method tag
+	 * for the site
+	 */
+	public static String buildInlineAnnotationText(boolean inlined, String reason, Tag callTag, Tag methodTag,
+			IParseDictionary parseDictionary)
 	{
 		StringBuilder builder = new StringBuilder();
 
-		String holder = methodAttrs.get(ATTR_HOLDER);
-		String methodName = methodAttrs.get(ATTR_NAME);
+		String holder = getAttribute(methodTag, ATTR_HOLDER);
+		String methodName = getAttribute(methodTag, ATTR_NAME);
 
 		builder.append("Class: ").append(ParseUtil.lookupType(holder, parseDictionary)).append(S_NEWLINE);
 		builder.append("Method: ").append(StringUtil.replaceXMLEntities(methodName)).append(S_NEWLINE);
@@ -47,23 +50,33 @@ public final class TooltipUtil
 
 		builder.append(reason);
 
-		if (callAttrs.containsKey(ATTR_COUNT))
+		String count = getAttribute(callTag, ATTR_COUNT);
+		String iicount = getAttribute(methodTag, ATTR_IICOUNT);
+		String bytes = getAttribute(methodTag, ATTR_BYTES);
+		String profFactor = getAttribute(callTag, ATTR_PROF_FACTOR);
+
+		if (count != null)
 		{
-			builder.append("\nCount: ").append(callAttrs.get(ATTR_COUNT));
+			builder.append("\nCount: ").append(count);
 		}
-		if (methodAttrs.containsKey(ATTR_IICOUNT))
+		if (iicount != null)
 		{
-			builder.append("\niicount: ").append(methodAttrs.get(ATTR_IICOUNT));
+			builder.append("\niicount: ").append(iicount);
 		}
-		if (methodAttrs.containsKey(ATTR_BYTES))
+		if (bytes != null)
 		{
-			builder.append("\nBytes: ").append(methodAttrs.get(ATTR_BYTES));
+			builder.append("\nBytes: ").append(bytes);
 		}
-		if (callAttrs.containsKey(ATTR_PROF_FACTOR))
+		if (profFactor != null)
 		{
-			builder.append("\nProf factor: ").append(callAttrs.get(ATTR_PROF_FACTOR));
+			builder.append("\nProf factor: ").append(profFactor);
 		}
 
 		return builder.toString();
 	}
+
+	private static String getAttribute(Tag tag, String attrName)
+	{
+		return tag == null ? null : tag.getAttribute(attrName);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.warmup;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+
+/*
+ * Warm-up of one member from its standard (non-OSR) compilations. All stamps
+ * are the nmethod emitted time in milliseconds since JVM start.
+ *
+ * The final level is the level of the last code emitted. The member reached
+ * it at the first compilation at that level after the last compilation at
+ * any other level, so a member that deopts back to C1 and later returns to
+ * C2 reaches its final level on the return.
+ */
+public class MemberWarmup
+{
+	private final IMetaMember member;
+
+	private int compilationCount;
+
+	private long firstCompiled;
+	private long lastCompiled;
+	private long reachedFinalLevel;
+	private long firstC2;
+
+	private int finalLevel;
+
+	MemberWarmup(IMetaMember member, List<Compilation> compilations)
+	{
+		this.member = member;
+
+		compilationCount = compilations.size();
+
+		Compilation last = null;
+
+		for (Compilation compilation : compilations)
+		{
+			long emitted = compilation.getStampNMethodEmitted();
+
+			if (last == null || emitted > last.getStampNMethodEmitted())
+			{
+				last = compilation;
+			}
+
+			if (firstCompiled == 0 || emitted < firstCompiled)
+			{
+				firstCompiled = emitted;
+			}
+
+			if (WarmupAnalyser.isC2(compilation) && (firstC2 == 0 || emitted < firstC2))
+			{
+				firstC2 = emitted;
+			}
+		}
+
+		lastCompiled = last.getStampNMethodEmitted();
+		finalLevel = last.getLevel();
+
+		long lastOtherLevel = 0;
+
+		for (Compilation compilation : compilations)
+		{
+			if (compilation.getLevel() != finalLevel)
+			{
+				lastOtherLevel = Math.max(lastOtherLevel, compilation.getStampNMethodEmitted());
+			}
+		}
+
+		reachedFinalLevel = lastCompiled;
+
+		for (Compilation compilation : compilations)
+		{
+			long emitted = compilation.getStampNMethodEmitted();
+
+			if (compilation.getLevel() == finalLevel && emitted >= lastOtherLevel && emitted < reachedFinalLevel)
+			{
+				reachedFinalLevel = emitted;
+			}
+		}
+	}
+
+	public IMetaMember getMember()
+	{
+		return member;
+	}
+
+	public int getCompilationCount()
+	{
+		return compilationCount;
+	}
+
+	public long getFirstCompiled()
+	{
+		return firstCompiled;
+	}
+
+	/*
+	 * When the code that was still installed at the end of the log was emitted
+	 */
+	public long getLastCompiled()
+	{
+		return lastCompiled;
+	}
+
+	public int getFinalLevel()
+	{
+		return finalLevel;
+	}
+
+	public long getReachedFinalLevel()
+	{
+		return reachedFinalLevel;
+	}
+
+	public boolean isReachedC2()
+	{
+		return firstC2 > 0;
+	}
+
+	/*
+	 * 0 if the member was never compiled by C2
+	 */
+	public long getFirstC2()
+	{
+		return firstC2;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "MemberWarmup [member=" + member + ", finalLevel=" + finalLevel + ", reachedFinalLevel=" + reachedFinalLevel
+				+ ", lastCompiled=" + lastCompiled + "]";
+	}
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.warmup;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_BACKEDGE_COUNT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COUNT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+
+/*
+ * How long after JVM start the JIT settled, per member and for the whole
+ * application.
+ *
+ * Per member it finds when the final compilation level was reached (see
+ * MemberWarmup). Hot methods are the members whose profile reached the hot
+ * threshold (invocations plus backedges from the count and backedge_count of
+ * any task_queued or nmethod, whether or not the task was compiled), so a
+ * member that was hot but never got C2 code, e.g. because its C2 task was
+ * still queued or bailed out, keeps C2 coverage below 100%. C2 coverage is
+ * the share of the hot members that had C2 code by a given time.
+ *
+ * Compile activity is the number of nmethods emitted per time bucket,
+ * including OSR compilations. The application is steady from the end of the
+ * last bucket whose activity was above the threshold, a percentage of the
+ * busiest bucket.
+ */
+public class WarmupAnalyser implements ITreeVisitable
+{
+	public static final long DEFAULT_BUCKET_MILLIS = 1000;
+
+	public static final double DEFAULT_ACTIVITY_THRESHOLD_PERCENT = 10;
+
+	// Tier4InvocationThreshold, the invocations after which C2 is asked for
+	public static final long DEFAULT_HOT_THRESHOLD = 5000;
+
+	private final IReadOnlyJITDataModel model;
+
+	private final long bucketMillis;
+
+	private final double activityThresholdPercent;
+
+	private final long hotThreshold;
+
+	private final List<MemberWarmup> members = new ArrayList<>();
+
+	private final List<Long> emittedStamps = new ArrayList<>();
+
+	// first C2 stamp of the hot members that reached C2
+	private final List<Long> hotC2Stamps = new ArrayList<>();
+
+	private int hotMemberCount;
+
+	private long[] c2Stamps = new long[0];
+
+	private long[] finalLevelStamps = new long[0];
+
+	private int[] activity = new int[0];
+
+	private long steadyState;
+
+	public WarmupAnalyser(IReadOnlyJITDataModel model)
+	{
+		this(model, DEFAULT_BUCKET_MILLIS, DEFAULT_ACTIVITY_THRESHOLD_PERCENT, DEFAULT_HOT_THRESHOLD);
+	}
+
+	public WarmupAnalyser(IReadOnlyJITDataModel model, long bucketMillis, double activityThresholdPercent)
+	{
+		this(model, bucketMillis, activityThresholdPercent, DEFAULT_HOT_THRESHOLD);
+	}
+
+	/*
+	 * bucketMillis is the width of each compile activity bucket, a bucket is
+	 * active while its count is above activityThresholdPercent (0-100) of
+	 * the busiest bucket. A member is hot once its invocations plus
+	 * backedges reach hotThreshold.
+	 */
+	public WarmupAnalyser(IReadOnlyJITDataModel model, long bucketMillis, double activityThresholdPercent, long hotThreshold)
+	{
+		this.model = model;
+		this.bucketMillis = bucketMillis;
+		this.activityThresholdPercent = activityThresholdPercent;
+		this.hotThreshold = hotThreshold;
+	}
+
+	static boolean isC2(Compilation compilation)
+	{
+		return !compilation.isC2N() && compilation.getLevel() == 4;
+	}
+
+	/*
+	 * Returns the members that settled last first
+	 */
+	public List<MemberWarmup> analyse()
+	{
+		TreeVisitor.walkTree(model, this);
+
+		finalLevelStamps = new long[members.size()];
+
+		for (int i = 0; i < members.size(); i++)
+		{
+			finalLevelStamps[i] = members.get(i).getReachedFinalLevel();
+		}
+
+		Arrays.sort(finalLevelStamps);
+
+		c2Stamps = toSortedArray(hotC2Stamps);
+
+		buildActivity();
+
+		Collections.sort(members, new Comparator<MemberWarmup>()
+		{
+			@Override
+			public int compare(MemberWarmup w1, MemberWarmup w2)
+			{
+				return Long.compare(w2.getReachedFinalLevel(), w1.getReachedFinalLevel());
+			}
+		});
+
+		return members;
+	}
+
+	@Override
+	public void reset()
+	{
+		members.clear();
+		emittedStamps.clear();
+		hotC2Stamps.clear();
+		hotMemberCount = 0;
+		c2Stamps = new long[0];
+		finalLevelStamps = new long[0];
+		activity = new int[0];
+		steadyState = 0;
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		List<Compilation> standard = new ArrayList<>();
+
+		long profileCount = 0;
+
+		for (Compilation compilation : metaMember.getCompilations())
+		{
+			if (compilation.isC2N())
+			{
+				continue;
+			}
+
+			profileCount = Math.max(profileCount, getProfileCount(compilation.getTagTaskQueued()));
+			profileCount = Math.max(profileCount, getProfileCount(compilation.getTagNMethod()));
+
+			long emitted = compilation.getStampNMethodEmitted();
+
+			if (emitted <= 0)
+			{
+				continue;
+			}
+
+			emittedStamps.add(emitted);
+
+			// OSR code only replaces a running loop so does not change the
+			// level the member is entered at
+			if (!compilation.isOSR())
+			{
+				standard.add(compilation);
+			}
+		}
+
+		MemberWarmup warmup = null;
+
+		if (!standard.isEmpty())
+		{
+			warmup = new MemberWarmup(metaMember, standard);
+
+			members.add(warmup);
+		}
+
+		if (profileCount >= hotThreshold)
+		{
+			hotMemberCount++;
+
+			if (warmup != null && warmup.isReachedC2())
+			{
+				hotC2Stamps.add(warmup.getFirstC2());
+			}
+		}
+	}
+
+	// invocations plus backedges when the tag was written, 0 without a tag
+	private static long getProfileCount(Tag tag)
+	{
+		long result = 0;
+
+		if (tag != null)
+		{
+			result = Math.max(0, tag.getLongAttribute(ATTR_COUNT, 0))
+					+ Math.max(0, tag.getLongAttribute(ATTR_BACKEDGE_COUNT, 0));
+		}
+
+		return result;
+	}
+
+	private void buildActivity()
+	{
+		long[] stamps = toSortedArray(emittedStamps);
+
+		if (stamps.length == 0)
+		{
+			return;
+		}
+
+		int bucketCount = (int) (stamps[stamps.length - 1] / bucketMillis) + 1;
+
+		activity = new int[bucketCount];
+
+		int peak = 0;
+
+		for (long stamp : stamps)
+		{
+			int bucket = (int) (stamp / bucketMillis);
+
+			activity[bucket]++;
+
+			peak = Math.max(peak, activity[bucket]);
+		}
+
+		double threshold = peak * activityThresholdPercent / 100.0;
+
+		for (int i = bucketCount - 1; i >= 0; i--)
+		{
+			if (activity[i] > threshold)
+			{
+				steadyState = (i + 1) * bucketMillis;
+				break;
+			}
+		}
+	}
+
+	private static long[] toSortedArray(List<Long> values)
+	{
+		long[] result = new long[values.size()];
+
+		for (int i = 0; i < result.length; i++)
+		{
+			result[i] = values.get(i);
+		}
+
+		Arrays.sort(result);
+
+		return result;
+	}
+
+	// nearest rank, 0 if there are no values
+	private static long getPercentile(long[] sorted, double percentile)
+	{
+		if (sorted.length == 0)
+		{
+			return 0;
+		}
+
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+
+		rank = Math.max(1, Math.min(sorted.length, rank));
+
+		return sorted[rank - 1];
+	}
+
+	private static int countAtOrBefore(long[] sorted, long stamp)
+	{
+		int low = 0;
+		int high = sorted.length;
+
+		// first index with a value after the stamp
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+
+			if (sorted[mid] <= stamp)
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	public List<MemberWarmup> getMembers()
+	{
+		return members;
+	}
+
+	public int getHotMemberCount()
+	{
+		return hotMemberCount;
+	}
+
+	public long getHotThreshold()
+	{
+		return hotThreshold;
+	}
+
+	/*
+	 * Percentage (0-100) of the hot members that had C2 code by the stamp
+	 */
+	public double getC2CoverageAt(long stamp)
+	{
+		return hotMemberCount == 0 ? 0 : 100.0 * countAtOrBefore(c2Stamps, stamp) / hotMemberCount;
+	}
+
+	/*
+	 * Time until percent (0-100) of the hot members had C2 code, 0 if there
+	 * are no hot members and -1 if the coverage was never reached
+	 */
+	public long getTimeToC2Coverage(double percent)
+	{
+		if (hotMemberCount == 0)
+		{
+			return 0;
+		}
+
+		int rank = Math.max(1, (int) Math.ceil(percent / 100.0 * hotMemberCount));
+
+		return rank > c2Stamps.length ? -1 : c2Stamps[rank - 1];
+	}
+
+	/*
+	 * Time by which percent (0-100) of the members had reached their final
+	 * compilation level
+	 */
+	public long getTimeToFinalLevel(double percent)
+	{
+		return getPercentile(finalLevelStamps, percent);
+	}
+
+	public long getBucketMillis()
+	{
+		return bucketMillis;
+	}
+
+	public int getActivityBucketCount()
+	{
+		return activity.length;
+	}
+
+	/*
+	 * nmethods emitted in [bucket * bucketMillis, (bucket + 1) * bucketMillis)
+	 */
+	public int getActivity(int bucket)
+	{
+		return activity[bucket];
+	}
+
+	/*
+	 * End of the last bucket with compile activity above the threshold, 0 if
+	 * nothing was compiled
+	 */
+	public long getSteadyState()
+	{
+		return steadyState;
+	}
+
+	public int getCompilationCount()
+	{
+		return emittedStamps.size();
+	}
+}
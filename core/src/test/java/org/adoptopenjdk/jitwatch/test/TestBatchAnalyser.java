@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.batch.BatchAnalyser;
+import org.adoptopenjdk.jitwatch.batch.BatchLogResult;
+import org.adoptopenjdk.jitwatch.core.JITWatchConstants;
+import org.junit.Test;
+
+public class TestBatchAnalyser
+{
+	private static final String[] LOG_LINES = new String[] {
+			"<writer thread='1234'/>",
+			"<task_queued compile_id='1' method='java/lang/String length ()I' bytes='55' count='520' backedge_count='5000' iicount='520' stamp='0.083' comment='count' hot_count='520'/>",
+			"<nmethod compile_id='1' compiler='C1' level='3' entry='0x00007fb5ad0fe420' size='2504' address='0x00007fb5ad0fe290' relocation_offset='288' method='java/lang/String length ()I' stamp='0.105'/>",
+			"<task compile_id='1' method='java/lang/String length ()I' bytes='55' count='521' backedge_count='5000' iicount='521' stamp='0.083'>",
+			"<task_done success='1' nmsize='376' count='546' backedge_count='5389' stamp='0.105'/>",
+			"</task>" };
+
+	private void writeLog(Path dir, String name) throws IOException
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (String line : LOG_LINES)
+		{
+			builder.append(line).append(JITWatchConstants.S_NEWLINE);
+		}
+
+		Files.write(dir.resolve(name), builder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testFindLogFilesByDirectoryAndGlob() throws IOException
+	{
+		Path dir = Files.createTempDirectory("batchfind");
+
+		writeLog(dir, "b.log");
+		writeLog(dir, "a.log");
+		writeLog(dir, "notes.txt");
+
+		List<File> all = BatchAnalyser.findLogFiles(dir.toString());
+
+		assertEquals(3, all.size());
+
+		List<File> logs = BatchAnalyser.findLogFiles(dir.resolve("*.log").toString());
+
+		assertEquals(2, logs.size());
+		assertEquals("a.log", logs.get(0).getName());
+		assertEquals("b.log", logs.get(1).getName());
+
+		assertTrue(BatchAnalyser.findLogFiles(dir.resolve("missing").resolve("*.log").toString()).isEmpty());
+	}
+
+	@Test
+	public void testAnalyseWritesReportPerLogAndSummary() throws Exception
+	{
+		Path dir = Files.createTempDirectory("batchlogs");
+		Path outputDir = Files.createTempDirectory("batchout");
+
+		writeLog(dir, "one.log");
+		writeLog(dir, "two.log");
+
+		List<File> logFiles = BatchAnalyser.findLogFiles(dir.toString());
+
+		BatchAnalyser analyser = new BatchAnalyser(new ArrayList<String>(), outputDir.toFile(), 2);
+
+		List<BatchLogResult> results = analyser.analyse(logFiles);
+
+		assertEquals(2, results.size());
+
+		for (BatchLogResult result : results)
+		{
+			assertTrue(result.isSuccess());
+			assertTrue(analyser.getReportFile(result.getLogFile()).exists());
+		}
+
+		File summaryFile = analyser.writeSummary(results);
+
+		List<String> summary = Files.readAllLines(summaryFile.toPath(), StandardCharsets.UTF_8);
+
+		// sep line, header, one row per log, total
+		assertEquals(5, summary.size());
+		assertTrue(summary.get(2).startsWith("one.log"));
+		assertTrue(summary.get(4).startsWith("TOTAL" + JITWatchConstants.HEADLESS_SEPARATOR + "2/2 OK"));
+	}
+}
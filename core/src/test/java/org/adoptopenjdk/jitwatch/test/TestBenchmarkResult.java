@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.benchmark.BenchmarkHarness;
+import org.adoptopenjdk.jitwatch.benchmark.BenchmarkResult;
+import org.adoptopenjdk.jitwatch.benchmark.BenchmarkSettings;
+import org.junit.Test;
+
+public class TestBenchmarkResult
+{
+	private static final String P = BenchmarkHarness.OUTPUT_PREFIX;
+
+	private BenchmarkSettings getSettings()
+	{
+		return new BenchmarkSettings("benchmark", 1, 2, 1000, 2);
+	}
+
+	@Test
+	public void testForkOutputMerged()
+	{
+		BenchmarkResult result = new BenchmarkResult(getSettings());
+
+		StringBuilder fork1 = new StringBuilder();
+		fork1.append("program output\n");
+		fork1.append(P).append("iteration warmup 0 1 1000000000\n");
+		fork1.append(P).append("iteration measure 0 1000 1000000000\n");
+		fork1.append(P).append("iteration measure 1 2000 1000000000\r\n");
+		fork1.append(P).append("samples 5 1 4 2 3\n");
+
+		StringBuilder fork2 = new StringBuilder();
+		fork2.append(P).append("iteration measure 0 3000 1000000000\n");
+		fork2.append(P).append("iteration measure 1 2000 500000000\n");
+		fork2.append(P).append("samples 10 9 8 7 6\n");
+
+		assertTrue(result.addForkOutput(fork1.toString()));
+		assertTrue(result.addForkOutput(fork2.toString()));
+
+		assertEquals(2, result.getForkCount());
+		assertEquals(4, result.getIterationCount());
+		assertEquals(10, result.getSampleCount());
+
+		// 1000, 2000, 3000, 4000 ops/s
+		assertEquals(2500, result.getScore(), 0.001);
+		assertEquals(1290.994, result.getScoreError(), 0.001);
+
+		assertEquals(5, result.getPercentile(50));
+		assertEquals(9, result.getPercentile(90));
+		assertEquals(10, result.getPercentile(99));
+		assertEquals(1, result.getPercentile(0));
+		assertEquals(10, result.getMaxLatency());
+
+		assertTrue(result.getErrors().isEmpty());
+	}
+
+	@Test
+	public void testErrorOutput()
+	{
+		BenchmarkResult result = new BenchmarkResult(getSettings());
+
+		assertFalse(result.addForkOutput(P + "error java.lang.NoSuchMethodException: No method benchmark() in Foo\n"));
+		assertFalse(result.addForkOutput(null));
+
+		assertFalse(result.hasScore());
+		assertEquals(0, result.getPercentile(50));
+		assertEquals(1, result.getErrors().size());
+		assertTrue(result.getErrors().get(0).startsWith("java.lang.NoSuchMethodException"));
+	}
+
+	@Test
+	public void testDeltaAndSummary()
+	{
+		BenchmarkResult previous = new BenchmarkResult(getSettings());
+		previous.addForkOutput(P + "iteration measure 0 1000 1000000000\n");
+
+		BenchmarkResult current = new BenchmarkResult(getSettings());
+		current.addForkOutput(P + "iteration measure 0 1250 1000000000\n" + P + "samples 100\n");
+
+		assertEquals(25, current.getScoreDelta(previous), 0.001);
+		assertEquals(0, current.getScoreDelta(null), 0.001);
+
+		String summary = current.summaryToString(previous);
+
+		assertTrue(summary.contains("Throughput: 1250.0 ops/s"));
+		assertTrue(summary.contains("+25.00% vs previous 1000.0 ops/s"));
+		assertTrue(summary.contains("p50=100 p90=100 p99=100 p99.9=100 max=100"));
+	}
+
+	@Test
+	public void testSystemProperties()
+	{
+		List<String> options = new ArrayList<>();
+
+		new BenchmarkSettings("run", -1, 0, 500, 0).addSystemProperties(options, "com.example.Foo");
+
+		assertEquals(5, options.size());
+		assertEquals("-D" + BenchmarkHarness.PROPERTY_CLASS + "=com.example.Foo", options.get(0));
+		assertEquals("-D" + BenchmarkHarness.PROPERTY_METHOD + "=run", options.get(1));
+		assertEquals("-D" + BenchmarkHarness.PROPERTY_WARMUP_ITERATIONS + "=0", options.get(2));
+		assertEquals("-D" + BenchmarkHarness.PROPERTY_ITERATIONS + "=1", options.get(3));
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.codecache.CodeCacheSimulator;
+import org.adoptopenjdk.jitwatch.codecache.CodeCacheSimulator.FullCause;
+import org.adoptopenjdk.jitwatch.codecache.CodeCacheSnapshot;
+import org.adoptopenjdk.jitwatch.codecache.CodeHeap;
+import org.adoptopenjdk.jitwatch.codecache.CodeSegment;
+import org.adoptopenjdk.jitwatch.codecache.SegmentOccupancy;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent.CodeCacheEventType;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.junit.Test;
+
+public class TestCodeCacheSimulator
+{
+	private JITDataModel buildModel() throws ClassNotFoundException
+	{
+		JITDataModel model = new JITDataModel();
+
+		IMetaMember length = UnitTestUtil.setUpTestMember(model, "java.lang.String", "length", int.class, new Class<?>[0],
+				"0x1");
+		IMetaMember hashCode = UnitTestUtil.setUpTestMember(model, "java.lang.String", "hashCode", int.class,
+				new Class<?>[0], "0x2");
+		IMetaMember isEmpty = UnitTestUtil.setUpTestMember(model, "java.lang.String", "isEmpty", boolean.class,
+				new Class<?>[0], "0x3");
+
+		// profiled and non-profiled code interleaved in one heap
+		Compilation lengthC1 = UnitTestUtil.compileLog(length, "10").level(3).nmethod("0x1000", 1000).stamp("1.000").compile();
+		UnitTestUtil.compileLog(hashCode, "20").level(4).nmethod("0x1400", 1000).stamp("1.100").compile();
+		UnitTestUtil.compileLog(isEmpty, "30").level(3).nmethod("0x1800", 1000).stamp("1.200").compile();
+		UnitTestUtil.compileLog(length, "11").level(4).nmethod("0x1c00", 1000).stamp("1.300").compile();
+
+		model.addDeoptEvent(UnitTestUtil.createZombie(lengthC1, "2.000"));
+
+		// reuses the space of the isEmpty C1 code which was never logged as freed
+		UnitTestUtil.compileLog(isEmpty, "31").level(4).nmethod("0x1800", 500).stamp("2.500").compile();
+
+		return model;
+	}
+
+	@Test
+	public void testReplayWithZombieAndReuse() throws ClassNotFoundException
+	{
+		JITDataModel model = buildModel();
+
+		model.addCodeCacheEvent(new CodeCacheEvent(CodeCacheEventType.COMPILATION, 1300, 1000, 10000));
+		model.addCodeCacheEvent(new CodeCacheEvent(CodeCacheEventType.CACHE_FULL, 2600, 0, 0));
+
+		CodeCacheSimulator simulator = new CodeCacheSimulator(model, 16384);
+
+		List<CodeHeap> heaps = simulator.simulate();
+
+		assertFalse(simulator.isSegmented());
+		assertEquals(1, heaps.size());
+
+		assertEquals(5, simulator.getNMethodCount());
+		assertEquals(1, simulator.getFlushedCount());
+		assertEquals(1, simulator.getReusedCount());
+
+		CodeHeap heap = heaps.get(0);
+
+		assertEquals(3, heap.getLiveCount());
+		assertEquals(2500, heap.getLiveBytes());
+		assertEquals(0x1fe8 - 0x1000, heap.getSpan());
+		assertEquals(0x1fe8 - 0x1000, heap.getPeakSpan());
+
+		// the 24 bytes after the isEmpty C1 code are padding
+		assertEquals(1024 + 524, heap.getFreeBytes());
+		assertEquals(2, heap.getFreeBlockCount());
+		assertEquals(1024, heap.getLargestFreeBlock());
+		assertEquals(1.0 - 1024.0 / 1548, heap.getFragmentation(), 0.0001);
+
+		SegmentOccupancy profiled = simulator.getOccupancy(CodeSegment.PROFILED);
+
+		assertEquals(2, profiled.getAllocatedCount());
+		assertEquals(2, profiled.getFreedCount());
+		assertEquals(0, profiled.getLiveBytes());
+		assertEquals(2000, profiled.getPeakLiveBytes());
+
+		SegmentOccupancy nonProfiled = simulator.getOccupancy(CodeSegment.NON_PROFILED);
+
+		assertEquals(3, nonProfiled.getAllocatedCount());
+		assertEquals(0, nonProfiled.getFreedCount());
+		assertEquals(2500, nonProfiled.getLiveBytes());
+
+		assertEquals(2500, simulator.getLiveBytes());
+		assertEquals(4000, simulator.getPeakLiveBytes());
+		assertEquals(1300, simulator.getPeakLiveStamp());
+
+		// reserved less reported free less the 4000 live nmethod bytes
+		assertEquals(16384 - 10000 - 4000, simulator.getNonNMethodBytes());
+
+		List<CodeCacheSnapshot> snapshots = simulator.getFullSnapshots();
+
+		assertEquals(1, snapshots.size());
+
+		CodeCacheSnapshot snapshot = snapshots.get(0);
+
+		assertEquals(2600, snapshot.getStamp());
+		assertEquals(2500, snapshot.getLiveBytes());
+		assertEquals(1548, snapshot.getFreeBytes());
+		assertEquals(1024, snapshot.getLargestFreeBlock());
+	}
+
+	@Test
+	public void testPredictionAndFullCause() throws ClassNotFoundException
+	{
+		JITDataModel model = buildModel();
+
+		CodeCacheSimulator simulator = new CodeCacheSimulator(model, 4000);
+
+		simulator.simulate();
+
+		assertEquals(FullCause.NONE, simulator.getFullCause());
+
+		assertEquals(4000, simulator.getRequiredCompacted());
+		assertEquals(0x1fe8 - 0x1000, simulator.getRequiredWithLayout());
+		assertEquals(1024 * 1024, simulator.getPredictedReservedSize());
+
+		model.addCodeCacheEvent(new CodeCacheEvent(CodeCacheEventType.CACHE_FULL, 2600, 0, 0));
+
+		simulator.simulate();
+
+		// fits in 4000 bytes compacted but not with its layout
+		assertEquals(FullCause.FRAGMENTATION, simulator.getFullCause());
+
+		simulator = new CodeCacheSimulator(model, 3000);
+		simulator.simulate();
+
+		assertEquals(FullCause.SIZE, simulator.getFullCause());
+
+		simulator = new CodeCacheSimulator(model, 16384);
+		simulator.simulate();
+
+		assertEquals(FullCause.UNDETERMINED, simulator.getFullCause());
+	}
+
+	@Test
+	public void testSegmentedHeaps() throws ClassNotFoundException
+	{
+		JITDataModel model = new JITDataModel();
+
+		IMetaMember length = UnitTestUtil.setUpTestMember(model, "java.lang.String", "length", int.class, new Class<?>[0],
+				"0x1");
+		IMetaMember hashCode = UnitTestUtil.setUpTestMember(model, "java.lang.String", "hashCode", int.class,
+				new Class<?>[0], "0x2");
+
+		UnitTestUtil.compileLog(length, "10").level(3).nmethod("0x1000", 1000).stamp("1.000").compile();
+		UnitTestUtil.compileLog(hashCode, "20").level(3).nmethod("0x1400", 1000).stamp("1.100").compile();
+		UnitTestUtil.compileLog(length, "11").level(4).nmethod("0x8000", 2000).stamp("1.200").compile();
+
+		CodeCacheSimulator simulator = new CodeCacheSimulator(model, CodeCacheSimulator.DEFAULT_RESERVED_CODE_CACHE_SIZE);
+
+		List<CodeHeap> heaps = simulator.simulate();
+
+		assertTrue(simulator.isSegmented());
+		assertEquals(2, heaps.size());
+
+		CodeHeap profiled = heaps.get(0);
+
+		assertEquals(CodeSegment.PROFILED.getHeapName(), profiled.getName());
+		assertEquals(2, profiled.getLiveCount());
+		assertEquals(0x1400 + 1000 - 0x1000, profiled.getSpan());
+
+		CodeHeap nonProfiled = heaps.get(1);
+
+		assertEquals(CodeSegment.NON_PROFILED.getHeapName(), nonProfiled.getName());
+		assertEquals(1, nonProfiled.getLiveCount());
+		assertEquals(2000, nonProfiled.getSpan());
+
+		assertEquals(0x1400 + 1000 - 0x1000 + 2000, simulator.getRequiredWithLayout());
+	}
+
+	@Test
+	public void testReservedSizeFromVMArguments()
+	{
+		assertEquals(64L * 1024 * 1024, CodeCacheSimulator.reservedSizeFromVMArguments("-XX:ReservedCodeCacheSize=64m Work"));
+
+		assertEquals(CodeCacheSimulator.DEFAULT_RESERVED_CODE_CACHE_SIZE, CodeCacheSimulator.reservedSizeFromVMArguments(null));
+		assertEquals(CodeCacheSimulator.DEFAULT_RESERVED_CODE_CACHE_SIZE,
+				CodeCacheSimulator.reservedSizeFromVMArguments("-XX:+TieredCompilation Work"));
+		assertEquals(CodeCacheSimulator.DEFAULT_NON_TIERED_RESERVED_CODE_CACHE_SIZE,
+				CodeCacheSimulator.reservedSizeFromVMArguments("-XX:-TieredCompilation Work"));
+
+		// a bad value falls back to the default for the compilation mode
+		assertEquals(CodeCacheSimulator.DEFAULT_NON_TIERED_RESERVED_CODE_CACHE_SIZE,
+				CodeCacheSimulator.reservedSizeFromVMArguments("-XX:ReservedCodeCacheSize=lots -XX:-TieredCompilation"));
+	}
+}
@@ -7,11 +7,14 @@ package org.adoptopenjdk.jitwatch.test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 
+import org.adoptopenjdk.jitwatch.chain.CompileChainCache;
 import org.adoptopenjdk.jitwatch.chain.CompileChainWalker;
 import org.adoptopenjdk.jitwatch.chain.CompileNode;
 import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
@@ -881,6 +884,17 @@ public class TestCompileChain
 	}
 
 	private CompileNode buildCompileNodeForXML(String[] lines)
+	{
+		CompileChainWalker walker = new CompileChainWalker(new JITDataModel());
+
+		CompileNode root = walker.buildCallTree(buildCompilationForXML(lines));
+
+		assertNotNull(root);
+
+		return root;
+	}
+
+	private Compilation buildCompilationForXML(String[] lines)
 	{
 		TagProcessor tp = new TagProcessor();
 
@@ -906,13 +920,82 @@ public class TestCompileChain
 		Compilation compilation = new Compilation(null, 0);
 		compilation.setTagTask((Task)tag);
 
-		CompileChainWalker walker = new CompileChainWalker(new JITDataModel());
+		return compilation;
+	}
 
-		CompileNode root = walker.buildCallTree(compilation);
+	@Test
+	public void testCachedCallTreeCounts()
+	{
+		String[] lines = new String[] {
+				"<task compile_id='7' method='Foo run ()V' bytes='20' count='10000' iicount='10000' stamp='1.000'>",
+				"<phase name='parse' nodes='3' live='3' stamp='1.000'>",
+				"<type id='700' name='void'/>",
+				"<type id='701' name='int'/>",
+				"<klass id='800' name='Foo' flags='1'/>",
+				"<method id='801' holder='800' name='run' return='700' flags='1' bytes='20' iicount='10000'/>",
+				"<parse method='801' uses='10000' stamp='1.000'>",
+				"<bc code='182' bci='1'/>",
+				"<method id='802' holder='800' name='small' return='701' flags='2' bytes='5' iicount='10000'/>",
+				"<call method='802' count='10000' prof_factor='1' inline='1'/>",
+				"<inline_success reason='accessor'/>",
+				"<parse method='802' uses='10000' stamp='1.000'>",
+				"<bc code='182' bci='2'/>",
+				"<method id='803' holder='800' name='large' return='701' flags='2' bytes='400' iicount='10000'/>",
+				"<call method='803' count='10000' prof_factor='1' inline='1'/>",
+				"<inline_fail reason='hot method too big'/>",
+				"<parse_done nodes='20' live='20' memory='4096' stamp='1.000'/>",
+				"</parse>",
+				"<bc code='182' bci='8'/>",
+				"<call method='803' count='10000' prof_factor='1' inline='1'/>",
+				"<inline_fail reason='hot method too big'/>",
+				"<bc code='185' bci='14'/>",
+				"<method id='804' holder='800' name='visit' return='700' flags='1025' bytes='0' iicount='0'/>",
+				"<call method='804' count='10000' prof_factor='1' virtual='1' inline='1'/>",
+				"<virtual_call/>",
+				"<parse_done nodes='40' live='40' memory='8192' stamp='1.000'/>",
+				"</parse>",
+				"<phase_done name='parse' nodes='40' live='40' stamp='1.000'/>",
+				"</phase>",
+				"<task_done success='1' nmsize='120' count='10000' inlined_bytes='5' stamp='1.001'/>",
+				"</task>" };
+
+		Compilation compilation = buildCompilationForXML(lines);
+
+		JITDataModel model = new JITDataModel();
+
+		CompileChainCache cache = model.getCompileChainCache();
+
+		CompileNode root = cache.getCallTree(compilation);
 
 		assertNotNull(root);
+		assertEquals(1, cache.getMissCount());
 
-		return root;
+		// the virtual call was not inlined either
+		assertEquals(1, root.getInlinedCount());
+		assertEquals(3, root.getFailedCount());
+		assertTrue(root.getChildren().get(2).isVirtualCall());
+
+		CompileNode small = root.getChildren().get(0);
+
+		assertEquals("small", small.getMemberName());
+		assertTrue(small.isInlined());
+		assertEquals(0, small.getInlinedCount());
+		assertEquals(1, small.getFailedCount());
+
+		CompileNode large = small.getChildren().get(0);
+
+		assertEquals("hot method too big", large.getReason());
+		assertEquals(400, large.getBytecodeSize());
+
+		assertSame(root, cache.getCallTree(compilation));
+		assertEquals(1, cache.getHitCount());
+
+		// each model has its own cache
+		assertNotSame(root, new JITDataModel().getCompileChainCache().getCallTree(compilation));
+
+		model.reset();
+
+		assertEquals(0, cache.size());
 	}
 
 	@Test
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.logger.ILogListener;
+import org.adoptopenjdk.jitwatch.process.compiler.CompilerJavaInProcess;
+import org.adoptopenjdk.jitwatch.util.FileUtil;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCompilerJavaInProcess
+{
+	private File workDir;
+	private File sourceDir;
+	private File classDir;
+
+	private final List<String> errors = new ArrayList<>();
+
+	private final ILogListener listener = new ILogListener()
+	{
+		@Override
+		public void handleLogEntry(String entry)
+		{
+		}
+
+		@Override
+		public void handleErrorEntry(String entry)
+		{
+			errors.add(entry);
+		}
+	};
+
+	@Before
+	public void setUp() throws IOException
+	{
+		Assume.assumeTrue(CompilerJavaInProcess.isAvailable());
+
+		workDir = Files.createTempDirectory("inprocess").toFile();
+		sourceDir = new File(workDir, "src");
+		classDir = new File(workDir, "classes");
+
+		sourceDir.mkdirs();
+	}
+
+	@After
+	public void tearDown()
+	{
+		if (workDir != null)
+		{
+			FileUtil.emptyDir(workDir);
+			workDir.delete();
+		}
+	}
+
+	private File writeSource(String name, String source) throws IOException
+	{
+		File file = new File(sourceDir, name + ".java");
+
+		Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+
+		return file;
+	}
+
+	@Test
+	public void testRecompilesOnlyWhenChanged() throws IOException
+	{
+		File fileA = writeSource("A", "public class A { public static int value() { return 1; } }");
+		File fileB = writeSource("B", "public class B { public static void main(String[] args) { System.out.println(A.value()); } }");
+
+		List<File> sources = Arrays.asList(fileA, fileB);
+
+		CompilerJavaInProcess compiler = new CompilerJavaInProcess();
+
+		assertTrue(compiler.compile(sources, new ArrayList<String>(), classDir, listener));
+		assertEquals(2, compiler.getLastCompiledCount());
+		assertTrue(new File(classDir, "A.class").exists());
+		assertTrue(new File(classDir, "B.class").exists());
+
+		// nothing changed
+		assertTrue(compiler.compile(sources, new ArrayList<String>(), classDir, listener));
+		assertEquals(0, compiler.getLastCompiledCount());
+
+		// only A changed its signature, B must be recompiled against it
+		writeSource("A", "public class A { public static long value() { return 1L; } }");
+		fileA.setLastModified(fileA.lastModified() + 2000);
+
+		assertTrue(compiler.compile(sources, new ArrayList<String>(), classDir, listener));
+		assertEquals(2, compiler.getLastCompiledCount());
+
+		String classB = new String(Files.readAllBytes(new File(classDir, "B.class").toPath()), StandardCharsets.ISO_8859_1);
+
+		assertTrue(classB.contains("()J"));
+		assertFalse(classB.contains("()I"));
+
+		assertTrue(errors.isEmpty());
+	}
+
+	@Test
+	public void testDiagnosticsReachListener() throws IOException
+	{
+		File broken = writeSource("Broken", "public class Broken { int x = ; }");
+
+		CompilerJavaInProcess compiler = new CompilerJavaInProcess();
+
+		assertFalse(compiler.compile(Arrays.asList(broken), new ArrayList<String>(), classDir, listener));
+
+		assertFalse(errors.isEmpty());
+		assertTrue(errors.get(0).startsWith("Broken.java:1: error: "));
+		assertTrue(compiler.getErrorStream().contains("Broken.java:1"));
+	}
+}
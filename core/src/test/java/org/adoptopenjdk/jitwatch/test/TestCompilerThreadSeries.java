@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.CompilerThread;
+import org.adoptopenjdk.jitwatch.model.CompilerThreadSeries;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.junit.Test;
+
+public class TestCompilerThreadSeries
+{
+	private Compilation buildCompilation(int id, String queued, String started, String emitted, int bytes, int nmsize)
+	{
+		Compilation compilation = new Compilation(null, id);
+
+		compilation.setTagTaskQueued(new Tag("task_queued", "compile_id='" + id + "' stamp='" + queued + "'", true));
+		compilation.setTagNMethod(new Tag("nmethod", "compile_id='" + id + "' stamp='" + emitted + "'", true));
+		compilation.setTagTask(new Task("compile_id='" + id + "' method='java/lang/String length ()I' bytes='" + bytes
+				+ "' stamp='" + started + "'", false));
+		compilation.setTagTaskDone(new Tag("task_done", "success='1' nmsize='" + nmsize + "'", true));
+
+		return compilation;
+	}
+
+	@Test
+	public void testQueueDepthSweep()
+	{
+		CompilerThread thread = new CompilerThread("1234", "C2 CompilerThread0");
+
+		// queued at 1.0, 1.1, 1.2 then started one after the other
+		thread.addCompilation(buildCompilation(1, "1.000", "1.000", "1.050", 10, 100));
+		thread.addCompilation(buildCompilation(2, "1.100", "1.200", "1.300", 20, 400));
+		thread.addCompilation(buildCompilation(3, "1.150", "1.300", "1.500", 30, 200));
+
+		CompilerThreadSeries series = thread.getSeries();
+
+		assertSame(series, thread.getSeries());
+
+		assertEquals(3, series.getCompilationCount());
+		assertEquals(2, series.getMaxQueueDepth());
+
+		assertEquals(0, series.getQueueDepthAt(999));
+		assertEquals(0, series.getQueueDepthAt(1000));
+		assertEquals(1, series.getQueueDepthAt(1100));
+		assertEquals(2, series.getQueueDepthAt(1175));
+		assertEquals(1, series.getQueueDepthAt(1250));
+		assertEquals(0, series.getQueueDepthAt(1400));
+
+		assertEquals(50 + 100 + 200, series.getTotalBusyTime());
+		assertEquals(50, series.getBusyTimeBefore(1200));
+		assertEquals(150, series.getBusyTimeBefore(1250));
+
+		assertEquals(1000, series.getEarliestQueuedTime());
+		assertEquals(1500, series.getLatestNMethodEmittedTime());
+		assertEquals(400, series.getLargestNativeSize());
+		assertEquals(30, series.getLargestBytecodeSize());
+
+		thread.addCompilation(buildCompilation(4, "1.600", "1.600", "1.700", 40, 50));
+
+		assertNotSame(series, thread.getSeries());
+		assertEquals(4, thread.getSeries().getCompilationCount());
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.deopt.DeoptAnalyser;
+import org.adoptopenjdk.jitwatch.deopt.DeoptMemberStats;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent.DeoptEventType;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.junit.Test;
+
+public class TestDeoptAnalyser
+{
+	@Test
+	public void testRecompileChurn() throws ClassNotFoundException
+	{
+		JITDataModel model = new JITDataModel();
+
+		IMetaMember length = UnitTestUtil.setUpTestMember(model, "java.lang.String", "length", int.class, new Class<?>[0],
+				"0x1");
+		IMetaMember isEmpty = UnitTestUtil.setUpTestMember(model, "java.lang.String", "isEmpty", boolean.class,
+				new Class<?>[0], "0x2");
+
+		// compile_id 1 is the helper's compilation of each member
+		Compilation lengthC1 = UnitTestUtil.compileLog(length, "10").level(3).stamps("1.000", "1.000", "1.010").compile();
+		Compilation lengthC2 = UnitTestUtil.compileLog(length, "11").level(4).stamps("1.100", "1.100", "1.150").compile();
+		UnitTestUtil.compileLog(length, "12").level(4).stamps("1.600", "1.600", "1.650").compile();
+		UnitTestUtil.compileLog(length, "13").level(4).stamps("2.300", "2.300", "2.350").compile();
+
+		Compilation isEmptyC1 = UnitTestUtil.compileLog(isEmpty, "20").level(3).stamps("1.000", "1.000", "1.010").compile();
+		UnitTestUtil.compileLog(isEmpty, "21").level(4).stamps("1.100", "1.100", "1.150").compile();
+
+		// routine tier up of C1 code is not deopt churn
+		model.addDeoptEvent(UnitTestUtil.createNotEntrant(lengthC1, "1.200"));
+		model.addDeoptEvent(UnitTestUtil.createNotEntrant(isEmptyC1, "1.200"));
+
+		// C2 code traps twice and is recompiled each time
+		model.addDeoptEvent(UnitTestUtil.createTrap(lengthC2, "1.500", "unstable_if", "reinterpret"));
+		model.addDeoptEvent(UnitTestUtil.createNotEntrant(lengthC2, "1.500"));
+		model.addDeoptEvent(UnitTestUtil.createTrap(length.getCompilations().get(3), "2.000", "class_check", "maybe_recompile"));
+		model.addDeoptEvent(UnitTestUtil.createNotEntrant(length.getCompilations().get(3), "2.000"));
+		model.addDeoptEvent(UnitTestUtil.createTrap(lengthC2, "1.400", "unstable_if", "none"));
+
+		DeoptEvent unresolved = new DeoptEvent(DeoptEventType.UNCOMMON_TRAP, 3000, "999");
+		unresolved.setReason("null_check");
+		model.addDeoptEvent(unresolved);
+
+		DeoptAnalyser analyser = new DeoptAnalyser(model);
+
+		List<DeoptMemberStats> ranked = analyser.analyse();
+
+		assertEquals(1, ranked.size());
+
+		DeoptMemberStats stats = ranked.get(0);
+
+		assertSame(length, stats.getMember());
+		assertEquals(3, stats.getTrapCount());
+		assertEquals(2, stats.getInvalidationCount());
+		assertEquals(2, stats.getRecompileCount());
+
+		// recompiles queued 100ms and 300ms after the invalidations
+		assertEquals(200, stats.getMeanRecompileDelay());
+
+		// nmethods installed at 1.150 and 1.650 were invalidated at 1.500 and 2.000
+		assertEquals(350, stats.getMeanCodeLifetime());
+
+		assertEquals(Integer.valueOf(2), stats.getTrapReasons().get("unstable_if"));
+		assertEquals("unstable_if", stats.getTrapReasons().keySet().iterator().next());
+
+		assertEquals(4, analyser.getTrapCount());
+		assertEquals(2, analyser.getInvalidationCount());
+		assertEquals(1, analyser.getUnresolvedCount());
+		assertEquals(Integer.valueOf(1), analyser.getTrapReasons().get("null_check"));
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.adoptopenjdk.jitwatch.model.EventTimelineIndex;
+import org.adoptopenjdk.jitwatch.model.EventType;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.junit.Test;
+
+public class TestEventTimelineIndex
+{
+	@Test
+	public void testIncrementalUpdateFromModel()
+	{
+		JITDataModel model = new JITDataModel();
+
+		EventTimelineIndex index = new EventTimelineIndex();
+
+		// first update binds the index to the model's event log
+		assertTrue(index.update(model));
+		assertFalse(index.update(model));
+		assertTrue(index.isEmpty());
+
+		model.addEvent(new JITEvent(100, EventType.QUEUE, null));
+		model.addEvent(new JITEvent(300, EventType.NMETHOD_C1, null));
+
+		assertTrue(index.update(model));
+		assertEquals(2, index.size());
+		assertFalse(index.update(model));
+
+		// out of order event must be merged into place
+		model.addEvent(new JITEvent(200, EventType.QUEUE, null));
+
+		assertTrue(index.update(model));
+		assertEquals(3, index.size());
+		assertEquals(100, index.getFirstStamp());
+		assertEquals(300, index.getLastStamp());
+
+		assertEquals(0, index.countBefore(100));
+		assertEquals(1, index.countAtOrBefore(100));
+		assertEquals(2, index.countAtOrBefore(250));
+		assertEquals(3, index.countAtOrBefore(300));
+
+		model.reset();
+
+		assertTrue(index.update(model));
+		assertTrue(index.isEmpty());
+	}
+
+	@Test
+	public void testColumnRanges()
+	{
+		EventTimelineIndex index = new EventTimelineIndex();
+
+		index.addStamps(new long[] { 0, 1, 2, 3, 50, 99, 100 });
+
+		int columns = 4;
+
+		int[] minCounts = new int[columns];
+		int[] maxCounts = new int[columns];
+
+		index.getColumnRanges(0, 100, columns, minCounts, maxCounts);
+
+		// [0,25) [25,50) [50,75) [75,100]
+		assertEquals(0, minCounts[0]);
+		assertEquals(4, maxCounts[0]);
+
+		assertEquals(4, minCounts[1]);
+		assertEquals(4, maxCounts[1]);
+
+		assertEquals(4, minCounts[2]);
+		assertEquals(5, maxCounts[2]);
+
+		assertEquals(5, minCounts[3]);
+		assertEquals(7, maxCounts[3]);
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig.CompressedOops;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig.TieredCompilation;
+import org.adoptopenjdk.jitwatch.core.JITWatchConstants;
+import org.adoptopenjdk.jitwatch.sweep.FlagSweep;
+import org.adoptopenjdk.jitwatch.sweep.SweepResult;
+import org.adoptopenjdk.jitwatch.sweep.SweepSettings;
+import org.junit.Test;
+
+public class TestFlagSweep
+{
+	private SweepSettings getBaseline()
+	{
+		return new SweepSettings(TieredCompilation.VM_DEFAULT, CompressedOops.VM_DEFAULT, JITWatchConstants.DEFAULT_FREQ_INLINE_SIZE,
+				JITWatchConstants.DEFAULT_MAX_INLINE_SIZE, JITWatchConstants.DEFAULT_COMPILER_THRESHOLD, "");
+	}
+
+	@Test
+	public void testParseIntValues()
+	{
+		assertEquals(Arrays.asList(325), FlagSweep.parseIntValues("325"));
+		assertEquals(Arrays.asList(100, 200, 325), FlagSweep.parseIntValues("100, 200,325"));
+		assertEquals(Arrays.asList(100, 200, 300, 400), FlagSweep.parseIntValues("100-400:100"));
+		assertEquals(Arrays.asList(1, 2, 3, 35), FlagSweep.parseIntValues("1-3,35,2"));
+		assertTrue(FlagSweep.parseIntValues(" ").isEmpty());
+
+		try
+		{
+			FlagSweep.parseIntValues("400-100");
+			fail("Expected reversed range to be rejected");
+		}
+		catch (NumberFormatException nfe)
+		{
+		}
+
+		try
+		{
+			FlagSweep.parseIntValues("1-100000");
+			fail("Expected oversized range to be rejected");
+		}
+		catch (NumberFormatException nfe)
+		{
+		}
+	}
+
+	@Test
+	public void testParseSwitchValues()
+	{
+		List<String> switches = FlagSweep.parseSwitchValues(";-XX:+UseParallelGC -Xmx1g; -XX:+UseG1GC");
+
+		assertEquals(Arrays.asList("", "-XX:+UseParallelGC -Xmx1g", "-XX:+UseG1GC"), switches);
+	}
+
+	@Test
+	public void testExpandCrossProduct()
+	{
+		FlagSweep sweep = new FlagSweep(getBaseline());
+
+		assertEquals(1L, sweep.getConfigurationCount());
+
+		sweep.setTieredModes(Arrays.asList(TieredCompilation.FORCE_TIERED, TieredCompilation.FORCE_NO_TIERED));
+		sweep.setFreqInlineSizes(FlagSweep.parseIntValues("100,325,500"));
+		sweep.setMaxInlineSizes(new ArrayList<Integer>());
+
+		assertEquals(6L, sweep.getConfigurationCount());
+
+		List<SweepSettings> configurations = sweep.expand();
+
+		assertEquals(6, configurations.size());
+
+		SweepSettings first = configurations.get(0);
+
+		assertEquals(TieredCompilation.FORCE_TIERED, first.getTieredMode());
+		assertEquals(100, first.getFreqInlineSize());
+		assertEquals(JITWatchConstants.DEFAULT_MAX_INLINE_SIZE, first.getMaxInlineSize());
+
+		SweepSettings last = configurations.get(5);
+
+		assertEquals(TieredCompilation.FORCE_NO_TIERED, last.getTieredMode());
+		assertEquals(500, last.getFreqInlineSize());
+	}
+
+	@Test
+	public void testConfigurationCountDoesNotOverflow()
+	{
+		FlagSweep sweep = new FlagSweep(getBaseline());
+
+		// 256^4 overflows an int to 0
+		sweep.setFreqInlineSizes(FlagSweep.parseIntValues("1-256"));
+		sweep.setMaxInlineSizes(FlagSweep.parseIntValues("1-256"));
+		sweep.setCompileThresholds(FlagSweep.parseIntValues("1-256"));
+
+		List<String> switches = new ArrayList<>();
+
+		for (int i = 1; i <= 256; i++)
+		{
+			switches.add("-XX:CICompilerCount=" + i);
+		}
+
+		sweep.setExtraVMSwitches(switches);
+
+		assertTrue(sweep.getConfigurationCount() > FlagSweep.MAX_CONFIGURATIONS);
+
+		sweep = new FlagSweep(getBaseline());
+		sweep.setFreqInlineSizes(FlagSweep.parseIntValues("1-256"));
+
+		assertEquals(256L, sweep.getConfigurationCount());
+	}
+
+	@Test
+	public void testVMOptions()
+	{
+		SweepSettings settings = new SweepSettings(TieredCompilation.FORCE_NO_TIERED, CompressedOops.FORCE_COMPRESSED, 100,
+				JITWatchConstants.DEFAULT_MAX_INLINE_SIZE, 1000, " -Xmx1g  -XX:+UseG1GC ");
+
+		List<String> options = new ArrayList<>();
+
+		settings.addVMOptions(options, false);
+
+		assertEquals(Arrays.asList("-XX:-TieredCompilation", "-XX:+UseCompressedOops", "-XX:FreqInlineSize=100",
+				"-XX:CompileThreshold=1000", "-Xmx1g", "-XX:+UseG1GC"), options);
+
+		options.clear();
+
+		settings.addVMOptions(options, true);
+
+		assertFalse(options.contains("-XX:FreqInlineSize=100"));
+	}
+
+	@Test
+	public void testComparisonTable()
+	{
+		SweepResult result = new SweepResult(getBaseline(), new File("sweep-1.log"));
+		result.setExecutionMillis(1234);
+
+		String table = FlagSweep.comparisonToString(Arrays.asList(result));
+
+		String[] lines = table.split(JITWatchConstants.S_NEWLINE);
+
+		assertEquals(3, lines.length);
+		assertEquals("sep=" + JITWatchConstants.HEADLESS_SEPARATOR, lines[0]);
+		assertTrue(lines[2].startsWith("sweep-1.log|default|default|325|35|10000||FAILED null|1234|"));
+	}
+}
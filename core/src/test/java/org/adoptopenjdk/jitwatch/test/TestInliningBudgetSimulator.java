@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_DONE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.core.TagProcessor;
+import org.adoptopenjdk.jitwatch.inline.InlineSiteFlip;
+import org.adoptopenjdk.jitwatch.inline.InliningBudget;
+import org.adoptopenjdk.jitwatch.inline.InliningBudgetSimulator;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+import org.junit.Test;
+
+public class TestInliningBudgetSimulator
+{
+	// the log was recorded with -XX:MaxInlineLevel=2
+	private static final InliningBudget RECORDED = new InliningBudget(35, 325, 2500, 2);
+
+	private JITDataModel buildModel() throws ClassNotFoundException
+	{
+		JITDataModel model = new JITDataModel();
+
+		IMetaMember member = UnitTestUtil.setUpTestMember(model, "java.lang.String", "length", int.class, new Class<?>[0],
+				"0x1");
+
+		String method = "java.lang.String length ()I";
+
+		UnitTestUtil.processLogLines(member, new String[] {
+				"<task_queued compile_id='20' method='" + method + "' bytes='50' count='5000' iicount='5000' level='4' stamp='1.000'/>",
+				"<nmethod compile_id='20' compiler='c2' level='4' entry='0x1000' size='1200' address='0x1000' method='" + method
+						+ "' bytes='50' count='5000' iicount='5000' stamp='1.200'/>" });
+
+		Compilation compilation = member.getCompilationByCompileID("20");
+
+		// 100 parsed bytecode bytes compiled to 1000 native bytes
+		Task task = buildTask(new String[] {
+				"<task compile_id='20' method='" + method + "' bytes='50' count='5000' iicount='5000' stamp='1.100'>",
+				"<type id='700' name='int'/>",
+				"<klass id='800' name='java.lang.String' flags='17'/>",
+				"<method id='801' holder='800' name='length' return='700' flags='1' bytes='50' iicount='5000'/>",
+				"<parse method='801' uses='5000.000000' stamp='1.100'>",
+				"<bc code='182' bci='1'/>",
+				"<method id='802' holder='800' name='outer' return='700' flags='1' bytes='30' iicount='5000'/>",
+				"<call method='802' count='5000' prof_factor='1.000000' inline='1'/>",
+				"<inline_success reason='inline (hot)'/>",
+				"<parse method='802' uses='5000.000000' stamp='1.100'>",
+				"<bc code='182' bci='1'/>",
+				"<method id='803' holder='800' name='inner' return='700' flags='1' bytes='20' iicount='5000'/>",
+				"<call method='803' count='5000' prof_factor='1.000000' inline='1'/>",
+				"<inline_success reason='inline (hot)'/>",
+				"<parse method='803' uses='5000.000000' stamp='1.100'>",
+				"<bc code='182' bci='1'/>",
+				"<method id='804' holder='800' name='deepest' return='700' flags='1' bytes='8' iicount='5000'/>",
+				"<call method='804' count='5000' prof_factor='1.000000' inline='1'/>",
+				"<inline_fail reason='inlining too deep'/>",
+				"<direct_call bci='1'/>",
+				"<parse_done stamp='1.100'/>",
+				"</parse>",
+				"<parse_done stamp='1.100'/>",
+				"</parse>",
+				"<bc code='182' bci='10'/>",
+				"<method id='805' holder='800' name='cold' return='700' flags='1' bytes='100' iicount='50'/>",
+				"<call method='805' count='50' prof_factor='1.000000' inline='1'/>",
+				"<inline_fail reason='too big'/>",
+				"<direct_call bci='10'/>",
+				"<bc code='182' bci='20'/>",
+				"<method id='806' holder='800' name='huge' return='700' flags='1' bytes='400' iicount='5000'/>",
+				"<call method='806' count='5000' prof_factor='1.000000' inline='1'/>",
+				"<inline_fail reason='hot method too big'/>",
+				"<direct_call bci='20'/>",
+				"<parse_done stamp='1.100'/>",
+				"</parse>",
+				"<task_done success='1' nmsize='1000' count='5000' inlined_bytes='50' stamp='1.200'/>",
+				"</task>" });
+
+		compilation.setTagTask(task);
+		compilation.setTagTaskDone(task.getFirstNamedChild(TAG_TASK_DONE));
+
+		return model;
+	}
+
+	private Task buildTask(String[] lines)
+	{
+		TagProcessor tp = new TagProcessor();
+
+		Tag tag = null;
+
+		for (String line : lines)
+		{
+			tag = tp.processLine(StringUtil.replaceXMLEntities(line.trim()));
+		}
+
+		assertNotNull(tag);
+
+		return (Task) tag;
+	}
+
+	private InliningBudgetSimulator simulate(JITDataModel model, String spec)
+	{
+		InliningBudgetSimulator simulator = new InliningBudgetSimulator(model, RECORDED, InliningBudget.parse(spec, RECORDED));
+
+		simulator.simulate();
+
+		assertEquals(1, simulator.getCompilationCount());
+
+		return simulator;
+	}
+
+	@Test
+	public void testRecordedBudgetHasNoFlips() throws ClassNotFoundException
+	{
+		InliningBudgetSimulator simulator = simulate(buildModel(), "");
+
+		assertTrue(simulator.getFlips().isEmpty());
+		assertEquals(5, simulator.getSiteCount());
+		assertEquals(0, simulator.getChangedCompilationCount());
+		assertEquals(0, simulator.getNativeGrowth());
+	}
+
+	@Test
+	public void testRaisedSizeLimits() throws ClassNotFoundException
+	{
+		InliningBudgetSimulator simulator = simulate(buildModel(), "MaxInlineSize=100,-XX:FreqInlineSize=400");
+
+		List<InlineSiteFlip> flips = simulator.getFlips();
+
+		assertEquals(2, flips.size());
+		assertEquals(2, simulator.getGainedCount());
+		assertEquals(0, simulator.getLostCount());
+		assertEquals(1, simulator.getChangedCompilationCount());
+
+		// largest growth first
+		InlineSiteFlip huge = flips.get(0);
+
+		assertTrue(huge.isInlined());
+		assertEquals("huge", huge.getSite().getMemberName());
+		assertEquals(InliningBudgetSimulator.REASON_HOT_METHOD_TOO_BIG, huge.getRecordedReason());
+		assertNull(huge.getSimulatedReason());
+		assertEquals(1, huge.getDepth());
+		assertEquals(4000, huge.getNativeGrowth());
+
+		InlineSiteFlip cold = flips.get(1);
+
+		assertEquals("cold", cold.getSite().getMemberName());
+		assertEquals(InliningBudgetSimulator.REASON_TOO_BIG, cold.getRecordedReason());
+		assertEquals(1000, cold.getNativeGrowth());
+
+		assertEquals(5000, simulator.getNativeGrowth());
+		assertEquals(Integer.valueOf(1), simulator.getGainedByReason().get(InliningBudgetSimulator.REASON_TOO_BIG));
+		assertEquals(Integer.valueOf(1), simulator.getGainedByReason().get(InliningBudgetSimulator.REASON_HOT_METHOD_TOO_BIG));
+	}
+
+	@Test
+	public void testRaisedMaxInlineLevel() throws ClassNotFoundException
+	{
+		InliningBudgetSimulator simulator = simulate(buildModel(), "MaxInlineLevel=3");
+
+		List<InlineSiteFlip> flips = simulator.getFlips();
+
+		assertEquals(1, flips.size());
+
+		InlineSiteFlip deepest = flips.get(0);
+
+		assertTrue(deepest.isInlined());
+		assertEquals("deepest", deepest.getSite().getMemberName());
+		assertEquals(InliningBudgetSimulator.REASON_TOO_DEEP, deepest.getRecordedReason());
+		assertEquals(3, deepest.getDepth());
+		assertEquals(80, deepest.getNativeGrowth());
+	}
+
+	@Test
+	public void testLoweredLimitsLoseInlinedSites() throws ClassNotFoundException
+	{
+		JITDataModel model = buildModel();
+
+		InliningBudgetSimulator simulator = simulate(model, "FreqInlineSize=25");
+
+		List<InlineSiteFlip> flips = simulator.getFlips();
+
+		assertEquals(1, flips.size());
+		assertEquals(1, simulator.getLostCount());
+
+		// the sites below outer are not simulated once it is lost
+		assertEquals(3, simulator.getSiteCount());
+
+		// outer takes inner with it
+		InlineSiteFlip outer = flips.get(0);
+
+		assertFalse(outer.isInlined());
+		assertEquals("outer", outer.getSite().getMemberName());
+		assertEquals(InliningBudgetSimulator.REASON_HOT_METHOD_TOO_BIG, outer.getSimulatedReason());
+		assertEquals(-500, outer.getNativeGrowth());
+
+		simulator = simulate(model, "MaxInlineLevel=1");
+
+		flips = simulator.getFlips();
+
+		assertEquals(1, flips.size());
+
+		InlineSiteFlip inner = flips.get(0);
+
+		assertFalse(inner.isInlined());
+		assertEquals("inner", inner.getSite().getMemberName());
+		assertEquals(InliningBudgetSimulator.REASON_TOO_DEEP, inner.getSimulatedReason());
+		assertEquals(2, inner.getDepth());
+		assertEquals(-200, inner.getNativeGrowth());
+	}
+
+	@Test
+	public void testParseBudget()
+	{
+		InliningBudget budget = InliningBudget.parse(" -XX:MaxInlineSize=70, InlineSmallCode=4000 ", RECORDED);
+
+		assertEquals(70, budget.getMaxInlineSize());
+		assertEquals(325, budget.getFreqInlineSize());
+		assertEquals(4000, budget.getInlineSmallCode());
+		assertEquals(2, budget.getMaxInlineLevel());
+
+		assertEquals(3072, InliningBudget.parse("InlineSmallCode=3k", RECORDED).getInlineSmallCode());
+
+		try
+		{
+			InliningBudget.parse("MaxInlineDepth=5", RECORDED);
+			throw new AssertionError("Unknown flag was accepted");
+		}
+		catch (IllegalArgumentException iae)
+		{
+			// expected
+		}
+
+		try
+		{
+			InliningBudget.parse("MaxInlineSize", RECORDED);
+			throw new AssertionError("Flag without a value was accepted");
+		}
+		catch (IllegalArgumentException iae)
+		{
+			// expected
+		}
+	}
+
+	@Test
+	public void testBudgetFromVMArguments()
+	{
+		InliningBudget budget = InliningBudget
+				.fromVMArguments("-XX:+UnlockDiagnosticVMOptions -XX:MaxInlineLevel=3 -Xmx1g -XX:FreqInlineSize=500 Work");
+
+		assertEquals(35, budget.getMaxInlineSize());
+		assertEquals(500, budget.getFreqInlineSize());
+		assertEquals(2500, budget.getInlineSmallCode());
+		assertEquals(3, budget.getMaxInlineLevel());
+
+		InliningBudget defaults = InliningBudget.getDefault();
+
+		assertEquals(defaults.toString(), InliningBudget.fromVMArguments(null).toString());
+		assertEquals(defaults.toString(), InliningBudget.fromVMArguments("-XX:MaxInlineSize=big").toString());
+
+		// a bad flag is skipped without losing the others
+		budget = InliningBudget.fromVMArguments("-XX:InlineSmallCode=2k -XX:MaxInlineSize=bad -XX:MaxInlineLevel=5");
+
+		assertEquals(defaults.getMaxInlineSize(), budget.getMaxInlineSize());
+		assertEquals(defaults.getFreqInlineSize(), budget.getFreqInlineSize());
+		assertEquals(2048, budget.getInlineSmallCode());
+		assertEquals(5, budget.getMaxInlineLevel());
+
+		// the last occurrence of a flag wins as it does in the JVM
+		budget = InliningBudget.fromVMArguments("-XX:MaxInlineSize=50 -XX:MaxInlineSize=70");
+
+		assertEquals(70, budget.getMaxInlineSize());
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
+import org.adoptopenjdk.jitwatch.core.TagProcessor;
+import org.adoptopenjdk.jitwatch.inline.InliningGraph;
+import org.adoptopenjdk.jitwatch.inline.InliningGraphBuilder;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+import org.junit.Test;
+
+public class TestInliningGraph
+{
+	@Test
+	public void testQueries()
+	{
+		InliningGraph graph = new InliningGraph();
+
+		int a = graph.addNode("A.a()", null, 10);
+		int b = graph.addNode("B.b()", null, 20);
+		int c = graph.addNode("C.c()", null, 400);
+
+		assertEquals(a, graph.addNode("A.a()", null, 0));
+		assertEquals(10, graph.getNodeBytecodeSize(a));
+
+		graph.addDecision(a, c, false, "hot method too big", 100);
+		graph.addDecision(a, c, false, "hot method too big", 50);
+		graph.addDecision(b, c, false, "too big", 10);
+		graph.addDecision(a, b, true, "inline (hot)", 5);
+		graph.addDecision(a, b, false, "already compiled into a big method", 5);
+
+		assertEquals(3, graph.getNodeCount());
+		assertEquals(3, graph.getEdgeCount());
+
+		assertArrayEquals(new int[] { c, b }, graph.getTopCalleesByFailureCount(10));
+		assertArrayEquals(new int[] { c }, graph.getTopCalleesByFailureCount(1));
+
+		assertEquals(3, graph.getNodeFailedCount(c));
+		assertEquals(1, graph.getNodeInlinedCount(b));
+
+		int[] callersOfC = graph.getCallerEdges(c);
+
+		assertEquals(2, callersOfC.length);
+		assertEquals(a, graph.getEdgeCaller(callersOfC[0]));
+		assertEquals(b, graph.getEdgeCaller(callersOfC[1]));
+		assertEquals(150, graph.getEdgeInvocations(callersOfC[0]));
+
+		assertEquals(2, graph.getCalleeEdges(a).length);
+		assertEquals(0, graph.getCalleeEdges(c).length);
+
+		Map<String, Integer> reasons = graph.getFailureReasons();
+
+		assertEquals(Integer.valueOf(2), reasons.get("hot method too big"));
+		assertEquals("hot method too big", reasons.keySet().iterator().next());
+
+		int topEdge = graph.getTopEdgesByFailureCount(1)[0];
+
+		assertEquals(a, graph.getEdgeCaller(topEdge));
+		assertEquals(c, graph.getEdgeCallee(topEdge));
+		assertEquals("hot method too big", graph.getEdgeLastFailureReason(topEdge));
+
+		// adding an edge after a query rebuilds the adjacency
+		graph.addDecision(c, a, false, "recursive inlining is too deep", 1);
+
+		assertEquals(1, graph.getCallerEdges(a).length);
+
+		// as does adding a node
+		int d = graph.addNode("D.d()", null, 8);
+
+		assertEquals(0, graph.getCallerEdges(d).length);
+		assertEquals(0, graph.getCalleeEdges(d).length);
+	}
+
+	@Test
+	public void testManyEdges()
+	{
+		InliningGraph graph = new InliningGraph();
+
+		int nodes = 2000;
+
+		for (int i = 0; i < nodes; i++)
+		{
+			graph.addNode("N" + i, null, i);
+		}
+
+		for (int caller = 0; caller < nodes; caller++)
+		{
+			for (int k = 1; k <= 50; k++)
+			{
+				graph.addDecision(caller, (caller + k) % nodes, (k & 1) == 0, "too big", 1);
+			}
+		}
+
+		assertEquals(nodes * 50, graph.getEdgeCount());
+		assertEquals(50, graph.getCallerEdges(0).length);
+		assertEquals(25, graph.getNodeFailedCount(7));
+	}
+
+	@Test
+	public void testBuildFromParseTags() throws Exception
+	{
+		String[] lines = new String[] {
+				"<task compile_id='7' method='Foo run ()V' bytes='20' count='10000' iicount='10000' stamp='1.000'>",
+				"<phase name='parse' nodes='3' live='3' stamp='1.000'>",
+				"<type id='700' name='void'/>",
+				"<type id='701' name='int'/>",
+				"<klass id='800' name='Foo' flags='1'/>",
+				"<method id='801' holder='800' name='run' return='700' flags='1' bytes='20' iicount='10000'/>",
+				"<parse method='801' uses='10000' stamp='1.000'>",
+				"<bc code='182' bci='1'/>",
+				"<method id='802' holder='800' name='small' return='701' arguments='701' flags='2' bytes='5' iicount='10000'/>",
+				"<call method='802' count='9000' prof_factor='1' inline='1'/>",
+				"<inline_success reason='accessor'/>",
+				"<parse method='802' uses='10000' stamp='1.000'>",
+				"<bc code='182' bci='2'/>",
+				"<method id='803' holder='800' name='large' return='701' flags='2' bytes='400' iicount='10000'/>",
+				"<call method='803' count='8000' prof_factor='1' inline='1'/>",
+				"<inline_fail reason='hot method too big'/>",
+				"<parse_done nodes='20' live='20' memory='4096' stamp='1.000'/>",
+				"</parse>",
+				"<bc code='182' bci='8'/>",
+				"<call method='803' count='7000' prof_factor='1' inline='1'/>",
+				"<inline_fail reason='hot method too big'/>",
+				"<parse_done nodes='40' live='40' memory='8192' stamp='1.000'/>",
+				"</parse>",
+				"<phase_done name='parse' nodes='40' live='40' stamp='1.000'/>",
+				"</phase>",
+				"<task_done success='1' nmsize='120' count='10000' inlined_bytes='5' stamp='1.001'/>",
+				"</task>" };
+
+		TagProcessor tp = new TagProcessor();
+
+		Tag tag = null;
+
+		for (String line : lines)
+		{
+			tag = tp.processLine(StringUtil.replaceXMLEntities(line.trim()));
+		}
+
+		assertNotNull(tag);
+
+		Compilation compilation = new Compilation(null, 0);
+		compilation.setTagTask((Task) tag);
+
+		InliningGraphBuilder builder = new InliningGraphBuilder(new JITDataModel());
+
+		CompilationUtil.visitParseTagsOfCompilation(compilation, builder);
+
+		InliningGraph graph = builder.getGraph();
+
+		assertEquals(3, graph.getNodeCount());
+		assertEquals(3, graph.getEdgeCount());
+
+		int run = graph.findNode("Foo.run()");
+		int small = graph.findNode("Foo.small(int)");
+		int large = graph.findNode("Foo.large()");
+
+		assertEquals(400, graph.getNodeBytecodeSize(large));
+		assertEquals(2, graph.getNodeFailedCount(large));
+		assertEquals(1, graph.getNodeInlinedCount(small));
+
+		// large() failed once inside the inlined small() and once in run()
+		int[] callers = graph.getCallerEdges(large);
+
+		assertEquals(2, callers.length);
+		assertEquals(small, graph.getEdgeCaller(callers[0]));
+		assertEquals(8000, graph.getEdgeInvocations(callers[0]));
+		assertEquals(run, graph.getEdgeCaller(callers[1]));
+		assertEquals(7000, graph.getEdgeInvocations(callers[1]));
+
+		assertArrayEquals(new int[] { small }, graph.findNodes("small"));
+	}
+}
@@ -6,10 +6,20 @@
 package org.adoptopenjdk.jitwatch.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConstants;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
 import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
 import org.adoptopenjdk.jitwatch.parser.j9.J9Line;
+import org.adoptopenjdk.jitwatch.parser.j9.J9LogParser;
 import org.adoptopenjdk.jitwatch.parser.j9.J9Util;
 import org.junit.Test;
 
@@ -108,4 +118,67 @@ public class TestJ9Parser
 
 		assertEquals(656, j9Line.getBytecodeSize());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testLogIsStreamedIntoModel() throws Exception
+	{
+		String[] lines = new String[] {
+				"JIT: env var TR_OPTIONS_FILE not set",
+				"+ (cold) java/lang/Double.longBitsToDouble(J)D @ 00007F0AAA60003C-00007F0AAA60005E OrdinaryMethod Q_SZ=0 Q_SZI=0 QW=1 j9m=0000000001E31FE0 bcsz=3 JNI compThread=0 CpuLoad=8%(4%avg) JvmCpu=0%",
+				"",
+				"+ (cold) java/lang/String.length()I @ 00007F0AAA60007C-00007F0AAA6001C9 OrdinaryMethod Q_SZ=0 Q_SZI=0 QW=1 j9m=0000000001E1F440 bcsz=6 compThread=0 CpuLoad=8%(4%avg) JvmCpu=0%",
+				"+ (warm) java/lang/Double.longBitsToDouble(J)D @ 00007F0AAA600100-00007F0AAA600180 OrdinaryMethod Q_SZ=0 Q_SZI=0 QW=1 j9m=0000000001E31FE0 bcsz=3 JNI compThread=0 CpuLoad=8%(4%avg) JvmCpu=0%",
+				"+ (cold) com/example/NotLoaded.run()V @ 00007F0AAA600200-00007F0AAA600210 OrdinaryMethod Q_SZ=0 Q_SZI=0 QW=1 j9m=0000000001E32000 bcsz=1 compThread=0 CpuLoad=8%(4%avg) JvmCpu=0%" };
+
+		StringBuilder builder = new StringBuilder();
+
+		for (String line : lines)
+		{
+			builder.append(line).append(JITWatchConstants.S_NEWLINE);
+		}
+
+		Path path = Files.createTempFile("testj9", ".log");
+
+		path.toFile().deleteOnExit();
+
+		Files.write(path, builder.toString().getBytes(StandardCharsets.UTF_8));
+
+		J9LogParser parser = new J9LogParser(UnitTestUtil.getNoOpJITListener());
+
+		parser.processLogFile(path.toFile(), UnitTestUtil.getNoOpParseErrorListener());
+
+		// lines are not staged before parsing
+		assertEquals(0, parser.getSplitLog().getCompilationLines().size());
+
+		IReadOnlyJITDataModel model = parser.getModel();
+
+		MemberSignatureParts msp = J9Util.parseLine(lines[1]).getMemberSignatureParts();
+
+		IMetaMember member = model.findMetaMember(msp);
+
+		assertNotNull(member);
+		assertTrue(member.isCompiled());
+		assertEquals(2, member.getCompilations().size());
+
+		Compilation first = member.getCompilations().get(0);
+		Compilation second = member.getCompilations().get(1);
+
+		assertEquals("1", first.getCompileID());
+		assertEquals("3", second.getCompileID());
+
+		assertEquals(0x22, first.getNativeSize());
+		assertEquals(0x80, second.getNativeSize());
+		assertEquals("00007F0AAA600100", second.getNativeAddress());
+		assertEquals("J9", second.getCompiler());
+		assertEquals("3", second.getQueuedAttribute("bytes"));
+
+		assertEquals(2000, second.getStampTaskQueued());
+		assertEquals(2000, second.getStampNMethodEmitted());
+
+		// queued and compiled events for each line
+		assertEquals(6, model.getEventListCopy().size());
+
+		// the last line's member is not in the model but its code still counts
+		assertEquals(0x22 + 0x14D + 0x80 + 0x10, model.getJITStats().getNativeBytes());
+	}
+}
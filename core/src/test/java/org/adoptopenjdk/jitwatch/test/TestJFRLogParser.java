@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.inline.InliningGraph;
+import org.adoptopenjdk.jitwatch.inline.InliningGraphBuilder;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent.CodeCacheEventType;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.EventType;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.parser.jfr.JFREvent;
+import org.adoptopenjdk.jitwatch.parser.jfr.JFRLogParser;
+import org.adoptopenjdk.jitwatch.parser.jfr.JFRMethod;
+import org.adoptopenjdk.jitwatch.parser.jfr.JFRRecordingReader;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class TestJFRLogParser
+{
+	private static final long MS = 1_000_000L;
+
+	private static final JFRMethod STRING_EQUALS = new JFRMethod("java.lang.String", "equals", "(Ljava/lang/Object;)Z");
+	private static final JFRMethod STRING_LENGTH = new JFRMethod("java.lang.String", "length", "()I");
+	private static final JFRMethod STRING_CHAR_AT = new JFRMethod("java.lang.String", "charAt", "(I)C");
+	private static final JFRMethod SIOOBE_INIT = new JFRMethod("java/lang/StringIndexOutOfBoundsException", "<init>", "(I)V");
+	private static final JFRMethod INTEGER_PARSE_INT = new JFRMethod("java.lang.Integer", "parseInt", "(Ljava/lang/String;)I");
+
+	@Test
+	public void testMethodSignatures() throws Exception
+	{
+		assertEquals("java/lang/String equals (Ljava/lang/Object;)Z", STRING_EQUALS.getTagSignature());
+		assertEquals("java.lang.String equals (Ljava.lang.Object;)Z", STRING_EQUALS.getLogCompilationSignature());
+
+		assertEquals("java.lang.StringIndexOutOfBoundsException", SIOOBE_INIT.getClassName());
+		assertEquals("StringIndexOutOfBoundsException", SIOOBE_INIT.toMemberSignatureParts().getMemberName());
+	}
+
+	@Test
+	public void testEventsAreMappedIntoModel()
+	{
+		List<JFREvent> events = new ArrayList<>();
+
+		events.add(new JFREvent(JFRLogParser.EVENT_CODE_CACHE_STATISTICS, 0, 0).setValue("codeBlobType", "CodeCache")
+				.setValue("unallocatedCapacity", 1_000_000L));
+
+		events.add(new JFREvent(JFRLogParser.EVENT_COMPILATION, 2 * MS, 3 * MS).setValue("compileId", 10)
+				.setValue("compiler", "c2").setValue("compileLevel", (short) 4).setValue("succeded", true)
+				.setValue("isOsr", false).setValue("codeSize", 500L).setValue("inlinedBytes", 7L)
+				.setValue("method", STRING_EQUALS).setValue("eventThread", "C2 CompilerThread0"));
+
+		events.add(inlining(10, 2 * MS, STRING_EQUALS, STRING_LENGTH, 8, true, "accessor"));
+		events.add(inlining(10, 2 * MS, STRING_EQUALS, STRING_CHAR_AT, 30, true, "inline (hot)"));
+		events.add(inlining(10, 2 * MS, STRING_CHAR_AT, SIOOBE_INIT, 12, false, "too big"));
+
+		// failed C1 compile
+		events.add(new JFREvent(JFRLogParser.EVENT_COMPILATION, 3 * MS, 1 * MS).setValue("compileId", 11)
+				.setValue("compileLevel", (short) 3).setValue("succeded", false).setValue("method", INTEGER_PARSE_INT)
+				.setValue("eventThread", "C1 CompilerThread0"));
+
+		events.add(new JFREvent(JFRLogParser.EVENT_COMPILATION_FAILURE, 4 * MS, 0).setValue("compileId", 11)
+				.setValue("failureMessage", "out of nodes"));
+
+		events.add(new JFREvent(JFRLogParser.EVENT_DEOPTIMIZATION, 9 * MS, 0).setValue("compileId", 10)
+				.setValue("method", STRING_EQUALS).setValue("bci", 17).setValue("reason", "unstable_if")
+				.setValue("action", "reinterpret"));
+
+		JFRLogParser parser = new JFRLogParser(UnitTestUtil.getNoOpJITListener());
+
+		parser.processEvents(events);
+
+		IReadOnlyJITDataModel model = parser.getModel();
+
+		IMetaMember equals = parser.findMemberWithSignature(STRING_EQUALS.getLogCompilationSignature());
+
+		assertNotNull(equals);
+		assertTrue(equals.isCompiled());
+		assertEquals(1, equals.getCompilations().size());
+
+		Compilation compilation = equals.getCompilations().get(0);
+
+		assertEquals("10", compilation.getCompileID());
+		assertEquals(4, compilation.getLevel());
+		assertEquals("C2", compilation.getCompiler());
+		assertEquals(500, compilation.getNativeSize());
+		assertEquals(2, compilation.getStampTaskQueued());
+		assertEquals(5, compilation.getStampNMethodEmitted());
+		assertFalse(compilation.isFailed());
+		assertEquals("C2 CompilerThread0", compilation.getCompilerThread().getThreadName());
+
+		IMetaMember parseInt = parser.findMemberWithSignature(INTEGER_PARSE_INT.getLogCompilationSignature());
+
+		assertNotNull(parseInt);
+		assertFalse(parseInt.isCompiled());
+
+		Compilation failed = parseInt.getCompilations().get(0);
+
+		assertTrue(failed.isFailed());
+		assertEquals(3, failed.getLevel());
+		assertEquals("out of nodes", failed.getTagTask().getFirstNamedChild("failure").getAttributes().get("reason"));
+
+		List<JITEvent> jitEvents = model.getEventListCopy();
+
+		assertEquals(3, jitEvents.size());
+		assertEquals(EventType.QUEUE, jitEvents.get(0).getEventType());
+		assertEquals(EventType.QUEUE, jitEvents.get(1).getEventType());
+		assertEquals(EventType.NMETHOD_C2, jitEvents.get(2).getEventType());
+
+		List<DeoptEvent> deoptEvents = model.getDeoptEvents();
+
+		assertEquals(1, deoptEvents.size());
+		assertSame(compilation, deoptEvents.get(0).getCompilation());
+		assertEquals("unstable_if", deoptEvents.get(0).getReason());
+		assertEquals(17, deoptEvents.get(0).getBCI());
+
+		List<CodeCacheEvent> codeCacheEvents = model.getCodeCacheEvents();
+
+		assertEquals(1, codeCacheEvents.size());
+		assertEquals(CodeCacheEventType.COMPILATION, codeCacheEvents.get(0).getEventType());
+		assertEquals(1_000_000L - 500, codeCacheEvents.get(0).getFreeCodeCache());
+
+		// the failed decision is joined to charAt which contains the call
+		InliningGraph graph = InliningGraphBuilder.buildGraph(model);
+
+		int charAt = graph.findNodes("charAt")[0];
+		int sioobe = graph.findNodes("StringIndexOutOfBoundsException")[0];
+
+		assertEquals(1, graph.getNodeInlinedCount(charAt));
+		assertEquals(1, graph.getNodeFailedCount(sioobe));
+
+		int[] callerEdges = graph.getCallerEdges(sioobe);
+
+		assertEquals(1, callerEdges.length);
+		assertEquals(charAt, graph.getEdgeCaller(callerEdges[0]));
+		assertEquals("too big", graph.getEdgeLastFailureReason(callerEdges[0]));
+	}
+
+	private JFREvent inlining(int compileID, long start, JFRMethod caller, JFRMethod callee, int bci, boolean succeeded,
+			String message)
+	{
+		return new JFREvent(JFRLogParser.EVENT_COMPILER_INLINING, start, 0).setValue("compileId", compileID)
+				.setValue("caller", caller).setValue("callee", callee).setValue("bci", bci).setValue("succeeded", succeeded)
+				.setValue("message", message);
+	}
+
+	@Test
+	public void testReadRecordingOfThisJVM() throws Exception
+	{
+		Assume.assumeTrue(JFRRecordingReader.isAvailable());
+
+		// jdk.jfr.Recording is driven by reflection as the tests build for Java 7
+		Class<?> classRecording = Class.forName("jdk.jfr.Recording");
+		Class<?> classEventSettings = Class.forName("jdk.jfr.EventSettings");
+		Class<?> classDuration = Class.forName("java.time.Duration");
+
+		Object recording = classRecording.getConstructor().newInstance();
+
+		Object settings = classRecording.getMethod("enable", String.class).invoke(recording, JFRLogParser.EVENT_COMPILATION);
+
+		classEventSettings.getMethod("withThreshold", classDuration).invoke(settings, classDuration.getField("ZERO").get(null));
+
+		Path path = Files.createTempFile("testjfr", ".jfr");
+
+		try
+		{
+			classRecording.getMethod("start").invoke(recording);
+
+			long total = 0;
+
+			for (int i = 0; i < 200_000; i++)
+			{
+				total += Integer.toString(i).hashCode();
+			}
+
+			assertTrue(total != 0);
+
+			classRecording.getMethod("stop").invoke(recording);
+			classRecording.getMethod("dump", Path.class).invoke(recording, path);
+
+			JFRLogParser parser = new JFRLogParser(UnitTestUtil.getNoOpJITListener());
+
+			parser.processLogFile(path.toFile(), UnitTestUtil.getNoOpParseErrorListener());
+
+			assertFalse(parser.hasParseError());
+			assertFalse(parser.getModel().getEventListCopy().isEmpty());
+		}
+		finally
+		{
+			classRecording.getMethod("close").invoke(recording);
+
+			Files.deleteIfExists(path);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.EventType;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.model.JITEventLog;
+import org.adoptopenjdk.jitwatch.model.JITEventLog.EventCursor;
+import org.adoptopenjdk.jitwatch.model.MetaClass;
+import org.junit.Test;
+
+public class TestJITEventLog
+{
+	@Test
+	public void testAppendAcrossChunks() throws ClassNotFoundException
+	{
+		JITDataModel model = new JITDataModel();
+
+		MetaClass metaClass = UnitTestUtil.createMetaClassFor(model, "java.lang.String");
+
+		IMetaMember member = metaClass.getMetaMembers().get(0);
+
+		JITEventLog log = new JITEventLog();
+
+		int count = 10_000;
+
+		for (int i = 0; i < count; i++)
+		{
+			log.append(i, (i % 2 == 0) ? EventType.QUEUE : EventType.NMETHOD_C2, (i % 3 == 0) ? null : member);
+		}
+
+		assertEquals(count, log.size());
+
+		EventCursor cursor = log.cursor();
+
+		int seen = 0;
+
+		while (cursor.next())
+		{
+			assertEquals(seen, cursor.getStamp());
+			assertEquals((seen % 2 == 0) ? EventType.QUEUE : EventType.NMETHOD_C2, cursor.getEventType());
+
+			if (seen % 3 == 0)
+			{
+				assertNull(cursor.getEventMember());
+			}
+			else
+			{
+				assertSame(member, cursor.getEventMember());
+			}
+
+			seen++;
+		}
+
+		assertEquals(count, seen);
+	}
+
+	@Test
+	public void testCursorIsSnapshot()
+	{
+		JITEventLog log = new JITEventLog();
+
+		log.append(1, EventType.QUEUE, null);
+		log.append(2, EventType.NMETHOD_C1, null);
+
+		EventCursor cursor = log.cursor(1);
+
+		log.append(3, EventType.NMETHOD_C2, null);
+
+		assertEquals(1, cursor.remaining());
+		assertTrue(cursor.next());
+		assertEquals(2, cursor.getStamp());
+		assertFalse(cursor.next());
+
+		List<JITEvent> events = log.toList();
+
+		assertEquals(3, events.size());
+		assertEquals(EventType.NMETHOD_C2, events.get(2).getEventType());
+	}
+
+	@Test
+	public void testModelResetReplacesLog()
+	{
+		JITDataModel model = new JITDataModel();
+
+		model.addEvent(new JITEvent(1, EventType.QUEUE, null));
+
+		JITEventLog before = model.getEventLog();
+
+		model.reset();
+
+		assertEquals(1, before.size());
+		assertEquals(0, model.getEventCount());
+		assertTrue(model.getEventListCopy().isEmpty());
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.histo.Histo;
+import org.adoptopenjdk.jitwatch.histo.LogLinearHistogram;
+import org.junit.Test;
+
+public class TestLogLinearHistogram
+{
+	@Test
+	public void testSmallValuesAreExact()
+	{
+		LogLinearHistogram histogram = new LogLinearHistogram();
+
+		for (int i = 1; i <= 100; i++)
+		{
+			histogram.recordValue(i);
+		}
+
+		assertEquals(100, histogram.getTotalCount());
+		assertEquals(1, histogram.getMinValue());
+		assertEquals(100, histogram.getMaxValue());
+
+		// nearest rank of p is round(0.5 + p/100 * count)
+		assertEquals(51, histogram.getPercentile(50));
+		assertEquals(91, histogram.getPercentile(90));
+		assertEquals(100, histogram.getPercentile(99));
+		assertEquals(100, histogram.getPercentile(100));
+		assertEquals(0, histogram.getPercentile(0));
+
+		assertEquals(50.5, histogram.getMean(), 0.001);
+	}
+
+	@Test
+	public void testLargeValuesWithinPrecision()
+	{
+		LogLinearHistogram histogram = new LogLinearHistogram(8);
+
+		long[] values = new long[] { 1_000, 12_345, 999_999, 123_456_789L, Long.MAX_VALUE };
+
+		for (long value : values)
+		{
+			histogram.recordValue(value);
+
+			long recorded = histogram.getPercentile(100);
+
+			assertEquals(value, recorded);
+		}
+
+		// relative error of a bucket is at most 1 part in 2^(bits-1)
+		for (long value : values)
+		{
+			LogLinearHistogram single = new LogLinearHistogram(8);
+
+			single.recordValue(value);
+			single.recordValue(Long.MAX_VALUE);
+
+			long lowest = single.getPercentile(1);
+
+			assertTrue(lowest >= value);
+			assertTrue((lowest - value) <= value / 128);
+		}
+
+		assertEquals(5, histogram.getTotalCount());
+	}
+
+	@Test
+	public void testBucketBoundariesAreContiguous()
+	{
+		LogLinearHistogram histogram = new LogLinearHistogram(4);
+
+		long expectedLow = 0;
+
+		for (int i = 0; i < histogram.getBucketCount(); i++)
+		{
+			assertEquals(expectedLow, histogram.getLowestEquivalentValue(i));
+
+			expectedLow = histogram.getHighestEquivalentValue(i) + 1;
+		}
+
+		// last bucket ends at Long.MAX_VALUE
+		assertEquals(Long.MIN_VALUE, expectedLow);
+	}
+
+	@Test
+	public void testMergeMatchesSingleRecording()
+	{
+		LogLinearHistogram combined = new LogLinearHistogram();
+		LogLinearHistogram first = new LogLinearHistogram();
+		LogLinearHistogram second = new LogLinearHistogram();
+
+		for (int i = 0; i < 10_000; i++)
+		{
+			long value = (i * 7919L) % 100_000;
+
+			combined.recordValue(value);
+
+			if (i % 2 == 0)
+			{
+				first.recordValue(value);
+			}
+			else
+			{
+				second.recordValue(value);
+			}
+		}
+
+		first.add(second);
+
+		assertEquals(combined.getTotalCount(), first.getTotalCount());
+		assertEquals(combined.getMinValue(), first.getMinValue());
+		assertEquals(combined.getMaxValue(), first.getMaxValue());
+
+		for (double percentile : new double[] { 1, 25, 50, 75, 90, 99, 99.9 })
+		{
+			assertEquals(combined.getPercentile(percentile), first.getPercentile(percentile));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMergeRejectsDifferentPrecision()
+	{
+		new LogLinearHistogram(8).add(new LogLinearHistogram(10));
+	}
+
+	@Test
+	public void testHistoGroupsByResolution()
+	{
+		Histo histo = new Histo(10);
+
+		histo.addValue(1);
+		histo.addValue(5);
+		histo.addValue(9);
+		histo.addValue(12);
+		histo.addValue(27);
+
+		List<Map.Entry<Long, Integer>> data = histo.getSortedData();
+
+		assertEquals(3, data.size());
+
+		Map.Entry<Long, Integer> largest = data.get(data.size() - 1);
+
+		assertEquals(Long.valueOf(0), largest.getKey());
+		assertEquals(Integer.valueOf(3), largest.getValue());
+
+		assertEquals(3, histo.getMaxCount());
+		assertEquals(20, histo.getLastTime());
+		assertEquals(5, histo.getCount());
+
+		histo.clear();
+
+		assertEquals(0, histo.getCount());
+		assertEquals(0, histo.getMaxCount());
+	}
+}
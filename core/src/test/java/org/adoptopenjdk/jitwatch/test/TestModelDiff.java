@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.diff.DiffType;
+import org.adoptopenjdk.jitwatch.diff.InliningFlip;
+import org.adoptopenjdk.jitwatch.diff.MemberDiff;
+import org.adoptopenjdk.jitwatch.diff.ModelDiff;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.model.MetaClass;
+import org.junit.Test;
+
+public class TestModelDiff
+{
+	private static final String CLASS_NAME = "java.lang.String";
+
+	@Test
+	public void testCompiledStateChanges() throws ClassNotFoundException
+	{
+		JITDataModel before = new JITDataModel();
+		JITDataModel after = new JITDataModel();
+
+		compile(getMember(before, "hashCode"), "1", 3, 100, "", false);
+		compile(getMember(after, "isEmpty"), "2", 3, 40, "", false);
+
+		ModelDiff diff = new ModelDiff(before, after);
+
+		List<MemberDiff> diffs = diff.compare();
+
+		assertEquals(2, diffs.size());
+		assertEquals(0, diff.getMatchedCount());
+		assertEquals(1, diff.getOnlyBeforeCount());
+		assertEquals(1, diff.getOnlyAfterCount());
+
+		MemberDiff hashCode = diffs.get(1);
+
+		assertEquals("int java.lang.String.hashCode()", hashCode.getSignature());
+		assertTrue(hashCode.hasChange(DiffType.NO_LONGER_COMPILED));
+		assertFalse(hashCode.getAfter().isCompiled());
+
+		MemberDiff isEmpty = diffs.get(0);
+
+		assertEquals("boolean java.lang.String.isEmpty()", isEmpty.getSignature());
+		assertTrue(isEmpty.hasChange(DiffType.NEWLY_COMPILED));
+		assertEquals(40, isEmpty.getAfter().getNativeSize());
+	}
+
+	@Test
+	public void testMatchedMemberChanges() throws ClassNotFoundException
+	{
+		JITDataModel before = new JITDataModel();
+		JITDataModel after = new JITDataModel();
+
+		String inlineSuccess = "<inline_success reason='accessor'/>";
+		String inlineFail = "<inline_fail reason='hot method too big'/>";
+
+		compile(getMember(before, "length"), "1", 3, 100, inlineSuccess, false);
+		compile(getMember(after, "length"), "1", 4, 180, inlineFail, true);
+
+		// identical in both logs so not reported
+		compile(getMember(before, "isEmpty"), "2", 4, 40, inlineSuccess, false);
+		compile(getMember(after, "isEmpty"), "2", 4, 40, inlineSuccess, false);
+
+		ModelDiff diff = new ModelDiff(before, after);
+
+		List<MemberDiff> diffs = diff.compare();
+
+		assertEquals(2, diff.getMatchedCount());
+		assertEquals(1, diffs.size());
+
+		MemberDiff length = diffs.get(0);
+
+		assertEquals("int java.lang.String.length()", length.getSignature());
+		assertTrue(length.hasChange(DiffType.LEVEL_CHANGED));
+		assertTrue(length.hasChange(DiffType.NATIVE_SIZE_CHANGED));
+		assertTrue(length.hasChange(DiffType.INLINING_CHANGED));
+		assertTrue(length.hasChange(DiffType.INTRINSICS_CHANGED));
+		assertFalse(length.hasChange(DiffType.OSR_CHANGED));
+		assertFalse(length.hasChange(DiffType.COMPILE_TIME_CHANGED));
+
+		assertEquals(3, length.getBefore().getLevel());
+		assertEquals(4, length.getAfter().getLevel());
+
+		assertEquals(1, length.getInliningFlips().size());
+
+		InliningFlip flip = length.getInliningFlips().get(0);
+
+		assertEquals("java.lang.String.length()@1->java.lang.String.coder()", flip.getCallSite());
+		assertTrue(flip.isInlinedBefore());
+		assertEquals("hot method too big", flip.getReasonAfter());
+
+		assertEquals("_hashCode", length.getIntrinsicsGained().get("java.lang.String.hashCode()"));
+		assertTrue(length.getIntrinsicsLost().isEmpty());
+
+		assertEquals(1, diff.getCount(DiffType.INLINING_CHANGED));
+	}
+
+	@Test
+	public void testNativeSizeTolerance() throws ClassNotFoundException
+	{
+		JITDataModel before = new JITDataModel();
+		JITDataModel after = new JITDataModel();
+
+		compile(getMember(before, "length"), "1", 4, 100, "", false);
+		compile(getMember(after, "length"), "1", 4, 104, "", false);
+
+		ModelDiff diff = new ModelDiff(before, after);
+
+		assertEquals(1, diff.compare().size());
+
+		diff.setNativeSizeTolerancePercent(5);
+
+		assertEquals(0, diff.compare().size());
+		assertEquals(1, diff.getMatchedCount());
+	}
+
+	@Test
+	public void testCompareAgainstSnapshot() throws ClassNotFoundException
+	{
+		JITDataModel before = new JITDataModel();
+		JITDataModel after = new JITDataModel();
+
+		compile(getMember(before, "hashCode"), "1", 3, 100, "", false);
+		compile(getMember(before, "length"), "2", 3, 50, "", false);
+		compile(getMember(after, "length"), "1", 4, 60, "", false);
+		compile(getMember(after, "isEmpty"), "2", 3, 40, "", false);
+
+		ModelDiff fromModel = new ModelDiff(before, after);
+		ModelDiff fromSnapshot = new ModelDiff(before, ModelDiff.snapshot(after));
+
+		assertEquals(fromModel.compare().size(), fromSnapshot.compare().size());
+		assertEquals(3, fromSnapshot.getDiffs().size());
+		assertEquals(1, fromSnapshot.getMatchedCount());
+		assertEquals(1, fromSnapshot.getOnlyBeforeCount());
+		assertEquals(1, fromSnapshot.getOnlyAfterCount());
+	}
+
+	private IMetaMember getMember(JITDataModel model, String methodName) throws ClassNotFoundException
+	{
+		MetaClass metaClass = model.getPackageManager().getMetaClass(CLASS_NAME);
+
+		if (metaClass == null)
+		{
+			metaClass = UnitTestUtil.createMetaClassFor(model, CLASS_NAME);
+		}
+
+		for (IMetaMember member : metaClass.getMetaMembers())
+		{
+			if (methodName.equals(member.getMemberName()) && member.getParamTypeNames().length == 0)
+			{
+				return member;
+			}
+		}
+
+		return null;
+	}
+
+	private void compile(IMetaMember member, String compileID, int level, int nativeSize, String inlineTag,
+			boolean withIntrinsic)
+	{
+		assertNotNull(member);
+
+		UnitTestUtil.compileLog(member, compileID).compiler("c2").level(level).nmethod("0x1", nativeSize).stamps("1.000", "1.010", "1.100")
+				.task(nativeSize,
+						"<phase name='parse' nodes='3' live='3' stamp='1.010'>",
+						"<type id='700' name='int'/>",
+						"<type id='701' name='byte'/>",
+						"<klass id='800' name='java/lang/String' flags='17'/>",
+						"<method id='801' holder='800' name='" + member.getMemberName()
+								+ "' return='700' flags='1' bytes='6' iicount='5000'/>",
+						"<parse method='801' uses='5000' stamp='1.010'>",
+						"<bc code='182' bci='1'/>",
+						"<method id='802' holder='800' name='coder' return='701' flags='0' bytes='15' iicount='5000'/>",
+						"<call method='802' count='5000' prof_factor='1' inline='1'/>",
+						inlineTag,
+						withIntrinsic ? "<bc code='182' bci='4'/>" : "",
+						withIntrinsic ? "<method id='803' holder='800' name='hashCode' return='700' flags='1' bytes='50' iicount='5000'/>" : "",
+						withIntrinsic ? "<call method='803' count='5000' prof_factor='1' inline='1'/>" : "",
+						withIntrinsic ? "<intrinsic id='_hashCode' nodes='3'/>" : "",
+						"<parse_done nodes='20' live='20' memory='4096' stamp='1.010'/>",
+						"</parse>",
+						"<phase_done name='parse' nodes='20' live='20' stamp='1.010'/>",
+						"</phase>")
+				.compile();
+	}
+}
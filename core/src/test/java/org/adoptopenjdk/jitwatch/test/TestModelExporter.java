@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConstants;
+import org.adoptopenjdk.jitwatch.export.CSVRecordWriter;
+import org.adoptopenjdk.jitwatch.export.ChannelTextWriter;
+import org.adoptopenjdk.jitwatch.export.IRecordWriter;
+import org.adoptopenjdk.jitwatch.export.JSONLinesRecordWriter;
+import org.adoptopenjdk.jitwatch.export.ModelExporter;
+import org.adoptopenjdk.jitwatch.parser.ILogParser;
+import org.adoptopenjdk.jitwatch.parser.hotspot.HotSpotLogParser;
+import org.junit.Test;
+
+public class TestModelExporter
+{
+	private ChannelTextWriter smallBufferWriter(ByteArrayOutputStream bytes)
+	{
+		// forces many drains of the buffer
+		return new ChannelTextWriter(Channels.newChannel(bytes), true, 16);
+	}
+
+	@Test
+	public void testBoundedBufferPreservesMultiByteText() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		StringBuilder expected = new StringBuilder();
+
+		try (ChannelTextWriter out = smallBufferWriter(bytes))
+		{
+			for (int i = 0; i < 200; i++)
+			{
+				String text = "caf\u00e9 \ud83d\ude00 " + i + "\n";
+
+				out.append(text);
+				expected.append(text);
+			}
+		}
+
+		assertEquals(expected.toString(), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testJSONLinesEscaping() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (IRecordWriter writer = new JSONLinesRecordWriter(smallBufferWriter(bytes)))
+		{
+			writer.startSection("test", "text", "count", "flag", "missing");
+			writer.beginRecord();
+			writer.field("a \"quoted\"\nline\\");
+			writer.field(42);
+			writer.field(true);
+			writer.field((String) null);
+			writer.endRecord();
+		}
+
+		assertEquals("{\"record\":\"test\",\"text\":\"a \\\"quoted\\\"\\nline\\\\\",\"count\":42,\"flag\":true,\"missing\":null}\n",
+				new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testCSVKeepsOneRecordPerLine() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (IRecordWriter writer = new CSVRecordWriter(smallBufferWriter(bytes)))
+		{
+			writer.startSection("test", "text", "count");
+			writer.beginRecord();
+			writer.field("a|b\nc");
+			writer.field(7);
+			writer.endRecord();
+		}
+
+		String[] lines = new String(bytes.toByteArray(), StandardCharsets.UTF_8).split(JITWatchConstants.S_NEWLINE);
+
+		assertEquals(3, lines.length);
+		assertEquals("sep=|", lines[0]);
+		assertEquals("Record|text|count", lines[1]);
+		assertEquals("test|a b c|7", lines[2]);
+	}
+
+	@Test
+	public void testExportCompilationsFromParsedLog() throws IOException
+	{
+		String[] lines = new String[] {
+				"<writer thread='1234'/>",
+				"<task_queued compile_id='1' method='java/lang/String length ()I' bytes='55' count='520' backedge_count='5000' iicount='520' stamp='0.083' comment='count' hot_count='520'/>",
+				"<nmethod compile_id='1' compiler='C1' level='3' entry='0x00007fb5ad0fe420' size='2504' address='0x00007fb5ad0fe290' relocation_offset='288' method='java/lang/String length ()I' stamp='0.105'/>",
+				"<task compile_id='1' method='java/lang/String length ()I' bytes='55' count='521' backedge_count='5000' iicount='521' stamp='0.083'>",
+				"<task_done success='1' nmsize='376' count='546' backedge_count='5389' stamp='0.105'/>",
+				"</task>" };
+
+		StringBuilder builder = new StringBuilder();
+
+		for (String line : lines)
+		{
+			builder.append(line).append(JITWatchConstants.S_NEWLINE);
+		}
+
+		Path path = Files.createTempFile("testexport", ".log");
+
+		Files.write(path, builder.toString().getBytes(StandardCharsets.UTF_8));
+
+		ILogParser parser = new HotSpotLogParser(UnitTestUtil.getNoOpJITListener());
+
+		parser.processLogFile(path.toFile(), UnitTestUtil.getNoOpParseErrorListener());
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (IRecordWriter writer = new JSONLinesRecordWriter(smallBufferWriter(bytes)))
+		{
+			new ModelExporter(parser.getModel(), writer).exportCompilations();
+		}
+
+		String[] records = new String(bytes.toByteArray(), StandardCharsets.UTF_8).split(JITWatchConstants.S_NEWLINE);
+
+		assertEquals(1, records.length);
+		assertTrue(records[0].startsWith("{\"record\":\"compilation\",\"class\":\"java.lang.String\""));
+		assertTrue(records[0].contains("\"compileID\":\"1\""));
+		assertTrue(records[0].contains("\"nativeSize\":376"));
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.core.TagProcessor;
+import org.adoptopenjdk.jitwatch.model.PackedBytecodes;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.adoptopenjdk.jitwatch.model.bytecode.Opcode;
+import org.junit.Test;
+
+public class TestPackedBytecodes
+{
+	private static final String[] TASK_LINES = new String[] {
+			"<task compile_id='7' method='Foo bar ()V' bytes='20' count='10000' iicount='10000' stamp='1.000'>",
+			"<phase name='parse' nodes='3' live='3' stamp='1.001'>",
+			"<klass id='800' name='Foo' flags='1'/>",
+			"<type id='801' name='void'/>",
+			"<method id='802' holder='800' name='bar' return='801' flags='1' bytes='20' iicount='10000'/>",
+			"<parse method='802' uses='10000' stamp='1.002'>",
+			"<bc code='182' bci='1'/>",
+			"<method id='803' holder='800' name='baz' return='801' flags='1' bytes='5' iicount='10000'/>",
+			"<call method='803' count='9000' prof_factor='1' inline='1'/>",
+			"<inline_success reason='accessor'/>",
+			"<parse method='803' uses='9000' stamp='1.003'>",
+			"<parse_done nodes='10' live='10' memory='1000' stamp='1.004'/>",
+			"</parse>",
+			"<bc code='198' bci='9'/>",
+			"<bc code='177' bci='12'/>",
+			"<parse_done nodes='20' live='20' memory='2000' stamp='1.005'/>",
+			"</parse>",
+			"<phase_done name='parse' nodes='20' live='20' stamp='1.006'/>",
+			"</phase>",
+			"<task_done success='1' nmsize='100' count='10000' stamp='1.007'/>",
+			"</task>" };
+
+	private Task parseTask(boolean compact)
+	{
+		TagProcessor tp = new TagProcessor();
+		tp.setCompactParseTree(compact);
+
+		Tag tag = null;
+
+		for (String line : TASK_LINES)
+		{
+			tag = tp.processLine(line);
+		}
+
+		assertNotNull(tag);
+		assertTrue(tag instanceof Task);
+
+		return (Task) tag;
+	}
+
+	private Tag getOuterParseTag(Task task)
+	{
+		Tag phase = task.getFirstNamedChild("phase");
+
+		assertNotNull(phase);
+
+		return phase.getFirstNamedChild("parse");
+	}
+
+	// pair each non <bc> child with the last BCI seen before it, as the walkers do
+	private List<String> replay(Tag parseTag)
+	{
+		List<String> result = new ArrayList<>();
+
+		PackedBytecodes.Cursor bcCursor = parseTag.getPackedBytecodeCursor();
+
+		List<Tag> children = parseTag.getChildren();
+
+		int currentBCI = -1;
+
+		for (int i = 0; i < children.size(); i++)
+		{
+			if (bcCursor.advanceTo(i))
+			{
+				currentBCI = bcCursor.getBCI();
+			}
+
+			Tag child = children.get(i);
+
+			if ("bc".equals(child.getName()))
+			{
+				currentBCI = child.getIntAttribute("bci");
+			}
+			else
+			{
+				result.add(child.getName() + "@" + currentBCI);
+			}
+		}
+
+		return result;
+	}
+
+	@Test
+	public void testPackedEntries()
+	{
+		PackedBytecodes bytecodes = new PackedBytecodes();
+
+		for (int i = 0; i < 20; i++)
+		{
+			bytecodes.add(i, 65535 + i, 200 + (i % 50));
+		}
+
+		assertEquals(20, bytecodes.size());
+		assertEquals(19, bytecodes.getChildIndex(19));
+		assertEquals(65535 + 19, bytecodes.getBCI(19));
+		assertEquals(200 + 19, bytecodes.getCode(19));
+
+		PackedBytecodes.Cursor nullCursor = PackedBytecodes.cursor(null);
+
+		assertFalse(nullCursor.advanceTo(100));
+	}
+
+	@Test
+	public void testCompactModeFoldsBytecodeTags()
+	{
+		Task normalTask = parseTask(false);
+		Task compactTask = parseTask(true);
+
+		Tag normalParse = getOuterParseTag(normalTask);
+		Tag compactParse = getOuterParseTag(compactTask);
+
+		assertNull(normalParse.getPackedBytecodes());
+		assertEquals(3, normalParse.getNamedChildren("bc").size());
+
+		assertEquals(0, compactParse.getNamedChildren("bc").size());
+		assertEquals(normalParse.getChildren().size() - 3, compactParse.getChildren().size());
+
+		PackedBytecodes packed = compactParse.getPackedBytecodes();
+
+		assertEquals(3, packed.size());
+
+		// <bc bci='1'> came before any child, <bc bci='9'> and <bc bci='12'> after the nested parse
+		assertEquals(0, packed.getChildIndex(0));
+		assertEquals(1, packed.getBCI(0));
+		assertEquals(Opcode.INVOKEVIRTUAL, Opcode.getByCode(packed.getCode(0)));
+
+		assertEquals(4, packed.getChildIndex(1));
+		assertEquals(9, packed.getBCI(1));
+		assertEquals(4, packed.getChildIndex(2));
+		assertEquals(12, packed.getBCI(2));
+
+		assertEquals(replay(normalParse), replay(compactParse));
+
+		// BCI to opcode mapping is still collected in both modes
+		assertEquals(3, normalTask.getParseDictionary().getBCIOpcodeMap("802").size());
+		assertEquals(3, compactTask.getParseDictionary().getBCIOpcodeMap("802").size());
+	}
+}
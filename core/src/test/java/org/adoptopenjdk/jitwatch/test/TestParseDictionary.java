@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.adoptopenjdk.jitwatch.core.TagProcessor;
+import org.adoptopenjdk.jitwatch.model.BCIOpcodeMap;
+import org.adoptopenjdk.jitwatch.model.IntKeyedTable;
+import org.adoptopenjdk.jitwatch.model.ParseDictionary;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.adoptopenjdk.jitwatch.model.bytecode.Opcode;
+import org.junit.Test;
+
+public class TestParseDictionary
+{
+	@Test
+	public void testIntKeyedTableDenseAndSparse()
+	{
+		IntKeyedTable<String> table = new IntKeyedTable<>();
+
+		table.put(700, "a");
+		table.put(650, "b");
+		table.put(731, "c");
+
+		// far outside the dense range
+		table.put(5_000_000, "d");
+
+		assertEquals(4, table.size());
+		assertEquals("a", table.get(700));
+		assertEquals("b", table.get(650));
+		assertEquals("c", table.get(731));
+		assertEquals("d", table.get(5_000_000));
+		assertNull(table.get(701));
+		assertNull(table.get(-1));
+
+		table.put(700, "e");
+
+		assertEquals(4, table.size());
+		assertEquals("e", table.get(700));
+	}
+
+	@Test
+	public void testLookupByStringAndIntID()
+	{
+		ParseDictionary dictionary = new ParseDictionary("1000");
+
+		Tag type = new Tag("type", "id='634' name='int'", true);
+		Tag klass = new Tag("klass", "id='635' name='java/lang/String' flags='17'", true);
+		Tag method = new Tag("method", "id='1000' holder='635' name='length' return='634' bytes='6'", true);
+
+		dictionary.putType("634", type);
+		dictionary.putKlass("635", klass);
+		dictionary.putMethod("1000", method);
+
+		assertSame(type, dictionary.getType("634"));
+		assertSame(type, dictionary.getType(634));
+		assertSame(klass, dictionary.getKlass("635"));
+		assertSame(method, dictionary.getMethod(1000));
+
+		// kinds are kept apart
+		assertNull(dictionary.getKlass("634"));
+		assertNull(dictionary.getMethod("635"));
+
+		assertNull(dictionary.getType(null));
+		assertNull(dictionary.getType("x1"));
+
+		Tag oddType = new Tag("type", "id='x1' name='odd'", true);
+
+		dictionary.putType("x1", oddType);
+
+		assertSame(oddType, dictionary.getType("x1"));
+		assertNull(dictionary.getKlass("x1"));
+
+		assertTrue(dictionary.toString().contains("634\t=>\t"));
+	}
+
+	@Test
+	public void testBCIOpcodeMapIndexedByBCI()
+	{
+		ParseDictionary dictionary = new ParseDictionary("1000");
+
+		dictionary.putBCIOpcode("1000", 1, Opcode.ALOAD_0);
+		dictionary.putBCIOpcode("1000", 300, Opcode.INVOKEVIRTUAL);
+		dictionary.putBCIOpcode("1001", 1, Opcode.NEW);
+
+		BCIOpcodeMap map = dictionary.getBCIOpcodeMap("1000");
+
+		assertEquals(2, map.size());
+		assertEquals(Opcode.ALOAD_0, map.get(1));
+		assertEquals(Opcode.INVOKEVIRTUAL, map.get(300));
+		assertNull(map.get(2));
+		assertNull(map.get(100_000));
+
+		assertEquals(Opcode.NEW, dictionary.getBCIOpcodeMap("1001").get(1));
+		assertNull(dictionary.getBCIOpcodeMap("1002"));
+	}
+
+	@Test
+	public void testNegativeBCIDoesNotAbortParse()
+	{
+		String[] lines = new String[] {
+				"<task compile_id='1' method='java/lang/String length ()I' bytes='6' count='5000' iicount='5000' stamp='0.100'>",
+				"<klass id='635' name='java/lang/String' flags='17'/>",
+				"<method id='1000' holder='635' name='length' return='634' bytes='6' iicount='5000'/>",
+				"<parse method='1000' uses='5000' stamp='0.100'>",
+				"<bc code='42' bci='-1'/>",
+				"<bc code='182' bci='1'/>",
+				"<parse_done stamp='0.100'/>",
+				"</parse>",
+				"<task_done success='1' nmsize='100' count='5000' stamp='0.101'/>",
+				"</task>" };
+
+		TagProcessor tp = new TagProcessor();
+
+		Tag tag = null;
+
+		for (String line : lines)
+		{
+			tag = tp.processLine(line);
+		}
+
+		assertNotNull(tag);
+
+		BCIOpcodeMap map = ((Task) tag).getParseDictionary().getBCIOpcodeMap("1000");
+
+		assertEquals(1, map.size());
+		assertEquals(Opcode.INVOKEVIRTUAL, map.get(1));
+	}
+}
@@ -9,6 +9,7 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_TYPE_NAME_VOID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -950,4 +951,37 @@ public class TestParseUtil
 		assertEquals("int", msp.getParamTypes().get(3));
 		assertEquals("int", msp.getParamTypes().get(4));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testParseVMSize()
+	{
+		assertEquals(65536, ParseUtil.parseVMSize("65536"));
+		assertEquals(512 * 1024, ParseUtil.parseVMSize("512k"));
+		assertEquals(240L * 1024 * 1024, ParseUtil.parseVMSize("240M"));
+		assertEquals(2L * 1024 * 1024 * 1024, ParseUtil.parseVMSize("2g"));
+
+		try
+		{
+			ParseUtil.parseVMSize("64x");
+			fail("Bad size was accepted");
+		}
+		catch (NumberFormatException nfe)
+		{
+			// expected
+		}
+	}
+
+	@Test
+	public void testVMFlags()
+	{
+		String vmArguments = "-XX:ReservedCodeCacheSize=64m -XX:-TieredCompilation -Xmx1g -XX:ReservedCodeCacheSize=128m Work";
+
+		assertEquals("128m", ParseUtil.getVMFlagValue(vmArguments, "ReservedCodeCacheSize"));
+		assertNull(ParseUtil.getVMFlagValue(vmArguments, "InitialCodeCacheSize"));
+		assertNull(ParseUtil.getVMFlagValue(null, "ReservedCodeCacheSize"));
+
+		assertFalse(ParseUtil.isVMFlagEnabled(vmArguments, "TieredCompilation", true));
+		assertTrue(ParseUtil.isVMFlagEnabled("-XX:-TieredCompilation -XX:+TieredCompilation", "TieredCompilation", false));
+		assertTrue(ParseUtil.isVMFlagEnabled(null, "TieredCompilation", true));
+	}
+}
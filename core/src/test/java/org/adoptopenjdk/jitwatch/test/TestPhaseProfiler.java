@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.phase.CompilationPhases;
+import org.adoptopenjdk.jitwatch.phase.PhaseMemberStats;
+import org.adoptopenjdk.jitwatch.phase.PhaseProfiler;
+import org.adoptopenjdk.jitwatch.phase.PhaseStats;
+import org.adoptopenjdk.jitwatch.phase.PhaseTiming;
+import org.junit.Test;
+
+public class TestPhaseProfiler
+{
+	private static final String[] LENGTH_PHASES = new String[] {
+			"<phase name='parse' nodes='3' live='3' stamp='1.000'>",
+			"<phase_done name='parse' nodes='40' live='30' stamp='1.125'/>",
+			"</phase>",
+			"<phase name='optimizer' nodes='40' live='30' stamp='1.125'>",
+			"<phase name='escapeAnalysis' nodes='40' live='30' stamp='1.125'>",
+			"<phase_done name='escapeAnalysis' nodes='45' live='28' stamp='1.250'/>",
+			"</phase>",
+			"<phase name='idealLoop' nodes='45' live='28' stamp='1.250'>",
+			"<phase_done name='idealLoop' nodes='60' live='25' stamp='1.500'/>",
+			"</phase>",
+			"<phase_done name='optimizer' nodes='60' live='25' stamp='1.625'/>",
+			"</phase>",
+			"<phase name='matcher' nodes='60' live='25' stamp='1.625'>",
+			"<phase_done name='matcher' nodes='50' live='50' stamp='1.750'/>",
+			"</phase>" };
+
+	private static final String[] IS_EMPTY_PHASES = new String[] {
+			"<phase name='parse' nodes='3' live='3' stamp='3.000'>",
+			"<phase_done name='parse' nodes='100' live='80' stamp='3.125'/>",
+			"</phase>",
+			"<phase name='idealLoop' nodes='100' live='80' stamp='3.125'>",
+			"<phase_done name='idealLoop' nodes='90' live='70' stamp='3.625'/>",
+			"</phase>",
+			// cut short by a bailout so has no phase_done
+			"<phase name='matcher' nodes='90' live='70' stamp='3.625'>",
+			"</phase>" };
+
+	@Test
+	public void testCompilationWaterfall() throws ClassNotFoundException
+	{
+		JITDataModel model = new JITDataModel();
+
+		IMetaMember length = UnitTestUtil.setUpTestMember(model, "java.lang.String", "length", int.class, new Class<?>[0],
+				"0x1");
+
+		UnitTestUtil.compileLog(length, "10").stamp("1.000").task(120, LENGTH_PHASES).compile();
+
+		CompilationPhases compilationPhases = CompilationPhases.build(length.getCompilationByCompileID("10"));
+
+		List<PhaseTiming> phases = compilationPhases.getPhases();
+
+		assertEquals(5, phases.size());
+
+		assertPhase(phases.get(0), "parse", 0, 0, 125);
+		assertPhase(phases.get(1), "optimizer", 0, 125, 625);
+		assertPhase(phases.get(2), "escapeAnalysis", 1, 125, 250);
+		assertPhase(phases.get(3), "idealLoop", 1, 250, 500);
+		assertPhase(phases.get(4), "matcher", 0, 625, 750);
+
+		// optimizer time less its nested phases
+		assertEquals(125, phases.get(1).getSelfTime());
+
+		assertEquals(37, phases.get(0).getNodeDelta());
+		assertEquals(-10, phases.get(4).getNodeDelta());
+		assertEquals(25, phases.get(4).getLiveDelta());
+
+		assertEquals(750, compilationPhases.getTotalTime());
+		assertEquals(60, compilationPhases.getMaxNodes());
+
+		// the helper compilation has no task
+		assertNull(CompilationPhases.build(length.getCompilationByCompileID("1")));
+	}
+
+	@Test
+	public void testPhasesAndMembersAreRanked() throws ClassNotFoundException
+	{
+		JITDataModel model = new JITDataModel();
+
+		IMetaMember length = UnitTestUtil.setUpTestMember(model, "java.lang.String", "length", int.class, new Class<?>[0],
+				"0x1");
+		IMetaMember isEmpty = UnitTestUtil.setUpTestMember(model, "java.lang.String", "isEmpty", boolean.class,
+				new Class<?>[0], "0x2");
+
+		UnitTestUtil.compileLog(length, "10").stamp("1.000").task(120, LENGTH_PHASES).compile();
+		UnitTestUtil.compileLog(isEmpty, "20").stamp("3.000").task(120, IS_EMPTY_PHASES).compile();
+
+		PhaseProfiler profiler = new PhaseProfiler(model);
+
+		List<PhaseStats> ranked = profiler.analyse();
+
+		assertEquals(2, profiler.getCompilationCount());
+		assertEquals(750 + 625, profiler.getTotalTime());
+
+		assertEquals(5, ranked.size());
+
+		PhaseStats idealLoop = ranked.get(0);
+
+		assertEquals("idealLoop", idealLoop.getName());
+		assertEquals(2, idealLoop.getCount());
+		assertEquals(750, idealLoop.getSelfTime());
+		assertEquals(500, idealLoop.getMaxTime());
+		assertEquals(375.0, idealLoop.getMeanTime(), 0.001);
+		assertEquals(15 - 10, idealLoop.getTotalNodeDelta());
+		assertEquals(90, idealLoop.getMaxNodes());
+
+		assertEquals("parse", ranked.get(1).getName());
+		assertEquals("optimizer", ranked.get(2).getName());
+		assertEquals(500, ranked.get(2).getTotalTime());
+
+		// the unfinished matcher phase is not counted
+		assertEquals(1, profiler.getPhaseStats().get("matcher").getCount());
+
+		List<PhaseMemberStats> byTime = profiler.rankMembersByTime(null);
+
+		assertSame(length, byTime.get(0).getMember());
+		assertEquals(750, byTime.get(0).getTotalTime());
+
+		List<PhaseMemberStats> byIdealLoop = profiler.rankMembersByTime("idealLoop");
+
+		assertSame(isEmpty, byIdealLoop.get(0).getMember());
+		assertEquals(500, byIdealLoop.get(0).getPhaseTime("idealLoop"));
+
+		List<PhaseMemberStats> byEscapeAnalysis = profiler.rankMembersByTime("escapeAnalysis");
+
+		assertEquals(1, byEscapeAnalysis.size());
+		assertSame(length, byEscapeAnalysis.get(0).getMember());
+
+		List<PhaseMemberStats> byNodes = profiler.rankMembersByNodes();
+
+		assertSame(isEmpty, byNodes.get(0).getMember());
+		assertEquals(100, byNodes.get(0).getMaxNodes());
+		assertSame(length, byNodes.get(1).getMember());
+	}
+
+	private void assertPhase(PhaseTiming timing, String name, int depth, long start, long end)
+	{
+		assertEquals(name, timing.getName());
+		assertEquals(depth, timing.getDepth());
+		assertEquals(start, timing.getStart());
+		assertEquals(end, timing.getEnd());
+	}
+}
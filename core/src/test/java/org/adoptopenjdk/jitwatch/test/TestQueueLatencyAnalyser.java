@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.CompilerThreadSeries;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.queue.QueueLatencyAnalyser;
+import org.adoptopenjdk.jitwatch.queue.QueueLatencyStats;
+import org.adoptopenjdk.jitwatch.queue.QueueStall;
+import org.junit.Test;
+
+public class TestQueueLatencyAnalyser
+{
+	@Test
+	public void testQueueWaitAndBacklog() throws ClassNotFoundException
+	{
+		JITDataModel model = new JITDataModel();
+
+		IMetaMember length = UnitTestUtil.setUpTestMember(model, "java.lang.String", "length", int.class, new Class<?>[0],
+				"0x1");
+		IMetaMember hashCode = UnitTestUtil.setUpTestMember(model, "java.lang.String", "hashCode", int.class,
+				new Class<?>[0], "0x2");
+		IMetaMember isEmpty = UnitTestUtil.setUpTestMember(model, "java.lang.String", "isEmpty", boolean.class,
+				new Class<?>[0], "0x3");
+		IMetaMember trim = UnitTestUtil.setUpTestMember(model, "java.lang.String", "trim", String.class, new Class<?>[0],
+				"0x4");
+
+		UnitTestUtil.compileLog(length, "10").compiler("c2").level(4).stamps("1.000", "1.500", "1.625").task(120).compile();
+		UnitTestUtil.compileLog(hashCode, "11").compiler("c2").level(4).stamps("1.125", "1.750", "2.000").task(120).compile();
+		UnitTestUtil.compileLog(isEmpty, "12").descriptor("()Z").compiler("c1").level(3).stamps("1.000", "1.125", "1.250").task(120).compile();
+		UnitTestUtil.compileLog(length, "13").compiler("c2").level(4).stamps("5.000", "5.125", "5.250").task(120).compile();
+
+		// still queued when the log ended
+		UnitTestUtil.processLogLines(trim, new String[] {
+				"<task_queued compile_id='14' method='java.lang.String trim ()Ljava/lang/String;' bytes='60' count='5000' iicount='5000' level='4' stamp='6.000'/>" });
+
+		QueueLatencyAnalyser analyser = new QueueLatencyAnalyser(model, 50, 1);
+
+		List<QueueStall> stalls = analyser.analyse();
+
+		assertEquals(4, analyser.getCompilationCount());
+		assertEquals(1, analyser.getUnstartedCount());
+
+		Map<String, QueueLatencyStats> latencyStats = analyser.getLatencyStats();
+
+		assertEquals(2, latencyStats.size());
+
+		QueueLatencyStats c1 = latencyStats.get("C1 L3");
+
+		assertEquals(1, c1.getCount());
+		assertEquals(125, c1.getMaxWait());
+		assertEquals(125, c1.getMaxCompileTime());
+
+		QueueLatencyStats c2 = latencyStats.get("C2 L4");
+
+		assertEquals(3, c2.getCount());
+		assertEquals(3, c2.getCompiledCount());
+		assertEquals(500 + 625 + 125, c2.getTotalWait());
+		assertEquals(625, c2.getMaxWait());
+		// histogram buckets are within 1% of the recorded value
+		assertEquals(500, c2.getWaitPercentile(50), 5);
+		assertEquals(250, c2.getMaxCompileTime());
+		assertSame(hashCode, c2.getLongestWait().getMember());
+
+		CompilerThreadSeries backlog = analyser.getBacklog();
+
+		assertEquals(2, backlog.getMaxQueueDepth());
+		assertEquals(2, backlog.getQueueDepthAt(1200));
+		assertEquals(1, backlog.getQueueDepthAt(1600));
+		assertEquals(0, backlog.getQueueDepthAt(3000));
+
+		assertEquals(2, analyser.getBacklog("C2 L4").getMaxQueueDepth());
+		assertEquals(1, analyser.getBacklog("C1 L3").getMaxQueueDepth());
+		assertNull(analyser.getBacklog("C2N"));
+
+		// the waits at or above the C2 median overlap so merge into one stall
+		assertEquals(500, analyser.getStallThreshold());
+		assertEquals(1, stalls.size());
+
+		QueueStall stall = stalls.get(0);
+
+		assertEquals(1000, stall.getStart());
+		assertEquals(1750, stall.getEnd());
+		assertEquals(500 + 625, stall.getTotalWait());
+		assertEquals(625, stall.getMaxWait());
+		assertEquals(2, stall.getCompilations().size());
+		assertSame(hashCode, stall.getCompilations().get(0).getMember());
+	}
+
+	@Test
+	public void testSeparateStallsRankedByTotalWait() throws ClassNotFoundException
+	{
+		JITDataModel model = new JITDataModel();
+
+		IMetaMember length = UnitTestUtil.setUpTestMember(model, "java.lang.String", "length", int.class, new Class<?>[0],
+				"0x1");
+		IMetaMember hashCode = UnitTestUtil.setUpTestMember(model, "java.lang.String", "hashCode", int.class,
+				new Class<?>[0], "0x2");
+
+		UnitTestUtil.compileLog(length, "10").compiler("c2").level(4).stamps("1.000", "1.250", "1.375").task(120).compile();
+		UnitTestUtil.compileLog(hashCode, "11").compiler("c2").level(4).stamps("2.000", "2.500", "2.625").task(120).compile();
+
+		QueueLatencyAnalyser analyser = new QueueLatencyAnalyser(model, 0, 1);
+
+		List<QueueStall> stalls = analyser.analyse();
+
+		assertEquals(250, analyser.getStallThreshold());
+		assertEquals(2, stalls.size());
+
+		assertSame(hashCode, stalls.get(0).getCompilations().get(0).getMember());
+		assertEquals(500, stalls.get(0).getTotalWait());
+		assertSame(length, stalls.get(1).getCompilations().get(0).getMember());
+
+		// a minimum wait above every C2 wait means no stalls
+		analyser = new QueueLatencyAnalyser(model, 0, 1000);
+
+		assertTrue(analyser.analyse().isEmpty());
+		assertEquals(1000, analyser.getStallThreshold());
+	}
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import org.adoptopenjdk.jitwatch.core.JITWatchConstants;
 import org.adoptopenjdk.jitwatch.core.TagProcessor;
 import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
 import org.junit.Test;
 
 public class TestTagProcessor
@@ -46,6 +47,30 @@ public class TestTagProcessor
 		assertTrue(!tp.wasFragmentSeen());
 	}
 
+	@Test
+	public void testAttributeAccessorsMatchMap()
+	{
+		TagProcessor tp = new TagProcessor();
+
+		String line = "<bc code='182' bci='14' reason='too big = no' stamp='0.123'/>";
+		Tag tag = tp.processLine(line);
+
+		assertEquals(4, tag.getAttributeCount());
+
+		assertEquals(182, tag.getIntAttribute(JITWatchConstants.ATTR_CODE));
+		assertEquals(14, tag.getIntAttribute(JITWatchConstants.ATTR_BCI));
+		assertEquals("too big = no", tag.getAttribute(JITWatchConstants.ATTR_REASON));
+
+		assertTrue(tag.hasAttribute(JITWatchConstants.ATTR_STAMP));
+		assertNull(tag.getAttribute("missing"));
+
+		assertEquals(-1, tag.getIntAttribute("missing", -1));
+		assertEquals(-1, tag.getIntAttribute(JITWatchConstants.ATTR_STAMP, -1));
+		assertEquals(7L, tag.getLongAttribute("missing", 7L));
+
+		assertEquals(StringUtil.attributeStringToMap(line.substring(3)), tag.getAttributes());
+	}
+
 	@Test
 	public void testSingleTag2Lines()
 	{
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.inline.InliningGraph;
+import org.adoptopenjdk.jitwatch.inline.InliningGraphBuilder;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent.DeoptEventType;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.parser.ParserFactory;
+import org.adoptopenjdk.jitwatch.parser.text.CompileLine;
+import org.adoptopenjdk.jitwatch.parser.text.InlineLine;
+import org.adoptopenjdk.jitwatch.parser.text.TextLogParser;
+import org.adoptopenjdk.jitwatch.parser.text.TextLogUtil;
+import org.junit.Test;
+
+public class TestTextLogParser
+{
+	private static final String[] PRINT_COMPILATION_LOG = new String[] {
+			"     29    1       3       java.lang.String::length (6 bytes)",
+			"     30    3       3       java.lang.String::hashCode (60 bytes)",
+			"                              @ 17   java.lang.String::length (6 bytes)   inline",
+			"                              @ 27   java.lang.String::isEmpty (14 bytes)   callee is too large",
+			"                              @ 37  java/lang/StringUTF16::hashCode (not loaded)   not inlineable",
+			"     31    4       3       java.lang.String::isEmpty (14 bytes)",
+			"     66   78       4       java.lang.String::hashCode (60 bytes)",
+			"     75    3       3       java.lang.String::hashCode (60 bytes)   made not entrant",
+			"    109   96 %     3       java.lang.String::length @ 4 (6 bytes)" };
+
+	private static final String[] XLOG_LOG = new String[] {
+			"[0.036s][debug][jit,compilation]    3       3       java.lang.String::isEmpty (14 bytes)",
+			"[0.037s][debug][jit,compilation]    4       3       java.lang.String::hashCode (60 bytes)",
+			"[0.037s][debug][jit,inlining   ]                               @ 17   java.lang.String::length (6 bytes)   inline",
+			"[0.037s][debug][jit,inlining   ]                               @ 27   java.lang.String::isEmpty (14 bytes)   callee is too large",
+			"[0.040s][info ][gc             ] Using G1",
+			"[0.079s][debug][jit,compilation]   89       4       java.lang.String::hashCode (60 bytes)",
+			"[0.079s][debug][jit,inlining   ]                               @ 17   java.lang.String::length (6 bytes)   inline (hot)",
+			"[0.079s][debug][jit,inlining   ]                               @ 27   java.lang.String::isEmpty (14 bytes)   inline (hot)",
+			"[0.083s][debug][jit,compilation]    4       3       java.lang.String::hashCode (60 bytes)   made not entrant" };
+
+	@Test
+	public void testParseCompileLine()
+	{
+		CompileLine line = TextLogUtil.parseCompileLine("     30    3       3       java.lang.String::hashCode (60 bytes)", true);
+
+		assertNotNull(line);
+		assertEquals(30, line.getTimestamp());
+		assertEquals("3", line.getCompileID());
+		assertEquals(3, line.getLevel());
+		assertEquals("java.lang.String", line.getClassName());
+		assertEquals("hashCode", line.getMethodName());
+		assertEquals(60, line.getBytes());
+		assertFalse(line.isOSR());
+		assertFalse(line.isMadeNotEntrant());
+
+		line = TextLogUtil.parseCompileLine("    109   96 %     3       Work::main @ 4 (61 bytes)", true);
+
+		assertNotNull(line);
+		assertTrue(line.isOSR());
+		assertEquals(4, line.getOSRBCI());
+		assertEquals(61, line.getBytes());
+
+		line = TextLogUtil.parseCompileLine("   4       3       java.lang.String::hashCode (60 bytes)   made not entrant", false);
+
+		assertNotNull(line);
+		assertEquals("4", line.getCompileID());
+		assertTrue(line.isMadeNotEntrant());
+
+		assertNull(TextLogUtil.parseCompileLine("Using G1", false));
+	}
+
+	@Test
+	public void testParseInlineLine()
+	{
+		InlineLine line = TextLogUtil
+				.parseInlineLine("                              @ 27   java.lang.StringLatin1::hashCode (42 bytes)   callee is too large");
+
+		assertNotNull(line);
+		assertEquals(30, line.getIndent());
+		assertEquals(27, line.getBCI());
+		assertEquals("java.lang.StringLatin1", line.getClassName());
+		assertEquals("hashCode", line.getMethodName());
+		assertEquals(42, line.getBytes());
+		assertFalse(line.isInlined());
+		assertEquals("callee is too large", line.getReason());
+
+		line = TextLogUtil.parseInlineLine("                              @ 37  java/lang/StringUTF16::hashCode (not loaded)   not inlineable");
+
+		assertNotNull(line);
+		assertEquals("java.lang.StringUTF16", line.getClassName());
+		assertFalse(line.isInlined());
+
+		line = TextLogUtil.parseInlineLine("                           !m @ 5   java.lang.invoke.LambdaForm$MH/0x0000000800c0c400::invokeExact_MT (23 bytes)   force inline by annotation");
+
+		assertNotNull(line);
+		assertTrue(line.isInlined());
+
+		assertTrue(TextLogUtil.isInlined("inline (hot)"));
+		assertTrue(TextLogUtil.isInlined("(intrinsic)"));
+		assertFalse(TextLogUtil.isInlined("failed to inline: callee is too large"));
+		assertFalse(TextLogUtil.isInlined("no static binding"));
+	}
+
+	@Test
+	public void testPrintCompilationLogIsParsedIntoModel() throws IOException
+	{
+		File logFile = writeLog(PRINT_COMPILATION_LOG);
+
+		try
+		{
+			assertEquals(ParserFactory.PARSER_PRINT_COMPILATION, ParserFactory.detectParser(logFile));
+
+			TextLogParser parser = new TextLogParser(UnitTestUtil.getNoOpJITListener());
+
+			parser.processLogFile(logFile, UnitTestUtil.getNoOpParseErrorListener());
+
+			IMetaMember hashCode = parser.findMemberWithSignature("java.lang.String hashCode ()I");
+
+			assertNotNull(hashCode);
+			assertTrue(hashCode.isCompiled());
+
+			List<Compilation> compilations = hashCode.getCompilations();
+
+			assertEquals(2, compilations.size());
+
+			Compilation c1 = compilations.get(0);
+
+			assertEquals("3", c1.getCompileID());
+			assertEquals(3, c1.getLevel());
+			assertEquals("C1", c1.getCompiler());
+			assertEquals(60, c1.getBytecodeSize());
+			assertEquals(30, c1.getStampTaskQueued());
+
+			Compilation c2 = compilations.get(1);
+
+			assertEquals("78", c2.getCompileID());
+			assertEquals(4, c2.getLevel());
+			assertEquals("C2", c2.getCompiler());
+
+			List<DeoptEvent> deoptEvents = parser.getModel().getDeoptEvents();
+
+			assertEquals(1, deoptEvents.size());
+			assertEquals(DeoptEventType.MAKE_NOT_ENTRANT, deoptEvents.get(0).getEventType());
+			assertEquals(75, deoptEvents.get(0).getStamp());
+			assertSame(c1, deoptEvents.get(0).getCompilation());
+
+			IMetaMember lengthMember = parser.findMemberWithSignature("java.lang.String length ()I");
+
+			assertNotNull(lengthMember);
+
+			Compilation osr = lengthMember.getCompilations().get(1);
+
+			assertTrue(osr.isOSR());
+
+			InliningGraph graph = InliningGraphBuilder.buildGraph(parser.getModel());
+
+			int lengthNode = graph.findNodes("String.length")[0];
+			int isEmpty = graph.findNodes("String.isEmpty")[0];
+			int utf16HashCode = graph.findNodes("StringUTF16.hashCode")[0];
+
+			assertEquals(1, graph.getNodeInlinedCount(lengthNode));
+			assertEquals(1, graph.getNodeFailedCount(isEmpty));
+			assertEquals(1, graph.getNodeFailedCount(utf16HashCode));
+
+			int[] callerEdges = graph.getCallerEdges(isEmpty);
+
+			assertEquals(1, callerEdges.length);
+			assertEquals("callee is too large", graph.getEdgeLastFailureReason(callerEdges[0]));
+		}
+		finally
+		{
+			logFile.delete();
+		}
+	}
+
+	@Test
+	public void testUnifiedLoggingLogIsParsedIntoModel() throws IOException
+	{
+		File logFile = writeLog(XLOG_LOG);
+
+		try
+		{
+			assertEquals(ParserFactory.PARSER_XLOG, ParserFactory.detectParser(logFile));
+
+			TextLogParser parser = (TextLogParser) ParserFactory.getParser(UnitTestUtil.getNoOpJITListener(), logFile);
+
+			parser.processLogFile(logFile, UnitTestUtil.getNoOpParseErrorListener());
+
+			IMetaMember hashCode = parser.findMemberWithSignature("java.lang.String hashCode ()I");
+
+			assertNotNull(hashCode);
+
+			List<Compilation> compilations = hashCode.getCompilations();
+
+			assertEquals(2, compilations.size());
+			assertEquals(37, compilations.get(0).getStampTaskQueued());
+			assertEquals(79, compilations.get(1).getStampTaskQueued());
+			assertEquals(4, compilations.get(1).getLevel());
+
+			List<DeoptEvent> deoptEvents = parser.getModel().getDeoptEvents();
+
+			assertEquals(1, deoptEvents.size());
+			assertEquals(83, deoptEvents.get(0).getStamp());
+			assertSame(compilations.get(0), deoptEvents.get(0).getCompilation());
+
+			// String.isEmpty is rejected by C1 then inlined by C2
+			InliningGraph graph = InliningGraphBuilder.buildGraph(parser.getModel());
+
+			int isEmpty = graph.findNodes("String.isEmpty")[0];
+
+			assertEquals(1, graph.getNodeInlinedCount(isEmpty));
+			assertEquals(1, graph.getNodeFailedCount(isEmpty));
+		}
+		finally
+		{
+			logFile.delete();
+		}
+	}
+
+	@Test
+	public void testSkippedCompileIsNotInstalled() throws IOException
+	{
+		File logFile = writeLog(new String[] {
+				"     29    1       3       java.lang.String::length (6 bytes)",
+				"     31    4       4       java.lang.String::isEmpty (14 bytes)",
+				"     35    4       4       java.lang.String::isEmpty (14 bytes)   COMPILE SKIPPED: retry at different tier",
+				"[0.040s][info][gc] 5       3       java.lang.String::hashCode (60 bytes)" });
+
+		try
+		{
+			TextLogParser parser = new TextLogParser(UnitTestUtil.getNoOpJITListener());
+
+			parser.processLogFile(logFile, UnitTestUtil.getNoOpParseErrorListener());
+
+			IMetaMember isEmpty = parser.findMemberWithSignature("java.lang.String isEmpty ()Z");
+
+			assertNotNull(isEmpty);
+			assertFalse(isEmpty.isCompiled());
+			assertEquals(1, isEmpty.getCompilations().size());
+
+			Compilation skipped = isEmpty.getCompilations().get(0);
+
+			assertTrue(skipped.isFailed());
+			assertNull(skipped.getTagNMethod());
+
+			assertEquals(1, parser.getModel().getJITStats().getCountC1());
+			assertEquals(0, parser.getModel().getJITStats().getCountC2());
+
+			// queued events for both compiles but only String.length was installed
+			assertEquals(3, parser.getModel().getEventListCopy().size());
+
+			// a line tagged gc is not read as a compile line
+			IMetaMember hashCode = parser.findMemberWithSignature("java.lang.String hashCode ()I");
+
+			assertTrue(hashCode == null || hashCode.getCompilations().isEmpty());
+		}
+		finally
+		{
+			logFile.delete();
+		}
+	}
+
+	@Test
+	public void testDetectParser() throws IOException
+	{
+		File logFile = writeLog(new String[] { "<?xml version='1.0' encoding='UTF-8'?>", "<hotspot_log version='160 1'>" });
+
+		try
+		{
+			assertEquals(ParserFactory.PARSER_HOTSPOT, ParserFactory.detectParser(logFile));
+
+			Files.write(logFile.toPath(), Arrays.asList("CompilerThread0 started", "unknown"), StandardCharsets.UTF_8);
+
+			assertEquals(ParserFactory.PARSER_HOTSPOT, ParserFactory.detectParser(logFile));
+
+			Files.write(logFile.toPath(), new byte[] { 'F', 'L', 'R', 0, 0, 2 });
+
+			assertEquals(ParserFactory.PARSER_JFR, ParserFactory.detectParser(logFile));
+		}
+		finally
+		{
+			logFile.delete();
+		}
+	}
+
+	private File writeLog(String[] lines) throws IOException
+	{
+		File logFile = File.createTempFile("testtextlog", ".log");
+
+		Files.write(logFile.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+
+		return logFile;
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.adoptopenjdk.jitwatch.tiered.TierTransitionAnalyser.STATE_DEOPT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.tiered.TierMemberStats;
+import org.adoptopenjdk.jitwatch.tiered.TierTransitionAnalyser;
+import org.junit.Test;
+
+public class TestTierTransitionAnalyser
+{
+	@Test
+	public void testTransitionsAndWastedCompilations() throws ClassNotFoundException
+	{
+		JITDataModel model = new JITDataModel();
+
+		IMetaMember length = UnitTestUtil.setUpTestMember(model, "java.lang.String", "length", int.class, new Class<?>[0],
+				"0x1");
+		IMetaMember hashCode = UnitTestUtil.setUpTestMember(model, "java.lang.String", "hashCode", int.class,
+				new Class<?>[0], "0x2");
+		IMetaMember isEmpty = UnitTestUtil.setUpTestMember(model, "java.lang.String", "isEmpty", boolean.class,
+				new Class<?>[0], "0x3");
+
+		// C2 code traps and the member goes back through C1 profiling
+		UnitTestUtil.compileLog(length, "10").level(3).stamps("1.000", "1.000", "1.125").task(100).compile();
+		Compilation lengthC2 = UnitTestUtil.compileLog(length, "11").level(4).stamps("1.250", "1.250", "1.500").task(400).compile();
+		UnitTestUtil.compileLog(length, "12").level(3).stamps("2.000", "2.000", "2.125").task(100).compile();
+		UnitTestUtil.compileLog(length, "13").level(4).stamps("2.250", "2.250", "2.500").task(500).compile();
+
+		model.addDeoptEvent(UnitTestUtil.createTrap(lengthC2, "1.750", "unstable_if", "reinterpret"));
+		model.addDeoptEvent(UnitTestUtil.createNotEntrant(lengthC2, "1.750"));
+
+		// profiled twice by C1 before C2
+		UnitTestUtil.compileLog(hashCode, "20").level(3).stamps("1.000", "1.000", "1.125").task(200).compile();
+		UnitTestUtil.compileLog(hashCode, "21").level(3).stamps("1.250", "1.250", "1.375").task(200).compile();
+		UnitTestUtil.compileLog(hashCode, "22").level(4).stamps("1.500", "1.500", "1.750").task(600).compile();
+
+		// the usual tiered path
+		UnitTestUtil.compileLog(isEmpty, "30").level(3).stamps("1.000", "1.000", "1.125").task(100).compile();
+		UnitTestUtil.compileLog(isEmpty, "31").level(4).stamps("1.250", "1.250", "1.500").task(300).compile();
+
+		TierTransitionAnalyser analyser = new TierTransitionAnalyser(model);
+
+		List<TierMemberStats> ranked = analyser.analyse();
+
+		assertEquals(3, analyser.getTransitionCount("0", "3"));
+		assertEquals(4, analyser.getTransitionCount("3", "4"));
+		assertEquals(1, analyser.getTransitionCount("3", "3"));
+		assertEquals(1, analyser.getTransitionCount("4", STATE_DEOPT));
+		assertEquals(1, analyser.getTransitionCount(STATE_DEOPT, "3"));
+		assertEquals(0, analyser.getTransitionCount("4", "3"));
+
+		Map<String, Integer> transitions = analyser.getTransitionCounts();
+
+		Iterator<String> iterator = transitions.keySet().iterator();
+
+		assertEquals("3 -> 4", iterator.next());
+		assertEquals("0 -> 3", iterator.next());
+
+		assertEquals(3, analyser.getPathCounts().size());
+		assertEquals(Integer.valueOf(1), analyser.getPathCounts().get("0 -> 3 -> 4"));
+
+		assertEquals(2, ranked.size());
+
+		TierMemberStats lengthStats = ranked.get(0);
+
+		assertSame(length, lengthStats.getMember());
+		assertEquals("0 -> 3 -> 4 -> deopt -> 3 -> 4", lengthStats.getPath());
+		assertEquals(5, lengthStats.getTransitionCount());
+		assertEquals(1, lengthStats.getInvalidatedCount());
+		assertEquals(0, lengthStats.getRedundantCount());
+		assertEquals(250, lengthStats.getWastedMillis());
+		assertEquals(400, lengthStats.getWastedBytes());
+		assertSame(lengthC2, lengthStats.getWastedCompilations().get(0));
+
+		TierMemberStats hashCodeStats = ranked.get(1);
+
+		assertSame(hashCode, hashCodeStats.getMember());
+		assertEquals("0 -> 3 -> 3 -> 4", hashCodeStats.getPath());
+		assertEquals(1, hashCodeStats.getRedundantCount());
+		assertEquals(125, hashCodeStats.getWastedMillis());
+		assertEquals(200, hashCodeStats.getWastedBytes());
+
+		assertEquals(0, analyser.getMemberStats().get(isEmpty).getWastedCount());
+
+		assertEquals(9, analyser.getCompilationCount());
+		assertEquals(1, analyser.getInvalidatedCount());
+		assertEquals(1, analyser.getRedundantCount());
+		assertEquals(250 + 125, analyser.getWastedMillis());
+		assertEquals(400 + 200, analyser.getWastedBytes());
+		assertEquals(2500, analyser.getTotalBytes());
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.warmup.MemberWarmup;
+import org.adoptopenjdk.jitwatch.warmup.WarmupAnalyser;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestWarmupAnalyser
+{
+	private JITDataModel model;
+
+	private IMetaMember length;
+	private IMetaMember hashCode;
+	private IMetaMember isEmpty;
+
+	@Before
+	public void setUp() throws ClassNotFoundException
+	{
+		model = new JITDataModel();
+
+		length = UnitTestUtil.setUpTestMember(model, "java.lang.String", "length", int.class, new Class<?>[0], "0x1");
+		hashCode = UnitTestUtil.setUpTestMember(model, "java.lang.String", "hashCode", int.class, new Class<?>[0], "0x2");
+		isEmpty = UnitTestUtil.setUpTestMember(model, "java.lang.String", "isEmpty", boolean.class, new Class<?>[0], "0x3");
+
+		// C1 then C2, deoptimised back to C1 and later recompiled by C2
+		UnitTestUtil.compileLog(length, "10").compiler("c1").level(3).stamp("1.000").compile();
+		UnitTestUtil.compileLog(length, "11").compiler("c2").level(4).stamp("2.000").compile();
+		UnitTestUtil.compileLog(length, "12").compiler("c1").level(3).stamp("3.000").compile();
+		UnitTestUtil.compileLog(length, "13").compiler("c2").level(4).stamp("4.000").compile();
+
+		// only C1 for normal entry, the OSR compilation is activity only
+		UnitTestUtil.compileLog(hashCode, "20").compiler("c1").level(3).stamp("1.125").compile();
+		UnitTestUtil.compileLog(hashCode, "21").compiler("c2").level(4).osr(4).stamp("2.125").compile();
+
+		// recompiled at the same level
+		UnitTestUtil.compileLog(isEmpty, "30").descriptor("()Z").compiler("c2").level(4).stamp("1.250").compile();
+		UnitTestUtil.compileLog(isEmpty, "31").descriptor("()Z").compiler("c2").level(4).stamp("1.500").compile();
+	}
+
+	@Test
+	public void testMemberWarmup()
+	{
+		WarmupAnalyser analyser = new WarmupAnalyser(model);
+
+		List<MemberWarmup> members = analyser.analyse();
+
+		assertEquals(3, members.size());
+
+		MemberWarmup lengthWarmup = members.get(0);
+
+		assertSame(length, lengthWarmup.getMember());
+		assertEquals(4, lengthWarmup.getCompilationCount());
+		assertEquals(1000, lengthWarmup.getFirstCompiled());
+		assertEquals(2000, lengthWarmup.getFirstC2());
+		assertEquals(4, lengthWarmup.getFinalLevel());
+		assertEquals(4000, lengthWarmup.getReachedFinalLevel());
+		assertEquals(4000, lengthWarmup.getLastCompiled());
+
+		MemberWarmup isEmptyWarmup = members.get(1);
+
+		assertSame(isEmpty, isEmptyWarmup.getMember());
+		assertEquals(1250, isEmptyWarmup.getReachedFinalLevel());
+		assertEquals(1500, isEmptyWarmup.getLastCompiled());
+
+		MemberWarmup hashCodeWarmup = members.get(2);
+
+		assertSame(hashCode, hashCodeWarmup.getMember());
+		assertEquals(1, hashCodeWarmup.getCompilationCount());
+		assertEquals(3, hashCodeWarmup.getFinalLevel());
+		assertEquals(1125, hashCodeWarmup.getReachedFinalLevel());
+		assertFalse(hashCodeWarmup.isReachedC2());
+
+		assertEquals(1250, analyser.getTimeToFinalLevel(50));
+		assertEquals(4000, analyser.getTimeToFinalLevel(100));
+	}
+
+	@Test
+	public void testC2Coverage()
+	{
+		WarmupAnalyser analyser = new WarmupAnalyser(model);
+
+		analyser.analyse();
+
+		// hashCode is hot but only its OSR code came from C2
+		assertEquals(3, analyser.getHotMemberCount());
+
+		assertEquals(0, analyser.getC2CoverageAt(1000), 0.001);
+		assertEquals(33.333, analyser.getC2CoverageAt(1999), 0.001);
+		assertEquals(66.667, analyser.getC2CoverageAt(2000), 0.001);
+		assertEquals(66.667, analyser.getC2CoverageAt(10000), 0.001);
+
+		assertEquals(1250, analyser.getTimeToC2Coverage(30));
+		assertEquals(2000, analyser.getTimeToC2Coverage(50));
+		assertEquals(-1, analyser.getTimeToC2Coverage(100));
+	}
+
+	@Test
+	public void testHotIndependentOfC2() throws ClassNotFoundException
+	{
+		JITDataModel hotModel = new JITDataModel();
+
+		IMetaMember loop = UnitTestUtil.setUpTestMember(hotModel, "java.lang.String", "length", int.class, new Class<?>[0], "0x1");
+		IMetaMember cold = UnitTestUtil.setUpTestMember(hotModel, "java.lang.String", "hashCode", int.class, new Class<?>[0], "0x2");
+		IMetaMember called = UnitTestUtil.setUpTestMember(hotModel, "java.lang.String", "isEmpty", boolean.class, new Class<?>[0],
+				"0x3");
+
+		// hot from its backedges but never compiled by C2
+		UnitTestUtil.compileLog(loop, "1").counts(100, 6000).level(3).stamp("1.000").compile();
+
+		// compiled by C2 without reaching the threshold
+		UnitTestUtil.compileLog(cold, "2").counts(100, 0).level(4).stamp("1.000").compile();
+
+		UnitTestUtil.compileLog(called, "3").descriptor("()Z").counts(6000, 0).level(4).stamp("3.000").compile();
+
+		WarmupAnalyser analyser = new WarmupAnalyser(hotModel, 1000, 10, 6000);
+
+		analyser.analyse();
+
+		assertEquals(2, analyser.getHotMemberCount());
+		assertEquals(50, analyser.getC2CoverageAt(3000), 0.001);
+		assertEquals(3000, analyser.getTimeToC2Coverage(50));
+		assertEquals(-1, analyser.getTimeToC2Coverage(100));
+
+		analyser = new WarmupAnalyser(hotModel, 1000, 10, 6050);
+
+		analyser.analyse();
+
+		assertEquals(1, analyser.getHotMemberCount());
+		assertEquals(0, analyser.getC2CoverageAt(3000), 0.001);
+		assertEquals(-1, analyser.getTimeToC2Coverage(50));
+	}
+
+	@Test
+	public void testCompileActivityAndSteadyState()
+	{
+		WarmupAnalyser analyser = new WarmupAnalyser(model);
+
+		analyser.analyse();
+
+		assertEquals(8, analyser.getCompilationCount());
+
+		assertEquals(5, analyser.getActivityBucketCount());
+		assertEquals(0, analyser.getActivity(0));
+		assertEquals(4, analyser.getActivity(1));
+		assertEquals(2, analyser.getActivity(2));
+		assertEquals(1, analyser.getActivity(3));
+		assertEquals(1, analyser.getActivity(4));
+
+		// the last single compilation is above 10% of the busiest bucket
+		assertEquals(5000, analyser.getSteadyState());
+
+		// but below 30% of it
+		analyser = new WarmupAnalyser(model, 1000, 30);
+
+		analyser.analyse();
+
+		assertEquals(3000, analyser.getSteadyState());
+	}
+
+	@Test
+	public void testEmptyModel()
+	{
+		WarmupAnalyser analyser = new WarmupAnalyser(new JITDataModel());
+
+		assertTrue(analyser.analyse().isEmpty());
+
+		assertEquals(0, analyser.getSteadyState());
+		assertEquals(0, analyser.getTimeToC2Coverage(90));
+		assertEquals(0, analyser.getC2CoverageAt(1000), 0.001);
+	}
+}
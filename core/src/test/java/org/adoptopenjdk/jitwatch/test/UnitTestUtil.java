@@ -26,6 +26,9 @@ import org.adoptopenjdk.jitwatch.core.IJITListener;
 import org.adoptopenjdk.jitwatch.core.TagProcessor;
 import org.adoptopenjdk.jitwatch.loader.BytecodeLoader;
 import org.adoptopenjdk.jitwatch.model.AnnotationException;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent;
+import org.adoptopenjdk.jitwatch.model.DeoptEvent.DeoptEventType;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
 import org.adoptopenjdk.jitwatch.model.JITDataModel;
@@ -44,6 +47,7 @@ import org.adoptopenjdk.jitwatch.model.bytecode.LineAnnotation;
 import org.adoptopenjdk.jitwatch.model.bytecode.MemberBytecode;
 import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
 import org.adoptopenjdk.jitwatch.util.ClassUtil;
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
 import org.adoptopenjdk.jitwatch.util.StringUtil;
 
 public class UnitTestUtil
@@ -354,4 +358,178 @@ public class UnitTestUtil
 		assertTrue("Did not match text: " + annotation, matchedAnnotation);
 		assertTrue("Did not match type: " + type, matchedType);
 	}
+
+	public static CompileLogBuilder compileLog(IMetaMember member, String compileID)
+	{
+		return new CompileLogBuilder(member, compileID);
+	}
+
+	/*
+	 * Builds the task_queued and nmethod lines for one compilation of a
+	 * java.lang.String member and, when a task is given, the task and its
+	 * task_done. Unset attributes get the same values in every test.
+	 */
+	public static class CompileLogBuilder
+	{
+		private final IMetaMember member;
+		private final String compileID;
+
+		private String descriptor = "()I";
+		private int level = 4;
+		private String compiler;
+		private String kind = "";
+
+		private String queuedStamp = "1.000";
+		private String startedStamp = "1.000";
+		private String emittedStamp = "1.000";
+
+		private String address = "0x1";
+		private int size = 100;
+
+		private String counts = " count='5000'";
+
+		private String[] taskLines;
+		private int nativeSize;
+
+		private CompileLogBuilder(IMetaMember member, String compileID)
+		{
+			this.member = member;
+			this.compileID = compileID;
+		}
+
+		public CompileLogBuilder descriptor(String descriptor)
+		{
+			this.descriptor = descriptor;
+			return this;
+		}
+
+		// the compiler defaults to c2 at level 4 and c1 below it
+		public CompileLogBuilder level(int level)
+		{
+			this.level = level;
+			return this;
+		}
+
+		public CompileLogBuilder compiler(String compiler)
+		{
+			this.compiler = compiler;
+			return this;
+		}
+
+		public CompileLogBuilder osr(int bci)
+		{
+			this.kind = " compile_kind='osr' osr_bci='" + bci + "'";
+			return this;
+		}
+
+		public CompileLogBuilder stamp(String stamp)
+		{
+			return stamps(stamp, stamp, stamp);
+		}
+
+		public CompileLogBuilder stamps(String queued, String started, String emitted)
+		{
+			this.queuedStamp = queued;
+			this.startedStamp = started;
+			this.emittedStamp = emitted;
+			return this;
+		}
+
+		// invocation and backedge counts on the task_queued and nmethod
+		public CompileLogBuilder counts(int count, int backedgeCount)
+		{
+			this.counts = " count='" + count + "' backedge_count='" + backedgeCount + "'";
+			return this;
+		}
+
+		public CompileLogBuilder nmethod(String address, int size)
+		{
+			this.address = address;
+			this.size = size;
+			return this;
+		}
+
+		// lines nested in the task before its task_done
+		public CompileLogBuilder task(int nativeSize, String... bodyLines)
+		{
+			this.nativeSize = nativeSize;
+			this.taskLines = bodyLines;
+			return this;
+		}
+
+		public Compilation compile()
+		{
+			String method = "java.lang.String " + member.getMemberName() + " " + descriptor;
+
+			String nmethodCompiler = (compiler != null) ? compiler : (level == 4 ? "c2" : "c1");
+
+			List<String> lines = new ArrayList<>();
+
+			lines.add("<task_queued compile_id='" + compileID + "'" + kind + " method='" + method
+					+ "' bytes='6'" + counts + " iicount='5000' level='" + level + "' stamp='" + queuedStamp + "'/>");
+
+			lines.add("<nmethod compile_id='" + compileID + "'" + kind + " compiler='" + nmethodCompiler + "' level='" + level
+					+ "' entry='" + address + "' size='" + size + "' address='" + address + "' method='" + method
+					+ "' bytes='6'" + counts + " iicount='5000' stamp='" + emittedStamp + "'/>");
+
+			if (taskLines != null)
+			{
+				lines.add("<task compile_id='" + compileID + "' method='" + method + "' bytes='6' count='5000' iicount='5000' level='"
+						+ level + "' stamp='" + startedStamp + "'>");
+
+				for (String taskLine : taskLines)
+				{
+					lines.add(taskLine);
+				}
+
+				lines.add("<task_done success='1' nmsize='" + nativeSize + "' count='5000' stamp='" + emittedStamp + "'/>");
+				lines.add("</task>");
+			}
+
+			processLogLines(member, lines.toArray(new String[lines.size()]));
+
+			Compilation compilation = member.getCompilationByCompileID(compileID);
+
+			if (taskLines != null)
+			{
+				// task_done is a child of the task rather than a line of its own here
+				compilation.setTagTaskDone(compilation.getTagTask().getFirstNamedChild(TAG_TASK_DONE));
+			}
+
+			return compilation;
+		}
+	}
+
+	public static DeoptEvent createTrap(Compilation compilation, String stamp, String reason, String action)
+	{
+		DeoptEvent event = createDeoptEvent(DeoptEventType.UNCOMMON_TRAP, compilation, stamp);
+
+		event.setReason(reason);
+		event.setAction(action);
+
+		return event;
+	}
+
+	public static DeoptEvent createNotEntrant(Compilation compilation, String stamp)
+	{
+		return createDeoptEvent(DeoptEventType.MAKE_NOT_ENTRANT, compilation, stamp);
+	}
+
+	public static DeoptEvent createZombie(Compilation compilation, String stamp)
+	{
+		DeoptEvent event = createDeoptEvent(DeoptEventType.MAKE_NOT_ENTRANT, compilation, stamp);
+
+		event.setZombie(true);
+
+		return event;
+	}
+
+	private static DeoptEvent createDeoptEvent(DeoptEventType eventType, Compilation compilation, String stamp)
+	{
+		DeoptEvent event = new DeoptEvent(eventType, ParseUtil.parseStamp(stamp), compilation.getCompileID());
+
+		event.setCompilation(compilation);
+
+		return event;
+	}
 }
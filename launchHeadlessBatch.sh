@@ -0,0 +1,21 @@
+#!/bin/sh
+
+unamestr=`uname`
+if [ "$JAVA_HOME" = '' ]; then
+  if [ "$unamestr" = 'Darwin' ]; then
+     export JAVA_HOME=`/usr/libexec/java_home`
+  else
+     echo "JAVA_HOME has not been set."
+     exit 0;
+  fi
+fi
+
+CLASSPATH=$CLASSPATH:lib/logback-classic-1.1.2.jar
+CLASSPATH=$CLASSPATH:lib/logback-core-1.1.2.jar
+CLASSPATH=$CLASSPATH:lib/slf4j-api-1.7.7.jar
+CLASSPATH=$CLASSPATH:core/target/classes
+CLASSPATH=$CLASSPATH:ui/target/classes
+CLASSPATH=$CLASSPATH:core/build/classes/java/main
+CLASSPATH=$CLASSPATH:ui/build/classes/java/main
+
+"$JAVA_HOME/bin/java" -cp "$CLASSPATH" org.adoptopenjdk.jitwatch.launch.LaunchHeadlessBatch $@
@@ -7,34 +7,54 @@ package org.adoptopenjdk.jitwatch.sandbox;
 
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_DOLLAR;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_EMPTY;
-import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SPACE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.VM_LANGUAGE_JAVA;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.VM_LANGUAGE_JAVASCRIPT;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.VM_LANGUAGE_SCALA;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.adoptopenjdk.jitwatch.benchmark.BenchmarkHarness;
+import org.adoptopenjdk.jitwatch.benchmark.BenchmarkResult;
+import org.adoptopenjdk.jitwatch.benchmark.BenchmarkSettings;
+import org.adoptopenjdk.jitwatch.core.IJITListener;
 import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
 import org.adoptopenjdk.jitwatch.core.JITWatchConfig.BackgroundCompilation;
-import org.adoptopenjdk.jitwatch.core.JITWatchConfig.CompressedOops;
 import org.adoptopenjdk.jitwatch.core.JITWatchConfig.OnStackReplacement;
-import org.adoptopenjdk.jitwatch.core.JITWatchConfig.TieredCompilation;
-import org.adoptopenjdk.jitwatch.core.JITWatchConstants;
 import org.adoptopenjdk.jitwatch.jvmlang.LanguageManager;
+import org.adoptopenjdk.jitwatch.loader.BytecodeLoader;
 import org.adoptopenjdk.jitwatch.logger.ILogListener;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
 import org.adoptopenjdk.jitwatch.model.MetaClass;
+import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
 import org.adoptopenjdk.jitwatch.parser.ILogParser;
+import org.adoptopenjdk.jitwatch.parser.ParserFactory;
 import org.adoptopenjdk.jitwatch.process.IExternalProcess;
 import org.adoptopenjdk.jitwatch.process.compiler.ICompiler;
 import org.adoptopenjdk.jitwatch.process.runtime.IRuntime;
+import org.adoptopenjdk.jitwatch.sweep.FlagSweep;
+import org.adoptopenjdk.jitwatch.sweep.SweepResult;
+import org.adoptopenjdk.jitwatch.sweep.SweepSettings;
 import org.adoptopenjdk.jitwatch.ui.sandbox.ISandboxStage;
+import org.adoptopenjdk.jitwatch.util.ClassUtil;
 import org.adoptopenjdk.jitwatch.util.FileUtil;
 import org.adoptopenjdk.jitwatch.util.StringUtil;
 import org.slf4j.Logger;
@@ -54,8 +74,14 @@ public class Sandbox
 	public static final Path PATH_STD_ERR;
 	public static final Path PATH_STD_OUT;
 
+	public static final Path SANDBOX_SWEEP_DIR;
+
 	private static final String SANDBOX_LOGFILE = "sandbox.log";
 
+	private static final String SWEEP_COMPARISON_FILE = "sweep-comparison.csv";
+
+	private static final String BENCHMARK_RESULT_FILE = "benchmark-result.txt";
+
 	private File sandboxLogFile = new File(SANDBOX_DIR.toFile(), SANDBOX_LOGFILE);
 
 	private ILogParser logParser;
@@ -64,6 +90,12 @@ public class Sandbox
 
 	private IExternalProcess lastProcess;
 
+	private BenchmarkResult lastBenchmarkResult;
+
+	// the running sweep so cancelSweep() can stop its JVMs
+	private final List<Future<SweepResult>> sweepFutures = Collections.synchronizedList(new ArrayList<Future<SweepResult>>());
+	private final List<IRuntime> sweepRuntimes = Collections.synchronizedList(new ArrayList<IRuntime>());
+
 	static
 	{
 		String userDir = System.getProperty("user.dir");
@@ -71,6 +103,7 @@ public class Sandbox
 		SANDBOX_DIR = Paths.get(userDir, "sandbox");
 		SANDBOX_SOURCE_DIR = Paths.get(SANDBOX_DIR.toString(), "sources");
 		SANDBOX_CLASS_DIR = Paths.get(SANDBOX_DIR.toString(), "classes");
+		SANDBOX_SWEEP_DIR = Paths.get(SANDBOX_DIR.toString(), "sweep");
 
 		PATH_STD_ERR = new File(Sandbox.SANDBOX_DIR.toFile(), "sandbox.err").toPath();
 		PATH_STD_OUT = new File(Sandbox.SANDBOX_DIR.toFile(), "sandbox.out").toPath();
@@ -133,16 +166,7 @@ public class Sandbox
 		logListener.handleLogEntry("Running Sandbox");
 		logListener.handleLogEntry("Language is " + language);
 
-		String languagePath = logParser.getConfig().getVMLanguagePath(language);
-
-		if (S_EMPTY.equals(languagePath) && (VM_LANGUAGE_JAVA.equals(language) || VM_LANGUAGE_JAVASCRIPT.equals(language)))
-		{
-			languagePath = System.getProperty("java.home");
-
-			logListener.handleLogEntry("Using runtime JVM for " + language);
-		}
-
-		logListener.handleLogEntry(language + " home dir: " + languagePath);
+		String languagePath = getLanguagePath(language);
 
 		ICompiler compiler = languageManager.getCompiler(language, languagePath);
 
@@ -175,7 +199,23 @@ public class Sandbox
 
 			lastProcess = runtime;
 
-			boolean executionSuccess = executeClass(fqClassNameToRun, runtime, logParser.getConfig().isSandboxIntelMode());
+			JITWatchConfig config = logParser.getConfig();
+
+			boolean executionSuccess;
+
+			if (config.isBenchmarkMode() && VM_LANGUAGE_JAVA.equals(language))
+			{
+				executionSuccess = executeBenchmark(fqClassNameToRun, runtime, config.isSandboxIntelMode());
+			}
+			else
+			{
+				if (config.isBenchmarkMode())
+				{
+					logListener.handleLogEntry("Benchmark mode is only supported for Java, running main method");
+				}
+
+				executionSuccess = executeClass(fqClassNameToRun, runtime, config.isSandboxIntelMode());
+			}
 
 			logListener.handleLogEntry("Execution success: " + executionSuccess);
 
@@ -201,6 +241,267 @@ public class Sandbox
 		}
 	}
 
+	/*
+	 * Compiles once then runs one JVM per configuration, at most one per core
+	 * at a time, each logging to its own file under sandbox/sweep. Each log is
+	 * parsed into its own model as soon as its JVM exits. The sweep can be
+	 * stopped with cancelSweep().
+	 */
+	public List<SweepResult> runSweep(final String language, List<File> compileList, File fileToRun,
+			List<SweepSettings> configurations) throws Exception
+	{
+		logListener.handleLogEntry("Running Sandbox sweep of " + configurations.size() + " configurations");
+		logListener.handleLogEntry("Language is " + language);
+
+		final String languagePath = getLanguagePath(language);
+
+		List<SweepResult> results = new ArrayList<>();
+
+		ICompiler compiler = languageManager.getCompiler(language, languagePath);
+
+		if (compiler == null)
+		{
+			logListener.handleErrorEntry(language + " compiler path not set. Please click Configure Sandbox and set up the path.");
+			return results;
+		}
+
+		IRuntime runtime = languageManager.getRuntime(language, languagePath);
+
+		if (runtime == null)
+		{
+			logListener.handleErrorEntry(language + " runtime path not set. Please click Configure Sandbox and set up the path.");
+			return results;
+		}
+
+		final JITWatchConfig config = logParser.getConfig();
+
+		lastProcess = compiler;
+
+		boolean compiledOK = compiler.compile(compileList, buildUniqueClasspath(config), SANDBOX_CLASS_DIR.toFile(), logListener);
+
+		logListener.handleLogEntry("Compilation success: " + compiledOK);
+
+		if (!compiledOK)
+		{
+			sandboxStage.showError(compiler.getErrorStream());
+			return results;
+		}
+
+		addSandboxLocations(config);
+
+		File sweepDir = SANDBOX_SWEEP_DIR.toFile();
+
+		FileUtil.emptyDir(sweepDir);
+		sweepDir.mkdirs();
+
+		final String fqClassNameToRun = runtime.getClassToExecute(fileToRun);
+		final List<String> classpath = buildUniqueClasspath(config);
+		final boolean intelMode = config.isSandboxIntelMode();
+
+		List<URL> urls = new ArrayList<>();
+
+		for (String location : config.getConfiguredClassLocations())
+		{
+			urls.add(new File(location).toURI().toURL());
+		}
+
+		int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), configurations.size()));
+
+		logListener.handleLogEntry("Running " + configurations.size() + " JVMs with " + threads + " threads");
+
+		ClassUtil.initialiseShared(urls);
+		BytecodeLoader.enableSharedBytecodeCache();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try
+		{
+			for (int i = 0; i < configurations.size(); i++)
+			{
+				final SweepSettings settings = configurations.get(i);
+
+				final SweepResult result = new SweepResult(settings, new File(sweepDir, "sweep-" + (i + 1) + ".log"));
+
+				results.add(result);
+
+				// one runtime per JVM as each runtime owns its stdout and stderr files
+				final IRuntime sweepRuntime = languageManager.getRuntime(language, languagePath);
+
+				sweepRuntimes.add(sweepRuntime);
+
+				final JITWatchConfig parseConfig = new JITWatchConfig();
+				parseConfig.setClassLocations(new ArrayList<>(config.getConfiguredClassLocations()));
+				parseConfig.setSourceLocations(new ArrayList<>(config.getSourceLocations()));
+
+				sweepFutures.add(executor.submit(new Callable<SweepResult>()
+				{
+					@Override
+					public SweepResult call() throws Exception
+					{
+						runSweepConfiguration(result, sweepRuntime, fqClassNameToRun, classpath, parseConfig, intelMode);
+						return result;
+					}
+				}));
+			}
+
+			for (int i = 0; i < results.size(); i++)
+			{
+				try
+				{
+					sweepFutures.get(i).get();
+				}
+				catch (ExecutionException ee)
+				{
+					results.get(i).setFailureMessage(String.valueOf(ee.getCause()));
+				}
+				catch (CancellationException ce)
+				{
+					results.get(i).setFailureMessage("Sweep cancelled");
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+
+			stopSweepProcesses();
+
+			sweepFutures.clear();
+			sweepRuntimes.clear();
+
+			BytecodeLoader.disableSharedBytecodeCache();
+			ClassUtil.releaseShared();
+		}
+
+		File comparisonFile = new File(sweepDir, SWEEP_COMPARISON_FILE);
+
+		Files.write(comparisonFile.toPath(), FlagSweep.comparisonToString(results).getBytes(StandardCharsets.UTF_8));
+
+		logListener.handleLogEntry("Sweep complete, comparison written to " + comparisonFile);
+
+		return results;
+	}
+
+	/*
+	 * Stops the configurations not yet run and kills the JVMs still running
+	 */
+	public void cancelSweep()
+	{
+		synchronized (sweepFutures)
+		{
+			for (Future<SweepResult> future : sweepFutures)
+			{
+				future.cancel(true);
+			}
+		}
+
+		stopSweepProcesses();
+	}
+
+	private void stopSweepProcesses()
+	{
+		synchronized (sweepRuntimes)
+		{
+			for (IRuntime runtime : sweepRuntimes)
+			{
+				runtime.stopProcess();
+			}
+		}
+	}
+
+	private void runSweepConfiguration(SweepResult result, IRuntime runtime, String fqClassName, List<String> classpath,
+			JITWatchConfig parseConfig, boolean intelMode) throws IOException
+	{
+		List<String> options = buildVMOptions(logParser.getConfig(), result.getSettings(), result.getLogFile(), intelMode);
+
+		logListener.handleLogEntry("Sweep " + result.getLogFile().getName() + " VM options: " + StringUtil.listToString(options));
+
+		long start = System.currentTimeMillis();
+
+		boolean executionSuccess = runtime.execute(fqClassName, classpath, options, null);
+
+		result.setExecutionMillis(System.currentTimeMillis() - start);
+		result.setExecuted(executionSuccess);
+
+		if (Thread.currentThread().isInterrupted())
+		{
+			result.setFailureMessage("Sweep cancelled");
+			return;
+		}
+
+		if (!executionSuccess)
+		{
+			result.setFailureMessage("JVM exited with an error");
+			logListener.handleErrorEntry("Sweep " + result.getLogFile().getName() + " failed: " + runtime.getErrorStream());
+			return;
+		}
+
+		SweepParseListener parseListener = new SweepParseListener();
+
+		ILogParser parser = ParserFactory.getParser(parseListener);
+		parser.setConfig(parseConfig);
+		parser.processLogFile(result.getLogFile(), parseListener);
+
+		result.setParseErrors(parseListener.errorCount);
+		result.summarise(parser.getModel());
+
+		logListener.handleLogEntry("Sweep " + result.getLogFile().getName() + " parsed: " + result.getCompilations()
+				+ " compilations, " + result.getInlineSuccessCount() + " inlined");
+	}
+
+	private static class SweepParseListener implements IJITListener, ILogParseErrorListener
+	{
+		private int errorCount;
+
+		@Override
+		public void handleLogEntry(String entry)
+		{
+		}
+
+		@Override
+		public void handleErrorEntry(String entry)
+		{
+			errorCount++;
+		}
+
+		@Override
+		public void handleError(String title, String body)
+		{
+			errorCount++;
+		}
+
+		@Override
+		public void handleJITEvent(JITEvent event)
+		{
+		}
+
+		@Override
+		public void handleReadStart()
+		{
+		}
+
+		@Override
+		public void handleReadComplete()
+		{
+		}
+	}
+
+	private String getLanguagePath(String language)
+	{
+		String languagePath = logParser.getConfig().getVMLanguagePath(language);
+
+		if (S_EMPTY.equals(languagePath) && (VM_LANGUAGE_JAVA.equals(language) || VM_LANGUAGE_JAVASCRIPT.equals(language)))
+		{
+			languagePath = System.getProperty("java.home");
+
+			logListener.handleLogEntry("Using runtime JVM for " + language);
+		}
+
+		logListener.handleLogEntry(language + " home dir: " + languagePath);
+
+		return languagePath;
+	}
+
 	public IExternalProcess getLastProcess()
 	{
 		return lastProcess;
@@ -225,15 +526,126 @@ public class Sandbox
 
 	private boolean executeClass(String fqClassName, IRuntime runtime, boolean intelMode) throws Exception
 	{
-		List<String> classpath = buildUniqueClasspath(logParser.getConfig());
+		JITWatchConfig config = logParser.getConfig();
+
+		List<String> classpath = buildUniqueClasspath(config);
+
+		List<String> options = buildVMOptions(config, SweepSettings.fromConfig(config), sandboxLogFile, intelMode);
+
+		logListener.handleLogEntry("Executing: " + fqClassName);
+		logListener.handleLogEntry("Classpath: " + StringUtil.listToString(classpath, File.pathSeparatorChar));
+		logListener.handleLogEntry("VM options: " + StringUtil.listToString(options));
+
+		return runtime.execute(fqClassName, classpath, options, logListener);
+	}
+
+	/*
+	 * Runs the configured no-argument method of the class under the benchmark
+	 * harness in one JVM per fork, one after another so the forks do not
+	 * compete for cores. Every fork uses the same VM options but only the
+	 * first logs to the sandbox log that is parsed for TriView.
+	 */
+	private boolean executeBenchmark(String fqClassName, IRuntime runtime, boolean intelMode) throws Exception
+	{
+		JITWatchConfig config = logParser.getConfig();
+
+		BenchmarkSettings benchmarkSettings = BenchmarkSettings.fromConfig(config);
+
+		List<String> classpath = buildUniqueClasspath(config);
+
+		String harnessLocation = getHarnessLocation();
+
+		if (!classpath.contains(harnessLocation))
+		{
+			classpath.add(harnessLocation);
+		}
+
+		SweepSettings vmSettings = SweepSettings.fromConfig(config);
+
+		BenchmarkResult result = new BenchmarkResult(benchmarkSettings);
+
+		logListener.handleLogEntry("Benchmarking: " + fqClassName + "." + benchmarkSettings);
+		logListener.handleLogEntry("Estimated time: " + (benchmarkSettings.getEstimatedMillis() / 1000) + "s");
+		logListener.handleLogEntry("Classpath: " + StringUtil.listToString(classpath, File.pathSeparatorChar));
+
+		List<String> lastOptions = null;
+
+		for (int fork = 1; fork <= benchmarkSettings.getForks(); fork++)
+		{
+			File logFile = (fork == 1) ? sandboxLogFile : new File(SANDBOX_DIR.toFile(), "benchmark-fork-" + fork + ".log");
+
+			List<String> options = buildVMOptions(config, vmSettings, logFile, intelMode);
+
+			benchmarkSettings.addSystemProperties(options, fqClassName);
+
+			if (fork == 1)
+			{
+				logListener.handleLogEntry("VM options: " + StringUtil.listToString(options));
+			}
+
+			logListener.handleLogEntry("Running benchmark fork " + fork + " of " + benchmarkSettings.getForks());
+
+			// stdout is not streamed to the log as it can hold PrintAssembly output
+			boolean forkSuccess = runtime.execute(BenchmarkHarness.class.getName(), classpath, options, null);
+
+			boolean measured = result.addForkOutput(runtime.getOutputStream());
+
+			if (!forkSuccess || !measured)
+			{
+				for (String error : result.getErrors())
+				{
+					logListener.handleErrorEntry(error);
+				}
+
+				return false;
+			}
+
+			lastOptions = options;
+		}
+
+		String summary = result.summaryToString(lastBenchmarkResult);
+
+		for (String line : summary.split(S_NEWLINE))
+		{
+			logListener.handleLogEntry(line);
+		}
+
+		StringBuilder record = new StringBuilder(summary);
+
+		record.append("Class: ").append(fqClassName).append(S_NEWLINE);
+		record.append("VM options: ").append(StringUtil.listToString(lastOptions)).append(S_NEWLINE);
+		record.append("JIT log: ").append(sandboxLogFile.getCanonicalPath()).append(S_NEWLINE);
+
+		Files.write(new File(SANDBOX_DIR.toFile(), BENCHMARK_RESULT_FILE).toPath(),
+				record.toString().getBytes(StandardCharsets.UTF_8));
+
+		lastBenchmarkResult = result;
+
+		return true;
+	}
+
+	private String getHarnessLocation() throws URISyntaxException
+	{
+		URL location = BenchmarkHarness.class.getProtectionDomain().getCodeSource().getLocation();
 
+		return new File(location.toURI()).getPath();
+	}
+
+	public BenchmarkResult getLastBenchmarkResult()
+	{
+		return lastBenchmarkResult;
+	}
+
+	private List<String> buildVMOptions(JITWatchConfig config, SweepSettings settings, File logFile, boolean intelMode)
+			throws IOException
+	{
 		List<String> options = new ArrayList<>();
 		options.add("-XX:+UnlockDiagnosticVMOptions");
 		options.add("-XX:+TraceClassLoading");
 		options.add("-XX:+LogCompilation");
-		options.add("-XX:LogFile=" + sandboxLogFile.getCanonicalPath());
+		options.add("-XX:LogFile=" + logFile.getCanonicalPath());
 
-		if (logParser.getConfig().isPrintAssembly())
+		if (config.isPrintAssembly())
 		{
 			options.add("-XX:+PrintAssembly");
 
@@ -243,36 +655,14 @@ public class Sandbox
 			}
 		}
 
-		boolean isDisableInlining = logParser.getConfig().isDisableInlining();
+		boolean isDisableInlining = config.isDisableInlining();
 
 		if (isDisableInlining)
 		{
 			options.add("-XX:-Inline");
 		}
 
-		TieredCompilation tieredMode = logParser.getConfig().getTieredCompilationMode();
-
-		if (tieredMode == TieredCompilation.FORCE_TIERED)
-		{
-			options.add("-XX:+TieredCompilation");
-		}
-		else if (tieredMode == TieredCompilation.FORCE_NO_TIERED)
-		{
-			options.add("-XX:-TieredCompilation");
-		}
-
-		CompressedOops oopsMode = logParser.getConfig().getCompressedOopsMode();
-
-		if (oopsMode == CompressedOops.FORCE_COMPRESSED)
-		{
-			options.add("-XX:+UseCompressedOops");
-		}
-		else if (oopsMode == CompressedOops.FORCE_NO_COMPRESSED)
-		{
-			options.add("-XX:-UseCompressedOops");
-		}
-
-		BackgroundCompilation backgroundCompilationMode = logParser.getConfig().getBackgroundCompilationMode();
+		BackgroundCompilation backgroundCompilationMode = config.getBackgroundCompilationMode();
 
 		if (backgroundCompilationMode == BackgroundCompilation.FORCE_BACKGROUND_COMPILATION)
 		{
@@ -283,7 +673,7 @@ public class Sandbox
 			options.add("-XX:-BackgroundCompilation");
 		}
 
-		OnStackReplacement onStackReplacementMode = logParser.getConfig().getOnStackReplacementMode();
+		OnStackReplacement onStackReplacementMode = config.getOnStackReplacementMode();
 
 		if (onStackReplacementMode == OnStackReplacement.FORCE_ON_STACK_REPLACEMENT)
 		{
@@ -294,43 +684,25 @@ public class Sandbox
 			options.add("-XX:-UseOnStackReplacement");
 		}
 
-		if (!isDisableInlining && logParser.getConfig().getFreqInlineSize() != JITWatchConstants.DEFAULT_FREQ_INLINE_SIZE)
-		{
-			options.add("-XX:FreqInlineSize=" + logParser.getConfig().getFreqInlineSize());
-		}
+		// tiered, compressed oops, inlining sizes, threshold and extra switches
+		settings.addVMOptions(options, isDisableInlining);
 
-		if (!isDisableInlining && logParser.getConfig().getMaxInlineSize() != JITWatchConstants.DEFAULT_MAX_INLINE_SIZE)
-		{
-			options.add("-XX:MaxInlineSize=" + logParser.getConfig().getMaxInlineSize());
-		}
-
-		if (logParser.getConfig().getCompileThreshold() != JITWatchConstants.DEFAULT_COMPILER_THRESHOLD)
-		{
-			options.add("-XX:CompileThreshold=" + logParser.getConfig().getCompileThreshold());
-		}
+		return options;
+	}
 
-		if (logParser.getConfig().getExtraVMSwitches().length() > 0)
-		{
-			String extraSwitchString = logParser.getConfig().getExtraVMSwitches();
-			String[] switches = extraSwitchString.split(S_SPACE);
+	private void runJITWatch() throws IOException
+	{
+		addSandboxLocations(logParser.getConfig());
 
-			for (String sw : switches)
-			{
-				options.add(sw);
-			}
-		}
+		logListener.handleLogEntry("Parsing JIT log: " + sandboxLogFile.toString());
 
-		logListener.handleLogEntry("Executing: " + fqClassName);
-		logListener.handleLogEntry("Classpath: " + StringUtil.listToString(classpath, File.pathSeparatorChar));
-		logListener.handleLogEntry("VM options: " + StringUtil.listToString(options));
+		logParser.processLogFile(sandboxLogFile, sandboxStage);
 
-		return runtime.execute(fqClassName, classpath, options, logListener);
+		logListener.handleLogEntry("Parsing complete");
 	}
 
-	private void runJITWatch() throws IOException
+	private void addSandboxLocations(JITWatchConfig config)
 	{
-		JITWatchConfig config = logParser.getConfig();
-
 		List<String> sourceLocations = new ArrayList<>(config.getSourceLocations());
 		List<String> classLocations = new ArrayList<>(config.getConfiguredClassLocations());
 
@@ -371,12 +743,6 @@ public class Sandbox
 		{
 			config.saveConfig();
 		}
-
-		logListener.handleLogEntry("Parsing JIT log: " + sandboxLogFile.toString());
-
-		logParser.processLogFile(sandboxLogFile, sandboxStage);
-
-		logListener.handleLogEntry("Parsing complete");
 	}
 
 	private void showTriView(String language, String openClassInTriView)
@@ -8,7 +8,6 @@ package org.adoptopenjdk.jitwatch.ui.compilechain;
 import static org.adoptopenjdk.jitwatch.util.UserInterfaceUtil.fix;
 
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_EMPTY;
-import org.adoptopenjdk.jitwatch.chain.CompileChainWalker;
 import org.adoptopenjdk.jitwatch.chain.CompileNode;
 import org.adoptopenjdk.jitwatch.model.Compilation;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
@@ -355,15 +354,14 @@ public class CompileChainStage extends Stage implements ICompilationChangeListen
 
 		if (selectedCompilation != null)
 		{
-			CompileChainWalker walker = new CompileChainWalker(model);
-
-			CompileNode root = walker.buildCallTree(selectedCompilation);
+			CompileNode root = model.getCompileChainCache().getCallTree(selectedCompilation);
 
 			this.rootNode = root;
 
 			String rootMemberName = getLabelText(root);
 			
-			title += rootMemberName + " " + root.getCompilation().getSignature();
+			title += rootMemberName + " " + root.getCompilation().getSignature() + " (" + root.getInlinedCount() + " inlined, "
+					+ root.getFailedCount() + " not inlined)";
 
 			setTitle(title);
 			
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.ui.diff;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.core.IJITListener;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.diff.MemberDiff;
+import org.adoptopenjdk.jitwatch.diff.MemberSnapshot;
+import org.adoptopenjdk.jitwatch.diff.ModelDiff;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
+import org.adoptopenjdk.jitwatch.parser.ILogParser;
+import org.adoptopenjdk.jitwatch.parser.ParserFactory;
+import org.adoptopenjdk.jitwatch.ui.main.JITWatchUI;
+import org.adoptopenjdk.jitwatch.util.ClassUtil;
+import org.adoptopenjdk.jitwatch.util.UserInterfaceUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+
+/*
+ * Compares the currently loaded log (after) with another log (before). The
+ * after model is snapshotted on the UI thread, then the before log is parsed
+ * and compared on a worker thread by its own parser with its own class loader
+ * so the main model and the loader it uses are left untouched.
+ */
+public class ModelDiffStage extends Stage
+{
+	private static final Logger logger = LoggerFactory.getLogger(ModelDiffStage.class);
+
+	private TableView<ModelDiffTableRow> tableView;
+	private ObservableList<ModelDiffTableRow> obList = FXCollections.observableArrayList();
+
+	private Label lblSummary;
+
+	private final JITWatchUI parent;
+
+	private final File beforeLogFile;
+
+	public ModelDiffStage(final JITWatchUI parent, File beforeLogFile)
+	{
+		initStyle(StageStyle.DECORATED);
+
+		this.parent = parent;
+		this.beforeLogFile = beforeLogFile;
+
+		VBox vbox = new VBox();
+
+		Scene scene = UserInterfaceUtil.getScene(vbox, 1200, 480);
+
+		lblSummary = new Label("Parsing " + beforeLogFile.getName() + "...");
+		lblSummary.setPadding(new Insets(4));
+
+		tableView = ModelDiffTableBuilder.buildTableModelDiff(obList);
+
+		vbox.getChildren().addAll(lblSummary, tableView);
+
+		tableView.prefHeightProperty().bind(scene.heightProperty());
+
+		setTitle("JITWatch Diff: " + beforeLogFile.getName() + " (before) vs current log (after)");
+
+		setScene(scene);
+
+		compareInBackground();
+	}
+
+	private void compareInBackground()
+	{
+		// the main model is only read on the UI thread
+		final Map<String, MemberSnapshot> afterSnapshot = ModelDiff.snapshot(parent.getJITDataModel());
+
+		final JITWatchConfig config = parent.getConfig();
+
+		Thread diffThread = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				final ParseErrorListener errorListener = new ParseErrorListener();
+
+				ClassUtil.bindThreadClassLoader();
+
+				try
+				{
+					ILogParser beforeParser = ParserFactory.getParser(errorListener, beforeLogFile);
+
+					beforeParser.setConfig(config);
+
+					beforeParser.processLogFile(beforeLogFile, errorListener);
+
+					final ModelDiff diff = new ModelDiff(beforeParser.getModel(), afterSnapshot);
+
+					diff.compare();
+
+					Platform.runLater(new Runnable()
+					{
+						@Override
+						public void run()
+						{
+							showDiff(diff, errorListener.errors);
+						}
+					});
+				}
+				catch (final Throwable t)
+				{
+					logger.error("Could not diff {}", beforeLogFile, t);
+
+					Platform.runLater(new Runnable()
+					{
+						@Override
+						public void run()
+						{
+							lblSummary.setText("Could not parse " + beforeLogFile.getName() + ": " + t);
+						}
+					});
+				}
+				finally
+				{
+					ClassUtil.releaseThreadClassLoader();
+				}
+			}
+		}, "JITWatchDiff");
+
+		diffThread.setDaemon(true);
+		diffThread.start();
+	}
+
+	private void showDiff(ModelDiff diff, List<String> parseErrors)
+	{
+		obList.clear();
+
+		for (MemberDiff memberDiff : diff.getDiffs())
+		{
+			obList.add(new ModelDiffTableRow(memberDiff));
+		}
+
+		StringBuilder summary = new StringBuilder();
+
+		summary.append("Compiled in both: ").append(diff.getMatchedCount());
+		summary.append(", only before: ").append(diff.getOnlyBeforeCount());
+		summary.append(", only after: ").append(diff.getOnlyAfterCount());
+		summary.append(", members changed: ").append(diff.getDiffs().size());
+
+		if (!parseErrors.isEmpty())
+		{
+			summary.append(" (").append(parseErrors.size()).append(" errors parsing ").append(beforeLogFile.getName());
+			summary.append(", first: ").append(parseErrors.get(0)).append(")");
+		}
+
+		lblSummary.setText(summary.toString());
+	}
+
+	private static class ParseErrorListener implements IJITListener, ILogParseErrorListener
+	{
+		private final List<String> errors = new ArrayList<>();
+
+		@Override
+		public void handleError(String title, String body)
+		{
+			errors.add(title + ": " + body);
+		}
+
+		@Override
+		public void handleLogEntry(String entry)
+		{
+		}
+
+		@Override
+		public void handleErrorEntry(String entry)
+		{
+			errors.add(entry);
+		}
+
+		@Override
+		public void handleJITEvent(JITEvent event)
+		{
+		}
+
+		@Override
+		public void handleReadStart()
+		{
+		}
+
+		@Override
+		public void handleReadComplete()
+		{
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.ui.diff;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+
+public final class ModelDiffTableBuilder
+{
+	private ModelDiffTableBuilder()
+	{
+	}
+
+	public static TableView<ModelDiffTableRow> buildTableModelDiff(ObservableList<ModelDiffTableRow> rows)
+	{
+		TableView<ModelDiffTableRow> tv = new TableView<>();
+
+		addColumn(tv, "Member", "signature", 0.28);
+		addColumn(tv, "Changes", "changes", 0.16);
+		addColumn(tv, "Level", "level", 0.06);
+		addColumn(tv, "Native Size", "nativeSize", 0.08);
+		addColumn(tv, "Compile ms", "compileTime", 0.08);
+		addColumn(tv, "Decompiles", "decompiles", 0.06);
+		addColumn(tv, "Inlining and Intrinsics", "details", 0.27);
+
+		tv.setItems(rows);
+
+		return tv;
+	}
+
+	private static void addColumn(TableView<ModelDiffTableRow> tv, String title, String property, double widthFraction)
+	{
+		TableColumn<ModelDiffTableRow, String> column = new TableColumn<ModelDiffTableRow, String>(title);
+		column.setCellValueFactory(new PropertyValueFactory<ModelDiffTableRow, String>(property));
+		column.prefWidthProperty().bind(tv.widthProperty().multiply(widthFraction));
+
+		tv.getColumns().add(column);
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.ui.diff;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_HYPEN;
+
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.diff.InliningFlip;
+import org.adoptopenjdk.jitwatch.diff.MemberDiff;
+import org.adoptopenjdk.jitwatch.diff.MemberSnapshot;
+
+public class ModelDiffTableRow
+{
+	private final MemberDiff diff;
+
+	public ModelDiffTableRow(MemberDiff diff)
+	{
+		this.diff = diff;
+	}
+
+	public MemberDiff getDiff()
+	{
+		return diff;
+	}
+
+	public String getSignature()
+	{
+		return diff.getSignature();
+	}
+
+	public String getChanges()
+	{
+		return diff.getChangesText();
+	}
+
+	public String getLevel()
+	{
+		return pair(diff.getBefore().getLevel(), diff.getAfter().getLevel());
+	}
+
+	public String getNativeSize()
+	{
+		return pair(diff.getBefore().getNativeSize(), diff.getAfter().getNativeSize());
+	}
+
+	public String getCompileTime()
+	{
+		return pair(diff.getBefore().getCompileMillis(), diff.getAfter().getCompileMillis());
+	}
+
+	public String getDecompiles()
+	{
+		return pair(diff.getBefore().getDecompiles(), diff.getAfter().getDecompiles());
+	}
+
+	public String getDetails()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (InliningFlip flip : diff.getInliningFlips())
+		{
+			appendDetail(builder, flip.toString());
+		}
+
+		for (Map.Entry<String, String> entry : diff.getIntrinsicsGained().entrySet())
+		{
+			appendDetail(builder, "+intrinsic " + entry.getKey() + " = " + entry.getValue());
+		}
+
+		for (Map.Entry<String, String> entry : diff.getIntrinsicsLost().entrySet())
+		{
+			appendDetail(builder, "-intrinsic " + entry.getKey() + " = " + entry.getValue());
+		}
+
+		if (diff.getBefore().isOSR() != diff.getAfter().isOSR())
+		{
+			appendDetail(builder, diff.getAfter().isOSR() ? "OSR compiled after" : "OSR compiled before");
+		}
+
+		return builder.toString();
+	}
+
+	private void appendDetail(StringBuilder builder, String detail)
+	{
+		if (builder.length() > 0)
+		{
+			builder.append("; ");
+		}
+
+		builder.append(detail);
+	}
+
+	private String pair(long beforeValue, long afterValue)
+	{
+		MemberSnapshot before = diff.getBefore();
+		MemberSnapshot after = diff.getAfter();
+
+		String beforeText = before.isCompiled() ? Long.toString(beforeValue) : S_HYPEN;
+		String afterText = after.isCompiled() ? Long.toString(afterValue) : S_HYPEN;
+
+		if (beforeText.equals(afterText))
+		{
+			return beforeText;
+		}
+
+		return beforeText + " -> " + afterText;
+	}
+}
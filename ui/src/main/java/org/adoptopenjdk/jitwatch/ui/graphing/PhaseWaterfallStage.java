@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.ui.graphing;
+
+import static org.adoptopenjdk.jitwatch.util.UserInterfaceUtil.fix;
+
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.phase.CompilationPhases;
+import org.adoptopenjdk.jitwatch.phase.PhaseTiming;
+import org.adoptopenjdk.jitwatch.ui.main.JITWatchUI;
+import org.adoptopenjdk.jitwatch.util.UserInterfaceUtil;
+
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+
+/*
+ * One row per compiler phase of a compilation, each bar spanning the phase
+ * start and end so nested phases sit inside their parent
+ */
+public class PhaseWaterfallStage extends AbstractGraphStage
+{
+	private static final double MAX_ROW_HEIGHT = 24;
+
+	private static final Color[] DEPTH_COLOURS = new Color[] { Color.rgb(0, 90, 180), Color.rgb(0, 150, 120),
+			Color.rgb(220, 140, 0), Color.rgb(190, 40, 40) };
+
+	private final CompilationPhases compilationPhases;
+
+	public PhaseWaterfallStage(JITWatchUI parent, CompilationPhases compilationPhases, String title)
+	{
+		super(parent, JITWatchUI.WINDOW_WIDTH, JITWatchUI.WINDOW_HEIGHT, false);
+
+		this.compilationPhases = compilationPhases;
+
+		StackPane root = new StackPane();
+		Scene scene = UserInterfaceUtil.getScene(root, width, height);
+
+		canvas.widthProperty().bind(root.widthProperty());
+		canvas.heightProperty().bind(root.heightProperty());
+
+		root.getChildren().add(canvas);
+
+		setTitle(title);
+
+		setScene(scene);
+		show();
+
+		redraw();
+	}
+
+	@Override
+	public final void redraw()
+	{
+		List<PhaseTiming> phases = compilationPhases.getPhases();
+
+		int maxLabelLength = 0;
+
+		for (PhaseTiming timing : phases)
+		{
+			maxLabelLength = Math.max(maxLabelLength, getRowLabel(timing).length());
+		}
+
+		graphGapLeft = fix(Math.max(40, (maxLabelLength + 2) * STANDARD_FONT.getSize() * 0.6));
+
+		super.baseRedraw();
+
+		// space on the right of the longest bar for its label
+		chartWidth = Math.max(10, chartWidth - 32 * STANDARD_FONT.getSize() * 0.6);
+
+		minX = 0;
+		maxX = Math.max(1, compilationPhases.getTotalTime());
+
+		drawTimeAxis();
+
+		if (phases.isEmpty())
+		{
+			return;
+		}
+
+		double rowHeight = Math.min(MAX_ROW_HEIGHT, chartHeight / phases.size());
+
+		double barHeight = Math.max(1, rowHeight - 4);
+
+		for (int i = 0; i < phases.size(); i++)
+		{
+			PhaseTiming timing = phases.get(i);
+
+			double rowY = graphGapTop + i * rowHeight;
+
+			double x1 = graphGapLeft + normaliseX(timing.getStart());
+			double x2 = graphGapLeft + normaliseX(timing.getEnd());
+
+			gc.setFill(DEPTH_COLOURS[timing.getDepth() % DEPTH_COLOURS.length]);
+			gc.fillRect(fix(x1), fix(rowY + 2), Math.max(1, x2 - x1), barHeight);
+
+			if (rowHeight >= getStringHeight())
+			{
+				double textY = rowY + (rowHeight - getStringHeight()) / 2;
+
+				setStrokeForText();
+				gc.fillText(getRowLabel(timing), fix(4), fix(textY));
+				gc.fillText(getBarLabel(timing), fix(x2 + 4), fix(textY));
+			}
+		}
+	}
+
+	private void drawTimeAxis()
+	{
+		long xInc = findScale(maxX - minX);
+
+		minXQ = 0;
+		maxXQ = (1 + (maxX / xInc)) * xInc;
+
+		long gridX = minXQ;
+
+		while (gridX <= maxXQ)
+		{
+			double x = graphGapLeft + normaliseX(gridX);
+
+			setStrokeForAxis();
+			gc.strokeLine(fix(x), fix(graphGapTop), fix(x), fix(graphGapTop + chartHeight));
+
+			setStrokeForText();
+			gc.fillText(gridX + "ms", fix(x), fix(graphGapTop + chartHeight + 2));
+
+			gridX += xInc;
+		}
+	}
+
+	private String getRowLabel(PhaseTiming timing)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < timing.getDepth(); i++)
+		{
+			builder.append("  ");
+		}
+
+		return builder.append(timing.getName()).toString();
+	}
+
+	private String getBarLabel(PhaseTiming timing)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append(timing.getDuration()).append("ms");
+
+		if (timing.getNodesEnd() > 0)
+		{
+			builder.append(" nodes ").append(timing.getNodesStart()).append("->").append(timing.getNodesEnd());
+			builder.append(" live ").append(timing.getLiveEnd());
+		}
+
+		return builder.toString();
+	}
+}
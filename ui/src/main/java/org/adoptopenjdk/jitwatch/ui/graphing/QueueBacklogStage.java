@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.ui.graphing;
+
+import static org.adoptopenjdk.jitwatch.util.UserInterfaceUtil.fix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.CompilerThreadSeries;
+import org.adoptopenjdk.jitwatch.queue.QueueLatencyAnalyser;
+import org.adoptopenjdk.jitwatch.queue.QueueLatencyStats;
+import org.adoptopenjdk.jitwatch.queue.QueueStall;
+import org.adoptopenjdk.jitwatch.ui.main.JITWatchUI;
+import org.adoptopenjdk.jitwatch.util.UserInterfaceUtil;
+
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+
+/*
+ * Compile queue backlog over time, combined and per compiler tier, with the
+ * periods where hot methods waited longest shaded
+ */
+public class QueueBacklogStage extends AbstractGraphStage
+{
+	private static final int STALLS_SHOWN = 10;
+
+	private static final Color[] QUEUE_COLOURS = new Color[] { Color.rgb(0, 150, 120), Color.rgb(220, 140, 0),
+			Color.rgb(140, 60, 200), Color.rgb(190, 40, 40), Color.rgb(90, 90, 90) };
+
+	private static final Color STALL_COLOUR = Color.rgb(255, 200, 200, 0.6);
+
+	private QueueLatencyAnalyser analyser;
+
+	private final List<CompilerThreadSeries> queueSeries = new ArrayList<>();
+
+	private final List<String> queueNames = new ArrayList<>();
+
+	private int analysedEventCount = -1;
+
+	public QueueBacklogStage(JITWatchUI parent)
+	{
+		super(parent, JITWatchUI.WINDOW_WIDTH, JITWatchUI.WINDOW_HEIGHT, true);
+
+		StackPane root = new StackPane();
+		Scene scene = UserInterfaceUtil.getScene(root, width, height);
+
+		canvas.widthProperty().bind(root.widthProperty());
+		canvas.heightProperty().bind(root.heightProperty());
+
+		root.getChildren().add(canvas);
+
+		setTitle("JITWatch Compile Queue Backlog");
+
+		setScene(scene);
+		show();
+
+		redraw();
+	}
+
+	private void analyseIfChanged()
+	{
+		int eventCount = mainUI.getJITDataModel().getEventLog().size();
+
+		if (eventCount != analysedEventCount)
+		{
+			analysedEventCount = eventCount;
+
+			analyser = new QueueLatencyAnalyser(mainUI.getJITDataModel());
+
+			analyser.analyse();
+
+			queueSeries.clear();
+			queueNames.clear();
+
+			for (QueueLatencyStats stats : analyser.getLatencyStats().values())
+			{
+				queueSeries.add(analyser.getBacklog(stats.getName()));
+				queueNames.add(stats.getName());
+			}
+		}
+	}
+
+	@Override
+	public final void redraw()
+	{
+		analyseIfChanged();
+
+		super.baseRedraw();
+
+		CompilerThreadSeries backlog = analyser.getBacklog();
+
+		if (backlog == null || backlog.getQueuePointCount() == 0)
+		{
+			setStrokeForText();
+			gc.fillText("No compile queue information processed", fix(10), fix(10));
+			return;
+		}
+
+		minX = backlog.getQueueStamp(0);
+		maxX = Math.max(minX + 1, backlog.getQueueStamp(backlog.getQueuePointCount() - 1));
+
+		minY = 0;
+		maxY = Math.max(1, backlog.getMaxQueueDepth());
+
+		drawAxes();
+
+		drawStalls();
+
+		for (int i = 0; i < queueSeries.size(); i++)
+		{
+			drawSeries(queueSeries.get(i), QUEUE_COLOURS[i % QUEUE_COLOURS.length], 1.0);
+		}
+
+		drawSeries(backlog, Color.BLUE, 2.0);
+
+		drawLegend();
+	}
+
+	private void drawStalls()
+	{
+		List<QueueStall> stalls = analyser.getStalls();
+
+		gc.setFill(STALL_COLOUR);
+
+		for (int i = 0; i < Math.min(STALLS_SHOWN, stalls.size()); i++)
+		{
+			QueueStall stall = stalls.get(i);
+
+			double x1 = graphGapLeft + normaliseX(stall.getStart());
+			double x2 = graphGapLeft + normaliseX(stall.getEnd());
+
+			gc.fillRect(fix(x1), fix(graphGapTop), Math.max(2, x2 - x1), chartHeight);
+		}
+	}
+
+	private void drawSeries(CompilerThreadSeries series, Color colour, double lineWidth)
+	{
+		int points = series.getQueuePointCount();
+
+		if (points == 0)
+		{
+			return;
+		}
+
+		gc.setStroke(colour);
+		gc.setLineWidth(lineWidth);
+
+		double lastX = graphGapLeft + normaliseX(series.getQueueStamp(0));
+		double lastY = graphGapTop + normaliseY(series.getQueueDepth(0));
+
+		for (int i = 1; i < points; i++)
+		{
+			double x = graphGapLeft + normaliseX(series.getQueueStamp(i));
+			double y = graphGapTop + normaliseY(series.getQueueDepth(i));
+
+			// step series, the depth holds until the next point
+			gc.strokeLine(fix(lastX), fix(lastY), fix(x), fix(lastY));
+			gc.strokeLine(fix(x), fix(lastY), fix(x), fix(y));
+
+			lastX = x;
+			lastY = y;
+		}
+	}
+
+	private void drawLegend()
+	{
+		double legendX = graphGapLeft + 8;
+		double legendY = graphGapTop + 8;
+		double lineHeight = getStringHeight() + 12;
+
+		drawLabel("All queues (max " + analyser.getBacklog().getMaxQueueDepth() + ")", legendX, legendY,
+				Color.rgb(200, 220, 255));
+
+		for (int i = 0; i < queueNames.size(); i++)
+		{
+			legendY += lineHeight;
+
+			Color colour = QUEUE_COLOURS[i % QUEUE_COLOURS.length];
+
+			drawLabel(queueNames.get(i) + " (max " + queueSeries.get(i).getMaxQueueDepth() + ")", legendX, legendY,
+					colour.deriveColor(0, 0.3, 1.5, 1.0));
+		}
+
+		if (!analyser.getStalls().isEmpty())
+		{
+			legendY += lineHeight;
+
+			drawLabel("C2 waits >= " + analyser.getStallThreshold() + "ms", legendX, legendY, STALL_COLOUR);
+		}
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.ui.graphing;
+
+import static org.adoptopenjdk.jitwatch.util.UserInterfaceUtil.fix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.tiered.TierMemberStats;
+import org.adoptopenjdk.jitwatch.tiered.TierTransitionAnalyser;
+import org.adoptopenjdk.jitwatch.ui.main.JITWatchUI;
+import org.adoptopenjdk.jitwatch.util.UserInterfaceUtil;
+
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+
+/*
+ * Level state machine of all members combined. Compilation levels are laid
+ * out left to right with the deopt state below them, moves up a level arc
+ * above the nodes and moves down arc below. Edge width grows with the log
+ * of the transition count.
+ */
+public class TierTransitionStage extends AbstractGraphStage
+{
+	private static final double NODE_RADIUS = 24;
+
+	private static final int WASTED_MEMBERS_SHOWN = 5;
+
+	private static final Color COLOUR_NODE = Color.rgb(200, 220, 255);
+	private static final Color COLOUR_DEOPT = Color.rgb(255, 190, 190);
+	private static final Color COLOUR_UP = Color.rgb(0, 120, 60);
+	private static final Color COLOUR_DOWN = Color.rgb(190, 40, 40);
+	private static final Color COLOUR_LABEL = Color.rgb(255, 255, 220);
+
+	private TierTransitionAnalyser analyser;
+
+	private List<TierMemberStats> ranked;
+
+	private int analysedEventCount = -1;
+
+	private final Map<String, double[]> nodePositions = new HashMap<>();
+
+	public TierTransitionStage(JITWatchUI parent)
+	{
+		super(parent, JITWatchUI.WINDOW_WIDTH, JITWatchUI.WINDOW_HEIGHT, false);
+
+		StackPane root = new StackPane();
+		Scene scene = UserInterfaceUtil.getScene(root, width, height);
+
+		canvas.widthProperty().bind(root.widthProperty());
+		canvas.heightProperty().bind(root.heightProperty());
+
+		root.getChildren().add(canvas);
+
+		setTitle("JITWatch Tiered Level Transitions");
+
+		setScene(scene);
+		show();
+
+		redraw();
+	}
+
+	private void analyseIfChanged()
+	{
+		int eventCount = mainUI.getJITDataModel().getEventLog().size();
+
+		if (eventCount != analysedEventCount)
+		{
+			analysedEventCount = eventCount;
+
+			analyser = new TierTransitionAnalyser(mainUI.getJITDataModel());
+
+			ranked = analyser.analyse();
+		}
+	}
+
+	@Override
+	public final void redraw()
+	{
+		analyseIfChanged();
+
+		super.baseRedraw();
+
+		Map<String, Integer> transitions = analyser.getTransitionCounts();
+
+		if (transitions.isEmpty())
+		{
+			setStrokeForText();
+			gc.fillText("No compilation levels processed", fix(10), fix(10));
+			return;
+		}
+
+		layoutNodes(transitions);
+
+		int maxCount = transitions.values().iterator().next();
+
+		for (Map.Entry<String, Integer> entry : transitions.entrySet())
+		{
+			String[] states = entry.getKey().split(TierTransitionAnalyser.TRANSITION_SEPARATOR);
+
+			drawEdge(states[0], states[1], entry.getValue(), maxCount);
+		}
+
+		for (Map.Entry<String, double[]> entry : nodePositions.entrySet())
+		{
+			drawNode(entry.getKey(), entry.getValue());
+		}
+
+		drawSummary();
+	}
+
+	private void layoutNodes(Map<String, Integer> transitions)
+	{
+		List<String> levels = new ArrayList<>();
+
+		boolean hasDeopt = false;
+
+		for (String transition : transitions.keySet())
+		{
+			for (String state : transition.split(TierTransitionAnalyser.TRANSITION_SEPARATOR))
+			{
+				if (TierTransitionAnalyser.STATE_DEOPT.equals(state))
+				{
+					hasDeopt = true;
+				}
+				else if (!levels.contains(state))
+				{
+					levels.add(state);
+				}
+			}
+		}
+
+		// levels are single digits so sort as strings, compiler names follow
+		Collections.sort(levels);
+
+		nodePositions.clear();
+
+		double rowY = graphGapTop + chartHeight * 0.45;
+
+		double gap = chartWidth / (levels.size() + 1);
+
+		for (int i = 0; i < levels.size(); i++)
+		{
+			nodePositions.put(levels.get(i), new double[] { graphGapLeft + gap * (i + 1), rowY });
+		}
+
+		if (hasDeopt)
+		{
+			nodePositions.put(TierTransitionAnalyser.STATE_DEOPT,
+					new double[] { graphGapLeft + chartWidth / 2, graphGapTop + chartHeight * 0.85 });
+		}
+	}
+
+	private void drawEdge(String from, String to, int count, int maxCount)
+	{
+		double[] start = nodePositions.get(from);
+		double[] end = nodePositions.get(to);
+
+		double lineWidth = 1 + 6 * Math.log(count) / Math.log(Math.max(2, maxCount));
+
+		boolean up = from.compareTo(to) < 0 && !TierTransitionAnalyser.STATE_DEOPT.equals(to);
+
+		gc.setStroke(up ? COLOUR_UP : COLOUR_DOWN);
+		gc.setLineWidth(lineWidth);
+
+		double labelX;
+		double labelY;
+
+		if (from.equals(to))
+		{
+			// self loop above the node
+			double loopSize = NODE_RADIUS * 1.5;
+
+			gc.strokeOval(start[0] - loopSize / 2, start[1] - NODE_RADIUS - loopSize, loopSize, loopSize);
+
+			labelX = start[0] - loopSize / 2;
+			labelY = start[1] - NODE_RADIUS - loopSize * 2;
+		}
+		else
+		{
+			double midX = (start[0] + end[0]) / 2;
+			double midY = (start[1] + end[1]) / 2;
+
+			double bend = Math.max(40, Math.abs(end[0] - start[0]) / 3);
+
+			double controlY = up ? midY - bend : midY + bend;
+
+			gc.beginPath();
+			gc.moveTo(start[0], start[1]);
+			gc.quadraticCurveTo(midX, controlY, end[0], end[1]);
+			gc.stroke();
+
+			// a quadratic curve passes halfway to its control point at t=0.5
+			labelX = midX;
+			labelY = (midY + controlY) / 2;
+		}
+
+		drawLabel(Integer.toString(count), labelX, labelY, COLOUR_LABEL);
+	}
+
+	private void drawNode(String state, double[] position)
+	{
+		boolean deopt = TierTransitionAnalyser.STATE_DEOPT.equals(state);
+
+		gc.setFill(deopt ? COLOUR_DEOPT : COLOUR_NODE);
+		gc.fillOval(position[0] - NODE_RADIUS, position[1] - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
+
+		setStrokeForAxis();
+		gc.strokeOval(position[0] - NODE_RADIUS, position[1] - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
+
+		setStrokeForText();
+		gc.fillText(state, fix(position[0] - getApproximateStringWidth(state) / 2), fix(position[1] - getStringHeight() / 2));
+	}
+
+	private void drawSummary()
+	{
+		double x = graphGapLeft + 8;
+		double y = graphGapTop + 8;
+		double lineHeight = getStringHeight() + 12;
+
+		drawLabel("Wasted: " + analyser.getWastedMillis() + "ms of " + analyser.getTotalMillis() + "ms compile time, "
+				+ analyser.getWastedBytes() + " of " + analyser.getTotalBytes() + " native bytes (" + analyser.getInvalidatedCount()
+				+ " invalidated, " + analyser.getRedundantCount() + " redundant)", x, y, Color.WHITE);
+
+		for (int i = 0; i < Math.min(WASTED_MEMBERS_SHOWN, ranked.size()); i++)
+		{
+			y += lineHeight;
+
+			TierMemberStats stats = ranked.get(i);
+
+			drawLabel(stats.getWastedMillis() + "ms " + stats.getMember().toStringUnqualifiedMethodName(false, false) + " : "
+					+ stats.getPath(), x, y, COLOUR_DEOPT);
+		}
+	}
+}
@@ -17,14 +17,12 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_NMETHOD;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_QUEUED;
 import static org.adoptopenjdk.jitwatch.util.UserInterfaceUtil.fix;
 
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
 import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.EventTimelineIndex;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
-import org.adoptopenjdk.jitwatch.model.JITEvent;
 import org.adoptopenjdk.jitwatch.model.JITStats;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.ui.main.JITWatchUI;
@@ -39,11 +37,20 @@ import javafx.scene.paint.Color;
 public class TimeLineStage extends AbstractGraphStage
 {
 	private IMetaMember selectedMember = null;
-	private int compilationIndex = 0;
 	private static final double MARKET_DIAMETER = 10;
 	private boolean labelLeft = true;
 
-	private boolean drawnQueueEvent = false;
+	private final EventTimelineIndex eventIndex = new EventTimelineIndex();
+
+	private int[] columnMinCounts = new int[0];
+	private int[] columnMaxCounts = new int[0];
+
+	// state of the last draw, the refresh timer skips redraws when unchanged
+	private boolean drawn = false;
+	private IMetaMember lastSelectedMember = null;
+	private Tag lastEndOfLogTag = null;
+	private double lastCanvasWidth;
+	private double lastCanvasHeight;
 
 	public TimeLineStage(final JITWatchUI parent)
 	{
@@ -68,6 +75,20 @@ public class TimeLineStage extends AbstractGraphStage
 	@Override
 	public final void redraw()
 	{
+		boolean newEvents = eventIndex.update(mainUI.getJITDataModel());
+
+		Tag endOfLogTag = mainUI.getJITDataModel().getEndOfLogTag();
+
+		if (!newEvents && !needsRedraw(endOfLogTag))
+		{
+			return;
+		}
+
+		lastSelectedMember = mainUI.getSelectedMember();
+		lastEndOfLogTag = endOfLogTag;
+		lastCanvasWidth = canvas.getWidth();
+		lastCanvasHeight = canvas.getHeight();
+
 		labelLeft = true;
 
 		super.baseRedraw();
@@ -79,48 +100,32 @@ public class TimeLineStage extends AbstractGraphStage
 			selectedMember = mainUI.getSelectedMember();
 		}
 
-		List<JITEvent> events = mainUI.getJITDataModel().getEventListCopy();
-
-		compilationIndex = 0;
-
-		if (events.size() > 0)
+		if (!eventIndex.isEmpty())
 		{
-			Collections.sort(events, new Comparator<JITEvent>()
-			{
-				@Override
-				public int compare(JITEvent e1, JITEvent e2)
-				{
-					return Long.compare(e1.getStamp(), e2.getStamp());
-				}
-			});
-
-			JITEvent firstEvent = events.get(0);
-			minX = firstEvent.getStamp();
+			minX = eventIndex.getFirstStamp();
 
-			Tag endOfLogTag = mainUI.getJITDataModel().getEndOfLogTag();
+			long lastEventStamp = eventIndex.getLastStamp();
 
-			JITEvent lastEvent = events.get(events.size() - 1);
-			
 			if (endOfLogTag != null)
 			{
 				maxX = getStampFromTag(endOfLogTag);
-				
-				long lastEventPlusPadding = (long)(lastEvent.getStamp() * 1.1);
-				
+
+				long lastEventPlusPadding = (long) (lastEventStamp * 1.1);
+
 				maxX = Math.min(maxX, lastEventPlusPadding);
 			}
 			else
 			{
-				maxX = lastEvent.getStamp();
+				maxX = lastEventStamp;
 			}
 
 			minY = 0;
 
-			calculateMaxCompiles(events);
+			maxY = eventIndex.size();
 
 			drawAxes();
 
-			drawEvents(events);
+			drawEvents();
 
 			showSelectedMemberLabel();
 		}
@@ -130,59 +135,48 @@ public class TimeLineStage extends AbstractGraphStage
 		}
 	}
 
-	private void calculateMaxCompiles(List<JITEvent> events)
+	private boolean needsRedraw(Tag endOfLogTag)
 	{
-		maxY = events.size();
+		return !drawn || lastSelectedMember != mainUI.getSelectedMember() || lastEndOfLogTag != endOfLogTag
+				|| lastCanvasWidth != canvas.getWidth() || lastCanvasHeight != canvas.getHeight();
 	}
 
-	private void drawMemberEvents(List<Compilation> compilations, long stamp, double yPos)
+	private void drawMemberEvents(List<Compilation> compilations)
 	{
-		if (compilationIndex >= compilations.size())
-		{
-			return;
-		}
-
-		Compilation compilation = compilations.get(compilationIndex);
-
-		if (!compilation.isC2N())
+		for (Compilation compilation : compilations)
 		{
-			if (!drawnQueueEvent)
+			if (compilation.isC2N())
 			{
-				Tag tagTaskQueued = compilation.getTagTaskQueued();
+				continue;
+			}
 
-				if (tagTaskQueued != null)
-				{
-					long tagTime = compilation.getStampTaskQueued();
+			Tag tagTaskQueued = compilation.getTagTaskQueued();
 
-					if (tagTime == stamp)
-					{
-						drawMemberEvent(compilation, tagTaskQueued, stamp, yPos);
-						drawnQueueEvent = true;
-					}
-				}
+			if (tagTaskQueued != null)
+			{
+				drawMemberEvent(compilation, tagTaskQueued);
 			}
 
 			Tag tagNMethod = compilation.getTagNMethod();
 
 			if (tagNMethod != null)
 			{
-				long tagTime = compilation.getStampTaskCompilationStart();
-
-				if (tagTime == stamp)
-				{
-					drawMemberEvent(compilation, tagNMethod, stamp, yPos);
-
-					compilationIndex++;
-					drawnQueueEvent = false;
-				}
+				drawMemberEvent(compilation, tagNMethod);
 			}
 		}
 	}
 
-	private void drawMemberEvent(Compilation compilation, Tag tag, long stamp, double yPos)
+	private void drawMemberEvent(Compilation compilation, Tag tag)
 	{
 		long journalEventTime = ParseUtil.getStamp(tag.getAttributes());
 
+		if (journalEventTime < minX || journalEventTime > maxX)
+		{
+			return;
+		}
+
+		double yPos = graphGapTop + normaliseY(eventIndex.countAtOrBefore(journalEventTime));
+
 		gc.setFill(Color.BLUE);
 
 		double smX = graphGapLeft + normaliseX(journalEventTime);
@@ -314,47 +308,66 @@ public class TimeLineStage extends AbstractGraphStage
 		return selectedItemBuilder.toString();
 	}
 
-	private void drawEvents(List<JITEvent> events)
+	private void drawEvents()
 	{
 		Color colourMarker = Color.BLUE;
 		double lineWidth = 2.0;
 
-		int cumC = 0;
+		double startX = graphGapLeft + normaliseX(minX);
+		double endX = graphGapLeft + normaliseX(maxX);
 
-		double lastCX = graphGapLeft + normaliseX(minX);
-		double lastCY = graphGapTop + normaliseY(0);
+		// one column per pixel so only the visible resolution is rendered
+		int columns = Math.max(1, (int) Math.ceil(endX - startX));
 
-		for (JITEvent event : events)
+		if (columnMinCounts.length < columns)
 		{
-			long stamp = event.getStamp();
+			columnMinCounts = new int[columns];
+			columnMaxCounts = new int[columns];
+		}
 
-			cumC++;
+		eventIndex.getColumnRanges(minX, maxX, columns, columnMinCounts, columnMaxCounts);
 
-			double x = graphGapLeft + normaliseX(stamp);
+		gc.setStroke(colourMarker);
+		gc.setLineWidth(lineWidth);
 
-			double y = graphGapTop + normaliseY(cumC);
+		double lastCX = startX;
+		double lastCY = graphGapTop + normaliseY(0);
 
-			if (selectedMember != null)
-			{
-				List<Compilation> compilations = selectedMember.getCompilations();
+		double columnWidth = (endX - startX) / columns;
 
-				if (!compilations.isEmpty())
-				{
-					drawMemberEvents(compilations, stamp, y);
-				}
-			}
+		for (int col = 0; col < columns; col++)
+		{
+			double x = startX + (col + 1) * columnWidth;
 
-			gc.setStroke(colourMarker);
-			gc.setLineWidth(lineWidth);
-			gc.strokeLine(fix(lastCX), fix(lastCY), fix(x), fix(y));
+			double yMin = graphGapTop + normaliseY(columnMinCounts[col]);
+			double yMax = graphGapTop + normaliseY(columnMaxCounts[col]);
+
+			gc.strokeLine(fix(lastCX), fix(lastCY), fix(x), fix(yMin));
+
+			if (yMax != yMin)
+			{
+				gc.strokeLine(fix(x), fix(yMin), fix(x), fix(yMax));
+			}
 
 			lastCX = x;
-			lastCY = y;
+			lastCY = yMax;
 		}
 
 		continueLineToEndOfXAxis(lastCX, lastCY, colourMarker, lineWidth);
 
+		if (selectedMember != null)
+		{
+			List<Compilation> compilations = selectedMember.getCompilations();
+
+			if (!compilations.isEmpty())
+			{
+				drawMemberEvents(compilations);
+			}
+		}
+
 		showStatsLegend(gc);
+
+		drawn = true;
 	}
 
 	private void showStatsLegend(GraphicsContext gc)
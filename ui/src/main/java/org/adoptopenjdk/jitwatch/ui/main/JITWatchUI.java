@@ -36,6 +36,7 @@ import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
 import org.adoptopenjdk.jitwatch.parser.ILogParser;
 import org.adoptopenjdk.jitwatch.parser.ParserFactory;
 import org.adoptopenjdk.jitwatch.parser.hotspot.HotSpotLogParser;
+import org.adoptopenjdk.jitwatch.phase.CompilationPhases;
 import org.adoptopenjdk.jitwatch.report.Report;
 import org.adoptopenjdk.jitwatch.report.comparator.ScoreComparator;
 import org.adoptopenjdk.jitwatch.report.escapeanalysis.eliminatedallocation.EliminatedAllocationWalker;
@@ -45,8 +46,12 @@ import org.adoptopenjdk.jitwatch.report.suggestion.SuggestionWalker;
 import org.adoptopenjdk.jitwatch.ui.Dialogs;
 import org.adoptopenjdk.jitwatch.ui.browser.BrowserStage;
 import org.adoptopenjdk.jitwatch.ui.compilechain.CompileChainStage;
+import org.adoptopenjdk.jitwatch.ui.diff.ModelDiffStage;
 import org.adoptopenjdk.jitwatch.ui.graphing.CodeCacheStage;
 import org.adoptopenjdk.jitwatch.ui.graphing.HistoStage;
+import org.adoptopenjdk.jitwatch.ui.graphing.PhaseWaterfallStage;
+import org.adoptopenjdk.jitwatch.ui.graphing.QueueBacklogStage;
+import org.adoptopenjdk.jitwatch.ui.graphing.TierTransitionStage;
 import org.adoptopenjdk.jitwatch.ui.graphing.TimeLineStage;
 import org.adoptopenjdk.jitwatch.ui.nmethod.codecache.CodeCacheLayoutStage;
 import org.adoptopenjdk.jitwatch.ui.nmethod.compilerthread.CompilerThreadStage;
@@ -162,6 +167,9 @@ public class JITWatchUI extends Application
 	private Button btnCodeCacheTimeline;
 	private Button btnNMethods;
 	private Button btnCompilerThreads;
+	private Button btnQueue;
+	private Button btnTiers;
+	private Button btnDiff;
 	private Button btnTriView;
 	private Button btnReportSuggestions;
 	private Button btnReportEliminatedAllocations;
@@ -178,6 +186,9 @@ public class JITWatchUI extends Application
 	private CodeCacheStage codeCacheTimelineStage;
 	private CodeCacheLayoutStage codeCacheBlocksStage;
 	private CompilerThreadStage compilerThreadStage;
+	private QueueBacklogStage queueBacklogStage;
+	private TierTransitionStage tierTransitionStage;
+	private ModelDiffStage modelDiffStage;
 	private TriView triViewStage;
 	private BrowserStage browserStage;
 
@@ -222,6 +233,18 @@ public class JITWatchUI extends Application
 
 	private void readLogFile()
 	{
+		ILogParser detectedParser = ParserFactory.getParser(this, jitLogFile);
+
+		// keep the current parser and its config unless the format differs
+		if (detectedParser.getClass() != logParser.getClass())
+		{
+			detectedParser.setConfig(logParser.getConfig());
+
+			logParser = detectedParser;
+
+			log("Reading " + jitLogFile.getName() + " with " + logParser.getClass().getSimpleName());
+		}
+
 		Thread jwThread = new Thread(new Runnable()
 		{
 			@Override
@@ -593,6 +616,53 @@ public class JITWatchUI extends Application
 			}
 		});
 
+		btnQueue = new Button("Queue");
+		btnQueue.setOnAction(new EventHandler<ActionEvent>()
+		{
+			@Override
+			public void handle(ActionEvent e)
+			{
+				queueBacklogStage = new QueueBacklogStage(JITWatchUI.this);
+
+				StageManager.addAndShow(JITWatchUI.this.stage, queueBacklogStage);
+
+				btnQueue.setDisable(true);
+			}
+		});
+
+		btnTiers = new Button("Tiers");
+		btnTiers.setOnAction(new EventHandler<ActionEvent>()
+		{
+			@Override
+			public void handle(ActionEvent e)
+			{
+				tierTransitionStage = new TierTransitionStage(JITWatchUI.this);
+
+				StageManager.addAndShow(JITWatchUI.this.stage, tierTransitionStage);
+
+				btnTiers.setDisable(true);
+			}
+		});
+
+		btnDiff = new Button("Diff");
+		btnDiff.setOnAction(new EventHandler<ActionEvent>()
+		{
+			@Override
+			public void handle(ActionEvent e)
+			{
+				File beforeLogFile = chooseLogFile("Choose JIT log to compare against (before)");
+
+				if (beforeLogFile != null)
+				{
+					modelDiffStage = new ModelDiffStage(JITWatchUI.this, beforeLogFile);
+
+					StageManager.addAndShow(JITWatchUI.this.stage, modelDiffStage);
+
+					btnDiff.setDisable(true);
+				}
+			}
+		});
+
 		btnTriView = new Button("TriView");
 		btnTriView.setOnAction(new EventHandler<ActionEvent>()
 		{
@@ -736,6 +806,9 @@ public class JITWatchUI extends Application
 		hboxTop.getChildren().add(btnCodeCacheTimeline);
 		hboxTop.getChildren().add(btnNMethods);
 		hboxTop.getChildren().add(btnCompilerThreads);
+		hboxTop.getChildren().add(btnQueue);
+		hboxTop.getChildren().add(btnTiers);
+		hboxTop.getChildren().add(btnDiff);
 		hboxTop.getChildren().add(btnTriView);
 		hboxTop.getChildren().add(btnReportSuggestions);
 		hboxTop.getChildren().add(btnReportEliminatedAllocations);
@@ -1127,6 +1200,18 @@ public class JITWatchUI extends Application
 		}
 	}
 
+	public void openPhaseWaterfall(CompilationPhases compilationPhases)
+	{
+		Compilation compilation = compilationPhases.getCompilation();
+
+		String title = "Compiler phases for " + compilation.getMember().toString() + " - Compilation "
+				+ compilation.getSignature();
+
+		PhaseWaterfallStage phaseWaterfallStage = new PhaseWaterfallStage(this, compilationPhases, title);
+
+		StageManager.addAndShow(this.stage, phaseWaterfallStage);
+	}
+
 	public void openJournalViewer(String title, IMetaMember member)
 	{
 		if (member.isCompiled())
@@ -1136,10 +1221,10 @@ public class JITWatchUI extends Application
 		}
 	}
 
-	private void chooseJITLog()
+	private File chooseLogFile(String title)
 	{
 		FileChooser fc = new FileChooser();
-		fc.setTitle("Choose JIT log file");
+		fc.setTitle(title);
 
 		String osNameProperty = System.getProperty("os.name");
 
@@ -1166,7 +1251,12 @@ public class JITWatchUI extends Application
 
 		fc.setInitialDirectory(dirFile);
 
-		File result = fc.showOpenDialog(stage);
+		return fc.showOpenDialog(stage);
+	}
+
+	private void chooseJITLog()
+	{
+		File result = chooseLogFile("Choose JIT log file");
 
 		if (result != null)
 		{
@@ -1320,6 +1410,16 @@ public class JITWatchUI extends Application
 			codeCacheTimelineStage.redraw();
 		}
 
+		if (queueBacklogStage != null)
+		{
+			queueBacklogStage.redraw();
+		}
+
+		if (tierTransitionStage != null)
+		{
+			tierTransitionStage.redraw();
+		}
+
 		if (statsStage != null)
 		{
 			statsStage.redraw();
@@ -1438,6 +1538,21 @@ public class JITWatchUI extends Application
 			btnCompilerThreads.setDisable(false);
 			compilerThreadStage = null;
 		}
+		else if (stage instanceof QueueBacklogStage)
+		{
+			btnQueue.setDisable(false);
+			queueBacklogStage = null;
+		}
+		else if (stage instanceof TierTransitionStage)
+		{
+			btnTiers.setDisable(false);
+			tierTransitionStage = null;
+		}
+		else if (stage instanceof ModelDiffStage)
+		{
+			btnDiff.setDisable(false);
+			modelDiffStage = null;
+		}
 		else if (stage instanceof TriView)
 		{
 			btnTriView.setDisable(false);
@@ -179,7 +179,7 @@ public abstract class AbstractNMethodStage extends Stage
 		}
 	}
 
-	private void selectCompilation(final IMetaMember member, final int index)
+	protected void selectCompilation(final IMetaMember member, final int index)
 	{
 		parent.selectCompilation(member, index);
 	}
@@ -5,14 +5,11 @@
  */
 package org.adoptopenjdk.jitwatch.ui.nmethod.compilerthread;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.adoptopenjdk.jitwatch.model.Compilation;
 import org.adoptopenjdk.jitwatch.model.CompilerThread;
+import org.adoptopenjdk.jitwatch.model.CompilerThreadSeries;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.ui.main.JITWatchUI;
 import org.adoptopenjdk.jitwatch.ui.nmethod.AbstractNMethodStage;
@@ -31,6 +28,7 @@ import javafx.scene.control.CheckBox;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.Toggle;
 import javafx.scene.control.ToggleGroup;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
@@ -69,35 +67,6 @@ public class CompilerThreadStage extends AbstractNMethodStage
 		NATIVE_SIZE, BYTECODE_SIZE, EXPANSIONS, TIMINGS, QUEUE_LENGTH
 	}
 
-	private class QueueCounter
-	{
-		private long timestamp;
-		private boolean add;
-		private Compilation compilation;
-
-		public QueueCounter(long timestamp, boolean add, Compilation compilation)
-		{
-			this.timestamp = timestamp;
-			this.add = add;
-			this.compilation = compilation;
-		}
-
-		public long getTimestamp()
-		{
-			return timestamp;
-		}
-
-		public boolean isAdd()
-		{
-			return add;
-		}
-
-		public Compilation getCompilation()
-		{
-			return compilation;
-		}
-	}
-
 	private PlotMode plotMode = PlotMode.NATIVE_SIZE;
 
 	public CompilerThreadStage(final JITWatchUI parent)
@@ -258,6 +227,11 @@ public class CompilerThreadStage extends AbstractNMethodStage
 
 		maxQueueLength = 0;
 
+		for (CompilerThread thread : threads)
+		{
+			maxQueueLength = Math.max(maxQueueLength, thread.getSeries().getMaxQueueDepth());
+		}
+
 		double usableHeight = rowHeight * 0.9;
 
 		double y = rowHeight / 2;
@@ -352,133 +326,137 @@ public class CompilerThreadStage extends AbstractNMethodStage
 
 	private void plotQueueLengths(CompilerThread thread, double y, double rowHeight)
 	{
-		List<QueueCounter> counters = getQueueCounters(thread);
-	
-		long lastTimestamp = -1;
+		CompilerThreadSeries series = thread.getSeries();
 
 		plotThreadHeader(thread, y, rowHeight);
 
-		//long timeBlocked = 0;
-
-		List<Compilation> liveQueue = new LinkedList<>();
-
 		double oneHeight = (1.0 / maxQueueLength) * rowHeight;
-		
+
 		oneHeight = Math.min(oneHeight, rowHeight / 20);
-				
-		IMetaMember selectedMember = parent.getSelectedMember();
 
-		Compilation selectedCompilation = (selectedMember == null) ? null : selectedMember.getSelectedCompilation();
+		double baseLine = y + rowHeight / 2;
 
-		for (QueueCounter counter : counters)
-		{
-			long timestamp = counter.getTimestamp();
-			
-			int queueLength = liveQueue.size();
+		int points = series.getQueuePointCount();
 
-			if (lastTimestamp != -1)
-			{
-				//long deltaTime = timestamp - lastTimestamp;
+		// merge steps narrower than a pixel keeping the deepest queue
+		double runStartX = -1;
+		long runStartStamp = 0;
+		int runMaxDepth = 0;
 
-				//timeBlocked += deltaTime;
+		for (int i = 0; i < points - 1; i++)
+		{
+			double x1 = getScaledTimestampX(series.getQueueStamp(i));
+			double x2 = getScaledTimestampX(series.getQueueStamp(i + 1));
 
-				double x1 = getScaledTimestampX(lastTimestamp);
-				double x2 = getScaledTimestampX(timestamp);
+			if (runStartX == -1)
+			{
+				runStartX = x1;
+				runStartStamp = series.getQueueStamp(i);
+				runMaxDepth = 0;
+			}
 
-				double baseLine = y + rowHeight / 2;
-				
-				boolean compilationMemberInQueue = false;
+			runMaxDepth = Math.max(runMaxDepth, series.getQueueDepth(i));
 
-				for (int i = 0; i < queueLength; i++)
+			if (x2 - runStartX >= 1 || i == points - 2)
+			{
+				if (runMaxDepth > 0)
 				{
-					Compilation compilation = liveQueue.get(i);
-					
-					double startY = baseLine - (i+1) * oneHeight;
-					
-					double rectWidth = x2 -x1;
-					
-					Rectangle rect = new Rectangle(x1, startY, rectWidth, oneHeight);
-				
-					Color fillColor = Color.WHITE;
-					
-					if (compilation.getMember().equals(selectedMember))
-					{
-						fillColor = COLOR_SELECTED_COMPILATION;
-						
-						compilationMemberInQueue = true;
-					}					
-					
-					rect.setFill(fillColor);					
+					double depthHeight = runMaxDepth * oneHeight;
+
+					Rectangle rect = new Rectangle(runStartX, baseLine - depthHeight, x2 - runStartX, depthHeight);
+					rect.setFill(Color.WHITE);
 					pane.getChildren().add(rect);
 
-					if (rectWidth > 4)
-					{
-						rect.setStroke(Color.BLACK);
-					}
-					
-					attachListener(rect, compilation);
+					attachQueueListener(rect, thread, runStartStamp, series.getQueueStamp(i + 1));
 				}
-				
-				if (compilationMemberInQueue)
+
+				runStartX = -1;
+			}
+		}
+
+		plotSelectedMemberQueued(thread, baseLine, oneHeight, y - rowHeight / 2);
+	}
+
+	// a merged rectangle selects the compilation queued longest at the clicked time
+	private void attachQueueListener(Rectangle rect, final CompilerThread thread, final long runStart, final long runEnd)
+	{
+		rect.setOnMouseClicked(new EventHandler<MouseEvent>()
+		{
+			@Override
+			public void handle(MouseEvent event)
+			{
+				long stamp = minTime + (long) (((event.getX() - getXOffset()) / panePlotWidth) * timeRange);
+
+				stamp = Math.max(runStart, Math.min(runEnd, stamp));
+
+				Compilation compilation = getQueuedCompilation(thread, stamp, runStart, runEnd);
+
+				if (compilation != null)
 				{
-					plotMarker(x1, y - rowHeight / 2, selectedCompilation, true);
+					selectCompilation(compilation.getMember(), compilation.getIndex());
 				}
 			}
-			
-			Compilation compilation = counter.getCompilation();
+		});
+	}
+
+	private Compilation getQueuedCompilation(CompilerThread thread, long stamp, long runStart, long runEnd)
+	{
+		Compilation queuedAtStamp = null;
+		Compilation queuedInRun = null;
 
-			if (counter.isAdd())
+		for (Compilation compilation : thread.getCompilations())
+		{
+			long queued = compilation.getStampTaskQueued();
+			long started = compilation.getStampTaskCompilationStart();
+
+			if (queued <= stamp && stamp < started)
 			{
-				liveQueue.add(compilation);
+				if (queuedAtStamp == null || queued < queuedAtStamp.getStampTaskQueued())
+				{
+					queuedAtStamp = compilation;
+				}
 			}
-			else
+			else if (queued < runEnd && started > runStart)
 			{
-				liveQueue.remove(compilation);
+				if (queuedInRun == null || queued < queuedInRun.getStampTaskQueued())
+				{
+					queuedInRun = compilation;
+				}
 			}
-			
-			lastTimestamp = timestamp;
-
-		} // end for
+		}
 
-		//System.out.println("Thread " + thread.getThreadName() + " blocked for " + timeBlocked);
+		return queuedAtStamp != null ? queuedAtStamp : queuedInRun;
 	}
 
-	private List<QueueCounter> getQueueCounters(CompilerThread thread)
+	private void plotSelectedMemberQueued(CompilerThread thread, double baseLine, double oneHeight, double markerY)
 	{
-		List<QueueCounter> result = new ArrayList<>();
+		IMetaMember selectedMember = parent.getSelectedMember();
 
-		for (Compilation compilation : thread.getCompilations())
+		if (selectedMember == null)
 		{
-			result.add(new QueueCounter(compilation.getStampTaskQueued(), true, compilation));
-			result.add(new QueueCounter(compilation.getStampTaskCompilationStart(), false, compilation));
+			return;
 		}
 
-		Collections.sort(result, new Comparator<QueueCounter>()
+		Compilation selectedCompilation = selectedMember.getSelectedCompilation();
+
+		for (Compilation compilation : selectedMember.getCompilations())
 		{
-			@Override
-			public int compare(QueueCounter q1, QueueCounter q2)
+			if (!thread.getCompilations().contains(compilation))
 			{
-				return Long.compare(q1.getTimestamp(), q2.getTimestamp());
+				continue;
 			}
-		});
 
-		int tempQueueLength = 0;
+			double x1 = getScaledTimestampX(compilation.getStampTaskQueued());
+			double x2 = getScaledTimestampX(compilation.getStampTaskCompilationStart());
 
-		for (QueueCounter counter : result)
-		{
-			if (counter.isAdd())
-			{
-				tempQueueLength++;
-			}
-			else
-			{
-				tempQueueLength--;
-			}
+			Rectangle rect = new Rectangle(x1, baseLine - oneHeight, Math.max(1, x2 - x1), oneHeight);
+			rect.setFill(COLOR_SELECTED_COMPILATION);
+			pane.getChildren().add(rect);
 
-			maxQueueLength = Math.max(tempQueueLength, maxQueueLength);
-		}
+			attachListener(rect, compilation);
 
-		return result;
+			plotMarker(x1, markerY, selectedCompilation, true);
+		}
 	}
 
 	private void plotThreadHeader(CompilerThread thread, double y, double rowHeight)
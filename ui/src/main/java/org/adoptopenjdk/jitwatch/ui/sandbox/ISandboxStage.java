@@ -6,11 +6,14 @@
 package org.adoptopenjdk.jitwatch.ui.sandbox;
 
 import java.io.File;
+import java.util.List;
 
 import javafx.stage.Stage;
 
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
+import org.adoptopenjdk.jitwatch.sweep.SweepResult;
+import org.adoptopenjdk.jitwatch.sweep.SweepSettings;
 
 public interface ISandboxStage extends ILogParseErrorListener
 {
@@ -22,6 +25,10 @@ public interface ISandboxStage extends ILogParseErrorListener
 
 	void runFile(EditorPane editor);
 
+	void runSweep(EditorPane editor, List<SweepSettings> configurations);
+
+	void showSweepResults(List<SweepResult> results);
+
 	void addSourceFolder(File dir);
 
 	Stage getStageForChooser();
@@ -49,6 +49,13 @@ public class SandboxConfigStage extends Stage
 	private CheckBox checkBoxPrintAssembly;
 	private CheckBox checkBoxDisableInlining;
 
+	private CheckBox checkBoxBenchmark;
+	private TextField txtBenchmarkMethod;
+	private TextField txtBenchmarkWarmup;
+	private TextField txtBenchmarkIterations;
+	private TextField txtBenchmarkMillis;
+	private TextField txtBenchmarkForks;
+
 	private IStageClosedListener closedListener;
 	private JITWatchConfig config;
 	private FileChooserList chooserClasses;
@@ -69,7 +76,7 @@ public class SandboxConfigStage extends Stage
 
 		VBox vbox = new VBox();
 
-		scene = UserInterfaceUtil.getScene(vbox, 620, 550);
+		scene = UserInterfaceUtil.getScene(vbox, 620, 590);
 
 		setScene(scene);
 
@@ -104,6 +111,8 @@ public class SandboxConfigStage extends Stage
 
 		vbox.getChildren().add(buildHBoxExtraSwitches());
 
+		vbox.getChildren().add(buildHBoxBenchmark());
+
 		vbox.getChildren().add(buildHBoxButtons());
 
 		setTitle("Sandbox Configuration");
@@ -126,6 +135,8 @@ public class SandboxConfigStage extends Stage
 
 				setExtraVMSwitches(config);
 
+				setBenchmarkSettings(config);
+
 				config.setPrintAssembly(checkBoxPrintAssembly.isSelected());
 				config.setDisableInlining(checkBoxDisableInlining.isSelected());
 
@@ -162,6 +173,30 @@ public class SandboxConfigStage extends Stage
 		}
 	}
 
+	private void setBenchmarkSettings(JITWatchConfig config)
+	{
+		config.setBenchmarkMode(checkBoxBenchmark.isSelected());
+
+		String method = txtBenchmarkMethod.getText().trim();
+
+		if (!method.isEmpty())
+		{
+			config.setBenchmarkMethod(method);
+		}
+
+		try
+		{
+			config.setBenchmarkWarmupIterations(Integer.parseInt(txtBenchmarkWarmup.getText()));
+			config.setBenchmarkIterations(Integer.parseInt(txtBenchmarkIterations.getText()));
+			config.setBenchmarkIterationMillis(Integer.parseInt(txtBenchmarkMillis.getText()));
+			config.setBenchmarkForks(Integer.parseInt(txtBenchmarkForks.getText()));
+		}
+		catch (NumberFormatException nfe)
+		{
+			logger.error("Bad benchmark value", nfe);
+		}
+	}
+
 	private void setExtraVMSwitches(JITWatchConfig config)
 	{
 		config.setExtraVMSwitches(txtExtraSwitches.getText().trim());
@@ -544,6 +579,50 @@ public class SandboxConfigStage extends Stage
 		return hbox;
 	}
 
+	private HBox buildHBoxBenchmark()
+	{
+		HBox hbox = new HBox();
+		hbox.setSpacing(4);
+		hbox.setAlignment(Pos.BASELINE_LEFT);
+
+		checkBoxBenchmark = new CheckBox("Benchmark");
+		checkBoxBenchmark.setTooltip(new Tooltip("Run a no-argument method in a warm-up and measurement harness instead of main"));
+		checkBoxBenchmark.setMinWidth(labelWidth - 4);
+		checkBoxBenchmark.setSelected(config.isBenchmarkMode());
+
+		txtBenchmarkMethod = buildBenchmarkField(config.getBenchmarkMethod(), 90);
+		txtBenchmarkWarmup = buildBenchmarkField(Integer.toString(config.getBenchmarkWarmupIterations()), 40);
+		txtBenchmarkIterations = buildBenchmarkField(Integer.toString(config.getBenchmarkIterations()), 40);
+		txtBenchmarkMillis = buildBenchmarkField(Integer.toString(config.getBenchmarkIterationMillis()), 50);
+		txtBenchmarkForks = buildBenchmarkField(Integer.toString(config.getBenchmarkForks()), 40);
+
+		txtBenchmarkMethod.setAlignment(Pos.BASELINE_LEFT);
+
+		hbox.getChildren().add(checkBoxBenchmark);
+		hbox.getChildren().add(new Label("Method:"));
+		hbox.getChildren().add(txtBenchmarkMethod);
+		hbox.getChildren().add(new Label("Warm-up:"));
+		hbox.getChildren().add(txtBenchmarkWarmup);
+		hbox.getChildren().add(new Label("Iterations:"));
+		hbox.getChildren().add(txtBenchmarkIterations);
+		hbox.getChildren().add(new Label("ms:"));
+		hbox.getChildren().add(txtBenchmarkMillis);
+		hbox.getChildren().add(new Label("Forks:"));
+		hbox.getChildren().add(txtBenchmarkForks);
+
+		return hbox;
+	}
+
+	private TextField buildBenchmarkField(String text, int width)
+	{
+		TextField textField = new TextField(text);
+		textField.setMaxWidth(width);
+		textField.setAlignment(Pos.BASELINE_RIGHT);
+		textField.disableProperty().bind(checkBoxBenchmark.selectedProperty().not());
+
+		return textField;
+	}
+
 	private ChangeListener<Toggle> getChangeListenerForGroupOops(final RadioButton rbVMDefault, final RadioButton rbForceCompressed,
 			final RadioButton rbForceNoCompressed, final ToggleGroup groupOops)
 	{
@@ -35,6 +35,8 @@ import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
 import org.adoptopenjdk.jitwatch.parser.ILogParser;
 import org.adoptopenjdk.jitwatch.process.IExternalProcess;
 import org.adoptopenjdk.jitwatch.sandbox.Sandbox;
+import org.adoptopenjdk.jitwatch.sweep.SweepResult;
+import org.adoptopenjdk.jitwatch.sweep.SweepSettings;
 import org.adoptopenjdk.jitwatch.ui.Dialogs;
 import org.adoptopenjdk.jitwatch.ui.Dialogs.Response;
 import org.adoptopenjdk.jitwatch.ui.main.IStageAccessProxy;
@@ -63,6 +65,7 @@ import javafx.scene.control.SplitPane;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.control.TextArea;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -88,6 +91,10 @@ public class SandboxStage extends Stage implements ISandboxStage, IStageClosedLi
 	
 	private Button btnRun;
 
+	private Button btnSweep;
+
+	private SweepStage sweepStage;
+
 	private SandboxConfigStage sandboxConfigStage;
 
 	private ObservableList<String> languageList = FXCollections.observableArrayList();
@@ -279,6 +286,28 @@ public class SandboxStage extends Stage implements ISandboxStage, IStageClosedLi
 			}
 		});
 
+		btnSweep = new Button("Sweep");
+		btnSweep.setTooltip(new Tooltip("Run the selected file under many JIT flag combinations and compare"));
+		btnSweep.setOnAction(new EventHandler<ActionEvent>()
+		{
+			@Override
+			public void handle(ActionEvent e)
+			{
+				Tab selectedTab = tabPane.getSelectionModel().getSelectedItem();
+
+				if (selectedTab != null)
+				{
+					EditorPane pane = (EditorPane) selectedTab.getContent();
+
+					sweepStage = new SweepStage(SandboxStage.this, SandboxStage.this, pane, config);
+
+					StageManager.addAndShow(SandboxStage.this, sweepStage, SandboxStage.this);
+
+					btnSweep.setDisable(true);
+				}
+			}
+		});
+
 		Button btnOutput = new Button("View Output");
 		btnOutput.setOnAction(new EventHandler<ActionEvent>()
 		{
@@ -318,6 +347,7 @@ public class SandboxStage extends Stage implements ISandboxStage, IStageClosedLi
 		hBoxTools.getChildren().add(btnResetSandbox);
 		hBoxTools.getChildren().add(comboBoxVMLanguage);
 		hBoxTools.getChildren().add(btnRun);
+		hBoxTools.getChildren().add(btnSweep);
 		hBoxTools.getChildren().add(btnOutput);		
 		
 		Region spacer = new Region();
@@ -351,6 +381,8 @@ public class SandboxStage extends Stage implements ISandboxStage, IStageClosedLi
 			{
 				saveEditorPaneConfig();
 
+				sandbox.cancelSweep();
+
 				closeListener.handleStageClosed(SandboxStage.this);
 			}
 		});
@@ -408,6 +440,68 @@ public class SandboxStage extends Stage implements ISandboxStage, IStageClosedLi
 		}).start();
 	}
 
+	@Override
+	public void runSweep(final EditorPane pane, final List<SweepSettings> configurations)
+	{
+		if (pane.isModified())
+		{
+			pane.promptSave();
+		}
+
+		setVMLanguage(pane);
+
+		saveUnsavedEditors();
+
+		new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				List<SweepResult> results = new ArrayList<>();
+
+				try
+				{
+					clearLog();
+
+					String language = comboBoxVMLanguage.getValue();
+
+					List<File> compileList = buildCompileList(language);
+
+					if (compileList.size() > 0)
+					{
+						results = sandbox.runSweep(language, compileList, pane.getSourceFile(), configurations);
+					}
+					else
+					{
+						log("Nothing to compile?");
+					}
+				}
+				catch (Exception e)
+				{
+					logger.error("Sandbox sweep failure", e);
+				}
+
+				showSweepResults(results);
+			}
+		}).start();
+	}
+
+	@Override
+	public void showSweepResults(final List<SweepResult> results)
+	{
+		Platform.runLater(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				if (sweepStage != null)
+				{
+					sweepStage.showResults(results);
+				}
+			}
+		});
+	}
+
 	private void initialiseLog()
 	{
 		taLog.setText(S_EMPTY);
@@ -535,35 +629,13 @@ public class SandboxStage extends Stage implements ISandboxStage, IStageClosedLi
 	{
 		try
 		{
-			Platform.runLater(new Runnable()
-			{
-				@Override
-				public void run()
-				{
-					taLog.setText(S_EMPTY);
-				}
-			});
+			clearLog();
 
 			String language = comboBoxVMLanguage.getValue();
 
 			if (language != null)
 			{
-				List<File> compileList = new ArrayList<>();
-
-				for (Tab tab : tabPane.getTabs())
-				{
-					EditorPane pane = (EditorPane) tab.getContent();
-
-					File sourceFile = pane.getSourceFile();
-
-					if (sourceFile != null)
-					{
-						if (LanguageManager.isCompilable(language, sourceFile))
-						{
-							compileList.add(sourceFile);
-						}
-					}
-				}
+				List<File> compileList = buildCompileList(language);
 
 				if (compileList.size() > 0)
 				{
@@ -581,6 +653,43 @@ public class SandboxStage extends Stage implements ISandboxStage, IStageClosedLi
 		}
 	}
 
+	private void clearLog()
+	{
+		Platform.runLater(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				taLog.setText(S_EMPTY);
+			}
+		});
+	}
+
+	private List<File> buildCompileList(String language)
+	{
+		List<File> compileList = new ArrayList<>();
+
+		if (language != null)
+		{
+			for (Tab tab : tabPane.getTabs())
+			{
+				EditorPane pane = (EditorPane) tab.getContent();
+
+				File sourceFile = pane.getSourceFile();
+
+				if (sourceFile != null)
+				{
+					if (LanguageManager.isCompilable(language, sourceFile))
+					{
+						compileList.add(sourceFile);
+					}
+				}
+			}
+		}
+
+		return compileList;
+	}
+
 	@Override
 	public void addSourceFolder(File sourceFolder)
 	{
@@ -669,7 +778,15 @@ public class SandboxStage extends Stage implements ISandboxStage, IStageClosedLi
 	{
 		StageManager.closeStage(stage);
 
-		if (stage instanceof SandboxConfigStage)
+		if (stage instanceof SweepStage)
+		{
+			// closing the sweep window stops a sweep still running
+			sandbox.cancelSweep();
+
+			sweepStage = null;
+			btnSweep.setDisable(false);
+		}
+		else if (stage instanceof SandboxConfigStage)
 		{
 			btnSandboxConfig.setDisable(false);
 		}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.ui.sandbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig.CompressedOops;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig.TieredCompilation;
+import org.adoptopenjdk.jitwatch.sweep.FlagSweep;
+import org.adoptopenjdk.jitwatch.sweep.SweepResult;
+import org.adoptopenjdk.jitwatch.sweep.SweepSettings;
+import org.adoptopenjdk.jitwatch.ui.stage.IStageClosedListener;
+import org.adoptopenjdk.jitwatch.util.UserInterfaceUtil;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.stage.WindowEvent;
+
+public class SweepStage extends Stage
+{
+	private static final String DEFAULT_DISPLAY_STYLE = "-fx-padding:0px 8px 0px 0px";
+
+	private static final int labelWidth = 160;
+
+	private final ISandboxStage sandboxStage;
+	private final EditorPane editorPane;
+	private final SweepSettings baseline;
+
+	private CheckBox cbTieredDefault;
+	private CheckBox cbTieredForce;
+	private CheckBox cbTieredNever;
+
+	private CheckBox cbOopsDefault;
+	private CheckBox cbOopsForce;
+	private CheckBox cbOopsNever;
+
+	private TextField txtFreqInline;
+	private TextField txtMaxInline;
+	private TextField txtCompileThreshold;
+	private TextField txtExtraSwitches;
+
+	private Label lblCount;
+	private Button btnRunSweep;
+
+	private TableView<SweepTableRow> tableView;
+	private ObservableList<SweepTableRow> obList = FXCollections.observableArrayList();
+
+	public SweepStage(final IStageClosedListener closedListener, ISandboxStage sandboxStage, EditorPane editorPane,
+			JITWatchConfig config)
+	{
+		this.sandboxStage = sandboxStage;
+		this.editorPane = editorPane;
+		this.baseline = SweepSettings.fromConfig(config);
+
+		initStyle(StageStyle.DECORATED);
+
+		VBox vbox = new VBox();
+
+		Scene scene = UserInterfaceUtil.getScene(vbox, 1024, 600);
+
+		vbox.setPadding(new Insets(2, 8, 2, 8));
+		vbox.setSpacing(10);
+
+		ChangeListener<Object> countListener = new ChangeListener<Object>()
+		{
+			@Override
+			public void changed(ObservableValue<? extends Object> observable, Object oldValue, Object newValue)
+			{
+				updateCount();
+			}
+		};
+
+		cbTieredDefault = buildCheckBox("VM Default", null, baseline.getTieredMode() == TieredCompilation.VM_DEFAULT, countListener);
+		cbTieredForce = buildCheckBox("Always", "-XX:+TieredCompilation", baseline.getTieredMode() == TieredCompilation.FORCE_TIERED,
+				countListener);
+		cbTieredNever = buildCheckBox("Never", "-XX:-TieredCompilation",
+				baseline.getTieredMode() == TieredCompilation.FORCE_NO_TIERED, countListener);
+
+		cbOopsDefault = buildCheckBox("VM Default", null, baseline.getCompressedOopsMode() == CompressedOops.VM_DEFAULT,
+				countListener);
+		cbOopsForce = buildCheckBox("Always", "-XX:+UseCompressedOops",
+				baseline.getCompressedOopsMode() == CompressedOops.FORCE_COMPRESSED, countListener);
+		cbOopsNever = buildCheckBox("Never", "-XX:-UseCompressedOops",
+				baseline.getCompressedOopsMode() == CompressedOops.FORCE_NO_COMPRESSED, countListener);
+
+		txtFreqInline = buildTextField(Integer.toString(baseline.getFreqInlineSize()), countListener);
+		txtMaxInline = buildTextField(Integer.toString(baseline.getMaxInlineSize()), countListener);
+		txtCompileThreshold = buildTextField(Integer.toString(baseline.getCompileThreshold()), countListener);
+		txtExtraSwitches = buildTextField(baseline.getExtraVMSwitches(), countListener);
+
+		vbox.getChildren().add(buildHBox("Tiered Compilation:", cbTieredDefault, cbTieredForce, cbTieredNever));
+		vbox.getChildren().add(buildHBox("Compressed Oops:", cbOopsDefault, cbOopsForce, cbOopsNever));
+		vbox.getChildren().add(buildHBox("FreqInlineSize:", txtFreqInline));
+		vbox.getChildren().add(buildHBox("MaxInlineSize:", txtMaxInline));
+		vbox.getChildren().add(buildHBox("CompileThreshold:", txtCompileThreshold));
+		vbox.getChildren().add(buildHBox("Extra VM switches:", txtExtraSwitches));
+
+		Label lblHelp = new Label("Sizes and thresholds accept lists and ranges e.g. 100,325 or 100-400:100. Separate sets of extra switches with ;");
+
+		lblCount = new Label();
+
+		btnRunSweep = new Button("Run Sweep");
+		btnRunSweep.setOnAction(new EventHandler<ActionEvent>()
+		{
+			@Override
+			public void handle(ActionEvent e)
+			{
+				List<SweepSettings> configurations = buildConfigurations();
+
+				if (configurations != null)
+				{
+					btnRunSweep.setDisable(true);
+					obList.clear();
+
+					SweepStage.this.sandboxStage.runSweep(SweepStage.this.editorPane, configurations);
+				}
+			}
+		});
+
+		HBox hboxRun = new HBox();
+		hboxRun.setSpacing(20);
+		hboxRun.getChildren().add(btnRunSweep);
+		hboxRun.getChildren().add(lblCount);
+
+		vbox.getChildren().add(lblHelp);
+		vbox.getChildren().add(hboxRun);
+
+		tableView = SweepTableBuilder.buildTableSweep(obList);
+
+		VBox.setVgrow(tableView, Priority.ALWAYS);
+
+		vbox.getChildren().add(tableView);
+
+		setTitle("Sandbox Sweep - " + editorPane.getName());
+
+		setScene(scene);
+
+		setOnCloseRequest(new EventHandler<WindowEvent>()
+		{
+			@Override
+			public void handle(WindowEvent arg0)
+			{
+				closedListener.handleStageClosed(SweepStage.this);
+			}
+		});
+
+		updateCount();
+	}
+
+	private CheckBox buildCheckBox(String text, String tooltip, boolean selected, ChangeListener<Object> listener)
+	{
+		CheckBox checkBox = new CheckBox(text);
+		checkBox.setSelected(selected);
+		checkBox.setStyle(DEFAULT_DISPLAY_STYLE);
+
+		if (tooltip != null)
+		{
+			checkBox.setTooltip(new Tooltip(tooltip));
+		}
+
+		checkBox.selectedProperty().addListener(listener);
+
+		return checkBox;
+	}
+
+	private TextField buildTextField(String text, ChangeListener<Object> listener)
+	{
+		TextField textField = new TextField(text);
+		textField.setPrefWidth(400);
+		textField.textProperty().addListener(listener);
+
+		return textField;
+	}
+
+	private HBox buildHBox(String labelText, Node... nodes)
+	{
+		HBox hbox = new HBox();
+
+		Label label = new Label(labelText);
+		label.setMinWidth(labelWidth);
+
+		hbox.getChildren().add(label);
+
+		for (Node node : nodes)
+		{
+			hbox.getChildren().add(node);
+		}
+
+		return hbox;
+	}
+
+	private FlagSweep buildSweep()
+	{
+		FlagSweep sweep = new FlagSweep(baseline);
+
+		List<TieredCompilation> tieredModes = new ArrayList<>();
+
+		if (cbTieredDefault.isSelected())
+		{
+			tieredModes.add(TieredCompilation.VM_DEFAULT);
+		}
+
+		if (cbTieredForce.isSelected())
+		{
+			tieredModes.add(TieredCompilation.FORCE_TIERED);
+		}
+
+		if (cbTieredNever.isSelected())
+		{
+			tieredModes.add(TieredCompilation.FORCE_NO_TIERED);
+		}
+
+		List<CompressedOops> oopsModes = new ArrayList<>();
+
+		if (cbOopsDefault.isSelected())
+		{
+			oopsModes.add(CompressedOops.VM_DEFAULT);
+		}
+
+		if (cbOopsForce.isSelected())
+		{
+			oopsModes.add(CompressedOops.FORCE_COMPRESSED);
+		}
+
+		if (cbOopsNever.isSelected())
+		{
+			oopsModes.add(CompressedOops.FORCE_NO_COMPRESSED);
+		}
+
+		sweep.setTieredModes(tieredModes);
+		sweep.setCompressedOopsModes(oopsModes);
+		sweep.setFreqInlineSizes(FlagSweep.parseIntValues(txtFreqInline.getText()));
+		sweep.setMaxInlineSizes(FlagSweep.parseIntValues(txtMaxInline.getText()));
+		sweep.setCompileThresholds(FlagSweep.parseIntValues(txtCompileThreshold.getText()));
+		sweep.setExtraVMSwitches(FlagSweep.parseSwitchValues(txtExtraSwitches.getText()));
+
+		return sweep;
+	}
+
+	private void updateCount()
+	{
+		try
+		{
+			long count = buildSweep().getConfigurationCount();
+
+			if (count > FlagSweep.MAX_CONFIGURATIONS)
+			{
+				lblCount.setText("More than " + FlagSweep.MAX_CONFIGURATIONS + " configurations (maximum is "
+						+ FlagSweep.MAX_CONFIGURATIONS + ")");
+				btnRunSweep.setDisable(true);
+			}
+			else
+			{
+				lblCount.setText(count + " configurations");
+				btnRunSweep.setDisable(false);
+			}
+		}
+		catch (NumberFormatException nfe)
+		{
+			lblCount.setText("Invalid value: " + nfe.getMessage());
+			btnRunSweep.setDisable(true);
+		}
+	}
+
+	private List<SweepSettings> buildConfigurations()
+	{
+		try
+		{
+			FlagSweep sweep = buildSweep();
+
+			if (sweep.getConfigurationCount() <= FlagSweep.MAX_CONFIGURATIONS)
+			{
+				return sweep.expand();
+			}
+		}
+		catch (NumberFormatException nfe)
+		{
+			lblCount.setText("Invalid value: " + nfe.getMessage());
+		}
+
+		return null;
+	}
+
+	public void showResults(List<SweepResult> results)
+	{
+		obList.clear();
+
+		for (SweepResult result : results)
+		{
+			obList.add(new SweepTableRow(result));
+		}
+
+		updateCount();
+	}
+}
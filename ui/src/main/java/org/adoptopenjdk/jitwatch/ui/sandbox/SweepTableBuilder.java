@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.ui.sandbox;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+
+public final class SweepTableBuilder
+{
+	private SweepTableBuilder()
+	{
+	}
+
+	public static TableView<SweepTableRow> buildTableSweep(ObservableList<SweepTableRow> rows)
+	{
+		TableView<SweepTableRow> tv = new TableView<>();
+
+		tv.getColumns().add(buildColumn(tv, "Log", "log", 0.08));
+		tv.getColumns().add(buildColumn(tv, "Tiered", "tiered", 0.07));
+		tv.getColumns().add(buildColumn(tv, "Oops", "oops", 0.08));
+		tv.getColumns().add(buildColumn(tv, "FreqInline", "freqInlineSize", 0.07));
+		tv.getColumns().add(buildColumn(tv, "MaxInline", "maxInlineSize", 0.07));
+		tv.getColumns().add(buildColumn(tv, "Threshold", "compileThreshold", 0.07));
+		tv.getColumns().add(buildColumn(tv, "Extra", "extraSwitches", 0.10));
+		tv.getColumns().add(buildColumn(tv, "Status", "status", 0.06));
+		tv.getColumns().add(buildColumn(tv, "Run (ms)", "runTime", 0.06));
+		tv.getColumns().add(buildColumn(tv, "Compilations", "compilations", 0.07));
+		tv.getColumns().add(buildColumn(tv, "Inlined", "inlined", 0.06));
+		tv.getColumns().add(buildColumn(tv, "Not Inlined", "notInlined", 0.06));
+		tv.getColumns().add(buildColumn(tv, "Native Bytes", "nativeSize", 0.07));
+		tv.getColumns().add(buildColumn(tv, "JIT Time (ms)", "compileTime", 0.07));
+
+		tv.setItems(rows);
+
+		return tv;
+	}
+
+	private static TableColumn<SweepTableRow, Object> buildColumn(TableView<SweepTableRow> tv, String title, String property,
+			double widthFraction)
+	{
+		TableColumn<SweepTableRow, Object> column = new TableColumn<SweepTableRow, Object>(title);
+		column.setCellValueFactory(new PropertyValueFactory<SweepTableRow, Object>(property));
+		column.prefWidthProperty().bind(tv.widthProperty().multiply(widthFraction));
+
+		return column;
+	}
+}
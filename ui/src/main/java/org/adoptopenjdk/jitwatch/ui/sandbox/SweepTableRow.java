@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018 Chris Newland.
+ * Licensed under https://github.com/AdoptOpenJDK/jitwatch/blob/master/LICENSE-BSD
+ * Instructions: https://github.com/AdoptOpenJDK/jitwatch/wiki
+ */
+package org.adoptopenjdk.jitwatch.ui.sandbox;
+
+import org.adoptopenjdk.jitwatch.sweep.SweepResult;
+import org.adoptopenjdk.jitwatch.sweep.SweepSettings;
+
+public class SweepTableRow
+{
+	private final SweepResult result;
+	private final SweepSettings settings;
+
+	public SweepTableRow(SweepResult result)
+	{
+		this.result = result;
+		this.settings = result.getSettings();
+	}
+
+	public SweepResult getResult()
+	{
+		return result;
+	}
+
+	public String getLog()
+	{
+		return result.getLogFile().getName();
+	}
+
+	public String getTiered()
+	{
+		return settings.getTieredLabel();
+	}
+
+	public String getOops()
+	{
+		return settings.getCompressedOopsLabel();
+	}
+
+	public Integer getFreqInlineSize()
+	{
+		return settings.getFreqInlineSize();
+	}
+
+	public Integer getMaxInlineSize()
+	{
+		return settings.getMaxInlineSize();
+	}
+
+	public Integer getCompileThreshold()
+	{
+		return settings.getCompileThreshold();
+	}
+
+	public String getExtraSwitches()
+	{
+		return settings.getExtraVMSwitches();
+	}
+
+	public String getStatus()
+	{
+		return result.isSuccess() ? "OK" : result.getFailureMessage();
+	}
+
+	public Long getRunTime()
+	{
+		return result.getExecutionMillis();
+	}
+
+	public Integer getCompilations()
+	{
+		return result.getCompilations();
+	}
+
+	public Integer getInlined()
+	{
+		return result.getInlineSuccessCount();
+	}
+
+	public Integer getNotInlined()
+	{
+		return result.getInlineFailCount();
+	}
+
+	public Long getNativeSize()
+	{
+		return result.getTotalNativeSize();
+	}
+
+	public Long getCompileTime()
+	{
+		return result.getTotalCompileMillis();
+	}
+}
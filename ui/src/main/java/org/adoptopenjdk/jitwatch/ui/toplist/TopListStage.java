@@ -35,13 +35,19 @@ import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
 import org.adoptopenjdk.jitwatch.toplist.AbstractTopListVisitable;
 import org.adoptopenjdk.jitwatch.toplist.CompileTimeTopListVisitable;
 import org.adoptopenjdk.jitwatch.toplist.CompiledAttributeTopListVisitable;
+import org.adoptopenjdk.jitwatch.toplist.CompilerPhaseTopListVisitable;
+import org.adoptopenjdk.jitwatch.toplist.DeoptChurnTopListVisitable;
+import org.adoptopenjdk.jitwatch.toplist.DeoptReasonTopListVisitable;
 import org.adoptopenjdk.jitwatch.toplist.HotThrowTopListVisitable;
 import org.adoptopenjdk.jitwatch.toplist.ITopListScore;
 import org.adoptopenjdk.jitwatch.toplist.InliningFailReasonTopListVisitable;
 import org.adoptopenjdk.jitwatch.toplist.MemberScore;
 import org.adoptopenjdk.jitwatch.toplist.MostUsedIntrinsicsTopListVisitable;
 import org.adoptopenjdk.jitwatch.toplist.NativeMethodSizeTopListVisitable;
+import org.adoptopenjdk.jitwatch.toplist.PhaseNodeCountTopListVisitable;
+import org.adoptopenjdk.jitwatch.toplist.PhaseTimeTopListVisitable;
 import org.adoptopenjdk.jitwatch.toplist.StaleTaskToplistVisitable;
+import org.adoptopenjdk.jitwatch.toplist.TieredWasteTopListVisitable;
 import org.adoptopenjdk.jitwatch.ui.main.IMemberSelectedListener;
 import org.adoptopenjdk.jitwatch.util.UserInterfaceUtil;
 
@@ -116,6 +122,24 @@ public class TopListStage extends Stage
 		TopListWrapper tlStaleTasks = new TopListWrapper("Most Stale Tasks", new StaleTaskToplistVisitable(model, true),
 				new String[] { "Count", "Member" });
 
+		TopListWrapper tlDeoptChurn = new TopListWrapper("Deoptimisation Recompile Churn",
+				new DeoptChurnTopListVisitable(model, true), new String[] { "Recompiles", MEMBER });
+
+		TopListWrapper tlDeoptReasons = new TopListWrapper("Uncommon Trap Reasons", new DeoptReasonTopListVisitable(model, true),
+				new String[] { "Count", "Reason" });
+
+		TopListWrapper tlCompilerPhases = new TopListWrapper("Most Expensive Compiler Phases",
+				new CompilerPhaseTopListVisitable(model, true), new String[] { "Self Time (ms)", "Phase" });
+
+		TopListWrapper tlPhaseTime = new TopListWrapper("Longest Compiler Phase Time", new PhaseTimeTopListVisitable(model, true),
+				new String[] { "Time (ms)", MEMBER });
+
+		TopListWrapper tlPhaseNodes = new TopListWrapper("Largest C2 IR Node Counts",
+				new PhaseNodeCountTopListVisitable(model, true), new String[] { "Nodes", MEMBER });
+
+		TopListWrapper tlTieredWaste = new TopListWrapper("Wasted Tiered Compile Time",
+				new TieredWasteTopListVisitable(model, true), new String[] { "Wasted (ms)", MEMBER });
+
 		final Map<String, TopListWrapper> attrMap = new HashMap<>();
 
 		attrMap.put(tlLargestNative.getTitle(), tlLargestNative);
@@ -128,6 +152,12 @@ public class TopListStage extends Stage
 		attrMap.put(tlCompilationOrder.getTitle(), tlCompilationOrder);
 		attrMap.put(tlCompilationOrderOSR.getTitle(), tlCompilationOrderOSR);
 		attrMap.put(tlStaleTasks.getTitle(), tlStaleTasks);
+		attrMap.put(tlDeoptChurn.getTitle(), tlDeoptChurn);
+		attrMap.put(tlDeoptReasons.getTitle(), tlDeoptReasons);
+		attrMap.put(tlCompilerPhases.getTitle(), tlCompilerPhases);
+		attrMap.put(tlPhaseTime.getTitle(), tlPhaseTime);
+		attrMap.put(tlPhaseNodes.getTitle(), tlPhaseNodes);
+		attrMap.put(tlTieredWaste.getTitle(), tlTieredWaste);
 
 		VBox vbox = new VBox();
 		vbox.setPadding(new Insets(8));
@@ -31,6 +31,7 @@ import org.adoptopenjdk.jitwatch.model.bytecode.LineTable;
 import org.adoptopenjdk.jitwatch.model.bytecode.LineTableEntry;
 import org.adoptopenjdk.jitwatch.model.bytecode.MemberBytecode;
 import org.adoptopenjdk.jitwatch.model.bytecode.SourceMapper;
+import org.adoptopenjdk.jitwatch.phase.CompilationPhases;
 import org.adoptopenjdk.jitwatch.ui.Dialogs;
 import org.adoptopenjdk.jitwatch.ui.compilationchooser.CompilationChooser;
 import org.adoptopenjdk.jitwatch.ui.main.ICompilationChangeListener;
@@ -98,6 +99,7 @@ public class TriView extends Stage implements ILineListener, ICompilationChangeL
 	private Button btnJITJournal;
 	private Button btnLineTable;
 	private Button btnInlinedInto;
+	private Button btnPhases;
 
 	private ObservableList<IMetaMember> comboMemberList = FXCollections.observableArrayList();
 	private ComboBox<IMetaMember> comboMember;
@@ -217,6 +219,32 @@ public class TriView extends Stage implements ILineListener, ICompilationChangeL
 		});
 		btnInlinedInto.setTooltip(new Tooltip("Show where this method was inlined into"));
 
+		btnPhases = new Button("Phases");
+		btnPhases.setOnAction(new EventHandler<ActionEvent>()
+		{
+			@Override
+			public void handle(ActionEvent e)
+			{
+				if (currentMember != null)
+				{
+					Compilation selectedCompilation = currentMember.getSelectedCompilation();
+
+					CompilationPhases compilationPhases = CompilationPhases.build(selectedCompilation);
+
+					if (compilationPhases != null)
+					{
+						parent.openPhaseWaterfall(compilationPhases);
+					}
+					else
+					{
+						Dialogs.showOKDialog(TriView.this, "No compiler phases",
+								"No compiler phases were logged for the selected compilation");
+					}
+				}
+			}
+		});
+		btnPhases.setTooltip(new Tooltip("Show the compiler phase times and node counts of the selected compilation"));
+
 		compilationInfo = new CompilationInfo();
 
 		Region spacerTop = new Region();
@@ -232,6 +260,7 @@ public class TriView extends Stage implements ILineListener, ICompilationChangeL
 		hBoxToolBarButtons.getChildren().add(btnJITJournal);
 		hBoxToolBarButtons.getChildren().add(btnLineTable);
 		hBoxToolBarButtons.getChildren().add(btnInlinedInto);
+		hBoxToolBarButtons.getChildren().add(btnPhases);
 		hBoxToolBarButtons.getChildren().add(checkMouseover);
 		hBoxToolBarButtons.getChildren().add(spacerBottom);
 		hBoxToolBarButtons.getChildren().add(compilationInfo);
@@ -710,6 +739,8 @@ public class TriView extends Stage implements ILineListener, ICompilationChangeL
 		btnLineTable.setDisable(currentMember == null);
 
 		btnInlinedInto.setDisable(currentMember == null);
+
+		btnPhases.setDisable(!isCompiled);
 	}
 
 	private void applyActionsIfOffsetMismatchDetected(StringBuilder statusBarBuilder)